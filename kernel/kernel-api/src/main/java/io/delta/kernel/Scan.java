@@ -24,6 +24,7 @@ import io.delta.kernel.internal.InternalScanFileUtils;
 import io.delta.kernel.internal.actions.DeletionVectorDescriptor;
 import io.delta.kernel.internal.data.ScanStateRow;
 import io.delta.kernel.internal.data.SelectionColumnVector;
+import io.delta.kernel.internal.deletionvectors.DeletionVectorLoader;
 import io.delta.kernel.internal.deletionvectors.DeletionVectorUtils;
 import io.delta.kernel.internal.deletionvectors.RoaringBitmapArray;
 import io.delta.kernel.internal.util.ColumnMapping.ColumnMappingMode;
@@ -33,6 +34,8 @@ import io.delta.kernel.types.StructField;
 import io.delta.kernel.types.StructType;
 import io.delta.kernel.utils.CloseableIterator;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -117,6 +120,43 @@ public interface Scan {
    */
   Row getScanState(Engine engine);
 
+  /**
+   * Load the deletion vectors of the selected scan files of a batch returned by {@link
+   * #getScanFiles(Engine)} ahead of {@link #transformPhysicalData}. The deletion vectors are read
+   * with a single {@link io.delta.kernel.engine.FileSystemClient#readFiles} call, reading the
+   * deletion vectors stored in the same file together, and cached so that {@link
+   * #transformPhysicalData} doesn't read them again one at a time. Calling this method is optional,
+   * and does nothing if the engine doesn't cache deletion vectors (see {@link
+   * Engine#getDeletionVectorCacheSizeInBytes()}).
+   *
+   * @param engine {@link Engine} instance to use in Delta Kernel.
+   * @param scanState Scan state returned by {@link Scan#getScanState(Engine)}
+   * @param scanFileBatch Batch of scan files returned by {@link #getScanFiles(Engine)}
+   * @throws IOException when error occurs while reading the deletion vectors.
+   * @since 3.3.0
+   */
+  static void loadDeletionVectors(Engine engine, Row scanState, FilteredColumnarBatch scanFileBatch)
+      throws IOException {
+    DeletionVectorLoader loader = DeletionVectorLoader.forEngine(engine);
+    if (!loader.isCaching()) {
+      // the loaded bitmaps would be read again by transformPhysicalData
+      return;
+    }
+    List<DeletionVectorDescriptor> dvs = new ArrayList<>();
+    try (CloseableIterator<Row> scanFiles = scanFileBatch.getRows()) {
+      while (scanFiles.hasNext()) {
+        DeletionVectorDescriptor dv =
+            InternalScanFileUtils.getDeletionVectorDescriptorFromRow(scanFiles.next());
+        if (dv != null) {
+          dvs.add(dv);
+        }
+      }
+    }
+    if (!dvs.isEmpty()) {
+      loader.loadAll(engine.getFileSystemClient(), ScanStateRow.getTableRoot(scanState), dvs);
+    }
+  }
+
   /**
    * Transform the physical data read from the table data file into the logical data that expected
    * out of the Delta table.
@@ -195,10 +235,13 @@ public interface Scan {
             this.currBitmap = dvInfo._2;
           }
           ColumnVector rowIndexVector = nextDataBatch.getColumnVector(rowIndexOrdinal);
-          selectionVector = Optional.of(new SelectionColumnVector(currBitmap, rowIndexVector));
+          selectionVector = SelectionColumnVector.forDeletionVector(currBitmap, rowIndexVector);
         }
         if (rowIndexOrdinal != -1) {
+          // the row indexes are not returned, release their vector (e.g. pooled buffers)
+          ColumnVector rowIndexVector = nextDataBatch.getColumnVector(rowIndexOrdinal);
           nextDataBatch = nextDataBatch.withDeletedColumnAt(rowIndexOrdinal);
+          rowIndexVector.close();
         }
 
         // Add partition columns
@@ -18,6 +18,7 @@ package io.delta.kernel;
 
 import io.delta.kernel.annotation.Evolving;
 import io.delta.kernel.engine.Engine;
+import io.delta.kernel.exceptions.TableNotFoundException;
 import io.delta.kernel.types.StructType;
 
 /**
@@ -51,4 +52,20 @@ public interface Snapshot {
    * @return an instance of {@link ScanBuilder}
    */
   ScanBuilder getScanBuilder(Engine engine);
+
+  /**
+   * Get the latest snapshot of the table by applying the commits newer than this snapshot to it.
+   * Only the commits newer than this snapshot are listed and read. The active data files of this
+   * snapshot are kept in memory and updated with the file actions of the newer commits, so that
+   * scanning the returned snapshot doesn't replay the whole Delta log.
+   *
+   * <p>The first update of a snapshot loads the active data files of this snapshot, which costs as
+   * much as a scan of it. Later updates of the returned snapshot only read the newer commits.
+   *
+   * @param engine {@link Engine} instance to use in Delta Kernel.
+   * @return the latest snapshot of the table, or this snapshot if there are no newer commits
+   * @throws TableNotFoundException if the table is not found
+   * @since 3.3.0
+   */
+  Snapshot update(Engine engine) throws TableNotFoundException;
 }
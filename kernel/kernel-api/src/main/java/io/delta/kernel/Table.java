@@ -143,4 +143,25 @@ public interface Table {
    */
   void checkpoint(Engine engine, long version)
       throws TableNotFoundException, CheckpointAlreadyExistsException, IOException;
+
+  /**
+   * Compact the commits from {@code startVersion} to {@code endVersion} (both inclusive) of the
+   * table into a single log compaction file. Reads of the table then replay the compaction file
+   * instead of the individual commits, as long as they are newer than the checkpoint the read
+   * starts from. It does nothing if the log compaction file already exists.
+   *
+   * <p>The connector can write log compactions asynchronously to the commits, for example when a
+   * transaction built with {@link TransactionBuilder#withLogCompactionInterval(Engine, int)}
+   * returns {@link TransactionCommitResult#isReadyForLogCompaction()}.
+   *
+   * @param engine {@link Engine} instance to use.
+   * @param startVersion First commit version to compact.
+   * @param endVersion Last commit version to compact. Must be greater than {@code startVersion}.
+   * @throws TableNotFoundException if the table is not found
+   * @throws KernelException if the version range is invalid or a commit in the range is missing
+   * @throws IOException for any I/O error.
+   * @since 3.3.0
+   */
+  void compactLog(Engine engine, long startVersion, long endVersion)
+      throws TableNotFoundException, IOException;
 }
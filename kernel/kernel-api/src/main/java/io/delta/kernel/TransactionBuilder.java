@@ -82,6 +82,20 @@ public interface TransactionBuilder {
    */
   TransactionBuilder withTableProperties(Engine engine, Map<String, String> properties);
 
+  /**
+   * Set the number of commits after which the table is ready for a log compaction. When a
+   * transaction commits as version {@code v} such that {@code (v + 1)} is a multiple of the
+   * interval, {@link TransactionCommitResult#isReadyForLogCompaction()} returns true and the
+   * connector can compact the commits {@code v - interval + 1} to {@code v} using {@link
+   * Table#compactLog(Engine, long, long)}. Log compaction is disabled by default.
+   *
+   * @param engine {@link Engine} instance to use.
+   * @param logCompactionInterval the number of commits to compact together. Must be at least 2.
+   * @return updated {@link TransactionBuilder} instance.
+   * @since 3.3.0
+   */
+  TransactionBuilder withLogCompactionInterval(Engine engine, int logCompactionInterval);
+
   /**
    * Build the transaction. Also validates the given info to ensure that a valid transaction can be
    * created.
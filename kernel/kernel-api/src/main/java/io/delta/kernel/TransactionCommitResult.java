@@ -29,10 +29,18 @@ import io.delta.kernel.utils.CloseableIterable;
 public class TransactionCommitResult {
   private final long version;
   private final boolean isReadyForCheckpoint;
+  private final boolean isReadyForLogCompaction;
 
   public TransactionCommitResult(long version, boolean isReadyForCheckpoint) {
+    this(version, isReadyForCheckpoint, false /* isReadyForLogCompaction */);
+  }
+
+  /** @since 3.3.0 */
+  public TransactionCommitResult(
+      long version, boolean isReadyForCheckpoint, boolean isReadyForLogCompaction) {
     this.version = version;
     this.isReadyForCheckpoint = isReadyForCheckpoint;
+    this.isReadyForLogCompaction = isReadyForLogCompaction;
   }
 
   /**
@@ -54,4 +62,17 @@ public class TransactionCommitResult {
   public boolean isReadyForCheckpoint() {
     return isReadyForCheckpoint;
   }
+
+  /**
+   * Is the table ready for log compaction (i.e. the transaction completes a log compaction interval
+   * set with {@link TransactionBuilder#withLogCompactionInterval(Engine, int)})? If yes the
+   * connector can choose to compact the last {@code interval} commits, up to the version the
+   * transaction is committed as, using {@link Table#compactLog(Engine, long, long)}.
+   *
+   * @return Is the table ready for log compaction?
+   * @since 3.3.0
+   */
+  public boolean isReadyForLogCompaction() {
+    return isReadyForLogCompaction;
+  }
 }
@@ -29,7 +29,7 @@ import java.util.NoSuchElementException;
  * @since 3.0.0
  */
 @Evolving
-public interface ColumnarBatch {
+public interface ColumnarBatch extends AutoCloseable {
   /** @return the schema of the data in this batch. */
   StructType getSchema();
 
@@ -97,6 +97,15 @@ public interface ColumnarBatch {
     throw new UnsupportedOperationException("Not yet implemented!");
   }
 
+  /**
+   * Release the resources of this batch, e.g. by closing its {@link ColumnVector}s. The batch and
+   * its column vectors are not usable after this. The default implementation releases nothing.
+   *
+   * @since 3.3.0
+   */
+  @Override
+  default void close() {}
+
   /** @return iterator of {@link Row}s in this batch */
   default CloseableIterator<Row> getRows() {
     final ColumnarBatch batch = this;
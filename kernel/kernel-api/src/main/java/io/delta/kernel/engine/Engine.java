@@ -17,7 +17,10 @@
 package io.delta.kernel.engine;
 
 import io.delta.kernel.annotation.Evolving;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Interface encapsulating all clients needed by the Delta Kernel in order to read the Delta table.
@@ -76,4 +79,39 @@ public interface Engine {
    */
   CommitCoordinatorClientHandler getCommitCoordinatorClientHandler(
       String name, Map<String, String> conf);
+
+  /**
+   * Get the connector provided {@link ScanFilesCache}, if any. Scanning a table version whose
+   * active data files are in the cache doesn't read the Delta log.
+   *
+   * @return An implementation of {@link ScanFilesCache}, or empty to not cache the scan files.
+   * @since 3.3.0
+   */
+  default Optional<ScanFilesCache> getScanFilesCache() {
+    return Optional.empty();
+  }
+
+  /**
+   * Get the connector provided {@link MetricsReporter}s, which receive the metrics reports of the
+   * snapshots loaded, the scans planned and the transactions committed with this engine.
+   *
+   * @return A list of {@link MetricsReporter}s, empty to not report metrics.
+   * @since 3.3.0
+   */
+  default List<MetricsReporter> getMetricsReporters() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Get the maximum total size of the deletion vectors whose decoded bitmaps are cached for the
+   * scans with this engine, so that the deletion vectors shared by multiple data files or read by
+   * multiple scans are read and decoded only once.
+   *
+   * @return The maximum total serialized size of the cached deletion vectors in bytes, {@code 0} to
+   *     not cache them.
+   * @since 3.3.0
+   */
+  default long getDeletionVectorCacheSizeInBytes() {
+    return 0;
+  }
 }
@@ -90,6 +90,19 @@ public interface JsonHandler {
       Optional<Predicate> predicate)
       throws IOException;
 
+  /**
+   * Get the number of files this handler reads ahead of their consumer. During log replay, Kernel
+   * issues the {@link #readJsonFiles} calls of up to this many commit files ahead of the one being
+   * consumed, so that a handler that prefetches can fetch them concurrently.
+   *
+   * @return the number of files read ahead, 0 if the handler only reads a file when its iterator
+   *     is consumed
+   * @since 3.3.0
+   */
+  default int getReadAheadFileCount() {
+    return 0;
+  }
+
   /**
    * Serialize each {@code Row} in the iterator as JSON and write as a separate line in destination
    * file. This call either succeeds in creating the file with given contents or no file is created
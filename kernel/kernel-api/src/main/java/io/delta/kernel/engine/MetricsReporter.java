@@ -0,0 +1,41 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.engine;
+
+import io.delta.kernel.annotation.Evolving;
+import io.delta.kernel.metrics.MetricsReport;
+
+/**
+ * Receives the {@link MetricsReport}s of the operations of Delta Kernel, e.g. to publish them to a
+ * monitoring system. Connectors can provide implementations through {@link
+ * Engine#getMetricsReporters()}.
+ *
+ * <p>Reports are delivered synchronously on the thread doing the operation, so implementations
+ * should not block. Exceptions thrown by an implementation are logged and otherwise ignored.
+ * Implementations must be thread-safe.
+ *
+ * @since 3.3.0
+ */
+@Evolving
+public interface MetricsReporter {
+  /**
+   * Report the metrics of an operation.
+   *
+   * @param report the report, one of {@link io.delta.kernel.metrics.SnapshotReport}, {@link
+   *     io.delta.kernel.metrics.ScanReport} or {@link io.delta.kernel.metrics.TransactionReport}
+   */
+  void report(MetricsReport report);
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.engine;
+
+import io.delta.kernel.Scan;
+import io.delta.kernel.annotation.Evolving;
+import io.delta.kernel.data.FilteredColumnarBatch;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cache of the active data files (AddFiles) of table versions, as reconciled by the log replay.
+ * Connectors can provide an implementation through {@link Engine#getScanFilesCache()} so that
+ * scanning the same version of a table again doesn't replay the Delta log.
+ *
+ * <p>The cached batches have the schema of the scan files returned by {@link
+ * Scan#getScanFiles(Engine)}, with the JSON statistics column {@code add.stats}. Partition pruning
+ * and data skipping are applied by Delta Kernel on the batches returned by the cache.
+ *
+ * <p>Implementations must be thread-safe.
+ *
+ * @since 3.3.0
+ */
+@Evolving
+public interface ScanFilesCache {
+  /**
+   * Get the active data files of the given version of the table, if cached.
+   *
+   * @param tablePath fully qualified path of the table
+   * @param tableId id of the table, from its metadata. A table recreated at the same path has a
+   *     different id.
+   * @param version version of the table
+   * @return the batches of active data files, or empty if not cached. The batches must not be
+   *     modified by the caller.
+   */
+  Optional<List<FilteredColumnarBatch>> get(String tablePath, String tableId, long version);
+
+  /**
+   * Start offering the active data files of the given version of the table to the cache. Delta
+   * Kernel adds the batches of active data files to the returned entry as the log replay produces
+   * them, and commits the entry once all of them are added. The cache may give up on the entry at
+   * any point, e.g. once the added data files don't fit in the memory reserved for the cache, and
+   * may store them in a different (e.g. more compact) form as long as the same rows are selected.
+   *
+   * @param tablePath fully qualified path of the table
+   * @param tableId id of the table, from its metadata
+   * @param version version of the table
+   * @return the entry to add the batches of active data files to
+   */
+  Entry newEntry(String tablePath, String tableId, long version);
+
+  /**
+   * The active data files of a table version being offered to a {@link ScanFilesCache}.
+   *
+   * @since 3.3.0
+   */
+  @Evolving
+  interface Entry {
+    /**
+     * Add a batch of active data files to the entry.
+     *
+     * @param activeAddFiles batch of active data files. Only the selected rows are active data
+     *     files. The batch is not modified by Delta Kernel afterwards.
+     * @return false if the cache gave up on the entry, in which case no more batches are added and
+     *     the entry is not committed
+     */
+    boolean add(FilteredColumnarBatch activeAddFiles);
+
+    /** Put the entry, with all the active data files of the table version, in the cache. */
+    void commit();
+  }
+}
@@ -0,0 +1,422 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal;
+
+import static io.delta.kernel.internal.DeltaErrors.wrapEngineExceptionThrowsIO;
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static io.delta.kernel.internal.util.Utils.singletonCloseableIterator;
+import static io.delta.kernel.internal.util.Utils.toCloseableIterator;
+
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.data.Row;
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.internal.DeltaHistoryManager.Commit;
+import io.delta.kernel.internal.data.GenericRow;
+import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.util.FileNames;
+import io.delta.kernel.types.LongType;
+import io.delta.kernel.types.StructType;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of the commit timestamps of a table, to find the commit active at a timestamp without
+ * listing the whole `_delta_log` directory.
+ *
+ * <p>The index is made of JSON files in the `_delta_log/_commit_timestamps` directory, each one
+ * with the version and timestamp of every commit in a range of {@link #SEGMENT_SIZE} versions
+ * starting at a multiple of {@link #SEGMENT_SIZE}. The files are only written once all the commits
+ * of their range exist and are never modified, so the index covers a prefix of the log and the
+ * commits after it are listed as before. The name of a file has the start version of its range and
+ * the timestamp of its first commit, so that finding the file to read for a timestamp only needs
+ * the listing of the index files.
+ *
+ * <p>The timestamps are the commit file modification times, monotonized in the same way as {@link
+ * DeltaHistoryManager} does from the first indexed commit. They are recorded when the file is
+ * written, and are only used for the versions that still exist in the log.
+ */
+public class CommitTimestampIndex {
+  private static final Logger logger = LoggerFactory.getLogger(CommitTimestampIndex.class);
+
+  /** Number of versions covered by each index file. */
+  public static final int SEGMENT_SIZE = 1000;
+
+  private static final StructType SCHEMA =
+      new StructType()
+          .add("version", LongType.LONG, false /* nullable */)
+          .add("timestamp", LongType.LONG, false /* nullable */);
+
+  /**
+   * Load the index of the table with the given log path.
+   *
+   * @return the index, or empty if the table has no index files.
+   */
+  public static Optional<CommitTimestampIndex> load(Engine engine, Path logPath)
+      throws IOException {
+    List<Segment> segments = listSegments(engine, logPath);
+    if (segments.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(new CommitTimestampIndex(engine, segments));
+  }
+
+  /**
+   * Write the index files of the oldest complete ranges of versions up to and including the given
+   * version which are not indexed yet, at most {@code maxNewSegments} of them. The ranges left out
+   * are indexed by the next updates. Failures are logged and don't fail the caller, as the index is
+   * only an optimization.
+   *
+   * @param engine {@link Engine} instance to use
+   * @param logPath the _delta_log path of the table
+   * @param version latest version known to be committed
+   * @param maxNewSegments maximum number of index files to write
+   */
+  public static void update(Engine engine, Path logPath, long version, int maxNewSegments) {
+    try {
+      int numWritten = writeSegments(engine, logPath, version, maxNewSegments);
+      if (numWritten > 0) {
+        logger.info(
+            "{}: Wrote {} commit timestamp index files up to version {}",
+            logPath,
+            numWritten,
+            version);
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn(
+          "{}: Failed to update the commit timestamp index to version {}", logPath, version, e);
+    }
+  }
+
+  /** Index files, sorted by start version. The ranges of the files are contiguous. */
+  private final List<Segment> segments;
+
+  private final Engine engine;
+
+  private CommitTimestampIndex(Engine engine, List<Segment> segments) {
+    this.engine = engine;
+    this.segments = segments;
+  }
+
+  /** Returns the first indexed version. */
+  public long getFirstVersion() throws IOException {
+    return segments.get(0).load(engine).getFirstVersion();
+  }
+
+  /** Returns the last indexed version. */
+  public long getLastVersion() {
+    return segments.get(segments.size() - 1).startVersion + SEGMENT_SIZE - 1;
+  }
+
+  /** Returns the indexed commit of the given version. */
+  public Commit getCommit(long version) throws IOException {
+    checkArgument(
+        version >= getFirstVersion() && version <= getLastVersion(),
+        "version %s is not indexed",
+        version);
+    return segments.get(segmentIndexOf(version)).load(engine).getCommit(version);
+  }
+
+  /**
+   * Returns the latest indexed commit at or after {@code fromVersion} that happened at or before
+   * {@code timestamp}, or empty if the commit of {@code fromVersion} happened after it.
+   */
+  public Optional<Commit> lastCommitBeforeOrAtTimestamp(long fromVersion, long timestamp)
+      throws IOException {
+    // the last index file starting at or before the timestamp
+    int low = 0;
+    int high = segments.size() - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (segments.get(mid).firstTimestamp <= timestamp) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    // the timestamps increase with the versions across the files, so the commit is in that file
+    // unless all the commits from `fromVersion` happened after the timestamp
+    int index = Math.max(low, segmentIndexOf(fromVersion));
+    return segments.get(index).load(engine).lastCommitBeforeOrAtTimestamp(fromVersion, timestamp);
+  }
+
+  private int segmentIndexOf(long version) {
+    return (int) ((version - segments.get(0).startVersion) / SEGMENT_SIZE);
+  }
+
+  /** Lists the index files, keeping the ones with contiguous ranges from the first one. */
+  private static List<Segment> listSegments(Engine engine, Path logPath) throws IOException {
+    List<Segment> segments = new ArrayList<>();
+    try (CloseableIterator<FileStatus> files =
+        wrapEngineExceptionThrowsIO(
+            () ->
+                engine
+                    .getFileSystemClient()
+                    .listFrom(FileNames.commitTimestampsListingPrefix(logPath)),
+            "Listing the commit timestamp index files of %s",
+            logPath)) {
+      while (files.hasNext()) {
+        FileStatus file = files.next();
+        if (!FileNames.isCommitTimestampsFile(file.getPath())) {
+          continue;
+        }
+        Segment segment = new Segment(file);
+        if (!segments.isEmpty()) {
+          long expectedStartVersion = segments.get(segments.size() - 1).endVersion();
+          if (segment.startVersion < expectedStartVersion) {
+            // another file written concurrently for the same range
+            continue;
+          }
+          if (segment.startVersion > expectedStartVersion) {
+            logger.warn(
+                "{}: Missing commit timestamp index file for version {}",
+                logPath,
+                expectedStartVersion);
+            break;
+          }
+        }
+        segments.add(segment);
+      }
+    } catch (FileNotFoundException e) {
+      // the table has no index
+    }
+    return segments;
+  }
+
+  private static int writeSegments(Engine engine, Path logPath, long version, int maxNewSegments)
+      throws IOException {
+    List<Segment> segments = listSegments(engine, logPath);
+    long startVersion;
+    long prevTimestamp;
+    if (segments.isEmpty()) {
+      startVersion = 0;
+      prevTimestamp = Long.MIN_VALUE;
+    } else {
+      Segment lastSegment = segments.get(segments.size() - 1);
+      startVersion = lastSegment.endVersion();
+      prevTimestamp = lastSegment.load(engine).getLastTimestamp();
+    }
+    long endVersion = (version + 1) / SEGMENT_SIZE * SEGMENT_SIZE;
+    // without an index, the first range to write is only known from the earliest commit
+    if (!segments.isEmpty()) {
+      endVersion = Math.min(endVersion, startVersion + (long) maxNewSegments * SEGMENT_SIZE);
+    }
+    if (startVersion >= endVersion) {
+      return 0;
+    }
+
+    int numWritten = 0;
+    try (CloseableIterator<FileStatus> files =
+        wrapEngineExceptionThrowsIO(
+            () ->
+                engine
+                    .getFileSystemClient()
+                    .listFrom(FileNames.listingPrefix(logPath, startVersion)),
+            "Listing files in the delta log starting from %s",
+            FileNames.listingPrefix(logPath, startVersion))) {
+      List<Row> rows = new ArrayList<>();
+      // the next version to index, unknown until the first commit when there is no index yet
+      long expectedVersion = segments.isEmpty() ? -1 : startVersion;
+      long segmentStartVersion = startVersion;
+      while (files.hasNext()) {
+        FileStatus file = files.next();
+        if (!FileNames.isCommitFile(file.getPath())) {
+          continue;
+        }
+        long commitVersion = FileNames.deltaVersion(file.getPath());
+        if (commitVersion >= endVersion) {
+          break;
+        }
+        if (expectedVersion < 0) {
+          // the earliest commit of the table, whose range may have been cleaned up partially
+          segmentStartVersion = commitVersion / SEGMENT_SIZE * SEGMENT_SIZE;
+          endVersion =
+              Math.min(endVersion, segmentStartVersion + (long) maxNewSegments * SEGMENT_SIZE);
+          if (commitVersion >= endVersion) {
+            break;
+          }
+        } else if (commitVersion != expectedVersion) {
+          logger.warn("{}: Missing commit file for version {}", logPath, expectedVersion);
+          return numWritten;
+        }
+        long timestamp = Math.max(prevTimestamp + 1, file.getModificationTime());
+        rows.add(toRow(commitVersion, timestamp));
+        prevTimestamp = timestamp;
+        expectedVersion = commitVersion + 1;
+
+        if (expectedVersion == segmentStartVersion + SEGMENT_SIZE) {
+          if (segments.isEmpty() && numWritten == 0) {
+            createIndexDirectory(engine, logPath);
+          }
+          writeSegment(engine, logPath, segmentStartVersion, rows);
+          numWritten++;
+          rows = new ArrayList<>();
+          segmentStartVersion = expectedVersion;
+        }
+      }
+    }
+    return numWritten;
+  }
+
+  private static void createIndexDirectory(Engine engine, Path logPath) throws IOException {
+    Path indexPath = new Path(logPath, FileNames.COMMIT_TIMESTAMPS_DIRECTORY);
+    if (!wrapEngineExceptionThrowsIO(
+        () -> engine.getFileSystemClient().mkdirs(indexPath.toString()),
+        "Creating directories for path %s",
+        indexPath)) {
+      throw new IOException("Failed to create the commit timestamp index directory: " + indexPath);
+    }
+  }
+
+  private static void writeSegment(Engine engine, Path logPath, long startVersion, List<Row> rows)
+      throws IOException {
+    long firstTimestamp = rows.get(0).getLong(1);
+    Path path = FileNames.commitTimestampsFile(logPath, startVersion, firstTimestamp);
+    try {
+      wrapEngineExceptionThrowsIO(
+          () -> {
+            engine
+                .getJsonHandler()
+                .writeJsonFileAtomically(
+                    path.toString(), toCloseableIterator(rows.iterator()), false /* overwrite */);
+            return null;
+          },
+          "Writing commit timestamp index file `%s`",
+          path);
+    } catch (FileAlreadyExistsException e) {
+      // written concurrently by another writer
+    }
+  }
+
+  private static Row toRow(long version, long timestamp) {
+    Map<Integer, Object> values = new HashMap<>();
+    values.put(0, version);
+    values.put(1, timestamp);
+    return new GenericRow(SCHEMA, values);
+  }
+
+  /** An index file, and its commits once read. */
+  private static class Segment {
+    final FileStatus file;
+    final long startVersion;
+    final long firstTimestamp;
+    private SegmentCommits commits;
+
+    Segment(FileStatus file) {
+      this.file = file;
+      this.startVersion = FileNames.commitTimestampsStartVersion(file.getPath());
+      this.firstTimestamp = FileNames.commitTimestampsFirstTimestamp(file.getPath());
+    }
+
+    long endVersion() {
+      return startVersion + SEGMENT_SIZE;
+    }
+
+    SegmentCommits load(Engine engine) throws IOException {
+      if (commits == null) {
+        commits = SegmentCommits.read(engine, this);
+      }
+      return commits;
+    }
+  }
+
+  /** The commits of an index file, which are the contiguous versions up to the end of its range. */
+  private static class SegmentCommits {
+    final long firstVersion;
+    final long[] timestamps;
+
+    SegmentCommits(long firstVersion, long[] timestamps) {
+      this.firstVersion = firstVersion;
+      this.timestamps = timestamps;
+    }
+
+    static SegmentCommits read(Engine engine, Segment segment) throws IOException {
+      List<Long> versions = new ArrayList<>();
+      List<Long> timestamps = new ArrayList<>();
+      try (CloseableIterator<ColumnarBatch> batches =
+          wrapEngineExceptionThrowsIO(
+              () ->
+                  engine
+                      .getJsonHandler()
+                      .readJsonFiles(
+                          singletonCloseableIterator(segment.file), SCHEMA, Optional.empty()),
+              "Reading commit timestamp index file `%s`",
+              segment.file.getPath())) {
+        while (batches.hasNext()) {
+          try (CloseableIterator<Row> rows = batches.next().getRows()) {
+            while (rows.hasNext()) {
+              Row row = rows.next();
+              versions.add(row.getLong(0));
+              timestamps.add(row.getLong(1));
+            }
+          }
+        }
+      }
+
+      long firstVersion = segment.endVersion() - versions.size();
+      if (versions.isEmpty()) {
+        throw new IllegalStateException(
+            "Empty commit timestamp index file: " + segment.file.getPath());
+      }
+      for (int i = 0; i < versions.size(); i++) {
+        if (versions.get(i) != firstVersion + i
+            || (i == 0 && timestamps.get(i) != segment.firstTimestamp)
+            || (i > 0 && timestamps.get(i) <= timestamps.get(i - 1))) {
+          throw new IllegalStateException(
+              "Invalid commit timestamp index file: " + segment.file.getPath());
+        }
+      }
+      return new SegmentCommits(
+          firstVersion, timestamps.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    long getFirstVersion() {
+      return firstVersion;
+    }
+
+    long getLastTimestamp() {
+      return timestamps[timestamps.length - 1];
+    }
+
+    Commit getCommit(long version) {
+      return new Commit(version, timestamps[(int) (version - firstVersion)]);
+    }
+
+    Optional<Commit> lastCommitBeforeOrAtTimestamp(long fromVersion, long timestamp) {
+      int from = (int) Math.max(0, fromVersion - firstVersion);
+      if (from >= timestamps.length) {
+        return Optional.empty();
+      }
+      // the index of the first commit after the timestamp
+      int low = from;
+      int high = timestamps.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (timestamps[mid] <= timestamp) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low == from ? Optional.empty() : Optional.of(getCommit(firstVersion + low - 1));
+    }
+  }
+}
@@ -139,6 +139,15 @@ public final class DeltaErrors {
 
   /* ------------------------ PROTOCOL EXCEPTIONS ----------------------------- */
 
+  public static KernelException invalidLogCompactionRange(long startVersion, long endVersion) {
+    String message =
+        String.format(
+            "Invalid log compaction range: [%s, %s]. Requires startVersion >= 0 and "
+                + "endVersion > startVersion.",
+            startVersion, endVersion);
+    return new KernelException(message);
+  }
+
   public static KernelException unsupportedReaderProtocol(
       String tablePath, int tableReaderVersion) {
     String message =
@@ -17,6 +17,7 @@ package io.delta.kernel.internal;
 
 import static io.delta.kernel.internal.DeltaErrors.wrapEngineExceptionThrowsIO;
 import static io.delta.kernel.internal.fs.Path.getName;
+import static io.delta.kernel.internal.util.Utils.toCloseableIterator;
 
 import io.delta.kernel.engine.Engine;
 import io.delta.kernel.exceptions.KernelException;
@@ -75,8 +76,34 @@ public final class DeltaHistoryManager {
             ? getEarliestRecreatableCommit(engine, logPath)
             : getEarliestDeltaFile(engine, logPath);
 
+    Optional<Commit> indexedCommit =
+        getActiveCommitFromIndex(
+            engine,
+            logPath,
+            earliestVersion,
+            timestamp,
+            canReturnLastCommit,
+            canReturnEarliestCommit);
+    if (indexedCommit.isPresent()) {
+      return indexedCommit.get();
+    }
+
     // Search for the commit
     List<Commit> commits = getCommits(engine, logPath, earliestVersion);
+    return getActiveCommit(
+        commits, logPath, timestamp, canReturnLastCommit, canReturnEarliestCommit);
+  }
+
+  /**
+   * Returns the active commit at the given timestamp from the given commits, following the contract
+   * of {@link #getActiveCommitAtTimestamp}.
+   */
+  private static Commit getActiveCommit(
+      List<Commit> commits,
+      Path logPath,
+      long timestamp,
+      boolean canReturnLastCommit,
+      boolean canReturnEarliestCommit) {
     Commit commit =
         lastCommitBeforeOrAtTimestamp(commits, timestamp)
             .orElse(commits.get(0)); // This is only returned if canReturnEarliestCommit (see below)
@@ -103,6 +130,80 @@ public final class DeltaHistoryManager {
     return commit;
   }
 
+  /**
+   * Returns the active commit at the given timestamp using the {@link CommitTimestampIndex} of the
+   * table, following the contract of {@link #getActiveCommitAtTimestamp}. When the timestamp is
+   * after the last indexed commit, only the commits after it are listed.
+   *
+   * @return the active commit, or empty when the table has no index covering {@code
+   *     earliestVersion}, in which case all the commits from {@code earliestVersion} are listed.
+   */
+  private static Optional<Commit> getActiveCommitFromIndex(
+      Engine engine,
+      Path logPath,
+      long earliestVersion,
+      long timestamp,
+      boolean canReturnLastCommit,
+      boolean canReturnEarliestCommit) {
+    Commit earliestCommit;
+    Commit lastIndexedCommit;
+    Optional<Commit> commit;
+    try {
+      Optional<CommitTimestampIndex> index = CommitTimestampIndex.load(engine, logPath);
+      if (!index.isPresent()
+          || earliestVersion < index.get().getFirstVersion()
+          || earliestVersion > index.get().getLastVersion()) {
+        return Optional.empty();
+      }
+      earliestCommit = index.get().getCommit(earliestVersion);
+      lastIndexedCommit = index.get().getCommit(index.get().getLastVersion());
+      commit = index.get().lastCommitBeforeOrAtTimestamp(earliestVersion, timestamp);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("{}: Failed to read the commit timestamp index", logPath, e);
+      return Optional.empty();
+    }
+
+    if (timestamp >= lastIndexedCommit.timestamp) {
+      // The active commit is the last indexed commit or a later one
+      try (CloseableIterator<Commit> commits =
+          toCloseableIterator(Collections.singletonList(lastIndexedCommit).iterator())
+              .combine(listCommitsAfter(engine, logPath, lastIndexedCommit.version))) {
+        return Optional.of(
+            getActiveCommit(
+                monotonizeCommitTimestamps(commits),
+                logPath,
+                timestamp,
+                canReturnLastCommit,
+                canReturnEarliestCommit));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to list the files in delta log", e);
+      }
+    }
+    // The active commit is indexed, and isn't the last commit of the table
+    if (!commit.isPresent() && !canReturnEarliestCommit) {
+      throw DeltaErrors.timestampBeforeFirstAvailableCommit(
+          logPath.getParent().toString(), /* use dataPath */
+          timestamp,
+          earliestCommit.timestamp,
+          earliestCommit.version);
+    }
+    return Optional.of(commit.orElse(earliestCommit));
+  }
+
+  /** Returns the commits after the given version, which may be the latest version. */
+  private static CloseableIterator<Commit> listCommitsAfter(
+      Engine engine, Path logPath, long version) throws IOException {
+    return wrapEngineExceptionThrowsIO(
+            () ->
+                engine
+                    .getFileSystemClient()
+                    .listFrom(FileNames.listingPrefix(logPath, version + 1)),
+            "Listing files in the delta log starting from %s",
+            FileNames.listingPrefix(logPath, version + 1))
+        .filter(fs -> FileNames.isCommitFile(getName(fs.getPath())))
+        .map(fs -> new Commit(FileNames.deltaVersion(fs.getPath()), fs.getModificationTime()));
+  }
+
   /**
    * Gets the earliest commit that we can recreate. Note that this version isn't guaranteed to exist
    * when performing an action as a concurrent operation can delete the file during cleanup. This
@@ -46,6 +46,12 @@ public class InternalScanFileUtils {
   public static final Column ADD_FILE_PARTITION_COL_REF =
       new Column(new String[] {"add", "partitionValues"});
 
+  /**
+   * Name of the column in the `add` action of checkpoints that has the partition values as a struct
+   * (typed according to the table schema), instead of the string `partitionValues` map.
+   */
+  public static final String PARTITION_VALUES_PARSED_FIELD_NAME = "partitionValues_parsed";
+
   public static StructField TABLE_ROOT_STRUCT_FIELD =
       new StructField(TABLE_ROOT_COL_NAME, TABLE_ROOT_DATA_TYPE, false /* nullable */);
 
@@ -188,6 +194,6 @@ public class InternalScanFileUtils {
    * @return {@link Column} reference
    */
   public static Column getPartitionValuesParsedRefInAddFile(String partitionColName) {
-    return new Column(new String[] {"add", "partitionValues_parsed", partitionColName});
+    return new Column(new String[] {"add", PARTITION_VALUES_PARSED_FIELD_NAME, partitionColName});
   }
 }
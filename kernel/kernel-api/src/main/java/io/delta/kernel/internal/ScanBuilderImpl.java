@@ -35,6 +35,7 @@ public class ScanBuilderImpl implements ScanBuilder {
   private final Metadata metadata;
   private final StructType snapshotSchema;
   private final LogReplay logReplay;
+  private final long tableVersion;
   private final Engine engine;
 
   private StructType readSchema;
@@ -46,12 +47,14 @@ public class ScanBuilderImpl implements ScanBuilder {
       Metadata metadata,
       StructType snapshotSchema,
       LogReplay logReplay,
+      long tableVersion,
       Engine engine) {
     this.dataPath = dataPath;
     this.protocol = protocol;
     this.metadata = metadata;
     this.snapshotSchema = snapshotSchema;
     this.logReplay = logReplay;
+    this.tableVersion = tableVersion;
     this.engine = engine;
     this.readSchema = snapshotSchema;
     this.predicate = Optional.empty();
@@ -76,6 +79,13 @@ public class ScanBuilderImpl implements ScanBuilder {
   @Override
   public Scan build() {
     return new ScanImpl(
-        snapshotSchema, readSchema, protocol, metadata, logReplay, predicate, dataPath);
+        snapshotSchema,
+        readSchema,
+        protocol,
+        metadata,
+        logReplay,
+        predicate,
+        dataPath,
+        tableVersion);
   }
 }
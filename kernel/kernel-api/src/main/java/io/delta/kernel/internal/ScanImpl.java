@@ -16,6 +16,7 @@
 package io.delta.kernel.internal;
 
 import static io.delta.kernel.internal.DeltaErrors.wrapEngineException;
+import static io.delta.kernel.internal.InternalScanFileUtils.ADD_FILE_ORDINAL;
 import static io.delta.kernel.internal.skipping.StatsSchemaHelper.getStatsSchema;
 import static io.delta.kernel.internal.util.PartitionUtils.rewritePartitionPredicateOnCheckpointFileSchema;
 import static io.delta.kernel.internal.util.PartitionUtils.rewritePartitionPredicateOnScanFileSchema;
@@ -29,16 +30,23 @@ import io.delta.kernel.expressions.*;
 import io.delta.kernel.internal.actions.Metadata;
 import io.delta.kernel.internal.actions.Protocol;
 import io.delta.kernel.internal.data.ScanStateRow;
+import io.delta.kernel.internal.data.StructColumnVector;
 import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.metrics.MetricsReportingUtils;
+import io.delta.kernel.internal.metrics.ScanReportImpl;
 import io.delta.kernel.internal.replay.LogReplay;
+import io.delta.kernel.internal.replay.LogReplayMetrics;
 import io.delta.kernel.internal.skipping.DataSkippingPredicate;
 import io.delta.kernel.internal.skipping.DataSkippingUtils;
 import io.delta.kernel.internal.util.*;
+import io.delta.kernel.metrics.ScanReport;
 import io.delta.kernel.types.StructField;
 import io.delta.kernel.types.StructType;
 import io.delta.kernel.utils.CloseableIterator;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
 import java.util.function.Supplier;
 
 /** Implementation of {@link Scan} */
@@ -56,6 +64,8 @@ public class ScanImpl implements Scan {
   private final Metadata metadata;
   private final LogReplay logReplay;
   private final Path dataPath;
+  private final long tableVersion;
+  private final Optional<Predicate> filter;
   private final Optional<Tuple2<Predicate, Predicate>> partitionAndDataFilters;
   private final Supplier<Map<String, StructField>> partitionColToStructFieldMap;
   private boolean accessedScanFiles;
@@ -67,14 +77,17 @@ public class ScanImpl implements Scan {
       Metadata metadata,
       LogReplay logReplay,
       Optional<Predicate> filter,
-      Path dataPath) {
+      Path dataPath,
+      long tableVersion) {
     this.snapshotSchema = snapshotSchema;
     this.readSchema = readSchema;
     this.protocol = protocol;
     this.metadata = metadata;
     this.logReplay = logReplay;
+    this.filter = filter;
     this.partitionAndDataFilters = splitFilters(filter);
     this.dataPath = dataPath;
+    this.tableVersion = tableVersion;
     this.partitionColToStructFieldMap =
         () -> {
           Set<String> partitionColNames = metadata.getPartitionColNames();
@@ -112,36 +125,95 @@ public class ScanImpl implements Scan {
       throw new IllegalStateException("Scan files are already fetched from this instance");
     }
     accessedScanFiles = true;
+    long startNanos = System.nanoTime();
 
     // Generate data skipping filter and decide if we should read the stats column
     Optional<DataSkippingPredicate> dataSkippingFilter = getDataSkippingFilter();
     boolean hasDataSkippingFilter = dataSkippingFilter.isPresent();
     boolean shouldReadStats = hasDataSkippingFilter || includeStats;
 
-    // Get active AddFiles via log replay
-    // If there is a partition predicate, construct a predicate to prune checkpoint files
-    // while constructing the table state.
+    // When there is a data skipping filter, also read the typed statistics (`stats_parsed`)
+    // of the columns referenced in the filter from the checkpoint, if the checkpoint has them.
+    // This avoids parsing the JSON statistics of the AddFiles in the checkpoint. The active
+    // AddFiles in memory only have the JSON statistics.
+    Optional<StructType> prunedStatsSchema = dataSkippingFilter.map(this::getPrunedStatsSchema);
+    Optional<CloseableIterator<FilteredColumnarBatch>> inMemoryScanFiles =
+        logReplay.getInMemoryActiveAddFiles(engine);
+    boolean fromInMemoryScanFiles = inMemoryScanFiles.isPresent();
+
+    // Otherwise get active AddFiles via log replay
+    // If there is a partition predicate or a data skipping filter, construct a predicate to prune
+    // checkpoint files while constructing the table state. When the scan files can be cached, all
+    // the active AddFiles are replayed instead, with their JSON statistics, so that the next scans
+    // of this version find them in the cache whatever their filter.
+    boolean replayAllActiveAddFiles =
+        !fromInMemoryScanFiles && logReplay.canCacheActiveAddFiles(engine);
+    boolean hasParsedStats = !fromInMemoryScanFiles && !replayAllActiveAddFiles;
+    LogReplayMetrics logReplayMetrics = new LogReplayMetrics();
     CloseableIterator<FilteredColumnarBatch> scanFileIter =
-        logReplay.getAddFilesAsColumnarBatches(
-            engine,
-            shouldReadStats,
-            getPartitionsFilters()
-                .map(
-                    predicate ->
-                        rewritePartitionPredicateOnCheckpointFileSchema(
-                            predicate, partitionColToStructFieldMap.get())));
+        fromInMemoryScanFiles
+            ? inMemoryScanFiles.get()
+            : logReplay.replayAddFiles(
+                engine,
+                shouldReadStats,
+                hasParsedStats ? prunedStatsSchema : Optional.empty(),
+                hasParsedStats ? getCheckpointPredicate(dataSkippingFilter) : Optional.empty(),
+                logReplayMetrics);
+
+    // Count the files selected after each step, to report how many files each step pruned. There
+    // is nothing to count when there is no metrics reporter.
+    boolean reportMetrics = !engine.getMetricsReporters().isEmpty();
+    AtomicLong numActiveFiles = new AtomicLong();
+    if (reportMetrics) {
+      scanFileIter = countSelectedFiles(scanFileIter, numActiveFiles);
+    }
 
     // Apply partition pruning
-    scanFileIter = applyPartitionPruning(engine, scanFileIter);
+    AtomicLong numFilesAfterPartitionPruning =
+        getPartitionsFilters().isPresent() ? new AtomicLong() : numActiveFiles;
+    if (getPartitionsFilters().isPresent()) {
+      scanFileIter = applyPartitionPruning(engine, scanFileIter);
+      if (reportMetrics) {
+        scanFileIter = countSelectedFiles(scanFileIter, numFilesAfterPartitionPruning);
+      }
+    }
 
     // Apply data skipping
+    AtomicLong numFilesAfterDataSkipping =
+        hasDataSkippingFilter ? new AtomicLong() : numFilesAfterPartitionPruning;
     if (hasDataSkippingFilter) {
       // there was a usable data skipping filter --> apply data skipping
-      scanFileIter = applyDataSkipping(engine, scanFileIter, dataSkippingFilter.get());
+      scanFileIter =
+          applyDataSkipping(
+              engine,
+              scanFileIter,
+              dataSkippingFilter.get(),
+              prunedStatsSchema.get(),
+              hasParsedStats);
+      if (reportMetrics) {
+        scanFileIter = countSelectedFiles(scanFileIter, numFilesAfterDataSkipping);
+      }
     }
 
     // TODO when !includeStats drop the stats column if present before returning
-    return scanFileIter;
+    if (!reportMetrics) {
+      return scanFileIter;
+    }
+    return reportOnClose(
+        engine,
+        scanFileIter,
+        System.nanoTime() - startNanos,
+        planningDurationNanos ->
+            new ScanReportImpl(
+                dataPath.toString(),
+                tableVersion,
+                filter,
+                fromInMemoryScanFiles,
+                logReplayMetrics,
+                numActiveFiles.get() - numFilesAfterPartitionPruning.get(),
+                numFilesAfterPartitionPruning.get() - numFilesAfterDataSkipping.get(),
+                numFilesAfterDataSkipping.get(),
+                planningDurationNanos));
   }
 
   @Override
@@ -192,6 +264,27 @@ public class ScanImpl implements Scan {
     return removeAlwaysTrue(partitionAndDataFilters.map(filters -> filters._2));
   }
 
+  /**
+   * Predicate to prune the row groups of the checkpoint files, on the parsed partition values
+   * ({@code add.partitionValues_parsed}) and the parsed statistics ({@code add.stats_parsed}) of
+   * the AddFiles. The checkpoint files that don't have these columns are not pruned.
+   */
+  private Optional<Predicate> getCheckpointPredicate(
+      Optional<DataSkippingPredicate> dataSkippingFilter) {
+    Optional<Predicate> partitionPredicate =
+        getPartitionsFilters()
+            .map(
+                predicate ->
+                    rewritePartitionPredicateOnCheckpointFileSchema(
+                        predicate, partitionColToStructFieldMap.get()));
+    Optional<Predicate> parsedStatsPredicate =
+        dataSkippingFilter.flatMap(DataSkippingUtils::getParsedStatsCheckpointPredicate);
+    if (partitionPredicate.isPresent() && parsedStatsPredicate.isPresent()) {
+      return Optional.of(new And(partitionPredicate.get(), parsedStatsPredicate.get()));
+    }
+    return partitionPredicate.isPresent() ? partitionPredicate : parsedStatsPredicate;
+  }
+
   private Optional<Predicate> getPartitionsFilters() {
     return removeAlwaysTrue(partitionAndDataFilters.map(filters -> filters._1));
   }
@@ -260,17 +353,25 @@ public class ScanImpl implements Scan {
                     dataFilters, metadata.getDataSchema()));
   }
 
-  private CloseableIterator<FilteredColumnarBatch> applyDataSkipping(
-      Engine engine,
-      CloseableIterator<FilteredColumnarBatch> scanFileIter,
-      DataSkippingPredicate dataSkippingFilter) {
+  private StructType getPrunedStatsSchema(DataSkippingPredicate dataSkippingFilter) {
     // Get the stats schema
     // It's possible to instead provide the referenced columns when building the schema but
     // pruning it after is much simpler
-    StructType prunedStatsSchema =
-        DataSkippingUtils.pruneStatsSchema(
-            getStatsSchema(metadata.getDataSchema()), dataSkippingFilter.getReferencedCols());
+    return DataSkippingUtils.pruneStatsSchema(
+        getStatsSchema(metadata.getDataSchema()), dataSkippingFilter.getReferencedCols());
+  }
 
+  /**
+   * Apply the data skipping filter on the scan files. If {@code hasParsedStats}, the scan files are
+   * expected to have the parsed statistics column {@code add.stats_parsed} with schema {@code
+   * prunedStatsSchema}, which is dropped from the returned batches.
+   */
+  private CloseableIterator<FilteredColumnarBatch> applyDataSkipping(
+      Engine engine,
+      CloseableIterator<FilteredColumnarBatch> scanFileIter,
+      DataSkippingPredicate dataSkippingFilter,
+      StructType prunedStatsSchema,
+      boolean hasParsedStats) {
     // Skipping happens in two steps:
     // 1. The predicate produces false for any file whose stats prove we can safely skip it. A
     //    value of true means the stats say we must keep the file, and null means we could not
@@ -293,20 +394,201 @@ public class ScanImpl implements Scan {
             prunedStatsSchema,
             filterToEval);
 
+    // Same filter, evaluated on the typed statistics in the scan file batch. As the missing
+    // statistics evaluate to true (keep), the files without typed statistics are kept by this
+    // filter and are then filtered using the JSON statistics.
+    Predicate filterOnParsedStats = DataSkippingUtils.rewriteOnParsedStatsColumn(filterToEval);
+
+    return new CloseableIterator<FilteredColumnarBatch>() {
+      PredicateEvaluator parsedStatsPredicateEvaluator = null;
+
+      @Override
+      public boolean hasNext() {
+        return scanFileIter.hasNext();
+      }
+
+      @Override
+      public FilteredColumnarBatch next() {
+        FilteredColumnarBatch filteredScanFileBatch = scanFileIter.next();
+        ColumnarBatch scanFileBatch = filteredScanFileBatch.getData();
+        Optional<ColumnVector> selectionVector = filteredScanFileBatch.getSelectionVector();
+
+        ColumnVector addVector = scanFileBatch.getColumnVector(ADD_FILE_ORDINAL);
+        StructType addSchema = (StructType) addVector.getDataType();
+        ColumnVector parsedStatsVector =
+            hasParsedStats
+                ? addVector.getChild(addSchema.indexOf(DataSkippingUtils.STATS_PARSED_FIELD_NAME))
+                : null;
+
+        // Find the selected files with and without typed statistics
+        int size = scanFileBatch.getSize();
+        boolean[] needsJsonStats = new boolean[size];
+        boolean anyWithParsedStats = false;
+        boolean anyWithoutParsedStats = false;
+        for (int rowId = 0; rowId < size; rowId++) {
+          if (isSelected(selectionVector, rowId) && !addVector.isNullAt(rowId)) {
+            if (parsedStatsVector == null || parsedStatsVector.isNullAt(rowId)) {
+              needsJsonStats[rowId] = true;
+              anyWithoutParsedStats = true;
+            } else {
+              anyWithParsedStats = true;
+            }
+          }
+        }
+
+        if (anyWithParsedStats) {
+          if (parsedStatsPredicateEvaluator == null) {
+            parsedStatsPredicateEvaluator =
+                wrapEngineException(
+                    () ->
+                        engine
+                            .getExpressionHandler()
+                            .getPredicateEvaluator(scanFileBatch.getSchema(), filterOnParsedStats),
+                    "Get the predicate evaluator for data skipping with schema=%s and filter=%s",
+                    scanFileBatch.getSchema(),
+                    filterOnParsedStats);
+          }
+          Optional<ColumnVector> inputSelectionVector = selectionVector;
+          selectionVector =
+              Optional.of(
+                  wrapEngineException(
+                      () -> parsedStatsPredicateEvaluator.eval(scanFileBatch, inputSelectionVector),
+                      "Evaluating the data skipping filter %s",
+                      filterOnParsedStats));
+        }
+
+        if (anyWithoutParsedStats) {
+          // Parse the JSON statistics of only the files that don't have typed statistics
+          Optional<ColumnVector> jsonStatsSelectionVector =
+              anyWithParsedStats
+                  ? Optional.of(
+                      wrapEngineException(
+                          () ->
+                              engine
+                                  .getExpressionHandler()
+                                  .createSelectionVector(needsJsonStats, 0, size),
+                          "Create selection vector for the scan files without typed statistics"))
+                  : selectionVector;
+          ColumnarBatch jsonStats =
+              DataSkippingUtils.parseJsonStats(
+                  engine,
+                  new FilteredColumnarBatch(scanFileBatch, jsonStatsSelectionVector),
+                  prunedStatsSchema);
+          Optional<ColumnVector> inputSelectionVector = selectionVector;
+          selectionVector =
+              Optional.of(
+                  wrapEngineException(
+                      () -> predicateEvaluator.eval(jsonStats, inputSelectionVector),
+                      "Evaluating the data skipping filter %s",
+                      filterToEval));
+        }
+
+        return new FilteredColumnarBatch(
+            hasParsedStats ? withoutParsedStatsColumn(scanFileBatch, addVector) : scanFileBatch,
+            selectionVector);
+      }
+
+      @Override
+      public void close() throws IOException {
+        scanFileIter.close();
+      }
+    };
+  }
+
+  /** Count the selected rows of the batches in the given counter as they are consumed. */
+  private static CloseableIterator<FilteredColumnarBatch> countSelectedFiles(
+      CloseableIterator<FilteredColumnarBatch> scanFileIter, AtomicLong numSelectedFiles) {
     return scanFileIter.map(
-        filteredScanFileBatch -> {
-          ColumnVector newSelectionVector =
-              wrapEngineException(
-                  () ->
-                      predicateEvaluator.eval(
-                          DataSkippingUtils.parseJsonStats(
-                              engine, filteredScanFileBatch, prunedStatsSchema),
-                          filteredScanFileBatch.getSelectionVector()),
-                  "Evaluating the data skipping filter %s",
-                  filterToEval);
-
-          return new FilteredColumnarBatch(
-              filteredScanFileBatch.getData(), Optional.of(newSelectionVector));
+        batch -> {
+          Optional<ColumnVector> selectionVector = batch.getSelectionVector();
+          int size = batch.getData().getSize();
+          if (!selectionVector.isPresent()) {
+            numSelectedFiles.addAndGet(size);
+          } else {
+            long numSelected = 0;
+            for (int rowId = 0; rowId < size; rowId++) {
+              if (isSelected(selectionVector, rowId)) {
+                numSelected++;
+              }
+            }
+            numSelectedFiles.addAndGet(numSelected);
+          }
+          return batch;
         });
   }
+
+  /**
+   * Report the {@link ScanReport} created by {@code createReport} to the engine when the given scan
+   * files iterator is closed. The planning duration passed to {@code createReport} is {@code
+   * setupNanos} plus the time spent computing the scan files when the iterator is consumed.
+   */
+  private CloseableIterator<FilteredColumnarBatch> reportOnClose(
+      Engine engine,
+      CloseableIterator<FilteredColumnarBatch> scanFileIter,
+      long setupNanos,
+      LongFunction<ScanReport> createReport) {
+    return new CloseableIterator<FilteredColumnarBatch>() {
+      private long planningDurationNanos = setupNanos;
+      private boolean reported;
+
+      @Override
+      public boolean hasNext() {
+        long startNanos = System.nanoTime();
+        try {
+          return scanFileIter.hasNext();
+        } finally {
+          planningDurationNanos += System.nanoTime() - startNanos;
+        }
+      }
+
+      @Override
+      public FilteredColumnarBatch next() {
+        long startNanos = System.nanoTime();
+        try {
+          return scanFileIter.next();
+        } finally {
+          planningDurationNanos += System.nanoTime() - startNanos;
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        scanFileIter.close();
+        if (!reported) {
+          reported = true;
+          MetricsReportingUtils.report(engine, createReport.apply(planningDurationNanos));
+        }
+      }
+    };
+  }
+
+  private static boolean isSelected(Optional<ColumnVector> selectionVector, int rowId) {
+    return !selectionVector.isPresent()
+        || (!selectionVector.get().isNullAt(rowId) && selectionVector.get().getBoolean(rowId));
+  }
+
+  /**
+   * Drop the parsed statistics column, which is the last column of the {@code add} column, from the
+   * scan file batch.
+   */
+  private static ColumnarBatch withoutParsedStatsColumn(
+      ColumnarBatch scanFileBatch, ColumnVector addVector) {
+    StructField addField = scanFileBatch.getSchema().at(ADD_FILE_ORDINAL);
+    StructType addSchema = (StructType) addField.getDataType();
+    StructType newAddSchema = new StructType(addSchema.fields().subList(0, addSchema.length() - 1));
+    List<ColumnVector> newAddChildren = new ArrayList<>();
+    for (int ordinal = 0; ordinal < newAddSchema.length(); ordinal++) {
+      newAddChildren.add(addVector.getChild(ordinal));
+    }
+    ColumnVector newAddVector =
+        new StructColumnVector(
+            newAddSchema, addVector.getSize(), addVector::isNullAt, newAddChildren);
+    return scanFileBatch
+        .withDeletedColumnAt(ADD_FILE_ORDINAL)
+        .withNewColumn(
+            ADD_FILE_ORDINAL,
+            new StructField(
+                addField.getName(), newAddSchema, addField.isNullable(), addField.getMetadata()),
+            newAddVector);
+  }
 }
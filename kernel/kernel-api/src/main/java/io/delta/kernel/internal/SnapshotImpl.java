@@ -22,13 +22,17 @@ import io.delta.kernel.ScanBuilder;
 import io.delta.kernel.Snapshot;
 import io.delta.kernel.engine.CommitCoordinatorClientHandler;
 import io.delta.kernel.engine.Engine;
+import io.delta.kernel.exceptions.TableNotFoundException;
 import io.delta.kernel.internal.actions.CommitInfo;
 import io.delta.kernel.internal.actions.Metadata;
 import io.delta.kernel.internal.actions.Protocol;
+import io.delta.kernel.internal.checksum.CRCInfo;
 import io.delta.kernel.internal.fs.Path;
 import io.delta.kernel.internal.replay.CreateCheckpointIterator;
 import io.delta.kernel.internal.replay.LogReplay;
 import io.delta.kernel.internal.snapshot.LogSegment;
+import io.delta.kernel.internal.snapshot.SnapshotLoadMetrics;
+import io.delta.kernel.internal.snapshot.SnapshotManager;
 import io.delta.kernel.internal.snapshot.TableCommitCoordinatorClientHandler;
 import io.delta.kernel.types.StructType;
 import java.util.Optional;
@@ -42,6 +46,8 @@ public class SnapshotImpl implements Snapshot {
   private final Protocol protocol;
   private final Metadata metadata;
   private final LogSegment logSegment;
+  private final SnapshotManager snapshotManager;
+  private final SnapshotLoadMetrics loadMetrics;
   private Optional<Long> inCommitTimestampOpt;
 
   public SnapshotImpl(
@@ -49,7 +55,28 @@ public class SnapshotImpl implements Snapshot {
       LogSegment logSegment,
       LogReplay logReplay,
       Protocol protocol,
-      Metadata metadata) {
+      Metadata metadata,
+      SnapshotManager snapshotManager) {
+    this(
+        dataPath,
+        logSegment,
+        logReplay,
+        protocol,
+        metadata,
+        snapshotManager,
+        new SnapshotLoadMetrics());
+  }
+
+  public SnapshotImpl(
+      Path dataPath,
+      LogSegment logSegment,
+      LogReplay logReplay,
+      Protocol protocol,
+      Metadata metadata,
+      SnapshotManager snapshotManager,
+      SnapshotLoadMetrics loadMetrics) {
+    this.snapshotManager = snapshotManager;
+    this.loadMetrics = loadMetrics;
     this.logPath = new Path(dataPath, "_delta_log");
     this.dataPath = dataPath;
     this.version = logSegment.version;
@@ -72,7 +99,13 @@ public class SnapshotImpl implements Snapshot {
 
   @Override
   public ScanBuilder getScanBuilder(Engine engine) {
-    return new ScanBuilderImpl(dataPath, protocol, metadata, getSchema(engine), logReplay, engine);
+    return new ScanBuilderImpl(
+        dataPath, protocol, metadata, getSchema(engine), logReplay, version, engine);
+  }
+
+  @Override
+  public Snapshot update(Engine engine) throws TableNotFoundException {
+    return snapshotManager.updateSnapshot(engine, this);
   }
 
   public Metadata getMetadata() {
@@ -83,10 +116,30 @@ public class SnapshotImpl implements Snapshot {
     return protocol;
   }
 
+  /**
+   * Returns the checksum of this snapshot version, if the checksum file of this version exists and
+   * was read to load the protocol and metadata.
+   */
+  public Optional<CRCInfo> getCurrentCrcInfo() {
+    return logReplay.getCurrentCrcInfo();
+  }
+
   public CreateCheckpointIterator getCreateCheckpointIterator(Engine engine) {
+    return getCreateCheckpointIterator(engine, false /* onlyFileActions */);
+  }
+
+  /**
+   * Get the iterator of the actions to write to a checkpoint of this snapshot.
+   *
+   * @param onlyFileActions whether to return only the file actions, e.g. for the sidecar files of a
+   *     V2 checkpoint
+   */
+  public CreateCheckpointIterator getCreateCheckpointIterator(
+      Engine engine, boolean onlyFileActions) {
     long minFileRetentionTimestampMillis =
         System.currentTimeMillis() - TOMBSTONE_RETENTION.fromMetadata(engine, metadata);
-    return new CreateCheckpointIterator(engine, logSegment, minFileRetentionTimestampMillis);
+    return new CreateCheckpointIterator(
+        engine, logSegment, metadata, minFileRetentionTimestampMillis, onlyFileActions);
   }
 
   /**
@@ -103,10 +156,19 @@ public class SnapshotImpl implements Snapshot {
     return logReplay.getLatestTransactionIdentifier(engine, applicationId);
   }
 
+  public LogReplay getLogReplay() {
+    return logReplay;
+  }
+
   public LogSegment getLogSegment() {
     return logSegment;
   }
 
+  /** Returns the metrics of the listing of the log done to load this snapshot. */
+  public SnapshotLoadMetrics getLoadMetrics() {
+    return loadMetrics;
+  }
+
   public Path getLogPath() {
     return logPath;
   }
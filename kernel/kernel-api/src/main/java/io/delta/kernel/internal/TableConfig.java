@@ -78,6 +78,39 @@ public class TableConfig<T> {
           "needs to be a positive integer.",
           true);
 
+  /**
+   * The kind of checkpoints to write: {@code classic} for a single Parquet file, or {@code v2} for a
+   * V2 checkpoint made of a manifest with the non-file actions and sidecar files with the file
+   * actions. Kernel rejects the {@code v2} policy on tables without the {@code v2Checkpoint}
+   * feature, and doesn't enable the feature automatically. Kernel writes V2 checkpoints for all the
+   * tables that support the feature, even with the {@code classic} policy, as it doesn't write the
+   * {@code checkpointMetadata} action in classic checkpoints.
+   */
+  public static final TableConfig<String> CHECKPOINT_POLICY =
+      new TableConfig<>(
+          "delta.checkpointPolicy",
+          "classic", /* default values */
+          (engineOpt, v) -> v,
+          value -> value.equals("classic") || value.equals("v2"),
+          "needs to be one of classic, v2.",
+          true);
+
+  /**
+   * Whether to write the file statistics and the partition values of the AddFiles in checkpoints
+   * also as typed struct columns ({@code add.stats_parsed} and {@code add.partitionValues_parsed}),
+   * in addition to the JSON encoded {@code stats} and the string {@code partitionValues}. The typed
+   * columns allow readers to skip files (and row groups of the checkpoint) without parsing the
+   * statistics or the partition values. Enabled by default, same as in Delta Spark.
+   */
+  public static final TableConfig<Boolean> CHECKPOINT_WRITE_STATS_AS_STRUCT =
+      new TableConfig<>(
+          "delta.checkpoint.writeStatsAsStruct",
+          "true", /* default values */
+          (engineOpt, v) -> Boolean.valueOf(v),
+          value -> true,
+          "needs to be a boolean.",
+          true);
+
   /**
    * This table property is used to track the enablement of the {@code inCommitTimestamps}.
    *
@@ -211,6 +244,8 @@ public class TableConfig<T> {
             {
               addConfig(this, TOMBSTONE_RETENTION);
               addConfig(this, CHECKPOINT_INTERVAL);
+              addConfig(this, CHECKPOINT_WRITE_STATS_AS_STRUCT);
+              addConfig(this, CHECKPOINT_POLICY);
               addConfig(this, IN_COMMIT_TIMESTAMPS_ENABLED);
               addConfig(this, IN_COMMIT_TIMESTAMP_ENABLEMENT_VERSION);
               addConfig(this, IN_COMMIT_TIMESTAMP_ENABLEMENT_TIMESTAMP);
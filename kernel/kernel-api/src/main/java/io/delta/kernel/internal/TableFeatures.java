@@ -86,7 +86,7 @@ public class TableFeatures {
    *   <li>protocol writer version 1.
    *   <li>protocol writer version 2 only with appendOnly feature enabled.
    *   <li>protocol writer version 7 with {@code appendOnly}, {@code inCommitTimestamp}, {@code
-   *       columnMapping} feature enabled.
+   *       columnMapping}, {@code v2Checkpoint} feature enabled.
    * </ul>
    *
    * @param protocol Table protocol
@@ -126,6 +126,8 @@ public class TableFeatures {
               break;
             case "columnMapping":
               break;
+            case "v2Checkpoint":
+              break;
             default:
               throw unsupportedWriterFeature(tablePath, writerFeature);
           }
@@ -136,6 +138,30 @@ public class TableFeatures {
     }
   }
 
+  /** Returns whether the given protocol supports the {@code v2Checkpoint} table feature. */
+  public static boolean isV2CheckpointSupported(Protocol protocol) {
+    List<String> writerFeatures = protocol.getWriterFeatures();
+    return writerFeatures != null && writerFeatures.contains("v2Checkpoint");
+  }
+
+  /**
+   * Validates that the table supports the {@code v2Checkpoint} feature if its checkpoint policy is
+   * {@code v2}. Kernel doesn't enable the feature automatically, as it is a reader-writer feature
+   * that older readers can't read.
+   *
+   * @throws io.delta.kernel.exceptions.InvalidConfigurationValueException if the checkpoint policy
+   *     is {@code v2} and the table doesn't support the {@code v2Checkpoint} feature
+   */
+  public static void validateCheckpointPolicy(Engine engine, Protocol protocol, Metadata metadata) {
+    String checkpointPolicy = TableConfig.CHECKPOINT_POLICY.fromMetadata(engine, metadata);
+    if (checkpointPolicy.equals("v2") && !isV2CheckpointSupported(protocol)) {
+      throw invalidConfigurationValueException(
+          TableConfig.CHECKPOINT_POLICY.getKey(),
+          checkpointPolicy,
+          "Requires the table feature v2Checkpoint to be supported.");
+    }
+  }
+
   /**
    * Given the automatically enabled features from Delta table metadata, returns the minimum
    * required reader and writer version that satisfies all enabled table features in the metadata.
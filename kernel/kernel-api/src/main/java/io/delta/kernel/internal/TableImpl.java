@@ -102,6 +102,12 @@ public class TableImpl implements Table {
     snapshotManager.checkpoint(engine, version);
   }
 
+  @Override
+  public void compactLog(Engine engine, long startVersion, long endVersion)
+      throws TableNotFoundException, IOException {
+    snapshotManager.compactLog(engine, startVersion, endVersion);
+  }
+
   @Override
   public TransactionBuilder createTransactionBuilder(
       Engine engine, String engineInfo, Operation operation) {
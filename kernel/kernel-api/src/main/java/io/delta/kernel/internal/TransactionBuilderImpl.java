@@ -54,6 +54,8 @@ public class TransactionBuilderImpl implements TransactionBuilder {
   private Optional<List<String>> partitionColumns = Optional.empty();
   private Optional<SetTransaction> setTxnOpt = Optional.empty();
   private Optional<Map<String, String>> tableProperties = Optional.empty();
+  /** Number of commits to compact together, zero if log compaction is disabled. */
+  private int logCompactionInterval = 0;
 
   public TransactionBuilderImpl(TableImpl table, String engineInfo, Operation operation) {
     this.table = table;
@@ -93,6 +95,16 @@ public class TransactionBuilderImpl implements TransactionBuilder {
     return this;
   }
 
+  @Override
+  public TransactionBuilder withLogCompactionInterval(Engine engine, int logCompactionInterval) {
+    checkArgument(
+        logCompactionInterval >= 2,
+        "Log compaction interval must be at least 2 but is %s",
+        logCompactionInterval);
+    this.logCompactionInterval = logCompactionInterval;
+    return this;
+  }
+
   @Override
   public Transaction build(Engine engine) {
     SnapshotImpl snapshot;
@@ -142,6 +154,7 @@ public class TransactionBuilderImpl implements TransactionBuilder {
         TableFeatures.validateWriteSupportedTable(
             protocol, metadata, metadata.getSchema(), table.getPath(engine));
       }
+      TableFeatures.validateCheckpointPolicy(engine, protocol, metadata);
     }
 
     return new TransactionImpl(
@@ -156,6 +169,7 @@ public class TransactionBuilderImpl implements TransactionBuilder {
         setTxnOpt,
         shouldUpdateMetadata,
         shouldUpdateProtocol,
+        logCompactionInterval,
         table.getClock());
   }
 
@@ -205,13 +219,24 @@ public class TransactionBuilderImpl implements TransactionBuilder {
 
   private class InitialSnapshot extends SnapshotImpl {
     InitialSnapshot(Path dataPath, LogReplay logReplay, Metadata metadata, Protocol protocol) {
-      super(dataPath, LogSegment.empty(table.getLogPath()), logReplay, protocol, metadata);
+      super(
+          dataPath,
+          LogSegment.empty(table.getLogPath()),
+          logReplay,
+          protocol,
+          metadata,
+          null /* snapshotManager */);
     }
 
     @Override
     public long getTimestamp(Engine engine) {
       return -1L;
     }
+
+    @Override
+    public Snapshot update(Engine engine) throws TableNotFoundException {
+      return table.getLatestSnapshot(engine);
+    }
   }
 
   private LogReplay getEmptyLogReplay(Engine engine, Metadata metadata, Protocol protocol) {
@@ -28,8 +28,13 @@ import io.delta.kernel.engine.Engine;
 import io.delta.kernel.exceptions.ConcurrentWriteException;
 import io.delta.kernel.expressions.Column;
 import io.delta.kernel.internal.actions.*;
+import io.delta.kernel.internal.checksum.CRCInfo;
+import io.delta.kernel.internal.checksum.ChecksumTracker;
+import io.delta.kernel.internal.checksum.ChecksumWriter;
 import io.delta.kernel.internal.data.TransactionStateRow;
 import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.metrics.MetricsReportingUtils;
+import io.delta.kernel.internal.metrics.TransactionReportImpl;
 import io.delta.kernel.internal.replay.ConflictChecker;
 import io.delta.kernel.internal.replay.ConflictChecker.TransactionRebaseState;
 import io.delta.kernel.internal.util.Clock;
@@ -72,6 +77,7 @@ public class TransactionImpl implements Transaction {
   private final SnapshotImpl readSnapshot;
   private final Optional<SetTransaction> setTxnOpt;
   private final boolean shouldUpdateProtocol;
+  private final int logCompactionInterval; // zero if log compaction is disabled
   private final Clock clock;
   private Metadata metadata;
   private boolean shouldUpdateMetadata;
@@ -90,6 +96,7 @@ public class TransactionImpl implements Transaction {
       Optional<SetTransaction> setTxnOpt,
       boolean shouldUpdateMetadata,
       boolean shouldUpdateProtocol,
+      int logCompactionInterval,
       Clock clock) {
     this.isNewTable = isNewTable;
     this.dataPath = dataPath;
@@ -102,6 +109,7 @@ public class TransactionImpl implements Transaction {
     this.setTxnOpt = setTxnOpt;
     this.shouldUpdateMetadata = shouldUpdateMetadata;
     this.shouldUpdateProtocol = shouldUpdateProtocol;
+    this.logCompactionInterval = logCompactionInterval;
     this.clock = clock;
   }
 
@@ -123,6 +131,22 @@ public class TransactionImpl implements Transaction {
   @Override
   public TransactionCommitResult commit(Engine engine, CloseableIterable<Row> dataActions)
       throws ConcurrentWriteException {
+    long startNanos = System.nanoTime();
+    CommitMetrics commitMetrics = new CommitMetrics();
+    try {
+      TransactionCommitResult result = commitWithRetries(engine, dataActions, commitMetrics);
+      reportCommit(
+          engine, commitMetrics, Optional.of(result.getVersion()), startNanos, Optional.empty());
+      return result;
+    } catch (RuntimeException e) {
+      reportCommit(engine, commitMetrics, Optional.empty(), startNanos, Optional.of(e));
+      throw e;
+    }
+  }
+
+  private TransactionCommitResult commitWithRetries(
+      Engine engine, CloseableIterable<Row> dataActions, CommitMetrics commitMetrics)
+      throws ConcurrentWriteException {
     try {
       checkState(!closed, "Transaction is already attempted to commit. Create a new transaction.");
 
@@ -135,7 +159,7 @@ public class TransactionImpl implements Transaction {
       do {
         logger.info("Committing transaction as version = {}.", commitAsVersion);
         try {
-          return doCommit(engine, commitAsVersion, attemptCommitInfo, dataActions);
+          return doCommit(engine, commitAsVersion, attemptCommitInfo, dataActions, commitMetrics);
         } catch (FileAlreadyExistsException fnfe) {
           logger.info(
               "Concurrent write detected when committing as version = {}. "
@@ -159,6 +183,7 @@ public class TransactionImpl implements Transaction {
           attemptCommitInfo.setInCommitTimestamp(updatedInCommitTimestamp);
         }
         numRetries++;
+        commitMetrics.numCommitRetries = numRetries;
       } while (numRetries < NUM_TXN_RETRIES);
     } finally {
       closed = true;
@@ -169,6 +194,27 @@ public class TransactionImpl implements Transaction {
     throw new ConcurrentWriteException();
   }
 
+  /** Report the metrics of the commit, started at {@code startNanos}, to the engine. */
+  private void reportCommit(
+      Engine engine,
+      CommitMetrics commitMetrics,
+      Optional<Long> committedVersion,
+      long startNanos,
+      Optional<Exception> exception) {
+    MetricsReportingUtils.report(
+        engine,
+        new TransactionReportImpl(
+            dataPath.toString(),
+            operation.getDescription(),
+            readSnapshot.getVersion(engine),
+            committedVersion,
+            commitMetrics.numCommitRetries,
+            commitMetrics.numAddFiles,
+            commitMetrics.numRemoveFiles,
+            System.nanoTime() - startNanos,
+            exception));
+  }
+
   private void updateMetadata(Metadata metadata) {
     logger.info(
         "Updated metadata from {} to {}", shouldUpdateMetadata ? this.metadata : "-", metadata);
@@ -203,7 +249,8 @@ public class TransactionImpl implements Transaction {
       Engine engine,
       long commitAsVersion,
       CommitInfo attemptCommitInfo,
-      CloseableIterable<Row> dataActions)
+      CloseableIterable<Row> dataActions,
+      CommitMetrics commitMetrics)
       throws FileAlreadyExistsException {
     List<Row> metadataActions = new ArrayList<>();
     metadataActions.add(createCommitInfoSingleAction(attemptCommitInfo.toRow()));
@@ -221,11 +268,20 @@ public class TransactionImpl implements Transaction {
     }
     setTxnOpt.ifPresent(setTxn -> metadataActions.add(createTxnSingleAction(setTxn.toRow())));
 
+    commitMetrics.numAddFiles = 0;
+    commitMetrics.numRemoveFiles = 0;
+    Optional<ChecksumTracker> checksumTracker = getChecksumTracker(commitAsVersion);
     try (CloseableIterator<Row> stageDataIter = dataActions.iterator()) {
+      // The data actions are counted, and tracked for the checksum of the new version, as they
+      // are written.
+      CloseableIterator<Row> trackedDataActions = stageDataIter.map(commitMetrics::countDataAction);
+      if (checksumTracker.isPresent()) {
+        trackedDataActions = trackedDataActions.map(checksumTracker.get()::trackDataAction);
+      }
       // Create a new CloseableIterator that will return the metadata actions followed by the
       // data actions.
       CloseableIterator<Row> dataAndMetadataActions =
-          toCloseableIterator(metadataActions.iterator()).combine(stageDataIter);
+          toCloseableIterator(metadataActions.iterator()).combine(trackedDataActions);
 
       if (commitAsVersion == 0) {
         // New table, create a delta log directory
@@ -251,8 +307,18 @@ public class TransactionImpl implements Transaction {
           "Write file actions to JSON log file `%s`",
           FileNames.deltaFile(logPath, commitAsVersion));
 
+      checksumTracker.ifPresent(tracker -> writeChecksum(engine, commitAsVersion, tracker));
+
+      if ((commitAsVersion + 1) % CommitTimestampIndex.SEGMENT_SIZE == 0) {
+        // Index the oldest range of versions not indexed yet, which is the one completed by this
+        // commit if the previous ones are indexed
+        CommitTimestampIndex.update(engine, logPath, commitAsVersion, 1 /* maxNewSegments */);
+      }
+
       return new TransactionCommitResult(
-          commitAsVersion, isReadyForCheckpoint(engine, commitAsVersion));
+          commitAsVersion,
+          isReadyForCheckpoint(engine, commitAsVersion),
+          isReadyForLogCompaction(commitAsVersion));
     } catch (FileAlreadyExistsException e) {
       throw e;
     } catch (IOException ioe) {
@@ -260,6 +326,39 @@ public class TransactionImpl implements Transaction {
     }
   }
 
+  /**
+   * Returns the tracker to compute the checksum of the given version, if the checksum of the
+   * previous version is known: the table is new, or the read snapshot is the previous version and
+   * its checksum was loaded.
+   */
+  private Optional<ChecksumTracker> getChecksumTracker(long commitAsVersion) {
+    if (commitAsVersion == 0) {
+      return Optional.of(ChecksumTracker.forNewTable());
+    }
+    return readSnapshot
+        .getCurrentCrcInfo()
+        .filter(crcInfo -> crcInfo.getVersion() == commitAsVersion - 1)
+        .map(ChecksumTracker::fromPreviousChecksum);
+  }
+
+  /**
+   * Write the checksum file of the committed version. The checksum only speeds up the later loads
+   * of the table, so a failure to write it doesn't fail the commit.
+   */
+  private void writeChecksum(Engine engine, long version, ChecksumTracker tracker) {
+    Optional<CRCInfo> crcInfo =
+        tracker.getNewChecksum(version, protocol, metadata, txnId.toString());
+    if (!crcInfo.isPresent()) {
+      logger.info("{}: Skipping the checksum of version {}", dataPath, version);
+      return;
+    }
+    try {
+      new ChecksumWriter(logPath).writeCheckSum(engine, crcInfo.get());
+    } catch (Exception e) {
+      logger.warn("{}: Failed to write the checksum of version {}", dataPath, version, e);
+    }
+  }
+
   public boolean isBlindAppend() {
     // For now, Kernel just supports blind append.
     // Change this when read-after-write is supported.
@@ -302,6 +401,10 @@ public class TransactionImpl implements Transaction {
     return newVersion > 0 && newVersion % checkpointInterval == 0;
   }
 
+  private boolean isReadyForLogCompaction(long newVersion) {
+    return logCompactionInterval > 0 && (newVersion + 1) % logCompactionInterval == 0;
+  }
+
   private Map<String, String> getOperationParameters() {
     if (isNewTable) {
       List<String> partitionCols = VectorUtils.toJavaList(metadata.getPartitionColumns());
@@ -325,4 +428,22 @@ public class TransactionImpl implements Transaction {
     // TODO: implement this once we start supporting collecting stats
     return Collections.emptyList();
   }
+
+  /** Metrics of the commit of this transaction, reported once the commit succeeds or fails. */
+  private static class CommitMetrics {
+    private int numCommitRetries;
+    /** Number of AddFile and RemoveFile actions written by the last commit attempt. */
+    private long numAddFiles;
+
+    private long numRemoveFiles;
+
+    private Row countDataAction(Row action) {
+      if (isAddFileAction(action)) {
+        numAddFiles++;
+      } else if (isRemoveFileAction(action)) {
+        numRemoveFiles++;
+      }
+      return action;
+    }
+  }
 }
@@ -107,4 +107,19 @@ public class SingleAction {
     singleActionValueMap.put(TXN_ORDINAL, txn);
     return new GenericRow(FULL_SCHEMA, singleActionValueMap);
   }
+
+  /** Returns whether the given single action row is an {@code add} action. */
+  public static boolean isAddFileAction(Row singleAction) {
+    return hasAction(singleAction, "add");
+  }
+
+  /** Returns whether the given single action row is a {@code remove} action. */
+  public static boolean isRemoveFileAction(Row singleAction) {
+    return hasAction(singleAction, "remove");
+  }
+
+  private static boolean hasAction(Row singleAction, String actionName) {
+    int ordinal = singleAction.getSchema().indexOf(actionName);
+    return ordinal >= 0 && !singleAction.isNullAt(ordinal);
+  }
 }
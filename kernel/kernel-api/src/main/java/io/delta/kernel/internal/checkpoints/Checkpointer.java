@@ -22,8 +22,16 @@ import io.delta.kernel.data.ColumnarBatch;
 import io.delta.kernel.data.Row;
 import io.delta.kernel.engine.Engine;
 import io.delta.kernel.exceptions.KernelEngineException;
+import io.delta.kernel.internal.actions.Metadata;
+import io.delta.kernel.internal.actions.Protocol;
+import io.delta.kernel.internal.actions.SetTransaction;
+import io.delta.kernel.internal.data.GenericRow;
 import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.replay.LogReplay;
+import io.delta.kernel.internal.snapshot.SnapshotLoadMetrics;
 import io.delta.kernel.internal.util.*;
+import io.delta.kernel.types.LongType;
+import io.delta.kernel.types.StructType;
 import io.delta.kernel.utils.CloseableIterator;
 import io.delta.kernel.utils.FileStatus;
 import java.io.*;
@@ -32,13 +40,35 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** Class to load and write the {@link CheckpointMetaData} from `_last_checkpoint` file. */
+/**
+ * Class to load and write the {@link CheckpointMetaData} from `_last_checkpoint` file, and to write
+ * the manifests of V2 checkpoints.
+ */
 public class Checkpointer {
   private static final Logger logger = LoggerFactory.getLogger(Checkpointer.class);
 
   /** The name of the last checkpoint file */
   public static final String LAST_CHECKPOINT_FILE_NAME = "_last_checkpoint";
 
+  /** Number of versions listed by the first listing when searching for a checkpoint. */
+  private static final long INITIAL_CHECKPOINT_SEARCH_WINDOW = 1000;
+
+  /** Maximum number of versions listed by one listing when searching for a checkpoint. */
+  private static final long MAX_CHECKPOINT_SEARCH_WINDOW = 64 * INITIAL_CHECKPOINT_SEARCH_WINDOW;
+
+  /** Schema of the `checkpointMetadata` action of V2 checkpoints. */
+  private static final StructType CHECKPOINT_METADATA_SCHEMA =
+      new StructType().add("version", LongType.LONG, false /* nullable */);
+
+  /** Schema of the actions in the V2 checkpoint manifests written by Kernel. */
+  private static final StructType V2_CHECKPOINT_MANIFEST_SCHEMA =
+      new StructType()
+          .add("checkpointMetadata", CHECKPOINT_METADATA_SCHEMA)
+          .add("protocol", Protocol.FULL_SCHEMA)
+          .add("metaData", Metadata.FULL_SCHEMA)
+          .add("txn", SetTransaction.FULL_SCHEMA)
+          .add(LogReplay.SIDECAR_FIELD_NAME, SidecarFile.READ_SCHEMA);
+
   /**
    * Given a list of checkpoint files, pick the latest complete checkpoint instance which is not
    * later than `notLaterThan`.
@@ -75,7 +105,17 @@ public class Checkpointer {
   /** Find the last complete checkpoint before (strictly less than) a given version. */
   public static Optional<CheckpointInstance> findLastCompleteCheckpointBefore(
       Engine engine, Path tableLogPath, long version) {
-    return findLastCompleteCheckpointBeforeHelper(engine, tableLogPath, version)._1;
+    return findLastCompleteCheckpointBefore(
+        engine, tableLogPath, version, new SnapshotLoadMetrics());
+  }
+
+  /**
+   * Find the last complete checkpoint before (strictly less than) a given version, recording the
+   * listings of the _delta_log directory in the given metrics.
+   */
+  public static Optional<CheckpointInstance> findLastCompleteCheckpointBefore(
+      Engine engine, Path tableLogPath, long version, SnapshotLoadMetrics metrics) {
+    return findLastCompleteCheckpointBeforeHelper(engine, tableLogPath, version, metrics)._1;
   }
 
   /**
@@ -84,30 +124,31 @@ public class Checkpointer {
    */
   protected static Tuple2<Optional<CheckpointInstance>, Long>
       findLastCompleteCheckpointBeforeHelper(Engine engine, Path tableLogPath, long version) {
+    return findLastCompleteCheckpointBeforeHelper(
+        engine, tableLogPath, version, new SnapshotLoadMetrics());
+  }
+
+  private static Tuple2<Optional<CheckpointInstance>, Long> findLastCompleteCheckpointBeforeHelper(
+      Engine engine, Path tableLogPath, long version, SnapshotLoadMetrics metrics) {
     CheckpointInstance upperBoundCheckpoint = new CheckpointInstance(version);
     logger.info("Try to find the last complete checkpoint before version {}", version);
 
     // This is a just a tracker for testing purposes
     long numberOfFilesSearched = 0;
     long currentVersion = version;
+    long searchWindowSize = INITIAL_CHECKPOINT_SEARCH_WINDOW;
 
     // Some cloud storage APIs make a calls to fetch 1000 at a time.
     // To make use of that observation and to avoid making more listing calls than
     // necessary, list 1000 at a time (backwards from the given version). Search
     // within that list if a checkpoint is found. If found stop, otherwise list the previous
-    // 1000 entries. Repeat until a checkpoint is found or there are no more delta commits.
-    while (currentVersion >= 0) {
-      try {
-        long searchLowerBound = Math.max(0, currentVersion - 1000);
-        CloseableIterator<FileStatus> deltaLogFileIter =
-            wrapEngineExceptionThrowsIO(
-                () ->
-                    engine
-                        .getFileSystemClient()
-                        .listFrom(FileNames.listingPrefix(tableLogPath, searchLowerBound)),
-                "Listing from %s",
-                FileNames.listingPrefix(tableLogPath, searchLowerBound));
-
+    // entries, doubling the number of versions listed each time so that finding a checkpoint
+    // far behind the given version takes a logarithmic number of listing calls. Repeat until a
+    // checkpoint is found or there are no more delta commits.
+    while (true) {
+      long searchLowerBound = Math.max(0, currentVersion - searchWindowSize);
+      try (CloseableIterator<FileStatus> deltaLogFileIter =
+          listFrom(engine, tableLogPath, searchLowerBound, metrics)) {
         List<CheckpointInstance> checkpoints = new ArrayList<>();
         while (deltaLogFileIter.hasNext()) {
           FileStatus fileStatus = deltaLogFileIter.next();
@@ -148,7 +189,6 @@ public class Checkpointer {
               latestCheckpoint.get());
           return new Tuple2<>(latestCheckpoint, numberOfFilesSearched);
         }
-        currentVersion -= 1000; // search for checkpoint in previous 1000 entries
       } catch (IOException e) {
         String msg =
             String.format(
@@ -156,20 +196,182 @@ public class Checkpointer {
         logger.warn(msg, e);
         return new Tuple2<>(Optional.empty(), numberOfFilesSearched);
       }
+      if (searchLowerBound == 0) {
+        break;
+      }
+      // search for checkpoint in the previous entries
+      currentVersion = searchLowerBound;
+      searchWindowSize = Math.min(2 * searchWindowSize, MAX_CHECKPOINT_SEARCH_WINDOW);
     }
     logger.info("No complete checkpoint found before version {} in {}", version, tableLogPath);
     return new Tuple2<>(Optional.empty(), numberOfFilesSearched);
   }
 
+  /**
+   * Find the latest complete checkpoint of the table, given a version of the table known to exist,
+   * without listing the whole _delta_log directory. The versions after {@code knownVersion} are
+   * listed first, along with the 1000 versions before it, and the checkpoint search continues
+   * backwards from there with {@link #findLastCompleteCheckpointBefore} if none is found.
+   *
+   * @param knownVersion a committed version of the table, e.g. the version of a previously loaded
+   *     snapshot
+   * @return the latest complete checkpoint, or empty if the table has no complete checkpoint
+   */
+  public static Optional<CheckpointInstance> findLatestCompleteCheckpoint(
+      Engine engine, Path tableLogPath, long knownVersion, SnapshotLoadMetrics metrics) {
+    long searchLowerBound = Math.max(0, knownVersion - INITIAL_CHECKPOINT_SEARCH_WINDOW);
+    List<CheckpointInstance> checkpoints = new ArrayList<>();
+    try (CloseableIterator<FileStatus> deltaLogFileIter =
+        listFrom(engine, tableLogPath, searchLowerBound, metrics)) {
+      while (deltaLogFileIter.hasNext()) {
+        FileStatus fileStatus = deltaLogFileIter.next();
+        if (validCheckpointFile(fileStatus)) {
+          checkpoints.add(new CheckpointInstance(fileStatus.getPath()));
+        }
+      }
+    } catch (IOException e) {
+      logger.warn(
+          "Failed to list checkpoint files from version {} in {}.",
+          searchLowerBound,
+          tableLogPath,
+          e);
+      return Optional.empty();
+    }
+    Optional<CheckpointInstance> latestCheckpoint =
+        getLatestCompleteCheckpointFromList(checkpoints, CheckpointInstance.MAX_VALUE);
+    if (latestCheckpoint.isPresent() || searchLowerBound == 0) {
+      return latestCheckpoint;
+    }
+    return findLastCompleteCheckpointBefore(engine, tableLogPath, searchLowerBound, metrics);
+  }
+
+  /**
+   * Find the latest complete checkpoint of the table without knowing any version of the table and
+   * without listing the whole _delta_log directory. A commit version close to the latest one is
+   * found first with {@link #findRecentCommitVersion}, and the checkpoint is searched from there
+   * with {@link #findLatestCompleteCheckpoint(Engine, Path, long, SnapshotLoadMetrics)}.
+   *
+   * @return the latest complete checkpoint, or empty if the table has no commit or no complete
+   *     checkpoint
+   */
+  public static Optional<CheckpointInstance> findLatestCompleteCheckpoint(
+      Engine engine, Path tableLogPath, SnapshotLoadMetrics metrics) {
+    Optional<Long> recentVersion;
+    try {
+      recentVersion = findRecentCommitVersion(engine, tableLogPath, metrics);
+    } catch (IOException e) {
+      logger.warn("Failed to probe the latest commit version in {}.", tableLogPath, e);
+      return Optional.empty();
+    }
+    return recentVersion.flatMap(
+        version -> findLatestCompleteCheckpoint(engine, tableLogPath, version, metrics));
+  }
+
+  /**
+   * Find a commit version of the table at most 1000 versions before the latest commit, with
+   * listings that each read only the first files from a version. The listings start at versions
+   * growing exponentially until no commit is found at or after the version, then bisect the range
+   * between the last commit found and that version. This takes a logarithmic number of listing
+   * calls in the number of versions of the table.
+   *
+   * @return the commit version, or empty if the table has no commit
+   */
+  static Optional<Long> findRecentCommitVersion(
+      Engine engine, Path tableLogPath, SnapshotLoadMetrics metrics) throws IOException {
+    Optional<Long> firstVersion = firstCommitVersionFrom(engine, tableLogPath, 0, metrics);
+    if (!firstVersion.isPresent()) {
+      return Optional.empty();
+    }
+    // a commit exists at `low`, and none at or after `high`
+    long low = firstVersion.get();
+    long high;
+    long step = INITIAL_CHECKPOINT_SEARCH_WINDOW;
+    while (true) {
+      Optional<Long> version = firstCommitVersionFrom(engine, tableLogPath, low + step, metrics);
+      if (!version.isPresent()) {
+        high = low + step;
+        break;
+      }
+      low = version.get();
+      step *= 2;
+    }
+    while (high - low > INITIAL_CHECKPOINT_SEARCH_WINDOW) {
+      long mid = low + (high - low) / 2;
+      Optional<Long> version = firstCommitVersionFrom(engine, tableLogPath, mid, metrics);
+      if (version.isPresent()) {
+        low = version.get();
+      } else {
+        high = mid;
+      }
+    }
+    logger.info("Found commit version {} within {} versions of the latest", low, high - low);
+    return Optional.of(low);
+  }
+
+  /** Returns the first commit version at or after the given version, if any. */
+  private static Optional<Long> firstCommitVersionFrom(
+      Engine engine, Path tableLogPath, long version, SnapshotLoadMetrics metrics)
+      throws IOException {
+    try (CloseableIterator<FileStatus> deltaLogFileIter =
+        listFrom(engine, tableLogPath, version, metrics)) {
+      while (deltaLogFileIter.hasNext()) {
+        String fileName = new Path(deltaLogFileIter.next().getPath()).getName();
+        if (FileNames.isCommitFile(fileName)) {
+          return Optional.of(FileNames.deltaVersion(fileName));
+        }
+        if (!FileNames.isCheckpointFile(fileName)
+            && !FileNames.isChecksumFile(fileName)
+            && !FileNames.isLogCompactionFile(fileName)) {
+          // past the versioned files, e.g. `_last_checkpoint`
+          break;
+        }
+      }
+    } catch (FileNotFoundException e) {
+      // the _delta_log directory doesn't exist
+    }
+    return Optional.empty();
+  }
+
+  private static CloseableIterator<FileStatus> listFrom(
+      Engine engine, Path tableLogPath, long startVersion, SnapshotLoadMetrics metrics)
+      throws IOException {
+    long startNanos = System.nanoTime();
+    try {
+      return metrics.trackListing(
+          startNanos,
+          wrapEngineExceptionThrowsIO(
+              () ->
+                  engine
+                      .getFileSystemClient()
+                      .listFrom(FileNames.listingPrefix(tableLogPath, startVersion)),
+              "Listing from %s",
+              FileNames.listingPrefix(tableLogPath, startVersion)));
+    } catch (IOException | RuntimeException e) {
+      metrics.recordFailedListing(startNanos);
+      throw e;
+    }
+  }
+
+  private static Row createV2CheckpointManifestAction(String actionName, Row action) {
+    return new GenericRow(
+        V2_CHECKPOINT_MANIFEST_SCHEMA,
+        Collections.<Integer, Object>singletonMap(
+            V2_CHECKPOINT_MANIFEST_SCHEMA.indexOf(actionName), action));
+  }
+
   private static boolean validCheckpointFile(FileStatus fileStatus) {
     return FileNames.isCheckpointFile(new Path(fileStatus.getPath()).getName())
         && fileStatus.getSize() > 0;
   }
 
+  /** The path to the `_delta_log` directory of the table. */
+  private final Path tableLogPath;
+
   /** The path to the file that holds metadata about the most recent checkpoint. */
   private final Path lastCheckpointFilePath;
 
   public Checkpointer(Path tableLogPath) {
+    this.tableLogPath = tableLogPath;
     this.lastCheckpointFilePath = new Path(tableLogPath, LAST_CHECKPOINT_FILE_NAME);
   }
 
@@ -201,6 +403,63 @@ public class Checkpointer {
         lastCheckpointFilePath);
   }
 
+  /**
+   * Write the JSON manifest of a V2 checkpoint at the given version. The manifest has the given
+   * non-file actions and refers to the given sidecar files, which have all the file actions of the
+   * checkpoint. The checkpoint becomes visible to readers once the manifest is written.
+   *
+   * @param engine {@link Engine} instance to use for writing
+   * @param version Version of the checkpoint
+   * @param protocol Protocol of the table at the checkpoint version
+   * @param metadata Metadata of the table at the checkpoint version
+   * @param transactions Latest transaction identifier of each application
+   * @param sidecarFiles Sidecar files in the `_delta_log/_sidecars` directory
+   * @return Path of the manifest written
+   * @throws IOException For any I/O issues.
+   */
+  public Path writeV2CheckpointManifest(
+      Engine engine,
+      long version,
+      Protocol protocol,
+      Metadata metadata,
+      List<SetTransaction> transactions,
+      List<SidecarFile> sidecarFiles)
+      throws IOException {
+    List<Row> actions = new ArrayList<>();
+    actions.add(
+        createV2CheckpointManifestAction(
+            "checkpointMetadata",
+            new GenericRow(
+                CHECKPOINT_METADATA_SCHEMA,
+                Collections.<Integer, Object>singletonMap(0, version))));
+    actions.add(createV2CheckpointManifestAction("protocol", protocol.toRow()));
+    actions.add(createV2CheckpointManifestAction("metaData", metadata.toRow()));
+    for (SetTransaction transaction : transactions) {
+      actions.add(createV2CheckpointManifestAction("txn", transaction.toRow()));
+    }
+    for (SidecarFile sidecarFile : sidecarFiles) {
+      actions.add(
+          createV2CheckpointManifestAction(LogReplay.SIDECAR_FIELD_NAME, sidecarFile.toRow()));
+    }
+
+    Path manifestPath =
+        FileNames.topLevelV2CheckpointFile(
+            tableLogPath, version, UUID.randomUUID().toString(), "json");
+    wrapEngineExceptionThrowsIO(
+        () -> {
+          engine
+              .getJsonHandler()
+              .writeJsonFileAtomically(
+                  manifestPath.toString(),
+                  Utils.toCloseableIterator(actions.iterator()),
+                  false /* overwrite */);
+          return null;
+        },
+        "Writing V2 checkpoint manifest at `%s`",
+        manifestPath);
+    return manifestPath;
+  }
+
   /**
    * Loads the checkpoint metadata from the _last_checkpoint file.
    *
@@ -16,9 +16,13 @@
 package io.delta.kernel.internal.checkpoints;
 
 import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.Row;
+import io.delta.kernel.internal.data.GenericRow;
 import io.delta.kernel.types.LongType;
 import io.delta.kernel.types.StringType;
 import io.delta.kernel.types.StructType;
+import java.util.HashMap;
+import java.util.Map;
 
 /** Action representing a SidecarFile in a top-level V2 checkpoint file. */
 public class SidecarFile {
@@ -59,4 +63,18 @@ public class SidecarFile {
   public long getModificationTime() {
     return modificationTime;
   }
+
+  /**
+   * Encode as a {@link Row} object with the schema {@link SidecarFile#READ_SCHEMA}.
+   *
+   * @return {@link Row} object with the schema {@link SidecarFile#READ_SCHEMA}
+   */
+  public Row toRow() {
+    Map<Integer, Object> sidecarFileMap = new HashMap<>();
+    sidecarFileMap.put(0, path);
+    sidecarFileMap.put(1, sizeInBytes);
+    sidecarFileMap.put(2, modificationTime);
+
+    return new GenericRow(READ_SCHEMA, sidecarFileMap);
+  }
 }
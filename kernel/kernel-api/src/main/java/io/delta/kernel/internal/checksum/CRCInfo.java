@@ -0,0 +1,166 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.checksum;
+
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.data.Row;
+import io.delta.kernel.internal.actions.Metadata;
+import io.delta.kernel.internal.actions.Protocol;
+import io.delta.kernel.internal.data.GenericRow;
+import io.delta.kernel.types.LongType;
+import io.delta.kernel.types.StringType;
+import io.delta.kernel.types.StructType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Content of the checksum file ({@code N.crc}) of a table version: the protocol and metadata of
+ * the table at that version, the number and total size of its active files, and optionally a
+ * histogram of their sizes.
+ */
+public class CRCInfo {
+  private static final Logger logger = LoggerFactory.getLogger(CRCInfo.class);
+
+  public static final StructType FULL_SCHEMA =
+      new StructType()
+          .add("tableSizeBytes", LongType.LONG, false /* nullable */)
+          .add("numFiles", LongType.LONG, false /* nullable */)
+          .add("numMetadata", LongType.LONG, false /* nullable */)
+          .add("numProtocol", LongType.LONG, false /* nullable */)
+          .add("metadata", Metadata.FULL_SCHEMA, false /* nullable */)
+          .add("protocol", Protocol.FULL_SCHEMA, false /* nullable */)
+          .add("txnId", StringType.STRING, true /* nullable */)
+          .add("histogramOpt", FileSizeHistogram.FULL_SCHEMA, true /* nullable */);
+
+  private static final int TABLE_SIZE_BYTES_ORDINAL = FULL_SCHEMA.indexOf("tableSizeBytes");
+  private static final int NUM_FILES_ORDINAL = FULL_SCHEMA.indexOf("numFiles");
+  private static final int NUM_METADATA_ORDINAL = FULL_SCHEMA.indexOf("numMetadata");
+  private static final int NUM_PROTOCOL_ORDINAL = FULL_SCHEMA.indexOf("numProtocol");
+  private static final int METADATA_ORDINAL = FULL_SCHEMA.indexOf("metadata");
+  private static final int PROTOCOL_ORDINAL = FULL_SCHEMA.indexOf("protocol");
+  private static final int TXN_ID_ORDINAL = FULL_SCHEMA.indexOf("txnId");
+  private static final int HISTOGRAM_ORDINAL = FULL_SCHEMA.indexOf("histogramOpt");
+
+  /**
+   * Returns the checksum of the given version at the given row of the given batch, read with
+   * {@link #FULL_SCHEMA}, or empty if any of its required fields is missing.
+   */
+  public static Optional<CRCInfo> fromColumnarBatch(
+      long version, ColumnarBatch batch, int rowId, String crcFilePath) {
+    for (int ordinal :
+        new int[] {
+          TABLE_SIZE_BYTES_ORDINAL,
+          NUM_FILES_ORDINAL,
+          NUM_METADATA_ORDINAL,
+          NUM_PROTOCOL_ORDINAL,
+          METADATA_ORDINAL,
+          PROTOCOL_ORDINAL
+        }) {
+      if (batch.getColumnVector(ordinal).isNullAt(rowId)) {
+        logger.warn(
+            "Invalid checksum file {}: missing field {}",
+            crcFilePath,
+            FULL_SCHEMA.at(ordinal).getName());
+        return Optional.empty();
+      }
+    }
+
+    return Optional.of(
+        new CRCInfo(
+            version,
+            Metadata.fromColumnVector(batch.getColumnVector(METADATA_ORDINAL), rowId),
+            Protocol.fromColumnVector(batch.getColumnVector(PROTOCOL_ORDINAL), rowId),
+            batch.getColumnVector(TABLE_SIZE_BYTES_ORDINAL).getLong(rowId),
+            batch.getColumnVector(NUM_FILES_ORDINAL).getLong(rowId),
+            batch.getColumnVector(TXN_ID_ORDINAL).isNullAt(rowId)
+                ? Optional.empty()
+                : Optional.of(batch.getColumnVector(TXN_ID_ORDINAL).getString(rowId)),
+            Optional.ofNullable(
+                FileSizeHistogram.fromColumnVector(
+                    batch.getColumnVector(HISTOGRAM_ORDINAL), rowId))));
+  }
+
+  private final long version;
+  private final Metadata metadata;
+  private final Protocol protocol;
+  private final long tableSizeBytes;
+  private final long numFiles;
+  private final Optional<String> txnId;
+  private final Optional<FileSizeHistogram> fileSizeHistogram;
+
+  public CRCInfo(
+      long version,
+      Metadata metadata,
+      Protocol protocol,
+      long tableSizeBytes,
+      long numFiles,
+      Optional<String> txnId,
+      Optional<FileSizeHistogram> fileSizeHistogram) {
+    this.version = version;
+    this.metadata = metadata;
+    this.protocol = protocol;
+    this.tableSizeBytes = tableSizeBytes;
+    this.numFiles = numFiles;
+    this.txnId = txnId;
+    this.fileSizeHistogram = fileSizeHistogram;
+  }
+
+  /** The table version this checksum is for. It is not stored in the file but in its name. */
+  public long getVersion() {
+    return version;
+  }
+
+  public Metadata getMetadata() {
+    return metadata;
+  }
+
+  public Protocol getProtocol() {
+    return protocol;
+  }
+
+  public long getTableSizeBytes() {
+    return tableSizeBytes;
+  }
+
+  public long getNumFiles() {
+    return numFiles;
+  }
+
+  public Optional<String> getTxnId() {
+    return txnId;
+  }
+
+  public Optional<FileSizeHistogram> getFileSizeHistogram() {
+    return fileSizeHistogram;
+  }
+
+  /** Encode as a {@link Row} object with the schema {@link #FULL_SCHEMA}. */
+  public Row toRow() {
+    Map<Integer, Object> valueMap = new HashMap<>();
+    valueMap.put(TABLE_SIZE_BYTES_ORDINAL, tableSizeBytes);
+    valueMap.put(NUM_FILES_ORDINAL, numFiles);
+    valueMap.put(NUM_METADATA_ORDINAL, 1L);
+    valueMap.put(NUM_PROTOCOL_ORDINAL, 1L);
+    valueMap.put(METADATA_ORDINAL, metadata.toRow());
+    valueMap.put(PROTOCOL_ORDINAL, protocol.toRow());
+    txnId.ifPresent(id -> valueMap.put(TXN_ID_ORDINAL, id));
+    fileSizeHistogram.ifPresent(histogram -> valueMap.put(HISTOGRAM_ORDINAL, histogram.toRow()));
+    return new GenericRow(FULL_SCHEMA, valueMap);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.checksum;
+
+import static io.delta.kernel.internal.DeltaErrors.wrapEngineExceptionThrowsIO;
+import static io.delta.kernel.internal.util.Utils.singletonCloseableIterator;
+
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.util.FileNames;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Utility methods to read the checksum file ({@code N.crc}) of a table version. */
+public class ChecksumReader {
+  private static final Logger logger = LoggerFactory.getLogger(ChecksumReader.class);
+
+  private ChecksumReader() {}
+
+  /**
+   * Read the given checksum file. The checksum is an optimization, so any failure to read it is
+   * logged and results in an empty value, for the caller to fall back to the log replay.
+   *
+   * @param engine {@link Engine} instance to use for reading
+   * @param checksumFile Status of the checksum file, as listed in the `_delta_log` directory
+   * @return the content of the checksum file, or empty if it cannot be read
+   */
+  public static Optional<CRCInfo> getCRCInfo(Engine engine, FileStatus checksumFile) {
+    long version = FileNames.checksumVersion(new Path(checksumFile.getPath()));
+    try (CloseableIterator<ColumnarBatch> batches =
+        wrapEngineExceptionThrowsIO(
+            () ->
+                engine
+                    .getJsonHandler()
+                    .readJsonFiles(
+                        singletonCloseableIterator(checksumFile),
+                        CRCInfo.FULL_SCHEMA,
+                        Optional.empty()),
+            "Reading the checksum file `%s`",
+            checksumFile.getPath())) {
+      // The checksum file has a single row
+      while (batches.hasNext()) {
+        ColumnarBatch batch = batches.next();
+        if (batch.getSize() > 0) {
+          return CRCInfo.fromColumnarBatch(version, batch, 0 /* rowId */, checksumFile.getPath());
+        }
+      }
+      logger.warn("Checksum file {} is empty", checksumFile.getPath());
+    } catch (Exception e) {
+      logger.warn("Failed to read checksum file {}", checksumFile.getPath(), e);
+    }
+    return Optional.empty();
+  }
+}
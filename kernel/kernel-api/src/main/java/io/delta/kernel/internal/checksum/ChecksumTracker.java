@@ -0,0 +1,111 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.checksum;
+
+import static io.delta.kernel.internal.actions.SingleAction.isAddFileAction;
+import static io.delta.kernel.internal.actions.SingleAction.isRemoveFileAction;
+
+import io.delta.kernel.data.Row;
+import io.delta.kernel.internal.actions.Metadata;
+import io.delta.kernel.internal.actions.Protocol;
+import java.util.Optional;
+
+/**
+ * Computes the checksum of a new table version incrementally, from the checksum of the previous
+ * version and the file actions of the commit, so that writing it requires no log replay.
+ */
+public class ChecksumTracker {
+
+  /** Returns a tracker for the first commit of a new table, which has no files yet. */
+  public static ChecksumTracker forNewTable() {
+    return new ChecksumTracker(0, 0, Optional.of(FileSizeHistogram.createDefaultHistogram()));
+  }
+
+  /** Returns a tracker for a commit on top of the version of the given checksum. */
+  public static ChecksumTracker fromPreviousChecksum(CRCInfo previous) {
+    return new ChecksumTracker(
+        previous.getTableSizeBytes(),
+        previous.getNumFiles(),
+        previous.getFileSizeHistogram().map(FileSizeHistogram::copy));
+  }
+
+  private long tableSizeBytes;
+  private long numFiles;
+  private Optional<FileSizeHistogram> fileSizeHistogram;
+  /** Whether the commit has a file action without size, so the table size can't be known. */
+  private boolean isTableSizeUnknown;
+
+  private ChecksumTracker(
+      long tableSizeBytes, long numFiles, Optional<FileSizeHistogram> fileSizeHistogram) {
+    this.tableSizeBytes = tableSizeBytes;
+    this.numFiles = numFiles;
+    this.fileSizeHistogram = fileSizeHistogram;
+  }
+
+  /** Account for the given action of the commit, if it is a file action. */
+  public Row trackDataAction(Row action) {
+    if (isAddFileAction(action)) {
+      Optional<Long> size = getFileSize(action, "add");
+      numFiles++;
+      size.ifPresent(
+          s -> {
+            tableSizeBytes += s;
+            fileSizeHistogram.ifPresent(histogram -> histogram.insert(s));
+          });
+      isTableSizeUnknown |= !size.isPresent();
+    } else if (isRemoveFileAction(action)) {
+      Optional<Long> size = getFileSize(action, "remove");
+      numFiles--;
+      size.ifPresent(
+          s -> {
+            tableSizeBytes -= s;
+            fileSizeHistogram.ifPresent(histogram -> histogram.remove(s));
+          });
+      isTableSizeUnknown |= !size.isPresent();
+    }
+    return action;
+  }
+
+  /**
+   * Returns the checksum of the new table version, once all the actions of the commit are tracked,
+   * or empty if it can't be computed because some file action has no size or the counts turned out
+   * inconsistent.
+   */
+  public Optional<CRCInfo> getNewChecksum(
+      long version, Protocol protocol, Metadata metadata, String txnId) {
+    if (isTableSizeUnknown || numFiles < 0 || tableSizeBytes < 0) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new CRCInfo(
+            version,
+            metadata,
+            protocol,
+            tableSizeBytes,
+            numFiles,
+            Optional.of(txnId),
+            fileSizeHistogram.filter(FileSizeHistogram::isValid)));
+  }
+
+  private static Optional<Long> getFileSize(Row action, String actionName) {
+    Row fileAction = action.getStruct(action.getSchema().indexOf(actionName));
+    int sizeOrdinal = fileAction.getSchema().indexOf("size");
+    if (sizeOrdinal < 0 || fileAction.isNullAt(sizeOrdinal)) {
+      return Optional.empty();
+    }
+    return Optional.of(fileAction.getLong(sizeOrdinal));
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.checksum;
+
+import static io.delta.kernel.internal.DeltaErrors.wrapEngineExceptionThrowsIO;
+import static io.delta.kernel.internal.util.Utils.singletonCloseableIterator;
+
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.util.FileNames;
+import java.io.IOException;
+
+/** Writes the checksum file ({@code N.crc}) of a table version. */
+public class ChecksumWriter {
+
+  private final Path logPath;
+
+  public ChecksumWriter(Path logPath) {
+    this.logPath = logPath;
+  }
+
+  /**
+   * Write the checksum file of the version of the given checksum. An existing checksum file is not
+   * overwritten, as it describes the same table version.
+   *
+   * @param engine {@link Engine} instance to use for writing
+   * @param crcInfo Checksum to write
+   * @throws java.nio.file.FileAlreadyExistsException if the checksum file already exists
+   * @throws IOException For any I/O issues.
+   */
+  public void writeCheckSum(Engine engine, CRCInfo crcInfo) throws IOException {
+    Path checksumPath = FileNames.checksumFile(logPath, crcInfo.getVersion());
+    wrapEngineExceptionThrowsIO(
+        () -> {
+          engine
+              .getJsonHandler()
+              .writeJsonFileAtomically(
+                  checksumPath.toString(),
+                  singletonCloseableIterator(crcInfo.toRow()),
+                  false /* overwrite */);
+          return null;
+        },
+        "Writing checksum file `%s`",
+        checksumPath);
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.checksum;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.data.ArrayValue;
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.Row;
+import io.delta.kernel.internal.data.GenericRow;
+import io.delta.kernel.internal.util.VectorUtils;
+import io.delta.kernel.types.ArrayType;
+import io.delta.kernel.types.LongType;
+import io.delta.kernel.types.StructType;
+import java.util.*;
+
+/**
+ * Histogram of the sizes of the active files of a table, as stored in the {@code histogramOpt}
+ * field of the checksum file. The bin {@code i} counts the files whose size is at least {@code
+ * sortedBinBoundaries[i]} and less than {@code sortedBinBoundaries[i + 1]}, the last bin counts the
+ * files of any larger size.
+ */
+public class FileSizeHistogram {
+
+  public static final StructType FULL_SCHEMA =
+      new StructType()
+          .add("sortedBinBoundaries", new ArrayType(LongType.LONG, false), false /* nullable */)
+          .add("fileCounts", new ArrayType(LongType.LONG, false), false /* nullable */)
+          .add("totalBytes", new ArrayType(LongType.LONG, false), false /* nullable */);
+
+  /** Bin boundaries of a new histogram: 0, then powers of two from 8 KB to 4 GB. */
+  private static final long[] DEFAULT_BIN_BOUNDARIES = createDefaultBinBoundaries();
+
+  /** Returns a new histogram with the default bin boundaries and no files. */
+  public static FileSizeHistogram createDefaultHistogram() {
+    long[] boundaries = DEFAULT_BIN_BOUNDARIES.clone();
+    return new FileSizeHistogram(
+        boundaries, new long[boundaries.length], new long[boundaries.length]);
+  }
+
+  /** Returns the histogram at the given row of the given vector, or null if it is null. */
+  public static FileSizeHistogram fromColumnVector(ColumnVector vector, int rowId) {
+    if (vector.isNullAt(rowId)) {
+      return null;
+    }
+    return new FileSizeHistogram(
+        toLongArray(vector.getChild(0).getArray(rowId)),
+        toLongArray(vector.getChild(1).getArray(rowId)),
+        toLongArray(vector.getChild(2).getArray(rowId)));
+  }
+
+  private final long[] sortedBinBoundaries;
+  private final long[] fileCounts;
+  private final long[] totalBytes;
+
+  public FileSizeHistogram(long[] sortedBinBoundaries, long[] fileCounts, long[] totalBytes) {
+    checkArgument(
+        sortedBinBoundaries.length > 0 && sortedBinBoundaries[0] == 0,
+        "The first bin boundary of a file size histogram must be 0");
+    checkArgument(
+        fileCounts.length == sortedBinBoundaries.length
+            && totalBytes.length == sortedBinBoundaries.length,
+        "A file size histogram must have as many file counts and total bytes as bins");
+    this.sortedBinBoundaries = sortedBinBoundaries;
+    this.fileCounts = fileCounts;
+    this.totalBytes = totalBytes;
+  }
+
+  /** Count a new file of the given size. */
+  public void insert(long fileSize) {
+    int bin = getBinIndex(fileSize);
+    fileCounts[bin]++;
+    totalBytes[bin] += fileSize;
+  }
+
+  /** Discount a removed file of the given size. */
+  public void remove(long fileSize) {
+    int bin = getBinIndex(fileSize);
+    fileCounts[bin]--;
+    totalBytes[bin] -= fileSize;
+  }
+
+  /**
+   * Returns whether the counts are consistent, i.e. no bin has fewer than zero files. They are not
+   * if a file was removed that was not counted in the first place.
+   */
+  public boolean isValid() {
+    for (int i = 0; i < fileCounts.length; i++) {
+      if (fileCounts[i] < 0 || totalBytes[i] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public FileSizeHistogram copy() {
+    return new FileSizeHistogram(
+        sortedBinBoundaries.clone(), fileCounts.clone(), totalBytes.clone());
+  }
+
+  public long[] getSortedBinBoundaries() {
+    return sortedBinBoundaries;
+  }
+
+  public long[] getFileCounts() {
+    return fileCounts;
+  }
+
+  public long[] getTotalBytes() {
+    return totalBytes;
+  }
+
+  public Row toRow() {
+    Map<Integer, Object> valueMap = new HashMap<>();
+    valueMap.put(0, longArrayValue(sortedBinBoundaries));
+    valueMap.put(1, longArrayValue(fileCounts));
+    valueMap.put(2, longArrayValue(totalBytes));
+    return new GenericRow(FULL_SCHEMA, valueMap);
+  }
+
+  @Override
+  public String toString() {
+    return "FileSizeHistogram{"
+        + "sortedBinBoundaries="
+        + Arrays.toString(sortedBinBoundaries)
+        + ", fileCounts="
+        + Arrays.toString(fileCounts)
+        + ", totalBytes="
+        + Arrays.toString(totalBytes)
+        + '}';
+  }
+
+  /** Returns the index of the bin of the given file size, i.e. of the last boundary <= size. */
+  private int getBinIndex(long fileSize) {
+    int index = Arrays.binarySearch(sortedBinBoundaries, fileSize);
+    // A negative index is (-(insertion point) - 1), the bin is the one before the insertion point
+    return index >= 0 ? index : Math.max(0, -index - 2);
+  }
+
+  private static long[] createDefaultBinBoundaries() {
+    List<Long> boundaries = new ArrayList<>();
+    boundaries.add(0L);
+    for (long boundary = 8 * 1024L; boundary <= 4 * 1024L * 1024L * 1024L; boundary *= 2) {
+      boundaries.add(boundary);
+    }
+    return boundaries.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private static long[] toLongArray(ArrayValue arrayValue) {
+    List<Long> values = VectorUtils.toJavaList(arrayValue);
+    return values.stream().mapToLong(Long::longValue).toArray();
+  }
+
+  private static ArrayValue longArrayValue(long[] values) {
+    List<Long> valueList = new ArrayList<>(values.length);
+    for (long value : values) {
+      valueList.add(value);
+    }
+    return VectorUtils.longArrayValue(valueList);
+  }
+}
@@ -20,16 +20,86 @@ import io.delta.kernel.data.ColumnVector;
 import io.delta.kernel.internal.deletionvectors.RoaringBitmapArray;
 import io.delta.kernel.types.BooleanType;
 import io.delta.kernel.types.DataType;
+import java.util.Optional;
 
-/** The selection vector for a columnar batch as a boolean {@link ColumnVector}. */
+/**
+ * The selection vector for a columnar batch as a boolean {@link ColumnVector}, with a bit set of
+ * the rows of the batch deleted by a deletion vector.
+ */
 public class SelectionColumnVector implements ColumnVector {
 
-  private final RoaringBitmapArray bitmap;
-  private final ColumnVector rowIndices;
+  /** Bit {@code rowId} is set if the row is deleted. */
+  private final long[] deletedRows;
+
+  private final int size;
 
-  public SelectionColumnVector(RoaringBitmapArray bitmap, ColumnVector rowIndices) {
-    this.bitmap = bitmap;
-    this.rowIndices = rowIndices;
+  private SelectionColumnVector(long[] deletedRows, int size) {
+    this.deletedRows = deletedRows;
+    this.size = size;
+  }
+
+  /**
+   * Create the selection vector of the rows of a batch that are not deleted by a deletion vector.
+   *
+   * <p>The row indexes read from a file are increasing, and usually consecutive. The bitmap is then
+   * iterated once over the range of row indexes of the batch, instead of being looked up for each
+   * row. Other row indexes are looked up one by one.
+   *
+   * @param bitmap the row indexes deleted by the deletion vector
+   * @param rowIndices the row index in the file of each row of the batch
+   * @return the selection vector, or empty if none of the rows of the batch are deleted
+   */
+  public static Optional<ColumnVector> forDeletionVector(
+      RoaringBitmapArray bitmap, ColumnVector rowIndices) {
+    int size = rowIndices.getSize();
+    if (size == 0) {
+      return Optional.empty();
+    }
+    long[] rowIndexes = new long[size];
+    boolean increasing = true;
+    for (int rowId = 0; rowId < size; rowId++) {
+      rowIndexes[rowId] = rowIndices.getLong(rowId);
+      increasing &= rowId == 0 || rowIndexes[rowId] > rowIndexes[rowId - 1];
+    }
+
+    long[] deletedRows = new long[(size + 63) >>> 6];
+    boolean[] anyDeleted = new boolean[1];
+    if (!increasing) {
+      for (int rowId = 0; rowId < size; rowId++) {
+        if (bitmap.contains(rowIndexes[rowId])) {
+          setBit(deletedRows, rowId);
+          anyDeleted[0] = true;
+        }
+      }
+    } else if (rowIndexes[size - 1] - rowIndexes[0] == size - 1) {
+      // consecutive row indexes: the row of a deleted row index is at its offset in the range
+      long first = rowIndexes[0];
+      bitmap.forEachInRange(
+          first,
+          rowIndexes[size - 1] + 1,
+          deleted -> {
+            setBit(deletedRows, (int) (deleted - first));
+            anyDeleted[0] = true;
+          });
+    } else {
+      // e.g. rows skipped by a filter: merge the deleted row indexes with the row indexes
+      int[] nextRowId = new int[1];
+      bitmap.forEachInRange(
+          rowIndexes[0],
+          rowIndexes[size - 1] + 1,
+          deleted -> {
+            while (rowIndexes[nextRowId[0]] < deleted) {
+              nextRowId[0]++;
+            }
+            if (rowIndexes[nextRowId[0]] == deleted) {
+              setBit(deletedRows, nextRowId[0]);
+              anyDeleted[0] = true;
+            }
+          });
+    }
+    return anyDeleted[0]
+        ? Optional.of(new SelectionColumnVector(deletedRows, size))
+        : Optional.empty();
   }
 
   @Override
@@ -39,12 +109,12 @@ public class SelectionColumnVector implements ColumnVector {
 
   @Override
   public int getSize() {
-    return rowIndices.getSize();
+    return size;
   }
 
   @Override
   public void close() {
-    rowIndices.close();
+    // nothing to release
   }
 
   @Override
@@ -54,6 +124,13 @@ public class SelectionColumnVector implements ColumnVector {
 
   @Override
   public boolean getBoolean(int rowId) {
-    return !bitmap.contains(rowIndices.getLong(rowId));
+    if (rowId < 0 || rowId >= size) {
+      throw new IllegalArgumentException("Invalid row id: " + rowId);
+    }
+    return (deletedRows[rowId >>> 6] & (1L << rowId)) == 0;
+  }
+
+  private static void setBit(long[] bits, int index) {
+    bits[index >>> 6] |= 1L << index;
   }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.data;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.types.DataType;
+import io.delta.kernel.types.StructType;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * A {@link ColumnVector} of {@link StructType} composed of the given child vectors. Useful to
+ * assemble a struct column from vectors that already exist, e.g. to add or remove fields of a
+ * struct column without copying the data.
+ */
+public class StructColumnVector implements ColumnVector {
+  private final StructType dataType;
+  private final int size;
+  private final IntPredicate isNull;
+  private final List<ColumnVector> children;
+
+  /**
+   * @param dataType type of the struct, with one field for each child vector
+   * @param size number of rows in the vector
+   * @param isNull whether the struct value at a given row id is null
+   * @param children vectors of the struct fields, in the order of the fields in {@code dataType}
+   */
+  public StructColumnVector(
+      StructType dataType, int size, IntPredicate isNull, List<ColumnVector> children) {
+    checkArgument(
+        dataType.length() == children.size(),
+        "Number of fields in %s doesn't match the number of child vectors %s",
+        dataType,
+        children.size());
+    this.dataType = dataType;
+    this.size = size;
+    this.isNull = isNull;
+    this.children = children;
+  }
+
+  @Override
+  public DataType getDataType() {
+    return dataType;
+  }
+
+  @Override
+  public int getSize() {
+    return size;
+  }
+
+  @Override
+  public void close() {
+    Utils.closeCloseablesSilently(children.toArray(new ColumnVector[0]));
+  }
+
+  @Override
+  public boolean isNullAt(int rowId) {
+    checkArgument(rowId >= 0 && rowId < size, "Invalid rowId: " + rowId);
+    return isNull.test(rowId);
+  }
+
+  @Override
+  public ColumnVector getChild(int ordinal) {
+    return children.get(ordinal);
+  }
+}
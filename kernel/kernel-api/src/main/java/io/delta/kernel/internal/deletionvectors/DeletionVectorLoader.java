@@ -0,0 +1,413 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.deletionvectors;
+
+import static io.delta.kernel.internal.DeltaErrors.wrapEngineExceptionThrowsIO;
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.engine.FileReadRequest;
+import io.delta.kernel.engine.FileSystemClient;
+import io.delta.kernel.internal.actions.DeletionVectorDescriptor;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.utils.CloseableIterator;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the bitmaps of deletion vectors, and caches the decoded bitmaps of the on-disk deletion
+ * vectors in an LRU cache keyed by the unique id of the deletion vector (prefixed with the table
+ * path for the ids relative to the table).
+ *
+ * <p>{@link #loadAll} loads the deletion vectors of a batch of scan files with a single {@link
+ * FileSystemClient#readFiles} call, so that the engine can issue the reads concurrently. The
+ * deletion vectors stored in the same file are read together: their ranges are sorted by offset and
+ * the ranges that are adjacent, or separated by at most {@link #MAX_COALESCING_GAP_BYTES}, are
+ * coalesced into one read of at most {@link #MAX_COALESCED_READ_BYTES} (unless a single deletion
+ * vector is larger).
+ *
+ * <p>The loader returned by {@link #forEngine(Engine)} is shared by all the scans with the same
+ * engine, and caches up to {@link Engine#getDeletionVectorCacheSizeInBytes()} bytes of deletion
+ * vectors.
+ */
+public class DeletionVectorLoader {
+  static final int MAX_COALESCING_GAP_BYTES = 8 * 1024;
+  static final int MAX_COALESCED_READ_BYTES = 16 * 1024 * 1024;
+
+  /** Loaders by engine, dropped once the engine is no longer used. */
+  private static final Map<Engine, DeletionVectorLoader> LOADERS =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  /** Returns the loader shared by the scans with the given engine. */
+  public static DeletionVectorLoader forEngine(Engine engine) {
+    return LOADERS.computeIfAbsent(
+        engine, e -> new DeletionVectorLoader(e.getDeletionVectorCacheSizeInBytes()));
+  }
+
+  private final long maxCacheSizeBytes;
+
+  /** Decoded bitmaps by cache key, in access order. Guarded by {@code this}. */
+  private final LinkedHashMap<String, CachedBitmap> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** Total serialized size of the cached deletion vectors. Guarded by {@code this}. */
+  private long cacheSizeBytes;
+
+  private final AtomicLong requestCount = new AtomicLong();
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong loadCount = new AtomicLong();
+  private final AtomicLong loadTimeNanos = new AtomicLong();
+  private final AtomicLong readRequestCount = new AtomicLong();
+  private final AtomicLong bytesRead = new AtomicLong();
+
+  /**
+   * @param maxCacheSizeBytes maximum total serialized size of the cached deletion vectors, {@code
+   *     0} to not cache them
+   */
+  public DeletionVectorLoader(long maxCacheSizeBytes) {
+    checkArgument(maxCacheSizeBytes >= 0, "invalid DV cache size: " + maxCacheSizeBytes);
+    this.maxCacheSizeBytes = maxCacheSizeBytes;
+  }
+
+  /** Returns whether this loader caches the bitmaps of the deletion vectors it loads. */
+  public boolean isCaching() {
+    return maxCacheSizeBytes > 0;
+  }
+
+  /** Load the bitmap of a deletion vector of a table, from the cache if cached. */
+  public RoaringBitmapArray load(
+      FileSystemClient fileSystemClient, String tablePath, DeletionVectorDescriptor dv)
+      throws IOException {
+    return loadAll(fileSystemClient, tablePath, Collections.singletonList(dv)).get(0);
+  }
+
+  /**
+   * Load the bitmaps of deletion vectors of a table, reading the ones that are not cached together.
+   *
+   * @return the bitmaps, in the order of {@code dvs}
+   */
+  public List<RoaringBitmapArray> loadAll(
+      FileSystemClient fileSystemClient, String tablePath, List<DeletionVectorDescriptor> dvs)
+      throws IOException {
+    RoaringBitmapArray[] bitmaps = new RoaringBitmapArray[dvs.size()];
+    // the on-disk deletion vectors to read, by cache key, and the indexes of their bitmaps
+    Map<String, DeletionVectorDescriptor> toRead = new LinkedHashMap<>();
+    Map<String, List<Integer>> toReadIndexes = new HashMap<>();
+    for (int i = 0; i < dvs.size(); i++) {
+      DeletionVectorDescriptor dv = dvs.get(i);
+      requestCount.incrementAndGet();
+      if (dv.getCardinality() == 0 || dv.isInline()) {
+        // no I/O to save
+        bitmaps[i] =
+            new DeletionVectorStoredBitmap(dv, Optional.of(tablePath)).load(fileSystemClient);
+        continue;
+      }
+      String key = cacheKey(tablePath, dv);
+      RoaringBitmapArray cached = getCached(key);
+      if (cached != null) {
+        hitCount.incrementAndGet();
+        bitmaps[i] = cached;
+      } else {
+        toRead.put(key, dv);
+        toReadIndexes.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+      }
+    }
+
+    if (!toRead.isEmpty()) {
+      long startTime = System.nanoTime();
+      Map<String, RoaringBitmapArray> read = read(fileSystemClient, tablePath, toRead);
+      loadTimeNanos.addAndGet(System.nanoTime() - startTime);
+      loadCount.addAndGet(read.size());
+      for (Map.Entry<String, RoaringBitmapArray> entry : read.entrySet()) {
+        for (int i : toReadIndexes.get(entry.getKey())) {
+          bitmaps[i] = entry.getValue();
+        }
+        putCached(entry.getKey(), entry.getValue(), toRead.get(entry.getKey()).getSizeInBytes());
+      }
+    }
+    return Arrays.asList(bitmaps);
+  }
+
+  /** Returns the metrics of this loader since it was created. */
+  public Metrics getMetrics() {
+    synchronized (this) {
+      return new Metrics(
+          requestCount.get(),
+          hitCount.get(),
+          loadCount.get(),
+          loadTimeNanos.get(),
+          readRequestCount.get(),
+          bytesRead.get(),
+          cache.size(),
+          cacheSizeBytes);
+    }
+  }
+
+  /** Drop all the cached bitmaps. */
+  public synchronized void clearCache() {
+    cache.clear();
+    cacheSizeBytes = 0;
+  }
+
+  /** Read the given on-disk deletion vectors, coalescing the ranges of the same file. */
+  private Map<String, RoaringBitmapArray> read(
+      FileSystemClient fileSystemClient,
+      String tablePath,
+      Map<String, DeletionVectorDescriptor> dvs)
+      throws IOException {
+    Map<String, List<Map.Entry<String, DeletionVectorDescriptor>>> dvsByFile = new HashMap<>();
+    for (Map.Entry<String, DeletionVectorDescriptor> entry : dvs.entrySet()) {
+      dvsByFile
+          .computeIfAbsent(entry.getValue().getAbsolutePath(tablePath), k -> new ArrayList<>())
+          .add(entry);
+    }
+    List<CoalescedRead> reads = new ArrayList<>();
+    for (Map.Entry<String, List<Map.Entry<String, DeletionVectorDescriptor>>> file :
+        dvsByFile.entrySet()) {
+      List<Map.Entry<String, DeletionVectorDescriptor>> fileDvs = file.getValue();
+      fileDvs.sort(Comparator.comparingInt(entry -> startOffset(entry.getValue())));
+      CoalescedRead current = null;
+      for (Map.Entry<String, DeletionVectorDescriptor> entry : fileDvs) {
+        DeletionVectorDescriptor dv = entry.getValue();
+        if (current == null || !current.canAppend(dv)) {
+          current = new CoalescedRead(file.getKey());
+          reads.add(current);
+        }
+        current.append(entry.getKey(), dv);
+      }
+    }
+    readRequestCount.addAndGet(reads.size());
+
+    Map<String, RoaringBitmapArray> bitmaps = new HashMap<>();
+    try (CloseableIterator<ByteArrayInputStream> streams =
+        wrapEngineExceptionThrowsIO(
+            () ->
+                fileSystemClient.readFiles(
+                    Utils.toCloseableIterator(reads.iterator()).<FileReadRequest>map(read -> read)),
+            "Reading deletion vectors of %s",
+            tablePath)) {
+      for (CoalescedRead read : reads) {
+        if (!streams.hasNext()) {
+          throw new IllegalStateException("Iterator should not be empty");
+        }
+        byte[] bytes = new byte[read.getReadLength()];
+        try (DataInputStream stream = new DataInputStream(streams.next())) {
+          stream.readFully(bytes);
+        }
+        bytesRead.addAndGet(bytes.length);
+        for (int i = 0; i < read.keys.size(); i++) {
+          DeletionVectorDescriptor dv = read.dvs.get(i);
+          bitmaps.put(
+              read.keys.get(i),
+              new DeletionVectorStoredBitmap(dv, Optional.of(tablePath))
+                  .loadFromStream(
+                      new ByteArrayInputStream(
+                          bytes, startOffset(dv) - read.startOffset, readLength(dv))));
+        }
+      }
+    }
+    return bitmaps;
+  }
+
+  private synchronized RoaringBitmapArray getCached(String key) {
+    CachedBitmap cached = cache.get(key);
+    return cached == null ? null : cached.bitmap;
+  }
+
+  private synchronized void putCached(String key, RoaringBitmapArray bitmap, long sizeInBytes) {
+    if (sizeInBytes > maxCacheSizeBytes) {
+      return;
+    }
+    CachedBitmap previous = cache.put(key, new CachedBitmap(bitmap, sizeInBytes));
+    cacheSizeBytes += sizeInBytes - (previous == null ? 0 : previous.sizeInBytes);
+    Iterator<CachedBitmap> eldest = cache.values().iterator();
+    while (cacheSizeBytes > maxCacheSizeBytes) {
+      cacheSizeBytes -= eldest.next().sizeInBytes;
+      eldest.remove();
+    }
+  }
+
+  /** The unique id of the deletion vector, which is relative to the table for the UUID ones. */
+  private static String cacheKey(String tablePath, DeletionVectorDescriptor dv) {
+    if (DeletionVectorDescriptor.UUID_DV_MARKER.equals(dv.getStorageType())) {
+      return tablePath + "/" + dv.getUniqueId();
+    }
+    return dv.getUniqueId();
+  }
+
+  private static int startOffset(DeletionVectorDescriptor dv) {
+    return dv.getOffset().orElse(0);
+  }
+
+  private static int readLength(DeletionVectorDescriptor dv) {
+    // 4 bytes in the front for the size and 4 bytes at the end for the CRC-32 checksum
+    return dv.getSizeInBytes() + 8;
+  }
+
+  private static class CachedBitmap {
+    final RoaringBitmapArray bitmap;
+    final long sizeInBytes;
+
+    CachedBitmap(RoaringBitmapArray bitmap, long sizeInBytes) {
+      this.bitmap = bitmap;
+      this.sizeInBytes = sizeInBytes;
+    }
+  }
+
+  /** A read of the ranges of one or more deletion vectors of the same file. */
+  private static class CoalescedRead implements FileReadRequest {
+    private final String path;
+    private final List<String> keys = new ArrayList<>();
+    private final List<DeletionVectorDescriptor> dvs = new ArrayList<>();
+    private int startOffset;
+    private int endOffset;
+
+    CoalescedRead(String path) {
+      this.path = path;
+    }
+
+    /** Whether the range of {@code dv}, which doesn't start before this read, may be added. */
+    boolean canAppend(DeletionVectorDescriptor dv) {
+      long end = Math.max(endOffset, (long) startOffset(dv) + readLength(dv));
+      return startOffset(dv) <= (long) endOffset + MAX_COALESCING_GAP_BYTES
+          && end - startOffset <= MAX_COALESCED_READ_BYTES;
+    }
+
+    void append(String key, DeletionVectorDescriptor dv) {
+      if (dvs.isEmpty()) {
+        startOffset = startOffset(dv);
+      }
+      keys.add(key);
+      dvs.add(dv);
+      endOffset = Math.max(endOffset, startOffset(dv) + readLength(dv));
+    }
+
+    @Override
+    public String getPath() {
+      return path;
+    }
+
+    @Override
+    public int getStartOffset() {
+      return startOffset;
+    }
+
+    @Override
+    public int getReadLength() {
+      return endOffset - startOffset;
+    }
+  }
+
+  /** Snapshot of the metrics of a {@link DeletionVectorLoader}. */
+  public static class Metrics {
+    private final long requestCount;
+    private final long hitCount;
+    private final long loadCount;
+    private final long loadTimeNanos;
+    private final long readRequestCount;
+    private final long bytesRead;
+    private final long cachedCount;
+    private final long cachedBytes;
+
+    Metrics(
+        long requestCount,
+        long hitCount,
+        long loadCount,
+        long loadTimeNanos,
+        long readRequestCount,
+        long bytesRead,
+        long cachedCount,
+        long cachedBytes) {
+      this.requestCount = requestCount;
+      this.hitCount = hitCount;
+      this.loadCount = loadCount;
+      this.loadTimeNanos = loadTimeNanos;
+      this.readRequestCount = readRequestCount;
+      this.bytesRead = bytesRead;
+      this.cachedCount = cachedCount;
+      this.cachedBytes = cachedBytes;
+    }
+
+    /** Number of deletion vectors requested, inline, empty and on-disk ones. */
+    public long getRequestCount() {
+      return requestCount;
+    }
+
+    /** Number of on-disk deletion vectors returned from the cache. */
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    /** Number of on-disk deletion vectors read from storage. */
+    public long getLoadCount() {
+      return loadCount;
+    }
+
+    /** Fraction of the on-disk deletion vectors returned from the cache, 0 if none requested. */
+    public double getHitRate() {
+      long onDiskCount = hitCount + loadCount;
+      return onDiskCount == 0 ? 0 : (double) hitCount / onDiskCount;
+    }
+
+    /** Total time spent reading and decoding the deletion vectors read from storage. */
+    public long getLoadTimeNanos() {
+      return loadTimeNanos;
+    }
+
+    /**
+     * Average time to read and decode a deletion vector from storage. The time of a batch of
+     * deletion vectors read together is shared by the deletion vectors of the batch.
+     */
+    public long getAverageLoadTimeNanos() {
+      return loadCount == 0 ? 0 : loadTimeNanos / loadCount;
+    }
+
+    /** Number of read requests issued, each reading one or more deletion vectors. */
+    public long getReadRequestCount() {
+      return readRequestCount;
+    }
+
+    public long getBytesRead() {
+      return bytesRead;
+    }
+
+    public long getCachedCount() {
+      return cachedCount;
+    }
+
+    /** Total serialized size of the cached deletion vectors. */
+    public long getCachedBytes() {
+      return cachedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "DeletionVectorLoaderMetrics(requests=%d, hits=%d, loads=%d, loadTimeNanos=%d, "
+              + "readRequests=%d, bytesRead=%d, cached=%d, cachedBytes=%d)",
+          requestCount,
+          hitCount,
+          loadCount,
+          loadTimeNanos,
+          readRequestCount,
+          bytesRead,
+          cachedCount,
+          cachedBytes);
+    }
+  }
+}
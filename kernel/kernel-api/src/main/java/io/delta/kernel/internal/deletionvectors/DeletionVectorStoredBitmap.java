@@ -50,7 +50,10 @@ public class DeletionVectorStoredBitmap {
     this.tableDataPath = tableDataPath;
   }
 
-  // TODO: for now we request 1 stream at a time
+  /**
+   * Load the bitmap, reading the deletion vector if it is on disk. See {@link DeletionVectorLoader}
+   * to read several deletion vectors at once, and cache them.
+   */
   public RoaringBitmapArray load(FileSystemClient fileSystemClient) throws IOException {
     if (dvDescriptor.getCardinality() == 0) { // isEmpty
       return new RoaringBitmapArray();
@@ -92,7 +95,7 @@ public class DeletionVectorStoredBitmap {
   }
 
   /** Read a serialized deletion vector from a data stream. */
-  private RoaringBitmapArray loadFromStream(ByteArrayInputStream stream) throws IOException {
+  RoaringBitmapArray loadFromStream(ByteArrayInputStream stream) throws IOException {
     DataInputStream dataStream = new DataInputStream(stream);
     try {
       int sizeAccordingToFile = dataStream.readInt();
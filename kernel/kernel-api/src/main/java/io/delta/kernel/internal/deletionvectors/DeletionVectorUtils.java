@@ -20,16 +20,14 @@ import io.delta.kernel.engine.Engine;
 import io.delta.kernel.internal.actions.DeletionVectorDescriptor;
 import io.delta.kernel.internal.util.Tuple2;
 import java.io.IOException;
-import java.util.Optional;
 
 /** Utility methods regarding deletion vectors. */
 public class DeletionVectorUtils {
   public static Tuple2<DeletionVectorDescriptor, RoaringBitmapArray> loadNewDvAndBitmap(
       Engine engine, String tablePath, DeletionVectorDescriptor dv) {
-    DeletionVectorStoredBitmap storedBitmap =
-        new DeletionVectorStoredBitmap(dv, Optional.of(tablePath));
     try {
-      RoaringBitmapArray bitmap = storedBitmap.load(engine.getFileSystemClient());
+      RoaringBitmapArray bitmap =
+          DeletionVectorLoader.forEngine(engine).load(engine.getFileSystemClient(), tablePath, dv);
       return new Tuple2<>(dv, bitmap);
     } catch (IOException e) {
       throw new RuntimeException("Couldn't load dv", e);
@@ -23,6 +23,8 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.function.LongConsumer;
+import org.roaringbitmap.PeekableIntIterator;
 import org.roaringbitmap.RoaringBitmap;
 
 /**
@@ -99,7 +101,7 @@ public final class RoaringBitmapArray {
   // Instance Fields / Methods
   ////////////////////////////////////////////////////////////////////////////////
 
-  private RoaringBitmap[] bitmaps;
+  private RoaringBitmap[] bitmaps = new RoaringBitmap[0];
 
   /**
    * Deserialize the contents of `buffer` into this [[RoaringBitmapArray]].
@@ -140,6 +142,34 @@ public final class RoaringBitmapArray {
     }
   }
 
+  /**
+   * Calls {@code consumer} with the values included in the range [{@code start}, {@code end}), in
+   * increasing order. Only the part of the bitmaps covering the range is iterated.
+   */
+  public void forEachInRange(long start, long end, LongConsumer consumer) {
+    checkArgument(start >= 0 && start <= end && end <= MAX_REPRESENTABLE_VALUE + 1);
+    if (start == end) {
+      return;
+    }
+    int firstHigh = highBytes(start);
+    int lastHigh = highBytes(end - 1);
+    for (int high = firstHigh; high <= lastHigh && high < bitmaps.length; high++) {
+      // the low bytes are ordered as unsigned integers in the bitmaps
+      long lowEnd = high == lastHigh ? Integer.toUnsignedLong(lowBytes(end - 1)) + 1 : 1L << 32;
+      PeekableIntIterator lowValues = bitmaps[high].getIntIterator();
+      if (high == firstHigh) {
+        lowValues.advanceIfNeeded(lowBytes(start));
+      }
+      while (lowValues.hasNext()) {
+        int low = lowValues.next();
+        if (Integer.toUnsignedLong(low) >= lowEnd) {
+          break;
+        }
+        consumer.accept(composeFromHighLowBytes(high, low));
+      }
+    }
+  }
+
   ////////////////////////////////////////////////////////////////////////////////
   // Serialization Formats
   ////////////////////////////////////////////////////////////////////////////////
@@ -258,7 +288,7 @@ public final class RoaringBitmapArray {
         newBitmaps, // dest
         0, // dest start pos
         bitmaps.length); // number of entries to copy
-    for (int i = 0; i < bitmaps.length; i++) {
+    for (int i = bitmaps.length; i < newLength; i++) {
       newBitmaps[i] = new RoaringBitmap();
     }
     bitmaps = newBitmaps;
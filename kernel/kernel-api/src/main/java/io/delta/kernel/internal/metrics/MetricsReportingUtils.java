@@ -0,0 +1,49 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.metrics;
+
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.engine.MetricsReporter;
+import io.delta.kernel.metrics.MetricsReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Utility methods to deliver {@link MetricsReport}s to the {@link MetricsReporter}s. */
+public final class MetricsReportingUtils {
+  private static final Logger logger = LoggerFactory.getLogger(MetricsReportingUtils.class);
+
+  private MetricsReportingUtils() {}
+
+  /**
+   * Deliver the given report to each of the {@link MetricsReporter}s of the engine. A reporter
+   * failing doesn't fail the operation being reported, nor prevents the other reporters from
+   * receiving the report.
+   */
+  public static void report(Engine engine, MetricsReport report) {
+    for (MetricsReporter reporter : engine.getMetricsReporters()) {
+      try {
+        reporter.report(report);
+      } catch (RuntimeException e) {
+        logger.warn(
+            "{}: Failed to report the {} metrics with {}",
+            report.getTablePath(),
+            report.getOperationType(),
+            reporter,
+            e);
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.metrics;
+
+import io.delta.kernel.expressions.Predicate;
+import io.delta.kernel.internal.replay.LogReplayMetrics;
+import io.delta.kernel.metrics.ScanReport;
+import java.util.Optional;
+
+/** Implementation of {@link ScanReport}. */
+public class ScanReportImpl implements ScanReport {
+  private final String tablePath;
+  private final long tableVersion;
+  private final Optional<Predicate> filter;
+  private final boolean fromInMemoryScanFiles;
+  private final LogReplayMetrics logReplayMetrics;
+  private final long numFilesPrunedByPartitionFilter;
+  private final long numFilesPrunedByDataSkipping;
+  private final long numScanFilesReturned;
+  private final long planningDurationNanos;
+
+  /** @param logReplayMetrics the metrics of the log replay, which must not be updated anymore */
+  public ScanReportImpl(
+      String tablePath,
+      long tableVersion,
+      Optional<Predicate> filter,
+      boolean fromInMemoryScanFiles,
+      LogReplayMetrics logReplayMetrics,
+      long numFilesPrunedByPartitionFilter,
+      long numFilesPrunedByDataSkipping,
+      long numScanFilesReturned,
+      long planningDurationNanos) {
+    this.tablePath = tablePath;
+    this.tableVersion = tableVersion;
+    this.filter = filter;
+    this.fromInMemoryScanFiles = fromInMemoryScanFiles;
+    this.logReplayMetrics = logReplayMetrics;
+    this.numFilesPrunedByPartitionFilter = numFilesPrunedByPartitionFilter;
+    this.numFilesPrunedByDataSkipping = numFilesPrunedByDataSkipping;
+    this.numScanFilesReturned = numScanFilesReturned;
+    this.planningDurationNanos = planningDurationNanos;
+  }
+
+  @Override
+  public String getTablePath() {
+    return tablePath;
+  }
+
+  @Override
+  public String getOperationType() {
+    return "Scan";
+  }
+
+  @Override
+  public long getTableVersion() {
+    return tableVersion;
+  }
+
+  @Override
+  public Optional<Predicate> getFilter() {
+    return filter;
+  }
+
+  @Override
+  public boolean isFromInMemoryScanFiles() {
+    return fromInMemoryScanFiles;
+  }
+
+  @Override
+  public long getNumCommitFilesRead() {
+    return logReplayMetrics.getNumCommitFilesRead();
+  }
+
+  @Override
+  public long getCommitFilesBytesRead() {
+    return logReplayMetrics.getCommitFilesBytesRead();
+  }
+
+  @Override
+  public long getNumCheckpointFilesRead() {
+    return logReplayMetrics.getNumCheckpointFilesRead();
+  }
+
+  @Override
+  public long getCheckpointFilesBytesRead() {
+    return logReplayMetrics.getCheckpointFilesBytesRead();
+  }
+
+  @Override
+  public long getNumSidecarFilesRead() {
+    return logReplayMetrics.getNumSidecarFilesRead();
+  }
+
+  @Override
+  public long getSidecarFilesBytesRead() {
+    return logReplayMetrics.getSidecarFilesBytesRead();
+  }
+
+  @Override
+  public long getNumBatchesRead() {
+    return logReplayMetrics.getNumBatchesRead();
+  }
+
+  @Override
+  public long getNumAddFilesSeen() {
+    return logReplayMetrics.getNumAddFilesSeen();
+  }
+
+  @Override
+  public long getNumAddFilesSeenFromDeltaFiles() {
+    return logReplayMetrics.getNumAddFilesSeenFromDeltaFiles();
+  }
+
+  @Override
+  public long getNumActiveAddFiles() {
+    return logReplayMetrics.getNumActiveAddFiles();
+  }
+
+  @Override
+  public long getNumDuplicateAddFiles() {
+    return logReplayMetrics.getNumDuplicateAddFiles();
+  }
+
+  @Override
+  public long getNumTombstonesSeen() {
+    return logReplayMetrics.getNumTombstonesSeen();
+  }
+
+  @Override
+  public long getNumFilesPrunedByPartitionFilter() {
+    return numFilesPrunedByPartitionFilter;
+  }
+
+  @Override
+  public long getNumFilesPrunedByDataSkipping() {
+    return numFilesPrunedByDataSkipping;
+  }
+
+  @Override
+  public long getNumScanFilesReturned() {
+    return numScanFilesReturned;
+  }
+
+  @Override
+  public long getPlanningDurationNanos() {
+    return planningDurationNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "ScanReport(tablePath=%s, tableVersion=%d, filter=%s, fromInMemoryScanFiles=%s, "
+            + "numFilesPrunedByPartitionFilter=%d, numFilesPrunedByDataSkipping=%d, "
+            + "numScanFilesReturned=%d, planningDurationMs=%d, logReplayMetrics=[%s])",
+        tablePath,
+        tableVersion,
+        filter,
+        fromInMemoryScanFiles,
+        numFilesPrunedByPartitionFilter,
+        numFilesPrunedByDataSkipping,
+        numScanFilesReturned,
+        planningDurationNanos / 1_000_000,
+        logReplayMetrics.toString().trim().replace("\n", ", "));
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.metrics;
+
+import io.delta.kernel.internal.snapshot.LogSegment;
+import io.delta.kernel.internal.snapshot.SnapshotLoadMetrics;
+import io.delta.kernel.metrics.SnapshotReport;
+import java.util.Optional;
+
+/** Implementation of {@link SnapshotReport}. */
+public class SnapshotReportImpl implements SnapshotReport {
+  private final String tablePath;
+  private final long version;
+  private final Optional<Long> checkpointVersion;
+  private final long numCheckpointFiles;
+  private final long numCommitFiles;
+  private final long numListingCalls;
+  private final long numFilesListed;
+  private final long listingDurationNanos;
+  private final long loadDurationNanos;
+
+  /**
+   * @param logSegment the log segment the snapshot is built from
+   * @param loadMetrics the metrics of the listing of the log done to load the snapshot
+   * @param loadDurationNanos total time to load the snapshot
+   */
+  public SnapshotReportImpl(
+      String tablePath,
+      LogSegment logSegment,
+      SnapshotLoadMetrics loadMetrics,
+      long loadDurationNanos) {
+    this.tablePath = tablePath;
+    this.version = logSegment.version;
+    this.checkpointVersion = logSegment.checkpointVersionOpt;
+    this.numCheckpointFiles = logSegment.checkpoints.size();
+    this.numCommitFiles = logSegment.deltas.size();
+    this.numListingCalls = loadMetrics.getNumListingCalls();
+    this.numFilesListed = loadMetrics.getNumFilesListed();
+    this.listingDurationNanos = loadMetrics.getListingDurationNanos();
+    this.loadDurationNanos = loadDurationNanos;
+  }
+
+  @Override
+  public String getTablePath() {
+    return tablePath;
+  }
+
+  @Override
+  public String getOperationType() {
+    return "Snapshot";
+  }
+
+  @Override
+  public long getVersion() {
+    return version;
+  }
+
+  @Override
+  public Optional<Long> getCheckpointVersion() {
+    return checkpointVersion;
+  }
+
+  @Override
+  public long getNumCheckpointFiles() {
+    return numCheckpointFiles;
+  }
+
+  @Override
+  public long getNumCommitFiles() {
+    return numCommitFiles;
+  }
+
+  @Override
+  public long getNumListingCalls() {
+    return numListingCalls;
+  }
+
+  @Override
+  public long getNumFilesListed() {
+    return numFilesListed;
+  }
+
+  @Override
+  public long getListingDurationNanos() {
+    return listingDurationNanos;
+  }
+
+  @Override
+  public long getLoadDurationNanos() {
+    return loadDurationNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "SnapshotReport(tablePath=%s, version=%d, checkpointVersion=%s, numCheckpointFiles=%d, "
+            + "numCommitFiles=%d, numListingCalls=%d, numFilesListed=%d, listingDurationMs=%d, "
+            + "loadDurationMs=%d)",
+        tablePath,
+        version,
+        checkpointVersion,
+        numCheckpointFiles,
+        numCommitFiles,
+        numListingCalls,
+        numFilesListed,
+        listingDurationNanos / 1_000_000,
+        loadDurationNanos / 1_000_000);
+  }
+}
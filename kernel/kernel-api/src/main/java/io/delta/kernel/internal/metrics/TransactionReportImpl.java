@@ -0,0 +1,120 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.metrics;
+
+import io.delta.kernel.metrics.TransactionReport;
+import java.util.Optional;
+
+/** Implementation of {@link TransactionReport}. */
+public class TransactionReportImpl implements TransactionReport {
+  private final String tablePath;
+  private final String operation;
+  private final long readVersion;
+  private final Optional<Long> committedVersion;
+  private final long numCommitRetries;
+  private final long numAddFiles;
+  private final long numRemoveFiles;
+  private final long commitDurationNanos;
+  private final Optional<Exception> exception;
+
+  public TransactionReportImpl(
+      String tablePath,
+      String operation,
+      long readVersion,
+      Optional<Long> committedVersion,
+      long numCommitRetries,
+      long numAddFiles,
+      long numRemoveFiles,
+      long commitDurationNanos,
+      Optional<Exception> exception) {
+    this.tablePath = tablePath;
+    this.operation = operation;
+    this.readVersion = readVersion;
+    this.committedVersion = committedVersion;
+    this.numCommitRetries = numCommitRetries;
+    this.numAddFiles = numAddFiles;
+    this.numRemoveFiles = numRemoveFiles;
+    this.commitDurationNanos = commitDurationNanos;
+    this.exception = exception;
+  }
+
+  @Override
+  public String getTablePath() {
+    return tablePath;
+  }
+
+  @Override
+  public String getOperationType() {
+    return "Transaction";
+  }
+
+  @Override
+  public String getOperation() {
+    return operation;
+  }
+
+  @Override
+  public long getReadVersion() {
+    return readVersion;
+  }
+
+  @Override
+  public Optional<Long> getCommittedVersion() {
+    return committedVersion;
+  }
+
+  @Override
+  public long getNumCommitRetries() {
+    return numCommitRetries;
+  }
+
+  @Override
+  public long getNumAddFiles() {
+    return numAddFiles;
+  }
+
+  @Override
+  public long getNumRemoveFiles() {
+    return numRemoveFiles;
+  }
+
+  @Override
+  public long getCommitDurationNanos() {
+    return commitDurationNanos;
+  }
+
+  @Override
+  public Optional<Exception> getException() {
+    return exception;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "TransactionReport(tablePath=%s, operation=%s, readVersion=%d, committedVersion=%s, "
+            + "numCommitRetries=%d, numAddFiles=%d, numRemoveFiles=%d, commitDurationMs=%d, "
+            + "exception=%s)",
+        tablePath,
+        operation,
+        readVersion,
+        committedVersion,
+        numCommitRetries,
+        numAddFiles,
+        numRemoveFiles,
+        commitDurationNanos / 1_000_000,
+        exception);
+  }
+}
@@ -40,9 +40,10 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * This class takes as input a list of delta files (.json, .checkpoint.parquet) and produces an
- * iterator of (ColumnarBatch, isFromCheckpoint) tuples, where the schema of the ColumnarBatch
- * semantically represents actions (or, a subset of action fields) parsed from the Delta Log.
+ * This class takes as input a list of delta files (.json, .compacted.json, .checkpoint.parquet) and
+ * produces an iterator of (ColumnarBatch, isFromCheckpoint) tuples, where the schema of the
+ * ColumnarBatch semantically represents actions (or, a subset of action fields) parsed from the
+ * Delta Log.
  *
  * <p>Users must pass in a `readSchema` to select which actions and sub-fields they want to consume.
  */
@@ -60,6 +61,13 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
    */
   private final LinkedList<DeltaLogFile> filesList;
 
+  /**
+   * Iterators of the commit files that were popped from the head of {@link #filesList} and whose
+   * read was already issued, in the same (reverse version) order as in {@link #filesList}. These
+   * are consumed before any remaining file in {@link #filesList}.
+   */
+  private final LinkedList<CloseableIterator<ActionWrapper>> readAheadCommitIters;
+
   private final StructType readSchema;
 
   private final boolean schemaContainsAddOrRemoveFiles;
@@ -72,6 +80,9 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
    */
   private Optional<CloseableIterator<ActionWrapper>> actionsIter;
 
+  /** Metrics of the log files read, shared with the consumer of this iterator. */
+  private final LogReplayMetrics metrics;
+
   private boolean closed;
 
   public ActionsIterator(
@@ -79,13 +90,25 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
       List<FileStatus> files,
       StructType readSchema,
       Optional<Predicate> checkpointPredicate) {
+    this(engine, files, readSchema, checkpointPredicate, new LogReplayMetrics());
+  }
+
+  /** @param metrics metrics in which to record the log files read */
+  public ActionsIterator(
+      Engine engine,
+      List<FileStatus> files,
+      StructType readSchema,
+      Optional<Predicate> checkpointPredicate,
+      LogReplayMetrics metrics) {
     this.engine = engine;
+    this.metrics = metrics;
     this.checkpointPredicate = checkpointPredicate;
     this.filesList = new LinkedList<>();
     this.filesList.addAll(
         files.stream()
             .map(file -> DeltaLogFile.forCommitOrCheckpoint(file))
             .collect(Collectors.toList()));
+    this.readAheadCommitIters = new LinkedList<>();
     this.readSchema = readSchema;
     this.actionsIter = Optional.empty();
     this.schemaContainsAddOrRemoveFiles = LogReplay.containsAddOrRemoveFileActions(readSchema);
@@ -124,10 +147,13 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
 
   @Override
   public void close() throws IOException {
-    if (!closed && actionsIter.isPresent()) {
-      actionsIter.get().close();
+    if (!closed && (actionsIter.isPresent() || !readAheadCommitIters.isEmpty())) {
+      List<CloseableIterator<ActionWrapper>> toClose = new ArrayList<>(readAheadCommitIters);
+      actionsIter.ifPresent(toClose::add);
+      readAheadCommitIters.clear();
       actionsIter = Optional.empty();
       closed = true;
+      Utils.closeCloseables(toClose.toArray(new AutoCloseable[0]));
     }
   }
 
@@ -150,7 +176,7 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
     }
 
     // Search for the next non-empty file and use that iter
-    while (!filesList.isEmpty()) {
+    while (!readAheadCommitIters.isEmpty() || !filesList.isEmpty()) {
       actionsIter = Optional.of(getNextActionsIter());
 
       if (actionsIter.get().hasNext()) {
@@ -288,9 +314,14 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
    * Get the next file from `filesList` (.json or .checkpoint.parquet) read it + inject the
    * `isFromCheckpoint` information.
    *
-   * <p>Requires that `filesList.isEmpty` is false.
+   * <p>Requires that `readAheadCommitIters.isEmpty` or `filesList.isEmpty` is false.
    */
   private CloseableIterator<ActionWrapper> getNextActionsIter() {
+    if (!readAheadCommitIters.isEmpty()) {
+      CloseableIterator<ActionWrapper> commitIter = readAheadCommitIters.pop();
+      issueCommitFileReadAhead();
+      return commitIter;
+    }
     final DeltaLogFile nextLogFile = filesList.pop();
     final FileStatus nextFile = nextLogFile.getFile();
     final Path nextFilePath = new Path(nextFile.getPath());
@@ -298,29 +329,11 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
     try {
       switch (nextLogFile.getLogType()) {
         case COMMIT:
+        case LOG_COMPACTION:
           {
-            final long fileVersion = FileNames.deltaVersion(nextFilePath);
-            // We can not read multiple JSON files in parallel (like the checkpoint files),
-            // because each one has a different version, and we need to associate the
-            // version with actions read from the JSON file for further optimizations later
-            // on (faster metadata & protocol loading in subsequent runs by remembering
-            // the version of the last version where the metadata and protocol are found).
-            final CloseableIterator<ColumnarBatch> dataIter =
-                wrapEngineExceptionThrowsIO(
-                    () ->
-                        engine
-                            .getJsonHandler()
-                            .readJsonFiles(
-                                singletonCloseableIterator(nextFile), readSchema, Optional.empty()),
-                    "Reading JSON log file `%s` with readSchema=%s",
-                    nextFile,
-                    readSchema);
-
-            return combine(
-                dataIter,
-                false /* isFromCheckpoint */,
-                fileVersion,
-                Optional.of(nextFile.getModificationTime()) /* timestamp */);
+            CloseableIterator<ActionWrapper> commitIter = readCommitFile(nextLogFile);
+            issueCommitFileReadAhead();
+            return commitIter;
           }
         case CHECKPOINT_CLASSIC:
         case V2_CHECKPOINT_MANIFEST:
@@ -330,6 +343,7 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
             // parts of the current multipart checkpoint.
             CloseableIterator<ColumnarBatch> dataIter =
                 getActionsIterFromSinglePartOrV2Checkpoint(nextFile, fileName);
+            metrics.incNumLogFilesRead(nextLogFile.getLogType(), nextFile.getSize());
             long version = checkpointVersion(nextFilePath);
             return combine(dataIter, true /* isFromCheckpoint */, version, Optional.empty());
           }
@@ -352,7 +366,8 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
                     readSchema,
                     checkpointPredicate);
 
-            long version = checkpointVersion(nextFilePath);
+            // Sidecar file names need not have the checkpoint version in them
+            long version = nextLogFile.getVersion();
             return combine(dataIter, true /* isFromCheckpoint */, version, Optional.empty());
           }
         default:
@@ -363,6 +378,64 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
     }
   }
 
+  /**
+   * Issue the read of the commit files immediately following the one being read, until there are
+   * as many outstanding reads as the {@link io.delta.kernel.engine.JsonHandler} reads ahead (see
+   * {@link io.delta.kernel.engine.JsonHandler#getReadAheadFileCount()}) or the next file in {@link
+   * #filesList} is neither a commit file nor a log compaction file.
+   */
+  private void issueCommitFileReadAhead() {
+    int readAheadFileCount = engine.getJsonHandler().getReadAheadFileCount();
+    while (readAheadCommitIters.size() < readAheadFileCount
+        && !filesList.isEmpty()
+        && isCommitOrLogCompaction(filesList.peek())) {
+      readAheadCommitIters.add(readCommitFile(filesList.pop()));
+    }
+  }
+
+  private static boolean isCommitOrLogCompaction(DeltaLogFile logFile) {
+    return logFile.getLogType() == DeltaLogFile.LogType.COMMIT
+        || logFile.getLogType() == DeltaLogFile.LogType.LOG_COMPACTION;
+  }
+
+  /**
+   * Issue the read of the given commit file and tag the returned batches with the version and
+   * timestamp of the commit file. The actions of a log compaction file are tagged with the version
+   * of the last commit it aggregates.
+   */
+  private CloseableIterator<ActionWrapper> readCommitFile(DeltaLogFile commitLogFile) {
+    final FileStatus commitFile = commitLogFile.getFile();
+    final long fileVersion = commitLogFile.getVersion();
+    // Each commit file is read with a separate request (unlike the checkpoint files), because
+    // each one has a different version, and we need to associate the version with actions read
+    // from the JSON file for further optimizations later on (faster metadata & protocol loading
+    // in subsequent runs by remembering the version of the last version where the metadata and
+    // protocol are found). Reads of the next few commit files are issued ahead of time (see
+    // `issueCommitFileReadAhead`), so that the JsonHandler can fetch them concurrently.
+    final CloseableIterator<ColumnarBatch> dataIter;
+    try {
+      dataIter =
+          wrapEngineExceptionThrowsIO(
+              () ->
+                  engine
+                      .getJsonHandler()
+                      .readJsonFiles(
+                          singletonCloseableIterator(commitFile), readSchema, Optional.empty()),
+              "Reading JSON log file `%s` with readSchema=%s",
+              commitFile,
+              readSchema);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    metrics.incNumLogFilesRead(commitLogFile.getLogType(), commitFile.getSize());
+
+    return combine(
+        dataIter,
+        false /* isFromCheckpoint */,
+        fileVersion,
+        Optional.of(commitFile.getModificationTime()) /* timestamp */);
+  }
+
   /** Take input (iterator<T>, boolean) and produce an iterator<T, boolean>. */
   private CloseableIterator<ActionWrapper> combine(
       CloseableIterator<ColumnarBatch> fileReadDataIter,
@@ -415,6 +488,9 @@ public class ActionsIterator implements CloseableIterator<ActionWrapper> {
       }
     }
 
+    for (FileStatus checkpointFile : checkpointFiles) {
+      metrics.incNumLogFilesRead(deltaLogFile.getLogType(), checkpointFile.getSize());
+    }
     return toCloseableIterator(checkpointFiles.iterator());
   }
 }
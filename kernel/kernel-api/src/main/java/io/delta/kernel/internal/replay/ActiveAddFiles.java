@@ -0,0 +1,251 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.replay;
+
+import static io.delta.kernel.internal.DeltaErrors.wrapEngineException;
+import static io.delta.kernel.internal.replay.LogReplay.ADD_FILE_DV_ORDINAL;
+import static io.delta.kernel.internal.replay.LogReplay.ADD_FILE_ORDINAL;
+import static io.delta.kernel.internal.replay.LogReplay.ADD_FILE_PATH_ORDINAL;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.FilteredColumnarBatch;
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.util.FileNames;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The active AddFiles of a snapshot, materialized in memory so that the active AddFiles of a newer
+ * snapshot can be computed by reading only the commits after this snapshot.
+ *
+ * <p>The AddFiles are kept as the batches returned by {@link ActiveAddFilesIterator} (with the
+ * statistics), along with the position of each active AddFile in the batches. The batches are never
+ * modified: when a newer commit removes or replaces an AddFile, the newer state gets a copy of the
+ * selection vector of the batch with the AddFile unselected, and the batches of the newer commits
+ * are appended after the existing batches. The positions of the existing AddFiles don't change, so
+ * the work to compute the newer state is proportional to the number of file actions in the newer
+ * commits (and the size of the batches they touch), not to the size of the table.
+ */
+public class ActiveAddFiles {
+  private static final Logger logger = LoggerFactory.getLogger(ActiveAddFiles.class);
+
+  private final long version;
+  private final List<FilteredColumnarBatch> batches;
+
+  /**
+   * Position of each active AddFile, by (path, dv id): the batch index in the upper 32 bits and the
+   * row id in the lower 32 bits. Handed over to the state computed from this one, as it is only
+   * needed to compute the next state, and rebuilt from the batches if this state is updated again.
+   */
+  private FileActionKeyMap positions;
+
+  private ActiveAddFiles(
+      long version, List<FilteredColumnarBatch> batches, FileActionKeyMap positions) {
+    this.version = version;
+    this.batches = batches;
+    this.positions = positions;
+  }
+
+  /**
+   * Materialize the given active AddFiles of the snapshot at the given version.
+   *
+   * @param activeAddFiles output of {@link ActiveAddFilesIterator}, with the statistics. Closed by
+   *     this method.
+   */
+  static ActiveAddFiles materialize(
+      long version, CloseableIterator<FilteredColumnarBatch> activeAddFiles) {
+    long startTimeMillis = System.currentTimeMillis();
+    List<FilteredColumnarBatch> batches = new ArrayList<>();
+    try (CloseableIterator<FilteredColumnarBatch> iter = activeAddFiles) {
+      while (iter.hasNext()) {
+        FilteredColumnarBatch batch = iter.next();
+        if (hasSelectedRows(batch)) {
+          batches.add(batch);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close the active AddFiles iterator", e);
+    }
+    ActiveAddFiles result =
+        new ActiveAddFiles(version, batches, indexPositions(new FileActionKeyMap(), batches, 0));
+    logger.info(
+        "Took {}ms to load the {} active AddFiles at version {}",
+        System.currentTimeMillis() - startTimeMillis,
+        result.positions.size(),
+        version);
+    return result;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /** Returns the active AddFiles, in the same format as {@link ActiveAddFilesIterator}. */
+  public CloseableIterator<FilteredColumnarBatch> getBatches() {
+    return Utils.toCloseableIterator(batches.iterator());
+  }
+
+  /**
+   * Compute the active AddFiles of a newer snapshot by applying the file actions of the given
+   * commits.
+   *
+   * @param engine {@link Engine} to read the commit files with
+   * @param dataPath path of the table
+   * @param commits the commit files after the version of this state, in increasing version order
+   * @return the active AddFiles at the version of the last commit
+   */
+  ActiveAddFiles applyCommits(Engine engine, Path dataPath, List<FileStatus> commits) {
+    long startTimeMillis = System.currentTimeMillis();
+    long newVersion = FileNames.deltaVersion(commits.get(commits.size() - 1).getPath());
+
+    // Replay the new commits on their own. This selects the AddFiles of the new commits that are
+    // still active, and collects the keys of all the file actions of the new commits, each of
+    // which removes or replaces the AddFile with the same key in this state.
+    List<FileStatus> commitsReversed = new ArrayList<>(commits);
+    Collections.reverse(commitsReversed);
+    ActiveAddFilesIterator newAddFilesIter =
+        new ActiveAddFilesIterator(
+            engine,
+            new ActionsIterator(
+                engine,
+                commitsReversed,
+                LogReplay.getAddRemoveReadSchema(true /* shouldReadStats */),
+                Optional.empty()),
+            dataPath);
+    List<FilteredColumnarBatch> newBatches = new ArrayList<>();
+    try (CloseableIterator<FilteredColumnarBatch> iter = newAddFilesIter) {
+      while (iter.hasNext()) {
+        FilteredColumnarBatch batch = iter.next();
+        if (hasSelectedRows(batch)) {
+          newBatches.add(batch);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to close the active AddFiles iterator", e);
+    }
+
+    FileActionKeyMap newPositions = takePositions();
+    List<FilteredColumnarBatch> newStateBatches = new ArrayList<>(batches);
+
+    // Unselect the AddFiles of this state that are removed or replaced by the new commits. The
+    // selection vector of each affected batch is copied once.
+    Map<Integer, boolean[]> updatedSelections = new HashMap<>();
+    int numBefore = newPositions.size();
+    for (FileActionKeyMap keys :
+        Arrays.asList(
+            newAddFilesIter.getTombstonesFromJson(), newAddFilesIter.getAddFilesFromJson())) {
+      newPositions.removeAll(
+          keys,
+          position -> {
+            int batchIndex = (int) (position >>> 32);
+            boolean[] selection =
+                updatedSelections.computeIfAbsent(
+                    batchIndex, index -> toSelectionArray(newStateBatches.get(index)));
+            selection[(int) position] = false;
+          });
+    }
+    int numRemoved = numBefore - newPositions.size();
+    for (Map.Entry<Integer, boolean[]> entry : updatedSelections.entrySet()) {
+      FilteredColumnarBatch batch = newStateBatches.get(entry.getKey());
+      boolean[] selection = entry.getValue();
+      ColumnVector selectionVector =
+          wrapEngineException(
+              () ->
+                  engine
+                      .getExpressionHandler()
+                      .createSelectionVector(selection, 0, batch.getData().getSize()),
+              "Create selection vector for the active AddFiles");
+      newStateBatches.set(
+          entry.getKey(), new FilteredColumnarBatch(batch.getData(), Optional.of(selectionVector)));
+    }
+
+    // Append the AddFiles of the new commits
+    int numAdded = newPositions.size();
+    indexPositions(newPositions, newBatches, newStateBatches.size());
+    numAdded = newPositions.size() - numAdded;
+    newStateBatches.addAll(newBatches);
+
+    logger.info(
+        "Took {}ms to apply {} commits to the active AddFiles at version {}: "
+            + "{} AddFiles removed or replaced, {} AddFiles added",
+        System.currentTimeMillis() - startTimeMillis,
+        commits.size(),
+        version,
+        numRemoved,
+        numAdded);
+    return new ActiveAddFiles(newVersion, newStateBatches, newPositions);
+  }
+
+  /** Take the positions of the active AddFiles, rebuilding them if they were already taken. */
+  private synchronized FileActionKeyMap takePositions() {
+    FileActionKeyMap result =
+        positions != null ? positions : indexPositions(new FileActionKeyMap(), batches, 0);
+    positions = null;
+    return result;
+  }
+
+  /** Add the positions of the active AddFiles of the given batches to the given map. */
+  private static FileActionKeyMap indexPositions(
+      FileActionKeyMap positions, List<FilteredColumnarBatch> batches, int firstBatchIndex) {
+    FileActionKeyMap.Key key = new FileActionKeyMap.Key();
+    for (int i = 0; i < batches.size(); i++) {
+      FilteredColumnarBatch batch = batches.get(i);
+      ColumnVector addsVector = batch.getData().getColumnVector(ADD_FILE_ORDINAL);
+      ColumnVector pathVector = addsVector.getChild(ADD_FILE_PATH_ORDINAL);
+      ColumnVector dvVector = addsVector.getChild(ADD_FILE_DV_ORDINAL);
+      long batchIndex = firstBatchIndex + i;
+      for (int rowId = 0; rowId < addsVector.getSize(); rowId++) {
+        if (isSelected(batch, rowId)) {
+          key.read(pathVector, dvVector, rowId);
+          positions.put(key, (batchIndex << 32) | rowId);
+        }
+      }
+    }
+    return positions;
+  }
+
+  private static boolean[] toSelectionArray(FilteredColumnarBatch batch) {
+    boolean[] selection = new boolean[batch.getData().getSize()];
+    for (int rowId = 0; rowId < selection.length; rowId++) {
+      selection[rowId] = isSelected(batch, rowId);
+    }
+    return selection;
+  }
+
+  private static boolean hasSelectedRows(FilteredColumnarBatch batch) {
+    for (int rowId = 0; rowId < batch.getData().getSize(); rowId++) {
+      if (isSelected(batch, rowId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isSelected(FilteredColumnarBatch batch, int rowId) {
+    if (!batch.getSelectionVector().isPresent()) {
+      return true;
+    }
+    ColumnVector selectionVector = batch.getSelectionVector().get();
+    return !selectionVector.isNullAt(rowId) && selectionVector.getBoolean(rowId);
+  }
+}
@@ -22,7 +22,6 @@ import static io.delta.kernel.internal.replay.LogReplay.ADD_FILE_PATH_ORDINAL;
 import static io.delta.kernel.internal.replay.LogReplay.REMOVE_FILE_DV_ORDINAL;
 import static io.delta.kernel.internal.replay.LogReplay.REMOVE_FILE_ORDINAL;
 import static io.delta.kernel.internal.replay.LogReplay.REMOVE_FILE_PATH_ORDINAL;
-import static io.delta.kernel.internal.replay.LogReplayUtils.pathToUri;
 import static io.delta.kernel.internal.replay.LogReplayUtils.prepareSelectionVectorBuffer;
 
 import io.delta.kernel.data.ColumnVector;
@@ -34,12 +33,10 @@ import io.delta.kernel.expressions.Literal;
 import io.delta.kernel.internal.InternalScanFileUtils;
 import io.delta.kernel.internal.actions.DeletionVectorDescriptor;
 import io.delta.kernel.internal.fs.Path;
-import io.delta.kernel.internal.replay.LogReplayUtils.UniqueFileActionTuple;
 import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.types.StringType;
 import io.delta.kernel.utils.CloseableIterator;
 import java.io.IOException;
-import java.net.URI;
 import java.util.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,8 +55,10 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
 
   private final CloseableIterator<ActionWrapper> iter;
 
-  private final Set<UniqueFileActionTuple> tombstonesFromJson;
-  private final Set<UniqueFileActionTuple> addFilesFromJson;
+  private final FileActionKeyMap tombstonesFromJson;
+  private final FileActionKeyMap addFilesFromJson;
+  /** Reused to read the key of each file action. */
+  private final FileActionKeyMap.Key fileActionKey = new FileActionKeyMap.Key();
 
   private Optional<FilteredColumnarBatch> next;
   /**
@@ -75,14 +74,27 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
    * Metrics capturing the state reconstruction log replay. These counters are updated as the
    * iterator is consumed and printed when the iterator is closed.
    */
-  private LogReplayMetrics metrics = new LogReplayMetrics();
+  private final LogReplayMetrics metrics;
 
   ActiveAddFilesIterator(Engine engine, CloseableIterator<ActionWrapper> iter, Path tableRoot) {
+    this(engine, iter, tableRoot, new LogReplayMetrics());
+  }
+
+  /**
+   * @param metrics metrics in which to record the log replay, usually shared with the {@link
+   *     ActionsIterator} producing {@code iter}
+   */
+  ActiveAddFilesIterator(
+      Engine engine,
+      CloseableIterator<ActionWrapper> iter,
+      Path tableRoot,
+      LogReplayMetrics metrics) {
     this.engine = engine;
+    this.metrics = metrics;
     this.tableRoot = tableRoot;
     this.iter = iter;
-    this.tombstonesFromJson = new HashSet<>();
-    this.addFilesFromJson = new HashSet<>();
+    this.tombstonesFromJson = new FileActionKeyMap();
+    this.addFilesFromJson = new FileActionKeyMap();
     this.next = Optional.empty();
   }
 
@@ -149,6 +161,7 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
     }
 
     final ActionWrapper _next = iter.next();
+    metrics.incNumBatchesRead();
     final ColumnarBatch addRemoveColumnarBatch = _next.getColumnarBatch();
     final boolean isFromCheckpoint = _next.isFromCheckpoint();
 
@@ -161,6 +174,8 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
     if (!isFromCheckpoint) {
       final ColumnVector removesVector =
           addRemoveColumnarBatch.getColumnVector(REMOVE_FILE_ORDINAL);
+      final ColumnVector removePathVector = removesVector.getChild(REMOVE_FILE_PATH_ORDINAL);
+      final ColumnVector removeDvVector = removesVector.getChild(REMOVE_FILE_DV_ORDINAL);
       for (int rowId = 0; rowId < removesVector.getSize(); rowId++) {
         if (removesVector.isNullAt(rowId)) {
           continue;
@@ -168,13 +183,8 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
 
         // Note: this row doesn't represent the complete RemoveFile schema. It only contains
         //       the fields we need for this replay.
-        final String path = getRemoveFilePath(removesVector, rowId);
-        final URI pathAsUri = pathToUri(path);
-        final Optional<String> dvId =
-            Optional.ofNullable(getRemoveFileDV(removesVector, rowId))
-                .map(DeletionVectorDescriptor::getUniqueId);
-        final UniqueFileActionTuple key = new UniqueFileActionTuple(pathAsUri, dvId);
-        tombstonesFromJson.add(key);
+        fileActionKey.read(removePathVector, removeDvVector, rowId);
+        tombstonesFromJson.add(fileActionKey);
         metrics.incNumTombstonesSeen();
       }
     }
@@ -182,6 +192,8 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
     // Step 2: Iterate over all the AddFiles in this columnar batch in order to build up the
     //         selection vector. We unselect an AddFile when it was removed by a RemoveFile
     final ColumnVector addsVector = addRemoveColumnarBatch.getColumnVector(ADD_FILE_ORDINAL);
+    final ColumnVector addPathVector = addsVector.getChild(ADD_FILE_PATH_ORDINAL);
+    final ColumnVector addDvVector = addsVector.getChild(ADD_FILE_DV_ORDINAL);
     selectionVectorBuffer =
         prepareSelectionVectorBuffer(selectionVectorBuffer, addsVector.getSize());
     boolean atLeastOneUnselected = false;
@@ -197,14 +209,9 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
         metrics.incNumAddFilesSeenFromDeltaFiles();
       }
 
-      final String path = getAddFilePath(addsVector, rowId);
-      final URI pathAsUri = pathToUri(path);
-      final Optional<String> dvId =
-          Optional.ofNullable(getAddFileDV(addsVector, rowId))
-              .map(DeletionVectorDescriptor::getUniqueId);
-      final UniqueFileActionTuple key = new UniqueFileActionTuple(pathAsUri, dvId);
-      final boolean alreadyDeleted = tombstonesFromJson.contains(key);
-      final boolean alreadyReturned = addFilesFromJson.contains(key);
+      fileActionKey.read(addPathVector, addDvVector, rowId);
+      final boolean alreadyDeleted = tombstonesFromJson.contains(fileActionKey);
+      final boolean alreadyReturned = addFilesFromJson.contains(fileActionKey);
 
       boolean doSelect = false;
 
@@ -213,7 +220,7 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
         //       non-checkpoint AddFiles in the set. When stats are recomputed the same
         //       AddFile is added with stats without remove it first.
         if (!isFromCheckpoint) {
-          addFilesFromJson.add(key);
+          addFilesFromJson.add(fileActionKey);
         }
 
         if (!alreadyDeleted) {
@@ -290,8 +297,24 @@ public class ActiveAddFilesIterator implements CloseableIterator<FilteredColumna
   }
 
   /**
-   * Returns the metrics for the log replay. Currently used in tests only. Caution: The metrics
-   * should be fetched only after the iterator is closed, to avoid reading incomplete metrics.
+   * Returns the (path, dv id) keys of the RemoveFiles read from the commit files. Should be called
+   * only after the iterator is consumed.
+   */
+  FileActionKeyMap getTombstonesFromJson() {
+    return tombstonesFromJson;
+  }
+
+  /**
+   * Returns the (path, dv id) keys of the AddFiles read from the commit files. Should be called
+   * only after the iterator is consumed.
+   */
+  FileActionKeyMap getAddFilesFromJson() {
+    return addFilesFromJson;
+  }
+
+  /**
+   * Returns the metrics for the log replay. Caution: The metrics should be fetched only after the
+   * iterator is closed, to avoid reading incomplete metrics.
    */
   public LogReplayMetrics getMetrics() {
     return metrics;
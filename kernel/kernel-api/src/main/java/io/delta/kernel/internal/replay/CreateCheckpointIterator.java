@@ -17,15 +17,26 @@
 package io.delta.kernel.internal.replay;
 
 import static io.delta.kernel.internal.DeltaErrors.wrapEngineException;
+import static io.delta.kernel.internal.InternalScanFileUtils.ADD_FILE_PARTITION_COL_REF;
+import static io.delta.kernel.internal.InternalScanFileUtils.PARTITION_VALUES_PARSED_FIELD_NAME;
+import static io.delta.kernel.internal.TableConfig.CHECKPOINT_WRITE_STATS_AS_STRUCT;
 import static io.delta.kernel.internal.actions.SingleAction.CHECKPOINT_SCHEMA;
 import static io.delta.kernel.internal.replay.LogReplayUtils.*;
+import static io.delta.kernel.internal.skipping.DataSkippingUtils.STATS_PARSED_FIELD_NAME;
 import static io.delta.kernel.internal.util.Preconditions.checkState;
+import static java.util.Arrays.asList;
 
 import io.delta.kernel.data.*;
 import io.delta.kernel.engine.Engine;
+import io.delta.kernel.expressions.*;
+import io.delta.kernel.internal.actions.Metadata;
 import io.delta.kernel.internal.actions.SetTransaction;
+import io.delta.kernel.internal.data.StructColumnVector;
+import io.delta.kernel.internal.skipping.StatsSchemaHelper;
 import io.delta.kernel.internal.snapshot.LogSegment;
+import io.delta.kernel.internal.util.ColumnMapping;
 import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.types.*;
 import io.delta.kernel.utils.CloseableIterator;
 import java.io.IOException;
 import java.util.*;
@@ -59,6 +70,17 @@ import java.util.*;
  * <ul>
  *   <li>For domainMetadata, the latest domainMetadata seen for a given domain wins.
  * </ul>
+ *
+ * <p>When the table property {@code delta.checkpoint.writeStatsAsStruct} is enabled (the
+ * default), the add actions additionally have the typed columns {@code stats_parsed} (the
+ * statistics in {@code stats}, parsed according to the table schema) and, for partitioned tables,
+ * {@code partitionValues_parsed} (the values in {@code partitionValues}, parsed according to the
+ * types of the partition columns). The columns use the physical names of the table columns.
+ *
+ * <p>When created to return only the file actions (for the sidecar files of a V2 checkpoint), the
+ * returned batches have only the {@code add} and {@code remove} columns. The non-file actions to
+ * write to the V2 checkpoint manifest are then the latest protocol and metadata of the snapshot and
+ * the transaction identifiers returned by {@link #getTransactions()}.
  */
 public class CreateCheckpointIterator implements CloseableIterator<FilteredColumnarBatch> {
 
@@ -66,6 +88,7 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
   private static final int[] ADD_PATH_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "add", "path");
   private static final int[] ADD_DV_ORDINAL =
       getPathOrdinals(CHECKPOINT_SCHEMA, "add", "deletionVector");
+  private static final int[] ADD_STATS_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "add", "stats");
 
   private static final int[] REMOVE_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "remove");
   private static final int[] REMOVE_PATH_ORDINAL =
@@ -88,6 +111,16 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
    */
   private final long minFileRetentionTimestampMillis;
 
+  /** Whether to return only the file actions, i.e. the {@code add} and {@code remove} columns. */
+  private final boolean onlyFileActions;
+
+  /** Schema of the {@code add.stats_parsed} column, if the column is to be written. */
+  private final Optional<StructType> statsParsedSchema;
+  /** Schema of the {@code add.partitionValues_parsed} column, if the column is to be written. */
+  private final Optional<StructType> partitionValuesParsedSchema;
+  /** Evaluators of the fields of {@code add.partitionValues_parsed}. Created on first use. */
+  private List<ExpressionEvaluator> partitionValueEvaluators;
+
   // State of the iterator and current batch being worked on
   private CloseableIterator<ActionWrapper> actionsIter;
   private boolean closed;
@@ -99,8 +132,10 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
   private boolean[] selectionVectorBuffer;
 
   // Current state of the tombstones and add files from delta files
-  private final Set<UniqueFileActionTuple> tombstonesFromJson = new HashSet<>();
-  private final Set<UniqueFileActionTuple> addFilesFromJson = new HashSet<>();
+  private final FileActionKeyMap tombstonesFromJson = new FileActionKeyMap();
+  private final FileActionKeyMap addFilesFromJson = new FileActionKeyMap();
+  /** Reused to read the key of each file action. */
+  private final FileActionKeyMap.Key fileActionKey = new FileActionKeyMap.Key();
 
   // Current state of the protocol and metadata. Captures whether protocol or metadata is seen.
   // We traverse the log in reverse, so the first encounter of protocol or metadata is considered
@@ -111,7 +146,7 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
   // Current state of the transaction identifier (a.k.a. SetTransaction). We traverse the log in
   // reverse, so storing the first seen transaction version for each appId is enough for
   // checkpoint
-  private final Map<String, Long> txnAppIdToVersion = new HashMap<>();
+  private final Map<String, SetTransaction> txnsByAppId = new LinkedHashMap<>();
 
   // Metadata about the checkpoint to store in `_last_checkpoint` file
   private long numberOfAddActions = 0; // final number of add actions survived in the checkpoint
@@ -121,10 +156,32 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
   /////////////////
 
   public CreateCheckpointIterator(
-      Engine engine, LogSegment logSegment, long minFileRetentionTimestampMillis) {
+      Engine engine,
+      LogSegment logSegment,
+      Metadata metadata,
+      long minFileRetentionTimestampMillis) {
+    this(
+        engine, logSegment, metadata, minFileRetentionTimestampMillis, false /* onlyFileActions */);
+  }
+
+  public CreateCheckpointIterator(
+      Engine engine,
+      LogSegment logSegment,
+      Metadata metadata,
+      long minFileRetentionTimestampMillis,
+      boolean onlyFileActions) {
     this.engine = engine;
     this.logSegment = logSegment;
     this.minFileRetentionTimestampMillis = minFileRetentionTimestampMillis;
+    this.onlyFileActions = onlyFileActions;
+    if (CHECKPOINT_WRITE_STATS_AS_STRUCT.fromMetadata(engine, metadata)) {
+      this.statsParsedSchema =
+          Optional.of(StatsSchemaHelper.getStatsSchema(metadata.getDataSchema()));
+      this.partitionValuesParsedSchema = getPartitionValuesParsedSchema(metadata);
+    } else {
+      this.statsParsedSchema = Optional.empty();
+      this.partitionValuesParsedSchema = Optional.empty();
+    }
   }
 
   @Override
@@ -163,6 +220,17 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
     return numberOfAddActions;
   }
 
+  /**
+   * Latest transaction identifier of each application in the checkpoint. Should be called once the
+   * entire data of this iterator is consumed.
+   *
+   * @return Transaction identifiers in the checkpoint.
+   */
+  public List<SetTransaction> getTransactions() {
+    checkState(closed, "Iterator is not fully consumed yet.");
+    return new ArrayList<>(txnsByAppId.values());
+  }
+
   ////////////////////////////
   // Private Helper Methods //
   ////////////////////////////
@@ -234,12 +302,152 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
     final ColumnVector txnVector = getVector(actionsBatch, TXN_ORDINAL);
     processTxn(txnVector, selectionVectorBuffer);
 
-    Optional<ColumnVector> selectionVector =
-        Optional.of(createSelectionVector(selectionVectorBuffer, actionsBatch.getSize()));
-    toReturnNext = Optional.of(new FilteredColumnarBatch(actionsBatch, selectionVector));
+    if (onlyFileActions) {
+      // The non-file actions go to the V2 checkpoint manifest instead
+      ColumnVector addVector = getVector(actionsBatch, ADD_ORDINAL);
+      ColumnVector removeVector = getVector(actionsBatch, REMOVE_ORDINAL);
+      for (int rowId = 0; rowId < actionsBatch.getSize(); rowId++) {
+        if (addVector.isNullAt(rowId) && removeVector.isNullAt(rowId)) {
+          selectionVectorBuffer[rowId] = false;
+        }
+      }
+    }
+
+    ColumnVector selectionVector =
+        createSelectionVector(selectionVectorBuffer, actionsBatch.getSize());
+    ColumnarBatch batchToWrite =
+        statsParsedSchema.isPresent()
+            ? withParsedColumns(actionsBatch, selectionVector)
+            : actionsBatch;
+    if (onlyFileActions) {
+      batchToWrite = withOnlyFileActionColumns(batchToWrite);
+    }
+    toReturnNext =
+        Optional.of(new FilteredColumnarBatch(batchToWrite, Optional.of(selectionVector)));
     return true;
   }
 
+  /**
+   * Add the columns {@code stats_parsed} and {@code partitionValues_parsed} (if the table is
+   * partitioned) at the end of the {@code add} column of the given batch. The JSON statistics are
+   * parsed only for the selected rows.
+   */
+  private ColumnarBatch withParsedColumns(
+      ColumnarBatch actionsBatch, ColumnVector selectionVector) {
+    int size = actionsBatch.getSize();
+    ColumnVector addVector = getVector(actionsBatch, ADD_ORDINAL);
+    StructType addSchema = (StructType) addVector.getDataType();
+    List<ColumnVector> addChildren = new ArrayList<>();
+    for (int ordinal = 0; ordinal < addSchema.length(); ordinal++) {
+      addChildren.add(addVector.getChild(ordinal));
+    }
+
+    ColumnVector statsVector = getVector(actionsBatch, ADD_STATS_ORDINAL);
+    StructType statsSchema = statsParsedSchema.get();
+    ColumnarBatch parsedStats =
+        wrapEngineException(
+            () ->
+                engine
+                    .getJsonHandler()
+                    .parseJson(statsVector, statsSchema, Optional.of(selectionVector)),
+            "Parsing the JSON statistics with statsSchema=%s",
+            statsSchema);
+    List<ColumnVector> parsedStatsChildren = new ArrayList<>();
+    for (int ordinal = 0; ordinal < statsSchema.length(); ordinal++) {
+      parsedStatsChildren.add(parsedStats.getColumnVector(ordinal));
+    }
+    addSchema = addSchema.add(STATS_PARSED_FIELD_NAME, statsSchema);
+    addChildren.add(
+        new StructColumnVector(
+            statsSchema,
+            size,
+            rowId -> addVector.isNullAt(rowId) || statsVector.isNullAt(rowId),
+            parsedStatsChildren));
+
+    if (partitionValuesParsedSchema.isPresent()) {
+      StructType partitionValuesSchema = partitionValuesParsedSchema.get();
+      if (partitionValueEvaluators == null) {
+        partitionValueEvaluators = createPartitionValueEvaluators(actionsBatch.getSchema());
+      }
+      List<ColumnVector> partitionValues = new ArrayList<>();
+      for (ExpressionEvaluator evaluator : partitionValueEvaluators) {
+        partitionValues.add(
+            wrapEngineException(
+                () -> evaluator.eval(actionsBatch),
+                "Parsing the partition values with schema=%s",
+                partitionValuesSchema));
+      }
+      addSchema = addSchema.add(PARTITION_VALUES_PARSED_FIELD_NAME, partitionValuesSchema);
+      addChildren.add(
+          new StructColumnVector(
+              partitionValuesSchema, size, addVector::isNullAt, partitionValues));
+    }
+
+    StructField addField = actionsBatch.getSchema().at(ADD_ORDINAL[0]);
+    return actionsBatch
+        .withDeletedColumnAt(ADD_ORDINAL[0])
+        .withNewColumn(
+            ADD_ORDINAL[0],
+            new StructField(
+                addField.getName(), addSchema, addField.isNullable(), addField.getMetadata()),
+            new StructColumnVector(addSchema, size, addVector::isNullAt, addChildren));
+  }
+
+  /** Remove all columns other than {@code add} and {@code remove} from the given batch. */
+  private static ColumnarBatch withOnlyFileActionColumns(ColumnarBatch actionsBatch) {
+    ColumnarBatch fileActionsBatch = actionsBatch;
+    for (int ordinal = actionsBatch.getSchema().length() - 1; ordinal >= 0; ordinal--) {
+      if (ordinal != ADD_ORDINAL[0] && ordinal != REMOVE_ORDINAL[0]) {
+        fileActionsBatch = fileActionsBatch.withDeletedColumnAt(ordinal);
+      }
+    }
+    return fileActionsBatch;
+  }
+
+  /**
+   * Create an evaluator for each field of {@code add.partitionValues_parsed}, which parses the
+   * string value of the partition column in {@code add.partitionValues}.
+   */
+  private List<ExpressionEvaluator> createPartitionValueEvaluators(StructType actionsSchema) {
+    List<ExpressionEvaluator> evaluators = new ArrayList<>();
+    for (StructField field : partitionValuesParsedSchema.get().fields()) {
+      Expression partitionValue =
+          new ScalarExpression(
+              "element_at", asList(ADD_FILE_PARTITION_COL_REF, Literal.ofString(field.getName())));
+      if (!(field.getDataType() instanceof StringType)) {
+        partitionValue = new PartitionValueExpression(partitionValue, field.getDataType());
+      }
+      Expression finalPartitionValue = partitionValue;
+      evaluators.add(
+          wrapEngineException(
+              () ->
+                  engine
+                      .getExpressionHandler()
+                      .getEvaluator(actionsSchema, finalPartitionValue, field.getDataType()),
+              "Get the evaluator for partition value %s",
+              finalPartitionValue));
+    }
+    return evaluators;
+  }
+
+  /**
+   * Schema of {@code add.partitionValues_parsed}: the partition columns, by their physical names.
+   * Empty if the table is not partitioned.
+   */
+  private static Optional<StructType> getPartitionValuesParsedSchema(Metadata metadata) {
+    Set<String> partitionColNames = metadata.getPartitionColNames();
+    if (partitionColNames.isEmpty()) {
+      return Optional.empty();
+    }
+    StructType schema = new StructType();
+    for (StructField field : metadata.getSchema().fields()) {
+      if (partitionColNames.contains(field.getName().toLowerCase(Locale.ROOT))) {
+        schema = schema.add(ColumnMapping.getPhysicalName(field), field.getDataType());
+      }
+    }
+    return Optional.of(schema);
+  }
+
   private void processRemoves(
       ColumnVector removesVector,
       ColumnVector removePathVector,
@@ -251,9 +459,8 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
         continue; // selectionVector will be `false` at rowId by default
       }
 
-      final UniqueFileActionTuple key =
-          getUniqueFileAction(removePathVector, removeDvVector, rowId);
-      tombstonesFromJson.add(key);
+      fileActionKey.read(removePathVector, removeDvVector, rowId);
+      tombstonesFromJson.add(fileActionKey);
 
       // Default is zero. Not sure if this the correct way, but it is same Delta Spark.
       // Ideally this should never be zero, but we are following the same behavior as Delta
@@ -281,15 +488,15 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
         continue; // selectionVector will be `false` at rowId by default
       }
 
-      final UniqueFileActionTuple key = getUniqueFileAction(addPathVector, addDvVector, rowId);
-      final boolean alreadyDeleted = tombstonesFromJson.contains(key);
-      final boolean alreadyReturned = addFilesFromJson.contains(key);
+      fileActionKey.read(addPathVector, addDvVector, rowId);
+      final boolean alreadyDeleted = tombstonesFromJson.contains(fileActionKey);
+      final boolean alreadyReturned = addFilesFromJson.contains(fileActionKey);
 
       if (!alreadyReturned) {
         // Note: No AddFile will appear twice in a checkpoint, so we only need
         //       non-checkpoint AddFiles in the set
         if (!isFromCheckpoint) {
-          addFilesFromJson.add(key);
+          addFilesFromJson.add(fileActionKey);
         }
 
         if (!alreadyDeleted) {
@@ -340,14 +547,14 @@ public class CreateCheckpointIterator implements CloseableIterator<FilteredColum
       if (txn == null) {
         continue; // selectionVector will be `false` at rowId by default
       }
-      if (txnAppIdToVersion.containsKey(txn.getAppId())) {
+      if (txnsByAppId.containsKey(txn.getAppId())) {
         // We do a reverse log replay. The latest txn version is the one that should be
         // written to the checkpoint. Anything after the first one shouldn't be in
         // checkpoint
         unselect(selectionVectorBuffer, rowId);
       } else {
         select(selectionVectorBuffer, rowId);
-        txnAppIdToVersion.put(txn.getAppId(), txn.getVersion());
+        txnsByAppId.put(txn.getAppId(), txn);
       }
     }
   }
@@ -21,12 +21,15 @@ import io.delta.kernel.utils.FileStatus;
 
 /**
  * Internal wrapper class holding information needed to perform log replay. Represents either a
- * Delta commit file, classic checkpoint, a multipart checkpoint, a V2 checkpoint, or a sidecar
- * checkpoint.
+ * Delta commit file, a log compaction file, classic checkpoint, a multipart checkpoint, a V2
+ * checkpoint, or a sidecar checkpoint.
+ *
+ * <p>The version of a log compaction file is the version of the last commit it aggregates.
  */
 public class DeltaLogFile {
   public enum LogType {
     COMMIT,
+    LOG_COMPACTION,
     CHECKPOINT_CLASSIC,
     MULTIPART_CHECKPOINT,
     V2_CHECKPOINT_MANIFEST,
@@ -40,6 +43,9 @@ public class DeltaLogFile {
     if (FileNames.isCommitFile(fileName)) {
       logType = LogType.COMMIT;
       version = FileNames.deltaVersion(fileName);
+    } else if (FileNames.isLogCompactionFile(fileName)) {
+      logType = LogType.LOG_COMPACTION;
+      version = FileNames.logCompactionEndVersion(fileName);
     } else if (FileNames.isClassicCheckpointFile(fileName)) {
       logType = LogType.CHECKPOINT_CLASSIC;
       version = FileNames.checkpointVersion(fileName);
@@ -0,0 +1,460 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.replay;
+
+import static io.delta.kernel.internal.replay.LogReplayUtils.canonicalizePath;
+import static io.delta.kernel.internal.util.InternalUtils.requireNonNull;
+
+import io.delta.kernel.data.ColumnVector;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Map from the unique (path, deletion vector id) key of the file actions to a {@code long} value,
+ * used by the log replay to reconcile the AddFiles and RemoveFiles. Also used as a set of keys,
+ * with {@link #add} and {@link #contains}.
+ *
+ * <p>The keys are read from the path and deletion vector columns of the actions into a reusable
+ * {@link Key} and interned into pages of bytes (one byte per character when all the characters of
+ * the key are Latin-1, two otherwise), and the map itself is an open addressing hash table of
+ * primitive arrays. This avoids creating a {@link java.net.URI}, a deletion vector descriptor and a
+ * tuple per action, and the per entry overhead of a {@link java.util.HashMap}, which dominate the
+ * memory used by the log replay of large tables. Two keys are equal when their paths are equal as
+ * {@link java.net.URI}s (see {@link LogReplayUtils#canonicalizePath}) and their deletion vectors
+ * have the same unique id.
+ *
+ * <p>Removed keys keep their slot in the hash table (they are only marked as removed), so that the
+ * table never needs tombstones. Not thread safe.
+ */
+public class FileActionKeyMap {
+  /** Value returned by {@link #get} for the keys that are not in the map. */
+  public static final long NOT_FOUND = Long.MIN_VALUE;
+
+  /** Value of the removed entries. */
+  private static final long REMOVED = Long.MIN_VALUE;
+
+  private static final int MIN_PAGE_SIZE = 4096;
+  private static final int MAX_PAGE_SIZE = 1 << 20;
+
+  /** Flags of the entry header, see {@link #headerLength}. */
+  private static final int LATIN1_FLAG = 1;
+
+  private static final int DV_FLAG = 2;
+  private static final int DV_OFFSET_FLAG = 4;
+
+  // Interned keys: the pages of bytes and the address of each entry in them (the page index in the
+  // upper 32 bits and the offset in the page in the lower 32 bits).
+  private byte[][] pages = new byte[0][];
+  private int pageOffset;
+  private long[] addresses = new long[0];
+  private int[] hashes = new int[0];
+  private long[] values = new long[0];
+  private int numEntries;
+  private int numRemoved;
+
+  /** Hash table: the index of the entry in each slot plus one, zero for the empty slots. */
+  private int[] slots = new int[16];
+
+  /** Number of keys in the map. */
+  public int size() {
+    return numEntries - numRemoved;
+  }
+
+  /**
+   * Add the given key to the map, with the value 0, if it is not in the map yet.
+   *
+   * @return true if the key was added, false if it was already in the map
+   */
+  public boolean add(Key key) {
+    int entry = findKey(key);
+    if (entry >= 0) {
+      if (values[entry] != REMOVED) {
+        return false;
+      }
+      values[entry] = 0;
+      numRemoved--;
+      return true;
+    }
+    insertKey(key, 0);
+    return true;
+  }
+
+  /** Returns whether the given key is in the map. */
+  public boolean contains(Key key) {
+    return get(key) != NOT_FOUND;
+  }
+
+  /** Returns the value of the given key, or {@link #NOT_FOUND} if the key is not in the map. */
+  public long get(Key key) {
+    int entry = findKey(key);
+    return entry >= 0 ? values[entry] : NOT_FOUND;
+  }
+
+  /**
+   * Set the value of the given key, adding the key if needed.
+   *
+   * @param value the value, must not be {@link #NOT_FOUND}
+   */
+  public void put(Key key, long value) {
+    if (value == NOT_FOUND) {
+      throw new IllegalArgumentException("Invalid value: " + value);
+    }
+    int entry = findKey(key);
+    if (entry >= 0) {
+      if (values[entry] == REMOVED) {
+        numRemoved--;
+      }
+      values[entry] = value;
+    } else {
+      insertKey(key, value);
+    }
+  }
+
+  /**
+   * Remove the keys of the given map from this map.
+   *
+   * @param keys the keys to remove
+   * @param removedValues called with the value of each removed key
+   */
+  public void removeAll(FileActionKeyMap keys, LongConsumer removedValues) {
+    for (int other = 0; other < keys.numEntries; other++) {
+      if (keys.values[other] == REMOVED) {
+        continue;
+      }
+      int entry = findEntry(keys, other);
+      if (entry >= 0 && values[entry] != REMOVED) {
+        long value = values[entry];
+        values[entry] = REMOVED;
+        numRemoved++;
+        removedValues.accept(value);
+      }
+    }
+  }
+
+  /** Returns the estimated memory used by this map, in bytes. */
+  public long getSizeInBytes() {
+    long size = 4L * slots.length + 20L * addresses.length;
+    for (byte[] page : pages) {
+      size += page.length;
+    }
+    return size;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////
+  // Lookup of a key                                                                           //
+  //////////////////////////////////////////////////////////////////////////////////////////////
+
+  /** Returns the index of the entry with the given key, or -1 if there is none. */
+  private int findKey(Key key) {
+    int mask = slots.length - 1;
+    for (int slot = key.hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = slots[slot] - 1;
+      if (hashes[entry] == key.hash && keyEquals(key, entry)) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  private boolean keyEquals(Key key, int entry) {
+    byte[] page = pages[(int) (addresses[entry] >>> 32)];
+    int offset = (int) addresses[entry];
+    int flags = page[offset];
+    if (((flags & DV_FLAG) != 0) != key.hasDv
+        || ((flags & DV_OFFSET_FLAG) != 0) != key.hasDvOffset) {
+      return false;
+    }
+    int pathLength = readInt(page, offset + 1);
+    int dvLength = key.hasDv ? readInt(page, offset + 5) : 0;
+    if (pathLength != key.path.length()
+        || (key.hasDv && dvLength != key.dvStorageType.length() + key.dvPathOrInlineDv.length())
+        || (key.hasDvOffset && readInt(page, offset + 9) != key.dvOffset)) {
+      return false;
+    }
+    boolean latin1 = (flags & LATIN1_FLAG) != 0;
+    int position = offset + headerLength(flags);
+    position = compareChars(page, position, latin1, key.path);
+    if (position >= 0 && key.hasDv) {
+      position = compareChars(page, position, latin1, key.dvStorageType);
+      if (position >= 0) {
+        position = compareChars(page, position, latin1, key.dvPathOrInlineDv);
+      }
+    }
+    return position >= 0;
+  }
+
+  private void insertKey(Key key, long value) {
+    boolean latin1 =
+        isLatin1(key.path)
+            && (!key.hasDv || (isLatin1(key.dvStorageType) && isLatin1(key.dvPathOrInlineDv)));
+    int flags =
+        (latin1 ? LATIN1_FLAG : 0)
+            | (key.hasDv ? DV_FLAG : 0)
+            | (key.hasDvOffset ? DV_OFFSET_FLAG : 0);
+    int dvLength = key.hasDv ? key.dvStorageType.length() + key.dvPathOrInlineDv.length() : 0;
+    int numChars = key.path.length() + dvLength;
+    long address = allocate(headerLength(flags) + (latin1 ? numChars : 2 * numChars));
+
+    byte[] page = pages[(int) (address >>> 32)];
+    int position = (int) address;
+    page[position] = (byte) flags;
+    writeInt(page, position + 1, key.path.length());
+    if (key.hasDv) {
+      writeInt(page, position + 5, dvLength);
+    }
+    if (key.hasDvOffset) {
+      writeInt(page, position + 9, key.dvOffset);
+    }
+    position += headerLength(flags);
+    position = writeChars(page, position, latin1, key.path);
+    if (key.hasDv) {
+      position = writeChars(page, position, latin1, key.dvStorageType);
+      writeChars(page, position, latin1, key.dvPathOrInlineDv);
+    }
+    insertEntry(address, key.hash, value);
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////
+  // Lookup of the key of an entry of another map                                            //
+  //////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Returns the index of the entry with the same key as the given entry of the given map, or -1 if
+   * there is none. The keys are equal iff their bytes are equal, as the encoding of a key only
+   * depends on the key.
+   */
+  private int findEntry(FileActionKeyMap other, int otherEntry) {
+    int hash = other.hashes[otherEntry];
+    byte[] otherPage = other.pages[(int) (other.addresses[otherEntry] >>> 32)];
+    int otherOffset = (int) other.addresses[otherEntry];
+    int length = entryLength(otherPage, otherOffset);
+    int mask = slots.length - 1;
+    for (int slot = hash & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = slots[slot] - 1;
+      if (hashes[entry] != hash) {
+        continue;
+      }
+      byte[] page = pages[(int) (addresses[entry] >>> 32)];
+      int offset = (int) addresses[entry];
+      if (entryLength(page, offset) == length
+          && rangeEquals(page, offset, otherPage, otherOffset, length)) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////
+  // Storage                                                                                 //
+  //////////////////////////////////////////////////////////////////////////////////////////////
+
+  /**
+   * Entry layout: the flags (1 byte), the number of characters of the path (4 bytes), the number of
+   * characters of the deletion vector id if any (4 bytes), the deletion vector offset if any (4
+   * bytes), the characters of the path and the characters of the deletion vector id (storage type
+   * and path or inline data).
+   */
+  private static int headerLength(int flags) {
+    return 5 + ((flags & DV_FLAG) != 0 ? 4 : 0) + ((flags & DV_OFFSET_FLAG) != 0 ? 4 : 0);
+  }
+
+  private static int entryLength(byte[] page, int offset) {
+    int flags = page[offset];
+    int numChars =
+        readInt(page, offset + 1) + ((flags & DV_FLAG) != 0 ? readInt(page, offset + 5) : 0);
+    return headerLength(flags) + ((flags & LATIN1_FLAG) != 0 ? numChars : 2 * numChars);
+  }
+
+  /** Allocate the given number of bytes in the pages and return their address. */
+  private long allocate(int length) {
+    int lastPage = pages.length - 1;
+    if (lastPage < 0 || pageOffset + length > pages[lastPage].length) {
+      int pageSize =
+          lastPage < 0 ? MIN_PAGE_SIZE : Math.min(MAX_PAGE_SIZE, 2 * pages[lastPage].length);
+      pages = Arrays.copyOf(pages, pages.length + 1);
+      pages[++lastPage] = new byte[Math.max(pageSize, length)];
+      pageOffset = 0;
+    }
+    long address = ((long) lastPage << 32) | pageOffset;
+    pageOffset += length;
+    return address;
+  }
+
+  private void insertEntry(long address, int hash, long value) {
+    if (numEntries == addresses.length) {
+      int capacity = Math.max(16, addresses.length + (addresses.length >> 1));
+      addresses = Arrays.copyOf(addresses, capacity);
+      hashes = Arrays.copyOf(hashes, capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+    addresses[numEntries] = address;
+    hashes[numEntries] = hash;
+    values[numEntries] = value;
+    numEntries++;
+    // Keep the load factor of the hash table under 0.5
+    if (2 * numEntries > slots.length) {
+      slots = new int[2 * slots.length];
+      for (int entry = 0; entry < numEntries - 1; entry++) {
+        insertSlot(entry);
+      }
+    }
+    insertSlot(numEntries - 1);
+  }
+
+  private void insertSlot(int entry) {
+    int mask = slots.length - 1;
+    int slot = hashes[entry] & mask;
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = entry + 1;
+  }
+
+  //////////////////////////////////////////////////////////////////////////////////////////////
+  // Helper methods                                                                          //
+  //////////////////////////////////////////////////////////////////////////////////////////////
+
+  private static int hashChars(int hash, String chars) {
+    for (int i = 0; i < chars.length(); i++) {
+      hash = 31 * hash + chars.charAt(i);
+    }
+    return hash;
+  }
+
+  /** Spread the bits of the hash code, as the low bits select the slot. */
+  private static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  private static boolean isLatin1(String chars) {
+    for (int i = 0; i < chars.length(); i++) {
+      if (chars.charAt(i) > 0xFF) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int writeChars(byte[] page, int position, boolean latin1, String chars) {
+    for (int i = 0; i < chars.length(); i++) {
+      char c = chars.charAt(i);
+      if (latin1) {
+        page[position++] = (byte) c;
+      } else {
+        page[position++] = (byte) (c >>> 8);
+        page[position++] = (byte) c;
+      }
+    }
+    return position;
+  }
+
+  /**
+   * Compare the characters at the given position with the given characters.
+   *
+   * @return the position after the characters if they are equal, -1 otherwise
+   */
+  private static int compareChars(byte[] page, int position, boolean latin1, String chars) {
+    for (int i = 0; i < chars.length(); i++) {
+      char c;
+      if (latin1) {
+        c = (char) (page[position++] & 0xFF);
+      } else {
+        c = (char) (((page[position] & 0xFF) << 8) | (page[position + 1] & 0xFF));
+        position += 2;
+      }
+      if (c != chars.charAt(i)) {
+        return -1;
+      }
+    }
+    return position;
+  }
+
+  private static boolean rangeEquals(
+      byte[] page, int offset, byte[] otherPage, int otherOffset, int length) {
+    for (int i = 0; i < length; i++) {
+      if (page[offset + i] != otherPage[otherOffset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int readInt(byte[] page, int position) {
+    return ((page[position] & 0xFF) << 24)
+        | ((page[position + 1] & 0xFF) << 16)
+        | ((page[position + 2] & 0xFF) << 8)
+        | (page[position + 3] & 0xFF);
+  }
+
+  private static void writeInt(byte[] page, int position, int value) {
+    page[position] = (byte) (value >>> 24);
+    page[position + 1] = (byte) (value >>> 16);
+    page[position + 2] = (byte) (value >>> 8);
+    page[position + 3] = (byte) value;
+  }
+
+  /**
+   * The key of a file action, read from the action columns. Meant to be reused for all the actions,
+   * so that looking up an action allocates nothing but the path string returned by the column.
+   */
+  public static class Key {
+    private String path;
+    private String dvStorageType;
+    private String dvPathOrInlineDv;
+    private boolean hasDv;
+    private boolean hasDvOffset;
+    private int dvOffset;
+    private int hash;
+
+    /**
+     * Read the key of the action at the given row.
+     *
+     * @param pathVector the path column of the actions
+     * @param dvVector the deletion vector column of the actions
+     */
+    public void read(ColumnVector pathVector, ColumnVector dvVector, int rowId) {
+      path = canonicalizePath(pathVector.getString(rowId));
+      hasDv = !dvVector.isNullAt(rowId);
+      int h = hashChars(17, path);
+      if (hasDv) {
+        // Same checks as `DeletionVectorDescriptor.fromColumnVector`
+        dvStorageType = requireNonNull(dvVector.getChild(0), rowId, "storageType").getString(rowId);
+        dvPathOrInlineDv =
+            requireNonNull(dvVector.getChild(1), rowId, "pathOrInlineDv").getString(rowId);
+        hasDvOffset = !dvVector.getChild(2).isNullAt(rowId);
+        dvOffset = hasDvOffset ? dvVector.getChild(2).getInt(rowId) : 0;
+        requireNonNull(dvVector.getChild(3), rowId, "sizeInBytes");
+        requireNonNull(dvVector.getChild(4), rowId, "cardinality");
+
+        h = 31 * h + 1;
+        h = hashChars(h, dvStorageType);
+        h = hashChars(h, dvPathOrInlineDv);
+        h = 31 * h + (hasDvOffset ? dvOffset : -1);
+      } else {
+        dvStorageType = null;
+        dvPathOrInlineDv = null;
+        hasDvOffset = false;
+        dvOffset = 0;
+      }
+      hash = mix(h);
+    }
+  }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.replay;
+
+import static io.delta.kernel.internal.DeltaErrors.wrapEngineException;
+import static io.delta.kernel.internal.DeltaErrors.wrapEngineExceptionThrowsIO;
+import static io.delta.kernel.internal.actions.SingleAction.CHECKPOINT_SCHEMA;
+import static io.delta.kernel.internal.replay.LogReplayUtils.*;
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.data.*;
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.internal.actions.SetTransaction;
+import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.util.FileNames;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes a log compaction file ({@code x.y.compacted.json}), which aggregates the actions of the
+ * commits {@code x} to {@code y} (both inclusive) in a single JSON file. Log replay reads it
+ * instead of the commits it aggregates, see {@link
+ * io.delta.kernel.internal.snapshot.LogSegment#allLogFilesReversed()}.
+ *
+ * <p>The actions are reconciled as follows:
+ *
+ * <ul>
+ *   <li>The latest protocol action wins
+ *   <li>The latest metaData action wins
+ *   <li>For txn actions, the latest version for a given appId wins
+ *   <li>For each logical file, identified by its (path, deletionVector.uniqueId) primary key, only
+ *       the newest file action (add or remove) is kept. Unlike in a checkpoint, remove actions are
+ *       kept regardless of their deletion timestamp, as they cancel the add actions of the commits
+ *       before {@code x}
+ *   <li>commit info actions are not included
+ * </ul>
+ */
+public class LogCompactionWriter {
+  private static final Logger logger = LoggerFactory.getLogger(LogCompactionWriter.class);
+
+  private static final int[] ADD_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "add");
+  private static final int[] ADD_PATH_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "add", "path");
+  private static final int[] ADD_DV_ORDINAL =
+      getPathOrdinals(CHECKPOINT_SCHEMA, "add", "deletionVector");
+
+  private static final int[] REMOVE_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "remove");
+  private static final int[] REMOVE_PATH_ORDINAL =
+      getPathOrdinals(CHECKPOINT_SCHEMA, "remove", "path");
+  private static final int[] REMOVE_DV_ORDINAL =
+      getPathOrdinals(CHECKPOINT_SCHEMA, "remove", "deletionVector");
+
+  private static final int[] PROTOCOL_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "protocol");
+  private static final int[] METADATA_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "metaData");
+  private static final int[] TXN_ORDINAL = getPathOrdinals(CHECKPOINT_SCHEMA, "txn");
+
+  private final Engine engine;
+  private final Path logPath;
+  private final long startVersion;
+  private final long endVersion;
+  private final List<FileStatus> commitFiles;
+
+  // Current state of the reconciliation. We traverse the commits in reverse, so the first
+  // encounter of an action is considered latest.
+  private final FileActionKeyMap fileActionsSeen = new FileActionKeyMap();
+  /** Reused to read the key of each file action. */
+  private final FileActionKeyMap.Key fileActionKey = new FileActionKeyMap.Key();
+
+  private final Set<String> txnAppIdsSeen = new HashSet<>();
+  private boolean isProtocolAlreadySeen;
+  private boolean isMetadataAlreadySeen;
+
+  /** Reused across batches to keep the memory allocations minimal. */
+  private boolean[] selectionVectorBuffer;
+
+  private long numActionsWritten;
+
+  /**
+   * @param commitFiles the commit files from {@code startVersion} to {@code endVersion}, in
+   *     increasing order of version
+   */
+  public LogCompactionWriter(
+      Engine engine,
+      Path logPath,
+      long startVersion,
+      long endVersion,
+      List<FileStatus> commitFiles) {
+    checkArgument(
+        startVersion < endVersion,
+        "A log compaction must aggregate at least two commits: [%s, %s]",
+        startVersion,
+        endVersion);
+    checkArgument(
+        commitFiles.size() == endVersion - startVersion + 1,
+        "Expected %s commit files but got %s",
+        endVersion - startVersion + 1,
+        commitFiles.size());
+    this.engine = engine;
+    this.logPath = logPath;
+    this.startVersion = startVersion;
+    this.endVersion = endVersion;
+    this.commitFiles = commitFiles;
+  }
+
+  /**
+   * Write the log compaction file. Does nothing if the file already exists, as it has the same
+   * content whichever writer wrote it.
+   *
+   * @return number of actions written to the log compaction file
+   */
+  public long write() throws IOException {
+    Path compactionPath = FileNames.logCompactionFile(logPath, startVersion, endVersion);
+    List<FileStatus> commitFilesReversed = new ArrayList<>(commitFiles);
+    Collections.reverse(commitFilesReversed);
+
+    try (CloseableIterator<ActionWrapper> actionsIter =
+        new ActionsIterator(
+            engine, commitFilesReversed, CHECKPOINT_SCHEMA, Optional.empty() /* predicate */)) {
+      CloseableIterator<Row> rows = toRows(actionsIter.map(this::reconcile));
+      wrapEngineExceptionThrowsIO(
+          () -> {
+            engine
+                .getJsonHandler()
+                .writeJsonFileAtomically(compactionPath.toString(), rows, false /* overwrite */);
+            return null;
+          },
+          "Writing log compaction file `%s`",
+          compactionPath);
+    } catch (FileAlreadyExistsException e) {
+      logger.info("{}: Log compaction file already exists: {}", logPath, compactionPath);
+      return 0;
+    }
+
+    logger.info(
+        "{}: Wrote {} actions to the log compaction file {}",
+        logPath,
+        numActionsWritten,
+        compactionPath);
+    return numActionsWritten;
+  }
+
+  /** Select the actions of the given batch which are the latest of their kind. */
+  private FilteredColumnarBatch reconcile(ActionWrapper actionWrapper) {
+    ColumnarBatch actionsBatch = actionWrapper.getColumnarBatch();
+    int size = actionsBatch.getSize();
+    selectionVectorBuffer = prepareSelectionVectorBuffer(selectionVectorBuffer, size);
+
+    processFileActions(
+        getVector(actionsBatch, ADD_ORDINAL),
+        getVector(actionsBatch, ADD_PATH_ORDINAL),
+        getVector(actionsBatch, ADD_DV_ORDINAL));
+    processFileActions(
+        getVector(actionsBatch, REMOVE_ORDINAL),
+        getVector(actionsBatch, REMOVE_PATH_ORDINAL),
+        getVector(actionsBatch, REMOVE_DV_ORDINAL));
+
+    ColumnVector protocolVector = getVector(actionsBatch, PROTOCOL_ORDINAL);
+    ColumnVector metadataVector = getVector(actionsBatch, METADATA_ORDINAL);
+    ColumnVector txnVector = getVector(actionsBatch, TXN_ORDINAL);
+    for (int rowId = 0; rowId < size; rowId++) {
+      if (!protocolVector.isNullAt(rowId) && !isProtocolAlreadySeen) {
+        isProtocolAlreadySeen = true;
+        select(rowId);
+      }
+      if (!metadataVector.isNullAt(rowId) && !isMetadataAlreadySeen) {
+        isMetadataAlreadySeen = true;
+        select(rowId);
+      }
+      SetTransaction txn = SetTransaction.fromColumnVector(txnVector, rowId);
+      if (txn != null && txnAppIdsSeen.add(txn.getAppId())) {
+        select(rowId);
+      }
+    }
+
+    ColumnVector selectionVector =
+        wrapEngineException(
+            () ->
+                engine
+                    .getExpressionHandler()
+                    .createSelectionVector(selectionVectorBuffer, 0, size),
+            "Create selection vector for writing actions to log compaction");
+    return new FilteredColumnarBatch(actionsBatch, Optional.of(selectionVector));
+  }
+
+  private void processFileActions(
+      ColumnVector actionVector, ColumnVector pathVector, ColumnVector dvVector) {
+    for (int rowId = 0; rowId < actionVector.getSize(); rowId++) {
+      if (actionVector.isNullAt(rowId)) {
+        continue; // selectionVector will be `false` at rowId by default
+      }
+      fileActionKey.read(pathVector, dvVector, rowId);
+      if (fileActionsSeen.add(fileActionKey)) {
+        select(rowId);
+      }
+    }
+  }
+
+  private void select(int rowId) {
+    selectionVectorBuffer[rowId] = true;
+    numActionsWritten++;
+  }
+
+  /** Flatten the given batches into an iterator of their selected rows. */
+  private static CloseableIterator<Row> toRows(CloseableIterator<FilteredColumnarBatch> batches) {
+    return new CloseableIterator<Row>() {
+      private CloseableIterator<Row> rows;
+
+      @Override
+      public boolean hasNext() {
+        while ((rows == null || !rows.hasNext()) && batches.hasNext()) {
+          rows = batches.next().getRows();
+        }
+        return rows != null && rows.hasNext();
+      }
+
+      @Override
+      public Row next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return rows.next();
+      }
+
+      @Override
+      public void close() throws IOException {
+        batches.close();
+      }
+    };
+  }
+}
@@ -16,24 +16,34 @@
 
 package io.delta.kernel.internal.replay;
 
+import static io.delta.kernel.internal.DeltaErrors.wrapEngineException;
 import static io.delta.kernel.internal.replay.LogReplayUtils.assertLogFilesBelongToTable;
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static io.delta.kernel.internal.util.Utils.toCloseableIterator;
 
 import io.delta.kernel.data.ColumnVector;
 import io.delta.kernel.data.ColumnarBatch;
 import io.delta.kernel.data.FilteredColumnarBatch;
 import io.delta.kernel.engine.Engine;
+import io.delta.kernel.engine.ScanFilesCache;
 import io.delta.kernel.expressions.Predicate;
 import io.delta.kernel.internal.TableFeatures;
 import io.delta.kernel.internal.actions.*;
 import io.delta.kernel.internal.checkpoints.SidecarFile;
+import io.delta.kernel.internal.checksum.CRCInfo;
+import io.delta.kernel.internal.checksum.ChecksumReader;
 import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.skipping.DataSkippingUtils;
 import io.delta.kernel.internal.snapshot.LogSegment;
 import io.delta.kernel.internal.snapshot.SnapshotHint;
+import io.delta.kernel.internal.util.FileNames;
 import io.delta.kernel.internal.util.Tuple2;
 import io.delta.kernel.types.StringType;
 import io.delta.kernel.types.StructType;
 import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
 import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -89,8 +99,23 @@ public class LogReplay {
 
   /** Read schema when searching for all the active AddFiles */
   public static StructType getAddRemoveReadSchema(boolean shouldReadStats) {
+    return getAddRemoveReadSchema(shouldReadStats, Optional.empty());
+  }
+
+  /**
+   * Read schema when searching for all the active AddFiles. If {@code parsedStatsSchema} is
+   * present, the AddFile schema has an additional column {@code stats_parsed} at the end with the
+   * given schema, to read the typed statistics from the checkpoint files that have them. The column
+   * is null for the AddFiles in commit files and in checkpoints without typed statistics.
+   */
+  public static StructType getAddRemoveReadSchema(
+      boolean shouldReadStats, Optional<StructType> parsedStatsSchema) {
+    StructType addSchema = getAddSchema(shouldReadStats);
+    if (parsedStatsSchema.isPresent()) {
+      addSchema = addSchema.add(DataSkippingUtils.STATS_PARSED_FIELD_NAME, parsedStatsSchema.get());
+    }
     return new StructType()
-        .add(ADDFILE_FIELD_NAME, getAddSchema(shouldReadStats))
+        .add(ADDFILE_FIELD_NAME, addSchema)
         .add(REMOVEFILE_FIELD_NAME, REMOVE_FILE_SCHEMA);
   }
 
@@ -109,6 +134,11 @@ public class LogReplay {
   private final Path dataPath;
   private final LogSegment logSegment;
   private final Tuple2<Protocol, Metadata> protocolAndMetadata;
+  /** The checksum of the snapshot version, if its checksum file was read to load the P & M. */
+  private final Optional<CRCInfo> currentCrcInfo;
+
+  /** The active AddFiles materialized in memory, if any. See {@link #updateActiveAddFiles}. */
+  private volatile ActiveAddFiles activeAddFiles;
 
   public LogReplay(
       Path logPath,
@@ -117,11 +147,47 @@ public class LogReplay {
       Engine engine,
       LogSegment logSegment,
       Optional<SnapshotHint> snapshotHint) {
+    this(logPath, dataPath, snapshotVersion, engine, logSegment, snapshotHint, Optional.empty());
+  }
+
+  /**
+   * @param activeAddFiles the active AddFiles at {@code snapshotVersion}, if already materialized
+   */
+  public LogReplay(
+      Path logPath,
+      Path dataPath,
+      long snapshotVersion,
+      Engine engine,
+      LogSegment logSegment,
+      Optional<SnapshotHint> snapshotHint,
+      Optional<ActiveAddFiles> activeAddFiles) {
     assertLogFilesBelongToTable(logPath, logSegment.allLogFilesUnsorted());
+    activeAddFiles.ifPresent(
+        addFiles ->
+            checkArgument(
+                addFiles.getVersion() == snapshotVersion,
+                "Active AddFiles at version %s given for snapshot version %s",
+                addFiles.getVersion(),
+                snapshotVersion));
 
     this.dataPath = dataPath;
     this.logSegment = logSegment;
-    this.protocolAndMetadata = loadTableProtocolAndMetadata(engine, snapshotHint, snapshotVersion);
+    Optional<CRCInfo> crcInfo = loadLatestChecksum(engine, snapshotHint, snapshotVersion);
+    this.currentCrcInfo = crcInfo.filter(crc -> crc.getVersion() == snapshotVersion);
+    // The checksum, when newer than the hint, is a better hint: it bounds the files to read further
+    Optional<SnapshotHint> protocolAndMetadataHint =
+        crcInfo
+            .filter(
+                crc ->
+                    !snapshotHint.isPresent()
+                        || crc.getVersion() > snapshotHint.get().getVersion())
+            .map(crc -> new SnapshotHint(crc.getVersion(), crc.getProtocol(), crc.getMetadata()));
+    this.protocolAndMetadata =
+        loadTableProtocolAndMetadata(
+            engine,
+            protocolAndMetadataHint.isPresent() ? protocolAndMetadataHint : snapshotHint,
+            snapshotVersion);
+    this.activeAddFiles = activeAddFiles.orElse(null);
   }
 
   /////////////////
@@ -136,6 +202,11 @@ public class LogReplay {
     return this.protocolAndMetadata._2;
   }
 
+  /** Returns the checksum of the snapshot version, if available. */
+  public Optional<CRCInfo> getCurrentCrcInfo() {
+    return currentCrcInfo;
+  }
+
   public Optional<Long> getLatestTransactionIdentifier(Engine engine, String applicationId) {
     return loadLatestTransactionVersion(engine, applicationId);
   }
@@ -155,26 +226,210 @@ public class LogReplay {
    */
   public CloseableIterator<FilteredColumnarBatch> getAddFilesAsColumnarBatches(
       Engine engine, boolean shouldReadStats, Optional<Predicate> checkpointPredicate) {
+    return getAddFilesAsColumnarBatches(
+        engine, shouldReadStats, Optional.empty(), checkpointPredicate);
+  }
+
+  /**
+   * Same as {@link #getAddFilesAsColumnarBatches(Engine, boolean, Optional)}, but if {@code
+   * parsedStatsSchema} is present, the {@code add} column of the returned batches also has a column
+   * {@code stats_parsed} at the end with the typed statistics read from the checkpoint, where
+   * available. See {@link #getAddRemoveReadSchema(boolean, Optional)}.
+   */
+  public CloseableIterator<FilteredColumnarBatch> getAddFilesAsColumnarBatches(
+      Engine engine,
+      boolean shouldReadStats,
+      Optional<StructType> parsedStatsSchema,
+      Optional<Predicate> checkpointPredicate) {
+    return getAddFilesAsColumnarBatches(
+        engine, shouldReadStats, parsedStatsSchema, checkpointPredicate, new LogReplayMetrics());
+  }
+
+  /**
+   * Same as {@link #getAddFilesAsColumnarBatches(Engine, boolean, Optional, Optional)}, recording
+   * the log files read and the file actions reconciled in the given metrics as the returned
+   * iterator is consumed. Unless typed statistics are requested, the active AddFiles are returned
+   * from memory when available (see {@link #getInMemoryActiveAddFiles}), in which case nothing is
+   * recorded.
+   */
+  public CloseableIterator<FilteredColumnarBatch> getAddFilesAsColumnarBatches(
+      Engine engine,
+      boolean shouldReadStats,
+      Optional<StructType> parsedStatsSchema,
+      Optional<Predicate> checkpointPredicate,
+      LogReplayMetrics metrics) {
+    if (!parsedStatsSchema.isPresent()) {
+      Optional<CloseableIterator<FilteredColumnarBatch>> inMemory =
+          getInMemoryActiveAddFiles(engine);
+      if (inMemory.isPresent()) {
+        return inMemory.get();
+      }
+    }
+    return replayAddFiles(
+        engine, shouldReadStats, parsedStatsSchema, checkpointPredicate, metrics);
+  }
+
+  /**
+   * Returns the active AddFiles from memory, either materialized by {@link #updateActiveAddFiles}
+   * or found in the {@link ScanFilesCache} of the engine, if any. The in-memory AddFiles always
+   * have the JSON statistics and never the typed statistics.
+   */
+  public Optional<CloseableIterator<FilteredColumnarBatch>> getInMemoryActiveAddFiles(
+      Engine engine) {
+    ActiveAddFiles materialized = activeAddFiles;
+    if (materialized != null) {
+      return Optional.of(materialized.getBatches());
+    }
+    Optional<ScanFilesCache> cache = engine.getScanFilesCache();
+    if (!cache.isPresent() || logSegment.version < 0) {
+      return Optional.empty();
+    }
+    final String tablePath = dataPath.toString();
+    final String tableId = getMetadata().getId();
+    final long version = logSegment.version;
+    Optional<List<FilteredColumnarBatch>> cached =
+        wrapEngineException(
+            () -> cache.get().get(tablePath, tableId, version),
+            "Get the scan files of table %s at version %s from the cache",
+            tablePath,
+            version);
+    return cached.map(batches -> toCloseableIterator(batches.iterator()));
+  }
+
+  /**
+   * Compute the active AddFiles after applying the given commits to the active AddFiles of this log
+   * replay. The active AddFiles of this log replay are materialized in memory first if needed, with
+   * a full log replay.
+   *
+   * @param commits the commit files after the version of this log replay, in increasing version
+   *     order. Must not be empty.
+   * @return the active AddFiles at the version of the last commit
+   */
+  public ActiveAddFiles updateActiveAddFiles(Engine engine, List<FileStatus> commits) {
+    checkArgument(!commits.isEmpty(), "No commits to apply to the active AddFiles");
+    ActiveAddFiles materialized = activeAddFiles;
+    if (materialized == null) {
+      synchronized (this) {
+        if (activeAddFiles == null) {
+          activeAddFiles =
+              ActiveAddFiles.materialize(
+                  logSegment.version,
+                  getAddFilesAsColumnarBatches(
+                      engine, true /* shouldReadStats */, Optional.empty()));
+        }
+        materialized = activeAddFiles;
+      }
+    }
+    return materialized.applyCommits(engine, dataPath, commits);
+  }
+
+  /**
+   * Returns whether the active AddFiles replayed by {@link #replayAddFiles} can be offered to the
+   * {@link ScanFilesCache} of the engine. They are offered only when all of them are replayed, i.e.
+   * without checkpoint predicate and typed statistics, so a scan that would prune or skip files
+   * should replay all of them when this returns true, and prune and skip on the replayed ones.
+   */
+  public boolean canCacheActiveAddFiles(Engine engine) {
+    return engine.getScanFilesCache().isPresent() && logSegment.version >= 0;
+  }
+
+  /**
+   * Replays the log to get the active AddFiles. If the engine has a {@link ScanFilesCache} and all
+   * the active AddFiles are replayed (no checkpoint predicate and no typed statistics), the JSON
+   * statistics are read too and the active AddFiles are offered to the cache once all of them are
+   * read.
+   */
+  public CloseableIterator<FilteredColumnarBatch> replayAddFiles(
+      Engine engine,
+      boolean shouldReadStats,
+      Optional<StructType> parsedStatsSchema,
+      Optional<Predicate> checkpointPredicate,
+      LogReplayMetrics metrics) {
+    Optional<ScanFilesCache> cache = engine.getScanFilesCache();
+    boolean offerToCache =
+        canCacheActiveAddFiles(engine)
+            && !parsedStatsSchema.isPresent()
+            && !checkpointPredicate.isPresent();
     final CloseableIterator<ActionWrapper> addRemoveIter =
         new ActionsIterator(
             engine,
             logSegment.allLogFilesReversed(),
-            getAddRemoveReadSchema(shouldReadStats),
-            checkpointPredicate);
-    return new ActiveAddFilesIterator(engine, addRemoveIter, dataPath);
+            getAddRemoveReadSchema(shouldReadStats || offerToCache, parsedStatsSchema),
+            checkpointPredicate,
+            metrics);
+    CloseableIterator<FilteredColumnarBatch> replayed =
+        new ActiveAddFilesIterator(engine, addRemoveIter, dataPath, metrics);
+    return offerToCache ? offerToCache(cache.get(), replayed) : replayed;
   }
 
   ////////////////////
   // Helper Methods //
   ////////////////////
 
+  /**
+   * Offers the active AddFiles to the given cache as they are read, and commits them once all of
+   * them are read. Stops offering them if the cache gives up on them.
+   */
+  private CloseableIterator<FilteredColumnarBatch> offerToCache(
+      ScanFilesCache cache, CloseableIterator<FilteredColumnarBatch> replayed) {
+    final String tablePath = dataPath.toString();
+    final long version = logSegment.version;
+    final ScanFilesCache.Entry entry =
+        wrapEngineException(
+            () -> cache.newEntry(tablePath, getMetadata().getId(), version),
+            "Create a scan files cache entry for table %s at version %s",
+            tablePath,
+            version);
+    return new CloseableIterator<FilteredColumnarBatch>() {
+      private boolean offering = true;
+
+      @Override
+      public boolean hasNext() {
+        boolean hasNext = replayed.hasNext();
+        if (!hasNext && offering) {
+          offering = false;
+          wrapEngineException(
+              () -> {
+                entry.commit();
+                return null;
+              },
+              "Put the scan files of table %s at version %s in the cache",
+              tablePath,
+              version);
+        }
+        return hasNext;
+      }
+
+      @Override
+      public FilteredColumnarBatch next() {
+        FilteredColumnarBatch batch = replayed.next();
+        if (offering) {
+          offering =
+              wrapEngineException(
+                  () -> entry.add(batch),
+                  "Add the scan files of table %s at version %s to the cache",
+                  tablePath,
+                  version);
+        }
+        return batch;
+      }
+
+      @Override
+      public void close() throws IOException {
+        replayed.close();
+      }
+    };
+  }
+
   /**
    * Returns the latest Protocol and Metadata from the delta files in the `logSegment`. Does *not*
    * validate that this delta-kernel connector understands the table at that protocol.
    *
    * <p>Uses the `snapshotHint` to bound how many delta files it reads. i.e. we only need to read
    * delta files newer than the hint to search for any new P & M. If we don't find them, we can just
-   * use the P and/or M from the hint.
+   * use the P and/or M from the hint. The log compaction files which also aggregate deltas at or
+   * before the hint are not read, as their actions are all tagged with the version of their last
+   * delta.
    */
   protected Tuple2<Protocol, Metadata> loadTableProtocolAndMetadata(
       Engine engine, Optional<SnapshotHint> snapshotHint, long snapshotVersion) {
@@ -190,14 +445,15 @@ public class LogReplay {
     try (CloseableIterator<ActionWrapper> reverseIter =
         new ActionsIterator(
             engine,
-            logSegment.allLogFilesReversed(),
+            snapshotHint.isPresent()
+                ? logSegment.allLogFilesReversedAfter(snapshotHint.get().getVersion())
+                : logSegment.allLogFilesReversed(),
             PROTOCOL_METADATA_READ_SCHEMA,
             Optional.empty())) {
       while (reverseIter.hasNext()) {
         final ActionWrapper nextElem = reverseIter.next();
-        final long version = nextElem.getVersion();
 
-        // Load this lazily (as needed). We may be able to just use the hint.
+        // Load this lazily (as needed)
         ColumnarBatch columnarBatch = null;
 
         if (protocol == null) {
@@ -241,24 +497,23 @@ public class LogReplay {
             }
           }
         }
-
-        // Since we haven't returned, at least one of P or M is null.
-        // Note: Suppose the hint is at version N. We check the hint eagerly at N + 1 so
-        // that we don't read or open any files at version N.
-        if (snapshotHint.isPresent() && version == snapshotHint.get().getVersion() + 1) {
-          if (protocol == null) {
-            protocol = snapshotHint.get().getProtocol();
-          }
-          if (metadata == null) {
-            metadata = snapshotHint.get().getMetadata();
-          }
-          return new Tuple2<>(protocol, metadata);
-        }
       }
     } catch (IOException ex) {
       throw new RuntimeException("Could not close iterator", ex);
     }
 
+    // Since we haven't returned, at least one of P or M is null. Only the files after the hint
+    // were read, the missing ones are the ones of the hint.
+    if (snapshotHint.isPresent()) {
+      if (protocol == null) {
+        protocol = snapshotHint.get().getProtocol();
+      }
+      if (metadata == null) {
+        metadata = snapshotHint.get().getMetadata();
+      }
+      return new Tuple2<>(protocol, metadata);
+    }
+
     if (protocol == null) {
       throw new IllegalStateException(
           String.format("No protocol found at version %s", logSegment.version));
@@ -268,6 +523,24 @@ public class LogReplay {
         String.format("No metadata found at version %s", logSegment.version));
   }
 
+  /**
+   * Reads the latest checksum file of the `logSegment`, if it is newer than the `snapshotHint` or
+   * at the snapshot version. A single small file read, which gives the P & M at its version.
+   */
+  private Optional<CRCInfo> loadLatestChecksum(
+      Engine engine, Optional<SnapshotHint> snapshotHint, long snapshotVersion) {
+    return logSegment
+        .lastSeenChecksum
+        .filter(
+            checksumFile -> {
+              long checksumVersion = FileNames.checksumVersion(new Path(checksumFile.getPath()));
+              return checksumVersion == snapshotVersion
+                  || !snapshotHint.isPresent()
+                  || checksumVersion > snapshotHint.get().getVersion();
+            })
+        .flatMap(checksumFile -> ChecksumReader.getCRCInfo(engine, checksumFile));
+  }
+
   private Optional<Long> loadLatestTransactionVersion(Engine engine, String applicationId) {
     try (CloseableIterator<ActionWrapper> reverseIter =
         new ActionsIterator(
@@ -39,6 +39,24 @@ public class LogReplayMetrics {
   /** Number of `RemoveFile`s seen in log replay both from delta files (not from checkpoint). */
   private long numTombstonesSeen = 0;
 
+  /** Number and total size of the commit files (including log compaction files) read. */
+  private long numCommitFilesRead = 0;
+
+  private long commitFilesBytesRead = 0;
+
+  /** Number and total size of the checkpoint files (classic, multi-part or V2 top-level) read. */
+  private long numCheckpointFilesRead = 0;
+
+  private long checkpointFilesBytesRead = 0;
+
+  /** Number and total size of the sidecar files of V2 checkpoints read. */
+  private long numSidecarFilesRead = 0;
+
+  private long sidecarFilesBytesRead = 0;
+
+  /** Number of batches of actions read from the log files. */
+  private long numBatchesRead = 0;
+
   public void incNumAddFilesSeen() {
     numAddFilesSeen++;
   }
@@ -59,6 +77,28 @@ public class LogReplayMetrics {
     numTombstonesSeen++;
   }
 
+  /** Record that the read of a log file of the given type and size was issued. */
+  public void incNumLogFilesRead(DeltaLogFile.LogType logType, long size) {
+    switch (logType) {
+      case COMMIT:
+      case LOG_COMPACTION:
+        numCommitFilesRead++;
+        commitFilesBytesRead += size;
+        break;
+      case SIDECAR:
+        numSidecarFilesRead++;
+        sidecarFilesBytesRead += size;
+        break;
+      default:
+        numCheckpointFilesRead++;
+        checkpointFilesBytesRead += size;
+    }
+  }
+
+  public void incNumBatchesRead() {
+    numBatchesRead++;
+  }
+
   public long getNumAddFilesSeen() {
     return numAddFilesSeen;
   }
@@ -79,6 +119,34 @@ public class LogReplayMetrics {
     return numTombstonesSeen;
   }
 
+  public long getNumCommitFilesRead() {
+    return numCommitFilesRead;
+  }
+
+  public long getCommitFilesBytesRead() {
+    return commitFilesBytesRead;
+  }
+
+  public long getNumCheckpointFilesRead() {
+    return numCheckpointFilesRead;
+  }
+
+  public long getCheckpointFilesBytesRead() {
+    return checkpointFilesBytesRead;
+  }
+
+  public long getNumSidecarFilesRead() {
+    return numSidecarFilesRead;
+  }
+
+  public long getSidecarFilesBytesRead() {
+    return sidecarFilesBytesRead;
+  }
+
+  public long getNumBatchesRead() {
+    return numBatchesRead;
+  }
+
   /** Returns a summary of the metrics. */
   @Override
   public String toString() {
@@ -87,11 +155,22 @@ public class LogReplayMetrics {
             + "Number of AddFiles seen from delta files: %d\n"
             + "Number of active AddFiles: %d\n"
             + "Number of duplicate AddFiles: %d\n"
-            + "Number of tombstones seen: %d\n",
+            + "Number of tombstones seen: %d\n"
+            + "Number of commit files read: %d (%d bytes)\n"
+            + "Number of checkpoint files read: %d (%d bytes)\n"
+            + "Number of sidecar files read: %d (%d bytes)\n"
+            + "Number of batches read: %d\n",
         numAddFilesSeen,
         numAddFilesSeenFromDeltaFiles,
         numActiveAddFiles,
         numDuplicateAddFiles,
-        numTombstonesSeen);
+        numTombstonesSeen,
+        numCommitFilesRead,
+        commitFilesBytesRead,
+        numCheckpointFilesRead,
+        checkpointFilesBytesRead,
+        numSidecarFilesRead,
+        sidecarFilesBytesRead,
+        numBatchesRead);
   }
 }
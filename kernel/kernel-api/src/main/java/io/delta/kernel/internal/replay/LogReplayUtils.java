@@ -19,9 +19,7 @@ import static io.delta.kernel.internal.util.Preconditions.checkArgument;
 
 import io.delta.kernel.data.ColumnVector;
 import io.delta.kernel.data.ColumnarBatch;
-import io.delta.kernel.internal.actions.DeletionVectorDescriptor;
 import io.delta.kernel.internal.fs.Path;
-import io.delta.kernel.internal.util.Tuple2;
 import io.delta.kernel.types.DataType;
 import io.delta.kernel.types.StructType;
 import io.delta.kernel.utils.FileStatus;
@@ -33,23 +31,6 @@ public class LogReplayUtils {
 
   private LogReplayUtils() {}
 
-  public static class UniqueFileActionTuple extends Tuple2<URI, Optional<String>> {
-    UniqueFileActionTuple(URI fileURI, Optional<String> deletionVectorId) {
-      super(fileURI, deletionVectorId);
-    }
-  }
-
-  public static UniqueFileActionTuple getUniqueFileAction(
-      ColumnVector pathVector, ColumnVector dvVector, int rowId) {
-    final String path = pathVector.getString(rowId);
-    final URI pathAsUri = pathToUri(path);
-    final Optional<String> dvId =
-        Optional.ofNullable(DeletionVectorDescriptor.fromColumnVector(dvVector, rowId))
-            .map(DeletionVectorDescriptor::getUniqueId);
-
-    return new UniqueFileActionTuple(pathAsUri, dvId);
-  }
-
   /**
    * Verifies that a set of delta or checkpoint files to be read actually belongs to this table.
    * Visible only for testing.
@@ -88,6 +69,88 @@ public class LogReplayUtils {
     }
   }
 
+  /**
+   * Returns a form of the given path such that two paths are equal as {@link URI}s iff their
+   * canonical forms are equal as strings, i.e. with the scheme and the host in lower case and the
+   * hex digits of the escaped octets in upper case. The paths that only contain characters that
+   * have no special meaning in a URI are returned as is, without parsing them.
+   *
+   * @throws RuntimeException if the path is not a valid URI, like {@link #pathToUri}
+   */
+  static String canonicalizePath(String path) {
+    // A path starting with "//" has an authority
+    boolean isPlain = !path.startsWith("//");
+    for (int i = 0; isPlain && i < path.length(); i++) {
+      isPlain = isPlainPathChar(path.charAt(i));
+    }
+    if (isPlain) {
+      return path;
+    }
+
+    URI uri = pathToUri(path);
+    StringBuilder canonical = new StringBuilder(path.length());
+    if (uri.getScheme() != null) {
+      canonical.append(uri.getScheme().toLowerCase(Locale.ROOT)).append(':');
+    }
+    if (uri.isOpaque()) {
+      appendEscaped(canonical, uri.getRawSchemeSpecificPart());
+    } else {
+      if (uri.getHost() != null) {
+        canonical.append("//");
+        if (uri.getRawUserInfo() != null) {
+          appendEscaped(canonical, uri.getRawUserInfo());
+          canonical.append('@');
+        }
+        canonical.append(uri.getHost().toLowerCase(Locale.ROOT));
+        if (uri.getPort() != -1) {
+          canonical.append(':').append(uri.getPort());
+        }
+      } else if (uri.getRawAuthority() != null) {
+        canonical.append("//");
+        appendEscaped(canonical, uri.getRawAuthority());
+      } else if (uri.getRawPath().startsWith("//")
+          || (uri.getScheme() != null && uri.getRawPath().isEmpty())) {
+        // Empty authority, so that the URI is parsed back in the same way
+        canonical.append("//");
+      }
+      appendEscaped(canonical, uri.getRawPath());
+      if (uri.getRawQuery() != null) {
+        canonical.append('?');
+        appendEscaped(canonical, uri.getRawQuery());
+      }
+    }
+    if (uri.getRawFragment() != null) {
+      canonical.append('#');
+      appendEscaped(canonical, uri.getRawFragment());
+    }
+    return canonical.toString();
+  }
+
+  /**
+   * Whether the character can appear in a relative URI path and is compared as is by {@link
+   * URI#equals}: the alphanumeric characters and the punctuation characters other than the
+   * delimiters of the URI components and the escape character.
+   */
+  private static boolean isPlainPathChar(char c) {
+    return (c >= 'a' && c <= 'z')
+        || (c >= 'A' && c <= 'Z')
+        || (c >= '0' && c <= '9')
+        || "-_.!~*'()/;@&=+$,".indexOf(c) >= 0;
+  }
+
+  /** Append the given raw URI component with the hex digits of the escaped octets in upper case. */
+  private static void appendEscaped(StringBuilder builder, String rawComponent) {
+    for (int i = 0; i < rawComponent.length(); i++) {
+      char c = rawComponent.charAt(i);
+      builder.append(c);
+      if (c == '%' && i + 2 < rawComponent.length()) {
+        builder.append(Character.toUpperCase(rawComponent.charAt(i + 1)));
+        builder.append(Character.toUpperCase(rawComponent.charAt(i + 2)));
+        i += 2;
+      }
+    }
+  }
+
   /**
    * Get the ordinals of the column path at each level. Ordinal refers position of a column within a
    * struct type column. For example: `struct(a: struct(a1: int, b1: long))` and lookup path is
@@ -29,9 +29,16 @@ import io.delta.kernel.internal.util.Tuple2;
 import io.delta.kernel.types.StructField;
 import io.delta.kernel.types.StructType;
 import java.util.*;
+import java.util.stream.Collectors;
 
 public class DataSkippingUtils {
 
+  /**
+   * Name of the column in the {@code add} action of checkpoints that has the file statistics as a
+   * struct (typed according to the table schema), instead of the JSON encoded {@code stats}.
+   */
+  public static final String STATS_PARSED_FIELD_NAME = "stats_parsed";
+
   /**
    * Given a {@code FilteredColumnarBatch} of scan files and the statistics schema to parse, return
    * the parsed JSON stats from the scan files.
@@ -49,6 +56,75 @@ public class DataSkippingUtils {
         statsSchema);
   }
 
+  /**
+   * Given a predicate on the statistics schema, rewrite it to refer to the parsed statistics column
+   * {@code add.stats_parsed} in a scan file batch read with the parsed statistics. E.g. {@code
+   * minValues.a < 10} is rewritten as {@code add.stats_parsed.minValues.a < 10}.
+   */
+  public static Predicate rewriteOnParsedStatsColumn(Predicate predicate) {
+    return (Predicate) rewriteOnParsedStatsColumn((Expression) predicate);
+  }
+
+  /**
+   * Given a data skipping predicate, return a predicate on the parsed statistics column {@code
+   * add.stats_parsed} that can be used to prune the row groups of checkpoint files, based on the
+   * Parquet statistics of the parsed statistics columns. Only the comparisons of statistics columns
+   * with literals (and their conjunctions and disjunctions) are kept, as those are the only ones
+   * Parquet statistics can evaluate. Each comparison {@code c < lit} is rewritten as {@code
+   * add.stats_parsed.c < lit OR add.stats_parsed.c IS NULL}, so that the row groups with AddFiles
+   * without statistics (or without typed statistics) are not pruned.
+   *
+   * @return the predicate, or empty if no part of the data skipping predicate can be used
+   */
+  public static Optional<Predicate> getParsedStatsCheckpointPredicate(
+      Predicate dataSkippingPredicate) {
+    List<Expression> children = dataSkippingPredicate.getChildren();
+    switch (dataSkippingPredicate.getName().toUpperCase(Locale.ROOT)) {
+      case "AND":
+        {
+          Optional<Predicate> left =
+              getParsedStatsCheckpointPredicate(asPredicate(getLeft(dataSkippingPredicate)));
+          Optional<Predicate> right =
+              getParsedStatsCheckpointPredicate(asPredicate(getRight(dataSkippingPredicate)));
+          if (left.isPresent() && right.isPresent()) {
+            return Optional.of(new And(left.get(), right.get()));
+          }
+          return left.isPresent() ? left : right;
+        }
+      case "OR":
+        {
+          Optional<Predicate> left =
+              getParsedStatsCheckpointPredicate(asPredicate(getLeft(dataSkippingPredicate)));
+          Optional<Predicate> right =
+              getParsedStatsCheckpointPredicate(asPredicate(getRight(dataSkippingPredicate)));
+          if (left.isPresent() && right.isPresent()) {
+            return Optional.of(new Or(left.get(), right.get()));
+          }
+          return Optional.empty();
+        }
+      case "=":
+      case "<":
+      case "<=":
+      case ">":
+      case ">=":
+        {
+          Optional<Column> column = Optional.empty();
+          if (children.get(0) instanceof Column && children.get(1) instanceof Literal) {
+            column = Optional.of((Column) children.get(0));
+          } else if (children.get(0) instanceof Literal && children.get(1) instanceof Column) {
+            column = Optional.of((Column) children.get(1));
+          }
+          return column.map(
+              col ->
+                  new Or(
+                      rewriteOnParsedStatsColumn(dataSkippingPredicate),
+                      new Predicate("IS_NULL", rewriteOnParsedStatsColumn(col))));
+        }
+      default:
+        return Optional.empty();
+    }
+  }
+
   /**
    * Prunes the given schema to only include the referenced leaf columns. If a leaf column is a
    * nested column it must be referenced using the full column path, e.g. "C_0.C_1.C_leaf"
@@ -500,6 +576,32 @@ public class DataSkippingUtils {
     return new StructType(prunedFields);
   }
 
+  private static Expression rewriteOnParsedStatsColumn(Expression expression) {
+    if (expression instanceof Column) {
+      String[] names = ((Column) expression).getNames();
+      String[] newNames = new String[names.length + 2];
+      newNames[0] = "add";
+      newNames[1] = STATS_PARSED_FIELD_NAME;
+      System.arraycopy(names, 0, newNames, 2, names.length);
+      return new Column(newNames);
+    } else if (expression instanceof Predicate) {
+      Predicate predicate = (Predicate) expression;
+      return new Predicate(
+          predicate.getName(),
+          predicate.getChildren().stream()
+              .map(DataSkippingUtils::rewriteOnParsedStatsColumn)
+              .collect(Collectors.toList()));
+    } else if (expression instanceof ScalarExpression) {
+      ScalarExpression scalarExpression = (ScalarExpression) expression;
+      return new ScalarExpression(
+          scalarExpression.getName(),
+          scalarExpression.getChildren().stream()
+              .map(DataSkippingUtils::rewriteOnParsedStatsColumn)
+              .collect(Collectors.toList()));
+    }
+    return expression;
+  }
+
   /**
    * Given an array {@code arr} and a string element {@code appendElem} return a new array with
    * {@code appendElem} inserted at the end
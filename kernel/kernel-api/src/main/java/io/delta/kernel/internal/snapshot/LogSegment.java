@@ -16,12 +16,20 @@
 
 package io.delta.kernel.internal.snapshot;
 
+import static io.delta.kernel.internal.util.FileNames.checkpointVersion;
+import static io.delta.kernel.internal.util.FileNames.deltaVersion;
+import static io.delta.kernel.internal.util.FileNames.logCompactionEndVersion;
+import static io.delta.kernel.internal.util.FileNames.logCompactionStartVersion;
+
 import io.delta.kernel.internal.fs.Path;
 import io.delta.kernel.internal.lang.Lazy;
 import io.delta.kernel.utils.FileStatus;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -31,6 +39,8 @@ public class LogSegment {
   public final long version;
   public final List<FileStatus> deltas;
   public final List<FileStatus> checkpoints;
+  public final List<FileStatus> compactions;
+  public final Optional<FileStatus> lastSeenChecksum;
   public final Optional<Long> checkpointVersionOpt;
   public final long lastCommitTimestamp;
 
@@ -62,41 +72,160 @@ public class LogSegment {
       List<FileStatus> checkpoints,
       Optional<Long> checkpointVersionOpt,
       long lastCommitTimestamp) {
+    this(
+        logPath,
+        version,
+        deltas,
+        checkpoints,
+        Collections.emptyList(),
+        Optional.empty(),
+        checkpointVersionOpt,
+        lastCommitTimestamp);
+  }
+
+  /**
+   * Provides information around which files in the transaction log need to be read to create the
+   * given version of the log.
+   *
+   * @param logPath The path to the _delta_log directory
+   * @param version The Snapshot version to generate
+   * @param deltas The delta commit files (.json) to read
+   * @param checkpoints The checkpoint file(s) to read
+   * @param compactions The log compaction files (.compacted.json) which may be read instead of the
+   *     delta commit files they aggregate. The ones that aggregate commits outside of the range of
+   *     {@code deltas} are ignored.
+   * @param lastSeenChecksum The latest checksum file (.crc) at or before {@code version} and not
+   *     older than the checkpoint, from which the protocol and metadata may be loaded
+   * @param checkpointVersionOpt The checkpoint version used to start replay
+   * @param lastCommitTimestamp The "unadjusted" timestamp of the last commit within this segment.
+   *     By unadjusted, we mean that the commit timestamps may not necessarily be monotonically
+   *     increasing for the commits within this segment.
+   */
+  public LogSegment(
+      Path logPath,
+      long version,
+      List<FileStatus> deltas,
+      List<FileStatus> checkpoints,
+      List<FileStatus> compactions,
+      Optional<FileStatus> lastSeenChecksum,
+      Optional<Long> checkpointVersionOpt,
+      long lastCommitTimestamp) {
     this.logPath = logPath;
     this.version = version;
     this.deltas = deltas;
     this.checkpoints = checkpoints;
+    this.compactions = compactions;
+    this.lastSeenChecksum = lastSeenChecksum;
     this.checkpointVersionOpt = checkpointVersionOpt;
     this.lastCommitTimestamp = lastCommitTimestamp;
 
     this.allFiles =
         new Lazy<>(
             () ->
-                Stream.concat(checkpoints.stream(), deltas.stream()).collect(Collectors.toList()));
+                Stream.of(checkpoints.stream(), deltas.stream(), compactions.stream())
+                    .flatMap(files -> files)
+                    .collect(Collectors.toList()));
 
     this.allFilesReversed =
         new Lazy<>(
-            () ->
-                allFiles.get().stream()
-                    .sorted(
-                        Comparator.comparing((FileStatus a) -> new Path(a.getPath()).getName())
-                            .reversed())
-                    .collect(Collectors.toList()));
+            () -> {
+              List<FileStatus> files = withCompactionsReversed(sortedReversed(deltas));
+              files.addAll(sortedReversed(checkpoints));
+              return files;
+            });
   }
 
   /**
-   * @return all deltas (.json) and checkpoint (.checkpoint.parquet) files in this LogSegment, with
-   *     no ordering guarantees.
+   * @return all deltas (.json), log compaction (.compacted.json) and checkpoint
+   *     (.checkpoint.parquet) files in this LogSegment, with no ordering guarantees.
    */
   public List<FileStatus> allLogFilesUnsorted() {
     return allFiles.get();
   }
 
   /**
-   * @return all deltas (.json) and checkpoint (.checkpoint.parquet) files in this LogSegment,
-   *     sorted in reverse (00012.json, 00011.json, 00010.checkpoint.parquet) order.
+   * @return the files to replay to reconstruct the state of this LogSegment, sorted in reverse
+   *     (00012.json, 00011.json, 00010.checkpoint.parquet) order. Going backwards from the latest
+   *     delta, each run of deltas which is aggregated by a log compaction file is replaced with the
+   *     widest such compaction, e.g. (00013.json, 00010.00012.compacted.json, 00009.json,
+   *     00008.checkpoint.parquet).
    */
   public List<FileStatus> allLogFilesReversed() {
     return allFilesReversed.get();
   }
+
+  /**
+   * @return the files to replay to reconstruct the changes of this LogSegment after the given
+   *     version, sorted in reverse order like {@link #allLogFilesReversed()}: the deltas and
+   *     checkpoints after {@code version}, and the log compaction files which only aggregate deltas
+   *     after {@code version}.
+   */
+  public List<FileStatus> allLogFilesReversedAfter(long version) {
+    List<FileStatus> files =
+        withCompactionsReversed(
+            sortedReversed(deltas).stream()
+                .filter(delta -> deltaVersion(delta.getPath()) > version)
+                .collect(Collectors.toList()));
+    sortedReversed(checkpoints).stream()
+        .filter(checkpoint -> checkpointVersion(checkpoint.getPath()) > version)
+        .forEach(files::add);
+    return files;
+  }
+
+  /**
+   * Replace the runs of the given deltas (sorted in reverse order) which are aggregated by a log
+   * compaction file with the widest such compaction.
+   */
+  private List<FileStatus> withCompactionsReversed(List<FileStatus> deltasReversed) {
+    List<FileStatus> files = new ArrayList<>(deltasReversed.size());
+    if (deltasReversed.isEmpty() || compactions.isEmpty()) {
+      files.addAll(deltasReversed);
+      return files;
+    }
+
+    // For each end version, the usable compaction that aggregates the most deltas
+    long firstDeltaVersion = deltaVersion(deltasReversed.get(deltasReversed.size() - 1).getPath());
+    long lastDeltaVersion = deltaVersion(deltasReversed.get(0).getPath());
+    Map<Long, FileStatus> widestCompactionByEndVersion = new HashMap<>();
+    for (FileStatus compaction : compactions) {
+      long startVersion = logCompactionStartVersion(compaction.getPath());
+      long endVersion = logCompactionEndVersion(compaction.getPath());
+      if (startVersion < firstDeltaVersion
+          || endVersion > lastDeltaVersion
+          || endVersion <= startVersion) {
+        continue;
+      }
+      widestCompactionByEndVersion.merge(
+          endVersion,
+          compaction,
+          (c1, c2) ->
+              logCompactionStartVersion(c1.getPath()) <= logCompactionStartVersion(c2.getPath())
+                  ? c1
+                  : c2);
+    }
+
+    int i = 0;
+    while (i < deltasReversed.size()) {
+      FileStatus delta = deltasReversed.get(i);
+      FileStatus compaction = widestCompactionByEndVersion.get(deltaVersion(delta.getPath()));
+      if (compaction == null) {
+        files.add(delta);
+        i++;
+      } else {
+        files.add(compaction);
+        long startVersion = logCompactionStartVersion(compaction.getPath());
+        while (i < deltasReversed.size()
+            && deltaVersion(deltasReversed.get(i).getPath()) >= startVersion) {
+          i++;
+        }
+      }
+    }
+    return files;
+  }
+
+  private static List<FileStatus> sortedReversed(List<FileStatus> files) {
+    return files.stream()
+        .sorted(Comparator.comparing((FileStatus a) -> new Path(a.getPath()).getName()).reversed())
+        .collect(Collectors.toList());
+  }
 }
@@ -0,0 +1,105 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.snapshot;
+
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.IOException;
+
+/**
+ * Class capturing the metrics of the listing of the _delta_log directory while loading a snapshot.
+ * The listings are consumed lazily, so the time spent listing includes the time spent fetching the
+ * pages of the listing while iterating over it, not just the time to start the listing.
+ */
+public class SnapshotLoadMetrics {
+  /** Number of listings of the _delta_log directory. */
+  private long numListingCalls = 0;
+
+  /** Number of files returned by the listings that were consumed. */
+  private long numFilesListed = 0;
+
+  /** Time spent starting the listings and iterating over them, in nanoseconds. */
+  private long listingDurationNanos = 0;
+
+  /**
+   * Record the start of a listing and wrap it to record the files listed and the time spent
+   * iterating over it.
+   *
+   * @param startNanos {@link System#nanoTime()} when the listing was started
+   * @param listing the listing
+   */
+  public CloseableIterator<FileStatus> trackListing(
+      long startNanos, CloseableIterator<FileStatus> listing) {
+    numListingCalls++;
+    listingDurationNanos += System.nanoTime() - startNanos;
+    return new CloseableIterator<FileStatus>() {
+      @Override
+      public boolean hasNext() {
+        long start = System.nanoTime();
+        try {
+          return listing.hasNext();
+        } finally {
+          listingDurationNanos += System.nanoTime() - start;
+        }
+      }
+
+      @Override
+      public FileStatus next() {
+        long start = System.nanoTime();
+        try {
+          FileStatus file = listing.next();
+          numFilesListed++;
+          return file;
+        } finally {
+          listingDurationNanos += System.nanoTime() - start;
+        }
+      }
+
+      @Override
+      public void close() throws IOException {
+        listing.close();
+      }
+    };
+  }
+
+  /** Record a listing that failed to start, e.g. because the directory doesn't exist. */
+  public void recordFailedListing(long startNanos) {
+    numListingCalls++;
+    listingDurationNanos += System.nanoTime() - startNanos;
+  }
+
+  public long getNumListingCalls() {
+    return numListingCalls;
+  }
+
+  public long getNumFilesListed() {
+    return numFilesListed;
+  }
+
+  public long getListingDurationNanos() {
+    return listingDurationNanos;
+  }
+
+  /** Returns a summary of the metrics. */
+  @Override
+  public String toString() {
+    return String.format(
+        "Number of listing calls: %d\n"
+            + "Number of files listed: %d\n"
+            + "Listing duration: %dms\n",
+        numListingCalls, numFilesListed, listingDurationNanos / 1_000_000);
+  }
+}
@@ -31,14 +31,19 @@ import io.delta.kernel.exceptions.CheckpointAlreadyExistsException;
 import io.delta.kernel.exceptions.InvalidTableException;
 import io.delta.kernel.exceptions.TableNotFoundException;
 import io.delta.kernel.internal.*;
+import io.delta.kernel.internal.actions.SetTransaction;
 import io.delta.kernel.internal.checkpoints.*;
 import io.delta.kernel.internal.fs.Path;
 import io.delta.kernel.internal.lang.ListUtils;
+import io.delta.kernel.internal.metrics.MetricsReportingUtils;
+import io.delta.kernel.internal.metrics.SnapshotReportImpl;
 import io.delta.kernel.internal.replay.CreateCheckpointIterator;
+import io.delta.kernel.internal.replay.LogCompactionWriter;
 import io.delta.kernel.internal.replay.LogReplay;
 import io.delta.kernel.internal.util.FileNames;
 import io.delta.kernel.internal.util.Tuple2;
 import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.DataFileStatus;
 import io.delta.kernel.utils.FileStatus;
 import java.io.*;
 import java.nio.file.FileAlreadyExistsException;
@@ -48,6 +53,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -119,6 +125,140 @@ public class SnapshotManager {
     return getSnapshotAtInit(engine);
   }
 
+  /**
+   * Get the latest snapshot of the table by applying the commits after the given snapshot to it.
+   * Lists only the commits after the given snapshot and computes the active AddFiles of the new
+   * snapshot from the ones of the given snapshot, see {@link Snapshot#update(Engine)}.
+   *
+   * <p>Coordinated-commits tables are not updated incrementally, as the commits that are not
+   * backfilled yet are not in the log directory; the latest snapshot is built from scratch instead.
+   *
+   * @param engine Instance of {@link Engine} to use.
+   * @param snapshot the snapshot to update
+   * @return the latest snapshot of the table, or {@code snapshot} if there are no newer commits
+   * @throws TableNotFoundException
+   */
+  public Snapshot updateSnapshot(Engine engine, SnapshotImpl snapshot)
+      throws TableNotFoundException {
+    if (snapshot.getTableCommitCoordinatorClientHandlerOpt(engine).isPresent()) {
+      return buildLatestSnapshot(engine);
+    }
+
+    long startNanos = System.nanoTime();
+    long version = snapshot.getVersion(engine);
+    SnapshotLoadMetrics metrics = new SnapshotLoadMetrics();
+    List<FileStatus> newFiles =
+        listDeltaAndCheckpointFiles(
+                engine,
+                version + 1,
+                Optional.empty(),
+                Optional.empty() /* tableCommitHandlerOpt */,
+                metrics)
+            .orElse(Collections.emptyList());
+    List<FileStatus> newCommits =
+        newFiles.stream()
+            .filter(file -> FileNames.isCommitFile(getName(file.getPath())))
+            .collect(Collectors.toList());
+    if (newCommits.isEmpty()) {
+      return snapshot;
+    }
+    List<Long> newVersions =
+        newCommits.stream()
+            .map(file -> FileNames.deltaVersion(file.getPath()))
+            .collect(Collectors.toList());
+    verifyDeltaVersions(newVersions, Optional.of(version + 1), Optional.empty(), tablePath);
+    long newVersion = newVersions.get(newVersions.size() - 1);
+    logger.info("{}: Updating version {} to version {}", tablePath, version, newVersion);
+
+    // The new log segment starts at the latest new checkpoint, if any, so that it doesn't grow
+    // with every update and doesn't refer to the commits the log cleanup may delete once there is
+    // a newer checkpoint. Otherwise, it is the one of the given snapshot with the new commits.
+    LogSegment logSegment = snapshot.getLogSegment();
+    List<FileStatus> newCheckpoints =
+        newFiles.stream()
+            .filter(file -> FileNames.isCheckpointFile(getName(file.getPath())))
+            .collect(Collectors.toList());
+    Optional<CheckpointInstance> newCheckpointOpt =
+        Checkpointer.getLatestCompleteCheckpointFromList(
+            newCheckpoints.stream()
+                .map(file -> new CheckpointInstance(file.getPath()))
+                .collect(Collectors.toList()),
+            new CheckpointInstance(newVersion));
+    final List<FileStatus> checkpoints;
+    final Optional<Long> checkpointVersionOpt;
+    final List<FileStatus> deltas = new ArrayList<>();
+    if (newCheckpointOpt.isPresent()) {
+      checkpoints = getCheckpointFiles(newCheckpointOpt.get(), newCheckpoints);
+      checkpointVersionOpt = Optional.of(newCheckpointOpt.get().version);
+    } else {
+      checkpoints = logSegment.checkpoints;
+      checkpointVersionOpt = logSegment.checkpointVersionOpt;
+      deltas.addAll(logSegment.deltas);
+    }
+    long checkpointVersion = checkpointVersionOpt.orElse(-1L);
+    newCommits.stream()
+        .filter(file -> FileNames.deltaVersion(file.getPath()) > checkpointVersion)
+        .forEach(deltas::add);
+    List<FileStatus> compactions =
+        Stream.concat(logSegment.compactions.stream(), newFiles.stream())
+            .filter(
+                file ->
+                    FileNames.isLogCompactionFile(getName(file.getPath()))
+                        && FileNames.logCompactionStartVersion(file.getPath())
+                            > checkpointVersion)
+            .collect(Collectors.toList());
+    List<FileStatus> checksums =
+        newFiles.stream()
+            .filter(file -> FileNames.isChecksumFile(getName(file.getPath())))
+            .collect(Collectors.toList());
+    logSegment.lastSeenChecksum.ifPresent(checksums::add);
+    LogSegment newLogSegment =
+        new LogSegment(
+            logPath,
+            newVersion,
+            deltas,
+            checkpoints,
+            compactions,
+            getLatestChecksumFile(checksums, checkpointVersion, newVersion),
+            checkpointVersionOpt,
+            newCommits.get(newCommits.size() - 1).getModificationTime());
+
+    long startTimeMillis = System.currentTimeMillis();
+    LogReplay logReplay =
+        new LogReplay(
+            logPath,
+            tablePath,
+            newVersion,
+            engine,
+            newLogSegment,
+            Optional.of(new SnapshotHint(version, snapshot.getProtocol(), snapshot.getMetadata())),
+            Optional.of(snapshot.getLogReplay().updateActiveAddFiles(engine, newCommits)));
+    SnapshotImpl newSnapshot =
+        new SnapshotImpl(
+            tablePath,
+            newLogSegment,
+            logReplay,
+            logReplay.getProtocol(),
+            logReplay.getMetadata(),
+            this,
+            metrics);
+    logger.info(
+        "{}: Took {}ms to update the snapshot from version {} to {}",
+        tablePath,
+        System.currentTimeMillis() - startTimeMillis,
+        version,
+        newVersion);
+
+    if (newSnapshot.getTableCommitCoordinatorClientHandlerOpt(engine).isPresent()) {
+      // The table was converted to a coordinated-commits table by one of the new commits
+      return buildLatestSnapshot(engine);
+    }
+    registerHint(
+        new SnapshotHint(newVersion, newSnapshot.getProtocol(), newSnapshot.getMetadata()));
+    reportSnapshotLoaded(engine, newSnapshot, startNanos);
+    return newSnapshot;
+  }
+
   /**
    * Construct the snapshot for the given table at the version provided.
    *
@@ -128,13 +268,15 @@ public class SnapshotManager {
    * @throws TableNotFoundException
    */
   public Snapshot getSnapshotAt(Engine engine, long version) throws TableNotFoundException {
-
+    long startNanos = System.nanoTime();
+    SnapshotLoadMetrics metrics = new SnapshotLoadMetrics();
     Optional<LogSegment> logSegmentOpt =
         getLogSegmentAtOrBeforeVersion(
             engine,
             Optional.empty(), /* startCheckpointOpt */
             Optional.of(version) /* versionToLoadOpt */,
-            Optional.empty() /* tableCommitHandlerOpt */);
+            Optional.empty() /* tableCommitHandlerOpt */,
+            metrics);
 
     // For non-coordinated commit table, the {@code getCoodinatedCommitsAwareSnapshot} will
     // create the snapshot with the {@code logSegmentOpt} built here and will not trigger other
@@ -147,12 +289,14 @@ public class SnapshotManager {
         logSegmentOpt
             .map(
                 logSegment ->
-                    getCoordinatedCommitsAwareSnapshot(engine, logSegment, Optional.of(version)))
+                    getCoordinatedCommitsAwareSnapshot(
+                        engine, logSegment, Optional.of(version), metrics))
             .orElseThrow(() -> new TableNotFoundException(tablePath.toString()));
     long snapshotVer = snapshot.getVersion(engine);
     if (snapshotVer != version) {
       throw DeltaErrors.versionAfterLatestCommit(tablePath.toString(), version, snapshotVer);
     }
+    reportSnapshotLoaded(engine, snapshot, startNanos);
     return snapshot;
   }
 
@@ -197,10 +341,82 @@ public class SnapshotManager {
         snapshot.getMetadata(),
         snapshot.getSchema(engine),
         tablePath.toString());
+    TableFeatures.validateCheckpointPolicy(engine, snapshot.getProtocol(), snapshot.getMetadata());
+
+    // The protocol requires every checkpoint of a table with the v2Checkpoint feature to be a V2
+    // checkpoint or to have a checkpointMetadata action, whatever its checkpoint policy
+    long numberOfAddFiles;
+    if (TableFeatures.isV2CheckpointSupported(snapshot.getProtocol())) {
+      numberOfAddFiles = writeV2Checkpoint(engine, snapshot, version);
+    } else {
+      numberOfAddFiles = writeClassicCheckpoint(engine, snapshot, version);
+    }
 
+    CheckpointMetaData checkpointMetaData =
+        new CheckpointMetaData(version, numberOfAddFiles, Optional.empty());
+
+    Checkpointer checkpointer = new Checkpointer(logPath);
+    checkpointer.writeLastCheckpointFile(engine, checkpointMetaData);
+
+    logger.info("{}: Last checkpoint metadata file is written for version: {}", tablePath, version);
+
+    // Index the timestamps of the oldest range of commits up to the checkpoint which is not indexed
+    // yet. Only one, to keep the cost of a checkpoint bounded on a deep table without an index: the
+    // next checkpoints and commits index the following ranges.
+    CommitTimestampIndex.update(engine, logPath, version, 1 /* maxNewSegments */);
+
+    logger.info("{}: Finished checkpoint for version: {}", tablePath, version);
+  }
+
+  /**
+   * Write a log compaction file which aggregates the commits from {@code startVersion} to {@code
+   * endVersion} (both inclusive), so that the log replay reads it instead of those commits.
+   *
+   * @param engine Instance of {@link Engine} to use.
+   * @param startVersion first commit version to aggregate
+   * @param endVersion last commit version to aggregate
+   * @throws TableNotFoundException if the table does not exist
+   * @throws IOException for any I/O error
+   */
+  public void compactLog(Engine engine, long startVersion, long endVersion)
+      throws TableNotFoundException, IOException {
+    if (startVersion < 0 || endVersion <= startVersion) {
+      throw DeltaErrors.invalidLogCompactionRange(startVersion, endVersion);
+    }
+    logger.info(
+        "{}: Starting log compaction for versions {} to {}", tablePath, startVersion, endVersion);
+    SnapshotImpl snapshot = (SnapshotImpl) getSnapshotAt(engine, endVersion);
+
+    // Check if writing to the given table protocol version/features is supported in Kernel
+    validateWriteSupportedTable(
+        snapshot.getProtocol(),
+        snapshot.getMetadata(),
+        snapshot.getSchema(engine),
+        tablePath.toString());
+
+    List<FileStatus> commitFiles =
+        DeltaLogActionUtils.getCommitFilesForVersionRange(
+            engine, tablePath, startVersion, endVersion);
+    new LogCompactionWriter(engine, logPath, startVersion, endVersion, commitFiles).write();
+
+    logger.info(
+        "{}: Finished log compaction for versions {} to {}", tablePath, startVersion, endVersion);
+  }
+
+  ////////////////////
+  // Helper Methods //
+  ////////////////////
+
+  /**
+   * Write a classic checkpoint, i.e. a single Parquet file with all the actions, of the given
+   * snapshot.
+   *
+   * @return number of add files in the checkpoint
+   */
+  private long writeClassicCheckpoint(Engine engine, SnapshotImpl snapshot, long version)
+      throws IOException {
     Path checkpointPath = FileNames.checkpointFileSingular(logPath, version);
 
-    long numberOfAddFiles = 0;
     try (CreateCheckpointIterator checkpointDataIter =
         snapshot.getCreateCheckpointIterator(engine)) {
       // Write the iterator actions to the checkpoint using the Parquet handler
@@ -217,26 +433,74 @@ public class SnapshotManager {
       logger.info("{}: Checkpoint file is written for version: {}", tablePath, version);
 
       // Get the metadata of the checkpoint file
-      numberOfAddFiles = checkpointDataIter.getNumberOfAddActions();
+      return checkpointDataIter.getNumberOfAddActions();
     } catch (FileAlreadyExistsException faee) {
       throw new CheckpointAlreadyExistsException(version);
     }
+  }
 
-    CheckpointMetaData checkpointMetaData =
-        new CheckpointMetaData(version, numberOfAddFiles, Optional.empty());
-
-    Checkpointer checkpointer = new Checkpointer(logPath);
-    checkpointer.writeLastCheckpointFile(engine, checkpointMetaData);
+  /**
+   * Write a V2 checkpoint of the given snapshot: first the file actions, to sidecar files in the
+   * `_delta_log/_sidecars` directory, and then the manifest with the non-file actions and the
+   * references to the sidecar files. The file actions are written with {@link
+   * io.delta.kernel.engine.ParquetHandler#writeParquetFiles}, which splits them into files of the
+   * target size of the engine (and may write the files in parallel), so that readers can read the
+   * sidecar files in parallel too.
+   *
+   * @return number of add files in the checkpoint
+   */
+  private long writeV2Checkpoint(Engine engine, SnapshotImpl snapshot, long version)
+      throws IOException {
+    String sidecarDirectory = new Path(logPath, FileNames.SIDECAR_DIRECTORY).toString();
+    List<SidecarFile> sidecarFiles = new ArrayList<>();
+    long numberOfAddFiles;
+    List<SetTransaction> transactions;
+    try (CreateCheckpointIterator fileActionsIter =
+        snapshot.getCreateCheckpointIterator(engine, true /* onlyFileActions */)) {
+      wrapEngineExceptionThrowsIO(
+          () -> {
+            try (CloseableIterator<DataFileStatus> writtenFiles =
+                engine
+                    .getParquetHandler()
+                    .writeParquetFiles(
+                        sidecarDirectory, fileActionsIter, Collections.emptyList())) {
+              while (writtenFiles.hasNext()) {
+                DataFileStatus writtenFile = writtenFiles.next();
+                sidecarFiles.add(
+                    new SidecarFile(
+                        new Path(writtenFile.getPath()).getName(),
+                        writtenFile.getSize(),
+                        writtenFile.getModificationTime()));
+              }
+            }
+            return null;
+          },
+          "Writing checkpoint sidecar files to %s",
+          sidecarDirectory);
 
-    logger.info("{}: Last checkpoint metadata file is written for version: {}", tablePath, version);
+      numberOfAddFiles = fileActionsIter.getNumberOfAddActions();
+      transactions = fileActionsIter.getTransactions();
+    }
+    logger.info(
+        "{}: {} checkpoint sidecar files are written for version: {}",
+        tablePath,
+        sidecarFiles.size(),
+        version);
 
-    logger.info("{}: Finished checkpoint for version: {}", tablePath, version);
+    Path manifestPath =
+        new Checkpointer(logPath)
+            .writeV2CheckpointManifest(
+                engine,
+                version,
+                snapshot.getProtocol(),
+                snapshot.getMetadata(),
+                transactions,
+                sidecarFiles);
+    logger.info(
+        "{}: Checkpoint manifest {} is written for version: {}", tablePath, manifestPath, version);
+    return numberOfAddFiles;
   }
 
-  ////////////////////
-  // Helper Methods //
-  ////////////////////
-
   /**
    * Updates the current `latestSnapshotHint` with the `newHint` if and only if the newHint is newer
    * (i.e. has a later table version).
@@ -252,40 +516,108 @@ public class SnapshotManager {
         });
   }
 
-  /** Get an iterator of files in the _delta_log directory starting with the startVersion. */
-  private CloseableIterator<FileStatus> listFrom(Engine engine, long startVersion)
-      throws IOException {
+  /**
+   * Get an iterator of files in the _delta_log directory starting with the startVersion. The
+   * listing is recorded in the given metrics.
+   */
+  private CloseableIterator<FileStatus> listFrom(
+      Engine engine, long startVersion, SnapshotLoadMetrics metrics) throws IOException {
     logger.debug("{}: startVersion: {}", tablePath, startVersion);
-    return wrapEngineExceptionThrowsIO(
-        () -> engine.getFileSystemClient().listFrom(FileNames.listingPrefix(logPath, startVersion)),
-        "Listing from %s",
-        FileNames.listingPrefix(logPath, startVersion));
+    long startNanos = System.nanoTime();
+    try {
+      return metrics.trackListing(
+          startNanos,
+          wrapEngineExceptionThrowsIO(
+              () ->
+                  engine
+                      .getFileSystemClient()
+                      .listFrom(FileNames.listingPrefix(logPath, startVersion)),
+              "Listing from %s",
+              FileNames.listingPrefix(logPath, startVersion)));
+    } catch (IOException | RuntimeException e) {
+      metrics.recordFailedListing(startNanos);
+      throw e;
+    }
   }
 
   /**
    * Returns true if the given file name is delta log files. Delta log files can be delta commit
-   * file (e.g., 000000000.json), or checkpoint file. (e.g.,
+   * file (e.g., 000000000.json), log compaction file (e.g., 000000001.000000003.compacted.json),
+   * checksum file (e.g., 000000001.crc) or checkpoint file. (e.g.,
    * 000000001.checkpoint.00001.00003.parquet)
    *
    * @param fileName Name of the file (not the full path)
    * @return Boolean Whether the file is delta log files
    */
   private boolean isDeltaCommitOrCheckpointFile(String fileName) {
-    return FileNames.isCheckpointFile(fileName) || FileNames.isCommitFile(fileName);
+    return FileNames.isCheckpointFile(fileName)
+        || FileNames.isCommitFile(fileName)
+        || FileNames.isLogCompactionFile(fileName)
+        || FileNames.isChecksumFile(fileName);
+  }
+
+  /** Returns the files of the given checkpoint among the given checkpoint files. */
+  private List<FileStatus> getCheckpointFiles(
+      CheckpointInstance checkpoint, List<FileStatus> checkpointFiles) {
+    final Set<Path> checkpointPaths = new HashSet<>(checkpoint.getCorrespondingFiles(logPath));
+    final List<FileStatus> checkpointFileList =
+        checkpointFiles.stream()
+            .filter(f -> checkpointPaths.contains(new Path(f.getPath())))
+            .collect(Collectors.toList());
+
+    if (checkpointFileList.size() != checkpointPaths.size()) {
+      String msg =
+          format(
+              "Seems like the checkpoint is corrupted. Failed in getting the file "
+                  + "information for:\n%s\namong\n%s",
+              checkpointPaths.stream().map(Path::toString).collect(Collectors.toList()),
+              checkpointFiles.stream()
+                  .map(FileStatus::getPath)
+                  .collect(Collectors.joining("\n - ")));
+      throw new IllegalStateException(msg);
+    }
+    return checkpointFileList;
+  }
+
+  /**
+   * Returns the latest of the given checksum files whose version is between {@code minVersion} and
+   * {@code maxVersion} (both inclusive), if any.
+   */
+  private static Optional<FileStatus> getLatestChecksumFile(
+      List<FileStatus> checksums, long minVersion, long maxVersion) {
+    return checksums.stream()
+        .filter(
+            file -> {
+              long version = FileNames.checksumVersion(new Path(file.getPath()));
+              return version >= minVersion && version <= maxVersion;
+            })
+        .max(Comparator.comparingLong(file -> FileNames.checksumVersion(new Path(file.getPath()))));
+  }
+
+  /**
+   * Returns the version by which the given delta log file is sorted in the listing: the version of
+   * the first commit a log compaction file aggregates, the version of any other file.
+   */
+  private static long getListingVersion(Path path) {
+    return FileNames.isLogCompactionFile(path.getName())
+        ? FileNames.logCompactionStartVersion(path.toString())
+        : FileNames.getFileVersion(path);
   }
 
   /**
    * Returns an iterator containing a list of files found in the _delta_log directory starting with
    * the startVersion. Returns None if no files are found or the directory is missing.
    */
-  private Optional<CloseableIterator<FileStatus>> listFromOrNone(Engine engine, long startVersion) {
+  private Optional<CloseableIterator<FileStatus>> listFromOrNone(
+      Engine engine, long startVersion, SnapshotLoadMetrics metrics) {
     // LIST the directory, starting from the provided lower bound (treat missing dir as empty).
     // NOTE: "empty/missing" is _NOT_ equivalent to "contains no useful commit files."
     try {
-      CloseableIterator<FileStatus> results = listFrom(engine, startVersion);
+      CloseableIterator<FileStatus> results = listFrom(engine, startVersion, metrics);
       if (results.hasNext()) {
         return Optional.of(results);
       } else {
+        results.close();
         return Optional.empty();
       }
     } catch (FileNotFoundException e) {
@@ -318,11 +650,14 @@ public class SnapshotManager {
    *     </ul>
    *     <p>*Note*: If table is a coordinated-commits table, the commit-coordinator client MUST be
    *     passed to correctly list the commits.
+   *     <p>The listing is consumed lazily and closed as soon as a file after `versionToLoad` is
+   *     seen, so that the pages of the listing after the version to load are not fetched.
    * @param startVersion the version to start. Inclusive.
    * @param versionToLoad the optional parameter to set the max version we should return. Inclusive.
    *     Must be >= startVersion if provided.
    * @param tableCommitHandlerOpt the optional commit-coordinator client handler to use for fetching
    *     un-backfilled commits.
+   * @param metrics the metrics to record the listing in
    * @return Some array of files found (possibly empty, if no usable commit files are present), or
    *     None if the listing returned no files at all.
    */
@@ -330,7 +665,8 @@ public class SnapshotManager {
       Engine engine,
       long startVersion,
       Optional<Long> versionToLoad,
-      Optional<TableCommitCoordinatorClientHandler> tableCommitHandlerOpt) {
+      Optional<TableCommitCoordinatorClientHandler> tableCommitHandlerOpt,
+      SnapshotLoadMetrics metrics) {
     versionToLoad.ifPresent(
         v ->
             checkArgument(
@@ -349,55 +685,60 @@ public class SnapshotManager {
         getUnbackfilledCommits(tableCommitHandlerOpt, startVersion, versionToLoad);
 
     final AtomicLong maxDeltaVersionSeen = new AtomicLong(startVersion - 1);
-    Optional<CloseableIterator<FileStatus>> listing = listFromOrNone(engine, startVersion);
+    Optional<CloseableIterator<FileStatus>> listing = listFromOrNone(engine, startVersion, metrics);
     Optional<List<FileStatus>> resultFromFsListingOpt =
         listing.map(
-            fileStatusesIter -> {
+            listingIter -> {
               final List<FileStatus> output = new ArrayList<>();
 
-              while (fileStatusesIter.hasNext()) {
-                final FileStatus fileStatus = fileStatusesIter.next();
-                final String fileName = getName(fileStatus.getPath());
+              try (CloseableIterator<FileStatus> fileStatusesIter = listingIter) {
+                while (fileStatusesIter.hasNext()) {
+                  final FileStatus fileStatus = fileStatusesIter.next();
+                  final String fileName = getName(fileStatus.getPath());
 
-                // Pick up all checkpoint and delta files
-                if (!isDeltaCommitOrCheckpointFile(fileName)) {
-                  continue;
-                }
+                  // Pick up all checkpoint and delta files
+                  if (!isDeltaCommitOrCheckpointFile(fileName)) {
+                    continue;
+                  }
 
-                // Checkpoint files of 0 size are invalid but may be ignored silently when read,
-                // hence we drop them so that we never pick up such checkpoints.
-                if (FileNames.isCheckpointFile(fileName) && fileStatus.getSize() == 0) {
-                  continue;
-                }
-                // Take files until the version we want to load
-                final boolean versionWithinRange =
-                    versionToLoad
-                        .map(v -> FileNames.getFileVersion(new Path(fileStatus.getPath())) <= v)
-                        .orElse(true);
-
-                if (!versionWithinRange) {
-                  // If we haven't taken any files yet and the first file we see is greater
-                  // than the versionToLoad then the versionToLoad is not reconstructable
-                  // from the existing logs
-                  if (output.isEmpty()) {
-                    long earliestVersion =
-                        DeltaHistoryManager.getEarliestRecreatableCommit(engine, logPath);
-                    throw DeltaErrors.versionBeforeFirstAvailableCommit(
-                        tablePath.toString(), versionToLoad.get(), earliestVersion);
+                  // Checkpoint files of 0 size are invalid but may be ignored silently when read,
+                  // hence we drop them so that we never pick up such checkpoints.
+                  if (FileNames.isCheckpointFile(fileName) && fileStatus.getSize() == 0) {
+                    continue;
+                  }
+                  // Take files until the version we want to load
+                  final boolean versionWithinRange =
+                      versionToLoad
+                          .map(v -> getListingVersion(new Path(fileStatus.getPath())) <= v)
+                          .orElse(true);
+
+                  if (!versionWithinRange) {
+                    // If we haven't taken any files yet and the first file we see is greater
+                    // than the versionToLoad then the versionToLoad is not reconstructable
+                    // from the existing logs
+                    if (output.isEmpty()) {
+                      long earliestVersion =
+                          DeltaHistoryManager.getEarliestRecreatableCommit(engine, logPath);
+                      throw DeltaErrors.versionBeforeFirstAvailableCommit(
+                          tablePath.toString(), versionToLoad.get(), earliestVersion);
+                    }
+                    break;
                   }
-                  break;
-                }
 
-                // Ideally listFromOrNone should return lexiographically sorted
-                // files and so maxDeltaVersionSeen should be equal to fileVersion.
-                // But we are being defensive here and taking max of all the
-                // fileVersions seen.
-                if (FileNames.isCommitFile(fileName)) {
-                  maxDeltaVersionSeen.set(
-                      Math.max(
-                          maxDeltaVersionSeen.get(), FileNames.deltaVersion(fileStatus.getPath())));
+                  // Ideally listFromOrNone should return lexiographically sorted
+                  // files and so maxDeltaVersionSeen should be equal to fileVersion.
+                  // But we are being defensive here and taking max of all the
+                  // fileVersions seen.
+                  if (FileNames.isCommitFile(fileName)) {
+                    maxDeltaVersionSeen.set(
+                        Math.max(
+                            maxDeltaVersionSeen.get(),
+                            FileNames.deltaVersion(fileStatus.getPath())));
+                  }
+                  output.add(fileStatus);
                 }
-                output.add(fileStatus);
+              } catch (IOException e) {
+                throw new UncheckedIOException("Failed to list the files in delta log", e);
               }
 
               return output;
@@ -452,19 +793,76 @@ public class SnapshotManager {
    * file as a hint on where to start listing the transaction log directory.
    */
   private SnapshotImpl getSnapshotAtInit(Engine engine) throws TableNotFoundException {
+    long startNanos = System.nanoTime();
+    SnapshotLoadMetrics metrics = new SnapshotLoadMetrics();
     Checkpointer checkpointer = new Checkpointer(logPath);
     Optional<CheckpointMetaData> lastCheckpointOpt = checkpointer.readLastCheckpointFile(engine);
+    Optional<Long> startCheckpointOpt = lastCheckpointOpt.map(x -> x.version);
     if (!lastCheckpointOpt.isPresent()) {
       logger.warn(
           "{}: Last checkpoint file is missing or corrupted. "
               + "Will search for the checkpoint files directly.",
           tablePath);
+      startCheckpointOpt = findLatestCheckpoint(engine, metrics);
+    }
+    Optional<LogSegment> logSegmentOpt = getLogSegmentFrom(engine, startCheckpointOpt, metrics);
+
+    SnapshotImpl snapshot =
+        logSegmentOpt
+            .map(
+                logSegment ->
+                    getCoordinatedCommitsAwareSnapshot(
+                        engine, logSegment, Optional.empty(), metrics))
+            .orElseThrow(() -> new TableNotFoundException(tablePath.toString()));
+    reportSnapshotLoaded(engine, snapshot, startNanos);
+    return snapshot;
+  }
+
+  /** Report the metrics of the loading of the given snapshot, started at {@code startNanos}. */
+  private void reportSnapshotLoaded(Engine engine, SnapshotImpl snapshot, long startNanos) {
+    MetricsReportingUtils.report(
+        engine,
+        new SnapshotReportImpl(
+            tablePath.toString(),
+            snapshot.getLogSegment(),
+            snapshot.getLoadMetrics(),
+            System.nanoTime() - startNanos));
+  }
+
+  /**
+   * Find the latest checkpoint of the table without the `_last_checkpoint` file and without listing
+   * the whole log, by searching backwards from a version of the table known to exist: the version
+   * of the latest snapshot loaded by this manager, or else the last version of the commit timestamp
+   * index, or else a version close to the latest commit found by probing the log at exponentially
+   * growing versions. Returns empty when the table has no commit or no checkpoint is found, in
+   * which case the log is listed from version 0.
+   */
+  private Optional<Long> findLatestCheckpoint(Engine engine, SnapshotLoadMetrics metrics) {
+    Optional<Long> knownVersionOpt =
+        Optional.ofNullable(latestSnapshotHint.get()).map(SnapshotHint::getVersion);
+    if (!knownVersionOpt.isPresent()) {
+      try {
+        knownVersionOpt =
+            CommitTimestampIndex.load(engine, logPath).map(CommitTimestampIndex::getLastVersion);
+      } catch (IOException | RuntimeException e) {
+        logger.warn("{}: Failed to load the commit timestamp index", tablePath, e);
+      }
     }
-    Optional<LogSegment> logSegmentOpt = getLogSegmentFrom(engine, lastCheckpointOpt);
 
-    return logSegmentOpt
-        .map(logSegment -> getCoordinatedCommitsAwareSnapshot(engine, logSegment, Optional.empty()))
-        .orElseThrow(() -> new TableNotFoundException(tablePath.toString()));
+    long startTimeMillis = System.currentTimeMillis();
+    Optional<Long> checkpointVersionOpt =
+        (knownVersionOpt.isPresent()
+                ? Checkpointer.findLatestCompleteCheckpoint(
+                    engine, logPath, knownVersionOpt.get(), metrics)
+                : Checkpointer.findLatestCompleteCheckpoint(engine, logPath, metrics))
+            .map(x -> x.version);
+    logger.info(
+        "{}: Took {}ms to find the latest checkpoint {} (known version: {})",
+        tablePath,
+        System.currentTimeMillis() - startTimeMillis,
+        checkpointVersionOpt,
+        knownVersionOpt);
+    return checkpointVersionOpt;
   }
 
   /**
@@ -473,8 +871,11 @@ public class SnapshotManager {
    * @see <a href="https://github.com/delta-io/delta/issues/3437">issue #3437</a>.
    */
   private SnapshotImpl getCoordinatedCommitsAwareSnapshot(
-      Engine engine, LogSegment initialSegmentForNewSnapshot, Optional<Long> versionToLoadOpt) {
-    SnapshotImpl newSnapshot = createSnapshot(initialSegmentForNewSnapshot, engine);
+      Engine engine,
+      LogSegment initialSegmentForNewSnapshot,
+      Optional<Long> versionToLoadOpt,
+      SnapshotLoadMetrics metrics) {
+    SnapshotImpl newSnapshot = createSnapshot(initialSegmentForNewSnapshot, engine, metrics);
 
     if (versionToLoadOpt.isPresent() && newSnapshot.getVersion(engine) == versionToLoadOpt.get()) {
       return newSnapshot;
@@ -489,16 +890,18 @@ public class SnapshotManager {
               engine,
               newSnapshot.getLogSegment().checkpointVersionOpt, /* startCheckpointOpt */
               versionToLoadOpt /* versionToLoadOpt */,
-              newTableCommitCoordinatorClientHandlerOpt /* tableCommitHandlerOpt */);
+              newTableCommitCoordinatorClientHandlerOpt /* tableCommitHandlerOpt */,
+              metrics);
       newSnapshot =
           segmentOpt
-              .map(segment -> createSnapshot(segment, engine))
+              .map(segment -> createSnapshot(segment, engine, metrics))
               .orElseThrow(() -> new TableNotFoundException(tablePath.toString()));
     }
     return newSnapshot;
   }
 
-  private SnapshotImpl createSnapshot(LogSegment initSegment, Engine engine) {
+  private SnapshotImpl createSnapshot(
+      LogSegment initSegment, Engine engine, SnapshotLoadMetrics metrics) {
     final String startingFromStr =
         initSegment
             .checkpointVersionOpt
@@ -521,7 +924,13 @@ public class SnapshotManager {
 
     final SnapshotImpl snapshot =
         new SnapshotImpl(
-            tablePath, initSegment, logReplay, logReplay.getProtocol(), logReplay.getMetadata());
+            tablePath,
+            initSegment,
+            logReplay,
+            logReplay.getProtocol(),
+            logReplay.getMetadata(),
+            this,
+            metrics);
 
     logger.info(
         "{}: Took {}ms to construct the snapshot (loading protocol and metadata) for {} {}",
@@ -543,12 +952,12 @@ public class SnapshotManager {
    * Get the LogSegment that will help in computing the Snapshot of the table at DeltaLog
    * initialization, or None if the directory was empty/missing.
    *
-   * @param startingCheckpoint A checkpoint that we can start our listing from
+   * @param startingCheckpoint The version of a checkpoint that we can start our listing from
    */
   private Optional<LogSegment> getLogSegmentFrom(
-      Engine engine, Optional<CheckpointMetaData> startingCheckpoint) {
+      Engine engine, Optional<Long> startingCheckpoint, SnapshotLoadMetrics metrics) {
     return getLogSegmentAtOrBeforeVersion(
-        engine, startingCheckpoint.map(x -> x.version), Optional.empty(), Optional.empty());
+        engine, startingCheckpoint, Optional.empty(), Optional.empty(), metrics);
   }
 
   /**
@@ -572,6 +981,20 @@ public class SnapshotManager {
       Optional<Long> startCheckpoint,
       Optional<Long> versionToLoad,
       Optional<TableCommitCoordinatorClientHandler> tableCommitHandlerOpt) {
+    return getLogSegmentAtOrBeforeVersion(
+        engine, startCheckpoint, versionToLoad, tableCommitHandlerOpt, new SnapshotLoadMetrics());
+  }
+
+  /**
+   * Same as {@link #getLogSegmentAtOrBeforeVersion(Engine, Optional, Optional, Optional)},
+   * recording the listings of the log directory in the given metrics.
+   */
+  private Optional<LogSegment> getLogSegmentAtOrBeforeVersion(
+      Engine engine,
+      Optional<Long> startCheckpoint,
+      Optional<Long> versionToLoad,
+      Optional<TableCommitCoordinatorClientHandler> tableCommitHandlerOpt,
+      SnapshotLoadMetrics metrics) {
     // Only use startCheckpoint if it is <= versionToLoad
     Optional<Long> startCheckpointToUse =
         startCheckpoint.filter(v -> !versionToLoad.isPresent() || v <= versionToLoad.get());
@@ -582,7 +1005,8 @@ public class SnapshotManager {
       long beforeVersion = versionToLoad.get() + 1;
       long startTimeMillis = System.currentTimeMillis();
       startCheckpointToUse =
-          findLastCompleteCheckpointBefore(engine, logPath, beforeVersion).map(x -> x.version);
+          findLastCompleteCheckpointBefore(engine, logPath, beforeVersion, metrics)
+              .map(x -> x.version);
 
       logger.info(
           "{}: Took {}ms to load last checkpoint before version {}",
@@ -601,7 +1025,8 @@ public class SnapshotManager {
 
     long startTimeMillis = System.currentTimeMillis();
     final Optional<List<FileStatus>> newFiles =
-        listDeltaAndCheckpointFiles(engine, startVersion, versionToLoad, tableCommitHandlerOpt);
+        listDeltaAndCheckpointFiles(
+            engine, startVersion, versionToLoad, tableCommitHandlerOpt, metrics);
     logger.info(
         "{}: Took {}ms to list the files after starting checkpoint",
         tablePath,
@@ -610,7 +1035,7 @@ public class SnapshotManager {
     startTimeMillis = System.currentTimeMillis();
     try {
       return getLogSegmentAtOrBeforeVersion(
-          engine, startCheckpointToUse, versionToLoad, newFiles, tableCommitHandlerOpt);
+          engine, startCheckpointToUse, versionToLoad, newFiles, tableCommitHandlerOpt, metrics);
     } finally {
       logger.info(
           "{}: Took {}ms to construct a log segment",
@@ -628,7 +1053,8 @@ public class SnapshotManager {
       Optional<Long> startCheckpointOpt,
       Optional<Long> versionToLoadOpt,
       Optional<List<FileStatus>> filesOpt,
-      Optional<TableCommitCoordinatorClientHandler> tableCommitHandlerOpt) {
+      Optional<TableCommitCoordinatorClientHandler> tableCommitHandlerOpt,
+      SnapshotLoadMetrics metrics) {
     final List<FileStatus> newFiles;
     if (filesOpt.isPresent()) {
       newFiles = filesOpt.get();
@@ -663,12 +1089,22 @@ public class SnapshotManager {
       // The directory may be deleted and recreated and we may have stale state in our
       // DeltaLog singleton, so try listing from the first version
       return getLogSegmentAtOrBeforeVersion(
-          engine, Optional.empty(), versionToLoadOpt, tableCommitHandlerOpt);
+          engine, Optional.empty(), versionToLoadOpt, tableCommitHandlerOpt, metrics);
     }
 
-    Tuple2<List<FileStatus>, List<FileStatus>> checkpointsAndDeltas =
+    Tuple2<List<FileStatus>, List<FileStatus>> checksumsAndOthers =
         ListUtils.partition(
             newFiles,
+            fileStatus -> FileNames.isChecksumFile(new Path(fileStatus.getPath()).getName()));
+    final List<FileStatus> checksums = checksumsAndOthers._1;
+    Tuple2<List<FileStatus>, List<FileStatus>> compactionsAndOthers =
+        ListUtils.partition(
+            checksumsAndOthers._2,
+            fileStatus -> FileNames.isLogCompactionFile(new Path(fileStatus.getPath()).getName()));
+    final List<FileStatus> compactions = compactionsAndOthers._1;
+    Tuple2<List<FileStatus>, List<FileStatus>> checkpointsAndDeltas =
+        ListUtils.partition(
+            compactionsAndOthers._2,
             fileStatus -> FileNames.isCheckpointFile(new Path(fileStatus.getPath()).getName()));
     final List<FileStatus> checkpoints = checkpointsAndDeltas._1;
     final List<FileStatus> deltas = checkpointsAndDeltas._2;
@@ -811,30 +1247,7 @@ public class SnapshotManager {
 
     final List<FileStatus> newCheckpointFiles =
         newCheckpointOpt
-            .map(
-                newCheckpoint -> {
-                  final Set<Path> newCheckpointPaths =
-                      new HashSet<>(newCheckpoint.getCorrespondingFiles(logPath));
-                  final List<FileStatus> newCheckpointFileList =
-                      checkpoints.stream()
-                          .filter(f -> newCheckpointPaths.contains(new Path(f.getPath())))
-                          .collect(Collectors.toList());
-
-                  if (newCheckpointFileList.size() != newCheckpointPaths.size()) {
-                    String msg =
-                        format(
-                            "Seems like the checkpoint is corrupted. Failed in getting the file "
-                                + "information for:\n%s\namong\n%s",
-                            newCheckpointPaths.stream()
-                                .map(Path::toString)
-                                .collect(Collectors.toList()),
-                            checkpoints.stream()
-                                .map(FileStatus::getPath)
-                                .collect(Collectors.joining("\n - ")));
-                    throw new IllegalStateException(msg);
-                  }
-                  return newCheckpointFileList;
-                })
+            .map(newCheckpoint -> getCheckpointFiles(newCheckpoint, checkpoints))
             .orElse(Collections.emptyList());
 
     return Optional.of(
@@ -843,6 +1256,8 @@ public class SnapshotManager {
             newVersion,
             deltasAfterCheckpoint,
             newCheckpointFiles,
+            compactions,
+            getLatestChecksumFile(checksums, newCheckpointVersion, newVersion),
             newCheckpointOpt.map(x -> x.version),
             lastCommitTimestamp));
   }
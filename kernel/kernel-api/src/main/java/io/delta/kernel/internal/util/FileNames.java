@@ -42,8 +42,19 @@ public final class FileNames {
   private static final Pattern MULTI_PART_CHECKPOINT_FILE_PATTERN =
       Pattern.compile("(\\d+)\\.checkpoint\\.\\d+\\.\\d+\\.parquet");
 
+  // Example: 00000000000000000010.00000000000000000019.compacted.json
+  private static final Pattern LOG_COMPACTION_FILE_PATTERN =
+      Pattern.compile("(\\d+)\\.(\\d+)\\.compacted\\.json");
+
+  private static final Pattern CHECKSUM_FILE_PATTERN = Pattern.compile("(\\d+)\\.crc");
+
+  private static final Pattern COMMIT_TIMESTAMPS_FILE_PATTERN =
+      Pattern.compile("(\\d+)\\.(\\d+)\\.timestamps\\.json");
+
   public static final String SIDECAR_DIRECTORY = "_sidecars";
 
+  public static final String COMMIT_TIMESTAMPS_DIRECTORY = "_commit_timestamps";
+
   /** Returns the delta (json format) path for a given delta file. */
   public static String deltaFile(Path path, long version) {
     return String.format("%s/%020d.json", path, version);
@@ -71,6 +82,16 @@ public final class FileNames {
     return Long.parseLong(name.split("\\.")[0]);
   }
 
+  /** Returns the path of the checksum file for the given version. */
+  public static Path checksumFile(Path path, long version) {
+    return new Path(path, String.format("%020d.crc", version));
+  }
+
+  /** Returns the version for the given checksum path. */
+  public static long checksumVersion(Path path) {
+    return Long.parseLong(path.getName().split("\\.")[0]);
+  }
+
   public static String sidecarFile(Path path, String sidecar) {
     return String.format("%s/%s/%s", path.toString(), SIDECAR_DIRECTORY, sidecar);
   }
@@ -104,6 +125,36 @@ public final class FileNames {
     return new Path(path, String.format("%020d.checkpoint.%s.%s", version, uuid, fileType));
   }
 
+  /**
+   * Returns the path of the log compaction file which aggregates the commits from {@code
+   * startVersion} to {@code endVersion} (both inclusive).
+   *
+   * <p>Example of the format: 00000000000000000010.00000000000000000019.compacted.json. Zero
+   * padding is for lexicographic sorting.
+   */
+  public static Path logCompactionFile(Path path, long startVersion, long endVersion) {
+    return new Path(path, String.format("%020d.%020d.compacted.json", startVersion, endVersion));
+  }
+
+  /**
+   * Returns the path of the commit timestamp index file starting at the given version, whose first
+   * commit has the given timestamp.
+   *
+   * <p>Example of the format: 00000000000000001000.1700000000000.timestamps.json. Zero padding is
+   * for lexicographic sorting.
+   */
+  public static Path commitTimestampsFile(Path path, long startVersion, long firstTimestamp) {
+    return new Path(
+        String.format(
+            "%s/%s/%020d.%d.timestamps.json",
+            path.toString(), COMMIT_TIMESTAMPS_DIRECTORY, startVersion, firstTimestamp));
+  }
+
+  /** Returns the prefix of all the commit timestamp index files, to list them with listFrom. */
+  public static String commitTimestampsListingPrefix(Path path) {
+    return listingPrefix(new Path(path, COMMIT_TIMESTAMPS_DIRECTORY), 0);
+  }
+
   /** Returns the path for a V2 sidecar file with a given UUID. */
   public static Path v2CheckpointSidecarFile(Path path, String uuid) {
     return new Path(String.format("%s/_sidecars/%s.parquet", path.toString(), uuid));
@@ -144,6 +195,38 @@ public final class FileNames {
     return V2_CHECKPOINT_FILE_PATTERN.matcher(fileName).matches();
   }
 
+  public static boolean isLogCompactionFile(String fileName) {
+    return LOG_COMPACTION_FILE_PATTERN.matcher(new Path(fileName).getName()).matches();
+  }
+
+  /** Returns the first commit version aggregated by the given log compaction file. */
+  public static long logCompactionStartVersion(String path) {
+    return Long.parseLong(new Path(path).getName().split("\\.")[0]);
+  }
+
+  /** Returns the last commit version aggregated by the given log compaction file. */
+  public static long logCompactionEndVersion(String path) {
+    return Long.parseLong(new Path(path).getName().split("\\.")[1]);
+  }
+
+  public static boolean isChecksumFile(String fileName) {
+    return CHECKSUM_FILE_PATTERN.matcher(new Path(fileName).getName()).matches();
+  }
+
+  public static boolean isCommitTimestampsFile(String fileName) {
+    return COMMIT_TIMESTAMPS_FILE_PATTERN.matcher(new Path(fileName).getName()).matches();
+  }
+
+  /** Returns the start version of the given commit timestamp index file. */
+  public static long commitTimestampsStartVersion(String path) {
+    return Long.parseLong(new Path(path).getName().split("\\.")[0]);
+  }
+
+  /** Returns the timestamp of the first commit of the given commit timestamp index file. */
+  public static long commitTimestampsFirstTimestamp(String path) {
+    return Long.parseLong(new Path(path).getName().split("\\.")[1]);
+  }
+
   public static boolean isCommitFile(String fileName) {
     String filename = new Path(fileName).getName();
     return DELTA_FILE_PATTERN.matcher(filename).matches()
@@ -161,8 +244,8 @@ public final class FileNames {
       return checkpointVersion(path);
     } else if (isCommitFile(path.getName())) {
       return deltaVersion(path);
-      // } else if (isChecksumFile(path)) {
-      //    checksumVersion(path);
+    } else if (isChecksumFile(path.getName())) {
+      return checksumVersion(path);
     } else {
       throw new IllegalArgumentException(
           String.format("Unexpected file type found in transaction log: %s", path));
@@ -72,8 +72,7 @@ public final class VectorUtils {
 
   /**
    * Creates an {@link ArrayValue} from list of strings. The type {@code array(string)} is a common
-   * occurrence in Delta Log schema. We don't have any non-string array type in Delta Log. If we end
-   * up needing to support other types, we can make this generic.
+   * occurrence in Delta Log schema.
    *
    * @param values list of strings
    * @return an {@link ArrayValue} with the given values of type {@link StringType}
@@ -95,6 +94,30 @@ public final class VectorUtils {
     };
   }
 
+  /**
+   * Creates an {@link ArrayValue} from list of longs, e.g. for the {@code array(long)} fields of
+   * the file size histogram in the checksum file.
+   *
+   * @param values list of longs
+   * @return an {@link ArrayValue} with the given values of type {@link LongType}
+   */
+  public static ArrayValue longArrayValue(List<Long> values) {
+    if (values == null) {
+      return null;
+    }
+    return new ArrayValue() {
+      @Override
+      public int getSize() {
+        return values.size();
+      }
+
+      @Override
+      public ColumnVector getElements() {
+        return longVector(values);
+      }
+    };
+  }
+
   /**
    * Creates a {@link MapValue} from map of string keys and string values. The type {@code
    * map(string -> string)} is a common occurrence in Delta Log schema.
@@ -164,6 +187,43 @@ public final class VectorUtils {
     };
   }
 
+  /**
+   * Utility method to create a {@link ColumnVector} for given list of longs.
+   *
+   * @param values list of longs
+   * @return a {@link ColumnVector} with the given values of type {@link LongType}
+   */
+  public static ColumnVector longVector(List<Long> values) {
+    return new ColumnVector() {
+      @Override
+      public DataType getDataType() {
+        return LongType.LONG;
+      }
+
+      @Override
+      public int getSize() {
+        return values.size();
+      }
+
+      @Override
+      public void close() {
+        // no-op
+      }
+
+      @Override
+      public boolean isNullAt(int rowId) {
+        checkArgument(rowId >= 0 && rowId < values.size(), "Invalid rowId: " + rowId);
+        return values.get(rowId) == null;
+      }
+
+      @Override
+      public long getLong(int rowId) {
+        checkArgument(rowId >= 0 && rowId < values.size(), "Invalid rowId: " + rowId);
+        return values.get(rowId);
+      }
+    };
+  }
+
   /**
    * Gets the value at {@code rowId} from the column vector. The type of the Object returned depends
    * on the data type of the column vector. For complex types array and map, returns the value as
@@ -0,0 +1,33 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.metrics;
+
+import io.delta.kernel.annotation.Evolving;
+
+/**
+ * Report of the metrics of an operation of Delta Kernel on a table. Delivered to the {@link
+ * io.delta.kernel.engine.MetricsReporter}s of the engine once the operation is done.
+ *
+ * @since 3.3.0
+ */
+@Evolving
+public interface MetricsReport {
+  /** @return fully qualified path of the table the operation was done on */
+  String getTablePath();
+
+  /** @return type of the operation: {@code Snapshot}, {@code Scan} or {@code Transaction} */
+  String getOperationType();
+}
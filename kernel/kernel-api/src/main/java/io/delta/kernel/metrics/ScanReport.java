@@ -0,0 +1,100 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.metrics;
+
+import io.delta.kernel.annotation.Evolving;
+import io.delta.kernel.expressions.Predicate;
+import java.util.Optional;
+
+/**
+ * Metrics of the planning of a scan, i.e. the computation of the scan files returned by {@link
+ * io.delta.kernel.Scan#getScanFiles}: the log files read by the log replay, the reconciliation of
+ * the file actions and the pruning of the active data files. Reported when the scan files iterator
+ * is closed. If it is closed before being fully consumed, the metrics are partial.
+ *
+ * @since 3.3.0
+ */
+@Evolving
+public interface ScanReport extends MetricsReport {
+  /** @return version of the snapshot scanned */
+  long getTableVersion();
+
+  /** @return the filter of the scan, if any */
+  Optional<Predicate> getFilter();
+
+  /**
+   * @return whether the active data files were read from memory (a snapshot updated incrementally
+   *     or the engine's scan files cache) instead of replaying the log. If so, no log file is read.
+   */
+  boolean isFromInMemoryScanFiles();
+
+  /**
+   * @return number of commit (JSON) files read by the log replay, including the log compaction
+   *     files read in place of the commits they aggregate
+   */
+  long getNumCommitFilesRead();
+
+  /** @return total size of the commit files read by the log replay, in bytes */
+  long getCommitFilesBytesRead();
+
+  /**
+   * @return number of checkpoint files (classic, multi-part or V2 top-level files) read by the log
+   *     replay
+   */
+  long getNumCheckpointFilesRead();
+
+  /** @return total size of the checkpoint files read by the log replay, in bytes */
+  long getCheckpointFilesBytesRead();
+
+  /** @return number of sidecar files of V2 checkpoints read by the log replay */
+  long getNumSidecarFilesRead();
+
+  /** @return total size of the sidecar files read by the log replay, in bytes */
+  long getSidecarFilesBytesRead();
+
+  /** @return number of batches of file actions read by the log replay */
+  long getNumBatchesRead();
+
+  /** @return number of AddFile actions seen by the log replay, in checkpoint and commit files */
+  long getNumAddFilesSeen();
+
+  /** @return number of AddFile actions seen by the log replay in commit files */
+  long getNumAddFilesSeenFromDeltaFiles();
+
+  /** @return number of active AddFiles, i.e. that were neither removed nor duplicates */
+  long getNumActiveAddFiles();
+
+  /** @return number of AddFile actions for a file already added by a later commit */
+  long getNumDuplicateAddFiles();
+
+  /** @return number of RemoveFile actions seen by the log replay in commit files */
+  long getNumTombstonesSeen();
+
+  /** @return number of active data files pruned by the partition filter */
+  long getNumFilesPrunedByPartitionFilter();
+
+  /** @return number of active data files pruned by data skipping on the file statistics */
+  long getNumFilesPrunedByDataSkipping();
+
+  /** @return number of scan files returned, i.e. not pruned */
+  long getNumScanFilesReturned();
+
+  /**
+   * @return time spent computing the scan files, in nanoseconds. The time the connector spends
+   *     between consuming two batches of scan files is not included.
+   */
+  long getPlanningDurationNanos();
+}
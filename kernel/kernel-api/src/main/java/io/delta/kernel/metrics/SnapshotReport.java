@@ -0,0 +1,58 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.metrics;
+
+import io.delta.kernel.annotation.Evolving;
+import java.util.Optional;
+
+/**
+ * Metrics of the loading of a snapshot of a table: the listing of the {@code _delta_log} directory
+ * and the log segment the snapshot is built from. Reported once the snapshot is constructed.
+ *
+ * @since 3.3.0
+ */
+@Evolving
+public interface SnapshotReport extends MetricsReport {
+  /** @return version of the loaded snapshot */
+  long getVersion();
+
+  /** @return version of the checkpoint the snapshot is built from, if any */
+  Optional<Long> getCheckpointVersion();
+
+  /**
+   * @return number of files of the checkpoint the snapshot is built from (e.g. the parts of a
+   *     multi-part checkpoint), 0 if none. The sidecars of V2 checkpoints are not included.
+   */
+  long getNumCheckpointFiles();
+
+  /** @return number of commit files after the checkpoint the snapshot is built from */
+  long getNumCommitFiles();
+
+  /** @return number of listings of the {@code _delta_log} directory */
+  long getNumListingCalls();
+
+  /** @return number of files returned by the listings of the {@code _delta_log} directory */
+  long getNumFilesListed();
+
+  /** @return time spent listing the {@code _delta_log} directory, in nanoseconds */
+  long getListingDurationNanos();
+
+  /**
+   * @return total time to load the snapshot, including the listing and the loading of the protocol
+   *     and metadata, in nanoseconds
+   */
+  long getLoadDurationNanos();
+}
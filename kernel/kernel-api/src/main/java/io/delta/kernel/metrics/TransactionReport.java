@@ -0,0 +1,54 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.metrics;
+
+import io.delta.kernel.annotation.Evolving;
+import java.util.Optional;
+
+/**
+ * Metrics of the commit of a transaction. Reported once the commit succeeds or fails.
+ *
+ * @since 3.3.0
+ */
+@Evolving
+public interface TransactionReport extends MetricsReport {
+  /** @return description of the operation of the transaction, e.g. {@code WRITE} */
+  String getOperation();
+
+  /** @return version of the snapshot the transaction read, -1 if it creates the table */
+  long getReadVersion();
+
+  /** @return version committed by the transaction, or empty if the commit failed */
+  Optional<Long> getCommittedVersion();
+
+  /**
+   * @return number of times the commit was retried after a concurrent write was detected and the
+   *     conflicts were resolved
+   */
+  long getNumCommitRetries();
+
+  /** @return number of AddFile actions in the committed (or last attempted) commit file */
+  long getNumAddFiles();
+
+  /** @return number of RemoveFile actions in the committed (or last attempted) commit file */
+  long getNumRemoveFiles();
+
+  /** @return time spent committing the transaction, including the retries, in nanoseconds */
+  long getCommitDurationNanos();
+
+  /** @return the exception the commit failed with, if it failed */
+  Optional<Exception> getException();
+}
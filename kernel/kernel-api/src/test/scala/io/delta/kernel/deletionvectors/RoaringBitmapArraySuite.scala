@@ -16,10 +16,41 @@
 
 package io.delta.kernel.deletionvectors
 
+import scala.collection.mutable.ArrayBuffer
+
+import io.delta.kernel.internal.deletionvectors.RoaringBitmapArray
 import org.scalatest.funsuite.AnyFunSuite
 
 class RoaringBitmapArraySuite extends AnyFunSuite {
 
+  test("forEachInRange") {
+    val high = 3L << 32
+    val values = Seq(0L, 1L, 5L, 63L, 64L, 1000L, (1L << 31) + 7, (1L << 32) - 1, high, high + 2)
+    val bitmap = RoaringBitmapArray.create(values: _*)
+
+    def inRange(start: Long, end: Long): Seq[Long] = {
+      val result = ArrayBuffer[Long]()
+      bitmap.forEachInRange(start, end, value => result += value)
+      result.toSeq
+    }
+
+    Seq(
+      (0L, 0L),
+      (0L, 1L),
+      (1L, 64L),
+      (2L, 5L),
+      (64L, 1 << 20),
+      (1L << 31, 1L << 32),
+      (1000L, high + 1),
+      (high - 10, high + 3),
+      (high + 3, high + 100),
+      (0L, 10L << 32)
+    ).foreach { case (start, end) =>
+      assert(inRange(start, end) === values.filter(v => v >= start && v < end), s"[$start, $end)")
+    }
+    intercept[IllegalArgumentException](inRange(5, 4))
+  }
+
   // TODO need to implement serialize to copy over tests
 
   /**
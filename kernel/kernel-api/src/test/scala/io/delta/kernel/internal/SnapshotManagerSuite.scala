@@ -536,6 +536,91 @@ class SnapshotManagerSuite extends AnyFunSuite with MockFileSystemClientUtils {
     )
   }
 
+  test("getLogSegmentAtOrBeforeVersion: log compaction files") {
+    val checkpoints = singularCheckpointFileStatuses(Seq(5L))
+    val compactions = logCompactionFileStatuses(
+      Seq((3L, 8L), (6L, 10L), (8L, 12L), (9L, 12L), (11L, 15L), (13L, 16L), (16L, 20L)))
+    val logSegment = snapshotManager.getLogSegmentAtOrBeforeVersion(
+      createMockFSListFromEngine(deltaFileStatuses(0L to 20L) ++ checkpoints ++ compactions),
+      Optional.empty(),
+      Optional.of(18L),
+      Optional.empty()).get()
+
+    checkLogSegment(
+      logSegment,
+      expectedVersion = 18,
+      expectedDeltas = deltaFileStatuses(6L to 18L),
+      expectedCheckpoints = checkpoints,
+      expectedCheckpointVersion = Some(5),
+      expectedLastCommitTimestamp = 180)
+    // All the compactions starting at or before the version to load are listed
+    assert(logSegment.compactions.asScala.map(_.getPath).sorted ===
+      compactions.map(_.getPath).sorted)
+
+    // Going backwards from version 18, the widest compaction ending at each version is replayed
+    // instead of the deltas it aggregates. (3, 8) starts before the checkpoint, (16, 20) ends
+    // after the version to load, and (6, 10) and (11, 15) end at versions that are covered by
+    // other compactions.
+    val expectedReplayedFiles = deltaFileStatuses(Seq(18L, 17L)) ++
+      logCompactionFileStatuses(Seq((13L, 16L), (8L, 12L))) ++
+      deltaFileStatuses(Seq(7L, 6L)) ++
+      checkpoints
+    assert(logSegment.allLogFilesReversed().asScala.map(_.getPath) ===
+      expectedReplayedFiles.map(_.getPath))
+  }
+
+  test("LogSegment: no log compaction files") {
+    val logSegment = new LogSegment(
+      logPath,
+      3,
+      deltaFileStatuses(1L to 3L).asJava,
+      singularCheckpointFileStatuses(Seq(0L)).asJava,
+      Optional.of(0L),
+      30)
+    assert(logSegment.allLogFilesReversed().asScala.map(_.getPath) ===
+      (deltaFileStatuses(Seq(3L, 2L, 1L)) ++ singularCheckpointFileStatuses(Seq(0L)))
+        .map(_.getPath))
+  }
+
+  test("getLogSegmentAtOrBeforeVersion: last seen checksum") {
+    val checkpoints = singularCheckpointFileStatuses(Seq(5L))
+    val files = deltaFileStatuses(0L to 12L) ++ checkpoints ++
+      checksumFileStatuses(Seq(2L, 5L, 7L, 9L, 12L))
+    def lastSeenChecksum(
+        startCheckpoint: Optional[javaLang.Long],
+        versionToLoad: Optional[javaLang.Long]): Option[String] = {
+      val logSegment = snapshotManager.getLogSegmentAtOrBeforeVersion(
+        createMockFSListFromEngine(files),
+        startCheckpoint,
+        versionToLoad,
+        Optional.empty()).get()
+      Option(logSegment.lastSeenChecksum.orElse(null)).map(_.getPath)
+    }
+
+    assert(lastSeenChecksum(Optional.empty(), Optional.empty()) ===
+      checksumFileStatuses(Seq(12L)).headOption.map(_.getPath))
+    assert(lastSeenChecksum(Optional.of(5L), Optional.of(11L)) ===
+      checksumFileStatuses(Seq(9L)).headOption.map(_.getPath))
+    assert(lastSeenChecksum(Optional.empty(), Optional.of(5L)) ===
+      checksumFileStatuses(Seq(5L)).headOption.map(_.getPath))
+    // The checksums older than the checkpoint are not used
+    assert(lastSeenChecksum(Optional.empty(), Optional.of(6L)) ===
+      checksumFileStatuses(Seq(5L)).headOption.map(_.getPath))
+    assert(lastSeenChecksum(Optional.empty(), Optional.of(4L)) ===
+      checksumFileStatuses(Seq(2L)).headOption.map(_.getPath))
+  }
+
+  test("getLogSegmentAtOrBeforeVersion: no checksum after the checkpoint") {
+    val checkpoints = singularCheckpointFileStatuses(Seq(5L))
+    val logSegment = snapshotManager.getLogSegmentAtOrBeforeVersion(
+      createMockFSListFromEngine(
+        deltaFileStatuses(0L to 8L) ++ checkpoints ++ checksumFileStatuses(Seq(2L, 4L))),
+      Optional.empty(),
+      Optional.empty(),
+      Optional.empty()).get()
+    assert(!logSegment.lastSeenChecksum.isPresent)
+  }
+
   /* ------------------- V2 CHECKPOINT TESTS ------------------ */
   test("v2 checkpoint exists at version") {
     testWithCheckpoints(
@@ -18,11 +18,12 @@ package io.delta.kernel.internal.checkpoints
 import io.delta.kernel.data.{ColumnVector, ColumnarBatch}
 import io.delta.kernel.exceptions.KernelEngineException
 import io.delta.kernel.expressions.Predicate
-import io.delta.kernel.internal.checkpoints.Checkpointer.findLastCompleteCheckpointBeforeHelper
+import io.delta.kernel.internal.checkpoints.Checkpointer.{findLastCompleteCheckpointBefore, findLastCompleteCheckpointBeforeHelper, findLatestCompleteCheckpoint}
 import io.delta.kernel.internal.fs.Path
+import io.delta.kernel.internal.snapshot.SnapshotLoadMetrics
 import io.delta.kernel.internal.util.FileNames.checkpointFileSingular
 import io.delta.kernel.internal.util.Utils
-import io.delta.kernel.test.{BaseMockJsonHandler, MockFileSystemClientUtils, VectorTestUtils}
+import io.delta.kernel.test.{BaseMockJsonHandler, MockFileSystemClientUtils, MockListFromFileSystemClient, VectorTestUtils}
 import io.delta.kernel.types.StructType
 import io.delta.kernel.utils.{CloseableIterator, FileStatus}
 import org.scalatest.funsuite.AnyFunSuite
@@ -153,17 +154,21 @@ class CheckpointerSuite extends AnyFunSuite with MockFileSystemClientUtils {
     val files = deltaFileStatuses(Seq.range(0, 10000)) ++
       multiCheckpointFileStatuses(Seq.range(2500, 10000, 2500), 50)
 
-    Seq((0, 0), (889, 889), (1001, 1002), (2400, 2402)).foreach {
+    Seq((0, 0), (889, 889), (1001, 1002), (2400, 2401)).foreach {
       case (beforeVersion, expNumFilesListed) =>
         assertNoLastCheckpoint(files, beforeVersion, expNumFilesListed)
     }
 
     Seq(2600, 5002, 7980, 9999).foreach { beforeVersion =>
       val expCheckpointVersion = (beforeVersion / 2500) * 2500
-      // Listing size is 1000 delta versions (i.e list _delta_log/0001000* to _delta_log/0001999*)
-      // We list until the checkpoint is encounters in increments of 1000 versions at a time
-      val numListCalls = ((beforeVersion - expCheckpointVersion) / 1000) + 1
-      val versionsListed = 1000 * numListCalls
+      // First listing size is 1000 delta versions (i.e list _delta_log/0001000* to
+      // _delta_log/0001999*) and each following listing covers twice as many versions as the
+      // previous one. We list until the checkpoint is encountered.
+      var numListCalls = 1
+      while (1000 * ((1 << numListCalls) - 1) < beforeVersion - expCheckpointVersion) {
+        numListCalls += 1
+      }
+      val versionsListed = 1000 * ((1 << numListCalls) - 1)
       val expNumFilesListed =
         numListCalls - 1 /* last file scanned that fails the search and stops */ +
           versionsListed /* delta files */ +
@@ -190,6 +195,82 @@ class CheckpointerSuite extends AnyFunSuite with MockFileSystemClientUtils {
     }
   }
 
+  test("findLastCompleteCheckpointBefore - widens the listed range exponentially") {
+    // 100K delta files and a single checkpoint at version 10
+    val files = deltaFileStatuses(Seq.range(0, 100000)) ++ singularCheckpointFileStatuses(Seq(10))
+    val fsClient = new MockListFromFileSystemClient(listFromProvider(files))
+    val metrics = new SnapshotLoadMetrics()
+
+    val result = findLastCompleteCheckpointBefore(
+      mockEngine(fileSystemClient = fsClient), logPath, 100000, metrics)
+    assert(result.isPresent && result.get().version === 10)
+    // Listings start at 99000, 97000, 93000, 85000, 69000, 37000 and 0
+    assert(fsClient.getListFromCalls.size === 7)
+    assert(metrics.getNumListingCalls === 7)
+  }
+
+  test("findLatestCompleteCheckpoint") {
+    val files = deltaFileStatuses(Seq.range(0, 5000)) ++
+      singularCheckpointFileStatuses(Seq(100, 4500))
+
+    Seq(
+      // (known version, expected checkpoint version, expected number of listing calls)
+      (4999L, 4500L, 1),
+      (3000L, 4500L, 1), // checkpoints after the known version are found too
+      (1500L, 4500L, 1),
+      (999L, 4500L, 1)).foreach { case (knownVersion, expCheckpointVersion, expNumListings) =>
+      val fsClient = new MockListFromFileSystemClient(listFromProvider(files))
+      val metrics = new SnapshotLoadMetrics()
+      val result = findLatestCompleteCheckpoint(
+        mockEngine(fileSystemClient = fsClient), logPath, knownVersion, metrics)
+      assert(result.isPresent && result.get().version === expCheckpointVersion)
+      assert(fsClient.getListFromCalls.size === expNumListings)
+      assert(metrics.getNumListingCalls === expNumListings)
+    }
+
+    // No checkpoint in the versions listed from 1000 before the known version: search backwards
+    val filesWithOldCheckpoint = deltaFileStatuses(Seq.range(0, 5000)) ++
+      singularCheckpointFileStatuses(Seq(100))
+    val fsClient = new MockListFromFileSystemClient(listFromProvider(filesWithOldCheckpoint))
+    val metrics = new SnapshotLoadMetrics()
+    val result = findLatestCompleteCheckpoint(
+      mockEngine(fileSystemClient = fsClient), logPath, 4999, metrics)
+    assert(result.isPresent && result.get().version === 100)
+    // Listings start at 3999, 2999, 999 and 0
+    assert(fsClient.getListFromCalls.size === 4)
+    assert(metrics.getNumListingCalls === 4)
+    assert(metrics.getNumFilesListed > 0)
+  }
+
+  test("findLatestCompleteCheckpoint - no known version") {
+    // 100K delta files and a checkpoint at version 99500, no snapshot hint and no index
+    val files =
+      deltaFileStatuses(Seq.range(0, 100000)) ++ singularCheckpointFileStatuses(Seq(99500))
+    val fsClient = new MockListFromFileSystemClient(listFromProvider(files))
+    val metrics = new SnapshotLoadMetrics()
+    val result = findLatestCompleteCheckpoint(
+      mockEngine(fileSystemClient = fsClient), logPath, metrics)
+    assert(result.isPresent && result.get().version === 99500)
+    // 14 listings probing for a commit within 1000 versions of the latest (99000), each reading
+    // one file, then one listing from 98000 for the checkpoint
+    assert(fsClient.getListFromCalls.size === 15)
+    assert(metrics.getNumListingCalls === 15)
+    assert(metrics.getNumFilesListed < 3000)
+
+    // No commits
+    val emptyFsClient = new MockListFromFileSystemClient(listFromProvider(Seq.empty))
+    assert(!findLatestCompleteCheckpoint(
+      mockEngine(fileSystemClient = emptyFsClient), logPath, new SnapshotLoadMetrics()).isPresent)
+    assert(emptyFsClient.getListFromCalls.size === 1)
+
+    // No checkpoint: searched backwards from the probed version
+    val noCheckpointFsClient =
+      new MockListFromFileSystemClient(listFromProvider(deltaFileStatuses(Seq.range(0, 5000))))
+    assert(!findLatestCompleteCheckpoint(
+      mockEngine(fileSystemClient = noCheckpointFsClient), logPath, new SnapshotLoadMetrics())
+      .isPresent)
+  }
+
   /** Assert that the checkpoint metadata is same as [[SAMPLE_LAST_CHECKPOINT_FILE_CONTENT]] */
   def assertValidCheckpointMetadata(actual: Optional[CheckpointMetaData]): Unit = {
     assert(actual.isPresent)
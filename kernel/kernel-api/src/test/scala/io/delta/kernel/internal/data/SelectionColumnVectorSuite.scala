@@ -0,0 +1,59 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.data
+
+import io.delta.kernel.internal.deletionvectors.RoaringBitmapArray
+import io.delta.kernel.test.VectorTestUtils
+import org.scalatest.funsuite.AnyFunSuite
+
+class SelectionColumnVectorSuite extends AnyFunSuite with VectorTestUtils {
+
+  private val deleted = Seq(0L, 3L, 64L, 65L, 127L, 128L, 1000L, (1L << 32) + 1)
+  private val bitmap = RoaringBitmapArray.create(deleted: _*)
+
+  Seq(
+    "consecutive row indexes" -> (0L until 200L),
+    "consecutive row indexes from an offset" -> (60L until 130L),
+    "row indexes across the 32-bit boundary" -> ((1L << 32) - 10 until (1L << 32) + 10),
+    "increasing row indexes with gaps" -> ((0L until 70L) ++ (120L until 140L) ++ Seq(1000L)),
+    "unordered row indexes" -> Seq(65L, 1L, 1000L, 0L, 2L, 3L),
+    "single row" -> Seq(128L)
+  ).foreach { case (name, rowIndexes) =>
+    test(s"selection vector of a deletion vector - $name") {
+      val selectionVector =
+        SelectionColumnVector.forDeletionVector(bitmap, longVector(rowIndexes: _*))
+      assert(selectionVector.isPresent)
+      val vector = selectionVector.get
+      assert(vector.getSize === rowIndexes.size)
+      rowIndexes.zipWithIndex.foreach { case (rowIndex, rowId) =>
+        assert(!vector.isNullAt(rowId))
+        assert(vector.getBoolean(rowId) === !deleted.contains(rowIndex), s"row index $rowIndex")
+      }
+    }
+  }
+
+  test("no selection vector when no rows of the batch are deleted") {
+    Seq(
+      Seq.empty[Long],
+      (4L until 64L),
+      (129L until 1000L),
+      Seq(1L, 2L, 999L, 1001L),
+      Seq(2L, 1L)
+    ).foreach { rowIndexes =>
+      assert(!SelectionColumnVector.forDeletionVector(bitmap, longVector(rowIndexes: _*)).isPresent)
+    }
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.internal.replay
+
+import io.delta.kernel.data.ColumnVector
+import io.delta.kernel.internal.actions.DeletionVectorDescriptor
+import io.delta.kernel.test.VectorTestUtils
+import io.delta.kernel.types._
+import org.scalatest.funsuite.AnyFunSuite
+
+import java.net.URI
+import scala.collection.mutable.ArrayBuffer
+
+class FileActionKeyMapSuite extends AnyFunSuite with VectorTestUtils {
+
+  /** (storage type, path or inline DV, offset) of a deletion vector */
+  private type DV = (String, String, Option[Int])
+
+  test("add, contains, get and put") {
+    val map = new FileActionKeyMap()
+    val (paths, dvs) = vectors(
+      ("a/file1", None),
+      ("a/file2", None),
+      ("a/file1", Some(("u", "ab^-aqEH.-t@S}K{vb[*k^", Some(4)))),
+      ("a/file1", Some(("u", "ab^-aqEH.-t@S}K{vb[*k^", None))),
+      ("a/file1", Some(("i", "wi5b=000010000siXQKl0rr91000f55c8Xg0@@D72lkbi5=-{L", None))),
+      ("a/file1", None))
+
+    assert(add(map, paths, dvs, 0))
+    assert(contains(map, paths, dvs, 0))
+    (1 until 5).foreach { rowId =>
+      assert(!contains(map, paths, dvs, rowId))
+      assert(get(map, paths, dvs, rowId) === FileActionKeyMap.NOT_FOUND)
+      assert(add(map, paths, dvs, rowId))
+    }
+    assert(!add(map, paths, dvs, 5)) // same key as the first row
+    assert(map.size() === 5)
+
+    put(map, paths, dvs, 2, 42L)
+    put(map, paths, dvs, 4, -7L)
+    assert(get(map, paths, dvs, 0) === 0L)
+    assert(get(map, paths, dvs, 2) === 42L)
+    assert(get(map, paths, dvs, 4) === -7L)
+    assert(map.size() === 5)
+
+    intercept[IllegalArgumentException] {
+      put(map, paths, dvs, 0, FileActionKeyMap.NOT_FOUND)
+    }
+  }
+
+  test("paths are compared as URIs") {
+    val paths = Seq(
+      "s3://bucket/table/part=a%2Fb/file",
+      "S3://BUCKET/table/part=a%2fb/file",
+      "s3://bucket/table/part=a/b/file",
+      "s3://user@bucket:80/file",
+      "s3://user@BUCKET:80/file",
+      "s3://USER@bucket:80/file",
+      "file:/table/with%20space/p@%23h",
+      "file:///table/with%20space/p@%23h",
+      "file:/table/with%20space/p@%23H",
+      "////file",
+      "//file",
+      "s3://?a",
+      "s3:?a",
+      "/table/\u00e9t\u00e9/file",
+      "/table/\u4e2d\u6587/file",
+      "/table/\u4e2d\u6587/file#fragment%2a",
+      "/table/\u4e2d\u6587/file#fragment%2A",
+      "part-00000-0869ab64-e69d-407f-80d4-1a2ea1f69d11-c000.snappy.parquet")
+    val (pathVector, dvVector) = vectors(paths.map(path => (path, None)): _*)
+    val map = new FileActionKeyMap()
+    paths.indices.foreach { rowId =>
+      val isNew = !paths.take(rowId).exists(path => new URI(path) == new URI(paths(rowId)))
+      assert(add(map, pathVector, dvVector, rowId) === isNew, paths(rowId))
+    }
+    assert(map.size() === paths.map(new URI(_)).distinct.size)
+  }
+
+  test("invalid paths") {
+    val (paths, dvs) = vectors(("a b", None))
+    intercept[RuntimeException] {
+      add(new FileActionKeyMap(), paths, dvs, 0)
+    }
+  }
+
+  test("removeAll") {
+    val numFiles = 1000
+    val (paths, dvs) = vectors((0 until numFiles).map { i =>
+      (s"part=${i % 10}/file$i", if (i % 3 == 0) Some(("u", s"dv$i", Some(i))) else None)
+    }: _*)
+    val map = new FileActionKeyMap()
+    (0 until numFiles).foreach(rowId => put(map, paths, dvs, rowId, 10L * rowId))
+
+    val keys = new FileActionKeyMap()
+    (0 until numFiles by 2).foreach(rowId => add(keys, paths, dvs, rowId))
+    // a key that is not in the map
+    val (otherPaths, otherDvs) = vectors(("part=0/file0", Some(("u", "dv1", None))))
+    add(keys, otherPaths, otherDvs, 0)
+
+    val removedValues = ArrayBuffer[Long]()
+    map.removeAll(keys, value => removedValues += value)
+    assert(removedValues.sorted === (0 until numFiles by 2).map(10L * _))
+    assert(map.size() === numFiles / 2)
+    (0 until numFiles).foreach { rowId =>
+      assert(contains(map, paths, dvs, rowId) === (rowId % 2 == 1))
+    }
+
+    // removing again doesn't remove anything
+    map.removeAll(keys, _ => fail("already removed"))
+
+    // the removed keys can be added back
+    assert(add(map, paths, dvs, 0))
+    put(map, paths, dvs, 2, 5L)
+    assert(get(map, paths, dvs, 0) === 0L)
+    assert(get(map, paths, dvs, 2) === 5L)
+    assert(map.size() === numFiles / 2 + 2)
+  }
+
+  test("many keys") {
+    val numFiles = 100000
+    val (paths, dvs) = vectors((0 until numFiles).map { i =>
+      // long keys, to use several pages
+      (s"part=${i % 100}/part-${"%05d".format(i)}-${"x" * 64}-c000.snappy.parquet", None)
+    }: _*)
+    val map = new FileActionKeyMap()
+    (0 until numFiles).foreach(rowId => put(map, paths, dvs, rowId, rowId.toLong))
+    assert(map.size() === numFiles)
+    (0 until numFiles).foreach(rowId => assert(get(map, paths, dvs, rowId) === rowId.toLong))
+    assert(map.getSizeInBytes > 0)
+  }
+
+  private def add(
+      map: FileActionKeyMap, paths: ColumnVector, dvs: ColumnVector, rowId: Int): Boolean = {
+    map.add(key(paths, dvs, rowId))
+  }
+
+  private def contains(
+      map: FileActionKeyMap, paths: ColumnVector, dvs: ColumnVector, rowId: Int): Boolean = {
+    map.contains(key(paths, dvs, rowId))
+  }
+
+  private def get(
+      map: FileActionKeyMap, paths: ColumnVector, dvs: ColumnVector, rowId: Int): Long = {
+    map.get(key(paths, dvs, rowId))
+  }
+
+  private def put(
+      map: FileActionKeyMap,
+      paths: ColumnVector,
+      dvs: ColumnVector,
+      rowId: Int,
+      value: Long): Unit = {
+    map.put(key(paths, dvs, rowId), value)
+  }
+
+  private def key(paths: ColumnVector, dvs: ColumnVector, rowId: Int): FileActionKeyMap.Key = {
+    val key = new FileActionKeyMap.Key()
+    key.read(paths, dvs, rowId)
+    key
+  }
+
+  /** Returns the path vector and the deletion vector vector of the given file actions */
+  private def vectors(actions: (String, Option[DV])*): (ColumnVector, ColumnVector) = {
+    val dvs = actions.map(_._2)
+    val dvVector = new ColumnVector {
+      override def getDataType: DataType = DeletionVectorDescriptor.READ_SCHEMA
+
+      override def getSize: Int = dvs.length
+
+      override def close(): Unit = {}
+
+      override def isNullAt(rowId: Int): Boolean = dvs(rowId).isEmpty
+
+      override def getChild(ordinal: Int): ColumnVector = ordinal match {
+        case 0 => stringVector(dvs.map(_.map(_._1).orNull))
+        case 1 => stringVector(dvs.map(_.map(_._2).orNull))
+        case 2 => intVector(dvs.map(_.flatMap(_._3)))
+        case 3 => intVector(dvs.map(_.map(_ => 10)))
+        case 4 => new ColumnVector {
+          override def getDataType: DataType = LongType.LONG
+
+          override def getSize: Int = dvs.length
+
+          override def close(): Unit = {}
+
+          override def isNullAt(rowId: Int): Boolean = dvs(rowId).isEmpty
+
+          override def getLong(rowId: Int): Long = 1L
+        }
+      }
+    }
+    (stringVector(actions.map(_._1)), dvVector)
+  }
+
+  private def intVector(values: Seq[Option[Int]]): ColumnVector = new ColumnVector {
+    override def getDataType: DataType = IntegerType.INTEGER
+
+    override def getSize: Int = values.length
+
+    override def close(): Unit = {}
+
+    override def isNullAt(rowId: Int): Boolean = values(rowId).isEmpty
+
+    override def getInt(rowId: Int): Int = values(rowId).get
+  }
+}
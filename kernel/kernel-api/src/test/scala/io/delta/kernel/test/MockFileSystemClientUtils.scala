@@ -60,6 +60,18 @@ trait MockFileSystemClientUtils extends MockEngineUtils {
     )
   }
 
+  /** Log compaction file statuses for the given (start, end) versions; timestamp = 10*end */
+  def logCompactionFileStatuses(versionRanges: Seq[(Long, Long)]): Seq[FileStatus] = {
+    versionRanges.map { case (start, end) =>
+      FileStatus.of(FileNames.logCompactionFile(logPath, start, end).toString, end, end*10)
+    }
+  }
+
+  /** Checksum file statuses where the timestamp = 10*version */
+  def checksumFileStatuses(versions: Seq[Long]): Seq[FileStatus] = {
+    versions.map(v => FileStatus.of(FileNames.checksumFile(logPath, v).toString, v, v*10))
+  }
+
   /**
    * Checkpoint file status for a top-level V2 checkpoint file.
    *
@@ -15,36 +15,76 @@
  */
 package io.delta.kernel.defaults.engine;
 
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
 import io.delta.kernel.engine.*;
 import java.util.Map;
+import java.util.Optional;
 import org.apache.hadoop.conf.Configuration;
 
-/** Default implementation of {@link Engine} based on Hadoop APIs. */
+/**
+ * Default implementation of {@link Engine} based on Hadoop APIs.
+ *
+ * <p>The {@link ScanFilesCache} is disabled by default. It is enabled by setting the maximum
+ * estimated memory size of the cached scan files, in bytes, in the Hadoop configuration key {@code
+ * delta.kernel.default.scan-files.cache.max-size-bytes}. The cache is shared by all the tables read
+ * with the same engine.
+ *
+ * <p>The decoded bitmaps of up to 64 MB of deletion vectors are cached for the scans with the
+ * engine. The maximum size of the cached deletion vectors, in bytes, is set with the Hadoop
+ * configuration key {@code delta.kernel.default.deletion-vectors.cache.max-size-bytes}, {@code 0}
+ * to not cache them.
+ */
 public class DefaultEngine implements Engine {
   private final Configuration hadoopConf;
+  // Shared by all callers, so that the threads and the memory used for reading files
+  // concurrently (if enabled) are bounded per engine
+  private final DefaultJsonHandler jsonHandler;
+  private final DefaultParquetHandler parquetHandler;
+  private final DefaultFileSystemClient fileSystemClient;
+  // Shared by all callers, so that the compiled expression evaluators (if enabled) are cached
+  private final DefaultExpressionHandler expressionHandler;
+  private final Optional<DefaultScanFilesCache> scanFilesCache;
+  private final long deletionVectorCacheSize;
 
   protected DefaultEngine(Configuration hadoopConf) {
     this.hadoopConf = hadoopConf;
+    this.jsonHandler = new DefaultJsonHandler(hadoopConf);
+    this.parquetHandler = new DefaultParquetHandler(hadoopConf);
+    this.fileSystemClient = new DefaultFileSystemClient(hadoopConf);
+    this.expressionHandler = new DefaultExpressionHandler(hadoopConf);
+    long scanFilesCacheMaxSize =
+        hadoopConf.getLong("delta.kernel.default.scan-files.cache.max-size-bytes", 0);
+    this.scanFilesCache =
+        scanFilesCacheMaxSize > 0
+            ? Optional.of(new DefaultScanFilesCache(scanFilesCacheMaxSize))
+            : Optional.empty();
+    this.deletionVectorCacheSize =
+        hadoopConf.getLong(
+            "delta.kernel.default.deletion-vectors.cache.max-size-bytes", 64L * 1024 * 1024);
+    checkArgument(
+        deletionVectorCacheSize >= 0,
+        "invalid deletion vector cache size: " + deletionVectorCacheSize);
   }
 
   @Override
   public ExpressionHandler getExpressionHandler() {
-    return new DefaultExpressionHandler();
+    return expressionHandler;
   }
 
   @Override
   public JsonHandler getJsonHandler() {
-    return new DefaultJsonHandler(hadoopConf);
+    return jsonHandler;
   }
 
   @Override
   public FileSystemClient getFileSystemClient() {
-    return new DefaultFileSystemClient(hadoopConf);
+    return fileSystemClient;
   }
 
   @Override
   public ParquetHandler getParquetHandler() {
-    return new DefaultParquetHandler(hadoopConf);
+    return parquetHandler;
   }
 
   @Override
@@ -53,6 +93,16 @@ public class DefaultEngine implements Engine {
     return new DefaultCommitCoordinatorClientHandler(hadoopConf, name, conf);
   }
 
+  @Override
+  public Optional<ScanFilesCache> getScanFilesCache() {
+    return scanFilesCache.map(cache -> cache);
+  }
+
+  @Override
+  public long getDeletionVectorCacheSizeInBytes() {
+    return deletionVectorCacheSize;
+  }
+
   /**
    * Create an instance of {@link DefaultEngine}.
    *
@@ -21,29 +21,86 @@ import static java.util.Objects.requireNonNull;
 
 import io.delta.kernel.data.ColumnVector;
 import io.delta.kernel.defaults.internal.data.vector.DefaultBooleanVector;
+import io.delta.kernel.defaults.internal.expressions.CompiledExpressionEvaluator;
 import io.delta.kernel.defaults.internal.expressions.DefaultExpressionEvaluator;
 import io.delta.kernel.defaults.internal.expressions.DefaultPredicateEvaluator;
 import io.delta.kernel.engine.ExpressionHandler;
-import io.delta.kernel.expressions.Expression;
-import io.delta.kernel.expressions.ExpressionEvaluator;
-import io.delta.kernel.expressions.Predicate;
-import io.delta.kernel.expressions.PredicateEvaluator;
+import io.delta.kernel.expressions.*;
 import io.delta.kernel.types.DataType;
 import io.delta.kernel.types.StructType;
-import java.util.Arrays;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.apache.hadoop.conf.Configuration;
 
-/** Default implementation of {@link ExpressionHandler} */
+/**
+ * Default implementation of {@link ExpressionHandler}
+ *
+ * <p>The following Hadoop configuration options are supported:
+ *
+ * <ul>
+ *   <li>{@code delta.kernel.default.expression.evaluator.compiled}: whether to compile the
+ *       expressions into evaluators specialized for the types of the operands (see {@link
+ *       CompiledExpressionEvaluator}) instead of interpreting the expression tree for every batch.
+ *       Default is false.
+ *   <li>{@code delta.kernel.default.expression.evaluator.compiled.cache-size}: maximum number of
+ *       compiled evaluators cached by (input schema, expression, output type), so that the same
+ *       expression is not compiled again, e.g. for each scan of a table. Default is 256.
+ * </ul>
+ */
 public class DefaultExpressionHandler implements ExpressionHandler {
+  private final boolean compiled;
+  private final int cacheSize;
+
+  /** Compiled evaluators, in least recently used first order. */
+  private final LinkedHashMap<EvaluatorKey, CompiledExpressionEvaluator> compiledEvaluators =
+      new LinkedHashMap<>(16, 0.75f, true /* accessOrder */);
+
+  /** Create a handler that interprets the expressions. */
+  public DefaultExpressionHandler() {
+    this(new Configuration());
+  }
+
+  public DefaultExpressionHandler(Configuration hadoopConf) {
+    this.compiled =
+        hadoopConf.getBoolean("delta.kernel.default.expression.evaluator.compiled", false);
+    this.cacheSize =
+        hadoopConf.getInt("delta.kernel.default.expression.evaluator.compiled.cache-size", 256);
+    checkArgument(cacheSize >= 0, "invalid compiled evaluator cache size: " + cacheSize);
+  }
 
   @Override
   public ExpressionEvaluator getEvaluator(
       StructType inputSchema, Expression expression, DataType outputType) {
-    return new DefaultExpressionEvaluator(inputSchema, expression, outputType);
+    if (!compiled) {
+      return new DefaultExpressionEvaluator(inputSchema, expression, outputType);
+    }
+    EvaluatorKey key = new EvaluatorKey(inputSchema, expression, outputType);
+    synchronized (compiledEvaluators) {
+      CompiledExpressionEvaluator evaluator = compiledEvaluators.get(key);
+      if (evaluator != null) {
+        return evaluator;
+      }
+    }
+    // Compile outside of the lock, the evaluators have no state so compiling the same expression
+    // concurrently is harmless
+    CompiledExpressionEvaluator evaluator =
+        new CompiledExpressionEvaluator(inputSchema, expression, outputType);
+    synchronized (compiledEvaluators) {
+      compiledEvaluators.put(key, evaluator);
+      if (compiledEvaluators.size() > cacheSize) {
+        Iterator<EvaluatorKey> leastRecentlyUsed = compiledEvaluators.keySet().iterator();
+        leastRecentlyUsed.next();
+        leastRecentlyUsed.remove();
+      }
+    }
+    return evaluator;
   }
 
   @Override
   public PredicateEvaluator getPredicateEvaluator(StructType inputSchema, Predicate predicate) {
+    if (compiled) {
+      return new DefaultPredicateEvaluator(inputSchema, predicate, this);
+    }
     return new DefaultPredicateEvaluator(inputSchema, predicate);
   }
 
@@ -59,4 +116,63 @@ public class DefaultExpressionHandler implements ExpressionHandler {
     boolean[] valuesCopy = Arrays.copyOfRange(values, from, to);
     return new DefaultBooleanVector(length, Optional.empty(), valuesCopy);
   }
+
+  /**
+   * Key of a compiled evaluator. The expressions don't implement {@code equals}, so they are
+   * compared by a string that includes the types of the literals.
+   */
+  private static class EvaluatorKey {
+    private final StructType inputSchema;
+    private final String expression;
+    private final DataType outputType;
+
+    EvaluatorKey(StructType inputSchema, Expression expression, DataType outputType) {
+      this.inputSchema = inputSchema;
+      this.expression = toKeyString(expression);
+      this.outputType = outputType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof EvaluatorKey)) {
+        return false;
+      }
+      EvaluatorKey other = (EvaluatorKey) o;
+      return expression.equals(other.expression)
+          && inputSchema.equals(other.inputSchema)
+          && outputType.equals(other.outputType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(inputSchema, expression, outputType);
+    }
+
+    private static String toKeyString(Expression expression) {
+      if (expression instanceof Literal) {
+        Literal literal = (Literal) expression;
+        Object value = literal.getValue();
+        return String.format(
+            "%s(%s)",
+            literal.getDataType(),
+            value instanceof byte[] ? Arrays.toString((byte[]) value) : value);
+      } else if (expression instanceof Column) {
+        return expression.toString();
+      }
+      String name;
+      if (expression instanceof PartitionValueExpression) {
+        name = "partition_value:" + ((PartitionValueExpression) expression).getDataType();
+      } else if (expression instanceof ScalarExpression) {
+        name = ((ScalarExpression) expression).getName();
+      } else {
+        name = expression.getClass().getName();
+      }
+      return expression.getChildren().stream()
+          .map(EvaluatorKey::toKeyString)
+          .collect(Collectors.joining(", ", name + "(", ")"));
+    }
+  }
 }
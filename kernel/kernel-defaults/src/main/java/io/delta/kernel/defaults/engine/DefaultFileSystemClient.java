@@ -15,15 +15,26 @@
  */
 package io.delta.kernel.defaults.engine;
 
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.defaults.internal.DefaultKernelUtils;
 import io.delta.kernel.defaults.internal.logstore.LogStoreProvider;
 import io.delta.kernel.engine.FileReadRequest;
 import io.delta.kernel.engine.FileSystemClient;
+import io.delta.kernel.exceptions.KernelEngineException;
 import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.utils.CloseableIterator;
 import io.delta.kernel.utils.FileStatus;
 import io.delta.storage.LogStore;
 import java.io.*;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 
@@ -46,6 +57,10 @@ import org.apache.hadoop.fs.Path;
  *       If not set, the default LogStore implementation for the scheme will be used.
  *   <li>{@code delta.enableFastS3AListFrom} - Set to {@code true} to enable fast listing
  *       functionality when using a {@link LogStore} created for S3 storage objects.
+ *   <li>{@code delta.kernel.default.fs.read-files.parallelism} - Number of threads issuing the
+ *       reads of a {@link #readFiles} call concurrently, which is also the maximum number of ranges
+ *       a call reads ahead of its consumer. {@code 0} reads the ranges one after another on the
+ *       consumer thread. Default is 4.
  * </ul>
  *
  * The above list of options is not exhaustive. For a complete list of options, refer to the
@@ -53,6 +68,10 @@ import org.apache.hadoop.fs.Path;
  */
 public class DefaultFileSystemClient implements FileSystemClient {
   private final Configuration hadoopConf;
+  private final int readParallelism;
+
+  /** Created on first use, so that no threads are started if nothing is read concurrently. */
+  private volatile ExecutorService executor;
 
   /**
    * Create an instance of the default {@link FileSystemClient} implementation.
@@ -62,6 +81,8 @@ public class DefaultFileSystemClient implements FileSystemClient {
    */
   public DefaultFileSystemClient(Configuration hadoopConf) {
     this.hadoopConf = hadoopConf;
+    this.readParallelism = hadoopConf.getInt("delta.kernel.default.fs.read-files.parallelism", 4);
+    checkArgument(readParallelism >= 0, "invalid read files parallelism: " + readParallelism);
   }
 
   @Override
@@ -88,8 +109,54 @@ public class DefaultFileSystemClient implements FileSystemClient {
   @Override
   public CloseableIterator<ByteArrayInputStream> readFiles(
       CloseableIterator<FileReadRequest> readRequests) {
-    return readRequests.map(
-        elem -> getStream(elem.getPath(), elem.getStartOffset(), elem.getReadLength()));
+    if (readParallelism == 0) {
+      return readRequests.map(
+          elem -> getStream(elem.getPath(), elem.getStartOffset(), elem.getReadLength()));
+    }
+    return new CloseableIterator<ByteArrayInputStream>() {
+      /** Reads issued to the pool, in the order of the requests. */
+      private final LinkedList<CompletableFuture<ByteArrayInputStream>> pendingReads =
+          new LinkedList<>();
+
+      @Override
+      public boolean hasNext() {
+        issueReads();
+        return !pendingReads.isEmpty();
+      }
+
+      @Override
+      public ByteArrayInputStream next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        CompletableFuture<ByteArrayInputStream> read = pendingReads.pop();
+        // keep the pool busy while the consumer processes this range
+        issueReads();
+        return awaitRead(read);
+      }
+
+      @Override
+      public void close() throws IOException {
+        try {
+          pendingReads.forEach(read -> read.cancel(false));
+          pendingReads.clear();
+        } finally {
+          readRequests.close();
+        }
+      }
+
+      private void issueReads() {
+        while (pendingReads.size() < readParallelism && readRequests.hasNext()) {
+          FileReadRequest request = readRequests.next();
+          pendingReads.add(
+              CompletableFuture.supplyAsync(
+                  () ->
+                      getStream(
+                          request.getPath(), request.getStartOffset(), request.getReadLength()),
+                  getOrCreateExecutor()));
+        }
+      }
+    };
   }
 
   @Override
@@ -103,10 +170,10 @@ public class DefaultFileSystemClient implements FileSystemClient {
     Path path = new Path(filePath);
     try {
       FileSystem fs = path.getFileSystem(hadoopConf);
-      try (DataInputStream stream = fs.open(path)) {
-        stream.skipBytes(offset);
+      try (FSDataInputStream stream = fs.open(path)) {
         byte[] buff = new byte[size];
-        stream.readFully(buff);
+        // positioned read, unlike skipBytes it fails if the file ends before the range
+        stream.readFully(offset, buff);
         return new ByteArrayInputStream(buff);
       } catch (IOException ex) {
         throw new RuntimeException(
@@ -119,4 +186,36 @@ public class DefaultFileSystemClient implements FileSystemClient {
           String.format("Could not resolve the FileSystem for path %s", filePath), ex);
     }
   }
+
+  private static ByteArrayInputStream awaitRead(CompletableFuture<ByteArrayInputStream> read) {
+    try {
+      return read.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new KernelEngineException("Interrupted while reading a file", ex);
+    } catch (ExecutionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new KernelEngineException("Error reading a file", cause);
+    } catch (CancellationException ex) {
+      throw new IllegalStateException("Read of a closed file iterator", ex);
+    }
+  }
+
+  private ExecutorService getOrCreateExecutor() {
+    if (executor == null) {
+      synchronized (this) {
+        if (executor == null) {
+          executor =
+              DefaultKernelUtils.newDaemonThreadPool("delta-kernel-read-files", readParallelism);
+        }
+      }
+    }
+    return executor;
+  }
 }
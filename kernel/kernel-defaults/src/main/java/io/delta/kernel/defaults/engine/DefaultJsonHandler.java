@@ -18,12 +18,10 @@ package io.delta.kernel.defaults.engine;
 import static io.delta.kernel.internal.util.Preconditions.checkArgument;
 import static java.lang.String.format;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.*;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonParser;
 import io.delta.kernel.data.*;
-import io.delta.kernel.defaults.internal.data.DefaultJsonRow;
-import io.delta.kernel.defaults.internal.data.DefaultRowBasedColumnarBatch;
+import io.delta.kernel.defaults.internal.json.JsonBatchReader;
+import io.delta.kernel.defaults.internal.json.JsonFilePrefetcher;
 import io.delta.kernel.defaults.internal.json.JsonUtils;
 import io.delta.kernel.defaults.internal.logstore.LogStoreProvider;
 import io.delta.kernel.engine.JsonHandler;
@@ -35,25 +33,50 @@ import io.delta.kernel.utils.CloseableIterator;
 import io.delta.kernel.utils.FileStatus;
 import io.delta.storage.LogStore;
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
 
-/** Default implementation of {@link JsonHandler} based on Hadoop APIs. */
+/**
+ * Default implementation of {@link JsonHandler} based on Hadoop APIs.
+ *
+ * <p>The following Hadoop configuration options are supported:
+ *
+ * <ul>
+ *   <li>{@code delta.kernel.default.json.reader.batch-size}: maximum number of rows in a batch
+ *       returned by {@link #readJsonFiles}. Default is 1024.
+ *   <li>{@code delta.kernel.default.json.reader.prefetch.parallelism}: number of threads used to
+ *       read files ahead of the consumer of {@link #readJsonFiles}. Kernel issues the reads of as
+ *       many commit files ahead of time during log replay, so this hides the latency of opening
+ *       each commit file on object stores. Default is 0, which disables prefetching.
+ *   <li>{@code delta.kernel.default.json.reader.prefetch.max-buffered-bytes}: maximum total size of
+ *       the files that are prefetched and not yet consumed. Files that don't fit are read on the
+ *       consumer thread. Default is 64MB.
+ * </ul>
+ */
 public class DefaultJsonHandler implements JsonHandler {
-  private static final ObjectMapper mapper = new ObjectMapper();
-  // by default BigDecimals are truncated and read as floats
-  private static final ObjectReader objectReaderReadBigDecimals =
-      new ObjectMapper().reader(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
-
   private final Configuration hadoopConf;
   private final int maxBatchSize;
+  private final int prefetchParallelism;
+  /** Reads files ahead of the consumer. Null when prefetching is disabled. */
+  private final JsonFilePrefetcher prefetcher;
 
   public DefaultJsonHandler(Configuration hadoopConf) {
     this.hadoopConf = hadoopConf;
     this.maxBatchSize = hadoopConf.getInt("delta.kernel.default.json.reader.batch-size", 1024);
     checkArgument(maxBatchSize > 0, "invalid JSON reader batch size: " + maxBatchSize);
+    this.prefetchParallelism =
+        hadoopConf.getInt("delta.kernel.default.json.reader.prefetch.parallelism", 0);
+    checkArgument(
+        prefetchParallelism >= 0, "invalid JSON prefetch parallelism: " + prefetchParallelism);
+    this.prefetcher =
+        prefetchParallelism == 0
+            ? null
+            : new JsonFilePrefetcher(
+                prefetchParallelism,
+                hadoopConf.getLong(
+                    "delta.kernel.default.json.reader.prefetch.max-buffered-bytes",
+                    64L * 1024 * 1024));
   }
 
   @Override
@@ -61,18 +84,31 @@ public class DefaultJsonHandler implements JsonHandler {
       ColumnVector jsonStringVector,
       StructType outputSchema,
       Optional<ColumnVector> selectionVector) {
-    List<Row> rows = new ArrayList<>();
+    JsonBatchReader batchReader =
+        new JsonBatchReader(outputSchema, Math.max(1, jsonStringVector.getSize()));
     for (int i = 0; i < jsonStringVector.getSize(); i++) {
       boolean isSelected =
           !selectionVector.isPresent()
               || (!selectionVector.get().isNullAt(i) && selectionVector.get().getBoolean(i));
       if (isSelected && !jsonStringVector.isNullAt(i)) {
-        rows.add(parseJson(jsonStringVector.getString(i), outputSchema));
+        String json = jsonStringVector.getString(i);
+        try (JsonParser parser = JsonBatchReader.createParser(json)) {
+          if (!batchReader.readRow(parser)) {
+            batchReader.appendNullRow();
+          }
+        } catch (IOException ex) {
+          throw new KernelEngineException(format("Could not parse JSON: %s", json), ex);
+        }
       } else {
-        rows.add(null);
+        batchReader.appendNullRow();
       }
     }
-    return new DefaultRowBasedColumnarBatch(outputSchema, rows);
+    return batchReader.buildBatch();
+  }
+
+  @Override
+  public int getReadAheadFileCount() {
+    return prefetchParallelism;
   }
 
   @Override
@@ -81,34 +117,42 @@ public class DefaultJsonHandler implements JsonHandler {
       StructType physicalSchema,
       Optional<Predicate> predicate)
       throws IOException {
+    if (prefetcher != null) {
+      return prefetcher.readFiles(
+          scanFileIter,
+          file ->
+              readJsonFilesSequentially(Utils.singletonCloseableIterator(file), physicalSchema));
+    }
+    return readJsonFilesSequentially(scanFileIter, physicalSchema);
+  }
+
+  private CloseableIterator<ColumnarBatch> readJsonFilesSequentially(
+      CloseableIterator<FileStatus> scanFileIter, StructType physicalSchema) {
     return new CloseableIterator<ColumnarBatch>() {
+      private final JsonBatchReader batchReader = new JsonBatchReader(physicalSchema, maxBatchSize);
       private FileStatus currentFile;
-      private BufferedReader currentFileReader;
-      private String nextLine;
+      private JsonParser currentFileParser;
 
       @Override
       public void close() throws IOException {
-        Utils.closeCloseables(currentFileReader, scanFileIter);
+        Utils.closeCloseables(currentFileParser, scanFileIter);
       }
 
       @Override
       public boolean hasNext() {
-        if (nextLine != null) {
-          return true; // we have un-consumed last read line
-        }
-
-        // There is no file in reading or the current file being read has no more data
-        // initialize the next file reader or return false if there are no more files to
-        // read.
+        // Fill the next batch (which may span multiple files) unless there are un-consumed rows
+        // from the last call.
         try {
-          if (currentFileReader == null || (nextLine = currentFileReader.readLine()) == null) {
-            // `nextLine` will initially be null because `currentFileReader` is guaranteed
-            // to be null
-            if (tryOpenNextFile()) {
-              return hasNext();
+          while (batchReader.getCurrentBatchSize() < maxBatchSize) {
+            if (currentFileParser == null || !batchReader.readRow(currentFileParser)) {
+              // There is no file in reading or the current file being read has no more data.
+              // Initialize the next file parser or stop if there are no more files to read.
+              if (!tryOpenNextFile()) {
+                break;
+              }
             }
           }
-          return nextLine != null;
+          return batchReader.getCurrentBatchSize() > 0;
         } catch (IOException ex) {
           throw new KernelEngineException(
               format("Error reading JSON file: %s", currentFile.getPath()), ex);
@@ -117,25 +161,15 @@ public class DefaultJsonHandler implements JsonHandler {
 
       @Override
       public ColumnarBatch next() {
-        if (nextLine == null) {
+        if (!hasNext()) {
           throw new NoSuchElementException();
         }
-
-        List<Row> rows = new ArrayList<>();
-        int currentBatchSize = 0;
-        do {
-          // hasNext already reads the next one and keeps it in member variable `nextLine`
-          rows.add(parseJson(nextLine, physicalSchema));
-          nextLine = null;
-          currentBatchSize++;
-        } while (currentBatchSize < maxBatchSize && hasNext());
-
-        return new DefaultRowBasedColumnarBatch(physicalSchema, rows);
+        return batchReader.buildBatch();
       }
 
       private boolean tryOpenNextFile() throws IOException {
-        Utils.closeCloseables(currentFileReader); // close the current opened file
-        currentFileReader = null;
+        Utils.closeCloseables(currentFileParser); // close the current opened file
+        currentFileParser = null;
 
         if (scanFileIter.hasNext()) {
           currentFile = scanFileIter.next();
@@ -144,14 +178,14 @@ public class DefaultJsonHandler implements JsonHandler {
           FSDataInputStream stream = null;
           try {
             stream = fs.open(filePath);
-            currentFileReader =
-                new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+            // The parser owns the stream from here on and closes it when it is closed
+            currentFileParser = JsonBatchReader.createParser(stream);
           } catch (Exception e) {
             Utils.closeCloseablesSilently(stream); // close it avoid leaking resources
             throw e;
           }
         }
-        return currentFileReader != null;
+        return currentFileParser != null;
       }
     };
   }
@@ -189,13 +223,4 @@ public class DefaultJsonHandler implements JsonHandler {
       Utils.closeCloseables(data);
     }
   }
-
-  private Row parseJson(String json, StructType readSchema) {
-    try {
-      final JsonNode jsonNode = objectReaderReadBigDecimals.readTree(json);
-      return new DefaultJsonRow((ObjectNode) jsonNode, readSchema);
-    } catch (JsonProcessingException ex) {
-      throw new KernelEngineException(format("Could not parse JSON: %s", json), ex);
-    }
-  }
 }
@@ -15,18 +15,25 @@
  */
 package io.delta.kernel.defaults.engine;
 
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
 import static io.delta.kernel.internal.util.Preconditions.checkState;
 import static java.lang.String.format;
 
 import io.delta.kernel.data.ColumnarBatch;
 import io.delta.kernel.data.FilteredColumnarBatch;
+import io.delta.kernel.defaults.internal.data.vector.OffHeapAllocator;
 import io.delta.kernel.defaults.internal.logstore.LogStoreProvider;
+import io.delta.kernel.defaults.internal.parquet.ParallelParquetFileReader;
+import io.delta.kernel.defaults.internal.parquet.ParallelParquetFileWriter;
 import io.delta.kernel.defaults.internal.parquet.ParquetFileReader;
 import io.delta.kernel.defaults.internal.parquet.ParquetFileWriter;
+import io.delta.kernel.defaults.internal.parquet.ParquetFooterCache;
+import io.delta.kernel.defaults.internal.parquet.PartitionedParquetFileWriter;
 import io.delta.kernel.engine.ParquetHandler;
 import io.delta.kernel.expressions.Column;
 import io.delta.kernel.expressions.Predicate;
 import io.delta.kernel.internal.util.InternalUtils;
+import io.delta.kernel.internal.util.Tuple2;
 import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.types.StructType;
 import io.delta.kernel.utils.*;
@@ -38,9 +45,91 @@ import java.util.*;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.*;
 
-/** Default implementation of {@link ParquetHandler} based on Hadoop APIs. */
+/**
+ * Default implementation of {@link ParquetHandler} based on Hadoop APIs.
+ *
+ * <p>The following Hadoop configuration options are supported for reading:
+ *
+ * <ul>
+ *   <li>{@code delta.kernel.default.parquet.reader.batch-size}: maximum number of rows in a batch
+ *       returned by {@link #readParquetFiles}. Default is 1024.
+ *   <li>{@code delta.kernel.default.parquet.reader.vectorized}: whether to decode the pages of each
+ *       column in bulk straight into the column vectors, instead of assembling the rows one at a
+ *       time with {@code parquet-mr}. Default is false.
+ *   <li>{@code delta.kernel.default.parquet.reader.pooled-buffers}: whether the column vectors of
+ *       the primitive type columns of the batches returned by {@link #readParquetFiles} are backed
+ *       by pooled arrays. Closing a batch (or a column vector) returns its arrays to the pool of
+ *       the file's reader, which reuses them for a later batch of the file instead of allocating
+ *       new ones. The batch, its vectors and any vector derived from them must not be used after
+ *       closing it. Only applies when not reading vectorized. Default is false.
+ *   <li>{@code delta.kernel.default.parquet.reader.off-heap}: whether the column vectors of the
+ *       boolean, integral, floating point, date, timestamp and string columns of the batches
+ *       returned by {@link #readParquetFiles} are kept in direct memory, outside of the Java heap.
+ *       Closing a batch (or a column vector) releases its memory, which is reused for later
+ *       batches. The batch, its vectors and any vector derived from them must not be used after
+ *       closing it. A batch that is not closed leaks its memory until it's garbage collected. Only
+ *       applies when not reading vectorized. Default is false.
+ *   <li>{@code delta.kernel.default.parquet.reader.off-heap.memory-budget}: maximum size of the
+ *       direct memory of the off-heap column vectors, in bytes, shared by all the reads of the
+ *       handler. The column vectors that don't fit in the budget are on heap. Default is 256MB.
+ *   <li>{@code delta.kernel.default.parquet.reader.off-heap.leak-detection}: whether to record
+ *       where each off-heap column vector is allocated, and log it when the vector is garbage
+ *       collected without being closed. The number of such leaks is always counted, see {@link
+ *       #getOffHeapMemoryMetrics()}. Default is false.
+ *   <li>{@code delta.kernel.default.parquet.reader.parallelism}: number of threads used to decode
+ *       the files of a {@link #readParquetFiles} call concurrently, e.g. the parts of a multi-part
+ *       checkpoint or the sidecars of a V2 checkpoint. Default is 0, which reads the files one
+ *       after another on the consumer thread.
+ *   <li>{@code delta.kernel.default.parquet.reader.parallel.queue-size}: maximum number of decoded
+ *       batches buffered per {@link #readParquetFiles} call when reading in parallel. The decoding
+ *       threads wait when the buffer is full. Default is 64.
+ *   <li>{@code delta.kernel.default.parquet.reader.parallel.preserve-file-order}: whether the
+ *       batches are returned in the order of the files when reading in parallel. When disabled, the
+ *       batches of different files are interleaved in the order they are decoded (the batches of a
+ *       single file are still in order), which Kernel's log replay doesn't depend on. Only disable
+ *       when no other caller of {@link #readParquetFiles} with multiple files depends on the order
+ *       either. Default is true.
+ *   <li>{@code delta.kernel.default.parquet.reader.footer-cache}: whether to take the footers of
+ *       the files read from the {@link ParquetFooterCache} of the handler, keyed by the path, size
+ *       and modification time of the file. Only the footers of the files with a known size (i.e.
+ *       not 0) in the {@link FileStatus} given to {@link #readParquetFiles} are cached, e.g. the
+ *       data files of a scan and the checkpoint files. Default is true.
+ *   <li>{@code delta.kernel.default.parquet.reader.footer-cache.max-size-bytes}: maximum total
+ *       approximate in-memory size of the cached footers, {@code 0} to not cache them. Default is
+ *       64MB.
+ * </ul>
+ *
+ * <p>The following Hadoop configuration options are supported for writing:
+ *
+ * <ul>
+ *   <li>{@code delta.kernel.default.parquet.writer.targetMaxFileSize}: target size of the files
+ *       written by {@link #writeParquetFiles}. Default is 128MB.
+ *   <li>{@code delta.kernel.default.parquet.writer.parallelism}: number of files written
+ *       concurrently by a {@link #writeParquetFiles} call, e.g. the sidecars of a V2 checkpoint.
+ *       The rows are then not written in the order of the input data. Also the number of
+ *       directories written concurrently by a {@link #writePartitionedParquetFiles} call. Default
+ *       is 0, which writes the files one after another on the consumer thread.
+ *   <li>{@code delta.kernel.default.parquet.writer.parallel.queue-size}: maximum number of batches
+ *       buffered per {@link #writeParquetFiles} or {@link #writePartitionedParquetFiles} call when
+ *       writing in parallel. Reading the input data waits when the buffer is full. Default is 16.
+ *   <li>{@code delta.kernel.default.parquet.writer.memory-budget}: maximum size in bytes of the
+ *       data buffered in memory by the open files of a {@link #writePartitionedParquetFiles} call.
+ *       When exceeded, the open file with the most buffered data is closed before reaching the
+ *       target file size. Default is 512MB.
+ * </ul>
+ */
 public class DefaultParquetHandler implements ParquetHandler {
   private final Configuration hadoopConf;
+  /** Allocator of the off-heap column vectors. Empty when off-heap reading is disabled. */
+  private final Optional<OffHeapAllocator> offHeapAllocator;
+  /** Cache of the footers of the files read. Empty when footer caching is disabled. */
+  private final Optional<ParquetFooterCache> footerCache;
+  /** Decodes the files in parallel. Null when parallel reading is disabled. */
+  private final ParallelParquetFileReader parallelReader;
+  /** Writes the files in parallel. Null when parallel writing is disabled. */
+  private final ParallelParquetFileWriter parallelWriter;
+  /** Writes the files of multiple directories, in parallel unless parallel writing is disabled. */
+  private final PartitionedParquetFileWriter partitionedWriter;
 
   /**
    * Create an instance of default {@link ParquetHandler} implementation.
@@ -49,6 +138,55 @@ public class DefaultParquetHandler implements ParquetHandler {
    */
   public DefaultParquetHandler(Configuration hadoopConf) {
     this.hadoopConf = hadoopConf;
+    this.offHeapAllocator =
+        hadoopConf.getBoolean("delta.kernel.default.parquet.reader.off-heap", false)
+            ? Optional.of(
+                new OffHeapAllocator(
+                    hadoopConf.getLong(
+                        "delta.kernel.default.parquet.reader.off-heap.memory-budget",
+                        256L * 1024 * 1024),
+                    hadoopConf.getBoolean(
+                        "delta.kernel.default.parquet.reader.off-heap.leak-detection", false)))
+            : Optional.empty();
+    long footerCacheSize =
+        hadoopConf.getLong(
+            "delta.kernel.default.parquet.reader.footer-cache.max-size-bytes", 64L * 1024 * 1024);
+    checkArgument(footerCacheSize >= 0, "invalid footer cache size: " + footerCacheSize);
+    this.footerCache =
+        hadoopConf.getBoolean("delta.kernel.default.parquet.reader.footer-cache", true)
+                && footerCacheSize > 0
+            ? Optional.of(new ParquetFooterCache(footerCacheSize))
+            : Optional.empty();
+    int parallelism = hadoopConf.getInt("delta.kernel.default.parquet.reader.parallelism", 0);
+    checkArgument(parallelism >= 0, "invalid Parquet reader parallelism: " + parallelism);
+    this.parallelReader =
+        parallelism == 0
+            ? null
+            : new ParallelParquetFileReader(
+                hadoopConf,
+                parallelism,
+                hadoopConf.getInt("delta.kernel.default.parquet.reader.parallel.queue-size", 64),
+                hadoopConf.getBoolean(
+                    "delta.kernel.default.parquet.reader.parallel.preserve-file-order", true),
+                offHeapAllocator,
+                footerCache);
+    int writerParallelism = hadoopConf.getInt("delta.kernel.default.parquet.writer.parallelism", 0);
+    checkArgument(
+        writerParallelism >= 0, "invalid Parquet writer parallelism: " + writerParallelism);
+    this.parallelWriter =
+        writerParallelism == 0
+            ? null
+            : new ParallelParquetFileWriter(
+                hadoopConf,
+                writerParallelism,
+                hadoopConf.getInt("delta.kernel.default.parquet.writer.parallel.queue-size", 16));
+    this.partitionedWriter =
+        new PartitionedParquetFileWriter(
+            hadoopConf,
+            writerParallelism,
+            hadoopConf.getInt("delta.kernel.default.parquet.writer.parallel.queue-size", 16),
+            hadoopConf.getLong(
+                "delta.kernel.default.parquet.writer.memory-budget", 512L * 1024 * 1024));
   }
 
   @Override
@@ -57,8 +195,12 @@ public class DefaultParquetHandler implements ParquetHandler {
       StructType physicalSchema,
       Optional<Predicate> predicate)
       throws IOException {
+    if (parallelReader != null) {
+      return parallelReader.read(fileIter, physicalSchema, predicate);
+    }
     return new CloseableIterator<ColumnarBatch>() {
-      private final ParquetFileReader batchReader = new ParquetFileReader(hadoopConf);
+      private final ParquetFileReader batchReader =
+          new ParquetFileReader(hadoopConf, offHeapAllocator, footerCache);
       private CloseableIterator<ColumnarBatch> currentFileReader;
 
       @Override
@@ -77,7 +219,7 @@ public class DefaultParquetHandler implements ParquetHandler {
           Utils.closeCloseables(currentFileReader);
           currentFileReader = null;
           if (fileIter.hasNext()) {
-            String nextFile = fileIter.next().getPath();
+            FileStatus nextFile = fileIter.next();
             currentFileReader = batchReader.read(nextFile, physicalSchema, predicate);
             return hasNext(); // recurse since it's possible the loaded file is empty
           } else {
@@ -93,17 +235,61 @@ public class DefaultParquetHandler implements ParquetHandler {
     };
   }
 
+  /**
+   * Returns the metrics of the direct memory of the off-heap column vectors read by this handler,
+   * or empty if off-heap reading is disabled (see {@code
+   * delta.kernel.default.parquet.reader.off-heap}).
+   */
+  public Optional<OffHeapAllocator.Metrics> getOffHeapMemoryMetrics() {
+    return offHeapAllocator.map(OffHeapAllocator::getMetrics);
+  }
+
+  /**
+   * Returns the metrics of the {@link ParquetFooterCache} of this handler, or empty if footer
+   * caching is disabled (see {@code delta.kernel.default.parquet.reader.footer-cache}).
+   */
+  public Optional<ParquetFooterCache.Metrics> getFooterCacheMetrics() {
+    return footerCache.map(ParquetFooterCache::getMetrics);
+  }
+
   @Override
   public CloseableIterator<DataFileStatus> writeParquetFiles(
       String directoryPath,
       CloseableIterator<FilteredColumnarBatch> dataIter,
       List<Column> statsColumns)
       throws IOException {
+    if (parallelWriter != null) {
+      return parallelWriter.write(new Path(directoryPath), statsColumns, dataIter);
+    }
     ParquetFileWriter batchWriter =
         new ParquetFileWriter(hadoopConf, new Path(directoryPath), statsColumns);
     return batchWriter.write(dataIter);
   }
 
+  /**
+   * Write the given data to Parquet files in the directory each batch is paired with, e.g. the
+   * partition directories given by the {@link io.delta.kernel.DataWriteContext} of each partition
+   * of a partitioned table. Each directory gets its own files, written like {@link
+   * #writeParquetFiles} writes the files of a single directory, and with {@code
+   * delta.kernel.default.parquet.writer.parallelism} set the directories are written concurrently.
+   * The batches of a directory are written in the order of the input data.
+   *
+   * @param dataIter Iterator of data to write, each batch with the directory to write it to.
+   * @param statsColumns List of columns to collect statistics for.
+   * @return an iterator of {@link DataFileStatus} of the files written, each with the directory it
+   *     is written to. The files are returned as they are completed, while the rest of the data is
+   *     written. It is the responsibility of the caller to close the iterator.
+   * @throws IOException if an I/O error occurs during the file writing process.
+   */
+  public CloseableIterator<DirectoryDataFileStatus> writePartitionedParquetFiles(
+      CloseableIterator<DirectoryBatch> dataIter, List<Column> statsColumns) throws IOException {
+    return partitionedWriter
+        .write(
+            statsColumns,
+            dataIter.map(batch -> new Tuple2<>(batch.getDirectoryPath(), batch.getData())))
+        .map(file -> new DirectoryDataFileStatus(file._1, file._2));
+  }
+
   /**
    * Makes use of {@link LogStore} implementations in `delta-storage` to atomically write the data
    * to a file depending upon the destination filesystem.
@@ -0,0 +1,239 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.engine;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static io.delta.kernel.internal.util.Preconditions.checkState;
+
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.data.FilteredColumnarBatch;
+import io.delta.kernel.defaults.internal.data.BatchCompactor;
+import io.delta.kernel.engine.ScanFilesCache;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Default implementation of {@link ScanFilesCache}. Keeps the active data files of the table
+ * versions in compact columnar batches (only the active files, with the strings as UTF-8 bytes), up
+ * to a maximum estimated memory size. The least recently used table versions are evicted when the
+ * cache is full. The table versions whose active data files don't fit in the cache on their own are
+ * not cached: their data files are compacted as they are added, and dropped as soon as their size
+ * exceeds the maximum size.
+ */
+public class DefaultScanFilesCache implements ScanFilesCache {
+  private static final Logger logger = LoggerFactory.getLogger(DefaultScanFilesCache.class);
+
+  /** Maximum number of rows of the cached batches. */
+  private static final int MAX_ROWS_PER_BATCH = 4096;
+
+  private final long maxSizeInBytes;
+
+  /** Cached entries by (table path, table id, version), in least recently used first order. */
+  private final LinkedHashMap<Key, Entry> entries =
+      new LinkedHashMap<>(16, 0.75f, true /* accessOrder */);
+
+  private long sizeInBytes;
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /** @param maxSizeInBytes maximum estimated memory used by the cached data files, in bytes */
+  public DefaultScanFilesCache(long maxSizeInBytes) {
+    checkArgument(maxSizeInBytes > 0, "invalid maximum scan files cache size: " + maxSizeInBytes);
+    this.maxSizeInBytes = maxSizeInBytes;
+  }
+
+  @Override
+  public synchronized Optional<List<FilteredColumnarBatch>> get(
+      String tablePath, String tableId, long version) {
+    Entry entry = entries.get(new Key(tablePath, tableId, version));
+    if (entry == null) {
+      missCount++;
+      return Optional.empty();
+    }
+    hitCount++;
+    return Optional.of(entry.batches);
+  }
+
+  @Override
+  public ScanFilesCache.Entry newEntry(String tablePath, String tableId, long version) {
+    // Compact outside of the lock as the batches are added, the compacted batches are not shared
+    // until committed
+    BatchCompactor compactor = new BatchCompactor(MAX_ROWS_PER_BATCH);
+    return new ScanFilesCache.Entry() {
+      private boolean rejected;
+
+      @Override
+      public boolean add(FilteredColumnarBatch activeAddFiles) {
+        checkState(!rejected, "Entry is rejected");
+        compactor.add(activeAddFiles);
+        if (compactor.getSizeInBytes() > maxSizeInBytes) {
+          reject();
+        }
+        return !rejected;
+      }
+
+      @Override
+      public void commit() {
+        checkState(!rejected, "Entry is rejected");
+        List<ColumnarBatch> compacted = compactor.finish();
+        if (compactor.getSizeInBytes() > maxSizeInBytes) {
+          reject();
+          return;
+        }
+        put(
+            new Key(tablePath, tableId, version),
+            new Entry(
+                compacted.stream()
+                    .map(batch -> new FilteredColumnarBatch(batch, Optional.empty()))
+                    .collect(Collectors.toList()),
+                compactor.getSizeInBytes()));
+      }
+
+      private void reject() {
+        rejected = true;
+        logger.info(
+            "Not caching the scan files of table {} at version {}: size {} > max size {}",
+            tablePath,
+            version,
+            compactor.getSizeInBytes(),
+            maxSizeInBytes);
+      }
+    };
+  }
+
+  /** Returns the metrics of this cache. */
+  public synchronized Metrics getMetrics() {
+    return new Metrics(hitCount, missCount, evictionCount, entries.size(), sizeInBytes);
+  }
+
+  private synchronized void put(Key key, Entry entry) {
+    Entry previous = entries.put(key, entry);
+    if (previous != null) {
+      sizeInBytes -= previous.sizeInBytes;
+    }
+    sizeInBytes += entry.sizeInBytes;
+    Iterator<Map.Entry<Key, Entry>> lruIter = entries.entrySet().iterator();
+    while (sizeInBytes > maxSizeInBytes) {
+      Map.Entry<Key, Entry> evicted = lruIter.next();
+      sizeInBytes -= evicted.getValue().sizeInBytes;
+      evictionCount++;
+      lruIter.remove();
+      logger.debug(
+          "Evicted the scan files of table {} at version {} from the cache",
+          evicted.getKey().tablePath,
+          evicted.getKey().version);
+    }
+  }
+
+  /** Remove all the entries from the cache. The metrics are not reset. */
+  public synchronized void clear() {
+    entries.clear();
+    sizeInBytes = 0;
+  }
+
+  private static class Key {
+    final String tablePath;
+    final String tableId;
+    final long version;
+
+    Key(String tablePath, String tableId, long version) {
+      this.tablePath = tablePath;
+      this.tableId = tableId;
+      this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return version == other.version
+          && tablePath.equals(other.tablePath)
+          && tableId.equals(other.tableId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tablePath, tableId, version);
+    }
+  }
+
+  private static class Entry {
+    final List<FilteredColumnarBatch> batches;
+    final long sizeInBytes;
+
+    Entry(List<FilteredColumnarBatch> batches, long sizeInBytes) {
+      this.batches = Collections.unmodifiableList(batches);
+      this.sizeInBytes = sizeInBytes;
+    }
+  }
+
+  /** Snapshot of the metrics of a {@link DefaultScanFilesCache}. */
+  public static class Metrics {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int entryCount;
+    private final long sizeInBytes;
+
+    Metrics(long hitCount, long missCount, long evictionCount, int entryCount, long sizeInBytes) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+      this.entryCount = entryCount;
+      this.sizeInBytes = sizeInBytes;
+    }
+
+    /** Number of lookups that found the table version in the cache. */
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    /** Number of lookups that didn't find the table version in the cache. */
+    public long getMissCount() {
+      return missCount;
+    }
+
+    /** Number of table versions evicted from the cache to make room for others. */
+    public long getEvictionCount() {
+      return evictionCount;
+    }
+
+    /** Number of table versions in the cache. */
+    public int getEntryCount() {
+      return entryCount;
+    }
+
+    /** Estimated memory used by the cached data files, in bytes. */
+    public long getSizeInBytes() {
+      return sizeInBytes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "ScanFilesCacheMetrics(hits=%d, misses=%d, evictions=%d, entries=%d, sizeInBytes=%d)",
+          hitCount, missCount, evictionCount, entryCount, sizeInBytes);
+    }
+  }
+}
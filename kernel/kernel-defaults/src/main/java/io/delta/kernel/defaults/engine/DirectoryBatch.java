@@ -0,0 +1,48 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.engine;
+
+import static java.util.Objects.requireNonNull;
+
+import io.delta.kernel.data.FilteredColumnarBatch;
+
+/**
+ * A batch of data to write to Parquet files in the given directory, see {@link
+ * DefaultParquetHandler#writePartitionedParquetFiles}.
+ */
+public class DirectoryBatch {
+  private final String directoryPath;
+  private final FilteredColumnarBatch data;
+
+  /**
+   * @param directoryPath fully qualified path of the directory to write the data to
+   * @param data data to write
+   */
+  public DirectoryBatch(String directoryPath, FilteredColumnarBatch data) {
+    this.directoryPath = requireNonNull(directoryPath, "directoryPath is null");
+    this.data = requireNonNull(data, "data is null");
+  }
+
+  /** Returns the fully qualified path of the directory to write the data to. */
+  public String getDirectoryPath() {
+    return directoryPath;
+  }
+
+  /** Returns the data to write. */
+  public FilteredColumnarBatch getData() {
+    return data;
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.engine;
+
+import static java.util.Objects.requireNonNull;
+
+import io.delta.kernel.utils.DataFileStatus;
+
+/**
+ * A Parquet file written by {@link DefaultParquetHandler#writePartitionedParquetFiles}, with the
+ * directory it is written to.
+ */
+public class DirectoryDataFileStatus {
+  private final String directoryPath;
+  private final DataFileStatus fileStatus;
+
+  public DirectoryDataFileStatus(String directoryPath, DataFileStatus fileStatus) {
+    this.directoryPath = requireNonNull(directoryPath, "directoryPath is null");
+    this.fileStatus = requireNonNull(fileStatus, "fileStatus is null");
+  }
+
+  /** Returns the path of the directory the file is written to, as given with the data. */
+  public String getDirectoryPath() {
+    return directoryPath;
+  }
+
+  /** Returns the status of the file written, with its statistics. */
+  public DataFileStatus getFileStatus() {
+    return fileStatus;
+  }
+}
@@ -28,7 +28,10 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.time.temporal.ChronoField;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DefaultKernelUtils {
   private static final DateTimeFormatter DEFAULT_JSON_TIMESTAMPNTZ_FORMATTER =
@@ -119,4 +122,30 @@ public class DefaultKernelUtils {
     }
     return dataType;
   }
+
+  /**
+   * Create a thread pool with at most {@code numThreads} daemon threads. Idle threads are
+   * terminated after a minute, so the pool doesn't need to be shut down explicitly.
+   *
+   * @param threadNamePrefix prefix of the names of the threads in the pool
+   * @param numThreads maximum number of threads in the pool
+   */
+  public static ThreadPoolExecutor newDaemonThreadPool(String threadNamePrefix, int numThreads) {
+    AtomicInteger threadCount = new AtomicInteger();
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            numThreads,
+            numThreads,
+            60L,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, threadNamePrefix + "-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
 }
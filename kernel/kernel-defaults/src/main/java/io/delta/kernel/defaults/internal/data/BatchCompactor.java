@@ -0,0 +1,280 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.data;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.data.*;
+import io.delta.kernel.defaults.internal.data.vector.*;
+import io.delta.kernel.types.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copies the selected rows of {@link FilteredColumnarBatch}es into new batches without selection
+ * vectors, backed by plain arrays, e.g. to keep the batches in memory without the unselected rows
+ * and the readers' buffers they refer to. String values are kept as UTF-8 bytes.
+ */
+public class BatchCompactor {
+  /** Estimated memory used by an object header and its reference, in bytes. */
+  private static final long OBJECT_OVERHEAD_BYTES = 16;
+
+  private final int maxRowsPerBatch;
+  private final List<ColumnarBatch> batches = new ArrayList<>();
+  private long sizeInBytes;
+
+  /** Schema of the added batches, null until a batch is added. */
+  private StructType schema;
+  /** Columns and row ids of the selected rows not yet copied into a compacted batch. */
+  private final List<ColumnVector[]> pendingColumns = new ArrayList<>();
+  private final List<Integer> pendingRowIds = new ArrayList<>();
+
+  /** @param maxRowsPerBatch maximum number of rows of the compacted batches */
+  public BatchCompactor(int maxRowsPerBatch) {
+    checkArgument(maxRowsPerBatch > 0, "invalid maximum number of rows: " + maxRowsPerBatch);
+    this.maxRowsPerBatch = maxRowsPerBatch;
+  }
+
+  /**
+   * Compact the given batches, which must all have the same schema. The selected rows of
+   * consecutive batches are combined into batches of up to the maximum number of rows.
+   *
+   * @return the compacted batches
+   */
+  public List<ColumnarBatch> compact(List<FilteredColumnarBatch> input) {
+    input.forEach(this::add);
+    return finish();
+  }
+
+  /**
+   * Add a batch to compact, which must have the same schema as the batches added before. Its
+   * selected rows are copied as soon as they fill a compacted batch with those of the previous
+   * batches, so only the vectors of the last {@code maxRowsPerBatch} selected rows are referenced
+   * until {@link #finish()}.
+   */
+  public void add(FilteredColumnarBatch batch) {
+    ColumnarBatch data = batch.getData();
+    if (schema == null) {
+      schema = data.getSchema();
+    }
+    checkArgument(
+        schema.equals(data.getSchema()),
+        "Batches with different schemas: %s, %s",
+        schema,
+        data.getSchema());
+    ColumnVector[] batchColumns = new ColumnVector[schema.length()];
+    for (int ordinal = 0; ordinal < batchColumns.length; ordinal++) {
+      batchColumns[ordinal] = data.getColumnVector(ordinal);
+    }
+    Optional<ColumnVector> selectionVector = batch.getSelectionVector();
+    for (int rowId = 0; rowId < data.getSize(); rowId++) {
+      if (!selectionVector.isPresent()
+          || (!selectionVector.get().isNullAt(rowId) && selectionVector.get().getBoolean(rowId))) {
+        pendingColumns.add(batchColumns);
+        pendingRowIds.add(rowId);
+        if (pendingRowIds.size() == maxRowsPerBatch) {
+          flush();
+        }
+      }
+    }
+  }
+
+  /**
+   * Copy the remaining selected rows of the added batches.
+   *
+   * @return the compacted batches of all the added batches
+   */
+  public List<ColumnarBatch> finish() {
+    if (!pendingRowIds.isEmpty()) {
+      flush();
+    }
+    return batches;
+  }
+
+  /** Returns the estimated memory used by the compacted batches, in bytes. */
+  public long getSizeInBytes() {
+    return sizeInBytes;
+  }
+
+  private void flush() {
+    int size = pendingRowIds.size();
+    int[] sourceRowIds = pendingRowIds.stream().mapToInt(Integer::intValue).toArray();
+    ColumnVector[] vectors = new ColumnVector[schema.length()];
+    for (int ordinal = 0; ordinal < vectors.length; ordinal++) {
+      ColumnVector[] sources = new ColumnVector[size];
+      for (int i = 0; i < size; i++) {
+        sources[i] = pendingColumns.get(i)[ordinal];
+      }
+      vectors[ordinal] = copy(schema.at(ordinal).getDataType(), sources, sourceRowIds);
+    }
+    batches.add(new DefaultColumnarBatch(size, schema, vectors));
+    pendingColumns.clear();
+    pendingRowIds.clear();
+  }
+
+  /**
+   * Copy the values at the given positions into a new vector.
+   *
+   * @param dataType type of the values
+   * @param sources vector of each value to copy
+   * @param rowIds row id of each value to copy in its vector
+   */
+  private ColumnVector copy(DataType dataType, ColumnVector[] sources, int[] rowIds) {
+    int size = rowIds.length;
+    boolean[] nullability = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      nullability[i] = sources[i].isNullAt(rowIds[i]);
+    }
+    Optional<boolean[]> nulls = Optional.of(nullability);
+    sizeInBytes += OBJECT_OVERHEAD_BYTES + size;
+
+    if (dataType instanceof BooleanType) {
+      boolean[] values = new boolean[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = !nullability[i] && sources[i].getBoolean(rowIds[i]);
+      }
+      sizeInBytes += size;
+      return new DefaultBooleanVector(size, nulls, values);
+    } else if (dataType instanceof ByteType) {
+      byte[] values = new byte[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = nullability[i] ? 0 : sources[i].getByte(rowIds[i]);
+      }
+      sizeInBytes += size;
+      return new DefaultByteVector(size, nulls, values);
+    } else if (dataType instanceof ShortType) {
+      short[] values = new short[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = nullability[i] ? 0 : sources[i].getShort(rowIds[i]);
+      }
+      sizeInBytes += 2L * size;
+      return new DefaultShortVector(size, nulls, values);
+    } else if (dataType instanceof IntegerType || dataType instanceof DateType) {
+      int[] values = new int[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = nullability[i] ? 0 : sources[i].getInt(rowIds[i]);
+      }
+      sizeInBytes += 4L * size;
+      return new DefaultIntVector(dataType, size, nulls, values);
+    } else if (dataType instanceof LongType
+        || dataType instanceof TimestampType
+        || dataType instanceof TimestampNTZType) {
+      long[] values = new long[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = nullability[i] ? 0 : sources[i].getLong(rowIds[i]);
+      }
+      sizeInBytes += 8L * size;
+      return new DefaultLongVector(dataType, size, nulls, values);
+    } else if (dataType instanceof FloatType) {
+      float[] values = new float[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = nullability[i] ? 0 : sources[i].getFloat(rowIds[i]);
+      }
+      sizeInBytes += 4L * size;
+      return new DefaultFloatVector(size, nulls, values);
+    } else if (dataType instanceof DoubleType) {
+      double[] values = new double[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = nullability[i] ? 0 : sources[i].getDouble(rowIds[i]);
+      }
+      sizeInBytes += 8L * size;
+      return new DefaultDoubleVector(size, nulls, values);
+    } else if (dataType instanceof StringType || dataType instanceof BinaryType) {
+      byte[][] values = new byte[size][];
+      for (int i = 0; i < size; i++) {
+        if (!nullability[i]) {
+          values[i] =
+              dataType instanceof StringType
+                  ? sources[i].getString(rowIds[i]).getBytes(StandardCharsets.UTF_8)
+                  : sources[i].getBinary(rowIds[i]);
+          sizeInBytes += OBJECT_OVERHEAD_BYTES + values[i].length;
+        }
+      }
+      return new DefaultBinaryVector(dataType, size, values);
+    } else if (dataType instanceof DecimalType) {
+      BigDecimal[] values = new BigDecimal[size];
+      for (int i = 0; i < size; i++) {
+        if (!nullability[i]) {
+          values[i] = sources[i].getDecimal(rowIds[i]);
+          sizeInBytes += 2 * OBJECT_OVERHEAD_BYTES;
+        }
+      }
+      return new DefaultDecimalVector(dataType, size, values);
+    } else if (dataType instanceof StructType) {
+      StructType structType = (StructType) dataType;
+      ColumnVector[] members = new ColumnVector[structType.length()];
+      for (int ordinal = 0; ordinal < members.length; ordinal++) {
+        ColumnVector[] memberSources = new ColumnVector[size];
+        for (int i = 0; i < size; i++) {
+          memberSources[i] = sources[i].getChild(ordinal);
+        }
+        members[ordinal] = copy(structType.at(ordinal).getDataType(), memberSources, rowIds);
+      }
+      return new DefaultStructVector(size, dataType, nulls, members);
+    } else if (dataType instanceof ArrayType) {
+      int[] offsets = new int[size + 1];
+      List<ColumnVector> elementSources = new ArrayList<>();
+      List<Integer> elementRowIds = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        if (!nullability[i]) {
+          ArrayValue array = sources[i].getArray(rowIds[i]);
+          addEntries(array.getElements(), array.getSize(), elementSources, elementRowIds);
+        }
+        offsets[i + 1] = elementRowIds.size();
+      }
+      sizeInBytes += 4L * offsets.length;
+      ColumnVector elements =
+          copy(
+              ((ArrayType) dataType).getElementType(),
+              elementSources.toArray(new ColumnVector[0]),
+              elementRowIds.stream().mapToInt(Integer::intValue).toArray());
+      return new DefaultArrayVector(size, dataType, nulls, offsets, elements);
+    } else if (dataType instanceof MapType) {
+      int[] offsets = new int[size + 1];
+      List<ColumnVector> keySources = new ArrayList<>();
+      List<ColumnVector> valueSources = new ArrayList<>();
+      List<Integer> entryRowIds = new ArrayList<>();
+      for (int i = 0; i < size; i++) {
+        if (!nullability[i]) {
+          MapValue map = sources[i].getMap(rowIds[i]);
+          addEntries(map.getKeys(), map.getSize(), keySources, new ArrayList<>());
+          addEntries(map.getValues(), map.getSize(), valueSources, entryRowIds);
+        }
+        offsets[i + 1] = entryRowIds.size();
+      }
+      sizeInBytes += 4L * offsets.length;
+      int[] entryRowIdArray = entryRowIds.stream().mapToInt(Integer::intValue).toArray();
+      MapType mapType = (MapType) dataType;
+      ColumnVector keys =
+          copy(mapType.getKeyType(), keySources.toArray(new ColumnVector[0]), entryRowIdArray);
+      ColumnVector values =
+          copy(mapType.getValueType(), valueSources.toArray(new ColumnVector[0]), entryRowIdArray);
+      return new DefaultMapVector(size, dataType, nulls, offsets, keys, values);
+    }
+    throw new UnsupportedOperationException("Unsupported data type: " + dataType);
+  }
+
+  private static void addEntries(
+      ColumnVector vector, int size, List<ColumnVector> sources, List<Integer> rowIds) {
+    for (int rowId = 0; rowId < size; rowId++) {
+      sources.add(vector);
+      rowIds.add(rowId);
+    }
+  }
+}
@@ -17,6 +17,7 @@ package io.delta.kernel.defaults.internal.data;
 
 import io.delta.kernel.data.ColumnVector;
 import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.types.StructField;
 import io.delta.kernel.types.StructType;
 import java.util.ArrayList;
@@ -105,6 +106,11 @@ public class DefaultColumnarBatch implements ColumnarBatch {
     return size;
   }
 
+  @Override
+  public void close() {
+    Utils.closeCloseables(columnVectors.toArray(new ColumnVector[0]));
+  }
+
   private void checkColumnOrdinal(int ordinal) {
     if (ordinal < 0 || ordinal >= columnVectors.size()) {
       throw new IllegalArgumentException("invalid column ordinal: " + ordinal);
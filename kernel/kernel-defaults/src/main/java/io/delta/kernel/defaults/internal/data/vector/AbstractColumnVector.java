@@ -33,6 +33,8 @@ public abstract class AbstractColumnVector implements ColumnVector {
   private final int size;
   private final DataType dataType;
   private final Optional<boolean[]> nullability;
+  // action to run when the vector is closed, e.g. to return its arrays to a pool
+  private Runnable closeAction;
 
   protected AbstractColumnVector(int size, DataType dataType, Optional<boolean[]> nullability) {
     checkArgument(size >= 0, "invalid size: %s", size);
@@ -61,7 +63,24 @@ public abstract class AbstractColumnVector implements ColumnVector {
   @Override
   public void close() {
     // By default, nothing to close, if the implementation has any resources to release
-    // it can override it
+    // it can override it. Only run the close action once, the arrays of the vector may be reused
+    // after the first close.
+    Runnable action;
+    synchronized (this) {
+      action = closeAction;
+      closeAction = null;
+    }
+    if (action != null) {
+      action.run();
+    }
+  }
+
+  /**
+   * Set the action to run when the vector is closed for the first time, e.g. to return the arrays
+   * backing the vector to a pool for reuse.
+   */
+  public synchronized void setCloseAction(Runnable closeAction) {
+    this.closeAction = closeAction;
   }
 
   /**
@@ -0,0 +1,94 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.data.vector;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import io.delta.kernel.types.StringType;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * {@link io.delta.kernel.data.ColumnVector} implementation for string type data that keeps the
+ * UTF-8 bytes of all the values in one contiguous buffer. The value at {@code rowId} is the bytes
+ * {@code [getStart(rowId), getEnd(rowId))} of {@link #getBuffer()}. The {@link String} of a value
+ * is only decoded when {@link #getString(int)} is called, the expressions compare the bytes.
+ */
+public class DefaultUtf8Vector extends AbstractColumnVector {
+  private final int[] offsets;
+  private final byte[] buffer;
+
+  /**
+   * Create an instance of {@link io.delta.kernel.data.ColumnVector} for string type.
+   *
+   * @param size number of elements in the vector.
+   * @param nullability Optional array of nullability value for each element in the vector. All
+   *     values in the vector are considered non-null when parameter is empty.
+   * @param offsets offsets of the values in {@code buffer}, the value at {@code rowId} ends at
+   *     {@code offsets[rowId + 1]}. The values of the null elements are ignored.
+   * @param buffer UTF-8 bytes of the values.
+   */
+  public DefaultUtf8Vector(
+      int size, Optional<boolean[]> nullability, int[] offsets, byte[] buffer) {
+    super(size, StringType.STRING, nullability);
+    this.offsets = requireNonNull(offsets, "offsets is null");
+    this.buffer = requireNonNull(buffer, "buffer is null");
+    checkArgument(
+        offsets.length > size,
+        "invalid number of offsets (%s) for given size (%s)",
+        offsets.length,
+        size);
+  }
+
+  /**
+   * Get the value at given {@code rowId}. The error check on {@code rowId} explicitly skipped for
+   * performance reasons.
+   *
+   * @param rowId
+   * @return the decoded value, or null if the slot for {@code rowId} is null.
+   */
+  @Override
+  public String getString(int rowId) {
+    checkValidRowId(rowId);
+    if (isNullAt(rowId)) {
+      return null;
+    }
+    return new String(
+        buffer, offsets[rowId], offsets[rowId + 1] - offsets[rowId], StandardCharsets.UTF_8);
+  }
+
+  /** The buffer with the UTF-8 bytes of all the values. */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * The offset of the first byte of the value at given {@code rowId} in {@link #getBuffer()}. The
+   * return value is undefined if the slot for {@code rowId} is null.
+   */
+  public int getStart(int rowId) {
+    return offsets[rowId];
+  }
+
+  /**
+   * The offset after the last byte of the value at given {@code rowId} in {@link #getBuffer()}. The
+   * return value is undefined if the slot for {@code rowId} is null.
+   */
+  public int getEnd(int rowId) {
+    return offsets[rowId + 1];
+  }
+}
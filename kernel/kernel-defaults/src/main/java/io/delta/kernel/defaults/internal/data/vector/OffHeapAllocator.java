@@ -0,0 +1,275 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.data.vector;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Allocates the direct {@link ByteBuffer}s backing the off-heap column vectors (see {@link
+ * OffHeapColumnVector} and {@link OffHeapUtf8Vector}) within a memory budget.
+ *
+ * <p>Direct buffers can't be freed explicitly before Java 9, so the buffers released by closing
+ * their vectors are kept by the allocator and reused for the next allocations of the same size
+ * class (the sizes are rounded up to a power of two). The free buffers are only dropped, to be
+ * freed by the GC, when the budget doesn't leave room for a buffer of another size class. An
+ * allocation that doesn't fit in the budget fails, and the caller falls back to heap memory.
+ *
+ * <p>A vector that becomes unreachable without being closed is a leak. The allocator detects it
+ * with a {@link PhantomReference} to the vector and reclaims its buffers on a later allocation.
+ * When leak detection is enabled, the stack trace of each allocation is recorded and logged with
+ * the leak.
+ */
+public class OffHeapAllocator {
+  private static final Logger logger = LoggerFactory.getLogger(OffHeapAllocator.class);
+
+  /** Smallest size of a buffer, as a power of two (1 KB). */
+  private static final int MIN_SIZE_CLASS = 10;
+
+  /** Largest size of a buffer, as a power of two (1 GB). */
+  private static final int MAX_SIZE_CLASS = 30;
+
+  private final long budgetInBytes;
+  private final boolean leakDetection;
+  private final ReferenceQueue<Object> unreachableOwners = new ReferenceQueue<>();
+
+  /** Buffers in use, by identity of the buffer. */
+  private final Map<ByteBuffer, Allocation> allocations = new IdentityHashMap<>();
+
+  /** Free buffers by size class, i.e. the log2 of the size of the buffers (up to 1 GB). */
+  private final List<ArrayDeque<ByteBuffer>> freeBuffers = new ArrayList<>(MAX_SIZE_CLASS + 1);
+
+  /** Size of all the buffers allocated and not dropped yet, in use or free. */
+  private long allocatedBytes;
+
+  private long usedBytes;
+  private long allocationCount;
+  private long reuseCount;
+  private long failedAllocationCount;
+  private long leakCount;
+
+  /**
+   * @param budgetInBytes maximum size of the buffers in use or kept for reuse, in bytes
+   * @param leakDetection whether to record the stack trace of the allocations and log the leaks
+   */
+  public OffHeapAllocator(long budgetInBytes, boolean leakDetection) {
+    checkArgument(budgetInBytes > 0, "invalid off-heap memory budget: " + budgetInBytes);
+    this.budgetInBytes = budgetInBytes;
+    this.leakDetection = leakDetection;
+    for (int i = 0; i <= MAX_SIZE_CLASS; i++) {
+      freeBuffers.add(new ArrayDeque<>());
+    }
+  }
+
+  /**
+   * Allocate a buffer of at least {@code sizeInBytes} bytes used by {@code owner}, in native byte
+   * order. The content of the buffer is undefined. The owner must {@link #release} the buffer once
+   * done with it, otherwise it is reclaimed as a leak once the owner is unreachable.
+   *
+   * @return the buffer, or null if it doesn't fit in the memory budget
+   */
+  public synchronized ByteBuffer allocate(long sizeInBytes, Object owner) {
+    checkArgument(sizeInBytes >= 0, "invalid buffer size: " + sizeInBytes);
+    reclaimLeaks();
+    int sizeClass = sizeClass(sizeInBytes);
+    if (sizeClass > MAX_SIZE_CLASS) {
+      failedAllocationCount++;
+      return null;
+    }
+    ByteBuffer buffer = freeBuffers.get(sizeClass).poll();
+    if (buffer != null) {
+      reuseCount++;
+    } else {
+      long size = 1L << sizeClass;
+      if (allocatedBytes + size > budgetInBytes) {
+        dropFreeBuffers();
+      }
+      if (allocatedBytes + size > budgetInBytes) {
+        failedAllocationCount++;
+        return null;
+      }
+      buffer = ByteBuffer.allocateDirect((int) size).order(ByteOrder.nativeOrder());
+      allocatedBytes += size;
+    }
+    buffer.clear();
+    allocations.put(buffer, new Allocation(owner, buffer, unreachableOwners, leakDetection));
+    usedBytes += buffer.capacity();
+    allocationCount++;
+    return buffer;
+  }
+
+  /** Release a buffer allocated by {@link #allocate}, which is reused by a later allocation. */
+  public synchronized void release(ByteBuffer buffer) {
+    Allocation allocation = allocations.remove(buffer);
+    checkArgument(allocation != null, "buffer is not in use");
+    // a cleared reference is not enqueued when the owner becomes unreachable
+    allocation.clear();
+    free(buffer);
+  }
+
+  /** Returns the metrics of this allocator, after reclaiming the buffers of the leaked vectors. */
+  public synchronized Metrics getMetrics() {
+    reclaimLeaks();
+    return new Metrics(
+        budgetInBytes,
+        allocatedBytes,
+        usedBytes,
+        allocationCount,
+        reuseCount,
+        failedAllocationCount,
+        leakCount);
+  }
+
+  private void reclaimLeaks() {
+    Allocation allocation;
+    while ((allocation = (Allocation) unreachableOwners.poll()) != null) {
+      if (allocations.remove(allocation.buffer) != allocation) {
+        continue; // released concurrently with the owner becoming unreachable
+      }
+      leakCount++;
+      if (allocation.stackTrace != null) {
+        logger.warn(
+            "Reclaimed an off-heap buffer of {} bytes whose column vector was not closed",
+            allocation.buffer.capacity(),
+            allocation.stackTrace);
+      }
+      free(allocation.buffer);
+    }
+  }
+
+  private void free(ByteBuffer buffer) {
+    usedBytes -= buffer.capacity();
+    freeBuffers.get(Integer.numberOfTrailingZeros(buffer.capacity())).push(buffer);
+  }
+
+  private void dropFreeBuffers() {
+    for (ArrayDeque<ByteBuffer> buffers : freeBuffers) {
+      for (ByteBuffer buffer : buffers) {
+        allocatedBytes -= buffer.capacity();
+      }
+      buffers.clear();
+    }
+  }
+
+  private static int sizeClass(long sizeInBytes) {
+    if (sizeInBytes <= 1L << MIN_SIZE_CLASS) {
+      return MIN_SIZE_CLASS;
+    }
+    return 64 - Long.numberOfLeadingZeros(sizeInBytes - 1);
+  }
+
+  /** Buffer in use, with a reference to its owner to detect when it's leaked. */
+  private static class Allocation extends PhantomReference<Object> {
+    final ByteBuffer buffer;
+    /** Stack trace of the allocation, only recorded when the leak detection is enabled. */
+    final Throwable stackTrace;
+
+    Allocation(
+        Object owner, ByteBuffer buffer, ReferenceQueue<Object> queue, boolean recordStackTrace) {
+      super(owner, queue);
+      this.buffer = buffer;
+      this.stackTrace = recordStackTrace ? new Throwable("allocated at") : null;
+    }
+  }
+
+  /** Snapshot of the metrics of an {@link OffHeapAllocator}. */
+  public static class Metrics {
+    private final long budgetInBytes;
+    private final long allocatedBytes;
+    private final long usedBytes;
+    private final long allocationCount;
+    private final long reuseCount;
+    private final long failedAllocationCount;
+    private final long leakCount;
+
+    Metrics(
+        long budgetInBytes,
+        long allocatedBytes,
+        long usedBytes,
+        long allocationCount,
+        long reuseCount,
+        long failedAllocationCount,
+        long leakCount) {
+      this.budgetInBytes = budgetInBytes;
+      this.allocatedBytes = allocatedBytes;
+      this.usedBytes = usedBytes;
+      this.allocationCount = allocationCount;
+      this.reuseCount = reuseCount;
+      this.failedAllocationCount = failedAllocationCount;
+      this.leakCount = leakCount;
+    }
+
+    /** Maximum size of the buffers in use or kept for reuse, in bytes. */
+    public long getBudgetInBytes() {
+      return budgetInBytes;
+    }
+
+    /** Size of the buffers in use or kept for reuse, in bytes. */
+    public long getAllocatedBytes() {
+      return allocatedBytes;
+    }
+
+    /** Size of the buffers in use, in bytes. */
+    public long getUsedBytes() {
+      return usedBytes;
+    }
+
+    /** Number of buffers allocated, new or reused. */
+    public long getAllocationCount() {
+      return allocationCount;
+    }
+
+    /** Number of allocations that reused a released buffer. */
+    public long getReuseCount() {
+      return reuseCount;
+    }
+
+    /** Number of allocations that didn't fit in the budget. */
+    public long getFailedAllocationCount() {
+      return failedAllocationCount;
+    }
+
+    /** Number of buffers reclaimed from vectors that were not closed. */
+    public long getLeakCount() {
+      return leakCount;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "OffHeapAllocatorMetrics(budgetInBytes=%d, allocatedBytes=%d, usedBytes=%d, "
+              + "allocations=%d, reuses=%d, failedAllocations=%d, leaks=%d)",
+          budgetInBytes,
+          allocatedBytes,
+          usedBytes,
+          allocationCount,
+          reuseCount,
+          failedAllocationCount,
+          leakCount);
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.data.vector;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.types.*;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * {@link io.delta.kernel.data.ColumnVector} implementation for the fixed width primitive types
+ * (boolean, byte, short, integer, date, long, timestamps, float and double) that keeps the values
+ * in direct buffers allocated by an {@link OffHeapAllocator}, outside of the Java heap. The buffers
+ * are released to the allocator when the vector is closed, the vector must not be used after.
+ */
+public class OffHeapColumnVector extends AbstractColumnVector {
+  private final OffHeapAllocator allocator;
+  /** The values, {@link #width} bytes each. */
+  private final ByteBuffer values;
+  /** One byte per value, non-zero for the null values. Null when there are no null values. */
+  private final ByteBuffer nulls;
+
+  private final int width;
+  /** Referenced by the vector only, see {@link OffHeapAllocator#allocate(long, Object)}. */
+  private final Object owner;
+
+  private OffHeapColumnVector(
+      OffHeapAllocator allocator,
+      DataType dataType,
+      int size,
+      int width,
+      ByteBuffer values,
+      ByteBuffer nulls,
+      Object owner) {
+    super(size, dataType, Optional.empty());
+    this.allocator = allocator;
+    this.values = values;
+    this.nulls = nulls;
+    this.width = width;
+    this.owner = owner;
+    setCloseAction(this::releaseBuffers);
+  }
+
+  /**
+   * Copy the first {@code size} values of the heap arrays of a vector into an off-heap vector.
+   *
+   * @param dataType data type of the vector, a fixed width primitive type
+   * @param nullability the nullability of each value
+   * @param values the values, a {@code boolean[]}, {@code byte[]}, {@code short[]}, {@code int[]},
+   *     {@code long[]}, {@code float[]} or {@code double[]} matching {@code dataType}
+   * @return the off-heap vector, or empty if it doesn't fit in the memory budget of {@code
+   *     allocator}
+   */
+  public static Optional<OffHeapColumnVector> copyOf(
+      OffHeapAllocator allocator,
+      DataType dataType,
+      int size,
+      boolean[] nullability,
+      Object values) {
+    int width = width(dataType);
+    checkArgument(width > 0, "unsupported data type for an off-heap vector: %s", dataType);
+    checkArgument(nullability.length >= size, "invalid nullability for size %s", size);
+    Object owner = new Object();
+    ByteBuffer valuesBuffer = allocator.allocate((long) size * width, owner);
+    if (valuesBuffer == null) {
+      return Optional.empty();
+    }
+    ByteBuffer nullsBuffer = null;
+    for (int rowId = 0; rowId < size; rowId++) {
+      if (nullability[rowId]) {
+        nullsBuffer = allocator.allocate(size, owner);
+        if (nullsBuffer == null) {
+          allocator.release(valuesBuffer);
+          return Optional.empty();
+        }
+        for (int i = 0; i < size; i++) {
+          nullsBuffer.put(i, nullability[i] ? (byte) 1 : 0);
+        }
+        break;
+      }
+    }
+
+    if (values instanceof boolean[]) {
+      boolean[] booleans = (boolean[]) values;
+      for (int i = 0; i < size; i++) {
+        valuesBuffer.put(i, booleans[i] ? (byte) 1 : 0);
+      }
+    } else if (values instanceof byte[]) {
+      valuesBuffer.put((byte[]) values, 0, size);
+    } else if (values instanceof short[]) {
+      valuesBuffer.asShortBuffer().put((short[]) values, 0, size);
+    } else if (values instanceof int[]) {
+      valuesBuffer.asIntBuffer().put((int[]) values, 0, size);
+    } else if (values instanceof long[]) {
+      valuesBuffer.asLongBuffer().put((long[]) values, 0, size);
+    } else if (values instanceof float[]) {
+      valuesBuffer.asFloatBuffer().put((float[]) values, 0, size);
+    } else if (values instanceof double[]) {
+      valuesBuffer.asDoubleBuffer().put((double[]) values, 0, size);
+    } else {
+      throw new IllegalArgumentException("unsupported values: " + values.getClass());
+    }
+    return Optional.of(
+        new OffHeapColumnVector(
+            allocator, dataType, size, width, valuesBuffer, nullsBuffer, owner));
+  }
+
+  @Override
+  public boolean isNullAt(int rowId) {
+    checkValidRowId(rowId);
+    return nulls != null && nulls.get(rowId) != 0;
+  }
+
+  @Override
+  public boolean getBoolean(int rowId) {
+    checkAccess(rowId, BooleanType.class, "boolean");
+    return values.get(rowId) != 0;
+  }
+
+  @Override
+  public byte getByte(int rowId) {
+    checkAccess(rowId, ByteType.class, "byte");
+    return values.get(rowId);
+  }
+
+  @Override
+  public short getShort(int rowId) {
+    checkAccess(rowId, ShortType.class, "short");
+    return values.getShort(rowId * 2);
+  }
+
+  @Override
+  public int getInt(int rowId) {
+    if (width != 4 || getDataType() instanceof FloatType) {
+      throw unsupportedDataAccessException("int");
+    }
+    checkValidRowId(rowId);
+    return values.getInt(rowId * 4);
+  }
+
+  @Override
+  public long getLong(int rowId) {
+    if (width != 8 || getDataType() instanceof DoubleType) {
+      throw unsupportedDataAccessException("long");
+    }
+    checkValidRowId(rowId);
+    return values.getLong(rowId * 8);
+  }
+
+  @Override
+  public float getFloat(int rowId) {
+    checkAccess(rowId, FloatType.class, "float");
+    return values.getFloat(rowId * 4);
+  }
+
+  @Override
+  public double getDouble(int rowId) {
+    checkAccess(rowId, DoubleType.class, "double");
+    return values.getDouble(rowId * 8);
+  }
+
+  private void checkAccess(int rowId, Class<? extends DataType> type, String accessType) {
+    if (!type.isInstance(getDataType())) {
+      throw unsupportedDataAccessException(accessType);
+    }
+    checkValidRowId(rowId);
+  }
+
+  private void releaseBuffers() {
+    allocator.release(values);
+    if (nulls != null) {
+      allocator.release(nulls);
+    }
+  }
+
+  /** Number of bytes of a value of {@code dataType}, or 0 if it's not a fixed width type. */
+  private static int width(DataType dataType) {
+    if (dataType instanceof BooleanType || dataType instanceof ByteType) {
+      return 1;
+    } else if (dataType instanceof ShortType) {
+      return 2;
+    } else if (dataType instanceof IntegerType
+        || dataType instanceof DateType
+        || dataType instanceof FloatType) {
+      return 4;
+    } else if (dataType instanceof LongType
+        || dataType instanceof TimestampType
+        || dataType instanceof TimestampNTZType
+        || dataType instanceof DoubleType) {
+      return 8;
+    }
+    return 0;
+  }
+}
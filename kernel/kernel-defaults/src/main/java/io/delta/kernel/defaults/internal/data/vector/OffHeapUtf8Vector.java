@@ -0,0 +1,131 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.data.vector;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.types.StringType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * {@link io.delta.kernel.data.ColumnVector} implementation for string type data that keeps the
+ * UTF-8 bytes of the values, like {@link DefaultUtf8Vector}, in direct buffers allocated by an
+ * {@link OffHeapAllocator}, outside of the Java heap. The buffers are released to the allocator
+ * when the vector is closed, the vector must not be used after.
+ */
+public class OffHeapUtf8Vector extends AbstractColumnVector {
+  private final OffHeapAllocator allocator;
+  /** {@code size + 1} offsets of the values in {@link #buffer}, like in DefaultUtf8Vector. */
+  private final ByteBuffer offsets;
+
+  private final ByteBuffer buffer;
+  /** One byte per value, non-zero for the null values. Null when there are no null values. */
+  private final ByteBuffer nulls;
+  /** Referenced by the vector only, see {@link OffHeapAllocator#allocate(long, Object)}. */
+  private final Object owner;
+
+  private OffHeapUtf8Vector(
+      OffHeapAllocator allocator,
+      int size,
+      ByteBuffer offsets,
+      ByteBuffer buffer,
+      ByteBuffer nulls,
+      Object owner) {
+    super(size, StringType.STRING, Optional.empty());
+    this.allocator = allocator;
+    this.offsets = offsets;
+    this.buffer = buffer;
+    this.nulls = nulls;
+    this.owner = owner;
+    setCloseAction(this::releaseBuffers);
+  }
+
+  /**
+   * Copy the first {@code size} values of a string vector into an off-heap vector.
+   *
+   * @param nullability the nullability of each value
+   * @param offsets offsets of the values in {@code buffer}, see {@link DefaultUtf8Vector}
+   * @param buffer UTF-8 bytes of the values
+   * @return the off-heap vector, or empty if it doesn't fit in the memory budget of {@code
+   *     allocator}
+   */
+  public static Optional<OffHeapUtf8Vector> copyOf(
+      OffHeapAllocator allocator, int size, boolean[] nullability, int[] offsets, byte[] buffer) {
+    checkArgument(nullability.length >= size, "invalid nullability for size %s", size);
+    checkArgument(offsets.length > size, "invalid offsets for size %s", size);
+    Object owner = new Object();
+    int bufferSize = offsets[size] - offsets[0];
+    ByteBuffer offsetsBuffer = allocator.allocate(4L * (size + 1), owner);
+    ByteBuffer bytesBuffer = offsetsBuffer == null ? null : allocator.allocate(bufferSize, owner);
+    ByteBuffer nullsBuffer = null;
+    boolean hasNulls = false;
+    for (int rowId = 0; rowId < size && !hasNulls; rowId++) {
+      hasNulls = nullability[rowId];
+    }
+    if (bytesBuffer != null && hasNulls) {
+      nullsBuffer = allocator.allocate(size, owner);
+    }
+    if (bytesBuffer == null || (hasNulls && nullsBuffer == null)) {
+      for (ByteBuffer allocated : new ByteBuffer[] {offsetsBuffer, bytesBuffer}) {
+        if (allocated != null) {
+          allocator.release(allocated);
+        }
+      }
+      return Optional.empty();
+    }
+
+    for (int i = 0; i <= size; i++) {
+      offsetsBuffer.putInt(i * 4, offsets[i] - offsets[0]);
+    }
+    bytesBuffer.put(buffer, offsets[0], bufferSize);
+    if (nullsBuffer != null) {
+      for (int i = 0; i < size; i++) {
+        nullsBuffer.put(i, nullability[i] ? (byte) 1 : 0);
+      }
+    }
+    return Optional.of(
+        new OffHeapUtf8Vector(allocator, size, offsetsBuffer, bytesBuffer, nullsBuffer, owner));
+  }
+
+  @Override
+  public boolean isNullAt(int rowId) {
+    checkValidRowId(rowId);
+    return nulls != null && nulls.get(rowId) != 0;
+  }
+
+  @Override
+  public String getString(int rowId) {
+    if (isNullAt(rowId)) {
+      return null;
+    }
+    int start = offsets.getInt(rowId * 4);
+    byte[] bytes = new byte[offsets.getInt(rowId * 4 + 4) - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(start + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private void releaseBuffers() {
+    allocator.release(offsets);
+    allocator.release(buffer);
+    if (nulls != null) {
+      allocator.release(nulls);
+    }
+  }
+}
@@ -0,0 +1,940 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.expressions;
+
+import static io.delta.kernel.defaults.internal.expressions.DefaultExpressionUtils.*;
+import static io.delta.kernel.internal.util.ExpressionUtils.*;
+import static java.util.Objects.requireNonNull;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.internal.data.vector.DefaultBooleanVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultConstantVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultUtf8Vector;
+import io.delta.kernel.defaults.internal.expressions.DefaultExpressionEvaluator.ExpressionEvalVisitor;
+import io.delta.kernel.engine.ExpressionHandler;
+import io.delta.kernel.expressions.*;
+import io.delta.kernel.types.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link ExpressionEvaluator} for default {@link ExpressionHandler} that compiles
+ * the expression once into a tree of {@link CompiledExpression}s specialized for the types of the
+ * operands, instead of interpreting the expression tree for every batch like {@link
+ * DefaultExpressionEvaluator}.
+ *
+ * <p>The predicates (comparisons, {@code AND}, {@code OR}, {@code NOT}, {@code IS_NULL} and {@code
+ * IS_NOT_NULL}) are evaluated eagerly over the whole batch, in loops over the primitive values of
+ * the input vectors, into the arrays of the result vector. The columns are resolved to ordinals and
+ * the literals (including the implicit casts of literals) to constants when compiling. The other
+ * expressions are evaluated by the {@link DefaultExpressionEvaluator}.
+ *
+ * <p>The compiled expression has no state, so an evaluator can be shared by multiple threads.
+ */
+public class CompiledExpressionEvaluator implements ExpressionEvaluator {
+  private final CompiledExpression compiled;
+
+  /**
+   * Create a {@link CompiledExpressionEvaluator} instance bound to the given expression and
+   * <i>inputSchema</i>.
+   *
+   * @param inputSchema Input data schema
+   * @param expression Expression to evaluate.
+   * @param outputType Expected result data type.
+   */
+  public CompiledExpressionEvaluator(
+      StructType inputSchema, Expression expression, DataType outputType) {
+    Expression transformed =
+        DefaultExpressionEvaluator.transform(inputSchema, expression, outputType);
+    this.compiled = new ExpressionCompiler(inputSchema).visit(transformed);
+  }
+
+  @Override
+  public ColumnVector eval(ColumnarBatch input) {
+    return compiled.eval(input);
+  }
+
+  @Override
+  public void close() {
+    /* nothing to close */
+  }
+
+  /**
+   * Implementation of {@link ExpressionVisitor} to compile an expression validated and rewritten by
+   * {@link DefaultExpressionEvaluator#transform}.
+   */
+  private static class ExpressionCompiler extends ExpressionVisitor<CompiledExpression> {
+    private final StructType inputSchema;
+
+    ExpressionCompiler(StructType inputSchema) {
+      this.inputSchema = requireNonNull(inputSchema, "inputSchema is null");
+    }
+
+    @Override
+    CompiledExpression visitAnd(And and) {
+      return new AndOr(true, visitPredicate(and.getLeft()), visitPredicate(and.getRight()));
+    }
+
+    @Override
+    CompiledExpression visitOr(Or or) {
+      return new AndOr(false, visitPredicate(or.getLeft()), visitPredicate(or.getRight()));
+    }
+
+    @Override
+    CompiledExpression visitAlwaysTrue(AlwaysTrue alwaysTrue) {
+      return new BooleanConstant(true);
+    }
+
+    @Override
+    CompiledExpression visitAlwaysFalse(AlwaysFalse alwaysFalse) {
+      return new BooleanConstant(false);
+    }
+
+    @Override
+    CompiledExpression visitComparator(Predicate predicate) {
+      CompiledExpression left = visit(getLeft(predicate));
+      CompiledExpression right = visit(getRight(predicate));
+      boolean nullSafe = predicate.getName().equals("IS NOT DISTINCT FROM");
+      ComparisonOp op = ComparisonOp.of(nullSafe ? "=" : predicate.getName());
+      if (left instanceof Constant && !(right instanceof Constant)) {
+        // Compare the vector to the constant, with the operands swapped
+        return Comparison.create(op.swap(), nullSafe, right, left);
+      }
+      return Comparison.create(op, nullSafe, left, right);
+    }
+
+    @Override
+    CompiledExpression visitLiteral(Literal literal) {
+      return new Constant(literal.getDataType(), literal.getValue());
+    }
+
+    @Override
+    CompiledExpression visitColumn(Column column) {
+      String[] names = column.getNames();
+      int[] ordinals = new int[names.length];
+      StructField field = null;
+      DataType currentType = inputSchema;
+      for (int level = 0; level < names.length; level++) {
+        // the column was validated by DefaultExpressionEvaluator#transform
+        StructType structSchema = (StructType) currentType;
+        ordinals[level] = structSchema.indexOf(names[level]);
+        StructField levelField = structSchema.at(ordinals[level]);
+        if (level == 0) {
+          field = levelField;
+        }
+        currentType = levelField.getDataType();
+      }
+      return new ColumnReference(column, currentType, field, ordinals);
+    }
+
+    @Override
+    CompiledExpression visitCast(ImplicitCastExpression cast) {
+      CompiledExpression input = visit(cast.getInput());
+      if (input instanceof Constant) {
+        // Cast the literal once
+        Object value = ((Constant) input).value;
+        ColumnVector castValue = cast.eval(new DefaultConstantVector(input.dataType, 1, value));
+        return new Constant(cast.getOutputType(), value == null ? null : valueAt(castValue, 0));
+      }
+      return new Cast(cast, input);
+    }
+
+    @Override
+    CompiledExpression visitPartitionValue(PartitionValueExpression partitionValue) {
+      return new Interpreted(partitionValue, partitionValue.getDataType());
+    }
+
+    @Override
+    CompiledExpression visitElementAt(ScalarExpression elementAt) {
+      MapType mapType = (MapType) visit(childAt(elementAt, 0)).dataType;
+      return new Interpreted(elementAt, mapType.getValueType());
+    }
+
+    @Override
+    CompiledExpression visitNot(Predicate predicate) {
+      return new Not(visitPredicate(childAt(predicate, 0)));
+    }
+
+    @Override
+    CompiledExpression visitIsNotNull(Predicate predicate) {
+      return new IsNull(false, visit(childAt(predicate, 0)));
+    }
+
+    @Override
+    CompiledExpression visitIsNull(Predicate predicate) {
+      return new IsNull(true, visit(getUnaryChild(predicate)));
+    }
+
+    @Override
+    CompiledExpression visitCoalesce(ScalarExpression coalesce) {
+      return new Interpreted(coalesce, visit(childAt(coalesce, 0)).dataType);
+    }
+
+    @Override
+    CompiledExpression visitTimeAdd(ScalarExpression timeAdd) {
+      return new Interpreted(timeAdd, visit(childAt(timeAdd, 0)).dataType);
+    }
+
+    @Override
+    CompiledExpression visitLike(Predicate like) {
+      return new Interpreted(like, BooleanType.BOOLEAN);
+    }
+
+    @Override
+    CompiledExpression visitStartsWith(Predicate startsWith) {
+      return new Interpreted(startsWith, BooleanType.BOOLEAN);
+    }
+
+    private CompiledPredicate visitPredicate(Expression expression) {
+      CompiledExpression compiled = visit(expression);
+      if (compiled instanceof CompiledPredicate) {
+        return (CompiledPredicate) compiled;
+      }
+      return new BooleanVectorPredicate(compiled);
+    }
+  }
+
+  /** An expression compiled for a given input schema. */
+  abstract static class CompiledExpression {
+    final DataType dataType;
+
+    CompiledExpression(DataType dataType) {
+      this.dataType = dataType;
+    }
+
+    abstract ColumnVector eval(ColumnarBatch input);
+  }
+
+  /**
+   * A compiled expression of boolean type, that is evaluated into the value and nullability arrays
+   * of a boolean vector.
+   */
+  abstract static class CompiledPredicate extends CompiledExpression {
+    CompiledPredicate() {
+      super(BooleanType.BOOLEAN);
+    }
+
+    /**
+     * Evaluate the predicate on the given batch into the given arrays of the batch size. The value
+     * of a null result is false.
+     */
+    abstract void eval(ColumnarBatch input, boolean[] values, boolean[] nullability);
+
+    @Override
+    ColumnVector eval(ColumnarBatch input) {
+      int size = input.getSize();
+      boolean[] values = new boolean[size];
+      boolean[] nullability = new boolean[size];
+      eval(input, values, nullability);
+      return new DefaultBooleanVector(size, Optional.of(nullability), values);
+    }
+  }
+
+  private static class Constant extends CompiledExpression {
+    private final Object value;
+
+    Constant(DataType dataType, Object value) {
+      super(dataType);
+      this.value = value;
+    }
+
+    @Override
+    ColumnVector eval(ColumnarBatch input) {
+      return new DefaultConstantVector(dataType, input.getSize(), value);
+    }
+  }
+
+  private static class ColumnReference extends CompiledExpression {
+    private final Column column;
+    private final StructField field;
+    private final int[] ordinals;
+
+    ColumnReference(Column column, DataType dataType, StructField field, int[] ordinals) {
+      super(dataType);
+      this.column = column;
+      this.field = field;
+      this.ordinals = ordinals;
+    }
+
+    @Override
+    ColumnVector eval(ColumnarBatch input) {
+      StructType schema = input.getSchema();
+      int ordinal = ordinals[0];
+      if (ordinal >= schema.length()
+          || (schema.at(ordinal) != field && !schema.at(ordinal).equals(field))) {
+        // The batch doesn't have the input schema, look up the column by name
+        return new ExpressionEvalVisitor(input).visit(column);
+      }
+      ColumnVector vector = input.getColumnVector(ordinal);
+      for (int level = 1; level < ordinals.length; level++) {
+        vector = vector.getChild(ordinals[level]);
+      }
+      return vector;
+    }
+  }
+
+  private static class Cast extends CompiledExpression {
+    private final ImplicitCastExpression cast;
+    private final CompiledExpression input;
+
+    Cast(ImplicitCastExpression cast, CompiledExpression input) {
+      super(cast.getOutputType());
+      this.cast = cast;
+      this.input = input;
+    }
+
+    @Override
+    ColumnVector eval(ColumnarBatch input) {
+      return cast.eval(this.input.eval(input));
+    }
+  }
+
+  /** An expression without a compiled implementation, evaluated by the interpreter. */
+  private static class Interpreted extends CompiledExpression {
+    private final Expression expression;
+
+    Interpreted(Expression expression, DataType dataType) {
+      super(dataType);
+      this.expression = expression;
+    }
+
+    @Override
+    ColumnVector eval(ColumnarBatch input) {
+      return new ExpressionEvalVisitor(input).visit(expression);
+    }
+  }
+
+  /** A boolean expression that is not a compiled predicate, e.g. a boolean column. */
+  private static class BooleanVectorPredicate extends CompiledPredicate {
+    private final CompiledExpression child;
+
+    BooleanVectorPredicate(CompiledExpression child) {
+      this.child = child;
+    }
+
+    @Override
+    void eval(ColumnarBatch input, boolean[] values, boolean[] nullability) {
+      ColumnVector vector = child.eval(input);
+      for (int rowId = 0; rowId < values.length; rowId++) {
+        nullability[rowId] = vector.isNullAt(rowId);
+        values[rowId] = !nullability[rowId] && vector.getBoolean(rowId);
+      }
+    }
+  }
+
+  private static class BooleanConstant extends CompiledPredicate {
+    private final boolean value;
+
+    BooleanConstant(boolean value) {
+      this.value = value;
+    }
+
+    @Override
+    void eval(ColumnarBatch input, boolean[] values, boolean[] nullability) {
+      Arrays.fill(values, value);
+      Arrays.fill(nullability, false);
+    }
+  }
+
+  /** {@code AND} or {@code OR}, see the truth table in {@link ExpressionEvalVisitor#visitAnd}. */
+  private static class AndOr extends CompiledPredicate {
+    private final boolean isAnd;
+    private final CompiledPredicate left;
+    private final CompiledPredicate right;
+
+    AndOr(boolean isAnd, CompiledPredicate left, CompiledPredicate right) {
+      this.isAnd = isAnd;
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    void eval(ColumnarBatch input, boolean[] values, boolean[] nullability) {
+      left.eval(input, values, nullability);
+      int size = values.length;
+      boolean[] rightValues = new boolean[size];
+      boolean[] rightNullability = new boolean[size];
+      right.eval(input, rightValues, rightNullability);
+      if (isAnd) {
+        for (int rowId = 0; rowId < size; rowId++) {
+          // false if either side is false, otherwise null if either side is null
+          boolean anyFalse =
+              (!nullability[rowId] & !values[rowId])
+                  | (!rightNullability[rowId] & !rightValues[rowId]);
+          boolean isNull = !anyFalse & (nullability[rowId] | rightNullability[rowId]);
+          values[rowId] = !anyFalse & !isNull;
+          nullability[rowId] = isNull;
+        }
+      } else {
+        for (int rowId = 0; rowId < size; rowId++) {
+          // true if either side is true, otherwise null if either side is null
+          boolean anyTrue =
+              (!nullability[rowId] & values[rowId])
+                  | (!rightNullability[rowId] & rightValues[rowId]);
+          nullability[rowId] = !anyTrue & (nullability[rowId] | rightNullability[rowId]);
+          values[rowId] = anyTrue;
+        }
+      }
+    }
+  }
+
+  private static class Not extends CompiledPredicate {
+    private final CompiledPredicate child;
+
+    Not(CompiledPredicate child) {
+      this.child = child;
+    }
+
+    @Override
+    void eval(ColumnarBatch input, boolean[] values, boolean[] nullability) {
+      child.eval(input, values, nullability);
+      for (int rowId = 0; rowId < values.length; rowId++) {
+        values[rowId] = !values[rowId] & !nullability[rowId];
+      }
+    }
+  }
+
+  private static class IsNull extends CompiledPredicate {
+    private final boolean isNull;
+    private final CompiledExpression child;
+
+    IsNull(boolean isNull, CompiledExpression child) {
+      this.isNull = isNull;
+      this.child = child;
+    }
+
+    @Override
+    void eval(ColumnarBatch input, boolean[] values, boolean[] nullability) {
+      ColumnVector vector = child.eval(input);
+      for (int rowId = 0; rowId < values.length; rowId++) {
+        values[rowId] = vector.isNullAt(rowId) == isNull;
+      }
+      Arrays.fill(nullability, false);
+    }
+  }
+
+  private enum ComparisonOp {
+    EQ,
+    LT,
+    LE,
+    GT,
+    GE;
+
+    static ComparisonOp of(String name) {
+      switch (name) {
+        case "=":
+          return EQ;
+        case "<":
+          return LT;
+        case "<=":
+          return LE;
+        case ">":
+          return GT;
+        case ">=":
+          return GE;
+        default:
+          // We should never reach this based on the ExpressionVisitor
+          throw new IllegalStateException(String.format("%s is not a recognized comparator", name));
+      }
+    }
+
+    /** The operator to use when the operands are swapped. */
+    ComparisonOp swap() {
+      switch (this) {
+        case LT:
+          return GT;
+        case LE:
+          return GE;
+        case GT:
+          return LT;
+        case GE:
+          return LE;
+        default:
+          return this;
+      }
+    }
+  }
+
+  /**
+   * A comparison of two operands of the same type, evaluated in two passes: the specialization for
+   * the type of the operands compares the non-null values into an array of comparison results,
+   * which is then converted to the result of the operator. When the right operand is a literal, the
+   * values are compared to the constant instead of a constant vector.
+   */
+  private abstract static class Comparison extends CompiledPredicate {
+    private final ComparisonOp op;
+    private final boolean nullSafe;
+    private final CompiledExpression left;
+    private final CompiledExpression right;
+
+    Comparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      this.op = op;
+      this.nullSafe = nullSafe;
+      this.left = left;
+      this.right = right;
+    }
+
+    static Comparison create(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      DataType dataType = left.dataType;
+      if (dataType instanceof BooleanType) {
+        return new BooleanComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof ByteType) {
+        return new ByteComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof ShortType) {
+        return new ShortComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof IntegerType || dataType instanceof DateType) {
+        return new IntComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof LongType
+          || dataType instanceof TimestampType
+          || dataType instanceof TimestampNTZType) {
+        return new LongComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof FloatType) {
+        return new FloatComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof DoubleType) {
+        return new DoubleComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof DecimalType) {
+        return new DecimalComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof StringType) {
+        return new StringComparison(op, nullSafe, left, right);
+      } else if (dataType instanceof BinaryType) {
+        return new BinaryComparison(op, nullSafe, left, right);
+      }
+      throw new UnsupportedOperationException(dataType + " can not be compared.");
+    }
+
+    /** Compare the non-null values of the two vectors, i.e. where {@code isNull} is false. */
+    abstract void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result);
+
+    /** Compare the non-null values of the vector to the non-null constant. */
+    abstract void compare(ColumnVector left, Object right, boolean[] isNull, int[] result);
+
+    @Override
+    void eval(ColumnarBatch input, boolean[] values, boolean[] nullability) {
+      int size = values.length;
+      ColumnVector leftVector = left.eval(input);
+      boolean[] leftIsNull = new boolean[size];
+      for (int rowId = 0; rowId < size; rowId++) {
+        leftIsNull[rowId] = leftVector.isNullAt(rowId);
+      }
+
+      int[] result = new int[size];
+      if (right instanceof Constant) {
+        Object constant = ((Constant) right).value;
+        if (constant == null) {
+          for (int rowId = 0; rowId < size; rowId++) {
+            values[rowId] = nullSafe && leftIsNull[rowId];
+            nullability[rowId] = !nullSafe;
+          }
+          return;
+        }
+        compare(leftVector, constant, leftIsNull, result);
+        applyOp(result, leftIsNull, values);
+        if (nullSafe) {
+          // a null is not equal to the non-null constant
+          Arrays.fill(nullability, false);
+        } else {
+          System.arraycopy(leftIsNull, 0, nullability, 0, size);
+        }
+        return;
+      }
+
+      ColumnVector rightVector = right.eval(input);
+      boolean[] isNull = new boolean[size];
+      for (int rowId = 0; rowId < size; rowId++) {
+        isNull[rowId] = leftIsNull[rowId] | rightVector.isNullAt(rowId);
+      }
+      compare(leftVector, rightVector, isNull, result);
+      applyOp(result, isNull, values);
+      if (nullSafe) {
+        for (int rowId = 0; rowId < size; rowId++) {
+          if (isNull[rowId]) {
+            // equal if both are null
+            values[rowId] = leftIsNull[rowId] && rightVector.isNullAt(rowId);
+          }
+        }
+        Arrays.fill(nullability, false);
+      } else {
+        System.arraycopy(isNull, 0, nullability, 0, size);
+      }
+    }
+
+    private void applyOp(int[] result, boolean[] isNull, boolean[] values) {
+      int size = values.length;
+      switch (op) {
+        case EQ:
+          for (int rowId = 0; rowId < size; rowId++) {
+            values[rowId] = !isNull[rowId] & result[rowId] == 0;
+          }
+          break;
+        case LT:
+          for (int rowId = 0; rowId < size; rowId++) {
+            values[rowId] = !isNull[rowId] & result[rowId] < 0;
+          }
+          break;
+        case LE:
+          for (int rowId = 0; rowId < size; rowId++) {
+            values[rowId] = !isNull[rowId] & result[rowId] <= 0;
+          }
+          break;
+        case GT:
+          for (int rowId = 0; rowId < size; rowId++) {
+            values[rowId] = !isNull[rowId] & result[rowId] > 0;
+          }
+          break;
+        case GE:
+          for (int rowId = 0; rowId < size; rowId++) {
+            values[rowId] = !isNull[rowId] & result[rowId] >= 0;
+          }
+          break;
+        default:
+          throw new IllegalStateException("Unknown comparison: " + op);
+      }
+    }
+  }
+
+  private static class BooleanComparison extends Comparison {
+    BooleanComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Boolean.compare(left.getBoolean(rowId), right.getBoolean(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      boolean constant = (Boolean) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Boolean.compare(left.getBoolean(rowId), constant);
+        }
+      }
+    }
+  }
+
+  private static class ByteComparison extends Comparison {
+    ByteComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Byte.compare(left.getByte(rowId), right.getByte(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      byte constant = (Byte) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Byte.compare(left.getByte(rowId), constant);
+        }
+      }
+    }
+  }
+
+  private static class ShortComparison extends Comparison {
+    ShortComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Short.compare(left.getShort(rowId), right.getShort(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      short constant = (Short) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Short.compare(left.getShort(rowId), constant);
+        }
+      }
+    }
+  }
+
+  private static class IntComparison extends Comparison {
+    IntComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Integer.compare(left.getInt(rowId), right.getInt(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      int constant = (Integer) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Integer.compare(left.getInt(rowId), constant);
+        }
+      }
+    }
+  }
+
+  private static class LongComparison extends Comparison {
+    LongComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Long.compare(left.getLong(rowId), right.getLong(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      long constant = (Long) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Long.compare(left.getLong(rowId), constant);
+        }
+      }
+    }
+  }
+
+  private static class FloatComparison extends Comparison {
+    FloatComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Float.compare(left.getFloat(rowId), right.getFloat(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      float constant = (Float) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Float.compare(left.getFloat(rowId), constant);
+        }
+      }
+    }
+  }
+
+  private static class DoubleComparison extends Comparison {
+    DoubleComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Double.compare(left.getDouble(rowId), right.getDouble(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      double constant = (Double) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = Double.compare(left.getDouble(rowId), constant);
+        }
+      }
+    }
+  }
+
+  private static class DecimalComparison extends Comparison {
+    DecimalComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = left.getDecimal(rowId).compareTo(right.getDecimal(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      BigDecimal constant = (BigDecimal) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = left.getDecimal(rowId).compareTo(constant);
+        }
+      }
+    }
+  }
+
+  /**
+   * Strings are compared by their UTF-8 bytes, like {@link DefaultExpressionUtils}. The values of
+   * the {@link DefaultUtf8Vector}s are compared without decoding them.
+   */
+  private static class StringComparison extends Comparison {
+    private final boolean isEquality;
+
+    StringComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+      this.isEquality = op == ComparisonOp.EQ;
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      if (left instanceof DefaultUtf8Vector && right instanceof DefaultUtf8Vector) {
+        DefaultUtf8Vector leftUtf8 = (DefaultUtf8Vector) left;
+        DefaultUtf8Vector rightUtf8 = (DefaultUtf8Vector) right;
+        byte[] leftBuffer = leftUtf8.getBuffer();
+        byte[] rightBuffer = rightUtf8.getBuffer();
+        for (int rowId = 0; rowId < isNull.length; rowId++) {
+          if (!isNull[rowId]) {
+            result[rowId] =
+                compareBytes(
+                    leftBuffer,
+                    leftUtf8.getStart(rowId),
+                    leftUtf8.getEnd(rowId),
+                    rightBuffer,
+                    rightUtf8.getStart(rowId),
+                    rightUtf8.getEnd(rowId));
+          }
+        }
+        return;
+      }
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          String leftValue = left.getString(rowId);
+          String rightValue = right.getString(rowId);
+          result[rowId] =
+              isEquality
+                  ? (leftValue.equals(rightValue) ? 0 : 1)
+                  : STRING_COMPARATOR.compare(leftValue, rightValue);
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      String constant = (String) right;
+      if (left instanceof DefaultUtf8Vector) {
+        DefaultUtf8Vector leftUtf8 = (DefaultUtf8Vector) left;
+        byte[] leftBuffer = leftUtf8.getBuffer();
+        byte[] constantBytes = constant.getBytes(StandardCharsets.UTF_8);
+        for (int rowId = 0; rowId < isNull.length; rowId++) {
+          if (!isNull[rowId]) {
+            int start = leftUtf8.getStart(rowId);
+            int end = leftUtf8.getEnd(rowId);
+            result[rowId] =
+                isEquality && end - start != constantBytes.length
+                    ? 1
+                    : compareBytes(leftBuffer, start, end, constantBytes, 0, constantBytes.length);
+          }
+        }
+        return;
+      }
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          String leftValue = left.getString(rowId);
+          result[rowId] =
+              isEquality
+                  ? (constant.equals(leftValue) ? 0 : 1)
+                  : STRING_COMPARATOR.compare(leftValue, constant);
+        }
+      }
+    }
+  }
+
+  private static class BinaryComparison extends Comparison {
+    BinaryComparison(
+        ComparisonOp op, boolean nullSafe, CompiledExpression left, CompiledExpression right) {
+      super(op, nullSafe, left, right);
+    }
+
+    @Override
+    void compare(ColumnVector left, ColumnVector right, boolean[] isNull, int[] result) {
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = BINARY_COMPARTOR.compare(left.getBinary(rowId), right.getBinary(rowId));
+        }
+      }
+    }
+
+    @Override
+    void compare(ColumnVector left, Object right, boolean[] isNull, int[] result) {
+      byte[] constant = (byte[]) right;
+      for (int rowId = 0; rowId < isNull.length; rowId++) {
+        if (!isNull[rowId]) {
+          result[rowId] = BINARY_COMPARTOR.compare(left.getBinary(rowId), constant);
+        }
+      }
+    }
+  }
+
+  /** Value of the numeric result of an implicit cast. */
+  private static Object valueAt(ColumnVector vector, int rowId) {
+    DataType dataType = vector.getDataType();
+    if (dataType instanceof ShortType) {
+      return vector.getShort(rowId);
+    } else if (dataType instanceof IntegerType) {
+      return vector.getInt(rowId);
+    } else if (dataType instanceof LongType) {
+      return vector.getLong(rowId);
+    } else if (dataType instanceof FloatType) {
+      return vector.getFloat(rowId);
+    } else if (dataType instanceof DoubleType) {
+      return vector.getDouble(rowId);
+    }
+    throw new UnsupportedOperationException("Unexpected implicit cast to " + dataType);
+  }
+}
@@ -52,15 +52,7 @@ public class DefaultExpressionEvaluator implements ExpressionEvaluator {
    */
   public DefaultExpressionEvaluator(
       StructType inputSchema, Expression expression, DataType outputType) {
-    ExpressionTransformResult transformResult =
-        new ExpressionTransformer(inputSchema).visit(expression);
-    if (!transformResult.outputType.equivalent(outputType)) {
-      String reason =
-          String.format(
-              "Expression %s does not match expected output type %s", expression, outputType);
-      throw unsupportedExpressionException(expression, reason);
-    }
-    this.expression = transformResult.expression;
+    this.expression = transform(inputSchema, expression, outputType);
   }
 
   @Override
@@ -73,6 +65,22 @@ public class DefaultExpressionEvaluator implements ExpressionEvaluator {
     /* nothing to close */
   }
 
+  /**
+   * Validate the given expression against the input schema and the expected output type, and
+   * rewrite it with the implicit casts needed to evaluate it. See {@link ExpressionTransformer}.
+   */
+  static Expression transform(StructType inputSchema, Expression expression, DataType outputType) {
+    ExpressionTransformResult transformResult =
+        new ExpressionTransformer(inputSchema).visit(expression);
+    if (!transformResult.outputType.equivalent(outputType)) {
+      String reason =
+          String.format(
+              "Expression %s does not match expected output type %s", expression, outputType);
+      throw unsupportedExpressionException(expression, reason);
+    }
+    return transformResult.expression;
+  }
+
   /** Encapsulates the result of {@link ExpressionTransformer} */
   private static class ExpressionTransformResult {
     public final Expression expression; // transformed expression
@@ -299,6 +307,19 @@ public class DefaultExpressionEvaluator implements ExpressionEvaluator {
       return new ExpressionTransformResult(transformedExpression, BooleanType.BOOLEAN);
     }
 
+    @Override
+    ExpressionTransformResult visitStartsWith(final Predicate startsWith) {
+      List<ExpressionTransformResult> children =
+          startsWith.getChildren().stream().map(this::visit).collect(toList());
+      Predicate transformedExpression =
+          StartsWithExpressionEvaluator.validateAndTransform(
+              startsWith,
+              children.stream().map(e -> e.expression).collect(toList()),
+              children.stream().map(e -> e.outputType).collect(toList()));
+
+      return new ExpressionTransformResult(transformedExpression, BooleanType.BOOLEAN);
+    }
+
     private Predicate validateIsPredicate(
         Expression baseExpression, ExpressionTransformResult result) {
       checkArgument(
@@ -336,7 +357,7 @@ public class DefaultExpressionEvaluator implements ExpressionEvaluator {
   /**
    * Implementation of {@link ExpressionVisitor} to evaluate expression on a {@link ColumnarBatch}.
    */
-  private static class ExpressionEvalVisitor extends ExpressionVisitor<ColumnVector> {
+  static class ExpressionEvalVisitor extends ExpressionVisitor<ColumnVector> {
     private final ColumnarBatch input;
 
     ExpressionEvalVisitor(ColumnarBatch input) {
@@ -610,6 +631,12 @@ public class DefaultExpressionEvaluator implements ExpressionEvaluator {
           children, children.stream().map(this::visit).collect(toList()));
     }
 
+    @Override
+    ColumnVector visitStartsWith(final Predicate startsWith) {
+      return StartsWithExpressionEvaluator.eval(
+          startsWith.getChildren().stream().map(this::visit).collect(toList()));
+    }
+
     /**
      * Utility method to evaluate inputs to the binary input expression. Also validates the
      * evaluated expression result {@link ColumnVector}s are of the same size.
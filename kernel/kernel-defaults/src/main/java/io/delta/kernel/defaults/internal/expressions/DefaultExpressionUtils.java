@@ -20,6 +20,8 @@ import static io.delta.kernel.internal.util.Preconditions.checkArgument;
 import io.delta.kernel.data.ArrayValue;
 import io.delta.kernel.data.ColumnVector;
 import io.delta.kernel.data.MapValue;
+import io.delta.kernel.defaults.internal.data.vector.DefaultConstantVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultUtf8Vector;
 import io.delta.kernel.expressions.Expression;
 import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.types.*;
@@ -36,25 +38,63 @@ class DefaultExpressionUtils {
 
   static final Comparator<BigDecimal> BIGDECIMAL_COMPARATOR = Comparator.naturalOrder();
   static final Comparator<byte[]> BINARY_COMPARTOR =
+      (leftOp, rightOp) -> compareBytes(leftOp, 0, leftOp.length, rightOp, 0, rightOp.length);
+
+  /**
+   * Strings are compared by their UTF-8 bytes, which is the order of their code points. Instead of
+   * encoding both strings, the UTF-16 chars are compared with the surrogates moved after the other
+   * chars, which gives the same order for well-formed strings.
+   */
+  static final Comparator<String> STRING_COMPARATOR =
       (leftOp, rightOp) -> {
-        int i = 0;
-        while (i < leftOp.length && i < rightOp.length) {
-          if (leftOp[i] != rightOp[i]) {
-            return Byte.toUnsignedInt(leftOp[i]) - Byte.toUnsignedInt(rightOp[i]);
+        int length = Math.min(leftOp.length(), rightOp.length());
+        for (int i = 0; i < length; i++) {
+          char leftChar = leftOp.charAt(i);
+          char rightChar = rightOp.charAt(i);
+          if (leftChar != rightChar) {
+            return codePointOrder(leftChar) - codePointOrder(rightChar);
           }
-          i++;
         }
-        return Integer.compare(leftOp.length, rightOp.length);
-      };
-  static final Comparator<String> STRING_COMPARATOR =
-      (leftOp, rightOp) -> {
-        byte[] leftBytes = leftOp.getBytes(StandardCharsets.UTF_8);
-        byte[] rightBytes = rightOp.getBytes(StandardCharsets.UTF_8);
-        return BINARY_COMPARTOR.compare(leftBytes, rightBytes);
+        return Integer.compare(leftOp.length(), rightOp.length());
       };
 
   private DefaultExpressionUtils() {}
 
+  /**
+   * Compare the unsigned bytes {@code left[leftFrom, leftTo)} and {@code right[rightFrom, rightTo)}
+   */
+  static int compareBytes(
+      byte[] left, int leftFrom, int leftTo, byte[] right, int rightFrom, int rightTo) {
+    int length = Math.min(leftTo - leftFrom, rightTo - rightFrom);
+    for (int i = 0; i < length; i++) {
+      byte leftByte = left[leftFrom + i];
+      byte rightByte = right[rightFrom + i];
+      if (leftByte != rightByte) {
+        return Byte.toUnsignedInt(leftByte) - Byte.toUnsignedInt(rightByte);
+      }
+    }
+    return Integer.compare(leftTo - leftFrom, rightTo - rightFrom);
+  }
+
+  /**
+   * Return the UTF-8 bytes of the value of the given vector if all its values are the same non-null
+   * string (i.e. a literal), otherwise null.
+   */
+  static byte[] constantUtf8(ColumnVector vector) {
+    if (vector instanceof DefaultConstantVector && vector.getSize() > 0 && !vector.isNullAt(0)) {
+      return vector.getString(0).getBytes(StandardCharsets.UTF_8);
+    }
+    return null;
+  }
+
+  private static int codePointOrder(char c) {
+    if (c < Character.MIN_SURROGATE) {
+      return c;
+    }
+    // [U+E000, U+FFFF] before the surrogates of the code points after U+FFFF
+    return c > Character.MAX_SURROGATE ? c - 0x800 : c + 0x2000;
+  }
+
   /**
    * Utility method that calculates the nullability result from given two vectors. Result is null if
    * at least one side is a null.
@@ -155,10 +195,7 @@ class DefaultExpressionUtils {
               booleanComparator.test(
                   BIGDECIMAL_COMPARATOR.compare(left.getDecimal(rowId), right.getDecimal(rowId)));
     } else if (dataType instanceof StringType) {
-      vectorValueComparator =
-          rowId ->
-              booleanComparator.test(
-                  STRING_COMPARATOR.compare(left.getString(rowId), right.getString(rowId)));
+      vectorValueComparator = getStringComparator(left, right, booleanComparator);
     } else if (dataType instanceof BinaryType) {
       vectorValueComparator =
           rowId ->
@@ -171,6 +208,56 @@ class DefaultExpressionUtils {
     return vectorValueComparator;
   }
 
+  /**
+   * String comparator that compares the UTF-8 bytes of the {@link DefaultUtf8Vector}s and the
+   * literals without decoding the values.
+   */
+  private static IntPredicate getStringComparator(
+      ColumnVector left, ColumnVector right, IntPredicate booleanComparator) {
+    if (left instanceof DefaultUtf8Vector && right instanceof DefaultUtf8Vector) {
+      DefaultUtf8Vector leftUtf8 = (DefaultUtf8Vector) left;
+      DefaultUtf8Vector rightUtf8 = (DefaultUtf8Vector) right;
+      return rowId ->
+          booleanComparator.test(
+              compareBytes(
+                  leftUtf8.getBuffer(),
+                  leftUtf8.getStart(rowId),
+                  leftUtf8.getEnd(rowId),
+                  rightUtf8.getBuffer(),
+                  rightUtf8.getStart(rowId),
+                  rightUtf8.getEnd(rowId)));
+    }
+    byte[] rightConstant = constantUtf8(right);
+    if (left instanceof DefaultUtf8Vector && rightConstant != null) {
+      DefaultUtf8Vector leftUtf8 = (DefaultUtf8Vector) left;
+      return rowId ->
+          booleanComparator.test(
+              compareBytes(
+                  leftUtf8.getBuffer(),
+                  leftUtf8.getStart(rowId),
+                  leftUtf8.getEnd(rowId),
+                  rightConstant,
+                  0,
+                  rightConstant.length));
+    }
+    byte[] leftConstant = constantUtf8(left);
+    if (leftConstant != null && right instanceof DefaultUtf8Vector) {
+      DefaultUtf8Vector rightUtf8 = (DefaultUtf8Vector) right;
+      return rowId ->
+          booleanComparator.test(
+              compareBytes(
+                  leftConstant,
+                  0,
+                  leftConstant.length,
+                  rightUtf8.getBuffer(),
+                  rightUtf8.getStart(rowId),
+                  rightUtf8.getEnd(rowId)));
+    }
+    return rowId ->
+        booleanComparator.test(
+            STRING_COMPARATOR.compare(left.getString(rowId), right.getString(rowId)));
+  }
+
   /**
    * Utility method to create a column vector that lazily evaluate the comparator ex. (ie. ==, >=,
    * <=......) for left and right column vector according to the natural ordering of numbers
@@ -18,6 +18,7 @@ package io.delta.kernel.defaults.internal.expressions;
 import io.delta.kernel.data.ColumnVector;
 import io.delta.kernel.data.ColumnarBatch;
 import io.delta.kernel.defaults.internal.data.vector.DefaultConstantVector;
+import io.delta.kernel.engine.ExpressionHandler;
 import io.delta.kernel.expressions.*;
 import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.types.BooleanType;
@@ -40,17 +41,37 @@ public class DefaultPredicateEvaluator implements PredicateEvaluator {
   private final ExpressionEvaluator expressionEvaluator;
 
   public DefaultPredicateEvaluator(StructType inputSchema, Predicate predicate) {
+    this(
+        new DefaultExpressionEvaluator(
+            rewriteInputSchema(inputSchema), rewritePredicate(predicate), BooleanType.BOOLEAN));
+  }
+
+  /**
+   * Create a predicate evaluator that evaluates the rewritten predicate with the evaluator of the
+   * given {@link ExpressionHandler}, e.g. a {@link CompiledExpressionEvaluator}.
+   */
+  public DefaultPredicateEvaluator(
+      StructType inputSchema, Predicate predicate, ExpressionHandler expressionHandler) {
+    this(
+        expressionHandler.getEvaluator(
+            rewriteInputSchema(inputSchema), rewritePredicate(predicate), BooleanType.BOOLEAN));
+  }
+
+  private DefaultPredicateEvaluator(ExpressionEvaluator expressionEvaluator) {
+    this.expressionEvaluator = expressionEvaluator;
+  }
+
+  private static Predicate rewritePredicate(Predicate predicate) {
     // Create a predicate that takes into account of the selection value in existing selection
     // vector in addition to the given predicate. This is needed to make a row remain
     // unselected in the final vector when it is unselected in existing selection vector.
-    Predicate rewrittenPredicate =
-        new And(
-            new Predicate("=", new Column(EXISTING_SEL_VECTOR_COL_NAME), Literal.ofBoolean(true)),
-            predicate);
-    StructType rewrittenInputSchema = inputSchema.add(EXISTING_SEL_VECTOR_FIELD);
-    this.expressionEvaluator =
-        new DefaultExpressionEvaluator(
-            rewrittenInputSchema, rewrittenPredicate, BooleanType.BOOLEAN);
+    return new And(
+        new Predicate("=", new Column(EXISTING_SEL_VECTOR_COL_NAME), Literal.ofBoolean(true)),
+        predicate);
+  }
+
+  private static StructType rewriteInputSchema(StructType inputSchema) {
+    return inputSchema.add(EXISTING_SEL_VECTOR_FIELD);
   }
 
   @Override
@@ -19,6 +19,7 @@ import static io.delta.kernel.defaults.internal.DefaultEngineErrors.invalidEscap
 import static io.delta.kernel.defaults.internal.DefaultEngineErrors.unsupportedExpressionException;
 
 import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultUtf8Vector;
 import io.delta.kernel.expressions.Expression;
 import io.delta.kernel.expressions.Literal;
 import io.delta.kernel.expressions.Predicate;
@@ -26,6 +27,7 @@ import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.types.BooleanType;
 import io.delta.kernel.types.DataType;
 import io.delta.kernel.types.StringType;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -92,6 +94,8 @@ public class LikeExpressionEvaluator {
 
       Character escapeChar = null;
       String regexCache = null;
+      // pattern matched on the bytes of the DefaultUtf8Vector inputs, if the pattern is a literal
+      int[] utf8PatternCache = null;
 
       public void initEscapeCharIfRequired() {
         if (escapeChar == null) {
@@ -120,6 +124,17 @@ public class LikeExpressionEvaluator {
       @Override
       public boolean getBoolean(int rowId) {
         initEscapeCharIfRequired();
+        if (isPatternLiteralType && left instanceof DefaultUtf8Vector) {
+          if (left.isNullAt(rowId) || right.isNullAt(rowId)) {
+            return false;
+          }
+          if (utf8PatternCache == null) {
+            utf8PatternCache = compileUtf8Pattern(right.getString(rowId), escapeChar);
+          }
+          DefaultUtf8Vector input = (DefaultUtf8Vector) left;
+          return isLikeUtf8(
+              input.getBuffer(), input.getStart(rowId), input.getEnd(rowId), utf8PatternCache);
+        }
         return isLike(left.getString(rowId), right.getString(rowId), escapeChar);
       }
 
@@ -149,6 +164,103 @@ public class LikeExpressionEvaluator {
     };
   }
 
+  /** Element of a compiled UTF-8 pattern that matches any character (i.e. {@code _}) */
+  private static final int ANY_CHAR = -1;
+  /** Element of a compiled UTF-8 pattern that matches any sequence of characters ({@code %}) */
+  private static final int ANY_CHARS = -2;
+
+  /**
+   * Utility method to convert a predicate pattern to a sequence of UTF-8 bytes to match (as
+   * unsigned values), {@link #ANY_CHAR}s and {@link #ANY_CHARS}s.
+   *
+   * @param pattern the pattern used in the expression
+   * @param escape escape character to use
+   * @return compiled pattern
+   */
+  private static int[] compileUtf8Pattern(String pattern, char escape) {
+    int[] compiled = new int[pattern.length() * 4];
+    int length = 0;
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      String literal;
+      if (c == escape) {
+        if (i == (pattern.length() - 1)) {
+          throw invalidEscapeSequence(pattern, i);
+        }
+        char nextChar = pattern.charAt(i + 1);
+        if ((nextChar == '_') || (nextChar == '%') || (nextChar == escape)) {
+          literal = Character.toString(nextChar);
+          i++;
+        } else {
+          throw invalidEscapeSequence(pattern, i);
+        }
+      } else if (c == '_') {
+        compiled[length++] = ANY_CHAR;
+        continue;
+      } else if (c == '%') {
+        compiled[length++] = ANY_CHARS;
+        continue;
+      } else if (Character.isHighSurrogate(c) && i + 1 < pattern.length()) {
+        literal = pattern.substring(i, i + 2);
+        i++;
+      } else {
+        literal = Character.toString(c);
+      }
+      for (byte b : literal.getBytes(StandardCharsets.UTF_8)) {
+        compiled[length++] = Byte.toUnsignedInt(b);
+      }
+    }
+    return Arrays.copyOf(compiled, length);
+  }
+
+  /**
+   * Match the UTF-8 bytes {@code input[from, to)} with a pattern compiled by {@link
+   * #compileUtf8Pattern}. On a mismatch, the last {@link #ANY_CHARS} is retried with one more
+   * character, which is enough as it can match anything the previous ones would have.
+   */
+  private static boolean isLikeUtf8(byte[] input, int from, int to, int[] pattern) {
+    int patternIndex = 0;
+    int inputIndex = from;
+    int lastAnyCharsIndex = -1;
+    int lastAnyCharsInputIndex = -1;
+    while (inputIndex < to) {
+      boolean hasElement = patternIndex < pattern.length;
+      int element = hasElement ? pattern[patternIndex] : 0;
+      if (hasElement && element >= 0 && element == Byte.toUnsignedInt(input[inputIndex])) {
+        patternIndex++;
+        inputIndex++;
+      } else if (hasElement && element == ANY_CHAR) {
+        patternIndex++;
+        inputIndex += utf8CharLength(input[inputIndex]);
+      } else if (hasElement && element == ANY_CHARS) {
+        lastAnyCharsIndex = patternIndex++;
+        lastAnyCharsInputIndex = inputIndex;
+      } else if (lastAnyCharsIndex >= 0) {
+        patternIndex = lastAnyCharsIndex + 1;
+        lastAnyCharsInputIndex += utf8CharLength(input[lastAnyCharsInputIndex]);
+        inputIndex = lastAnyCharsInputIndex;
+      } else {
+        return false;
+      }
+    }
+    while (patternIndex < pattern.length && pattern[patternIndex] == ANY_CHARS) {
+      patternIndex++;
+    }
+    return inputIndex == to && patternIndex == pattern.length;
+  }
+
+  /** Number of bytes of the UTF-8 encoded character starting with the given byte. */
+  private static int utf8CharLength(byte firstByte) {
+    if ((firstByte & 0xE0) == 0xC0) {
+      return 2;
+    } else if ((firstByte & 0xF0) == 0xE0) {
+      return 3;
+    } else if ((firstByte & 0xF8) == 0xF0) {
+      return 4;
+    }
+    return 1;
+  }
+
   /**
    * utility method to convert a predicate pattern to a java regex
    *
@@ -177,6 +289,10 @@ public class LikeExpressionEvaluator {
         javaPattern.append('.');
       } else if (c == '%') {
         javaPattern.append(".*");
+      } else if (Character.isHighSurrogate(c) && i + 1 < len) {
+        // quote the surrogate pair together, otherwise it can't match the character
+        javaPattern.append(Pattern.quote(pattern.substring(i, i + 2)));
+        i++;
       } else {
         javaPattern.append(Pattern.quote(Character.toString(c)));
       }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.expressions;
+
+import static io.delta.kernel.defaults.internal.DefaultEngineErrors.unsupportedExpressionException;
+import static io.delta.kernel.defaults.internal.expressions.DefaultExpressionUtils.constantUtf8;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultUtf8Vector;
+import io.delta.kernel.expressions.Expression;
+import io.delta.kernel.expressions.Predicate;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.types.BooleanType;
+import io.delta.kernel.types.DataType;
+import io.delta.kernel.types.StringType;
+import java.util.List;
+
+/** Utility methods to evaluate {@code starts_with} expression. */
+public class StartsWithExpressionEvaluator {
+  private StartsWithExpressionEvaluator() {}
+
+  static Predicate validateAndTransform(
+      Predicate startsWith,
+      List<Expression> childrenExpressions,
+      List<DataType> childrenOutputTypes) {
+    if (childrenExpressions.size() != 2) {
+      throw unsupportedExpressionException(
+          startsWith,
+          "Invalid number of inputs to STARTS_WITH expression. "
+              + "Example usage: STARTS_WITH(column, 'test')");
+    }
+    if (!(StringType.STRING.equivalent(childrenOutputTypes.get(0))
+        && StringType.STRING.equivalent(childrenOutputTypes.get(1)))) {
+      throw unsupportedExpressionException(
+          startsWith, "STARTS_WITH is only supported for string type expressions");
+    }
+    return new Predicate(startsWith.getName(), childrenExpressions);
+  }
+
+  static ColumnVector eval(List<ColumnVector> childrenVectors) {
+    ColumnVector left = childrenVectors.get(0);
+    ColumnVector right = childrenVectors.get(1);
+    // prefix compared with the bytes of the DefaultUtf8Vector inputs, if it is a literal
+    byte[] constantPrefix = constantUtf8(right);
+
+    return new ColumnVector() {
+      @Override
+      public DataType getDataType() {
+        return BooleanType.BOOLEAN;
+      }
+
+      @Override
+      public int getSize() {
+        return left.getSize();
+      }
+
+      @Override
+      public void close() {
+        Utils.closeCloseables(left, right);
+      }
+
+      @Override
+      public boolean isNullAt(int rowId) {
+        return left.isNullAt(rowId) || right.isNullAt(rowId);
+      }
+
+      @Override
+      public boolean getBoolean(int rowId) {
+        if (isNullAt(rowId)) {
+          return false;
+        }
+        if (constantPrefix != null && left instanceof DefaultUtf8Vector) {
+          DefaultUtf8Vector input = (DefaultUtf8Vector) left;
+          return startsWith(
+              input.getBuffer(), input.getStart(rowId), input.getEnd(rowId), constantPrefix);
+        }
+        // the UTF-16 chars of a prefix are a prefix of the chars, like for the UTF-8 bytes
+        return left.getString(rowId).startsWith(right.getString(rowId));
+      }
+    };
+  }
+
+  private static boolean startsWith(byte[] input, int from, int to, byte[] prefix) {
+    if (to - from < prefix.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (input[from + i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.json;
+
+import static java.lang.String.format;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.internal.data.DefaultColumnarBatch;
+import io.delta.kernel.defaults.internal.json.JsonColumnReaders.StructColumnReader;
+import io.delta.kernel.types.StructType;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming, schema driven reader of JSON objects into {@link ColumnarBatch}es.
+ *
+ * <p>Unlike parsing each JSON object into a {@link com.fasterxml.jackson.databind.JsonNode} tree
+ * and wrapping it as a row, this reader walks the tokens of a {@link JsonParser} once and writes
+ * the values straight into the primitive arrays backing the column vectors. Subtrees that are not
+ * part of the read schema (e.g. {@code add.stats} when the stats are not requested) are skipped by
+ * the parser without materializing them.
+ *
+ * <p>Usage: call {@link #readRow(JsonParser)} (or {@link #appendNullRow()}) for each row of the
+ * batch and then {@link #buildBatch()} to get the rows read so far as a batch. The reader can be
+ * reused for the next batch after calling {@link #buildBatch()}.
+ */
+public class JsonBatchReader {
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final StructType schema;
+  private final StructColumnReader rootReader;
+  private int currentBatchSize;
+
+  /**
+   * @param schema Schema of the JSON objects to read. Fields not in the schema are ignored.
+   * @param initialBatchSize Initial capacity of the column vectors. The vectors grow as needed.
+   */
+  public JsonBatchReader(StructType schema, int initialBatchSize) {
+    this.schema = schema;
+    this.rootReader = new StructColumnReader(schema, initialBatchSize);
+  }
+
+  /**
+   * Create a parser that reads a sequence of whitespace (e.g. newline) separated JSON objects from
+   * the given stream. Closing the parser closes the stream.
+   */
+  public static JsonParser createParser(InputStream stream) throws IOException {
+    return JSON_FACTORY.createParser(stream);
+  }
+
+  /** Create a parser that reads the JSON objects in the given string. */
+  public static JsonParser createParser(String json) throws IOException {
+    return JSON_FACTORY.createParser(json);
+  }
+
+  /**
+   * Read the next JSON object from the parser as a row of the current batch.
+   *
+   * @return false if there are no more objects in the parser input, true otherwise.
+   */
+  public boolean readRow(JsonParser parser) throws IOException {
+    JsonToken token = parser.nextToken();
+    if (token == null) {
+      return false;
+    }
+    if (token != JsonToken.START_OBJECT) {
+      throw new RuntimeException(
+          format("Couldn't decode %s, expected a JSON object", parser.getText()));
+    }
+    rootReader.readFields(parser);
+    currentBatchSize++;
+    return true;
+  }
+
+  /** Append a row with all columns set to null to the current batch. */
+  public void appendNullRow() {
+    rootReader.appendNullFields();
+    currentBatchSize++;
+  }
+
+  /** @return Number of rows read into the current batch. */
+  public int getCurrentBatchSize() {
+    return currentBatchSize;
+  }
+
+  /** Return the rows read since the last call as a {@link ColumnarBatch} and reset the state. */
+  public ColumnarBatch buildBatch() {
+    int size = currentBatchSize;
+    currentBatchSize = 0;
+    return new DefaultColumnarBatch(size, schema, rootReader.getFieldVectors());
+  }
+}
@@ -0,0 +1,803 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.json;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static java.lang.String.format;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.defaults.internal.DefaultKernelUtils;
+import io.delta.kernel.defaults.internal.data.vector.*;
+import io.delta.kernel.internal.util.InternalUtils;
+import io.delta.kernel.types.*;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JSON column readers for materializing the values from a streaming Jackson {@link JsonParser}
+ * directly into Kernel's {@link ColumnVector}s. General operation flow is:
+ *
+ * <ul>
+ *   <li>each reader implementation allocates state to receive a fixed number of column values
+ *   <li>before accepting a new value the state is resized if it is not of sufficient size
+ *   <li>{@link BaseColumnReader#read(JsonParser)} is called with the parser positioned at the first
+ *       token of the value (a scalar token, {@code START_OBJECT} or {@code START_ARRAY}) and
+ *       returns with the parser positioned at the last token of the value.
+ *   <li>{@link BaseColumnReader#getDataColumnVector()} hands the accumulated values over to a
+ *       vector and resets the working state for the next batch.
+ * </ul>
+ *
+ * <p>Value decoding rules (accepted tokens, range checks, special float values and error messages)
+ * are the same as the ones in {@link io.delta.kernel.defaults.internal.data.DefaultJsonRow}.
+ */
+class JsonColumnReaders {
+  private JsonColumnReaders() {}
+
+  static BaseColumnReader createReader(DataType dataType, int initialBatchSize) {
+    if (dataType instanceof StructType) {
+      return new StructColumnReader((StructType) dataType, initialBatchSize);
+    } else if (dataType instanceof ArrayType) {
+      return new ArrayColumnReader((ArrayType) dataType, initialBatchSize);
+    } else if (dataType instanceof MapType) {
+      return new MapColumnReader((MapType) dataType, initialBatchSize);
+    } else if (dataType instanceof StringType) {
+      return new StringColumnReader(initialBatchSize);
+    } else if (dataType instanceof BooleanType) {
+      return new BooleanColumnReader(initialBatchSize);
+    } else if (dataType instanceof ByteType) {
+      return new ByteColumnReader(initialBatchSize);
+    } else if (dataType instanceof ShortType) {
+      return new ShortColumnReader(initialBatchSize);
+    } else if (dataType instanceof IntegerType || dataType instanceof DateType) {
+      return new IntColumnReader(dataType, initialBatchSize);
+    } else if (dataType instanceof LongType
+        || dataType instanceof TimestampType
+        || dataType instanceof TimestampNTZType) {
+      return new LongColumnReader(dataType, initialBatchSize);
+    } else if (dataType instanceof FloatType) {
+      return new FloatColumnReader(initialBatchSize);
+    } else if (dataType instanceof DoubleType) {
+      return new DoubleColumnReader(initialBatchSize);
+    } else if (dataType instanceof DecimalType) {
+      return new DecimalColumnReader(dataType, initialBatchSize);
+    }
+    // Same as the row based JSON reader: fail only when a non-null value is found for the column
+    return new UnsupportedColumnReader(dataType, initialBatchSize);
+  }
+
+  static RuntimeException typeMismatch(JsonParser parser, String expType) throws IOException {
+    String value =
+        parser.currentToken() == JsonToken.VALUE_STRING
+            ? "\"" + parser.getText() + "\""
+            : parser.getText();
+    return new RuntimeException(format("Couldn't decode %s, expected a %s", value, expType));
+  }
+
+  /** Base class for all JSON column readers. */
+  abstract static class BaseColumnReader {
+    protected final DataType dataType;
+    // working state
+    protected int currentRowIndex;
+    protected boolean[] nullability;
+
+    BaseColumnReader(DataType dataType, int initialBatchSize) {
+      checkArgument(initialBatchSize > 0, "invalid initialBatchSize: %s", initialBatchSize);
+      this.dataType = dataType;
+      this.nullability = new boolean[initialBatchSize];
+    }
+
+    /**
+     * Read the value the parser is currently positioned at and append it to this column. A JSON
+     * {@code null} is appended as a null value.
+     */
+    final void read(JsonParser parser) throws IOException {
+      if (parser.currentToken() == JsonToken.VALUE_NULL) {
+        appendNull();
+      } else {
+        resizeIfNeeded();
+        readNonNullValue(parser);
+        nullability[currentRowIndex] = false;
+        currentRowIndex++;
+      }
+    }
+
+    void appendNull() {
+      resizeIfNeeded();
+      nullability[currentRowIndex] = true;
+      currentRowIndex++;
+    }
+
+    int getCurrentSize() {
+      return currentRowIndex;
+    }
+
+    boolean isLastValueNull() {
+      return nullability[currentRowIndex - 1];
+    }
+
+    /** Drop the values after the first {@code size} ones, e.g. to read the last one again. */
+    void truncate(int size) {
+      this.currentRowIndex = size;
+    }
+
+    /**
+     * Decode the non-null value at the current parser position into slot {@code currentRowIndex}
+     */
+    abstract void readNonNullValue(JsonParser parser) throws IOException;
+
+    /** Return the values accumulated so far as a vector and reset the working state. */
+    abstract ColumnVector getDataColumnVector();
+
+    /** Grow the value arrays to the given capacity. */
+    abstract void resizeValues(int newSize);
+
+    protected Optional<boolean[]> takeNullability() {
+      boolean[] result = nullability;
+      this.nullability = new boolean[nullability.length];
+      this.currentRowIndex = 0;
+      return Optional.of(result);
+    }
+
+    private void resizeIfNeeded() {
+      if (nullability.length == currentRowIndex) {
+        int newSize = nullability.length * 2;
+        this.nullability = Arrays.copyOf(nullability, newSize);
+        resizeValues(newSize);
+      }
+    }
+  }
+
+  static class BooleanColumnReader extends BaseColumnReader {
+    private boolean[] values;
+
+    BooleanColumnReader(int initialBatchSize) {
+      super(BooleanType.BOOLEAN, initialBatchSize);
+      this.values = new boolean[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      JsonToken token = parser.currentToken();
+      if (token != JsonToken.VALUE_TRUE && token != JsonToken.VALUE_FALSE) {
+        throw typeMismatch(parser, "boolean");
+      }
+      values[currentRowIndex] = token == JsonToken.VALUE_TRUE;
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector = new DefaultBooleanVector(size, takeNullability(), values);
+      this.values = new boolean[values.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  static class ByteColumnReader extends BaseColumnReader {
+    private byte[] values;
+
+    ByteColumnReader(int initialBatchSize) {
+      super(ByteType.BYTE, initialBatchSize);
+      this.values = new byte[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      values[currentRowIndex] =
+          (byte) readExactIntegral(parser, Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector = new DefaultByteVector(size, takeNullability(), values);
+      this.values = new byte[values.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  static class ShortColumnReader extends BaseColumnReader {
+    private short[] values;
+
+    ShortColumnReader(int initialBatchSize) {
+      super(ShortType.SHORT, initialBatchSize);
+      this.values = new short[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      values[currentRowIndex] =
+          (short) readExactIntegral(parser, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector = new DefaultShortVector(size, takeNullability(), values);
+      this.values = new short[values.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  /** Reader for {@code integer} and {@code date} (days since epoch) columns. */
+  static class IntColumnReader extends BaseColumnReader {
+    private int[] values;
+
+    IntColumnReader(DataType dataType, int initialBatchSize) {
+      super(dataType, initialBatchSize);
+      this.values = new int[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      if (dataType instanceof DateType) {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+          throw typeMismatch(parser, "date");
+        }
+        values[currentRowIndex] = InternalUtils.daysSinceEpoch(Date.valueOf(parser.getText()));
+      } else {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT
+            || parser.getNumberType() != JsonParser.NumberType.INT) {
+          throw typeMismatch(parser, "integer");
+        }
+        values[currentRowIndex] = parser.getIntValue();
+      }
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector = new DefaultIntVector(dataType, size, takeNullability(), values);
+      this.values = new int[values.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  /** Reader for {@code long}, {@code timestamp} and {@code timestamp_ntz} columns. */
+  static class LongColumnReader extends BaseColumnReader {
+    private long[] values;
+
+    LongColumnReader(DataType dataType, int initialBatchSize) {
+      super(dataType, initialBatchSize);
+      this.values = new long[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      if (dataType instanceof TimestampType) {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+          throw typeMismatch(parser, "timestamp");
+        }
+        Instant time = OffsetDateTime.parse(parser.getText()).toInstant();
+        values[currentRowIndex] = ChronoUnit.MICROS.between(Instant.EPOCH, time);
+      } else if (dataType instanceof TimestampNTZType) {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+          throw typeMismatch(parser, "timestamp_ntz");
+        }
+        values[currentRowIndex] = DefaultKernelUtils.parseTimestampNTZ(parser.getText());
+      } else {
+        if (parser.currentToken() != JsonToken.VALUE_NUMBER_INT
+            || parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+          throw typeMismatch(parser, "long");
+        }
+        values[currentRowIndex] = parser.getLongValue();
+      }
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector = new DefaultLongVector(dataType, size, takeNullability(), values);
+      this.values = new long[values.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  static class FloatColumnReader extends BaseColumnReader {
+    private float[] values;
+
+    FloatColumnReader(int initialBatchSize) {
+      super(FloatType.FLOAT, initialBatchSize);
+      this.values = new float[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      JsonToken token = parser.currentToken();
+      if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+        // floatValue will be converted to +/-INF if it cannot be represented by a float
+        float value = parser.getFloatValue();
+        if (Float.isInfinite(value)) {
+          throw typeMismatch(parser, "float");
+        }
+        values[currentRowIndex] = value;
+      } else if (token == JsonToken.VALUE_STRING) {
+        values[currentRowIndex] = (float) parseSpecialFloatingValue(parser, "float");
+      } else {
+        throw typeMismatch(parser, "float");
+      }
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector = new DefaultFloatVector(size, takeNullability(), values);
+      this.values = new float[values.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  static class DoubleColumnReader extends BaseColumnReader {
+    private double[] values;
+
+    DoubleColumnReader(int initialBatchSize) {
+      super(DoubleType.DOUBLE, initialBatchSize);
+      this.values = new double[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      JsonToken token = parser.currentToken();
+      if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+        // doubleValue will be converted to +/-INF if it cannot be represented by a double
+        double value = parser.getDoubleValue();
+        if (Double.isInfinite(value)) {
+          throw typeMismatch(parser, "double");
+        }
+        values[currentRowIndex] = value;
+      } else if (token == JsonToken.VALUE_STRING) {
+        values[currentRowIndex] = parseSpecialFloatingValue(parser, "double");
+      } else {
+        throw typeMismatch(parser, "double");
+      }
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector = new DefaultDoubleVector(size, takeNullability(), values);
+      this.values = new double[values.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  static class DecimalColumnReader extends BaseColumnReader {
+    private BigDecimal[] values;
+
+    DecimalColumnReader(DataType dataType, int initialBatchSize) {
+      super(dataType, initialBatchSize);
+      this.values = new BigDecimal[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      JsonToken token = parser.currentToken();
+      if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+        throw typeMismatch(parser, "decimal");
+      }
+      values[currentRowIndex] = parser.getDecimalValue();
+    }
+
+    @Override
+    void appendNull() {
+      super.appendNull();
+      values[currentRowIndex - 1] = null;
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector = new DefaultDecimalVector(dataType, size, values);
+      takeNullability();
+      this.values = new BigDecimal[values.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  static class StringColumnReader extends BaseColumnReader {
+    private String[] values;
+
+    StringColumnReader(int initialBatchSize) {
+      super(StringType.STRING, initialBatchSize);
+      this.values = new String[initialBatchSize];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      if (parser.currentToken() != JsonToken.VALUE_STRING) {
+        throw typeMismatch(parser, "string");
+      }
+      values[currentRowIndex] = parser.getText();
+    }
+
+    /** Append the given non-null value. Used for reading the keys of a map. */
+    void append(String value) {
+      appendNull();
+      nullability[currentRowIndex - 1] = false;
+      values[currentRowIndex - 1] = value;
+    }
+
+    @Override
+    void appendNull() {
+      super.appendNull();
+      values[currentRowIndex - 1] = null;
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      String[] result =
+          values.length == currentRowIndex ? values : Arrays.copyOf(values, currentRowIndex);
+      takeNullability();
+      this.values = new String[values.length];
+      return DefaultGenericVector.fromArray(dataType, result);
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.values = Arrays.copyOf(values, newSize);
+    }
+  }
+
+  static class StructColumnReader extends BaseColumnReader {
+    private final StructType structType;
+    private final BaseColumnReader[] fieldReaders;
+    private final Map<String, Integer> fieldOrdinals;
+    // Fields found in the object currently being read
+    private final boolean[] fieldsSeen;
+
+    StructColumnReader(StructType structType, int initialBatchSize) {
+      super(structType, initialBatchSize);
+      this.structType = structType;
+      this.fieldReaders = new BaseColumnReader[structType.length()];
+      this.fieldOrdinals = new HashMap<>();
+      this.fieldsSeen = new boolean[structType.length()];
+      for (int i = 0; i < structType.length(); i++) {
+        StructField field = structType.at(i);
+        fieldReaders[i] = createReader(field.getDataType(), initialBatchSize);
+        fieldOrdinals.put(field.getName(), i);
+      }
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw typeMismatch(parser, "object");
+      }
+      readFields(parser);
+    }
+
+    /**
+     * Read the fields of the object at the current parser position into the field readers. Fields
+     * that are not part of the struct schema are skipped without decoding them.
+     */
+    void readFields(JsonParser parser) throws IOException {
+      Arrays.fill(fieldsSeen, false);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        Integer ordinal = fieldOrdinals.get(parser.getCurrentName());
+        parser.nextToken();
+        if (ordinal == null) {
+          parser.skipChildren();
+          continue;
+        }
+        if (fieldsSeen[ordinal]) {
+          // Same as the Jackson tree parsing: the last value of a duplicate field wins
+          fieldReaders[ordinal].truncate(fieldReaders[ordinal].getCurrentSize() - 1);
+        }
+        fieldsSeen[ordinal] = true;
+        fieldReaders[ordinal].read(parser);
+      }
+
+      for (int ordinal = 0; ordinal < fieldsSeen.length; ordinal++) {
+        if (!fieldsSeen[ordinal]) {
+          checkNullable(ordinal);
+          fieldReaders[ordinal].appendNull();
+        } else if (fieldReaders[ordinal].isLastValueNull()) {
+          checkNullable(ordinal);
+        }
+      }
+    }
+
+    @Override
+    void appendNull() {
+      super.appendNull();
+      appendNullFields();
+    }
+
+    /** Append a null value to each of the struct members. */
+    void appendNullFields() {
+      for (BaseColumnReader fieldReader : fieldReaders) {
+        fieldReader.appendNull();
+      }
+    }
+
+    /** Return the vectors of each of the struct members and reset the working state. */
+    ColumnVector[] getFieldVectors() {
+      ColumnVector[] fieldVectors = new ColumnVector[fieldReaders.length];
+      for (int i = 0; i < fieldReaders.length; i++) {
+        fieldVectors[i] = fieldReaders[i].getDataColumnVector();
+      }
+      return fieldVectors;
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      return new DefaultStructVector(size, dataType, takeNullability(), getFieldVectors());
+    }
+
+    @Override
+    void truncate(int size) {
+      super.truncate(size);
+      for (BaseColumnReader fieldReader : fieldReaders) {
+        fieldReader.truncate(size);
+      }
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      // member readers resize on their own
+    }
+
+    private void checkNullable(int ordinal) {
+      StructField field = structType.at(ordinal);
+      if (!field.isNullable()) {
+        throw new RuntimeException(
+            format("Root node at key %s is null but field isn't nullable", field.getName()));
+      }
+    }
+  }
+
+  static class ArrayColumnReader extends BaseColumnReader {
+    private final ArrayType arrayType;
+    private final BaseColumnReader elementReader;
+    private int[] offsets;
+
+    ArrayColumnReader(ArrayType arrayType, int initialBatchSize) {
+      super(arrayType, initialBatchSize);
+      this.arrayType = arrayType;
+      this.elementReader = createReader(arrayType.getElementType(), initialBatchSize);
+      this.offsets = new int[initialBatchSize + 1];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      if (parser.currentToken() != JsonToken.START_ARRAY) {
+        throw typeMismatch(parser, "array");
+      }
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (parser.currentToken() == JsonToken.VALUE_NULL && !arrayType.containsNull()) {
+          throw new RuntimeException(
+              "Array type expects no nulls as elements, but received `null` as array element");
+        }
+        elementReader.read(parser);
+      }
+      offsets[currentRowIndex + 1] = elementReader.getCurrentSize();
+    }
+
+    @Override
+    void appendNull() {
+      super.appendNull();
+      offsets[currentRowIndex] = offsets[currentRowIndex - 1];
+    }
+
+    @Override
+    void truncate(int size) {
+      super.truncate(size);
+      elementReader.truncate(offsets[size]);
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector =
+          new DefaultArrayVector(
+              size, dataType, takeNullability(), offsets, elementReader.getDataColumnVector());
+      this.offsets = new int[offsets.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.offsets = Arrays.copyOf(offsets, newSize + 1);
+    }
+  }
+
+  static class MapColumnReader extends BaseColumnReader {
+    private final MapType mapType;
+    private final StringColumnReader keyReader;
+    private final BaseColumnReader valueReader;
+    private int[] offsets;
+
+    MapColumnReader(MapType mapType, int initialBatchSize) {
+      super(mapType, initialBatchSize);
+      if (!(mapType.getKeyType() instanceof StringType)) {
+        throw new RuntimeException(
+            "MapType with a key type of `String` is supported, "
+                + "received a key type: "
+                + mapType.getKeyType());
+      }
+      this.mapType = mapType;
+      this.keyReader = new StringColumnReader(initialBatchSize);
+      this.valueReader = createReader(mapType.getValueType(), initialBatchSize);
+      this.offsets = new int[initialBatchSize + 1];
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw typeMismatch(parser, "map");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        keyReader.append(parser.getCurrentName());
+        if (parser.nextToken() == JsonToken.VALUE_NULL && !mapType.isValueContainsNull()) {
+          throw new RuntimeException(
+              "Map type expects no nulls in values, but received `null` as value");
+        }
+        valueReader.read(parser);
+      }
+      offsets[currentRowIndex + 1] = keyReader.getCurrentSize();
+    }
+
+    @Override
+    void appendNull() {
+      super.appendNull();
+      offsets[currentRowIndex] = offsets[currentRowIndex - 1];
+    }
+
+    @Override
+    void truncate(int size) {
+      super.truncate(size);
+      keyReader.truncate(offsets[size]);
+      valueReader.truncate(offsets[size]);
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      ColumnVector vector =
+          new DefaultMapVector(
+              size,
+              dataType,
+              takeNullability(),
+              offsets,
+              keyReader.getDataColumnVector(),
+              valueReader.getDataColumnVector());
+      this.offsets = new int[offsets.length];
+      return vector;
+    }
+
+    @Override
+    void resizeValues(int newSize) {
+      this.offsets = Arrays.copyOf(offsets, newSize + 1);
+    }
+  }
+
+  /** Reader for the types that can't be decoded from JSON. Only accepts {@code null} values. */
+  static class UnsupportedColumnReader extends BaseColumnReader {
+    UnsupportedColumnReader(DataType dataType, int initialBatchSize) {
+      super(dataType, initialBatchSize);
+    }
+
+    @Override
+    void readNonNullValue(JsonParser parser) throws IOException {
+      throw new UnsupportedOperationException(
+          format("Unsupported DataType %s for JSON value %s", dataType, parser.getText()));
+    }
+
+    @Override
+    ColumnVector getDataColumnVector() {
+      int size = currentRowIndex;
+      takeNullability();
+      return new DefaultConstantVector(dataType, size, null);
+    }
+
+    @Override
+    void resizeValues(int newSize) {}
+  }
+
+  /**
+   * Read an integral value that must fit in the given range. Similar to {@link
+   * com.fasterxml.jackson.databind.JsonNode#canConvertToExactIntegral()}, floating point values
+   * with no fractional part (e.g. {@code 1.0}) are accepted.
+   */
+  private static long readExactIntegral(JsonParser parser, long min, long max, String typeName)
+      throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NUMBER_INT
+        && parser.getNumberType() == JsonParser.NumberType.INT) {
+      int value = parser.getIntValue();
+      if (value >= min && value <= max) {
+        return value;
+      }
+    } else if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+      BigDecimal value = parser.getDecimalValue();
+      if (value.signum() == 0 || value.stripTrailingZeros().scale() <= 0) {
+        if (value.compareTo(BigDecimal.valueOf(min)) >= 0
+            && value.compareTo(BigDecimal.valueOf(max)) <= 0) {
+          return value.longValue();
+        }
+      }
+    }
+    throw typeMismatch(parser, typeName);
+  }
+
+  private static double parseSpecialFloatingValue(JsonParser parser, String typeName)
+      throws IOException {
+    switch (parser.getText()) {
+      case "NaN":
+        return Double.NaN;
+      case "+INF":
+      case "+Infinity":
+      case "Infinity":
+        return Double.POSITIVE_INFINITY;
+      case "-INF":
+      case "-Infinity":
+        return Double.NEGATIVE_INFINITY;
+      default:
+        throw typeMismatch(parser, typeName);
+    }
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.json;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static java.lang.String.format;
+
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.internal.DefaultKernelUtils;
+import io.delta.kernel.exceptions.KernelEngineException;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Reads JSON files ahead of the consumer on a bounded pool of threads.
+ *
+ * <p>Each prefetched file is read completely into memory on one of the pool threads and handed to
+ * the consumer as a list of batches, in the same order as the input files. Two limits bound the
+ * prefetching:
+ *
+ * <ul>
+ *   <li>{@code parallelism}: the number of threads reading the files and also the maximum number of
+ *       files a single {@link #readFiles} call reads ahead of its consumer.
+ *   <li>{@code maxBufferedBytes}: the maximum total size (as given by {@link FileStatus#getSize()})
+ *       of the files that are being read or are read and not yet consumed, across all the {@link
+ *       #readFiles} calls. A file that doesn't fit in the remaining budget is not prefetched, and
+ *       is read lazily on the consumer thread when its turn comes instead.
+ * </ul>
+ *
+ * The budget held by a file is released once the consumer moves past the file or closes the
+ * iterator, and only when its read completed: a read in progress can't be interrupted, so the
+ * memory it fills is accounted for until it is done.
+ */
+public class JsonFilePrefetcher {
+  private final int parallelism;
+  private final long maxBufferedBytes;
+  private final AtomicLong bufferedBytes = new AtomicLong();
+
+  /** Created on first use, so that no threads are started if nothing is prefetched. */
+  private volatile ExecutorService executor;
+
+  public JsonFilePrefetcher(int parallelism, long maxBufferedBytes) {
+    checkArgument(parallelism > 0, "invalid JSON prefetch parallelism: " + parallelism);
+    checkArgument(maxBufferedBytes > 0, "invalid JSON prefetch buffer size: " + maxBufferedBytes);
+    this.parallelism = parallelism;
+    this.maxBufferedBytes = maxBufferedBytes;
+  }
+
+  /**
+   * Read the given files, prefetching the files ahead of the one the consumer is at.
+   *
+   * @param files Files to read.
+   * @param fileReader Function that returns an iterator over the batches of a single file. It is
+   *     called on the prefetch threads or, for the files that are not prefetched, on the consumer
+   *     thread.
+   * @return Iterator over the batches of all given files, in the order of the given files.
+   */
+  public CloseableIterator<ColumnarBatch> readFiles(
+      CloseableIterator<FileStatus> files,
+      Function<FileStatus, CloseableIterator<ColumnarBatch>> fileReader) {
+    return new CloseableIterator<ColumnarBatch>() {
+      /** Files whose read was issued (or deferred), in the order of the input files. */
+      private final LinkedList<PendingFile> pendingFiles = new LinkedList<>();
+
+      private PendingFile currentFile;
+      private CloseableIterator<ColumnarBatch> currentFileIter;
+
+      {
+        issueReads();
+      }
+
+      @Override
+      public boolean hasNext() {
+        while (currentFileIter == null || !currentFileIter.hasNext()) {
+          finishCurrentFile();
+          issueReads();
+          if (pendingFiles.isEmpty()) {
+            return false;
+          }
+          currentFile = pendingFiles.pop();
+          currentFileIter = currentFile.open(fileReader);
+          // keep the pipeline full while the consumer reads the current file
+          issueReads();
+        }
+        return true;
+      }
+
+      @Override
+      public ColumnarBatch next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return currentFileIter.next();
+      }
+
+      @Override
+      public void close() throws IOException {
+        try {
+          finishCurrentFile();
+          pendingFiles.forEach(PendingFile::cancel);
+          pendingFiles.clear();
+        } finally {
+          files.close();
+        }
+      }
+
+      private void issueReads() {
+        while (pendingFiles.size() < parallelism && files.hasNext()) {
+          FileStatus file = files.next();
+          pendingFiles.add(new PendingFile(file, tryReserve(file.getSize()), fileReader));
+        }
+      }
+
+      private void finishCurrentFile() {
+        if (currentFile != null) {
+          PendingFile file = currentFile;
+          CloseableIterator<ColumnarBatch> fileIter = currentFileIter;
+          currentFile = null;
+          currentFileIter = null;
+          try {
+            Utils.closeCloseables(fileIter);
+          } finally {
+            file.cancel();
+          }
+        }
+      }
+    };
+  }
+
+  private ExecutorService getOrCreateExecutor() {
+    if (executor == null) {
+      synchronized (this) {
+        if (executor == null) {
+          executor =
+              DefaultKernelUtils.newDaemonThreadPool("delta-kernel-json-prefetch", parallelism);
+        }
+      }
+    }
+    return executor;
+  }
+
+  private boolean tryReserve(long bytes) {
+    long current;
+    do {
+      current = bufferedBytes.get();
+      if (current + bytes > maxBufferedBytes) {
+        return false;
+      }
+    } while (!bufferedBytes.compareAndSet(current, current + bytes));
+    return true;
+  }
+
+  /** A file whose read was issued to the pool or, if {@code read} is null, deferred. */
+  private class PendingFile {
+    private final FileStatus file;
+    private final CompletableFuture<List<ColumnarBatch>> read;
+    /** Set once the batches are not needed anymore, so that a read not started yet is skipped. */
+    private volatile boolean cancelled;
+
+    PendingFile(
+        FileStatus file,
+        boolean prefetch,
+        Function<FileStatus, CloseableIterator<ColumnarBatch>> fileReader) {
+      this.file = file;
+      this.read = prefetch ? submitRead(fileReader) : null;
+    }
+
+    private CompletableFuture<List<ColumnarBatch>> submitRead(
+        Function<FileStatus, CloseableIterator<ColumnarBatch>> fileReader) {
+      return CompletableFuture.supplyAsync(
+          () -> {
+            List<ColumnarBatch> batches = new ArrayList<>();
+            if (cancelled) {
+              return batches;
+            }
+            try (CloseableIterator<ColumnarBatch> fileIter = fileReader.apply(file)) {
+              fileIter.forEachRemaining(batches::add);
+            } catch (IOException ex) {
+              throw new KernelEngineException(
+                  format("Error reading JSON file: %s", file.getPath()), ex);
+            }
+            return batches;
+          },
+          getOrCreateExecutor());
+    }
+
+    /** Wait for the prefetched batches, or start reading the file now if it wasn't prefetched. */
+    CloseableIterator<ColumnarBatch> open(
+        Function<FileStatus, CloseableIterator<ColumnarBatch>> fileReader) {
+      if (read == null) {
+        return fileReader.apply(file);
+      }
+      try {
+        return Utils.toCloseableIterator(read.get().iterator());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new KernelEngineException(
+            format("Interrupted while reading JSON file: %s", file.getPath()), ex);
+      } catch (ExecutionException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new KernelEngineException(
+            format("Error reading JSON file: %s", file.getPath()), cause);
+      }
+    }
+
+    /**
+     * Drop the prefetched batches, skipping the read if not started yet, and release the budget
+     * once the read is done.
+     */
+    void cancel() {
+      if (read != null && !cancelled) {
+        cancelled = true;
+        read.whenComplete((batches, error) -> bufferedBytes.addAndGet(-file.getSize()));
+      }
+    }
+  }
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.internal.DefaultKernelUtils;
+import io.delta.kernel.defaults.internal.data.vector.OffHeapAllocator;
+import io.delta.kernel.exceptions.KernelEngineException;
+import io.delta.kernel.expressions.Predicate;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.types.StructType;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * Reads multiple Parquet files concurrently on a bounded pool of threads.
+ *
+ * <p>Each file is decoded on the pool with a {@link ParquetFileReader}, which hands the decoded
+ * batches to the consumer through a bounded queue. Decoding of a file pauses when the queue is full
+ * and resumes once the consumer takes a batch, so the memory held by a {@link #read} call is
+ * bounded by the queue size, regardless of how far the consumer is behind. At most {@code
+ * parallelism} files of a {@link #read} call are decoded at the same time.
+ *
+ * <p>The batches of a file are always returned in the order they are in the file. When {@code
+ * preserveFileOrder} is set, all batches of a file are returned before the batches of the next
+ * file, as required by {@link io.delta.kernel.engine.ParquetHandler#readParquetFiles}. Each file
+ * then gets its own queue of {@code queueSize / parallelism} batches. Otherwise, the batches are
+ * returned in the order they are decoded, which allows the consumer to take whatever batch is ready
+ * first. The latter is suitable for callers that don't depend on the order of the files, e.g.
+ * reading the parts of a checkpoint during log replay.
+ */
+public class ParallelParquetFileReader {
+  private final Configuration hadoopConf;
+  private final int parallelism;
+  private final int queueSize;
+  private final boolean preserveFileOrder;
+  private final Optional<OffHeapAllocator> offHeapAllocator;
+  private final Optional<ParquetFooterCache> footerCache;
+
+  /** Created on first use, so that no threads are started if nothing is read. */
+  private volatile ExecutorService executor;
+
+  /**
+   * @param hadoopConf Hadoop configuration to use
+   * @param parallelism number of threads decoding the files
+   * @param queueSize maximum number of decoded batches buffered per {@link #read} call
+   * @param preserveFileOrder whether to return the batches in the order of the files
+   * @param offHeapAllocator allocator of the off-heap column vectors, if enabled
+   * @param footerCache cache of the footers of the files read, if enabled
+   */
+  public ParallelParquetFileReader(
+      Configuration hadoopConf,
+      int parallelism,
+      int queueSize,
+      boolean preserveFileOrder,
+      Optional<OffHeapAllocator> offHeapAllocator,
+      Optional<ParquetFooterCache> footerCache) {
+    checkArgument(parallelism > 0, "invalid Parquet reader parallelism: " + parallelism);
+    checkArgument(queueSize > 0, "invalid Parquet reader queue size: " + queueSize);
+    this.hadoopConf = hadoopConf;
+    this.parallelism = parallelism;
+    this.queueSize = queueSize;
+    this.preserveFileOrder = preserveFileOrder;
+    this.offHeapAllocator = requireNonNull(offHeapAllocator, "offHeapAllocator is null");
+    this.footerCache = requireNonNull(footerCache, "footerCache is null");
+  }
+
+  public CloseableIterator<ColumnarBatch> read(
+      CloseableIterator<FileStatus> fileIter,
+      StructType physicalSchema,
+      Optional<Predicate> predicate) {
+    return new CloseableIterator<ColumnarBatch>() {
+      /** Files being decoded, in the order of the input files. */
+      private final LinkedList<FileRead> inFlight = new LinkedList<>();
+      /** Queue shared by all files when the file order need not be preserved. */
+      private final BlockingQueue<Item> sharedQueue =
+          preserveFileOrder ? null : new ArrayBlockingQueue<>(queueSize);
+
+      private ColumnarBatch nextBatch;
+
+      @Override
+      public boolean hasNext() {
+        while (nextBatch == null) {
+          submitReads();
+          if (inFlight.isEmpty()) {
+            return false;
+          }
+          BlockingQueue<Item> queue = preserveFileOrder ? inFlight.peek().queue : sharedQueue;
+          Item item = take(queue);
+          // There is room in the queue now, resume a read that waits for it
+          (preserveFileOrder ? Collections.singletonList(item.fileRead) : inFlight)
+              .stream().filter(FileRead::unpark).findFirst().ifPresent(this::submit);
+          if (item.error != null) {
+            throw rethrow(item.fileRead.file, item.error);
+          }
+          if (item.batch == null) {
+            // end of the file
+            inFlight.remove(item.fileRead);
+          } else {
+            nextBatch = item.batch;
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public ColumnarBatch next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        ColumnarBatch batch = nextBatch;
+        nextBatch = null;
+        return batch;
+      }
+
+      @Override
+      public void close() throws IOException {
+        try {
+          // Running and submitted reads close their file when they see the `closed` flag, the
+          // parked ones are closed here.
+          inFlight.forEach(FileRead::close);
+          inFlight.clear();
+        } finally {
+          fileIter.close();
+        }
+      }
+
+      private void submitReads() {
+        while (inFlight.size() < parallelism && fileIter.hasNext()) {
+          FileStatus file = fileIter.next();
+          BlockingQueue<Item> queue =
+              preserveFileOrder
+                  ? new ArrayBlockingQueue<>(Math.max(1, queueSize / parallelism))
+                  : sharedQueue;
+          FileRead fileRead = new FileRead(file, queue, physicalSchema, predicate);
+          inFlight.add(fileRead);
+          submit(fileRead);
+        }
+      }
+
+      private void submit(FileRead fileRead) {
+        getOrCreateExecutor().execute(fileRead::decode);
+      }
+    };
+  }
+
+  private ExecutorService getOrCreateExecutor() {
+    if (executor == null) {
+      synchronized (this) {
+        if (executor == null) {
+          executor =
+              DefaultKernelUtils.newDaemonThreadPool("delta-kernel-parquet-reader", parallelism);
+        }
+      }
+    }
+    return executor;
+  }
+
+  private static RuntimeException rethrow(FileStatus file, Throwable error) {
+    if (error instanceof RuntimeException) {
+      return (RuntimeException) error;
+    }
+    if (error instanceof Error) {
+      throw (Error) error;
+    }
+    return new KernelEngineException("Error reading Parquet file: " + file.getPath(), error);
+  }
+
+  private static Item take(BlockingQueue<Item> queue) {
+    try {
+      return queue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KernelEngineException("Interrupted while reading Parquet files", e);
+    }
+  }
+
+  /**
+   * A file being decoded. The file is decoded by a pool thread until the queue is full or the file
+   * is done. When the queue is full, the read is parked (without holding on to the thread) until
+   * the consumer takes an item from the queue and submits the read again. This avoids tying up the
+   * pool threads, which are shared with other reads, while waiting for a slow consumer.
+   */
+  private class FileRead {
+    final FileStatus file;
+    final BlockingQueue<Item> queue;
+    final StructType physicalSchema;
+    final Optional<Predicate> predicate;
+    final AtomicBoolean parked = new AtomicBoolean();
+    volatile boolean closed;
+
+    // Accessed only by the thread that is decoding the file
+    CloseableIterator<ColumnarBatch> batchIter;
+    Item pending;
+    boolean done;
+
+    FileRead(
+        FileStatus file,
+        BlockingQueue<Item> queue,
+        StructType physicalSchema,
+        Optional<Predicate> predicate) {
+      this.file = file;
+      this.queue = queue;
+      this.physicalSchema = physicalSchema;
+      this.predicate = predicate;
+    }
+
+    void decode() {
+      while (!done) {
+        if (closed) {
+          closeBatchIter();
+          return;
+        }
+        if (pending == null) {
+          pending = decodeNext();
+        }
+        if (queue.offer(pending)) {
+          done = pending.batch == null;
+          pending = null;
+          continue;
+        }
+        // The queue is full. Park and make sure that an item taken from the queue or a close
+        // that happened concurrently is not missed.
+        parked.set(true);
+        if ((closed || queue.remainingCapacity() > 0) && unpark()) {
+          continue;
+        }
+        return;
+      }
+      closeBatchIter();
+    }
+
+    /** Returns whether the read was parked, and if so, un-parks it. */
+    boolean unpark() {
+      return parked.compareAndSet(true, false);
+    }
+
+    /** Called by the consumer when it's done with the file. */
+    void close() {
+      closed = true;
+      if (unpark()) {
+        closeBatchIter();
+      }
+    }
+
+    private Item decodeNext() {
+      try {
+        if (batchIter == null) {
+          batchIter =
+              new ParquetFileReader(hadoopConf, offHeapAllocator, footerCache)
+                  .read(file, physicalSchema, predicate);
+        }
+        if (batchIter.hasNext()) {
+          return new Item(this, batchIter.next(), null);
+        }
+        return new Item(this, null, null);
+      } catch (Throwable t) {
+        return new Item(this, null, t);
+      }
+    }
+
+    private void closeBatchIter() {
+      Utils.closeCloseablesSilently(batchIter);
+      batchIter = null;
+    }
+  }
+
+  /**
+   * An entry in the queue: either a batch decoded from the file, an error, or (when both are null)
+   * the end of the file.
+   */
+  private static class Item {
+    final FileRead fileRead;
+    final ColumnarBatch batch;
+    final Throwable error;
+
+    Item(FileRead fileRead, ColumnarBatch batch, Throwable error) {
+      this.fileRead = fileRead;
+      this.batch = batch;
+      this.error = error;
+    }
+  }
+}
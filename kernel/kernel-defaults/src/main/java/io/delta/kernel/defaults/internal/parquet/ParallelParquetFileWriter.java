@@ -0,0 +1,275 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.FilteredColumnarBatch;
+import io.delta.kernel.defaults.internal.DefaultKernelUtils;
+import io.delta.kernel.exceptions.KernelEngineException;
+import io.delta.kernel.expressions.Column;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.DataFileStatus;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Writes data to Parquet files with multiple concurrent writers on a bounded pool of threads.
+ *
+ * <p>Each writer is a {@link ParquetFileWriter} that writes its own files of up to the target file
+ * size. The consumer thread reads the input data and hands the batches to the writers through a
+ * bounded queue shared by the writers, so that a writer that is busy, e.g. finishing a file,
+ * doesn't hold up the others. The consumer waits when the queue is full, so the memory held by a
+ * {@link #write} call is bounded by the queue size (plus the batch being written by each writer),
+ * regardless of how far the writers are behind.
+ *
+ * <p>The rows are not written in the order of the input data and the batches must not be modified
+ * by the producer of the input data once returned. Batches without any selected rows are not
+ * written.
+ */
+public class ParallelParquetFileWriter {
+  /** How long to wait for the queue before checking whether the write failed, in millis. */
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  private final Configuration hadoopConf;
+  private final int parallelism;
+  private final int queueSize;
+
+  /** Created on first use, so that no threads are started if nothing is written. */
+  private volatile ExecutorService executor;
+
+  /**
+   * @param hadoopConf Hadoop configuration to use
+   * @param parallelism number of concurrent writers
+   * @param queueSize maximum number of batches buffered per {@link #write} call
+   */
+  public ParallelParquetFileWriter(Configuration hadoopConf, int parallelism, int queueSize) {
+    checkArgument(parallelism > 0, "invalid Parquet writer parallelism: " + parallelism);
+    checkArgument(queueSize > 0, "invalid Parquet writer queue size: " + queueSize);
+    this.hadoopConf = hadoopConf;
+    this.parallelism = parallelism;
+    this.queueSize = queueSize;
+  }
+
+  /**
+   * Write the given data to Parquet files in the given directory. The data is written when the
+   * returned iterator is first accessed.
+   *
+   * @param location directory to write the files to
+   * @param statsColumns columns to collect the statistics for
+   * @param dataIter data to write
+   * @return an iterator of {@link DataFileStatus} where each entry contains the metadata of the
+   *     data file written. It is the responsibility of the caller to close the iterator.
+   */
+  public CloseableIterator<DataFileStatus> write(
+      Path location, List<Column> statsColumns, CloseableIterator<FilteredColumnarBatch> dataIter) {
+    return new CloseableIterator<DataFileStatus>() {
+      private Iterator<DataFileStatus> writtenFiles;
+
+      @Override
+      public boolean hasNext() {
+        if (writtenFiles == null) {
+          writtenFiles = writeAll(location, statsColumns, dataIter).iterator();
+        }
+        return writtenFiles.hasNext();
+      }
+
+      @Override
+      public DataFileStatus next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return writtenFiles.next();
+      }
+
+      @Override
+      public void close() throws IOException {
+        Utils.closeCloseables(dataIter);
+      }
+    };
+  }
+
+  private List<DataFileStatus> writeAll(
+      Path location, List<Column> statsColumns, CloseableIterator<FilteredColumnarBatch> dataIter) {
+    // An empty item marks the end of the data. Each writer stops after taking one.
+    BlockingQueue<Optional<FilteredColumnarBatch>> queue = new ArrayBlockingQueue<>(queueSize);
+    AtomicBoolean aborted = new AtomicBoolean();
+    List<Future<List<DataFileStatus>>> writers = new ArrayList<>();
+    boolean succeeded = false;
+    try {
+      for (int i = 0; i < parallelism; i++) {
+        writers.add(
+            getOrCreateExecutor().submit(() -> writeFiles(location, statsColumns, queue, aborted)));
+      }
+      while (dataIter.hasNext()) {
+        FilteredColumnarBatch batch = dataIter.next();
+        if (hasSelectedRows(batch)) {
+          put(queue, Optional.of(batch), writers);
+        }
+      }
+      for (int i = 0; i < parallelism; i++) {
+        put(queue, Optional.empty(), writers);
+      }
+
+      List<DataFileStatus> writtenFiles = new ArrayList<>();
+      for (Future<List<DataFileStatus>> writer : writers) {
+        writtenFiles.addAll(getResult(writer));
+      }
+      succeeded = true;
+      return writtenFiles;
+    } finally {
+      if (!succeeded) {
+        // Stop the writers that are still running and release the batches they didn't take
+        aborted.set(true);
+        queue.clear();
+      }
+    }
+  }
+
+  /** Write the batches taken from the queue to files, until the end of the data. */
+  private List<DataFileStatus> writeFiles(
+      Path location,
+      List<Column> statsColumns,
+      BlockingQueue<Optional<FilteredColumnarBatch>> queue,
+      AtomicBoolean aborted)
+      throws IOException {
+    CloseableIterator<FilteredColumnarBatch> batches =
+        new CloseableIterator<FilteredColumnarBatch>() {
+          private Optional<FilteredColumnarBatch> nextItem;
+
+          @Override
+          public boolean hasNext() {
+            if (nextItem == null) {
+              nextItem = take(queue, aborted);
+            }
+            return nextItem.isPresent();
+          }
+
+          @Override
+          public FilteredColumnarBatch next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            FilteredColumnarBatch batch = nextItem.get();
+            nextItem = null;
+            return batch;
+          }
+
+          @Override
+          public void close() {}
+        };
+
+    List<DataFileStatus> writtenFiles = new ArrayList<>();
+    try (CloseableIterator<DataFileStatus> files =
+        new ParquetFileWriter(hadoopConf, location, statsColumns).write(batches)) {
+      while (files.hasNext()) {
+        writtenFiles.add(files.next());
+      }
+    }
+    return writtenFiles;
+  }
+
+  private ExecutorService getOrCreateExecutor() {
+    if (executor == null) {
+      synchronized (this) {
+        if (executor == null) {
+          executor =
+              DefaultKernelUtils.newDaemonThreadPool("delta-kernel-parquet-writer", parallelism);
+        }
+      }
+    }
+    return executor;
+  }
+
+  static boolean hasSelectedRows(FilteredColumnarBatch batch) {
+    int size = batch.getData().getSize();
+    if (!batch.getSelectionVector().isPresent()) {
+      return size > 0;
+    }
+    ColumnVector selectionVector = batch.getSelectionVector().get();
+    for (int rowId = 0; rowId < size; rowId++) {
+      if (!selectionVector.isNullAt(rowId) && selectionVector.getBoolean(rowId)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Put the item into the queue, waiting for space if needed. Fails if any writer stopped, which
+   * can only be due to an error as long as not all end markers are in the queue.
+   */
+  private static void put(
+      BlockingQueue<Optional<FilteredColumnarBatch>> queue,
+      Optional<FilteredColumnarBatch> item,
+      List<Future<List<DataFileStatus>>> writers) {
+    try {
+      while (!queue.offer(item, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+        for (Future<List<DataFileStatus>> writer : writers) {
+          if (writer.isDone()) {
+            getResult(writer);
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KernelEngineException("Interrupted while writing Parquet files", e);
+    }
+  }
+
+  private static Optional<FilteredColumnarBatch> take(
+      BlockingQueue<Optional<FilteredColumnarBatch>> queue, AtomicBoolean aborted) {
+    try {
+      while (true) {
+        if (aborted.get()) {
+          throw new KernelEngineException("Parquet file write is aborted", null);
+        }
+        Optional<FilteredColumnarBatch> item =
+            queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (item != null) {
+          return item;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KernelEngineException("Interrupted while writing Parquet files", e);
+    }
+  }
+
+  private static List<DataFileStatus> getResult(Future<List<DataFileStatus>> writer) {
+    try {
+      return writer.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new KernelEngineException("Interrupted while writing Parquet files", e);
+    } catch (ExecutionException e) {
+      Throwable error = e.getCause();
+      if (error instanceof RuntimeException) {
+        throw (RuntimeException) error;
+      }
+      if (error instanceof Error) {
+        throw (Error) error;
+      }
+      throw new KernelEngineException("Error writing Parquet files", error);
+    }
+  }
+}
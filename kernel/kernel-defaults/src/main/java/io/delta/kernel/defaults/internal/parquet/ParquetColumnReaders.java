@@ -21,9 +21,13 @@ import static io.delta.kernel.internal.util.Preconditions.checkArgument;
 import io.delta.kernel.data.ColumnVector;
 import io.delta.kernel.defaults.internal.data.vector.*;
 import io.delta.kernel.types.*;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.Converter;
 import org.apache.parquet.io.api.PrimitiveConverter;
@@ -37,6 +41,18 @@ import org.apache.parquet.schema.Type;
 class ParquetColumnReaders {
   public static Converter createConverter(
       int initialBatchSize, DataType typeFromClient, Type typeFromFile) {
+    return createConverter(initialBatchSize, typeFromClient, typeFromFile, VectorMemory.HEAP);
+  }
+
+  /**
+   * Create the reader of a column.
+   *
+   * @param vectorMemory memory of the vectors returned by the reader, e.g. pooled buffers which are
+   *     reused for a later batch when the vector is closed. Only the readers of the primitive types
+   *     use it, the nested columns are read as usual.
+   */
+  public static Converter createConverter(
+      int initialBatchSize, DataType typeFromClient, Type typeFromFile, VectorMemory vectorMemory) {
     if (typeFromClient instanceof StructType) {
       return new RowColumnReader(
           initialBatchSize, (StructType) typeFromClient, (GroupType) typeFromFile);
@@ -46,30 +62,33 @@ class ParquetColumnReaders {
     } else if (typeFromClient instanceof MapType) {
       return new MapColumnReader(
           initialBatchSize, (MapType) typeFromClient, (GroupType) typeFromFile);
-    } else if (typeFromClient instanceof StringType || typeFromClient instanceof BinaryType) {
-      return new BinaryColumnReader(typeFromClient, initialBatchSize);
+    } else if (typeFromClient instanceof StringType) {
+      return new StringColumnReader(initialBatchSize, vectorMemory);
+    } else if (typeFromClient instanceof BinaryType) {
+      return new BinaryColumnReader(typeFromClient, initialBatchSize, vectorMemory);
     } else if (typeFromClient instanceof BooleanType) {
-      return new BooleanColumnReader(initialBatchSize);
+      return new BooleanColumnReader(initialBatchSize, vectorMemory);
     } else if (typeFromClient instanceof IntegerType || typeFromClient instanceof DateType) {
-      return new IntColumnReader(typeFromClient, initialBatchSize);
+      return new IntColumnReader(typeFromClient, initialBatchSize, vectorMemory);
     } else if (typeFromClient instanceof ByteType) {
-      return new ByteColumnReader(initialBatchSize);
+      return new ByteColumnReader(initialBatchSize, vectorMemory);
     } else if (typeFromClient instanceof ShortType) {
-      return new ShortColumnReader(initialBatchSize);
+      return new ShortColumnReader(initialBatchSize, vectorMemory);
     } else if (typeFromClient instanceof LongType) {
-      return new LongColumnReader(typeFromClient, initialBatchSize);
+      return new LongColumnReader(typeFromClient, initialBatchSize, vectorMemory);
     } else if (typeFromClient instanceof FloatType) {
-      return new FloatColumnReader(initialBatchSize);
+      return new FloatColumnReader(initialBatchSize, vectorMemory);
     } else if (typeFromClient instanceof DoubleType) {
-      return new DoubleColumnReader(initialBatchSize);
+      return new DoubleColumnReader(initialBatchSize, vectorMemory);
     } else if (typeFromClient instanceof DecimalType) {
       return DecimalColumnReader.createDecimalConverter(
           initialBatchSize, (DecimalType) typeFromClient, typeFromFile);
     } else if (typeFromClient instanceof TimestampType) {
-      return createTimestampConverter(initialBatchSize, typeFromFile, TimestampType.TIMESTAMP);
+      return createTimestampConverter(
+          initialBatchSize, typeFromFile, TimestampType.TIMESTAMP, vectorMemory);
     } else if (typeFromClient instanceof TimestampNTZType) {
       return createTimestampConverter(
-          initialBatchSize, typeFromFile, TimestampNTZType.TIMESTAMP_NTZ);
+          initialBatchSize, typeFromFile, TimestampNTZType.TIMESTAMP_NTZ, vectorMemory);
     }
 
     throw new UnsupportedOperationException(typeFromClient + " is not supported");
@@ -138,11 +157,72 @@ class ParquetColumnReaders {
     // working state
     protected int currentRowIndex;
     protected boolean[] nullability;
+    // pool of the nullability arrays of the returned vectors
+    private final VectorBufferPool<boolean[]> nullabilityPool;
+    // allocator of the returned vectors, if they are off-heap
+    private final Optional<OffHeapAllocator> offHeapAllocator;
 
     BasePrimitiveColumnReader(int initialBatchSize) {
+      this(initialBatchSize, VectorMemory.HEAP);
+    }
+
+    BasePrimitiveColumnReader(int initialBatchSize, VectorMemory vectorMemory) {
       checkArgument(initialBatchSize > 0, "invalid initialBatchSize: %s", initialBatchSize);
       // Initialize the working state
       this.nullability = initNullabilityVector(initialBatchSize);
+      this.nullabilityPool = new VectorBufferPool<>(vectorMemory.isPooled(), array -> array.length);
+      this.offHeapAllocator = vectorMemory.getOffHeapAllocator();
+    }
+
+    /** Create the pool of the values of the returned vectors, enabled like the nullability one. */
+    protected <T> VectorBufferPool<T> createValuesPool(ToIntFunction<T> capacity) {
+      return new VectorBufferPool<>(nullabilityPool.isEnabled(), capacity);
+    }
+
+    /**
+     * Re-initialize the working state after returning {@code vector}, which is backed by the
+     * working {@code nullability} and the given working {@code values}. If the buffers are pooled,
+     * they are released to the pools when the vector is closed, and the new working state is taken
+     * from the pools.
+     *
+     * @return the values for the next batch, with the capacity of {@code values}
+     */
+    protected <T> T recycle(
+        AbstractColumnVector vector,
+        VectorBufferPool<T> valuesPool,
+        T values,
+        IntFunction<T> allocator) {
+      boolean[] vectorNullability = nullability;
+      if (valuesPool.isEnabled()) {
+        vector.setCloseAction(
+            () -> {
+              valuesPool.release(values);
+              nullabilityPool.release(vectorNullability);
+            });
+      }
+      this.nullability = nullabilityPool.take(vectorNullability.length, boolean[]::new);
+      Arrays.fill(nullability, true);
+      this.currentRowIndex = 0;
+      return valuesPool.take(valuesPool.capacity(values), allocator);
+    }
+
+    /**
+     * Copy the working state into an off-heap vector with {@code copy}, if the vectors are
+     * off-heap, and re-initialize the working state keeping its arrays.
+     *
+     * @return the off-heap vector, or empty if the vectors are on heap or the vector doesn't fit in
+     *     the memory budget of the allocator, in which case the working state is left as is
+     */
+    protected Optional<ColumnVector> toOffHeapVector(
+        Function<OffHeapAllocator, Optional<? extends ColumnVector>> copy) {
+      Optional<? extends ColumnVector> vector =
+          offHeapAllocator.isPresent() ? copy.apply(offHeapAllocator.get()) : Optional.empty();
+      if (!vector.isPresent()) {
+        return Optional.empty();
+      }
+      Arrays.fill(nullability, true);
+      this.currentRowIndex = 0;
+      return Optional.of(vector.get());
     }
 
     @Override
@@ -155,10 +235,16 @@ class ParquetColumnReaders {
   public static class BooleanColumnReader extends BasePrimitiveColumnReader {
     // working state
     private boolean[] values;
+    private final VectorBufferPool<boolean[]> valuesPool;
 
     BooleanColumnReader(int initialBatchSize) {
-      super(initialBatchSize);
+      this(initialBatchSize, VectorMemory.HEAP);
+    }
+
+    BooleanColumnReader(int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
       this.values = new boolean[initialBatchSize];
+      this.valuesPool = createValuesPool(array -> array.length);
     }
 
     @Override
@@ -170,10 +256,17 @@ class ParquetColumnReaders {
 
     @Override
     public ColumnVector getDataColumnVector(int batchSize) {
-      ColumnVector vector = new DefaultBooleanVector(batchSize, Optional.of(nullability), values);
-      this.nullability = initNullabilityVector(nullability.length);
-      this.values = new boolean[values.length];
-      this.currentRowIndex = 0;
+      Optional<ColumnVector> offHeapVector =
+          toOffHeapVector(
+              allocator ->
+                  OffHeapColumnVector.copyOf(
+                      allocator, BooleanType.BOOLEAN, batchSize, nullability, values));
+      if (offHeapVector.isPresent()) {
+        return offHeapVector.get();
+      }
+      DefaultBooleanVector vector =
+          new DefaultBooleanVector(batchSize, Optional.of(nullability), values);
+      this.values = recycle(vector, valuesPool, values, boolean[]::new);
       return vector;
     }
 
@@ -191,10 +284,16 @@ class ParquetColumnReaders {
   public static class ByteColumnReader extends BasePrimitiveColumnReader {
     // working state
     private byte[] values;
+    private final VectorBufferPool<byte[]> valuesPool;
 
     ByteColumnReader(int initialBatchSize) {
-      super(initialBatchSize);
+      this(initialBatchSize, VectorMemory.HEAP);
+    }
+
+    ByteColumnReader(int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
       this.values = new byte[initialBatchSize];
+      this.valuesPool = createValuesPool(array -> array.length);
     }
 
     @Override
@@ -206,10 +305,16 @@ class ParquetColumnReaders {
 
     @Override
     public ColumnVector getDataColumnVector(int batchSize) {
-      ColumnVector vector = new DefaultByteVector(batchSize, Optional.of(nullability), values);
-      this.nullability = initNullabilityVector(nullability.length);
-      this.values = new byte[values.length];
-      this.currentRowIndex = 0;
+      Optional<ColumnVector> offHeapVector =
+          toOffHeapVector(
+              allocator ->
+                  OffHeapColumnVector.copyOf(
+                      allocator, ByteType.BYTE, batchSize, nullability, values));
+      if (offHeapVector.isPresent()) {
+        return offHeapVector.get();
+      }
+      DefaultByteVector vector = new DefaultByteVector(batchSize, Optional.of(nullability), values);
+      this.values = recycle(vector, valuesPool, values, byte[]::new);
       return vector;
     }
 
@@ -227,10 +332,16 @@ class ParquetColumnReaders {
   public static class ShortColumnReader extends BasePrimitiveColumnReader {
     // working state
     private short[] values;
+    private final VectorBufferPool<short[]> valuesPool;
 
     ShortColumnReader(int initialBatchSize) {
-      super(initialBatchSize);
+      this(initialBatchSize, VectorMemory.HEAP);
+    }
+
+    ShortColumnReader(int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
       this.values = new short[initialBatchSize];
+      this.valuesPool = createValuesPool(array -> array.length);
     }
 
     @Override
@@ -242,10 +353,17 @@ class ParquetColumnReaders {
 
     @Override
     public ColumnVector getDataColumnVector(int batchSize) {
-      ColumnVector vector = new DefaultShortVector(batchSize, Optional.of(nullability), values);
-      this.nullability = initNullabilityVector(nullability.length);
-      this.values = new short[values.length];
-      this.currentRowIndex = 0;
+      Optional<ColumnVector> offHeapVector =
+          toOffHeapVector(
+              allocator ->
+                  OffHeapColumnVector.copyOf(
+                      allocator, ShortType.SHORT, batchSize, nullability, values));
+      if (offHeapVector.isPresent()) {
+        return offHeapVector.get();
+      }
+      DefaultShortVector vector =
+          new DefaultShortVector(batchSize, Optional.of(nullability), values);
+      this.values = recycle(vector, valuesPool, values, short[]::new);
       return vector;
     }
 
@@ -264,12 +382,18 @@ class ParquetColumnReaders {
     private final DataType dataType;
     // working state
     private int[] values;
+    private final VectorBufferPool<int[]> valuesPool;
 
     IntColumnReader(DataType dataType, int initialBatchSize) {
-      super(initialBatchSize);
+      this(dataType, initialBatchSize, VectorMemory.HEAP);
+    }
+
+    IntColumnReader(DataType dataType, int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
       checkArgument(dataType instanceof IntegerType || dataType instanceof DateType);
       this.dataType = dataType;
       this.values = new int[initialBatchSize];
+      this.valuesPool = createValuesPool(array -> array.length);
     }
 
     @Override
@@ -281,11 +405,16 @@ class ParquetColumnReaders {
 
     @Override
     public ColumnVector getDataColumnVector(int batchSize) {
-      ColumnVector vector =
+      Optional<ColumnVector> offHeapVector =
+          toOffHeapVector(
+              allocator ->
+                  OffHeapColumnVector.copyOf(allocator, dataType, batchSize, nullability, values));
+      if (offHeapVector.isPresent()) {
+        return offHeapVector.get();
+      }
+      DefaultIntVector vector =
           new DefaultIntVector(dataType, batchSize, Optional.of(nullability), values);
-      this.nullability = initNullabilityVector(nullability.length);
-      this.values = new int[values.length];
-      this.currentRowIndex = 0;
+      this.values = recycle(vector, valuesPool, values, int[]::new);
       return vector;
     }
 
@@ -304,15 +433,21 @@ class ParquetColumnReaders {
     private final DataType dataType;
     // working state
     private long[] values;
+    private final VectorBufferPool<long[]> valuesPool;
 
     LongColumnReader(DataType dataType, int initialBatchSize) {
-      super(initialBatchSize);
+      this(dataType, initialBatchSize, VectorMemory.HEAP);
+    }
+
+    LongColumnReader(DataType dataType, int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
       checkArgument(
           dataType instanceof LongType
               || dataType instanceof TimestampType
               || dataType instanceof TimestampNTZType);
       this.dataType = dataType;
       this.values = new long[initialBatchSize];
+      this.valuesPool = createValuesPool(array -> array.length);
     }
 
     @Override
@@ -331,11 +466,16 @@ class ParquetColumnReaders {
 
     @Override
     public ColumnVector getDataColumnVector(int batchSize) {
-      ColumnVector vector =
+      Optional<ColumnVector> offHeapVector =
+          toOffHeapVector(
+              allocator ->
+                  OffHeapColumnVector.copyOf(allocator, dataType, batchSize, nullability, values));
+      if (offHeapVector.isPresent()) {
+        return offHeapVector.get();
+      }
+      DefaultLongVector vector =
           new DefaultLongVector(dataType, batchSize, Optional.of(nullability), values);
-      this.nullability = initNullabilityVector(nullability.length);
-      this.values = new long[values.length];
-      this.currentRowIndex = 0;
+      this.values = recycle(vector, valuesPool, values, long[]::new);
       return vector;
     }
 
@@ -353,10 +493,16 @@ class ParquetColumnReaders {
   public static class FloatColumnReader extends BasePrimitiveColumnReader {
     // working state
     private float[] values;
+    private final VectorBufferPool<float[]> valuesPool;
 
     FloatColumnReader(int initialBatchSize) {
-      super(initialBatchSize);
+      this(initialBatchSize, VectorMemory.HEAP);
+    }
+
+    FloatColumnReader(int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
       this.values = new float[initialBatchSize];
+      this.valuesPool = createValuesPool(array -> array.length);
     }
 
     @Override
@@ -368,10 +514,17 @@ class ParquetColumnReaders {
 
     @Override
     public ColumnVector getDataColumnVector(int batchSize) {
-      ColumnVector vector = new DefaultFloatVector(batchSize, Optional.of(nullability), values);
-      this.nullability = initNullabilityVector(nullability.length);
-      this.values = new float[values.length];
-      this.currentRowIndex = 0;
+      Optional<ColumnVector> offHeapVector =
+          toOffHeapVector(
+              allocator ->
+                  OffHeapColumnVector.copyOf(
+                      allocator, FloatType.FLOAT, batchSize, nullability, values));
+      if (offHeapVector.isPresent()) {
+        return offHeapVector.get();
+      }
+      DefaultFloatVector vector =
+          new DefaultFloatVector(batchSize, Optional.of(nullability), values);
+      this.values = recycle(vector, valuesPool, values, float[]::new);
       return vector;
     }
 
@@ -389,10 +542,16 @@ class ParquetColumnReaders {
   public static class DoubleColumnReader extends BasePrimitiveColumnReader {
     // working state
     private double[] values;
+    private final VectorBufferPool<double[]> valuesPool;
 
     DoubleColumnReader(int initialBatchSize) {
-      super(initialBatchSize);
+      this(initialBatchSize, VectorMemory.HEAP);
+    }
+
+    DoubleColumnReader(int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
       this.values = new double[initialBatchSize];
+      this.valuesPool = createValuesPool(array -> array.length);
     }
 
     @Override
@@ -418,11 +577,18 @@ class ParquetColumnReaders {
 
     @Override
     public ColumnVector getDataColumnVector(int batchSize) {
-      ColumnVector vector = new DefaultDoubleVector(batchSize, Optional.of(nullability), values);
+      Optional<ColumnVector> offHeapVector =
+          toOffHeapVector(
+              allocator ->
+                  OffHeapColumnVector.copyOf(
+                      allocator, DoubleType.DOUBLE, batchSize, nullability, values));
+      if (offHeapVector.isPresent()) {
+        return offHeapVector.get();
+      }
+      DefaultDoubleVector vector =
+          new DefaultDoubleVector(batchSize, Optional.of(nullability), values);
       // re-initialize the working space
-      this.nullability = initNullabilityVector(nullability.length);
-      this.values = new double[values.length];
-      this.currentRowIndex = 0;
+      this.values = recycle(vector, valuesPool, values, double[]::new);
       return vector;
     }
 
@@ -442,11 +608,17 @@ class ParquetColumnReaders {
 
     // working state
     private byte[][] values;
+    private final VectorBufferPool<byte[][]> valuesPool;
 
     BinaryColumnReader(DataType dataType, int initialBatchSize) {
-      super(initialBatchSize);
+      this(dataType, initialBatchSize, VectorMemory.HEAP);
+    }
+
+    BinaryColumnReader(DataType dataType, int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
       this.dataType = dataType;
       this.values = new byte[initialBatchSize][];
+      this.valuesPool = createValuesPool(array -> array.length);
     }
 
     @Override
@@ -458,11 +630,13 @@ class ParquetColumnReaders {
 
     @Override
     public ColumnVector getDataColumnVector(int batchSize) {
-      ColumnVector vector = new DefaultBinaryVector(dataType, batchSize, values);
+      DefaultBinaryVector vector = new DefaultBinaryVector(dataType, batchSize, values);
       // re-initialize the working space
-      this.nullability = initNullabilityVector(nullability.length);
-      this.values = new byte[values.length][];
-      this.currentRowIndex = 0;
+      this.values = recycle(vector, valuesPool, values, byte[][]::new);
+      if (valuesPool.isEnabled()) {
+        // the null values are the null elements
+        Arrays.fill(values, null);
+      }
       return vector;
     }
 
@@ -477,9 +651,69 @@ class ParquetColumnReaders {
     }
   }
 
+  /**
+   * Reader of a string column, which copies the bytes of the values into one buffer (see {@link
+   * Utf8VectorBuffer}) instead of a {@code byte[]} per value.
+   */
+  public static class StringColumnReader extends BasePrimitiveColumnReader {
+    // working state
+    private Utf8VectorBuffer values;
+    private final VectorBufferPool<Utf8VectorBuffer> valuesPool;
+
+    StringColumnReader(int initialBatchSize) {
+      this(initialBatchSize, VectorMemory.HEAP);
+    }
+
+    StringColumnReader(int initialBatchSize, VectorMemory vectorMemory) {
+      super(initialBatchSize, vectorMemory);
+      this.values = new Utf8VectorBuffer(initialBatchSize, 0);
+      this.valuesPool = createValuesPool(Utf8VectorBuffer::capacity);
+    }
+
+    @Override
+    public void addBinary(Binary value) {
+      resizeIfNeeded();
+      this.nullability[currentRowIndex] = false;
+      ByteBuffer bytes = value.toByteBuffer();
+      this.values.set(currentRowIndex, bytes, bytes.remaining());
+    }
+
+    @Override
+    public ColumnVector getDataColumnVector(int batchSize) {
+      Optional<ColumnVector> offHeapVector =
+          toOffHeapVector(allocator -> values.toOffHeapVector(allocator, batchSize, nullability));
+      if (offHeapVector.isPresent()) {
+        return offHeapVector.get();
+      }
+      DefaultUtf8Vector vector = values.toVector(batchSize, Optional.of(nullability));
+      // re-initialize the working space
+      int bufferSize = values.bufferSize();
+      this.values =
+          recycle(
+              vector, valuesPool, values, capacity -> new Utf8VectorBuffer(capacity, bufferSize));
+      // a buffer from the pool still has the values of the closed vector
+      values.clear();
+      return vector;
+    }
+
+    @Override
+    public void resizeIfNeeded() {
+      if (values.capacity() == currentRowIndex) {
+        int newSize = values.capacity() * 2;
+        this.values.grow(newSize);
+        this.nullability = Arrays.copyOf(this.nullability, newSize);
+        setNullabilityToTrue(this.nullability, newSize / 2, newSize);
+      }
+    }
+  }
+
   public static class FileRowIndexColumnReader extends LongColumnReader {
     FileRowIndexColumnReader(int initialBatchSize) {
-      super(LongType.LONG, initialBatchSize);
+      this(initialBatchSize, VectorMemory.HEAP);
+    }
+
+    FileRowIndexColumnReader(int initialBatchSize, VectorMemory vectorMemory) {
+      super(LongType.LONG, initialBatchSize, vectorMemory);
     }
 
     @Override
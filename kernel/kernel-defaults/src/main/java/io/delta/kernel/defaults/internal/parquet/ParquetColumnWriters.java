@@ -20,6 +20,7 @@ import static io.delta.kernel.internal.util.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 import io.delta.kernel.data.*;
+import io.delta.kernel.defaults.internal.data.vector.DefaultUtf8Vector;
 import io.delta.kernel.types.*;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
@@ -347,9 +348,21 @@ class ParquetColumnWriters {
 
     @Override
     void writeNonNullRowValue(RecordConsumer recordConsumer, int rowId) {
-      Binary binary =
-          Binary.fromConstantByteArray(
-              columnVector.getString(rowId).getBytes(StandardCharsets.UTF_8));
+      Binary binary;
+      if (columnVector instanceof DefaultUtf8Vector) {
+        // write the bytes as they are, without decoding and encoding the string. The buffer is
+        // passed as reused, so that the writer copies the values it keeps (e.g. min/max stats)
+        // instead of the whole buffer of the vector.
+        DefaultUtf8Vector utf8Vector = (DefaultUtf8Vector) columnVector;
+        int start = utf8Vector.getStart(rowId);
+        binary =
+            Binary.fromReusedByteArray(
+                utf8Vector.getBuffer(), start, utf8Vector.getEnd(rowId) - start);
+      } else {
+        binary =
+            Binary.fromConstantByteArray(
+                columnVector.getString(rowId).getBytes(StandardCharsets.UTF_8));
+      }
       recordConsumer.addBinary(binary);
     }
   }
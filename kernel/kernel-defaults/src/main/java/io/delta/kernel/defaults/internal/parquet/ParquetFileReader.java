@@ -21,12 +21,14 @@ import static java.util.Objects.requireNonNull;
 import static org.apache.parquet.hadoop.ParquetInputFormat.*;
 
 import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.internal.data.vector.OffHeapAllocator;
 import io.delta.kernel.exceptions.KernelEngineException;
 import io.delta.kernel.expressions.Predicate;
 import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.types.StructField;
 import io.delta.kernel.types.StructType;
 import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
 import java.io.IOException;
 import java.util.*;
 import org.apache.hadoop.conf.Configuration;
@@ -36,6 +38,7 @@ import org.apache.parquet.hadoop.ParquetRecordReaderWrapper;
 import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
 import org.apache.parquet.io.api.GroupConverter;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
@@ -43,23 +46,66 @@ import org.apache.parquet.schema.MessageType;
 public class ParquetFileReader {
   private final Configuration configuration;
   private final int maxBatchSize;
+  private final boolean vectorized;
+  private final VectorMemory vectorMemory;
+  /** Cache of the footers of the files read. Empty when footer caching is disabled. */
+  private final Optional<ParquetFooterCache> footerCache;
 
   public ParquetFileReader(Configuration configuration) {
+    this(configuration, Optional.empty(), Optional.empty());
+  }
+
+  /**
+   * @param offHeapAllocator allocator of the off-heap column vectors returned by the reader. When
+   *     empty, the column vectors are on heap.
+   * @param footerCache cache of the footers of the files read, if enabled
+   */
+  public ParquetFileReader(
+      Configuration configuration,
+      Optional<OffHeapAllocator> offHeapAllocator,
+      Optional<ParquetFooterCache> footerCache) {
     this.configuration = requireNonNull(configuration, "configuration is null");
     this.maxBatchSize =
         configuration.getInt("delta.kernel.default.parquet.reader.batch-size", 1024);
     checkArgument(maxBatchSize > 0, "invalid Parquet reader batch size: " + maxBatchSize);
+    this.vectorized =
+        configuration.getBoolean("delta.kernel.default.parquet.reader.vectorized", false);
+    if (offHeapAllocator.isPresent()) {
+      this.vectorMemory = VectorMemory.offHeap(offHeapAllocator.get());
+    } else if (configuration.getBoolean(
+        "delta.kernel.default.parquet.reader.pooled-buffers", false)) {
+      this.vectorMemory = VectorMemory.POOLED;
+    } else {
+      this.vectorMemory = VectorMemory.HEAP;
+    }
+    this.footerCache = requireNonNull(footerCache, "footerCache is null");
   }
 
   public CloseableIterator<ColumnarBatch> read(
       String path, StructType schema, Optional<Predicate> predicate) {
+    // the size and modification time of the file are unknown, its footer isn't cached
+    return read(FileStatus.of(path, 0, 0), schema, predicate);
+  }
+
+  /**
+   * Read the given file. When the size of the file is known (i.e. not 0), its footer is taken from
+   * the footer cache if cached.
+   */
+  public CloseableIterator<ColumnarBatch> read(
+      FileStatus file, StructType schema, Optional<Predicate> predicate) {
+    if (vectorized) {
+      return new VectorizedParquetReader(
+          configuration, file, footerCache, schema, predicate, maxBatchSize);
+    }
+    String path = file.getPath();
 
     final boolean hasRowIndexCol =
         schema.indexOf(StructField.METADATA_ROW_INDEX_COLUMN_NAME) >= 0
             && schema.get(StructField.METADATA_ROW_INDEX_COLUMN_NAME).isMetadataColumn();
 
     return new CloseableIterator<ColumnarBatch>() {
-      private final BatchReadSupport readSupport = new BatchReadSupport(maxBatchSize, schema);
+      private final BatchReadSupport readSupport =
+          new BatchReadSupport(maxBatchSize, schema, vectorMemory);
       private ParquetRecordReaderWrapper<Object> reader;
       private boolean hasNotConsumedNextElement;
 
@@ -105,33 +151,15 @@ public class ParquetFileReader {
         if (reader == null) {
           org.apache.parquet.hadoop.ParquetFileReader fileReader = null;
           try {
-            Configuration confCopy = configuration;
             Path filePath = new Path(path);
 
             // We need physical schema in order to construct a filter that can be
             // pushed into the `parquet-mr` reader. For that reason read the footer
             // in advance.
-            ParquetMetadata footer =
-                org.apache.parquet.hadoop.ParquetFileReader.readFooter(confCopy, filePath);
+            ParquetMetadata footer = readFooter(configuration, file, footerCache);
 
             MessageType parquetSchema = footer.getFileMetaData().getSchema();
-            Optional<FilterPredicate> parquetPredicate =
-                predicate.flatMap(predicate -> toParquetFilter(parquetSchema, predicate));
-
-            if (parquetPredicate.isPresent()) {
-              // clone the configuration to avoid modifying the original one
-              confCopy = new Configuration(confCopy);
-
-              setFilterPredicate(confCopy, parquetPredicate.get());
-              // Disable the record level filtering as the `parquet-mr` evaluates
-              // the filter once the entire record has been materialized. Instead,
-              // we use the predicate to prune the row groups which is more efficient.
-              // In the future, we can consider using the record level filtering if a
-              // native Parquet reader is implemented in Kernel default module.
-              confCopy.set(RECORD_FILTERING_ENABLED, "false");
-              confCopy.set(DICTIONARY_FILTERING_ENABLED, "false");
-              confCopy.set(COLUMN_INDEX_FILTERING_ENABLED, "false");
-            }
+            Configuration confCopy = withFilterPredicate(configuration, parquetSchema, predicate);
 
             // Pass the already read footer to the reader to avoid reading it again.
             fileReader = new ParquetFileReaderWithFooter(filePath, confCopy, footer);
@@ -146,6 +174,55 @@ public class ParquetFileReader {
     };
   }
 
+  /**
+   * Read the footer of the given file, from the footer cache if given and the size of the file is
+   * known.
+   */
+  static ParquetMetadata readFooter(
+      Configuration configuration, FileStatus file, Optional<ParquetFooterCache> footerCache)
+      throws IOException {
+    if (footerCache.isPresent() && file.getSize() > 0) {
+      return footerCache
+          .get()
+          .getFooter(configuration, file.getPath(), file.getSize(), file.getModificationTime());
+    }
+    return ParquetFooterCache.readFooter(
+        configuration, HadoopInputFile.fromPath(new Path(file.getPath()), configuration));
+  }
+
+  /**
+   * Returns the configuration to read a file with the given Parquet schema, with the filter
+   * predicate to prune the row groups and pages of the file if the {@code predicate} can be
+   * converted to a Parquet filter.
+   */
+  static Configuration withFilterPredicate(
+      Configuration configuration, MessageType parquetSchema, Optional<Predicate> predicate) {
+    Optional<FilterPredicate> parquetPredicate =
+        predicate.flatMap(p -> toParquetFilter(parquetSchema, p));
+    if (!parquetPredicate.isPresent()) {
+      return configuration;
+    }
+    // clone the configuration to avoid modifying the original one
+    Configuration confCopy = new Configuration(configuration);
+
+    setFilterPredicate(confCopy, parquetPredicate.get());
+    // Disable the record level filtering as the `parquet-mr` evaluates
+    // the filter once the entire record has been materialized. Instead,
+    // we use the predicate to prune the row groups which is more efficient.
+    // In the future, we can consider using the record level filtering if a
+    // native Parquet reader is implemented in Kernel default module.
+    confCopy.set(RECORD_FILTERING_ENABLED, "false");
+    // Prune the row groups none of whose dictionary values match the filter.
+    confCopy.set(DICTIONARY_FILTERING_ENABLED, "true");
+    // Skip the pages none of whose rows can match the filter according to the column index of
+    // the file (if any). The rows of the remaining pages of a row group that are not in any of
+    // their row ranges are skipped too, so that all the columns have the same rows. The row
+    // indexes of the rows read are still the ones in the file (see
+    // `PageReadStore.getRowIndexes`), so that deletion vectors apply to the right rows.
+    confCopy.set(COLUMN_INDEX_FILTERING_ENABLED, "true");
+    return confCopy;
+  }
+
   /**
    * Implement a {@link ReadSupport} that will collect the data for each row and return as a {@link
    * ColumnarBatch}.
@@ -153,11 +230,17 @@ public class ParquetFileReader {
   public static class BatchReadSupport extends ReadSupport<Object> {
     private final int maxBatchSize;
     private final StructType readSchema;
+    private final VectorMemory vectorMemory;
     private RowRecordCollector rowRecordCollector;
 
     public BatchReadSupport(int maxBatchSize, StructType readSchema) {
+      this(maxBatchSize, readSchema, VectorMemory.HEAP);
+    }
+
+    BatchReadSupport(int maxBatchSize, StructType readSchema, VectorMemory vectorMemory) {
       this.maxBatchSize = maxBatchSize;
       this.readSchema = requireNonNull(readSchema, "readSchema is not null");
+      this.vectorMemory = vectorMemory;
     }
 
     @Override
@@ -171,7 +254,8 @@ public class ParquetFileReader {
         Map<String, String> keyValueMetaData,
         MessageType fileSchema,
         ReadContext readContext) {
-      rowRecordCollector = new RowRecordCollector(maxBatchSize, readSchema, fileSchema);
+      rowRecordCollector =
+          new RowRecordCollector(maxBatchSize, readSchema, fileSchema, vectorMemory);
       return rowRecordCollector;
     }
 
@@ -197,7 +281,16 @@ public class ParquetFileReader {
     private final RowColumnReader rowRecordGroupConverter;
 
     public RowRecordCollector(int maxBatchSize, StructType readSchema, MessageType fileSchema) {
-      this.rowRecordGroupConverter = new RowColumnReader(maxBatchSize, readSchema, fileSchema);
+      this(maxBatchSize, readSchema, fileSchema, VectorMemory.HEAP);
+    }
+
+    RowRecordCollector(
+        int maxBatchSize,
+        StructType readSchema,
+        MessageType fileSchema,
+        VectorMemory vectorMemory) {
+      this.rowRecordGroupConverter =
+          new RowColumnReader(maxBatchSize, readSchema, fileSchema, vectorMemory);
     }
 
     @Override
@@ -239,10 +332,11 @@ public class ParquetFileReader {
    * footer instead of reading it again. We read the footer in advance to construct a predicate for
    * filtering rows.
    */
-  private static class ParquetFileReaderWithFooter
-      extends org.apache.parquet.hadoop.ParquetFileReader {
+  static class ParquetFileReaderWithFooter extends org.apache.parquet.hadoop.ParquetFileReader {
     private final ParquetMetadata footer;
 
+    // parquet-mr has no other constructor taking the footer already read
+    @SuppressWarnings("deprecation")
     ParquetFileReaderWithFooter(Path filePath, Configuration configuration, ParquetMetadata footer)
         throws IOException {
       super(configuration, filePath, footer);
@@ -15,8 +15,9 @@
  */
 package io.delta.kernel.defaults.internal.parquet;
 
-import static io.delta.kernel.defaults.internal.parquet.ParquetStatsReader.readDataFileStatistics;
+import static io.delta.kernel.defaults.internal.parquet.ParquetStatsReader.getDataFileStatistics;
 import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static io.delta.kernel.internal.util.Preconditions.checkState;
 import static java.util.Collections.emptyMap;
 import static java.util.Objects.requireNonNull;
 import static org.apache.parquet.hadoop.ParquetOutputFormat.*;
@@ -28,16 +29,21 @@ import io.delta.kernel.expressions.Column;
 import io.delta.kernel.internal.util.Utils;
 import io.delta.kernel.types.StructType;
 import io.delta.kernel.utils.*;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.*;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.ParquetOutputFormat;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopOutputFile;
+import org.apache.parquet.io.OutputFile;
+import org.apache.parquet.io.PositionOutputStream;
 import org.apache.parquet.io.api.RecordConsumer;
 import org.apache.parquet.schema.MessageType;
 
@@ -50,6 +56,10 @@ import org.apache.parquet.schema.MessageType;
  * is {@link BatchWriteSupport}). {@link BatchWriteSupport}, on call back from {@link
  * ParquetWriter}, reads the contents of {@link ColumnarBatch} and passes the contents to {@link
  * ParquetWriter} through {@link RecordConsumer}.
+ *
+ * <p>The size and the statistics of each file written are taken from the writer once the file is
+ * closed (the column statistics from the footer {@link ParquetWriter} builds while writing), so the
+ * file is not accessed again after it is written.
  */
 public class ParquetFileWriter {
   public static final String TARGET_FILE_SIZE_CONF =
@@ -97,35 +107,31 @@ public class ParquetFileWriter {
   public CloseableIterator<DataFileStatus> write(
       CloseableIterator<FilteredColumnarBatch> dataIter) {
     return new CloseableIterator<DataFileStatus>() {
-      // Last written file output.
-      private Optional<DataFileStatus> lastWrittenFileOutput = Optional.empty();
-
-      // Current batch of data that is being written, updated in {@link #hasNextRow()}.
-      private FilteredColumnarBatch currentBatch = null;
-
-      // Which record in the `currentBatch` is being written,
-      // initialized in {@link #hasNextRow()} and updated in {@link #consumeNextRow}.
-      private int currentBatchCursor = 0;
+      private final Appender appender = newAppender();
 
-      // BatchWriteSupport is initialized when the first batch is read and reused for
-      // subsequent batches with the same schema. `ParquetWriter` can use this write support
-      // to consume data from `ColumnarBatch` and write it to Parquet files.
-      private BatchWriteSupport batchWriteSupport = null;
+      // Files written but not returned yet.
+      private final Queue<DataFileStatus> writtenFiles = new ArrayDeque<>();
 
-      private StructType dataSchema = null;
+      // Whether all the data is written and the last file is closed.
+      private boolean finished = false;
 
       @Override
       public void close() {
-        Utils.closeCloseables(dataIter);
+        Utils.closeCloseables(appender, dataIter);
       }
 
       @Override
       public boolean hasNext() {
-        if (lastWrittenFileOutput.isPresent()) {
-          return true;
+        // Keep writing until a file is completed or no more data to write
+        while (writtenFiles.isEmpty() && !finished) {
+          if (dataIter.hasNext()) {
+            writtenFiles.addAll(appender.append(dataIter.next()));
+          } else {
+            appender.finish().ifPresent(writtenFiles::add);
+            finished = true;
+          }
         }
-        lastWrittenFileOutput = writeNextFile();
-        return lastWrittenFileOutput.isPresent();
+        return !writtenFiles.isEmpty();
       }
 
       @Override
@@ -133,121 +139,160 @@ public class ParquetFileWriter {
         if (!hasNext()) {
           throw new NoSuchElementException();
         }
-        DataFileStatus toReturn = lastWrittenFileOutput.get();
-        lastWrittenFileOutput = Optional.empty();
-        return toReturn;
+        return writtenFiles.remove();
       }
+    };
+  }
 
-      private Optional<DataFileStatus> writeNextFile() {
-        if (!hasNextRow()) {
-          return Optional.empty();
-        }
+  /**
+   * Create an {@link Appender} to write data pushed to it batch by batch, instead of pulled from an
+   * iterator as {@link #write} does.
+   */
+  Appender newAppender() {
+    return new Appender();
+  }
 
-        Path filePath = generateNextFilePath();
-        assert batchWriteSupport != null : "batchWriteSupport is not initialized";
-        long currentFileRowCount = 0; // tracks the number of rows written to the current file
-        try (ParquetWriter<Integer> writer = createWriter(filePath, batchWriteSupport)) {
-          boolean maxFileSizeReached;
-          do {
-            if (consumeNextRow(writer)) {
-              // If the row was written, increment the row count
-              currentFileRowCount++;
-            }
-            // If we are writing a single file, then don't need to check for the current
-            // file size. Otherwise see if the current file size reached the target file
-            // size.
-            maxFileSizeReached = !writeAsSingleFile && writer.getDataSize() >= targetMaxFileSize;
-            // Keep writing until max file is reached or no more data to write
-          } while (!maxFileSizeReached && hasNextRow());
+  /**
+   * Writes the batches given to {@link #append} to Parquet files. The current file is kept open
+   * between the calls and closed once it reaches the target file size or on {@link #finish}.
+   *
+   * <p>Not thread-safe, but the calls don't need to be made by the same thread.
+   */
+  class Appender implements Closeable {
+    // BatchWriteSupport is initialized when the first batch is appended and reused for
+    // subsequent batches with the same schema. `ParquetWriter` can use this write support
+    // to consume data from `ColumnarBatch` and write it to Parquet files.
+    private BatchWriteSupport batchWriteSupport = null;
+
+    private StructType dataSchema = null;
+
+    // The file being written, null when no file is open.
+    private Path filePath = null;
+    private SizeTrackingOutputFile outputFile = null;
+    private ParquetWriter<Integer> writer = null;
+    private long currentFileRowCount = 0; // tracks the number of rows written to the current file
+
+    /**
+     * Write the rows of the given batch. A file is opened when there are rows to write and no file
+     * is open.
+     *
+     * @return the files completed while writing the batch, i.e. that reached the target file size.
+     */
+    List<DataFileStatus> append(FilteredColumnarBatch batch) {
+      ColumnarBatch inputBatch = batch.getData();
+      int size = inputBatch.getSize();
+      if (size == 0) {
+        return Collections.emptyList(); // skip empty batches
+      }
+      // Initialize the batch support and create writers for each column
+      dataSchema = inputBatch.getSchema();
+      BatchWriteSupport writeSupport = createOrGetWriteSupport(dataSchema);
+      writeSupport.setColumnVectorWriters(
+          ParquetColumnWriters.createColumnVectorWriters(inputBatch));
+
+      Optional<ColumnVector> selectionVector = batch.getSelectionVector();
+      List<DataFileStatus> completedFiles = new ArrayList<>(1);
+      for (int rowId = 0; rowId < size; rowId++) {
+        if (writer == null) {
+          openNextFile();
+        }
+        boolean isRowSelected =
+            !selectionVector.isPresent()
+                || (!selectionVector.get().isNullAt(rowId)
+                    && selectionVector.get().getBoolean(rowId));
+        try {
+          if (isRowSelected) {
+            writer.write(rowId);
+            currentFileRowCount++;
+          }
         } catch (IOException e) {
           throw new UncheckedIOException("Failed to write the Parquet file: " + filePath, e);
         }
-
-        return Optional.of(
-            constructDataFileStatus(filePath.toString(), dataSchema, currentFileRowCount));
-      }
-
-      /**
-       * Returns true if there is data to write.
-       *
-       * <p>Internally it traverses the rows in one batch after the other. Whenever a batch is fully
-       * consumed, moves to the next input batch and updates the column writers in
-       * `batchWriteSupport`.
-       */
-      boolean hasNextRow() {
-        boolean hasNextRowInCurrentBatch =
-            currentBatch != null
-                &&
-                // Is current batch is fully read?
-                currentBatchCursor < currentBatch.getData().getSize();
-
-        if (hasNextRowInCurrentBatch) {
-          return true;
+        // If we are writing a single file, then don't need to check for the current
+        // file size. Otherwise see if the current file size reached the target file
+        // size.
+        if (!writeAsSingleFile && writer.getDataSize() >= targetMaxFileSize) {
+          completedFiles.add(closeCurrentFile());
         }
+      }
+      return completedFiles;
+    }
 
-        // loop until we find a non-empty batch or there are no more batches
-        do {
-          if (!dataIter.hasNext()) {
-            return false;
-          }
-          currentBatch = dataIter.next();
-          currentBatchCursor = 0;
-        } while (currentBatch.getData().getSize() == 0); // skip empty batches
-
-        // Initialize the batch support and create writers for each column
-        ColumnarBatch inputBatch = currentBatch.getData();
-        dataSchema = inputBatch.getSchema();
-        BatchWriteSupport writeSupport = createOrGetWriteSupport(dataSchema);
-
-        ColumnWriter[] columnWriters = ParquetColumnWriters.createColumnVectorWriters(inputBatch);
+    /** Close the current file, if any, and return its status. */
+    Optional<DataFileStatus> finish() {
+      return writer == null ? Optional.empty() : Optional.of(closeCurrentFile());
+    }
 
-        writeSupport.setColumnVectorWriters(columnWriters);
+    /**
+     * Approximate size in bytes of the data of the current file held in memory, i.e. written but
+     * not flushed to the file yet as its row group is not complete.
+     */
+    long getBufferedSize() {
+      if (writer == null) {
+        return 0;
+      }
+      try {
+        return Math.max(0, writer.getDataSize() - outputFile.getPos());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to write the Parquet file: " + filePath, e);
+      }
+    }
 
-        return true;
+    /** Close the current file, if any, without returning its status, e.g. on failure. */
+    @Override
+    public void close() {
+      if (writer != null) {
+        ParquetWriter<Integer> toClose = writer;
+        writer = null;
+        Utils.closeCloseables(toClose);
       }
+    }
 
-      /**
-       * Consume the next row of data to write. If the row is selected, write it. Otherwise, skip
-       * it. At the end move the cursor to the next row.
-       *
-       * @return true if the row was written, false if it was skipped
-       */
-      boolean consumeNextRow(ParquetWriter<Integer> writer) throws IOException {
-        Optional<ColumnVector> selectionVector = currentBatch.getSelectionVector();
-        boolean isRowSelected =
-            !selectionVector.isPresent()
-                || (!selectionVector.get().isNullAt(currentBatchCursor)
-                    && selectionVector.get().getBoolean(currentBatchCursor));
+    private void openNextFile() {
+      filePath = generateNextFilePath();
+      currentFileRowCount = 0;
+      try {
+        outputFile = new SizeTrackingOutputFile(HadoopOutputFile.fromPath(filePath, configuration));
+        writer = createWriter(outputFile, batchWriteSupport);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to write the Parquet file: " + filePath, e);
+      }
+    }
 
-        if (isRowSelected) {
-          writer.write(currentBatchCursor);
-        }
-        currentBatchCursor++;
-        return isRowSelected;
+    private DataFileStatus closeCurrentFile() {
+      ParquetMetadata footer;
+      try {
+        writer.close();
+        footer = writer.getFooter();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to write the Parquet file: " + filePath, e);
+      } finally {
+        writer = null;
       }
+      return constructDataFileStatus(filePath, outputFile, footer, dataSchema, currentFileRowCount);
+    }
 
-      /**
-       * Create a {@link BatchWriteSupport} if it does not exist or return the existing one for
-       * given schema.
-       */
-      BatchWriteSupport createOrGetWriteSupport(StructType inputSchema) {
-        if (batchWriteSupport == null) {
-          MessageType parquetSchema = ParquetSchemaUtils.toParquetSchema(inputSchema);
-          batchWriteSupport = new BatchWriteSupport(inputSchema, parquetSchema);
-          return batchWriteSupport;
-        }
-        // Ensure the new input schema matches the one used to create the write support
-        if (!batchWriteSupport.inputSchema.equals(inputSchema)) {
-          throw new IllegalArgumentException(
-              "Input data has columnar batches with "
-                  + "different schemas:\n schema 1: "
-                  + batchWriteSupport.inputSchema
-                  + "\n schema 2: "
-                  + inputSchema);
-        }
+    /**
+     * Create a {@link BatchWriteSupport} if it does not exist or return the existing one for given
+     * schema.
+     */
+    private BatchWriteSupport createOrGetWriteSupport(StructType inputSchema) {
+      if (batchWriteSupport == null) {
+        MessageType parquetSchema = ParquetSchemaUtils.toParquetSchema(inputSchema);
+        batchWriteSupport = new BatchWriteSupport(inputSchema, parquetSchema);
         return batchWriteSupport;
       }
-    };
+      // Ensure the new input schema matches the one used to create the write support
+      if (!batchWriteSupport.inputSchema.equals(inputSchema)) {
+        throw new IllegalArgumentException(
+            "Input data has columnar batches with "
+                + "different schemas:\n schema 1: "
+                + batchWriteSupport.inputSchema
+                + "\n schema 2: "
+                + inputSchema);
+      }
+      return batchWriteSupport;
+    }
   }
 
   /**
@@ -326,9 +371,9 @@ public class ParquetFileWriter {
    * use of configuration options in `configuration` to configure the writer. Different available
    * configuration options are defined in {@link ParquetOutputFormat}.
    */
-  private ParquetWriter<Integer> createWriter(Path filePath, WriteSupport<Integer> writeSupport)
-      throws IOException {
-    return new ParquetRowDataBuilder(filePath, writeSupport)
+  private ParquetWriter<Integer> createWriter(
+      OutputFile outputFile, WriteSupport<Integer> writeSupport) throws IOException {
+    return new ParquetRowDataBuilder(outputFile, writeSupport)
         .withCompressionCodec(
             CompressionCodecName.fromConf(
                 configuration.get(
@@ -349,8 +394,8 @@ public class ParquetFileWriter {
       extends ParquetWriter.Builder<Integer, ParquetRowDataBuilder> {
     private final WriteSupport<Integer> writeSupport;
 
-    protected ParquetRowDataBuilder(Path path, WriteSupport<Integer> writeSupport) {
-      super(path);
+    protected ParquetRowDataBuilder(OutputFile outputFile, WriteSupport<Integer> writeSupport) {
+      super(outputFile);
       this.writeSupport = requireNonNull(writeSupport, "writeSupport is null");
     }
 
@@ -366,24 +411,116 @@ public class ParquetFileWriter {
   }
 
   /**
-   * Construct the {@link DataFileStatus} for the given file path. It reads the file status and
-   * Parquet footer to compute the statistics for the file.
-   *
-   * <p>Potential improvement in future to directly compute the statistics while writing the file if
-   * this becomes a sufficiently large part of the write operation time.
+   * {@link OutputFile} that records the size of the file written once its stream is closed, so that
+   * the size is known without getting the status of the file.
+   */
+  private static class SizeTrackingOutputFile implements OutputFile {
+    private final OutputFile delegate;
+    private PositionOutputStream stream;
+    private long size = -1;
+    private long closeTime = -1;
+
+    SizeTrackingOutputFile(OutputFile delegate) {
+      this.delegate = requireNonNull(delegate, "delegate is null");
+    }
+
+    @Override
+    public PositionOutputStream create(long blockSizeHint) throws IOException {
+      return track(delegate.create(blockSizeHint));
+    }
+
+    @Override
+    public PositionOutputStream createOrOverwrite(long blockSizeHint) throws IOException {
+      return track(delegate.createOrOverwrite(blockSizeHint));
+    }
+
+    @Override
+    public boolean supportsBlockSize() {
+      return delegate.supportsBlockSize();
+    }
+
+    @Override
+    public long defaultBlockSize() {
+      return delegate.defaultBlockSize();
+    }
+
+    @Override
+    public String getPath() {
+      return delegate.getPath();
+    }
+
+    /** Number of bytes written to the file so far. */
+    long getPos() throws IOException {
+      return stream == null ? 0 : stream.getPos();
+    }
+
+    /** Size of the file written, only available after the file is closed. */
+    long getSize() {
+      checkState(size >= 0, "file is not closed: " + getPath());
+      return size;
+    }
+
+    /** Time in milliseconds since the epoch when the file was closed. */
+    long getCloseTime() {
+      checkState(closeTime >= 0, "file is not closed: " + getPath());
+      return closeTime;
+    }
+
+    private PositionOutputStream track(PositionOutputStream stream) {
+      this.stream = stream;
+      return new PositionOutputStream() {
+        @Override
+        public long getPos() throws IOException {
+          return stream.getPos();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+          stream.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+          stream.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+          stream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+          long pos = stream.getPos();
+          stream.close();
+          size = pos;
+          closeTime = System.currentTimeMillis();
+        }
+      };
+    }
+  }
+
+  /**
+   * Construct the {@link DataFileStatus} for the given file path from the file size tracked while
+   * writing and the Parquet footer built by the writer, without accessing the file again.
    *
    * @param path the path of the file
+   * @param outputFile the output file the data was written to, after it is closed
+   * @param footer the footer of the file as written by the {@link ParquetWriter}
    * @param dataSchema the schema of the data in the file
    * @param numRows the number of rows in the file. If no column stats are required, this is used to
-   *     construct the {@link DataFileStatistics}. Otherwise, the stats are read from the file.
+   *     construct the {@link DataFileStatistics}. Otherwise, the stats are computed from the
+   *     footer.
    * @return the {@link DataFileStatus} for the file
    */
-  private DataFileStatus constructDataFileStatus(String path, StructType dataSchema, long numRows) {
+  private DataFileStatus constructDataFileStatus(
+      Path path,
+      SizeTrackingOutputFile outputFile,
+      ParquetMetadata footer,
+      StructType dataSchema,
+      long numRows) {
     try {
-      // Get the FileStatus to figure out the file size and modification time
-      Path hadoopPath = new Path(path);
-      FileStatus fileStatus = hadoopPath.getFileSystem(configuration).getFileStatus(hadoopPath);
-      Path resolvedPath = fileStatus.getPath();
+      Path resolvedPath = path.getFileSystem(configuration).makeQualified(path);
 
       DataFileStatistics stats;
       if (statsColumns.isEmpty()) {
@@ -394,16 +531,28 @@ public class ParquetFileWriter {
                 emptyMap() /* maxValues */,
                 emptyMap() /* nullCounts */);
       } else {
-        stats = readDataFileStatistics(resolvedPath, configuration, dataSchema, statsColumns);
+        stats = getDataFileStatistics(asReadFromFile(footer), dataSchema, statsColumns);
       }
 
       return new DataFileStatus(
           resolvedPath.toString(),
-          fileStatus.getLen(),
-          fileStatus.getModificationTime(),
+          outputFile.getSize(),
+          outputFile.getCloseTime(),
           Optional.ofNullable(stats));
     } catch (IOException ioe) {
-      throw new UncheckedIOException("Failed to read the stats for: " + path, ioe);
+      throw new UncheckedIOException("Failed to compute the stats for: " + path, ioe);
     }
   }
+
+  /**
+   * The footer built by the writer holds the statistics as collected. Convert it the way it is
+   * serialized and read back, so the statistics are the same as when read from the file (e.g.
+   * min/max values too large to be stored in the file are dropped).
+   */
+  private static ParquetMetadata asReadFromFile(ParquetMetadata footer) throws IOException {
+    ParquetMetadataConverter converter = new ParquetMetadataConverter();
+    return converter.fromParquetMetadata(
+        converter.toParquetMetadata(
+            org.apache.parquet.hadoop.ParquetFileWriter.CURRENT_VERSION, footer));
+  }
 }
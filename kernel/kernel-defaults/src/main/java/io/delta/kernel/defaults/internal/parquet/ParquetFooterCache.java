@@ -0,0 +1,270 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.HadoopReadOptions;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+
+/**
+ * LRU cache of the footers of Parquet files, keyed by the path, length and modification time of the
+ * file, so that a file replaced by another one at the same path doesn't get the old footer. The
+ * cache is bounded by the approximate in-memory size of the cached footers.
+ *
+ * <p>The footers are shared by all the readers of a file, which must not modify them. The {@link
+ * io.delta.kernel.defaults.engine.DefaultParquetHandler} has one cache shared by its data and
+ * checkpoint reads, so that repeated scans of a snapshot and the snapshots reading the same
+ * checkpoint don't read the same footers again.
+ */
+public class ParquetFooterCache {
+  private final long maxCacheSizeBytes;
+
+  /** Footers by file, in access order. Guarded by {@code this}. */
+  private final LinkedHashMap<Key, CachedFooter> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+  /** Total approximate size of the cached footers. Guarded by {@code this}. */
+  private long cacheSizeBytes;
+
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
+
+  /**
+   * @param maxCacheSizeBytes maximum total approximate size of the cached footers, {@code 0} to not
+   *     cache them
+   */
+  public ParquetFooterCache(long maxCacheSizeBytes) {
+    checkArgument(maxCacheSizeBytes >= 0, "invalid footer cache size: " + maxCacheSizeBytes);
+    this.maxCacheSizeBytes = maxCacheSizeBytes;
+  }
+
+  /**
+   * Get the footer of the given file, reading it if not cached.
+   *
+   * @param configuration Hadoop configuration to read the footer with
+   * @param path fully qualified path of the file
+   * @param length length of the file in bytes
+   * @param modificationTime modification time of the file, in milliseconds since the epoch
+   */
+  public ParquetMetadata getFooter(
+      Configuration configuration, String path, long length, long modificationTime)
+      throws IOException {
+    // the status of the file is known, reading the footer doesn't need to get it again
+    FileStatus fileStatus = new FileStatus(length, false, 0, 0, modificationTime, new Path(path));
+    return getFooter(configuration, fileStatus);
+  }
+
+  /** Get the footer of the file with the given status, reading it if not cached. */
+  public ParquetMetadata getFooter(Configuration configuration, FileStatus fileStatus)
+      throws IOException {
+    return getFooter(
+        new Key(
+            fileStatus.getPath().toString(), fileStatus.getLen(), fileStatus.getModificationTime()),
+        // reading the footer with the status of the file doesn't get the status again
+        () -> readFooter(configuration, HadoopInputFile.fromStatus(fileStatus, configuration)));
+  }
+
+  /** Read the footer of the given file, without caching it. */
+  static ParquetMetadata readFooter(Configuration configuration, InputFile file)
+      throws IOException {
+    try (org.apache.parquet.hadoop.ParquetFileReader reader =
+        org.apache.parquet.hadoop.ParquetFileReader.open(
+            file, HadoopReadOptions.builder(configuration).build())) {
+      return reader.getFooter();
+    }
+  }
+
+  /** Returns the metrics of this cache since it was created. */
+  public Metrics getMetrics() {
+    synchronized (this) {
+      return new Metrics(
+          hitCount.get(), missCount.get(), evictionCount.get(), cache.size(), cacheSizeBytes);
+    }
+  }
+
+  /** Drop all the cached footers. */
+  public synchronized void clear() {
+    cache.clear();
+    cacheSizeBytes = 0;
+  }
+
+  private ParquetMetadata getFooter(Key key, FooterReader reader) throws IOException {
+    ParquetMetadata cached = getCached(key);
+    if (cached != null) {
+      hitCount.incrementAndGet();
+      return cached;
+    }
+    missCount.incrementAndGet();
+    ParquetMetadata footer = reader.read();
+    putCached(key, footer, estimateSize(footer));
+    return footer;
+  }
+
+  private synchronized ParquetMetadata getCached(Key key) {
+    CachedFooter cached = cache.get(key);
+    return cached == null ? null : cached.footer;
+  }
+
+  private synchronized void putCached(Key key, ParquetMetadata footer, long sizeInBytes) {
+    if (sizeInBytes > maxCacheSizeBytes) {
+      return;
+    }
+    CachedFooter previous = cache.put(key, new CachedFooter(footer, sizeInBytes));
+    cacheSizeBytes += sizeInBytes - (previous == null ? 0 : previous.sizeInBytes);
+    Iterator<CachedFooter> eldest = cache.values().iterator();
+    while (cacheSizeBytes > maxCacheSizeBytes) {
+      cacheSizeBytes -= eldest.next().sizeInBytes;
+      eldest.remove();
+      evictionCount.incrementAndGet();
+    }
+  }
+
+  /**
+   * Approximate in-memory size of a footer: a fixed overhead per file, row group and column chunk,
+   * plus the variable size data, i.e. the key-value metadata and the min/max statistics.
+   */
+  static long estimateSize(ParquetMetadata footer) {
+    long size = 1024 + 128L * footer.getFileMetaData().getSchema().getColumns().size();
+    for (Map.Entry<String, String> entry :
+        footer.getFileMetaData().getKeyValueMetaData().entrySet()) {
+      size += 2L * (entry.getKey().length() + entry.getValue().length());
+    }
+    for (BlockMetaData block : footer.getBlocks()) {
+      size += 128;
+      for (ColumnChunkMetaData column : block.getColumns()) {
+        size += 256;
+        Statistics<?> statistics = column.getStatistics();
+        if (statistics != null && statistics.hasNonNullValue()) {
+          size += statistics.getMinBytes().length + statistics.getMaxBytes().length;
+        }
+      }
+    }
+    return size;
+  }
+
+  private interface FooterReader {
+    ParquetMetadata read() throws IOException;
+  }
+
+  private static class Key {
+    final String path;
+    final long length;
+    final long modificationTime;
+
+    Key(String path, long length, long modificationTime) {
+      this.path = path;
+      this.length = length;
+      this.modificationTime = modificationTime;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return length == key.length
+          && modificationTime == key.modificationTime
+          && path.equals(key.path);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(path, length, modificationTime);
+    }
+  }
+
+  private static class CachedFooter {
+    final ParquetMetadata footer;
+    final long sizeInBytes;
+
+    CachedFooter(ParquetMetadata footer, long sizeInBytes) {
+      this.footer = footer;
+      this.sizeInBytes = sizeInBytes;
+    }
+  }
+
+  /** Metrics of a {@link ParquetFooterCache}. */
+  public static class Metrics {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long cachedCount;
+    private final long cachedBytes;
+
+    Metrics(long hitCount, long missCount, long evictionCount, long cachedCount, long cachedBytes) {
+      this.hitCount = hitCount;
+      this.missCount = missCount;
+      this.evictionCount = evictionCount;
+      this.cachedCount = cachedCount;
+      this.cachedBytes = cachedBytes;
+    }
+
+    /** Number of footers returned from the cache. */
+    public long getHitCount() {
+      return hitCount;
+    }
+
+    /** Number of footers read from storage. */
+    public long getMissCount() {
+      return missCount;
+    }
+
+    /** Fraction of the footers returned from the cache. */
+    public double getHitRate() {
+      long requestCount = hitCount + missCount;
+      return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    /** Number of footers dropped from the cache to make room for others. */
+    public long getEvictionCount() {
+      return evictionCount;
+    }
+
+    /** Number of footers currently cached. */
+    public long getCachedCount() {
+      return cachedCount;
+    }
+
+    /** Approximate total size of the footers currently cached. */
+    public long getCachedBytes() {
+      return cachedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "ParquetFooterCache.Metrics(hits=%d, misses=%d, evictions=%d, cached=%d, "
+              + "cachedBytes=%d)",
+          hitCount, missCount, evictionCount, cachedCount, cachedBytes);
+    }
+  }
+}
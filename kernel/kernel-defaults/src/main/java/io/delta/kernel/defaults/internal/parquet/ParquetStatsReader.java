@@ -25,16 +25,15 @@ import io.delta.kernel.expressions.Column;
 import io.delta.kernel.expressions.Literal;
 import io.delta.kernel.types.*;
 import io.delta.kernel.utils.DataFileStatistics;
+import io.delta.kernel.utils.FileStatus;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.*;
 import org.apache.hadoop.conf.Configuration;
-import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.shaded.com.google.common.collect.ImmutableMultimap;
 import org.apache.hadoop.shaded.com.google.common.collect.Multimap;
 import org.apache.parquet.column.statistics.*;
-import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.metadata.*;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
@@ -42,22 +41,38 @@ import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotat
 /** Helper class to read statistics from Parquet files. */
 public class ParquetStatsReader {
   /**
-   * Read the statistics for the given Parquet file.
+   * Read the statistics for the given Parquet file. When the size of the file is known (i.e. not
+   * 0), its footer is taken from the given footer cache if cached.
    *
-   * @param parquetFilePath The path to the Parquet file.
+   * @param parquetFile The Parquet file.
    * @param hadoopConf The Hadoop configuration to use for reading the file.
+   * @param footerCache The cache of the footers of the files read, if any.
    * @param dataSchema The schema of the Parquet file. Type info is used to decode statistics.
    * @param statsColumns The columns for which statistics should be collected and returned.
    * @return File/column level statistics as {@link DataFileStatistics} instance.
    */
   public static DataFileStatistics readDataFileStatistics(
-      Path parquetFilePath,
+      FileStatus parquetFile,
       Configuration hadoopConf,
+      Optional<ParquetFooterCache> footerCache,
       StructType dataSchema,
       List<Column> statsColumns)
       throws IOException {
     // Read the Parquet footer to compute the statistics
-    ParquetMetadata footer = ParquetFileReader.readFooter(hadoopConf, parquetFilePath);
+    ParquetMetadata footer = ParquetFileReader.readFooter(hadoopConf, parquetFile, footerCache);
+    return getDataFileStatistics(footer, dataSchema, statsColumns);
+  }
+
+  /**
+   * Compute the statistics of a Parquet file from its footer.
+   *
+   * @param footer The footer of the Parquet file, as read from the file.
+   * @param dataSchema The schema of the Parquet file. Type info is used to decode statistics.
+   * @param statsColumns The columns for which statistics should be collected and returned.
+   * @return File/column level statistics as {@link DataFileStatistics} instance.
+   */
+  public static DataFileStatistics getDataFileStatistics(
+      ParquetMetadata footer, StructType dataSchema, List<Column> statsColumns) {
     ImmutableMultimap.Builder<Column, ColumnChunkMetaData> metadataForColumn =
         ImmutableMultimap.builder();
 
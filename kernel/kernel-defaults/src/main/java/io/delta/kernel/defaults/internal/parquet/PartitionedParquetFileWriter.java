@@ -0,0 +1,447 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.data.FilteredColumnarBatch;
+import io.delta.kernel.defaults.internal.DefaultKernelUtils;
+import io.delta.kernel.exceptions.KernelEngineException;
+import io.delta.kernel.expressions.Column;
+import io.delta.kernel.internal.util.Tuple2;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.DataFileStatus;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+
+/**
+ * Writes data to Parquet files in multiple directories, e.g. the partitions of a table, with the
+ * directories written concurrently on a bounded pool of threads.
+ *
+ * <p>Each input batch is paired with the directory to write it to. The consumer thread reads the
+ * input data and adds each batch to the pending batches of the writer of its directory, which
+ * writes its own files of up to the target file size. A writer with pending batches is scheduled on
+ * the pool and writes them in order, so any number of directories can be written with a few
+ * threads. The consumer waits when the number of pending batches of all the writers reaches the
+ * queue size.
+ *
+ * <p>The open files of the writers buffer the data of their current row group in memory. When the
+ * total buffered size exceeds the memory budget, the file with the most buffered data among the
+ * writer that just wrote a batch and the writers that are not writing is closed early (it is then
+ * smaller than the target file size).
+ *
+ * <p>The written files are returned as soon as they are closed, while the rest of the data is
+ * written. The batches must not be modified by the producer of the input data once returned.
+ * Batches without any selected rows are not written.
+ */
+public class PartitionedParquetFileWriter {
+  /** How long to wait before checking whether the write failed, in millis. */
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  private final Configuration hadoopConf;
+  private final int parallelism;
+  private final int queueSize;
+  private final long memoryBudget;
+
+  /** Created on first use, so that no threads are started if nothing is written. */
+  private volatile Executor executor;
+
+  /**
+   * @param hadoopConf Hadoop configuration to use
+   * @param parallelism maximum number of directories written concurrently. With 0, the data is
+   *     written on the consumer thread as it is read.
+   * @param queueSize maximum number of batches pending per {@link #write} call
+   * @param memoryBudget maximum size in bytes of the data buffered by the open files of a {@link
+   *     #write} call
+   */
+  public PartitionedParquetFileWriter(
+      Configuration hadoopConf, int parallelism, int queueSize, long memoryBudget) {
+    checkArgument(parallelism >= 0, "invalid Parquet writer parallelism: " + parallelism);
+    checkArgument(queueSize > 0, "invalid Parquet writer queue size: " + queueSize);
+    checkArgument(memoryBudget > 0, "invalid Parquet writer memory budget: " + memoryBudget);
+    this.hadoopConf = hadoopConf;
+    this.parallelism = parallelism;
+    this.queueSize = queueSize;
+    this.memoryBudget = memoryBudget;
+  }
+
+  /**
+   * Write the given data to Parquet files in the directory each batch is paired with. The data is
+   * written as the returned iterator is consumed.
+   *
+   * @param statsColumns columns to collect the statistics for
+   * @param dataIter data to write, each batch paired with the directory to write it to
+   * @return an iterator of the data files written, each paired with the directory it is written to,
+   *     in the order the files are completed. It is the responsibility of the caller to close the
+   *     iterator.
+   */
+  public CloseableIterator<Tuple2<String, DataFileStatus>> write(
+      List<Column> statsColumns,
+      CloseableIterator<Tuple2<String, FilteredColumnarBatch>> dataIter) {
+    return new PartitionedWrite(statsColumns, dataIter);
+  }
+
+  private Executor getOrCreateExecutor() {
+    if (executor == null) {
+      synchronized (this) {
+        if (executor == null) {
+          executor =
+              parallelism == 0
+                  ? Runnable::run
+                  : DefaultKernelUtils.newDaemonThreadPool(
+                      "delta-kernel-parquet-partition-writer", parallelism);
+        }
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Writer of the files of one directory. The fields are guarded by the {@link PartitionedWrite}.
+   */
+  private static class DirectoryWriter {
+    final String directory;
+    final ParquetFileWriter.Appender appender;
+    final Queue<FilteredColumnarBatch> pendingBatches = new ArrayDeque<>();
+
+    /** Whether a task owns the appender, i.e. is writing or scheduled to write. */
+    boolean busy;
+    /** Whether the current file is to be closed once the pending batches are written. */
+    boolean finishRequested;
+    /** Size of the data buffered by the appender when last measured by its owner. */
+    long bufferedSize;
+
+    DirectoryWriter(String directory, ParquetFileWriter.Appender appender) {
+      this.directory = directory;
+      this.appender = appender;
+    }
+  }
+
+  /** State of a single {@link #write} call. */
+  private class PartitionedWrite implements CloseableIterator<Tuple2<String, DataFileStatus>> {
+    private final List<Column> statsColumns;
+    private final CloseableIterator<Tuple2<String, FilteredColumnarBatch>> dataIter;
+
+    /** Files written but not returned yet. Added by the tasks before they stop. */
+    private final BlockingQueue<Tuple2<String, DataFileStatus>> writtenFiles =
+        new LinkedBlockingQueue<>();
+    /** First error of any task. */
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    // Guarded by `this`.
+    private final Map<String, DirectoryWriter> writers = new HashMap<>();
+    private int pendingBatchCount;
+    private int runningTaskCount;
+    private long totalBufferedSize;
+    private boolean closed;
+
+    // Only accessed by the consumer thread.
+    private boolean inputFinished;
+    private Tuple2<String, DataFileStatus> nextFile;
+
+    PartitionedWrite(
+        List<Column> statsColumns,
+        CloseableIterator<Tuple2<String, FilteredColumnarBatch>> dataIter) {
+      this.statsColumns = statsColumns;
+      this.dataIter = dataIter;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (nextFile == null) {
+        throwIfFailed();
+        nextFile = writtenFiles.poll();
+        if (nextFile != null) {
+          break;
+        }
+        if (!inputFinished) {
+          if (dataIter.hasNext()) {
+            Tuple2<String, FilteredColumnarBatch> next = dataIter.next();
+            if (ParallelParquetFileWriter.hasSelectedRows(next._2)) {
+              addPendingBatch(next._1, next._2);
+            }
+          } else {
+            inputFinished = true;
+            requestFinish();
+          }
+          continue;
+        }
+        synchronized (this) {
+          // The tasks add their files before they stop, so all files are added when none runs
+          if (runningTaskCount == 0) {
+            nextFile = writtenFiles.poll();
+            if (nextFile == null) {
+              throwIfFailed();
+              return false;
+            }
+            break;
+          }
+        }
+        nextFile = poll();
+      }
+      return true;
+    }
+
+    @Override
+    public Tuple2<String, DataFileStatus> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Tuple2<String, DataFileStatus> toReturn = nextFile;
+      nextFile = null;
+      return toReturn;
+    }
+
+    @Override
+    public void close() throws IOException {
+      // Stop the tasks and close the open files of the writers that are not writing. The tasks
+      // close the open files of their writers when they stop.
+      List<DirectoryWriter> idleWriters = new ArrayList<>();
+      synchronized (this) {
+        closed = true;
+        for (DirectoryWriter writer : writers.values()) {
+          writer.pendingBatches.clear();
+          if (!writer.busy) {
+            writer.busy = true;
+            idleWriters.add(writer);
+          }
+        }
+        pendingBatchCount = 0;
+        notifyAll();
+      }
+      for (DirectoryWriter writer : idleWriters) {
+        Utils.closeCloseables(writer.appender);
+      }
+      Utils.closeCloseables(dataIter);
+    }
+
+    /** Add the batch to the pending batches of its writer, waiting if the queue is full. */
+    private void addPendingBatch(String directory, FilteredColumnarBatch batch) {
+      DirectoryWriter toSchedule = null;
+      synchronized (this) {
+        while (pendingBatchCount >= queueSize) {
+          throwIfFailed();
+          waitForTasks();
+        }
+        DirectoryWriter writer =
+            writers.computeIfAbsent(
+                directory,
+                dir ->
+                    new DirectoryWriter(
+                        dir,
+                        new ParquetFileWriter(hadoopConf, new Path(dir), statsColumns)
+                            .newAppender()));
+        writer.pendingBatches.add(batch);
+        pendingBatchCount++;
+        if (!writer.busy) {
+          writer.busy = true;
+          runningTaskCount++;
+          toSchedule = writer;
+        }
+      }
+      if (toSchedule != null) {
+        schedule(toSchedule);
+      }
+    }
+
+    /** Close the current files of all the writers once their pending batches are written. */
+    private void requestFinish() {
+      List<DirectoryWriter> toSchedule = new ArrayList<>();
+      synchronized (this) {
+        for (DirectoryWriter writer : writers.values()) {
+          writer.finishRequested = true;
+          if (!writer.busy) {
+            writer.busy = true;
+            runningTaskCount++;
+            toSchedule.add(writer);
+          }
+        }
+      }
+      toSchedule.forEach(this::schedule);
+    }
+
+    private void schedule(DirectoryWriter writer) {
+      try {
+        getOrCreateExecutor().execute(() -> run(writer));
+      } catch (RuntimeException e) {
+        release(writer, e);
+        throw e;
+      }
+    }
+
+    /**
+     * Write the pending batches of the writer until there are none left, then close its current
+     * file if requested. Runs while owning the writer, i.e. with {@link DirectoryWriter#busy} set.
+     */
+    private void run(DirectoryWriter writer) {
+      try {
+        while (true) {
+          FilteredColumnarBatch batch;
+          synchronized (this) {
+            if (closed || error.get() != null) {
+              break;
+            }
+            batch = writer.pendingBatches.poll();
+            if (batch != null) {
+              pendingBatchCount--;
+              notifyAll();
+            } else if (writer.finishRequested) {
+              writer.finishRequested = false;
+            } else {
+              writer.busy = false;
+              runningTaskCount--;
+              notifyAll();
+              return;
+            }
+          }
+          if (batch != null) {
+            publish(writer, writer.appender.append(batch));
+          } else {
+            writer.appender.finish().ifPresent(file -> publish(writer, file));
+          }
+          updateBufferedSize(writer);
+          releaseMemory(writer);
+        }
+        release(writer, null);
+      } catch (Throwable t) {
+        release(writer, t);
+      }
+    }
+
+    /**
+     * Stop owning the writer, closing its current file first on failure or if the write is stopped.
+     */
+    private void release(DirectoryWriter writer, Throwable failure) {
+      if (failure != null) {
+        error.compareAndSet(null, failure);
+      }
+      Utils.closeCloseables(writer.appender);
+      synchronized (this) {
+        totalBufferedSize -= writer.bufferedSize;
+        writer.bufferedSize = 0;
+        writer.busy = false;
+        runningTaskCount--;
+        notifyAll();
+      }
+    }
+
+    private void updateBufferedSize(DirectoryWriter writer) {
+      long bufferedSize = writer.appender.getBufferedSize();
+      synchronized (this) {
+        totalBufferedSize += bufferedSize - writer.bufferedSize;
+        writer.bufferedSize = bufferedSize;
+      }
+    }
+
+    /**
+     * If the data buffered by all the writers exceeds the memory budget, close the current file
+     * with the most buffered data among the given writer, owned by the caller, and the writers that
+     * are not writing.
+     */
+    private void releaseMemory(DirectoryWriter owned) {
+      DirectoryWriter largest = owned;
+      synchronized (this) {
+        if (totalBufferedSize <= memoryBudget) {
+          return;
+        }
+        for (DirectoryWriter writer : writers.values()) {
+          if (!writer.busy && writer.bufferedSize > largest.bufferedSize) {
+            largest = writer;
+          }
+        }
+        if (largest != owned) {
+          largest.busy = true;
+          runningTaskCount++;
+        }
+      }
+      if (largest == owned) {
+        owned.appender.finish().ifPresent(file -> publish(owned, file));
+        updateBufferedSize(owned);
+        return;
+      }
+
+      DirectoryWriter other = largest;
+      try {
+        other.appender.finish().ifPresent(file -> publish(other, file));
+        updateBufferedSize(other);
+      } catch (Throwable t) {
+        release(other, t);
+        return;
+      }
+      boolean hasPendingWork;
+      synchronized (this) {
+        // Batches or a finish request may have been added while owning it, which are then
+        // written by a task that keeps owning it.
+        hasPendingWork = !other.pendingBatches.isEmpty() || other.finishRequested;
+        if (!hasPendingWork) {
+          other.busy = false;
+          runningTaskCount--;
+          notifyAll();
+        }
+      }
+      if (hasPendingWork) {
+        schedule(other);
+      }
+    }
+
+    private void publish(DirectoryWriter writer, List<DataFileStatus> files) {
+      files.forEach(file -> publish(writer, file));
+    }
+
+    private void publish(DirectoryWriter writer, DataFileStatus file) {
+      writtenFiles.add(new Tuple2<>(writer.directory, file));
+    }
+
+    /** Wait for a file to be written, returning null if none is written within the interval. */
+    private Tuple2<String, DataFileStatus> poll() {
+      try {
+        return writtenFiles.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new KernelEngineException("Interrupted while writing Parquet files", e);
+      }
+    }
+
+    /** Wait for a task to make progress. Must be called while holding the lock. */
+    private void waitForTasks() {
+      try {
+        wait(POLL_INTERVAL_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new KernelEngineException("Interrupted while writing Parquet files", e);
+      }
+    }
+
+    private void throwIfFailed() {
+      Throwable failure = error.get();
+      if (failure == null) {
+        return;
+      }
+      if (failure instanceof RuntimeException) {
+        throw (RuntimeException) failure;
+      }
+      if (failure instanceof Error) {
+        throw (Error) failure;
+      }
+      throw new KernelEngineException("Error writing Parquet files", failure);
+    }
+  }
+}
@@ -63,6 +63,20 @@ class RowColumnReader extends GroupConverter implements ParquetColumnReaders.Bas
    *     fields in readSchema.
    */
   RowColumnReader(int initialBatchSize, StructType readSchema, GroupType fileSchema) {
+    this(initialBatchSize, readSchema, fileSchema, VectorMemory.HEAP);
+  }
+
+  /**
+   * Create converter for {@link StructType} column.
+   *
+   * @param vectorMemory memory of the vectors of the primitive type fields, see {@link
+   *     ParquetColumnReaders#createConverter(int, DataType, Type, VectorMemory)}.
+   */
+  RowColumnReader(
+      int initialBatchSize,
+      StructType readSchema,
+      GroupType fileSchema,
+      VectorMemory vectorMemory) {
     checkArgument(initialBatchSize > 0, "invalid initialBatchSize: %s", initialBatchSize);
     this.readSchema = requireNonNull(readSchema, "readSchema is not null");
     List<StructField> fields = readSchema.fields();
@@ -87,13 +101,15 @@ class RowColumnReader extends GroupConverter implements ParquetColumnReaders.Bas
           checkArgument(
               field.getDataType() instanceof LongType,
               "row index metadata column must be type long");
-          converters[i] = new ParquetColumnReaders.FileRowIndexColumnReader(initialBatchSize);
+          converters[i] =
+              new ParquetColumnReaders.FileRowIndexColumnReader(initialBatchSize, vectorMemory);
         } else {
           converters[i] = new ParquetColumnReaders.NonExistentColumnReader(typeFromClient);
         }
       } else {
         converters[i] =
-            ParquetColumnReaders.createConverter(initialBatchSize, typeFromClient, typeFromFile);
+            ParquetColumnReaders.createConverter(
+                initialBatchSize, typeFromClient, typeFromFile, vectorMemory);
         parquetOrdinalToConverterOrdinal.put(parquetOrdinal, i);
         parquetOrdinal++;
       }
@@ -42,10 +42,11 @@ public class TimestampConverters {
    * @param initialBatchSize Initial batch size of the generated column vector
    * @param typeFromFile Column type metadata from Parquet file
    * @param typeFromClient Column type from client
+   * @param vectorMemory memory of the returned vectors
    * @return instance of {@link Converter}
    */
   public static Converter createTimestampConverter(
-      int initialBatchSize, Type typeFromFile, DataType typeFromClient) {
+      int initialBatchSize, Type typeFromFile, DataType typeFromClient, VectorMemory vectorMemory) {
     PrimitiveType primType = typeFromFile.asPrimitiveType();
     LogicalTypeAnnotation typeAnnotation = primType.getLogicalTypeAnnotation();
     boolean isTimestampTz = (typeFromClient instanceof TimestampType);
@@ -54,7 +55,7 @@ public class TimestampConverters {
       // INT96 does not have a logical type in both TIMESTAMP and TIMESTAMP_NTZ
       // Also, TimestampNTZ type does not require rebasing
       // due to its lack of time zone context.
-      return new TimestampBinaryConverter(typeFromClient, initialBatchSize);
+      return new TimestampBinaryConverter(typeFromClient, initialBatchSize, vectorMemory);
     } else if (primType.getPrimitiveTypeName() == INT64
         && typeAnnotation instanceof TimestampLogicalTypeAnnotation) {
       TimestampLogicalTypeAnnotation timestamp = (TimestampLogicalTypeAnnotation) typeAnnotation;
@@ -70,9 +71,10 @@ public class TimestampConverters {
 
       switch (timestamp.getUnit()) {
         case MICROS:
-          return new ParquetColumnReaders.LongColumnReader(typeFromClient, initialBatchSize);
+          return new ParquetColumnReaders.LongColumnReader(
+              typeFromClient, initialBatchSize, vectorMemory);
         case MILLIS:
-          return new TimestampMillisConverter(typeFromClient, initialBatchSize);
+          return new TimestampMillisConverter(typeFromClient, initialBatchSize, vectorMemory);
         default:
           throw new UnsupportedOperationException(
               String.format("Unsupported Parquet TimeType unit=%s", timestamp.getUnit()));
@@ -80,7 +82,7 @@ public class TimestampConverters {
     } else if (typeFromClient == TimestampNTZType.TIMESTAMP_NTZ
         && primType.getPrimitiveTypeName() == INT32
         && typeAnnotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
-      return new DateToTimestampNTZConverter(typeFromClient, initialBatchSize);
+      return new DateToTimestampNTZConverter(typeFromClient, initialBatchSize, vectorMemory);
     } else {
       throw new RuntimeException(
           String.format("Unsupported timestamp column with Parquet type %s.", typeFromFile));
@@ -89,8 +91,8 @@ public class TimestampConverters {
 
   public static class TimestampMillisConverter extends ParquetColumnReaders.LongColumnReader {
 
-    TimestampMillisConverter(DataType dataType, int initialBatchSize) {
-      super(validTimestampType(dataType), initialBatchSize);
+    TimestampMillisConverter(DataType dataType, int initialBatchSize, VectorMemory vectorMemory) {
+      super(validTimestampType(dataType), initialBatchSize, vectorMemory);
     }
 
     @Override
@@ -101,8 +103,8 @@ public class TimestampConverters {
 
   public static class TimestampBinaryConverter extends ParquetColumnReaders.LongColumnReader {
 
-    TimestampBinaryConverter(DataType dataType, int initialBatchSize) {
-      super(validTimestampType(dataType), initialBatchSize);
+    TimestampBinaryConverter(DataType dataType, int initialBatchSize, VectorMemory vectorMemory) {
+      super(validTimestampType(dataType), initialBatchSize, vectorMemory);
     }
 
     private long binaryToSQLTimestamp(Binary binary) {
@@ -134,8 +136,9 @@ public class TimestampConverters {
 
   public static class DateToTimestampNTZConverter extends ParquetColumnReaders.LongColumnReader {
 
-    DateToTimestampNTZConverter(DataType dataType, int initialBatchSize) {
-      super(validTimestampType(dataType), initialBatchSize);
+    DateToTimestampNTZConverter(
+        DataType dataType, int initialBatchSize, VectorMemory vectorMemory) {
+      super(validTimestampType(dataType), initialBatchSize, vectorMemory);
     }
 
     @Override
@@ -0,0 +1,136 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+
+import io.delta.kernel.defaults.internal.data.vector.DefaultUtf8Vector;
+import io.delta.kernel.defaults.internal.data.vector.OffHeapAllocator;
+import io.delta.kernel.defaults.internal.data.vector.OffHeapUtf8Vector;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Copies the UTF-8 bytes of the values of a string column into one contiguous buffer, which is
+ * returned as a {@link DefaultUtf8Vector} without a {@code byte[]} per value. The values must be
+ * set in increasing positions, the skipped positions (i.e. the nulls) get an empty value.
+ */
+class Utf8VectorBuffer {
+  private int[] offsets;
+  private byte[] buffer;
+  /** Number of positions whose value is set, {@code offsets[numValues]} is the end of the last. */
+  private int numValues;
+
+  Utf8VectorBuffer(int capacity, int bufferCapacity) {
+    this.offsets = new int[capacity + 1];
+    this.buffer = new byte[Math.max(bufferCapacity, 16)];
+  }
+
+  int capacity() {
+    return offsets.length - 1;
+  }
+
+  /** Grow to {@code capacity} values, keeping the values. */
+  void grow(int capacity) {
+    offsets = Arrays.copyOf(offsets, capacity + 1);
+  }
+
+  /** Remove all the values, keeping the arrays. */
+  void clear() {
+    numValues = 0;
+  }
+
+  /** Set the value at {@code position} to the next {@code length} bytes of {@code value}. */
+  void set(int position, ByteBuffer value, int length) {
+    int offset = prepare(position, length);
+    value.get(buffer, offset, length);
+  }
+
+  /** Set the value at {@code position} to {@code value}. */
+  void set(int position, byte[] value) {
+    int offset = prepare(position, value.length);
+    System.arraycopy(value, 0, buffer, offset, value.length);
+  }
+
+  /** Move the values at {@code positions[0..length)} to the positions {@code [0..length)}. */
+  void compact(int[] positions, int length) {
+    if (length > 0) {
+      fill(positions[length - 1] + 1);
+    }
+    int end = 0;
+    for (int i = 0; i < length; i++) {
+      // the positions are increasing, so the values are moved to the front in place
+      int start = offsets[positions[i]];
+      int valueLength = offsets[positions[i] + 1] - start;
+      System.arraycopy(buffer, start, buffer, end, valueLength);
+      offsets[i] = end;
+      end += valueLength;
+      offsets[i + 1] = end;
+    }
+    numValues = length;
+  }
+
+  /**
+   * Return the first {@code size} values as a vector. The vector keeps the arrays, so the buffer
+   * can't be used anymore.
+   */
+  DefaultUtf8Vector toVector(int size, Optional<boolean[]> nullability) {
+    fill(size);
+    return new DefaultUtf8Vector(size, nullability, offsets, buffer);
+  }
+
+  /**
+   * Copy the first {@code size} values into an off-heap vector. If it fits in the memory budget of
+   * {@code allocator}, the values are removed from this buffer, which keeps its arrays.
+   */
+  Optional<OffHeapUtf8Vector> toOffHeapVector(
+      OffHeapAllocator allocator, int size, boolean[] nullability) {
+    fill(size);
+    Optional<OffHeapUtf8Vector> vector =
+        OffHeapUtf8Vector.copyOf(allocator, size, nullability, offsets, buffer);
+    if (vector.isPresent()) {
+      clear();
+    }
+    return vector;
+  }
+
+  /** Number of bytes used by the values set. */
+  int bufferSize() {
+    return offsets[numValues];
+  }
+
+  /** Set the empty values up to {@code position} and make room for a value of {@code length}. */
+  private int prepare(int position, int length) {
+    checkArgument(position >= numValues, "values are not set in increasing positions");
+    fill(position);
+    int offset = offsets[position];
+    if (buffer.length - offset < length) {
+      buffer = Arrays.copyOf(buffer, Math.max(offset + length, buffer.length * 2));
+    }
+    offsets[position + 1] = offset + length;
+    numValues = position + 1;
+    return offset;
+  }
+
+  /** Set the positions up to {@code position} that were skipped to an empty value. */
+  private void fill(int position) {
+    int end = offsets[numValues];
+    while (numValues < position) {
+      offsets[++numValues] = end;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Pool of the buffers (e.g. the {@code values} array) of the vectors returned by a column reader.
+ * The buffers of a vector are released to the pool when the vector is closed, and taken by the
+ * reader for a later batch instead of allocating new buffers. A pool that is not enabled (see
+ * {@code delta.kernel.default.parquet.reader.pooled-buffers}) keeps no buffers, so the reader
+ * allocates new buffers for every batch.
+ *
+ * <p>The vectors may be closed by another thread than the one of the reader (e.g. when the batches
+ * are read ahead by the {@link ParallelParquetFileReader}), so the pool is thread safe.
+ *
+ * @param <T> type of the buffers
+ */
+class VectorBufferPool<T> {
+  /**
+   * Max number of free buffers kept by a pool. The consumer usually closes a batch before getting
+   * the next one, the others allow for a few batches in flight.
+   */
+  static final int MAX_FREE_BUFFERS = 4;
+
+  private final boolean enabled;
+  private final ToIntFunction<T> capacity;
+  private final ArrayDeque<T> freeBuffers = new ArrayDeque<>();
+
+  /**
+   * @param enabled whether to keep the released buffers
+   * @param capacity function to get the number of values a buffer can hold
+   */
+  VectorBufferPool(boolean enabled, ToIntFunction<T> capacity) {
+    this.enabled = enabled;
+    this.capacity = requireNonNull(capacity, "capacity is null");
+  }
+
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Number of values {@code buffer} can hold. */
+  int capacity(T buffer) {
+    return capacity.applyAsInt(buffer);
+  }
+
+  /**
+   * Take a free buffer for {@code capacity} values from the pool, or allocate a new one with {@code
+   * allocator}. The content of a buffer from the pool is the one of the vector it was backing.
+   */
+  T take(int capacity, IntFunction<T> allocator) {
+    if (enabled) {
+      synchronized (this) {
+        T buffer;
+        while ((buffer = freeBuffers.poll()) != null) {
+          // the buffers of the vectors read before the reader grew its buffers are dropped
+          if (capacity(buffer) == capacity) {
+            return buffer;
+          }
+        }
+      }
+    }
+    return allocator.apply(capacity);
+  }
+
+  /** Release a buffer that is not used anymore to the pool. */
+  void release(T buffer) {
+    if (enabled) {
+      synchronized (this) {
+        if (freeBuffers.size() < MAX_FREE_BUFFERS) {
+          freeBuffers.push(buffer);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static java.util.Objects.requireNonNull;
+
+import io.delta.kernel.defaults.internal.data.vector.OffHeapAllocator;
+import java.util.Optional;
+
+/**
+ * Memory of the vectors returned by the primitive column readers of the row-at-a-time Parquet
+ * reader:
+ *
+ * <ul>
+ *   <li>{@link #HEAP}: new heap arrays for every batch.
+ *   <li>{@link #POOLED}: heap arrays from a pool of the reader, returned to the pool when the
+ *       vector is closed (see {@code delta.kernel.default.parquet.reader.pooled-buffers}).
+ *   <li>{@link #offHeap}: direct buffers of an {@link OffHeapAllocator}, released when the vector
+ *       is closed (see {@code delta.kernel.default.parquet.reader.off-heap}). The reader keeps its
+ *       heap arrays to read the next batch. A vector that doesn't fit in the memory budget of the
+ *       allocator uses pooled heap arrays instead.
+ * </ul>
+ */
+class VectorMemory {
+  static final VectorMemory HEAP = new VectorMemory(false, Optional.empty());
+  static final VectorMemory POOLED = new VectorMemory(true, Optional.empty());
+
+  private final boolean pooledBuffers;
+  private final Optional<OffHeapAllocator> offHeapAllocator;
+
+  private VectorMemory(boolean pooledBuffers, Optional<OffHeapAllocator> offHeapAllocator) {
+    this.pooledBuffers = pooledBuffers;
+    this.offHeapAllocator = requireNonNull(offHeapAllocator, "offHeapAllocator is null");
+  }
+
+  static VectorMemory offHeap(OffHeapAllocator allocator) {
+    return new VectorMemory(true, Optional.of(allocator));
+  }
+
+  /** Whether the heap arrays of the vectors are pooled. */
+  boolean isPooled() {
+    return pooledBuffers;
+  }
+
+  Optional<OffHeapAllocator> getOffHeapAllocator() {
+    return offHeapAllocator;
+  }
+}
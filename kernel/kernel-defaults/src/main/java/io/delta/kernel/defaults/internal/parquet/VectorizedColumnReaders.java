@@ -0,0 +1,858 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static io.delta.kernel.defaults.internal.parquet.ParquetSchemaUtils.findSubFieldType;
+import static io.delta.kernel.defaults.internal.parquet.ParquetSchemaUtils.getParquetFieldToTypeMap;
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static io.delta.kernel.internal.util.Preconditions.checkState;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.defaults.internal.data.vector.*;
+import io.delta.kernel.defaults.internal.parquet.VectorizedDecoders.*;
+import io.delta.kernel.defaults.internal.parquet.VectorizedValues.ColumnValues;
+import io.delta.kernel.types.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import org.apache.parquet.bytes.ByteBufferInputStream;
+import org.apache.parquet.bytes.BytesUtils;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.ValuesType;
+import org.apache.parquet.column.page.*;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Column readers of {@link VectorizedParquetReader}.
+ *
+ * <p>Each leaf (primitive) column of the Parquet file is decoded by a {@link ColumnChunkReader} one
+ * batch at a time: the repetition and definition levels of the batch are decoded in bulk, and the
+ * non-null values are decoded straight into the arrays of the {@link ColumnValues} of the column.
+ * The {@link ColumnReader}s then assemble the vectors of the read schema from the levels of the
+ * leaves, as described in the Dremel paper: a value of a column at repetition level {@code r} (the
+ * number of repeated fields the column is nested in) whose enclosing repeated field has the
+ * definition level {@code d} starts at each level entry with a repetition level {@code <= r} and a
+ * definition level {@code >= d}. The value is null when the definition level of the entry is below
+ * the definition level of the column.
+ */
+class VectorizedColumnReaders {
+  private VectorizedColumnReaders() {}
+
+  /**
+   * Create the readers of the columns of {@code readSchema} from the Parquet file with (pruned)
+   * schema {@code fileSchema}. The {@link ColumnChunkReader}s of the leaf columns read by the
+   * readers are added to {@code leaves}.
+   */
+  static ColumnReader[] createReaders(
+      StructType readSchema, MessageType fileSchema, List<ColumnChunkReader> leaves) {
+    Map<Integer, Type> parquetFieldIdToTypeMap = getParquetFieldToTypeMap(fileSchema);
+    ColumnReader[] readers = new ColumnReader[readSchema.length()];
+    for (int i = 0; i < readers.length; i++) {
+      StructField field = readSchema.at(i);
+      Type typeFromFile =
+          field.isDataColumn()
+              ? findSubFieldType(fileSchema, field, parquetFieldIdToTypeMap)
+              : null;
+      if (typeFromFile == null) {
+        if (StructField.METADATA_ROW_INDEX_COLUMN_NAME.equalsIgnoreCase(field.getName())
+            && field.isMetadataColumn()) {
+          checkArgument(
+              field.getDataType() instanceof LongType,
+              "row index metadata column must be type long");
+          readers[i] = new RowIndexReader();
+        } else {
+          readers[i] = new MissingColumnReader(field.getDataType());
+        }
+      } else {
+        readers[i] =
+            createReader(
+                field.getDataType(), typeFromFile, new String[0], 0, 0, fileSchema, leaves);
+      }
+    }
+    return readers;
+  }
+
+  /**
+   * Reader of a column of the read schema.
+   *
+   * <p>{@link #readVector} is called once per batch, after the {@link ColumnChunkReader}s of all
+   * leaves have read the batch.
+   */
+  abstract static class ColumnReader {
+    /**
+     * Return the next {@code size} values of the column.
+     *
+     * @param repetitionLevel repetition level of the column values. A level entry with this or a
+     *     lower repetition level starts a new value.
+     * @param parentDefinitionLevel definition level of the repeated field that encloses the column,
+     *     0 for a top-level column. Level entries with a lower definition level are not values of
+     *     the column, but e.g. empty arrays.
+     */
+    abstract ColumnVector readVector(int size, int repetitionLevel, int parentDefinitionLevel);
+
+    /** The first leaf read by this column, or null if none. */
+    abstract ColumnChunkReader firstLeaf();
+  }
+
+  /** Reader of a column that doesn't exist in the file. All values are null. */
+  static class MissingColumnReader extends ColumnReader {
+    private final DataType dataType;
+
+    MissingColumnReader(DataType dataType) {
+      this.dataType = dataType;
+    }
+
+    @Override
+    ColumnVector readVector(int size, int repetitionLevel, int parentDefinitionLevel) {
+      return new DefaultConstantVector(dataType, size, null);
+    }
+
+    @Override
+    ColumnChunkReader firstLeaf() {
+      return null;
+    }
+  }
+
+  /** Reader of the {@code _metadata.row_index} column. */
+  static class RowIndexReader extends ColumnReader {
+    private long firstRowIndex;
+
+    /** Set the file row index of the first row of the next batch. */
+    void setFirstRowIndex(long firstRowIndex) {
+      this.firstRowIndex = firstRowIndex;
+    }
+
+    @Override
+    ColumnVector readVector(int size, int repetitionLevel, int parentDefinitionLevel) {
+      long[] rowIndexes = new long[size];
+      for (int i = 0; i < size; i++) {
+        rowIndexes[i] = firstRowIndex + i;
+      }
+      return new DefaultLongVector(LongType.LONG, size, Optional.empty(), rowIndexes);
+    }
+
+    @Override
+    ColumnChunkReader firstLeaf() {
+      return null;
+    }
+  }
+
+  /** Reader of a primitive column, which is a leaf of the Parquet schema. */
+  static class PrimitiveReader extends ColumnReader {
+    private final ColumnChunkReader column;
+    private int[] positions = new int[0];
+
+    PrimitiveReader(ColumnChunkReader column) {
+      this.column = column;
+    }
+
+    @Override
+    ColumnVector readVector(int size, int repetitionLevel, int parentDefinitionLevel) {
+      ColumnValues values = column.values;
+      int maxDefinitionLevel = column.maxDefinitionLevel;
+      int[] definitionLevels = column.definitionLevels;
+      if (column.maxRepetitionLevel == 0) {
+        // not nested in a repeated field: each level entry is a value
+        checkState(column.numEntries == size, "unexpected number of values");
+        if (maxDefinitionLevel == 0) {
+          return values.toVector(size, Optional.empty());
+        }
+        boolean[] nullability = new boolean[size];
+        for (int i = 0; i < size; i++) {
+          nullability[i] = definitionLevels[i] < maxDefinitionLevel;
+        }
+        return values.toVector(size, Optional.of(nullability));
+      }
+
+      int[] repetitionLevels = column.repetitionLevels;
+      if (positions.length < size) {
+        positions = new int[size];
+      }
+      boolean[] nullability = new boolean[size];
+      int numValues = 0;
+      for (int i = 0; i < column.numEntries; i++) {
+        if (repetitionLevels[i] <= repetitionLevel
+            && definitionLevels[i] >= parentDefinitionLevel) {
+          checkState(numValues < size, "unexpected number of values");
+          nullability[numValues] = definitionLevels[i] < maxDefinitionLevel;
+          positions[numValues++] = i;
+        }
+      }
+      checkState(numValues == size, "unexpected number of values");
+      if (numValues != column.numEntries) {
+        values.compact(positions, numValues);
+      }
+      return values.toVector(size, Optional.of(nullability));
+    }
+
+    @Override
+    ColumnChunkReader firstLeaf() {
+      return column;
+    }
+  }
+
+  /** Reader of a struct column. */
+  static class StructReader extends ColumnReader {
+    private final StructType dataType;
+    private final int definitionLevel;
+    private final ColumnReader[] memberReaders;
+    /** Leaf whose levels tell which structs are null. */
+    private final ColumnChunkReader levelsColumn;
+
+    StructReader(
+        StructType dataType,
+        int definitionLevel,
+        ColumnReader[] memberReaders,
+        ColumnChunkReader levelsColumn) {
+      this.dataType = dataType;
+      this.definitionLevel = definitionLevel;
+      this.memberReaders = memberReaders;
+      this.levelsColumn = levelsColumn;
+    }
+
+    @Override
+    ColumnVector readVector(int size, int repetitionLevel, int parentDefinitionLevel) {
+      ColumnVector[] memberVectors = new ColumnVector[memberReaders.length];
+      for (int i = 0; i < memberReaders.length; i++) {
+        memberVectors[i] =
+            memberReaders[i].readVector(size, repetitionLevel, parentDefinitionLevel);
+      }
+      boolean[] nullability = new boolean[size];
+      if (definitionLevel > parentDefinitionLevel) {
+        int[] repetitionLevels = levelsColumn.repetitionLevels;
+        int[] definitionLevels = levelsColumn.definitionLevels;
+        if (levelsColumn.maxRepetitionLevel == 0) {
+          for (int i = 0; i < size; i++) {
+            nullability[i] = definitionLevels[i] < definitionLevel;
+          }
+        } else {
+          int numValues = 0;
+          for (int i = 0; i < levelsColumn.numEntries; i++) {
+            if (repetitionLevels[i] <= repetitionLevel
+                && definitionLevels[i] >= parentDefinitionLevel) {
+              nullability[numValues++] = definitionLevels[i] < definitionLevel;
+            }
+          }
+          checkState(numValues == size, "unexpected number of values");
+        }
+      }
+      return new DefaultStructVector(size, dataType, Optional.of(nullability), memberVectors);
+    }
+
+    @Override
+    ColumnChunkReader firstLeaf() {
+      return levelsColumn;
+    }
+  }
+
+  /**
+   * Reader of an array or a map column, which is a group with a single repeated group. The elements
+   * of an array, or the key/value entries of a map, are the values of the repeated group.
+   */
+  abstract static class RepeatedReader extends ColumnReader {
+    /** Definition level of the array or map. */
+    private final int definitionLevel;
+    /** Definition and repetition level of the repeated group. */
+    private final int elementsDefinitionLevel;
+
+    private final int elementsRepetitionLevel;
+    /** Leaf whose levels tell the number of elements of each array or map. */
+    private final ColumnChunkReader levelsColumn;
+
+    RepeatedReader(
+        int definitionLevel,
+        int elementsDefinitionLevel,
+        int elementsRepetitionLevel,
+        ColumnChunkReader levelsColumn) {
+      this.definitionLevel = definitionLevel;
+      this.elementsDefinitionLevel = elementsDefinitionLevel;
+      this.elementsRepetitionLevel = elementsRepetitionLevel;
+      this.levelsColumn = levelsColumn;
+    }
+
+    @Override
+    ColumnVector readVector(int size, int repetitionLevel, int parentDefinitionLevel) {
+      int[] offsets = new int[size + 1];
+      boolean[] nullability = new boolean[size];
+      int[] repetitionLevels = levelsColumn.repetitionLevels;
+      int[] definitionLevels = levelsColumn.definitionLevels;
+      int valueIndex = -1;
+      int numElements = 0;
+      for (int i = 0; i < levelsColumn.numEntries; i++) {
+        int entryRepetitionLevel = repetitionLevels[i];
+        int entryDefinitionLevel = definitionLevels[i];
+        if (entryRepetitionLevel <= repetitionLevel) {
+          if (entryDefinitionLevel < parentDefinitionLevel) {
+            continue; // an enclosing array or map is null or empty
+          }
+          valueIndex++;
+          checkState(valueIndex < size, "unexpected number of values");
+          offsets[valueIndex] = numElements;
+          nullability[valueIndex] = entryDefinitionLevel < definitionLevel;
+        }
+        if (entryRepetitionLevel <= elementsRepetitionLevel
+            && entryDefinitionLevel >= elementsDefinitionLevel) {
+          numElements++;
+        }
+      }
+      checkState(valueIndex + 1 == size, "unexpected number of values");
+      offsets[size] = numElements;
+      return createVector(
+          size,
+          Optional.of(nullability),
+          offsets,
+          numElements,
+          elementsRepetitionLevel,
+          elementsDefinitionLevel);
+    }
+
+    abstract ColumnVector createVector(
+        int size,
+        Optional<boolean[]> nullability,
+        int[] offsets,
+        int numElements,
+        int elementsRepetitionLevel,
+        int elementsDefinitionLevel);
+
+    @Override
+    ColumnChunkReader firstLeaf() {
+      return levelsColumn;
+    }
+  }
+
+  static class ArrayReader extends RepeatedReader {
+    private final ArrayType dataType;
+    private final ColumnReader elementReader;
+
+    ArrayReader(
+        ArrayType dataType,
+        int definitionLevel,
+        int elementsRepetitionLevel,
+        ColumnReader elementReader,
+        ColumnChunkReader levelsColumn) {
+      super(definitionLevel, definitionLevel + 1, elementsRepetitionLevel, levelsColumn);
+      this.dataType = dataType;
+      this.elementReader = elementReader;
+    }
+
+    @Override
+    ColumnVector createVector(
+        int size,
+        Optional<boolean[]> nullability,
+        int[] offsets,
+        int numElements,
+        int elementsRepetitionLevel,
+        int elementsDefinitionLevel) {
+      ColumnVector elementVector =
+          elementReader.readVector(numElements, elementsRepetitionLevel, elementsDefinitionLevel);
+      return new DefaultArrayVector(size, dataType, nullability, offsets, elementVector);
+    }
+  }
+
+  static class MapReader extends RepeatedReader {
+    private final MapType dataType;
+    private final ColumnReader keyReader;
+    private final ColumnReader valueReader;
+
+    MapReader(
+        MapType dataType,
+        int definitionLevel,
+        int elementsRepetitionLevel,
+        ColumnReader keyReader,
+        ColumnReader valueReader,
+        ColumnChunkReader levelsColumn) {
+      super(definitionLevel, definitionLevel + 1, elementsRepetitionLevel, levelsColumn);
+      this.dataType = dataType;
+      this.keyReader = keyReader;
+      this.valueReader = valueReader;
+    }
+
+    @Override
+    ColumnVector createVector(
+        int size,
+        Optional<boolean[]> nullability,
+        int[] offsets,
+        int numElements,
+        int elementsRepetitionLevel,
+        int elementsDefinitionLevel) {
+      ColumnVector keyVector =
+          keyReader.readVector(numElements, elementsRepetitionLevel, elementsDefinitionLevel);
+      ColumnVector valueVector =
+          valueReader.readVector(numElements, elementsRepetitionLevel, elementsDefinitionLevel);
+      return new DefaultMapVector(size, dataType, nullability, offsets, keyVector, valueVector);
+    }
+  }
+
+  /**
+   * Reads the levels and values of a leaf column from the pages of its column chunks, one batch of
+   * rows at a time. The level entries of a batch are in {@link #repetitionLevels} and {@link
+   * #definitionLevels}, and the non-null values are at the same positions in {@link #values}.
+   */
+  static class ColumnChunkReader {
+    private final ColumnDescriptor descriptor;
+    final int maxRepetitionLevel;
+    final int maxDefinitionLevel;
+    /** Values of the column, null if only the levels are read. */
+    final ColumnValues values;
+
+    // levels of the current batch
+    int numEntries;
+    int[] repetitionLevels = new int[0];
+    int[] definitionLevels = new int[0];
+
+    // state of the current column chunk
+    private PageReader pageReader;
+    private long remainingInChunk;
+    /** Index in the row group of the next row to read. */
+    private long nextRow;
+
+    // state of the current page
+    private int pageValueCount;
+    private int pageIndex;
+    /** Index in the row group of the first row of the page, or -1 if unknown. */
+    private long pageFirstRow;
+
+    private int[] pageRepetitionLevels = new int[0];
+    private int[] pageDefinitionLevels = new int[0];
+    private ValuesDecoder valuesDecoder;
+    private RleValuesDecoder dictionaryIdsDecoder;
+    private int[] dictionaryIds = new int[0];
+
+    ColumnChunkReader(ColumnDescriptor descriptor, ColumnValues values) {
+      this.descriptor = descriptor;
+      this.maxRepetitionLevel = descriptor.getMaxRepetitionLevel();
+      this.maxDefinitionLevel = descriptor.getMaxDefinitionLevel();
+      this.values = values;
+    }
+
+    ColumnDescriptor getDescriptor() {
+      return descriptor;
+    }
+
+    /** Start reading the column chunk of the next row group. */
+    void setPageReader(PageReader pageReader) throws IOException {
+      this.pageReader = pageReader;
+      this.remainingInChunk = pageReader.getTotalValueCount();
+      this.nextRow = 0;
+      this.pageValueCount = 0;
+      this.pageFirstRow = -1;
+      this.pageIndex = 0;
+      if (values != null) {
+        DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
+        if (dictionaryPage != null) {
+          Dictionary dictionary =
+              dictionaryPage.getEncoding().initDictionary(descriptor, dictionaryPage);
+          values.setDictionary(dictionary);
+        }
+      }
+    }
+
+    /**
+     * Skip the rows of the column chunk before the row at index {@code rowIndex} of the row group.
+     * The pages that were filtered out of the column chunk (see {@link
+     * PageReadStore#getRowIndexes()}) are skipped by the page reader, the rows before {@code
+     * rowIndex} in the page of the row are decoded and dropped.
+     */
+    void skipTo(long rowIndex) {
+      // the pages before the current one, e.g. read ahead by the last batch, were filtered out
+      nextRow = Math.max(nextRow, pageFirstRow);
+      while (nextRow < rowIndex) {
+        if (pageIndex == pageValueCount) {
+          readNextPage();
+          nextRow = Math.max(nextRow, pageFirstRow);
+          continue;
+        }
+        long numRows = rowIndex - nextRow;
+        int count;
+        if (maxRepetitionLevel == 0) {
+          count = (int) Math.min(numRows, pageValueCount - pageIndex);
+          nextRow += count;
+        } else {
+          // the pages of a column chunk with an offset index start at a row
+          count = 0;
+          while (pageIndex + count < pageValueCount) {
+            if (pageRepetitionLevels[pageIndex + count] == 0) {
+              if (numRows == 0) {
+                break;
+              }
+              numRows--;
+              nextRow++;
+            }
+            count++;
+          }
+        }
+        if (values != null) {
+          values.allocate(count);
+        }
+        numEntries = 0;
+        readEntries(count);
+        numEntries = 0;
+      }
+    }
+
+    /** Read the levels and values of the next {@code numRows} rows of the column chunk. */
+    void readBatch(int numRows) {
+      if (values != null) {
+        values.allocate(maxRepetitionLevel == 0 ? numRows : Math.max(numRows, numEntries));
+      }
+      numEntries = 0;
+      nextRow += numRows;
+      if (maxRepetitionLevel == 0) {
+        // each level entry is a row
+        while (numEntries < numRows) {
+          if (pageIndex == pageValueCount) {
+            readNextPage();
+          }
+          readEntries(Math.min(numRows - numEntries, pageValueCount - pageIndex));
+        }
+        return;
+      }
+
+      // A row starts at each entry with repetition level 0. A row may span pages.
+      int numRowsStarted = 0;
+      while (true) {
+        if (pageIndex == pageValueCount) {
+          if (remainingInChunk == 0) {
+            break;
+          }
+          readNextPage();
+        }
+        int end = pageIndex;
+        while (end < pageValueCount) {
+          if (pageRepetitionLevels[end] == 0) {
+            if (numRowsStarted == numRows) {
+              break;
+            }
+            numRowsStarted++;
+          }
+          end++;
+        }
+        readEntries(end - pageIndex);
+        if (end < pageValueCount) {
+          break;
+        }
+      }
+    }
+
+    /** Read the next {@code count} level entries and their values of the current page. */
+    private void readEntries(int count) {
+      int newNumEntries = numEntries + count;
+      if (definitionLevels.length < newNumEntries) {
+        int newSize = Math.max(newNumEntries, definitionLevels.length * 2);
+        repetitionLevels = Arrays.copyOf(repetitionLevels, newSize);
+        definitionLevels = Arrays.copyOf(definitionLevels, newSize);
+      }
+      if (maxRepetitionLevel > 0) {
+        System.arraycopy(pageRepetitionLevels, pageIndex, repetitionLevels, numEntries, count);
+      }
+      if (maxDefinitionLevel > 0) {
+        System.arraycopy(pageDefinitionLevels, pageIndex, definitionLevels, numEntries, count);
+      }
+
+      if (values != null) {
+        if (values.capacity() < newNumEntries) {
+          values.grow(Math.max(newNumEntries, values.capacity() * 2));
+        }
+        if (maxDefinitionLevel == 0) {
+          readValues(numEntries, count);
+        } else {
+          // read each run of non-null values at once
+          int i = 0;
+          while (i < count) {
+            while (i < count && pageDefinitionLevels[pageIndex + i] != maxDefinitionLevel) {
+              i++;
+            }
+            int start = i;
+            while (i < count && pageDefinitionLevels[pageIndex + i] == maxDefinitionLevel) {
+              i++;
+            }
+            if (i > start) {
+              readValues(numEntries + start, i - start);
+            }
+          }
+        }
+      }
+      numEntries = newNumEntries;
+      pageIndex += count;
+    }
+
+    private void readValues(int offset, int length) {
+      if (dictionaryIdsDecoder != null) {
+        if (dictionaryIds.length < length) {
+          dictionaryIds = new int[length];
+        }
+        dictionaryIdsDecoder.readInts(dictionaryIds, 0, length);
+        values.readDictionary(dictionaryIds, offset, length);
+      } else {
+        values.read(valuesDecoder, offset, length);
+      }
+    }
+
+    private void readNextPage() {
+      DataPage page = pageReader.readPage();
+      checkState(page != null, "no more pages in the column chunk of " + descriptor);
+      pageValueCount = page.getValueCount();
+      pageIndex = 0;
+      pageFirstRow = page.getFirstRowIndex().orElse(-1L);
+      remainingInChunk -= pageValueCount;
+      if (pageRepetitionLevels.length < pageValueCount && maxRepetitionLevel > 0) {
+        pageRepetitionLevels = new int[pageValueCount];
+      }
+      if (pageDefinitionLevels.length < pageValueCount && maxDefinitionLevel > 0) {
+        pageDefinitionLevels = new int[pageValueCount];
+      }
+      page.accept(
+          new DataPage.Visitor<Void>() {
+            @Override
+            public Void visit(DataPageV1 pageV1) {
+              try {
+                ByteBufferInputStream in = pageV1.getBytes().toInputStream();
+                readLevelsV1(
+                    maxRepetitionLevel,
+                    pageV1.getRlEncoding(),
+                    ValuesType.REPETITION_LEVEL,
+                    in,
+                    pageRepetitionLevels);
+                readLevelsV1(
+                    maxDefinitionLevel,
+                    pageV1.getDlEncoding(),
+                    ValuesType.DEFINITION_LEVEL,
+                    in,
+                    pageDefinitionLevels);
+                initValues(pageV1.getValueEncoding(), in);
+                return null;
+              } catch (IOException e) {
+                throw new ParquetDecodingException(
+                    "could not read page " + pageV1 + " in col " + descriptor, e);
+              }
+            }
+
+            @Override
+            public Void visit(DataPageV2 pageV2) {
+              try {
+                readLevelsV2(
+                    maxRepetitionLevel,
+                    pageV2.getRepetitionLevels().toByteBuffer(),
+                    pageRepetitionLevels);
+                readLevelsV2(
+                    maxDefinitionLevel,
+                    pageV2.getDefinitionLevels().toByteBuffer(),
+                    pageDefinitionLevels);
+                initValues(pageV2.getDataEncoding(), pageV2.getData().toInputStream());
+                return null;
+              } catch (IOException e) {
+                throw new ParquetDecodingException(
+                    "could not read page " + pageV2 + " in col " + descriptor, e);
+              }
+            }
+          });
+    }
+
+    private void readLevelsV1(
+        int maxLevel, Encoding encoding, ValuesType type, ByteBufferInputStream in, int[] levels)
+        throws IOException {
+      if (maxLevel == 0) {
+        return; // no levels are stored
+      }
+      if (encoding == Encoding.RLE) {
+        int length = BytesUtils.readIntLittleEndian(in);
+        new RleValuesDecoder(in.slice(length), BytesUtils.getWidthFromMaxInt(maxLevel))
+            .readInts(levels, 0, pageValueCount);
+      } else {
+        // e.g. the deprecated BIT_PACKED encoding
+        ValuesReader reader = encoding.getValuesReader(descriptor, type);
+        reader.initFromPage(pageValueCount, in);
+        for (int i = 0; i < pageValueCount; i++) {
+          levels[i] = reader.readInteger();
+        }
+      }
+    }
+
+    private void readLevelsV2(int maxLevel, ByteBuffer bytes, int[] levels) {
+      if (maxLevel > 0) {
+        new RleValuesDecoder(bytes, BytesUtils.getWidthFromMaxInt(maxLevel))
+            .readInts(levels, 0, pageValueCount);
+      }
+    }
+
+    private void initValues(Encoding encoding, ByteBufferInputStream in) throws IOException {
+      valuesDecoder = null;
+      dictionaryIdsDecoder = null;
+      if (values == null) {
+        return;
+      }
+      if (encoding.usesDictionary()) {
+        ByteBuffer bytes = in.slice(in.available());
+        int bitWidth = bytes.get() & 0xFF;
+        dictionaryIdsDecoder = new RleValuesDecoder(bytes, bitWidth);
+      } else if (encoding == Encoding.PLAIN) {
+        valuesDecoder =
+            new PlainValuesDecoder(in.slice(in.available()), descriptor.getPrimitiveType());
+      } else {
+        ValuesReader reader = encoding.getValuesReader(descriptor, ValuesType.VALUES);
+        reader.initFromPage(pageValueCount, in);
+        valuesDecoder = new ValuesReaderDecoder(reader);
+      }
+    }
+  }
+
+  private static ColumnReader createReader(
+      DataType typeFromClient,
+      Type typeFromFile,
+      String[] parentPath,
+      int parentDefinitionLevel,
+      int parentRepetitionLevel,
+      MessageType fileSchema,
+      List<ColumnChunkReader> leaves) {
+    String[] path = Arrays.copyOf(parentPath, parentPath.length + 1);
+    path[parentPath.length] = typeFromFile.getName();
+    int definitionLevel =
+        parentDefinitionLevel + (typeFromFile.isRepetition(Type.Repetition.REQUIRED) ? 0 : 1);
+    int repetitionLevel =
+        parentRepetitionLevel + (typeFromFile.isRepetition(Type.Repetition.REPEATED) ? 1 : 0);
+
+    if (typeFromClient instanceof StructType) {
+      StructType structType = (StructType) typeFromClient;
+      GroupType groupType = (GroupType) typeFromFile;
+      Map<Integer, Type> parquetFieldIdToTypeMap = getParquetFieldToTypeMap(groupType);
+      ColumnReader[] memberReaders = new ColumnReader[structType.length()];
+      ColumnChunkReader levelsColumn = null;
+      for (int i = 0; i < memberReaders.length; i++) {
+        StructField field = structType.at(i);
+        Type fieldType = findSubFieldType(groupType, field, parquetFieldIdToTypeMap);
+        memberReaders[i] =
+            fieldType == null
+                ? new MissingColumnReader(field.getDataType())
+                : createReader(
+                    field.getDataType(),
+                    fieldType,
+                    path,
+                    definitionLevel,
+                    repetitionLevel,
+                    fileSchema,
+                    leaves);
+        if (levelsColumn == null) {
+          levelsColumn = memberReaders[i].firstLeaf();
+        }
+      }
+      if (levelsColumn == null) {
+        levelsColumn = levelsOnlyColumn(groupType, path, fileSchema, leaves);
+        if (levelsColumn == null) {
+          // none of the fields of the struct are read
+          return new MissingColumnReader(typeFromClient);
+        }
+      }
+      return new StructReader(structType, definitionLevel, memberReaders, levelsColumn);
+    } else if (typeFromClient instanceof ArrayType) {
+      ArrayType arrayType = (ArrayType) typeFromClient;
+      GroupType groupType = (GroupType) typeFromFile;
+      // Currently, support for 3-level nested arrays only, see ArrayColumnReader.
+      checkArgument(
+          groupType.getFieldCount() == 1,
+          "Expected exactly one field in the array type, but got: " + groupType);
+      GroupType repeatedGroup = groupType.getType(0).asGroupType();
+      checkArgument(
+          repeatedGroup.getFieldCount() == 1, "Expected exactly one field in the repeated group");
+      String[] repeatedGroupPath = Arrays.copyOf(path, path.length + 1);
+      repeatedGroupPath[path.length] = repeatedGroup.getName();
+
+      ColumnReader elementReader =
+          createReader(
+              arrayType.getElementType(),
+              repeatedGroup.getType(0),
+              repeatedGroupPath,
+              definitionLevel + 1,
+              repetitionLevel + 1,
+              fileSchema,
+              leaves);
+      ColumnChunkReader levelsColumn = elementReader.firstLeaf();
+      if (levelsColumn == null) {
+        levelsColumn = levelsOnlyColumn(groupType, path, fileSchema, leaves);
+      }
+      return new ArrayReader(
+          arrayType, definitionLevel, repetitionLevel + 1, elementReader, levelsColumn);
+    } else if (typeFromClient instanceof MapType) {
+      MapType mapType = (MapType) typeFromClient;
+      GroupType groupType = (GroupType) typeFromFile;
+      // Repeated element can be any name, see MapColumnReader.
+      checkArgument(
+          groupType.getFieldCount() == 1,
+          "Expected exactly one repeated field in the map type, but got: " + groupType);
+      GroupType innerMapType = groupType.getType(0).asGroupType();
+      String[] innerMapPath = Arrays.copyOf(path, path.length + 1);
+      innerMapPath[path.length] = innerMapType.getName();
+
+      ColumnReader keyReader =
+          createReader(
+              mapType.getKeyType(),
+              innerMapType.getType("key"),
+              innerMapPath,
+              definitionLevel + 1,
+              repetitionLevel + 1,
+              fileSchema,
+              leaves);
+      ColumnReader valueReader =
+          createReader(
+              mapType.getValueType(),
+              innerMapType.getType("value"),
+              innerMapPath,
+              definitionLevel + 1,
+              repetitionLevel + 1,
+              fileSchema,
+              leaves);
+      ColumnChunkReader levelsColumn = keyReader.firstLeaf();
+      if (levelsColumn == null) {
+        levelsColumn = levelsOnlyColumn(groupType, path, fileSchema, leaves);
+      }
+      return new MapReader(
+          mapType, definitionLevel, repetitionLevel + 1, keyReader, valueReader, levelsColumn);
+    }
+
+    ColumnValues values = VectorizedValues.create(typeFromClient, typeFromFile);
+    ColumnChunkReader column = new ColumnChunkReader(fileSchema.getColumnDescription(path), values);
+    leaves.add(column);
+    return new PrimitiveReader(column);
+  }
+
+  /**
+   * Create a reader of the levels of the first leaf of {@code groupType}, for a group none of whose
+   * leaves are read otherwise. Returns null if the group has no leaves.
+   */
+  private static ColumnChunkReader levelsOnlyColumn(
+      GroupType groupType, String[] path, MessageType fileSchema, List<ColumnChunkReader> leaves) {
+    List<String> leafPath = new ArrayList<>(Arrays.asList(path));
+    Type type = groupType;
+    while (!type.isPrimitive()) {
+      GroupType group = type.asGroupType();
+      if (group.getFieldCount() == 0) {
+        return null;
+      }
+      type = group.getType(0);
+      leafPath.add(type.getName());
+    }
+    ColumnChunkReader column =
+        new ColumnChunkReader(
+            fileSchema.getColumnDescription(leafPath.toArray(new String[0])), null);
+    leaves.add(column);
+    return column;
+  }
+}
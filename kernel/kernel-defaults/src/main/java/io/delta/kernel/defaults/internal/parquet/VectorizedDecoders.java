@@ -0,0 +1,315 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.values.bitpacking.BytePacker;
+import org.apache.parquet.column.values.bitpacking.Packer;
+import org.apache.parquet.io.ParquetDecodingException;
+import org.apache.parquet.schema.PrimitiveType;
+
+/**
+ * Decoders used by {@link VectorizedParquetReader} to decode the levels and values of a Parquet
+ * data page in bulk, i.e. many values per call, instead of one value per call like the {@link
+ * ValuesReader}s of {@code parquet-mr}.
+ */
+class VectorizedDecoders {
+  private VectorizedDecoders() {}
+
+  /**
+   * Decodes the values of a data page. Each method decodes the next {@code length} values into
+   * {@code dest} starting at {@code offset}. A decoder only supports the methods of the physical
+   * type of the column.
+   */
+  abstract static class ValuesDecoder {
+    void readBooleans(boolean[] dest, int offset, int length) {
+      throw unsupported("booleans");
+    }
+
+    void readInts(int[] dest, int offset, int length) {
+      throw unsupported("ints");
+    }
+
+    void readLongs(long[] dest, int offset, int length) {
+      throw unsupported("longs");
+    }
+
+    void readFloats(float[] dest, int offset, int length) {
+      throw unsupported("floats");
+    }
+
+    void readDoubles(double[] dest, int offset, int length) {
+      throw unsupported("doubles");
+    }
+
+    void readBinaries(byte[][] dest, int offset, int length) {
+      throw unsupported("binaries");
+    }
+
+    void readBinaries(Utf8VectorBuffer dest, int offset, int length) {
+      throw unsupported("binaries");
+    }
+
+    private UnsupportedOperationException unsupported(String values) {
+      return new UnsupportedOperationException(
+          getClass().getSimpleName() + " can't decode " + values);
+    }
+  }
+
+  /**
+   * Decoder of the {@code PLAIN} encoding. Fixed width values are copied from the page in bulk,
+   * booleans are bit-packed and variable length binaries are prefixed by their length.
+   */
+  static class PlainValuesDecoder extends ValuesDecoder {
+    private final ByteBuffer buffer;
+    private final int typeLength;
+    /** Index of the next boolean in the current byte of {@link #buffer}. */
+    private int bitIndex;
+
+    PlainValuesDecoder(ByteBuffer buffer, PrimitiveType type) {
+      this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+      switch (type.getPrimitiveTypeName()) {
+        case FIXED_LEN_BYTE_ARRAY:
+          this.typeLength = type.getTypeLength();
+          break;
+        case INT96:
+          this.typeLength = 12;
+          break;
+        default:
+          this.typeLength = -1; // variable length
+      }
+    }
+
+    @Override
+    void readBooleans(boolean[] dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        dest[i] = ((buffer.get(buffer.position()) >>> bitIndex) & 1) != 0;
+        if (++bitIndex == 8) {
+          bitIndex = 0;
+          buffer.position(buffer.position() + 1);
+        }
+      }
+    }
+
+    @Override
+    void readInts(int[] dest, int offset, int length) {
+      buffer.asIntBuffer().get(dest, offset, length);
+      buffer.position(buffer.position() + length * Integer.BYTES);
+    }
+
+    @Override
+    void readLongs(long[] dest, int offset, int length) {
+      buffer.asLongBuffer().get(dest, offset, length);
+      buffer.position(buffer.position() + length * Long.BYTES);
+    }
+
+    @Override
+    void readFloats(float[] dest, int offset, int length) {
+      buffer.asFloatBuffer().get(dest, offset, length);
+      buffer.position(buffer.position() + length * Float.BYTES);
+    }
+
+    @Override
+    void readDoubles(double[] dest, int offset, int length) {
+      buffer.asDoubleBuffer().get(dest, offset, length);
+      buffer.position(buffer.position() + length * Double.BYTES);
+    }
+
+    @Override
+    void readBinaries(byte[][] dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        byte[] value = new byte[typeLength >= 0 ? typeLength : buffer.getInt()];
+        buffer.get(value);
+        dest[i] = value;
+      }
+    }
+
+    @Override
+    void readBinaries(Utf8VectorBuffer dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        dest.set(i, buffer, typeLength >= 0 ? typeLength : buffer.getInt());
+      }
+    }
+  }
+
+  /**
+   * Decoder of the RLE/bit-packing hybrid encoding used for the repetition and definition levels,
+   * the dictionary ids and the booleans of the {@code RLE} encoding. Runs of repeated values are
+   * filled in bulk and bit-packed runs are unpacked 8 values at a time.
+   */
+  static class RleValuesDecoder extends ValuesDecoder {
+    private final ByteBuffer buffer;
+    private final int bitWidth;
+    private final BytePacker packer;
+
+    // state of the current run
+    private boolean isRleRun;
+    private int remainingInRun;
+    private int rleValue;
+    private int[] unpacked = new int[0];
+    private int unpackedIndex;
+    private byte[] packedBytes = new byte[0];
+    private ByteBuffer packedBuffer = ByteBuffer.wrap(packedBytes);
+
+    RleValuesDecoder(ByteBuffer buffer, int bitWidth) {
+      this.buffer = buffer.slice();
+      this.bitWidth = bitWidth;
+      this.packer = Packer.LITTLE_ENDIAN.newBytePacker(bitWidth);
+    }
+
+    @Override
+    void readInts(int[] dest, int offset, int length) {
+      while (length > 0) {
+        if (remainingInRun == 0) {
+          readNextRun();
+        }
+        int count = Math.min(length, remainingInRun);
+        if (isRleRun) {
+          Arrays.fill(dest, offset, offset + count, rleValue);
+        } else {
+          System.arraycopy(unpacked, unpackedIndex, dest, offset, count);
+          unpackedIndex += count;
+        }
+        remainingInRun -= count;
+        offset += count;
+        length -= count;
+      }
+    }
+
+    @Override
+    void readBooleans(boolean[] dest, int offset, int length) {
+      int[] values = new int[length];
+      readInts(values, 0, length);
+      for (int i = 0; i < length; i++) {
+        dest[offset + i] = values[i] != 0;
+      }
+    }
+
+    private void readNextRun() {
+      if (!buffer.hasRemaining()) {
+        throw new ParquetDecodingException("Unexpected end of RLE/bit-packed values");
+      }
+      int header = readUnsignedVarInt();
+      if ((header & 1) == 0) {
+        isRleRun = true;
+        remainingInRun = header >>> 1;
+        rleValue = 0;
+        for (int i = 0; i < (bitWidth + 7) / 8; i++) {
+          rleValue |= (buffer.get() & 0xFF) << (8 * i);
+        }
+      } else {
+        isRleRun = false;
+        int numGroups = header >>> 1;
+        remainingInRun = numGroups * 8;
+        if (unpacked.length < remainingInRun) {
+          unpacked = new int[remainingInRun];
+        }
+        // The last run of a page may be truncated, so copy the available bytes to a zero padded
+        // array instead of unpacking from the page.
+        int numBytes = numGroups * bitWidth;
+        if (packedBytes.length < numBytes) {
+          packedBytes = new byte[numBytes];
+          packedBuffer = ByteBuffer.wrap(packedBytes);
+        }
+        int available = Math.min(numBytes, buffer.remaining());
+        buffer.get(packedBytes, 0, available);
+        Arrays.fill(packedBytes, available, numBytes, (byte) 0);
+        for (int group = 0; group < numGroups; group++) {
+          packer.unpack8Values(packedBuffer, group * bitWidth, unpacked, group * 8);
+        }
+        unpackedIndex = 0;
+      }
+    }
+
+    private int readUnsignedVarInt() {
+      int value = 0;
+      int shift = 0;
+      int b;
+      do {
+        b = buffer.get() & 0xFF;
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+  }
+
+  /**
+   * Decoder of the encodings without a bulk decoder (e.g. {@code DELTA_BINARY_PACKED}). The values
+   * are read one at a time from the {@link ValuesReader} of {@code parquet-mr}.
+   */
+  static class ValuesReaderDecoder extends ValuesDecoder {
+    private final ValuesReader reader;
+
+    ValuesReaderDecoder(ValuesReader reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    void readBooleans(boolean[] dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        dest[i] = reader.readBoolean();
+      }
+    }
+
+    @Override
+    void readInts(int[] dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        dest[i] = reader.readInteger();
+      }
+    }
+
+    @Override
+    void readLongs(long[] dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        dest[i] = reader.readLong();
+      }
+    }
+
+    @Override
+    void readFloats(float[] dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        dest[i] = reader.readFloat();
+      }
+    }
+
+    @Override
+    void readDoubles(double[] dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        dest[i] = reader.readDouble();
+      }
+    }
+
+    @Override
+    void readBinaries(byte[][] dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        dest[i] = reader.readBytes().getBytes();
+      }
+    }
+
+    @Override
+    void readBinaries(Utf8VectorBuffer dest, int offset, int length) {
+      for (int i = offset; i < offset + length; i++) {
+        // a view of the bytes of the page, if possible, which are copied once into the buffer
+        ByteBuffer value = reader.readBytes().toByteBuffer();
+        dest.set(i, value, value.remaining());
+      }
+    }
+  }
+}
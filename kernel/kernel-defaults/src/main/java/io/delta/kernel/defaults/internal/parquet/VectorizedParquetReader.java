@@ -0,0 +1,193 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static java.util.Objects.requireNonNull;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.internal.data.DefaultColumnarBatch;
+import io.delta.kernel.defaults.internal.parquet.ParquetFileReader.ParquetFileReaderWithFooter;
+import io.delta.kernel.defaults.internal.parquet.VectorizedColumnReaders.ColumnChunkReader;
+import io.delta.kernel.defaults.internal.parquet.VectorizedColumnReaders.ColumnReader;
+import io.delta.kernel.defaults.internal.parquet.VectorizedColumnReaders.RowIndexReader;
+import io.delta.kernel.exceptions.KernelEngineException;
+import io.delta.kernel.expressions.Predicate;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.types.StructType;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.IOException;
+import java.util.*;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+
+/**
+ * Reads a Parquet file a column at a time, without the row-at-a-time record assembly of {@code
+ * parquet-mr} used by {@link ParquetFileReader}. The pages of each column chunk are decoded in bulk
+ * straight into the arrays of the returned vectors, see {@link VectorizedColumnReaders}. The
+ * batches never span row groups. Enabled with {@code
+ * delta.kernel.default.parquet.reader.vectorized}.
+ *
+ * <p>When the pages of a row group are filtered with the column index of the file (see {@link
+ * ParquetFileReader#withFilterPredicate}), only the ranges of rows that may match the predicate are
+ * read. A batch then never spans two ranges either, and each column skips to the first row of the
+ * range, which may be in the middle of one of its pages.
+ */
+class VectorizedParquetReader implements CloseableIterator<ColumnarBatch> {
+  private final Configuration configuration;
+  private final FileStatus file;
+  private final String path;
+  private final Optional<ParquetFooterCache> footerCache;
+  private final StructType readSchema;
+  private final Optional<Predicate> predicate;
+  private final int maxBatchSize;
+
+  // Initialized when the file is opened
+  private org.apache.parquet.hadoop.ParquetFileReader fileReader;
+  private ColumnReader[] columnReaders;
+  private final List<ColumnChunkReader> leaves = new ArrayList<>();
+
+  // state of the current row group
+  private long rowIndexOffset;
+  /** Indexes in the row group of the rows left to read, null if all the rows are read. */
+  private PrimitiveIterator.OfLong rowIndexes;
+  /** The next index of {@link #rowIndexes}, or -1 if none was taken from the iterator yet. */
+  private long nextRangeStart = -1;
+  /** Index in the row group of the next row to read. */
+  private long nextRow;
+  /** Index in the row group of the end (exclusive) of the range of the next row. */
+  private long rangeEnd;
+
+  VectorizedParquetReader(
+      Configuration configuration,
+      FileStatus file,
+      Optional<ParquetFooterCache> footerCache,
+      StructType readSchema,
+      Optional<Predicate> predicate,
+      int maxBatchSize) {
+    this.configuration = requireNonNull(configuration, "configuration is null");
+    this.file = requireNonNull(file, "file is null");
+    this.path = file.getPath();
+    this.footerCache = requireNonNull(footerCache, "footerCache is null");
+    this.readSchema = requireNonNull(readSchema, "readSchema is null");
+    this.predicate = requireNonNull(predicate, "predicate is null");
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  @Override
+  public boolean hasNext() {
+    initParquetReaderIfRequired();
+    try {
+      while (nextRow == rangeEnd && !nextRowRange()) {
+        PageReadStore rowGroup = fileReader.readNextFilteredRowGroup();
+        if (rowGroup == null) {
+          return false;
+        }
+        rowIndexOffset = rowGroup.getRowIndexOffset().orElse(-1L);
+        rowIndexes = rowGroup.getRowIndexes().orElse(null);
+        nextRangeStart = -1;
+        nextRow = 0;
+        // read all the rows, unless the pages were filtered
+        rangeEnd = rowIndexes == null ? rowGroup.getRowCount() : 0;
+        for (ColumnChunkReader leaf : leaves) {
+          leaf.setPageReader(rowGroup.getPageReader(leaf.getDescriptor()));
+        }
+      }
+      return true;
+    } catch (IOException ex) {
+      throw new KernelEngineException("Error reading Parquet file: " + path, ex);
+    }
+  }
+
+  @Override
+  public ColumnarBatch next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    int batchSize = (int) Math.min(maxBatchSize, rangeEnd - nextRow);
+    for (ColumnChunkReader leaf : leaves) {
+      leaf.skipTo(nextRow);
+      leaf.readBatch(batchSize);
+    }
+    ColumnVector[] vectors = new ColumnVector[columnReaders.length];
+    for (int i = 0; i < columnReaders.length; i++) {
+      if (columnReaders[i] instanceof RowIndexReader) {
+        ((RowIndexReader) columnReaders[i]).setFirstRowIndex(rowIndexOffset + nextRow);
+      }
+      vectors[i] = columnReaders[i].readVector(batchSize, 0, 0);
+    }
+    nextRow += batchSize;
+    return new DefaultColumnarBatch(batchSize, readSchema, vectors);
+  }
+
+  /**
+   * Move to the next range of consecutive rows of {@link #rowIndexes} in the current row group.
+   * Returns false if there are no more rows to read in the row group.
+   */
+  private boolean nextRowRange() {
+    if (rowIndexes == null || (nextRangeStart < 0 && !rowIndexes.hasNext())) {
+      return false;
+    }
+    long start = nextRangeStart < 0 ? rowIndexes.nextLong() : nextRangeStart;
+    long end = start + 1;
+    nextRangeStart = -1;
+    while (rowIndexes.hasNext()) {
+      long rowIndex = rowIndexes.nextLong();
+      if (rowIndex != end) {
+        nextRangeStart = rowIndex;
+        break;
+      }
+      end++;
+    }
+    nextRow = start;
+    rangeEnd = end;
+    return true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    Utils.closeCloseables(fileReader);
+  }
+
+  private void initParquetReaderIfRequired() {
+    if (fileReader == null) {
+      org.apache.parquet.hadoop.ParquetFileReader reader = null;
+      try {
+        Path filePath = new Path(path);
+        ParquetMetadata footer = ParquetFileReader.readFooter(configuration, file, footerCache);
+        MessageType fileSchema = footer.getFileMetaData().getSchema();
+        Configuration conf =
+            ParquetFileReader.withFilterPredicate(configuration, fileSchema, predicate);
+        reader = new ParquetFileReaderWithFooter(filePath, conf, footer);
+
+        MessageType requestedSchema = ParquetSchemaUtils.pruneSchema(fileSchema, readSchema);
+        reader.setRequestedSchema(requestedSchema);
+        columnReaders = VectorizedColumnReaders.createReaders(readSchema, requestedSchema, leaves);
+        fileReader = reader;
+      } catch (IOException e) {
+        Utils.closeCloseablesSilently(reader);
+        throw new KernelEngineException("Error reading Parquet file: " + path, e);
+      } catch (RuntimeException e) {
+        Utils.closeCloseablesSilently(reader);
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,960 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet;
+
+import static io.delta.kernel.internal.util.Preconditions.checkArgument;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.*;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.defaults.internal.DefaultKernelUtils;
+import io.delta.kernel.defaults.internal.data.vector.*;
+import io.delta.kernel.defaults.internal.parquet.VectorizedDecoders.ValuesDecoder;
+import io.delta.kernel.types.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Optional;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Values of a primitive column decoded by {@link VectorizedParquetReader}, stored in the arrays of
+ * the {@link ColumnVector} of the column type. Each implementation converts the physical Parquet
+ * values to the column type the same way as the corresponding converter in {@link
+ * ParquetColumnReaders}, {@link DecimalColumnReader} and {@link TimestampConverters}. Dictionaries
+ * are converted once per column chunk, so that dictionary encoded values are a lookup in the
+ * converted dictionary.
+ */
+class VectorizedValues {
+  private VectorizedValues() {}
+
+  /**
+   * Create the values of a column of type {@code typeFromClient} stored in the Parquet column of
+   * type {@code typeFromFile}.
+   */
+  static ColumnValues create(DataType typeFromClient, Type typeFromFile) {
+    if (typeFromClient instanceof StringType) {
+      checkPhysicalType(typeFromClient, typeFromFile, BINARY, FIXED_LEN_BYTE_ARRAY, INT96);
+      return new StringValues();
+    } else if (typeFromClient instanceof BinaryType) {
+      checkPhysicalType(typeFromClient, typeFromFile, BINARY, FIXED_LEN_BYTE_ARRAY, INT96);
+      return new BinaryValues(typeFromClient);
+    } else if (typeFromClient instanceof BooleanType) {
+      checkPhysicalType(typeFromClient, typeFromFile, BOOLEAN);
+      return new BooleanValues();
+    } else if (typeFromClient instanceof IntegerType || typeFromClient instanceof DateType) {
+      checkPhysicalType(typeFromClient, typeFromFile, INT32);
+      return new IntValues(typeFromClient);
+    } else if (typeFromClient instanceof ByteType) {
+      checkPhysicalType(typeFromClient, typeFromFile, INT32);
+      return new ByteValues();
+    } else if (typeFromClient instanceof ShortType) {
+      checkPhysicalType(typeFromClient, typeFromFile, INT32);
+      return new ShortValues();
+    } else if (typeFromClient instanceof LongType) {
+      checkPhysicalType(typeFromClient, typeFromFile, INT32, INT64);
+      return new LongValues(typeFromClient, physicalType(typeFromFile), LongConversion.NONE);
+    } else if (typeFromClient instanceof FloatType) {
+      checkPhysicalType(typeFromClient, typeFromFile, FLOAT);
+      return new FloatValues();
+    } else if (typeFromClient instanceof DoubleType) {
+      checkPhysicalType(typeFromClient, typeFromFile, INT32, FLOAT, DOUBLE);
+      return new DoubleValues(physicalType(typeFromFile));
+    } else if (typeFromClient instanceof DecimalType) {
+      return createDecimalValues((DecimalType) typeFromClient, typeFromFile.asPrimitiveType());
+    } else if (typeFromClient instanceof TimestampType
+        || typeFromClient instanceof TimestampNTZType) {
+      return createTimestampValues(typeFromClient, typeFromFile.asPrimitiveType());
+    }
+
+    throw new UnsupportedOperationException(typeFromClient + " is not supported");
+  }
+
+  /**
+   * Values of a primitive column. The values of a batch are decoded with {@link #read} and {@link
+   * #readDictionary} at the positions of the non-null values, and then returned as a {@link
+   * ColumnVector} by {@link #toVector}. Each batch gets new arrays as the vectors keep them.
+   */
+  abstract static class ColumnValues {
+    // scratch space for the physical values that are converted to the column type
+    private int[] intValues = new int[0];
+    private byte[][] binaryValues = new byte[0][];
+
+    /** Allocate the arrays of a new batch with room for {@code capacity} values. */
+    abstract void allocate(int capacity);
+
+    /** Grow the arrays of the current batch to {@code capacity} values, keeping the values. */
+    abstract void grow(int capacity);
+
+    abstract int capacity();
+
+    /** Set the dictionary of the column chunk the next values are decoded from. */
+    abstract void setDictionary(Dictionary dictionary);
+
+    /** Decode the next {@code length} values to the positions from {@code offset}. */
+    abstract void read(ValuesDecoder decoder, int offset, int length);
+
+    /** Look up the dictionary ids {@code ids[0..length)} to the positions from {@code offset}. */
+    abstract void readDictionary(int[] ids, int offset, int length);
+
+    /** Move the values at {@code positions[0..length)} to the positions {@code [0..length)}. */
+    abstract void compact(int[] positions, int length);
+
+    /**
+     * Return the first {@code size} values as a {@link ColumnVector}. The values at the null
+     * positions are undefined.
+     */
+    abstract ColumnVector toVector(int size, Optional<boolean[]> nullability);
+
+    protected int[] readInts(ValuesDecoder decoder, int length) {
+      if (intValues.length < length) {
+        intValues = new int[length];
+      }
+      decoder.readInts(intValues, 0, length);
+      return intValues;
+    }
+
+    protected byte[][] readBinaries(ValuesDecoder decoder, int length) {
+      if (binaryValues.length < length) {
+        binaryValues = new byte[length][];
+      }
+      decoder.readBinaries(binaryValues, 0, length);
+      return binaryValues;
+    }
+  }
+
+  static class BooleanValues extends ColumnValues {
+    private boolean[] values = new boolean[0];
+    private boolean[] dictionary;
+
+    @Override
+    void allocate(int capacity) {
+      values = new boolean[capacity];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new boolean[dictionary.getMaxId() + 1];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        this.dictionary[id] = dictionary.decodeToBoolean(id);
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      decoder.readBooleans(values, offset, length);
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      return new DefaultBooleanVector(size, nullability, values);
+    }
+  }
+
+  static class ByteValues extends ColumnValues {
+    private byte[] values = new byte[0];
+    private byte[] dictionary;
+
+    @Override
+    void allocate(int capacity) {
+      values = new byte[capacity];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new byte[dictionary.getMaxId() + 1];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        this.dictionary[id] = (byte) dictionary.decodeToInt(id);
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      int[] ints = readInts(decoder, length);
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = (byte) ints[i];
+      }
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      return new DefaultByteVector(size, nullability, values);
+    }
+  }
+
+  static class ShortValues extends ColumnValues {
+    private short[] values = new short[0];
+    private short[] dictionary;
+
+    @Override
+    void allocate(int capacity) {
+      values = new short[capacity];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new short[dictionary.getMaxId() + 1];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        this.dictionary[id] = (short) dictionary.decodeToInt(id);
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      int[] ints = readInts(decoder, length);
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = (short) ints[i];
+      }
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      return new DefaultShortVector(size, nullability, values);
+    }
+  }
+
+  static class IntValues extends ColumnValues {
+    private final DataType dataType;
+    private int[] values = new int[0];
+    private int[] dictionary;
+
+    IntValues(DataType dataType) {
+      this.dataType = dataType;
+    }
+
+    @Override
+    void allocate(int capacity) {
+      values = new int[capacity];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new int[dictionary.getMaxId() + 1];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        this.dictionary[id] = dictionary.decodeToInt(id);
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      decoder.readInts(values, offset, length);
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      return new DefaultIntVector(dataType, size, nullability, values);
+    }
+  }
+
+  /** Conversion of the physical values of a {@link LongValues} column. */
+  enum LongConversion {
+    NONE,
+    MILLIS_TO_MICROS,
+    DAYS_TO_MICROS,
+    INT96_TO_MICROS
+  }
+
+  static class LongValues extends ColumnValues {
+    private final DataType dataType;
+    private final PrimitiveTypeName physicalType;
+    private final LongConversion conversion;
+    private long[] values = new long[0];
+    private long[] dictionary;
+
+    LongValues(DataType dataType, PrimitiveTypeName physicalType, LongConversion conversion) {
+      this.dataType = dataType;
+      this.physicalType = physicalType;
+      this.conversion = conversion;
+    }
+
+    @Override
+    void allocate(int capacity) {
+      values = new long[capacity];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new long[dictionary.getMaxId() + 1];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        switch (physicalType) {
+          case INT32:
+            this.dictionary[id] = convert(dictionary.decodeToInt(id));
+            break;
+          case INT64:
+            this.dictionary[id] = convert(dictionary.decodeToLong(id));
+            break;
+          default:
+            this.dictionary[id] = int96ToMicros(dictionary.decodeToBinary(id).getBytes());
+        }
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      switch (physicalType) {
+        case INT32:
+          int[] ints = readInts(decoder, length);
+          for (int i = 0; i < length; i++) {
+            values[offset + i] = convert(ints[i]);
+          }
+          break;
+        case INT64:
+          decoder.readLongs(values, offset, length);
+          if (conversion != LongConversion.NONE) {
+            for (int i = offset; i < offset + length; i++) {
+              values[i] = convert(values[i]);
+            }
+          }
+          break;
+        default:
+          byte[][] binaries = readBinaries(decoder, length);
+          for (int i = 0; i < length; i++) {
+            values[offset + i] = int96ToMicros(binaries[i]);
+          }
+      }
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      return new DefaultLongVector(dataType, size, nullability, values);
+    }
+
+    private long convert(int value) {
+      return conversion == LongConversion.DAYS_TO_MICROS
+          ? DefaultKernelUtils.daysToMicros(value, ZoneOffset.UTC)
+          : value;
+    }
+
+    private long convert(long value) {
+      return conversion == LongConversion.MILLIS_TO_MICROS
+          ? DefaultKernelUtils.millisToMicros(value)
+          : value;
+    }
+
+    private static long int96ToMicros(byte[] binary) {
+      checkArgument(
+          binary.length == 12,
+          String.format(
+              "Timestamps (with nanoseconds) are expected to be stored in 12-byte long "
+                  + "binaries. Found a %s-byte binary instead.",
+              binary.length));
+      ByteBuffer buffer = ByteBuffer.wrap(binary).order(ByteOrder.LITTLE_ENDIAN);
+      long timeOfDayNanos = buffer.getLong();
+      int julianDay = buffer.getInt();
+      // we do not rebase timestamps
+      return DefaultKernelUtils.fromJulianDay(julianDay, timeOfDayNanos);
+    }
+  }
+
+  static class FloatValues extends ColumnValues {
+    private float[] values = new float[0];
+    private float[] dictionary;
+
+    @Override
+    void allocate(int capacity) {
+      values = new float[capacity];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new float[dictionary.getMaxId() + 1];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        this.dictionary[id] = dictionary.decodeToFloat(id);
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      decoder.readFloats(values, offset, length);
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      return new DefaultFloatVector(size, nullability, values);
+    }
+  }
+
+  static class DoubleValues extends ColumnValues {
+    private final PrimitiveTypeName physicalType;
+    private double[] values = new double[0];
+    private double[] dictionary;
+    private float[] floatValues = new float[0];
+
+    DoubleValues(PrimitiveTypeName physicalType) {
+      this.physicalType = physicalType;
+    }
+
+    @Override
+    void allocate(int capacity) {
+      values = new double[capacity];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new double[dictionary.getMaxId() + 1];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        switch (physicalType) {
+          case INT32:
+            this.dictionary[id] = dictionary.decodeToInt(id);
+            break;
+          case FLOAT:
+            this.dictionary[id] = dictionary.decodeToFloat(id);
+            break;
+          default:
+            this.dictionary[id] = dictionary.decodeToDouble(id);
+        }
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      switch (physicalType) {
+        case INT32:
+          int[] ints = readInts(decoder, length);
+          for (int i = 0; i < length; i++) {
+            values[offset + i] = ints[i];
+          }
+          break;
+        case FLOAT:
+          if (floatValues.length < length) {
+            floatValues = new float[length];
+          }
+          decoder.readFloats(floatValues, 0, length);
+          for (int i = 0; i < length; i++) {
+            values[offset + i] = floatValues[i];
+          }
+          break;
+        default:
+          decoder.readDoubles(values, offset, length);
+      }
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      return new DefaultDoubleVector(size, nullability, values);
+    }
+  }
+
+  /**
+   * Values of a string column. The bytes of the values of a batch are copied into one buffer, see
+   * {@link Utf8VectorBuffer}, including the values looked up in the dictionary.
+   */
+  static class StringValues extends ColumnValues {
+    private Utf8VectorBuffer values = new Utf8VectorBuffer(0, 0);
+    private byte[][] dictionary;
+
+    @Override
+    void allocate(int capacity) {
+      // start with the size of the previous batch, which is likely the size of this one
+      values = new Utf8VectorBuffer(capacity, values.bufferSize());
+    }
+
+    @Override
+    void grow(int capacity) {
+      values.grow(capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.capacity();
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new byte[dictionary.getMaxId() + 1][];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        this.dictionary[id] = dictionary.decodeToBinary(id).getBytes();
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      decoder.readBinaries(values, offset, length);
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values.set(offset + i, dictionary[ids[i]]);
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      values.compact(positions, length);
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      return values.toVector(size, nullability);
+    }
+  }
+
+  /**
+   * Values of a binary column. The values looked up in the dictionary share the byte arrays of the
+   * dictionary.
+   */
+  static class BinaryValues extends ColumnValues {
+    private final DataType dataType;
+    private byte[][] values = new byte[0][];
+    private byte[][] dictionary;
+
+    BinaryValues(DataType dataType) {
+      this.dataType = dataType;
+    }
+
+    @Override
+    void allocate(int capacity) {
+      values = new byte[capacity][];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new byte[dictionary.getMaxId() + 1][];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        this.dictionary[id] = dictionary.decodeToBinary(id).getBytes();
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      decoder.readBinaries(values, offset, length);
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      nullOut(values, size, nullability);
+      return new DefaultBinaryVector(dataType, size, values);
+    }
+  }
+
+  static class DecimalValues extends ColumnValues {
+    private final DecimalType dataType;
+    private final PrimitiveTypeName physicalType;
+    private final int scale;
+    private BigDecimal[] values = new BigDecimal[0];
+    private BigDecimal[] dictionary;
+    private long[] longValues = new long[0];
+
+    DecimalValues(DecimalType dataType, PrimitiveTypeName physicalType, int precision, int scale) {
+      int scaleIncrease = dataType.getScale() - scale;
+      int precisionIncrease = dataType.getPrecision() - precision;
+      checkArgument(
+          scaleIncrease >= 0 && precisionIncrease >= scaleIncrease,
+          String.format(
+              "Found Delta type %s but Parquet type has precision=%s and scale=%s",
+              dataType, precision, scale));
+      this.dataType = dataType;
+      this.physicalType = physicalType;
+      this.scale = scale;
+    }
+
+    @Override
+    void allocate(int capacity) {
+      values = new BigDecimal[capacity];
+    }
+
+    @Override
+    void grow(int capacity) {
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    int capacity() {
+      return values.length;
+    }
+
+    @Override
+    void setDictionary(Dictionary dictionary) {
+      this.dictionary = new BigDecimal[dictionary.getMaxId() + 1];
+      for (int id = 0; id <= dictionary.getMaxId(); id++) {
+        switch (physicalType) {
+          case INT32:
+            this.dictionary[id] = decimal(dictionary.decodeToInt(id));
+            break;
+          case INT64:
+            this.dictionary[id] = decimal(dictionary.decodeToLong(id));
+            break;
+          default:
+            this.dictionary[id] = decimal(dictionary.decodeToBinary(id).getBytes());
+        }
+      }
+    }
+
+    @Override
+    void read(ValuesDecoder decoder, int offset, int length) {
+      switch (physicalType) {
+        case INT32:
+          int[] ints = readInts(decoder, length);
+          for (int i = 0; i < length; i++) {
+            values[offset + i] = decimal(ints[i]);
+          }
+          break;
+        case INT64:
+          if (longValues.length < length) {
+            longValues = new long[length];
+          }
+          decoder.readLongs(longValues, 0, length);
+          for (int i = 0; i < length; i++) {
+            values[offset + i] = decimal(longValues[i]);
+          }
+          break;
+        default:
+          byte[][] binaries = readBinaries(decoder, length);
+          for (int i = 0; i < length; i++) {
+            values[offset + i] = decimal(binaries[i]);
+          }
+      }
+    }
+
+    @Override
+    void readDictionary(int[] ids, int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        values[offset + i] = dictionary[ids[i]];
+      }
+    }
+
+    @Override
+    void compact(int[] positions, int length) {
+      for (int i = 0; i < length; i++) {
+        values[i] = values[positions[i]];
+      }
+    }
+
+    @Override
+    ColumnVector toVector(int size, Optional<boolean[]> nullability) {
+      nullOut(values, size, nullability);
+      return new DefaultDecimalVector(dataType, size, values);
+    }
+
+    private BigDecimal decimal(long unscaledValue) {
+      return rescale(BigDecimal.valueOf(unscaledValue, scale));
+    }
+
+    private BigDecimal decimal(byte[] unscaledValue) {
+      return rescale(new BigDecimal(new BigInteger(unscaledValue), scale));
+    }
+
+    private BigDecimal rescale(BigDecimal value) {
+      return dataType.getScale() == scale
+          ? value
+          : value.setScale(dataType.getScale(), RoundingMode.UNNECESSARY);
+    }
+  }
+
+  private static ColumnValues createDecimalValues(
+      DecimalType typeFromClient, PrimitiveType typeFromFile) {
+    PrimitiveTypeName physicalType = typeFromFile.getPrimitiveTypeName();
+    LogicalTypeAnnotation typeAnnotation = typeFromFile.getLogicalTypeAnnotation();
+    if (typeAnnotation instanceof DecimalLogicalTypeAnnotation
+        && (physicalType == INT32
+            || physicalType == INT64
+            || physicalType == FIXED_LEN_BYTE_ARRAY
+            || physicalType == BINARY)) {
+      DecimalLogicalTypeAnnotation decimalType = (DecimalLogicalTypeAnnotation) typeAnnotation;
+      return new DecimalValues(
+          typeFromClient, physicalType, decimalType.getPrecision(), decimalType.getScale());
+    } else if (physicalType == INT32) {
+      // If the column is a plain INT32, we should pick the precision that can host
+      // the largest INT32 value.
+      return new DecimalValues(typeFromClient, physicalType, 10, 0);
+    } else if (physicalType == INT64) {
+      // If the column is a plain INT64, we should pick the precision that can host
+      // the largest INT64 value.
+      return new DecimalValues(typeFromClient, physicalType, 20, 0);
+    } else if (physicalType == FIXED_LEN_BYTE_ARRAY || physicalType == BINARY) {
+      throw new RuntimeException(
+          String.format(
+              "Unable to create Parquet converter for DecimalType whose parquet "
+                  + "type is %s without decimal metadata.",
+              typeFromFile));
+    } else {
+      throw new RuntimeException(
+          String.format(
+              "Unable to create Parquet converter for DecimalType whose Parquet type "
+                  + "is %s. Parquet DECIMAL type can only be backed by INT32, INT64, "
+                  + "FIXED_LEN_BYTE_ARRAY, or BINARY",
+              typeFromFile));
+    }
+  }
+
+  private static ColumnValues createTimestampValues(
+      DataType typeFromClient, PrimitiveType typeFromFile) {
+    PrimitiveTypeName physicalType = typeFromFile.getPrimitiveTypeName();
+    LogicalTypeAnnotation typeAnnotation = typeFromFile.getLogicalTypeAnnotation();
+    boolean isTimestampTz = (typeFromClient instanceof TimestampType);
+
+    if (physicalType == INT96) {
+      return new LongValues(typeFromClient, physicalType, LongConversion.INT96_TO_MICROS);
+    } else if (physicalType == INT64 && typeAnnotation instanceof TimestampLogicalTypeAnnotation) {
+      TimestampLogicalTypeAnnotation timestamp = (TimestampLogicalTypeAnnotation) typeAnnotation;
+      boolean isAdjustedUtc = timestamp.isAdjustedToUTC();
+      if (isTimestampTz != isAdjustedUtc) {
+        throw new RuntimeException(
+            String.format(
+                "Incompatible Utc adjustment for timestamp column. "
+                    + "Client type: %s, File type: %s, isAdjustedUtc: %s",
+                typeFromClient, typeFromFile, isAdjustedUtc));
+      }
+      switch (timestamp.getUnit()) {
+        case MICROS:
+          return new LongValues(typeFromClient, physicalType(typeFromFile), LongConversion.NONE);
+        case MILLIS:
+          return new LongValues(typeFromClient, physicalType, LongConversion.MILLIS_TO_MICROS);
+        default:
+          throw new UnsupportedOperationException(
+              String.format("Unsupported Parquet TimeType unit=%s", timestamp.getUnit()));
+      }
+    } else if (typeFromClient == TimestampNTZType.TIMESTAMP_NTZ
+        && physicalType == INT32
+        && typeAnnotation instanceof LogicalTypeAnnotation.DateLogicalTypeAnnotation) {
+      return new LongValues(typeFromClient, physicalType, LongConversion.DAYS_TO_MICROS);
+    } else {
+      throw new RuntimeException(
+          String.format("Unsupported timestamp column with Parquet type %s.", typeFromFile));
+    }
+  }
+
+  private static void checkPhysicalType(
+      DataType typeFromClient, Type typeFromFile, PrimitiveTypeName... supportedTypes) {
+    if (typeFromFile.isPrimitive()) {
+      for (PrimitiveTypeName supportedType : supportedTypes) {
+        if (physicalType(typeFromFile) == supportedType) {
+          return;
+        }
+      }
+    }
+    throw new UnsupportedOperationException(
+        String.format("Can not read value of Parquet type %s as %s", typeFromFile, typeFromClient));
+  }
+
+  private static PrimitiveTypeName physicalType(Type typeFromFile) {
+    return typeFromFile.asPrimitiveType().getPrimitiveTypeName();
+  }
+
+  /** Set the null positions of the object {@code values} to null, as the vectors expect. */
+  private static void nullOut(Object[] values, int size, Optional<boolean[]> nullability) {
+    if (nullability.isPresent()) {
+      boolean[] isNull = nullability.get();
+      for (int i = 0; i < size; i++) {
+        if (isNull[i]) {
+          values[i] = null;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.delta.kernel.defaults.benchmarks;
+
+import io.delta.kernel.Table;
+import io.delta.kernel.defaults.engine.DefaultEngine;
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.internal.CommitTimestampIndex;
+import io.delta.kernel.internal.TableImpl;
+import io.delta.kernel.internal.fs.Path;
+import io.delta.kernel.internal.util.FileNames;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.conf.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark to measure the time to find the version of a table at a timestamp, with and without the
+ * commit timestamp index (see {@link CommitTimestampIndex}). The benchmark generates a synthetic
+ * table with a deep log of empty commit files, as only the listing of the log is needed to find the
+ * version, and looks up the timestamps of random versions. To run this benchmark (from delta repo
+ * root):
+ *
+ * <ul>
+ *   <li>
+ *       <pre>{@code
+ * build/sbt sbt:delta> project kernelDefaults
+ * sbt:delta> set fork in run := true sbt:delta>
+ * sbt:delta> test:runMain \
+ *   io.delta.kernel.defaults.benchmarks.BenchmarkCommitTimestampLookup
+ *
+ * }</pre>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Fork(1)
+public class BenchmarkCommitTimestampLookup {
+
+  /** Timestamp of the first commit, the commits are one second apart. */
+  private static final long START_TIMESTAMP = 1540415658000L;
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkData {
+    @Param({"listing", "index"})
+    private String lookup = "listing";
+
+    @Param({"10000", "100000"})
+    private int numCommits = 10000;
+
+    private File tempDir;
+    private TableImpl table;
+    private Engine engine;
+    private final Random random = new Random(42);
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      tempDir = Files.createTempDirectory("benchmark-commit-timestamp-lookup").toFile();
+      Path logPath = new Path(tempDir.getAbsolutePath(), "_delta_log");
+      new File(logPath.toString()).mkdirs();
+      for (int version = 0; version < numCommits; version++) {
+        File commitFile = new File(FileNames.deltaFile(logPath, version));
+        if (!commitFile.createNewFile()) {
+          throw new IOException("Failed to create " + commitFile);
+        }
+        commitFile.setLastModified(START_TIMESTAMP + version * 1000L);
+      }
+
+      engine = DefaultEngine.create(new Configuration());
+      if (lookup.equals("index")) {
+        CommitTimestampIndex.update(engine, logPath, numCommits - 1, Integer.MAX_VALUE);
+      }
+      table = (TableImpl) Table.forPath(engine, tempDir.getAbsolutePath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      deleteRecursively(tempDir);
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public void benchmark(BenchmarkData benchmarkData, Blackhole blackhole) {
+    long version = benchmarkData.random.nextInt(benchmarkData.numCommits);
+    // half way between the commit of the version and the next one
+    long timestamp = START_TIMESTAMP + version * 1000L + 500;
+    blackhole.consume(
+        benchmarkData.table.getVersionBeforeOrAtTimestamp(benchmarkData.engine, timestamp));
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(args);
+  }
+
+  private static void deleteRecursively(File file) {
+    File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        deleteRecursively(child);
+      }
+    }
+    file.delete();
+  }
+}
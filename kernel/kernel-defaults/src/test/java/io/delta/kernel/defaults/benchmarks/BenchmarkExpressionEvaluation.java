@@ -0,0 +1,160 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.delta.kernel.defaults.benchmarks;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.engine.DefaultExpressionHandler;
+import io.delta.kernel.defaults.internal.data.DefaultColumnarBatch;
+import io.delta.kernel.defaults.internal.data.vector.DefaultBinaryVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultLongVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultStructVector;
+import io.delta.kernel.expressions.*;
+import io.delta.kernel.types.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.conf.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark to compare the interpreted expression evaluation of the {@code
+ * DefaultExpressionHandler} with its compiled evaluators (see {@code
+ * delta.kernel.default.expression.evaluator.compiled}). The benchmark evaluates a data skipping
+ * style predicate on the min/max statistics of a long and a string column over generated batches.
+ * To run this benchmark (from delta repo root):
+ *
+ * <ul>
+ *   <li>
+ *       <pre>{@code
+ * build/sbt sbt:delta> project kernelDefaults
+ * sbt:delta> set fork in run := true sbt:delta>
+ * sbt:delta> test:runMain \
+ *   io.delta.kernel.defaults.benchmarks.BenchmarkExpressionEvaluation
+ *
+ * }</pre>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Fork(1)
+public class BenchmarkExpressionEvaluation {
+
+  private static final StructType STATS_SCHEMA =
+      new StructType().add("id", LongType.LONG).add("name", StringType.STRING);
+
+  private static final StructType INPUT_SCHEMA =
+      new StructType()
+          .add("numRecords", LongType.LONG)
+          .add("minValues", STATS_SCHEMA)
+          .add("maxValues", STATS_SCHEMA);
+
+  /** (minValues.id <= 500000 AND maxValues.id >= 400000) OR minValues.name <= 'name-5' */
+  private static final Predicate PREDICATE =
+      new Or(
+          new And(
+              new Predicate(
+                  "<=", new Column(new String[] {"minValues", "id"}), Literal.ofLong(500000)),
+              new Predicate(
+                  ">=", new Column(new String[] {"maxValues", "id"}), Literal.ofLong(400000))),
+          new Predicate(
+              "<=", new Column(new String[] {"minValues", "name"}), Literal.ofString("name-5")));
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkData {
+    @Param({"false", "true"})
+    private boolean compiled = false;
+
+    @Param({"1000"})
+    private int numBatches = 1000;
+
+    /** Number of rows of each batch. */
+    @Param({"1024"})
+    private int batchSize = 1024;
+
+    private DefaultExpressionHandler expressionHandler;
+    private List<ColumnarBatch> batches;
+
+    @Setup(Level.Trial)
+    public void setup() {
+      Configuration hadoopConf = new Configuration();
+      hadoopConf.setBoolean("delta.kernel.default.expression.evaluator.compiled", compiled);
+      expressionHandler = new DefaultExpressionHandler(hadoopConf);
+
+      Random random = new Random(42);
+      batches = new ArrayList<>(numBatches);
+      for (int batch = 0; batch < numBatches; batch++) {
+        long[] numRecords = new long[batchSize];
+        long[] minIds = new long[batchSize];
+        long[] maxIds = new long[batchSize];
+        byte[][] minNames = new byte[batchSize][];
+        byte[][] maxNames = new byte[batchSize][];
+        boolean[] nulls = new boolean[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+          numRecords[i] = 1000;
+          minIds[i] = random.nextInt(1000000);
+          maxIds[i] = minIds[i] + random.nextInt(100000);
+          minNames[i] = ("name-" + random.nextInt(10)).getBytes(StandardCharsets.UTF_8);
+          maxNames[i] = ("name-" + random.nextInt(10)).getBytes(StandardCharsets.UTF_8);
+          // files without statistics
+          nulls[i] = i % 20 == 0;
+        }
+        batches.add(
+            new DefaultColumnarBatch(
+                batchSize,
+                INPUT_SCHEMA,
+                new ColumnVector[] {
+                  new DefaultLongVector(LongType.LONG, batchSize, Optional.empty(), numRecords),
+                  statsVector(batchSize, nulls, minIds, minNames),
+                  statsVector(batchSize, nulls, maxIds, maxNames)
+                }));
+      }
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public void benchmark(BenchmarkData benchmarkData, Blackhole blackhole) {
+    // Get the evaluator for each run like a scan does, to include the compilation (if not cached)
+    PredicateEvaluator evaluator =
+        benchmarkData.expressionHandler.getPredicateEvaluator(INPUT_SCHEMA, PREDICATE);
+    for (ColumnarBatch batch : benchmarkData.batches) {
+      ColumnVector result = evaluator.eval(batch, Optional.empty());
+      // Access the values to avoid dead code elimination by the JIT compiler
+      for (int rowId = 0; rowId < batch.getSize(); rowId++) {
+        blackhole.consume(result.getBoolean(rowId));
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(args);
+  }
+
+  private static ColumnVector statsVector(int size, boolean[] nulls, long[] ids, byte[][] names) {
+    return new DefaultStructVector(
+        size,
+        STATS_SCHEMA,
+        Optional.of(nulls),
+        new ColumnVector[] {
+          new DefaultLongVector(LongType.LONG, size, Optional.empty(), ids),
+          new DefaultBinaryVector(StringType.STRING, size, names)
+        });
+  }
+}
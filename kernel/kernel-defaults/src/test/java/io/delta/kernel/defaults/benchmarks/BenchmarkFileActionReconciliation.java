@@ -0,0 +1,184 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.delta.kernel.defaults.benchmarks;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultBinaryVector;
+import io.delta.kernel.defaults.internal.data.vector.DefaultGenericVector;
+import io.delta.kernel.internal.actions.DeletionVectorDescriptor;
+import io.delta.kernel.internal.replay.FileActionKeyMap;
+import io.delta.kernel.internal.util.Tuple2;
+import io.delta.kernel.types.StringType;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark to compare the reconciliation of the AddFiles and RemoveFiles in the log replay using
+ * {@link FileActionKeyMap} with the previous {@link HashSet}s of (path {@link URI}, optional
+ * deletion vector id) tuples. The benchmark replays generated file actions the way {@code
+ * ActiveAddFilesIterator} does: the RemoveFiles of each batch are added to the tombstones, and each
+ * AddFile is looked up in the tombstones and in the AddFiles seen so far before being added to the
+ * latter. To also compare the memory allocated per replay, run the benchmark with the GC profiler
+ * ({@code -prof gc}) and compare {@code gc.alloc.rate.norm}. To run this benchmark (from delta repo
+ * root):
+ *
+ * <ul>
+ *   <li>
+ *       <pre>{@code
+ * build/sbt sbt:delta> project kernelDefaults
+ * sbt:delta> set fork in run := true sbt:delta>
+ * sbt:delta> test:runMain \
+ *   io.delta.kernel.defaults.benchmarks.BenchmarkFileActionReconciliation -prof gc
+ *
+ * }</pre>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BenchmarkFileActionReconciliation {
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkData {
+    @Param({"uriTupleHashSet", "fileActionKeyMap"})
+    private String reconciliation;
+
+    @Param({"1000000"})
+    private int numAddFiles;
+
+    /** Number of rows of each batch of actions. */
+    @Param({"4096"})
+    private int batchSize;
+
+    /** The path vector and the deletion vector vector of the AddFiles of each batch. */
+    private List<ColumnVector[]> addBatches;
+
+    /** The path vector and the deletion vector vector of the RemoveFiles of each batch. */
+    private List<ColumnVector[]> removeBatches;
+
+    @Setup
+    public void setup() {
+      addBatches = new ArrayList<>();
+      removeBatches = new ArrayList<>();
+      // Every tenth AddFile is removed by a RemoveFile of a newer batch (the replay is in reverse)
+      for (int start = 0; start < numAddFiles; start += batchSize) {
+        int size = Math.min(batchSize, numAddFiles - start);
+        byte[][] addPaths = new byte[size][];
+        List<byte[]> removePaths = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+          addPaths[i] = path(start + i);
+          if (start + i + batchSize < numAddFiles && (start + i) % 10 == 0) {
+            removePaths.add(path(start + i + batchSize));
+          }
+        }
+        addBatches.add(pathAndDvVectors(addPaths));
+        removeBatches.add(pathAndDvVectors(removePaths.toArray(new byte[0][])));
+      }
+    }
+
+    private static byte[] path(int fileId) {
+      return String.format(
+              "part=%d/part-%05d-%s-c000.snappy.parquet",
+              fileId % 100, fileId % 1000, new UUID(fileId, fileId))
+          .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ColumnVector[] pathAndDvVectors(byte[][] paths) {
+      return new ColumnVector[] {
+        new DefaultBinaryVector(StringType.STRING, paths.length, paths),
+        DefaultGenericVector.fromArray(
+            DeletionVectorDescriptor.READ_SCHEMA, new Object[paths.length])
+      };
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public void benchmark(BenchmarkData benchmarkData, Blackhole blackhole) {
+    int numActive = 0;
+    if (benchmarkData.reconciliation.equals("uriTupleHashSet")) {
+      Set<Tuple2<URI, Optional<String>>> tombstones = new HashSet<>();
+      Set<Tuple2<URI, Optional<String>>> addFiles = new HashSet<>();
+      for (int batch = benchmarkData.addBatches.size() - 1; batch >= 0; batch--) {
+        ColumnVector[] removes = benchmarkData.removeBatches.get(batch);
+        for (int rowId = 0; rowId < removes[0].getSize(); rowId++) {
+          tombstones.add(uriTuple(removes, rowId));
+        }
+        ColumnVector[] adds = benchmarkData.addBatches.get(batch);
+        for (int rowId = 0; rowId < adds[0].getSize(); rowId++) {
+          Tuple2<URI, Optional<String>> key = uriTuple(adds, rowId);
+          boolean alreadyDeleted = tombstones.contains(key);
+          if (!addFiles.contains(key)) {
+            addFiles.add(key);
+            if (!alreadyDeleted) {
+              numActive++;
+            }
+          }
+        }
+      }
+      blackhole.consume(tombstones);
+      blackhole.consume(addFiles);
+    } else {
+      FileActionKeyMap tombstones = new FileActionKeyMap();
+      FileActionKeyMap addFiles = new FileActionKeyMap();
+      FileActionKeyMap.Key key = new FileActionKeyMap.Key();
+      for (int batch = benchmarkData.addBatches.size() - 1; batch >= 0; batch--) {
+        ColumnVector[] removes = benchmarkData.removeBatches.get(batch);
+        for (int rowId = 0; rowId < removes[0].getSize(); rowId++) {
+          key.read(removes[0], removes[1], rowId);
+          tombstones.add(key);
+        }
+        ColumnVector[] adds = benchmarkData.addBatches.get(batch);
+        for (int rowId = 0; rowId < adds[0].getSize(); rowId++) {
+          key.read(adds[0], adds[1], rowId);
+          boolean alreadyDeleted = tombstones.contains(key);
+          if (!addFiles.contains(key)) {
+            addFiles.add(key);
+            if (!alreadyDeleted) {
+              numActive++;
+            }
+          }
+        }
+      }
+      blackhole.consume(tombstones);
+      blackhole.consume(addFiles);
+    }
+    blackhole.consume(numActive);
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(args);
+  }
+
+  /** The key of a file action before {@link FileActionKeyMap}. */
+  private static Tuple2<URI, Optional<String>> uriTuple(ColumnVector[] vectors, int rowId) {
+    try {
+      return new Tuple2<>(
+          new URI(vectors[0].getString(rowId)),
+          Optional.ofNullable(DeletionVectorDescriptor.fromColumnVector(vectors[1], rowId))
+              .map(DeletionVectorDescriptor::getUniqueId));
+    } catch (URISyntaxException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.delta.kernel.defaults.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.delta.kernel.data.*;
+import io.delta.kernel.defaults.engine.DefaultJsonHandler;
+import io.delta.kernel.defaults.internal.data.DefaultJsonRow;
+import io.delta.kernel.defaults.internal.data.DefaultRowBasedColumnarBatch;
+import io.delta.kernel.engine.JsonHandler;
+import io.delta.kernel.internal.replay.LogReplay;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.types.StructType;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark to compare the streaming, columnar JSON reader in {@link DefaultJsonHandler} with the
+ * previous row based reader that parses each line into a Jackson tree. The benchmark reads a set of
+ * generated commit files with the same schema log replay uses to find the active files, with and
+ * without the file statistics. To run this benchmark (from delta repo root):
+ *
+ * <ul>
+ *   <li>
+ *       <pre>{@code
+ * build/sbt sbt:delta> project kernelDefaults
+ * sbt:delta> set fork in run := true sbt:delta>
+ * sbt:delta> test:runMain \
+ *   io.delta.kernel.defaults.benchmarks.BenchmarkJsonCommitFileReading
+ *
+ * }</pre>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Fork(1)
+public class BenchmarkJsonCommitFileReading {
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkData {
+    @Param({"rowBased", "streaming"})
+    private String reader;
+
+    @Param({"false", "true"})
+    private boolean readStats;
+
+    @Param({"100"})
+    private int numCommits;
+
+    @Param({"100"})
+    private int actionsPerCommit;
+
+    private File logDir;
+    private List<FileStatus> commitFiles;
+    private JsonHandler jsonHandler;
+
+    @Setup
+    public void setup() throws IOException {
+      logDir = Files.createTempDirectory("json-commit-benchmark").toFile();
+      commitFiles = new ArrayList<>();
+      for (int version = 0; version < numCommits; version++) {
+        File commitFile = new File(logDir, String.format("%020d.json", version));
+        try (Writer writer =
+            new OutputStreamWriter(new FileOutputStream(commitFile), StandardCharsets.UTF_8)) {
+          writer.write(commitInfo(version));
+          for (int action = 0; action < actionsPerCommit; action++) {
+            writer.write("\n");
+            writer.write(
+                action % 10 == 9 ? removeAction(version, action) : addAction(version, action));
+          }
+        }
+        commitFiles.add(
+            FileStatus.of(
+                commitFile.getAbsolutePath(), commitFile.length(), commitFile.lastModified()));
+      }
+
+      Configuration hadoopConf = new Configuration();
+      jsonHandler =
+          reader.equals("rowBased")
+              ? new RowBasedJsonHandler(hadoopConf)
+              : new DefaultJsonHandler(hadoopConf);
+    }
+
+    @TearDown
+    public void tearDown() {
+      for (File file : Objects.requireNonNull(logDir.listFiles())) {
+        file.delete();
+      }
+      logDir.delete();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public void benchmark(BenchmarkData benchmarkData, Blackhole blackhole) throws Exception {
+    StructType readSchema = LogReplay.getAddRemoveReadSchema(benchmarkData.readStats);
+    long fileSize = 0;
+    try (CloseableIterator<ColumnarBatch> batchIter =
+        benchmarkData.jsonHandler.readJsonFiles(
+            Utils.toCloseableIterator(benchmarkData.commitFiles.iterator()),
+            readSchema,
+            Optional.empty())) {
+      while (batchIter.hasNext()) {
+        ColumnarBatch batch = batchIter.next();
+        // access the columns the way log replay does
+        ColumnVector addVector = batch.getColumnVector(0);
+        ColumnVector removeVector = batch.getColumnVector(1);
+        for (int rowId = 0; rowId < batch.getSize(); rowId++) {
+          if (!addVector.isNullAt(rowId)) {
+            blackhole.consume(addVector.getChild(0).getString(rowId));
+            fileSize += addVector.getChild(2).getLong(rowId);
+          } else if (!removeVector.isNullAt(rowId)) {
+            blackhole.consume(removeVector.getChild(0).getString(rowId));
+          }
+        }
+      }
+    }
+    blackhole.consume(fileSize);
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(args);
+  }
+
+  private static String commitInfo(int version) {
+    return "{\"commitInfo\":{\"timestamp\":"
+        + (1700000000000L + version)
+        + ",\"operation\":\"WRITE\",\"operationParameters\":{\"mode\":\"Append\"},"
+        + "\"isBlindAppend\":true}}";
+  }
+
+  private static String addAction(int version, int action) {
+    return "{\"add\":{\"path\":\"part="
+        + (action % 7)
+        + "/part-"
+        + version
+        + "-"
+        + action
+        + "-c000.snappy.parquet\",\"partitionValues\":{\"part\":\""
+        + (action % 7)
+        + "\"},"
+        + "\"size\":"
+        + (1000 + action)
+        + ",\"modificationTime\":1700000000000,"
+        + "\"dataChange\":true,\"stats\":\"{\\\"numRecords\\\":100,\\\"minValues\\\":"
+        + "{\\\"id\\\":0,\\\"name\\\":\\\"aaaaa\\\",\\\"ts\\\":\\\"2024-01-01T00:00:00.000Z\\\"},"
+        + "\\\"maxValues\\\":{\\\"id\\\":99,\\\"name\\\":\\\"zzzzz\\\","
+        + "\\\"ts\\\":\\\"2024-12-31T00:00:00.000Z\\\"},\\\"nullCount\\\":{\\\"id\\\":0,"
+        + "\\\"name\\\":3,\\\"ts\\\":0}}\",\"tags\":{\"INSERTION_TIME\":\"1700000000000000\"}}}";
+  }
+
+  private static String removeAction(int version, int action) {
+    return "{\"remove\":{\"path\":\"part="
+        + (action % 7)
+        + "/part-"
+        + (version - 1)
+        + "-"
+        + action
+        + "-c000.snappy.parquet\",\"deletionTimestamp\":1700000000000,"
+        + "\"dataChange\":true,\"extendedFileMetadata\":true,\"partitionValues\":{\"part\":\""
+        + (action % 7)
+        + "\"},\"size\":"
+        + (1000 + action)
+        + "}}";
+  }
+
+  /**
+   * The {@link JsonHandler#readJsonFiles} implementation before the streaming reader was added:
+   * each line is parsed into a Jackson tree, wrapped in a {@link DefaultJsonRow} and the rows are
+   * exposed through a {@link DefaultRowBasedColumnarBatch}.
+   */
+  static class RowBasedJsonHandler extends DefaultJsonHandler {
+    private static final ObjectReader objectReaderReadBigDecimals =
+        new ObjectMapper().reader(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    private static final int MAX_BATCH_SIZE = 1024;
+
+    private final Configuration hadoopConf;
+
+    RowBasedJsonHandler(Configuration hadoopConf) {
+      super(hadoopConf);
+      this.hadoopConf = hadoopConf;
+    }
+
+    @Override
+    public CloseableIterator<ColumnarBatch> readJsonFiles(
+        CloseableIterator<FileStatus> scanFileIter,
+        StructType physicalSchema,
+        Optional<io.delta.kernel.expressions.Predicate> predicate) {
+      return new CloseableIterator<ColumnarBatch>() {
+        private BufferedReader currentFileReader;
+        private String nextLine;
+
+        @Override
+        public void close() throws IOException {
+          Utils.closeCloseables(currentFileReader, scanFileIter);
+        }
+
+        @Override
+        public boolean hasNext() {
+          if (nextLine != null) {
+            return true;
+          }
+          try {
+            if (currentFileReader == null || (nextLine = currentFileReader.readLine()) == null) {
+              Utils.closeCloseables(currentFileReader);
+              currentFileReader = null;
+              if (scanFileIter.hasNext()) {
+                Path filePath = new Path(scanFileIter.next().getPath());
+                currentFileReader =
+                    new BufferedReader(
+                        new InputStreamReader(
+                            filePath.getFileSystem(hadoopConf).open(filePath),
+                            StandardCharsets.UTF_8));
+                return hasNext();
+              }
+            }
+            return nextLine != null;
+          } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+        }
+
+        @Override
+        public ColumnarBatch next() {
+          List<Row> rows = new ArrayList<>();
+          do {
+            try {
+              ObjectNode node = (ObjectNode) objectReaderReadBigDecimals.readTree(nextLine);
+              rows.add(new DefaultJsonRow(node, physicalSchema));
+            } catch (IOException ex) {
+              throw new UncheckedIOException(ex);
+            }
+            nextLine = null;
+          } while (rows.size() < MAX_BATCH_SIZE && hasNext());
+          return new DefaultRowBasedColumnarBatch(physicalSchema, rows);
+        }
+      };
+    }
+  }
+}
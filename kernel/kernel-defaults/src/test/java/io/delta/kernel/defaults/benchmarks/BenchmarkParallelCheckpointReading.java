@@ -39,7 +39,9 @@ import org.openjdk.jmh.infra.Blackhole;
 
 /**
  * Benchmark to measure the performance of reading multi-part checkpoint files, using a custom
- * ParquetHandler that reads the files in parallel. To run this benchmark (from delta repo root):
+ * ParquetHandler that reads the files in parallel or the parallel read mode of the {@link
+ * DefaultParquetHandler} (see `delta.kernel.default.parquet.reader.parallelism`). To run this
+ * benchmark (from delta repo root):
  *
  * <ul>
  *   <li>Generate the test table by following the instructions at `testTablePath` member variable.
@@ -105,12 +107,21 @@ public class BenchmarkParallelCheckpointReading {
     // in this benchmark
     @Param({"0", "1", "2", "4", "10", "20"})
     private int parallelReaderCount = 0;
+
+    // Which parallel reader to use when the thread count is more than 0:
+    //  - custom: the parallel parquet handler defined in this benchmark, which reads all files
+    //    into memory
+    //  - default: the default parquet handler with parallel reading enabled, which buffers a
+    //    bounded number of batches and returns them in the order they are decoded
+    //  - defaultOrdered: same as `default`, but the batches are returned in the order of the files
+    @Param({"custom", "default", "defaultOrdered"})
+    private String parallelReader = "custom";
   }
 
   @Benchmark
   @BenchmarkMode(Mode.AverageTime)
   public void benchmark(BenchmarkData benchmarkData, Blackhole blackhole) throws Exception {
-    Engine engine = createEngine(benchmarkData.parallelReaderCount);
+    Engine engine = createEngine(benchmarkData.parallelReaderCount, benchmarkData.parallelReader);
     Table table = Table.forPath(engine, testTablePath);
 
     Snapshot snapshot = table.getLatestSnapshot(engine);
@@ -142,12 +153,20 @@ public class BenchmarkParallelCheckpointReading {
     org.openjdk.jmh.Main.main(args);
   }
 
-  private static Engine createEngine(int numberOfParallelThreads) {
+  private static Engine createEngine(int numberOfParallelThreads, String parallelReader) {
     Configuration hadoopConf = new Configuration();
     if (numberOfParallelThreads <= 0) {
       return DefaultEngine.create(hadoopConf);
     }
 
+    if (!parallelReader.equals("custom")) {
+      hadoopConf.setInt("delta.kernel.default.parquet.reader.parallelism", numberOfParallelThreads);
+      hadoopConf.setBoolean(
+          "delta.kernel.default.parquet.reader.parallel.preserve-file-order",
+          parallelReader.equals("defaultOrdered"));
+      return DefaultEngine.create(hadoopConf);
+    }
+
     return new DefaultEngine(hadoopConf) {
       @Override
       public ParquetHandler getParquetHandler() {
@@ -157,12 +176,10 @@ public class BenchmarkParallelCheckpointReading {
   }
 
   /**
-   * Custom implementation of {@link ParquetHandler} to read the Parquet files in parallel. Reason
-   * for this not being in the {@link DefaultParquetHandler} is that this implementation keeps the
-   * contents of the Parquet files in memory, which is not suitable for default implementation
-   * without a proper design that allows limits on the memory usage. If the parallel reading of
-   * checkpoint becomes a common in connectors, we can look at adding the functionality in the
-   * default implementation.
+   * Custom implementation of {@link ParquetHandler} to read the Parquet files in parallel. This
+   * implementation keeps the contents of all the Parquet files in memory. It is kept to compare
+   * with the parallel read mode of the {@link DefaultParquetHandler}, which limits the number of
+   * batches in memory.
    */
   static class ParallelParquetHandler extends DefaultParquetHandler {
     private final Configuration hadoopConf;
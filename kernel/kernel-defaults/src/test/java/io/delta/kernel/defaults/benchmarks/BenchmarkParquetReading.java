@@ -0,0 +1,191 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.delta.kernel.defaults.benchmarks;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.engine.DefaultEngine;
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.types.*;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark to compare the row-at-a-time Parquet reader of the {@code DefaultParquetHandler} with
+ * its vectorized reader (see `delta.kernel.default.parquet.reader.vectorized`). The benchmark
+ * generates a Parquet file with primitive, dictionary encoded, nullable and nested columns and
+ * reads all of its columns. To run this benchmark (from delta repo root):
+ *
+ * <ul>
+ *   <li>
+ *       <pre>{@code
+ * build/sbt sbt:delta> project kernelDefaults
+ * sbt:delta> set fork in run := true sbt:delta>
+ * sbt:delta> test:runMain \
+ *   io.delta.kernel.defaults.benchmarks.BenchmarkParquetReading
+ *
+ * }</pre>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Fork(1)
+public class BenchmarkParquetReading {
+
+  private static final MessageType FILE_SCHEMA =
+      MessageTypeParser.parseMessageType(
+          "message test {\n"
+              + "  required int64 id;\n"
+              + "  optional int32 intCol;\n"
+              + "  optional double doubleCol;\n"
+              + "  optional binary stringCol (UTF8);\n"
+              + "  optional binary dictStringCol (UTF8);\n"
+              + "  optional group structCol {\n"
+              + "    optional int64 longField;\n"
+              + "    optional binary stringField (UTF8);\n"
+              + "  }\n"
+              + "  optional group arrayCol (LIST) {\n"
+              + "    repeated group list {\n"
+              + "      optional int32 element;\n"
+              + "    }\n"
+              + "  }\n"
+              + "}");
+
+  private static final StructType READ_SCHEMA =
+      new StructType()
+          .add("id", LongType.LONG, false)
+          .add("intCol", IntegerType.INTEGER)
+          .add("doubleCol", DoubleType.DOUBLE)
+          .add("stringCol", StringType.STRING)
+          .add("dictStringCol", StringType.STRING)
+          .add(
+              "structCol",
+              new StructType()
+                  .add("longField", LongType.LONG)
+                  .add("stringField", StringType.STRING))
+          .add("arrayCol", new ArrayType(IntegerType.INTEGER, true));
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkData {
+    @Param({"false", "true"})
+    private boolean vectorized = false;
+
+    @Param({"1000000"})
+    private int numRows = 1000000;
+
+    private File tempDir;
+    private FileStatus file;
+    private Engine engine;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      tempDir = Files.createTempDirectory("benchmark-parquet-reading").toFile();
+      String path = new File(tempDir, "data.parquet").getAbsolutePath();
+      writeFile(path, numRows);
+      file = FileStatus.of(path, new File(path).length(), 0);
+
+      Configuration hadoopConf = new Configuration();
+      hadoopConf.setBoolean("delta.kernel.default.parquet.reader.vectorized", vectorized);
+      engine = DefaultEngine.create(hadoopConf);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      // also delete the checksum file written by the Hadoop file system
+      for (File f : Objects.requireNonNull(tempDir.listFiles())) {
+        f.delete();
+      }
+      tempDir.delete();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public void benchmark(BenchmarkData benchmarkData, Blackhole blackhole) throws Exception {
+    try (CloseableIterator<ColumnarBatch> batchIter =
+        benchmarkData
+            .engine
+            .getParquetHandler()
+            .readParquetFiles(
+                Utils.singletonCloseableIterator(benchmarkData.file),
+                READ_SCHEMA,
+                Optional.empty())) {
+      while (batchIter.hasNext()) {
+        ColumnarBatch batch = batchIter.next();
+        ColumnVector ids = batch.getColumnVector(0);
+        ColumnVector strings = batch.getColumnVector(3);
+        // Access some values to avoid dead code elimination by the JIT compiler
+        for (int rowId = 0; rowId < batch.getSize(); rowId++) {
+          blackhole.consume(ids.getLong(rowId));
+          if (!strings.isNullAt(rowId)) {
+            blackhole.consume(strings.getString(rowId));
+          }
+        }
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(args);
+  }
+
+  private static void writeFile(String path, int numRows) throws Exception {
+    SimpleGroupFactory factory = new SimpleGroupFactory(FILE_SCHEMA);
+    Random random = new Random(42);
+    try (ParquetWriter<Group> writer =
+        ExampleParquetWriter.builder(new Path(path))
+            .withType(FILE_SCHEMA)
+            .withConf(new Configuration())
+            .build()) {
+      for (int i = 0; i < numRows; i++) {
+        Group row = factory.newGroup().append("id", (long) i);
+        if (i % 10 != 0) {
+          row.append("intCol", random.nextInt());
+          row.append("doubleCol", random.nextDouble());
+          row.append("stringCol", "value-" + random.nextLong());
+        }
+        row.append("dictStringCol", "category-" + (i % 100));
+        if (i % 7 != 0) {
+          Group struct = row.addGroup("structCol");
+          struct.append("longField", random.nextLong());
+          struct.append("stringField", "field-" + (i % 1000));
+        }
+        Group array = row.addGroup("arrayCol");
+        for (int j = 0; j < i % 4; j++) {
+          array.addGroup("list").append("element", random.nextInt(1000));
+        }
+        writer.write(row);
+      }
+    }
+  }
+}
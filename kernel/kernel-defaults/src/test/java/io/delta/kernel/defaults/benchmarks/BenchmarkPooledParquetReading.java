@@ -0,0 +1,203 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.delta.kernel.defaults.benchmarks;
+
+import io.delta.kernel.data.ColumnVector;
+import io.delta.kernel.data.ColumnarBatch;
+import io.delta.kernel.defaults.engine.DefaultEngine;
+import io.delta.kernel.engine.Engine;
+import io.delta.kernel.internal.util.Utils;
+import io.delta.kernel.types.*;
+import io.delta.kernel.utils.CloseableIterator;
+import io.delta.kernel.utils.FileStatus;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark to compare scanning a wide table with the Parquet reader of the {@code
+ * DefaultParquetHandler} allocating new column vector arrays for every batch, reusing pooled arrays
+ * (see `delta.kernel.default.parquet.reader.pooled-buffers`) or reading into off-heap column
+ * vectors (see `delta.kernel.default.parquet.reader.off-heap`). The benchmark generates a Parquet
+ * file with many nullable long, double and string columns, reads all of them and closes each batch
+ * once consumed. Run it with the GC profiler to compare the allocation rates. To run this benchmark
+ * (from delta repo root):
+ *
+ * <ul>
+ *   <li>
+ *       <pre>{@code
+ * build/sbt sbt:delta> project kernelDefaults
+ * sbt:delta> set fork in run := true sbt:delta>
+ * sbt:delta> test:runMain \
+ *   io.delta.kernel.defaults.benchmarks.BenchmarkPooledParquetReading -prof gc
+ *
+ * }</pre>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Fork(1)
+public class BenchmarkPooledParquetReading {
+
+  /** Number of columns of each type, the table has three times as many columns. */
+  private static final int NUM_COLUMNS_PER_TYPE = 20;
+
+  private static final MessageType FILE_SCHEMA = fileSchema();
+
+  private static final StructType READ_SCHEMA = readSchema();
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkData {
+    @Param({"heap", "pooled", "off-heap"})
+    private String memory = "heap";
+
+    @Param({"200000"})
+    private int numRows = 200000;
+
+    private File tempDir;
+    private FileStatus file;
+    private Engine engine;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+      tempDir = Files.createTempDirectory("benchmark-pooled-parquet-reading").toFile();
+      String path = new File(tempDir, "data.parquet").getAbsolutePath();
+      writeFile(path, numRows);
+      file = FileStatus.of(path, new File(path).length(), 0);
+
+      Configuration hadoopConf = new Configuration();
+      hadoopConf.setBoolean(
+          "delta.kernel.default.parquet.reader.pooled-buffers", memory.equals("pooled"));
+      hadoopConf.setBoolean(
+          "delta.kernel.default.parquet.reader.off-heap", memory.equals("off-heap"));
+      engine = DefaultEngine.create(hadoopConf);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      // also delete the checksum file written by the Hadoop file system
+      for (File f : Objects.requireNonNull(tempDir.listFiles())) {
+        f.delete();
+      }
+      tempDir.delete();
+    }
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  public void benchmark(BenchmarkData benchmarkData, Blackhole blackhole) throws Exception {
+    try (CloseableIterator<ColumnarBatch> batchIter =
+        benchmarkData
+            .engine
+            .getParquetHandler()
+            .readParquetFiles(
+                Utils.singletonCloseableIterator(benchmarkData.file),
+                READ_SCHEMA,
+                Optional.empty())) {
+      while (batchIter.hasNext()) {
+        // Closing the batch returns its arrays to the pool when pooling is enabled
+        try (ColumnarBatch batch = batchIter.next()) {
+          // Access the first column of each type to avoid dead code elimination by the JIT
+          // compiler
+          ColumnVector longs = batch.getColumnVector(0);
+          ColumnVector doubles = batch.getColumnVector(NUM_COLUMNS_PER_TYPE);
+          ColumnVector strings = batch.getColumnVector(2 * NUM_COLUMNS_PER_TYPE);
+          for (int rowId = 0; rowId < batch.getSize(); rowId++) {
+            if (!longs.isNullAt(rowId)) {
+              blackhole.consume(longs.getLong(rowId));
+            }
+            if (!doubles.isNullAt(rowId)) {
+              blackhole.consume(doubles.getDouble(rowId));
+            }
+            blackhole.consume(strings.isNullAt(rowId));
+          }
+        }
+      }
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(args);
+  }
+
+  private static MessageType fileSchema() {
+    StringBuilder schema = new StringBuilder("message test {\n");
+    for (int i = 0; i < NUM_COLUMNS_PER_TYPE; i++) {
+      schema.append("  optional int64 long").append(i).append(";\n");
+    }
+    for (int i = 0; i < NUM_COLUMNS_PER_TYPE; i++) {
+      schema.append("  optional double double").append(i).append(";\n");
+    }
+    for (int i = 0; i < NUM_COLUMNS_PER_TYPE; i++) {
+      schema.append("  optional binary string").append(i).append(" (UTF8);\n");
+    }
+    return MessageTypeParser.parseMessageType(schema.append("}").toString());
+  }
+
+  private static StructType readSchema() {
+    StructType schema = new StructType();
+    for (int i = 0; i < NUM_COLUMNS_PER_TYPE; i++) {
+      schema = schema.add("long" + i, LongType.LONG);
+    }
+    for (int i = 0; i < NUM_COLUMNS_PER_TYPE; i++) {
+      schema = schema.add("double" + i, DoubleType.DOUBLE);
+    }
+    for (int i = 0; i < NUM_COLUMNS_PER_TYPE; i++) {
+      schema = schema.add("string" + i, StringType.STRING);
+    }
+    return schema;
+  }
+
+  private static void writeFile(String path, int numRows) throws Exception {
+    SimpleGroupFactory factory = new SimpleGroupFactory(FILE_SCHEMA);
+    Random random = new Random(42);
+    try (ParquetWriter<Group> writer =
+        ExampleParquetWriter.builder(new Path(path))
+            .withType(FILE_SCHEMA)
+            .withConf(new Configuration())
+            .build()) {
+      for (int i = 0; i < numRows; i++) {
+        Group row = factory.newGroup();
+        for (int c = 0; c < NUM_COLUMNS_PER_TYPE; c++) {
+          // a tenth of the values are null
+          if (random.nextInt(10) != 0) {
+            row.append("long" + c, random.nextLong());
+          }
+          if (random.nextInt(10) != 0) {
+            row.append("double" + c, random.nextDouble());
+          }
+          if (random.nextInt(10) != 0) {
+            row.append("string" + c, "value-" + random.nextInt(1000));
+          }
+        }
+        writer.write(row);
+      }
+    }
+  }
+}
@@ -17,9 +17,9 @@ package io.delta.kernel.defaults
 
 import io.delta.kernel.Table
 import io.delta.kernel.defaults.engine.DefaultEngine
-import io.delta.kernel.defaults.utils.{TestRow, TestUtils}
-import io.delta.kernel.engine.Engine
-import io.delta.kernel.internal.replay.ActiveAddFilesIterator
+import io.delta.kernel.defaults.utils.{CollectingMetricsReporter, TestRow, TestUtils}
+import io.delta.kernel.engine.{Engine, MetricsReporter}
+import io.delta.kernel.metrics.ScanReport
 import org.apache.hadoop.conf.Configuration
 import org.apache.hadoop.fs.Path
 import org.apache.spark.sql.delta.DeltaLog
@@ -27,6 +27,8 @@ import org.apache.spark.sql.delta.sources.DeltaSQLConf
 import org.apache.spark.sql.delta.stats.StatisticsCollection
 import org.scalatest.funsuite.AnyFunSuite
 
+import java.util.{Collections, List => JList}
+
 /**
  * Test suite to test the metrics captured during log replay to find the active `AddFile`s
  * in a table snapshot.
@@ -140,6 +142,8 @@ class ActiveAddFilesLogReplayMetricsSuite extends AnyFunSuite with TestUtils {
     expNumDuplicateAddFiles: Long = 0L,
     expNumTombstonesSeen: Long = 0L): Unit = {
 
+    val reporter = engine.getMetricsReporters.get(0).asInstanceOf[CollectingMetricsReporter]
+    reporter.clear()
     val scanFileIter = Table.forPath(engine, tablePath)
       .getLatestSnapshot(engine)
       .getScanBuilder(engine)
@@ -149,12 +153,21 @@ class ActiveAddFilesLogReplayMetricsSuite extends AnyFunSuite with TestUtils {
     // this will trigger the log replay, consumes actions and closes the iterator
     scanFileIter.toSeq
 
-    val metrics = scanFileIter.asInstanceOf[ActiveAddFilesIterator].getMetrics
+    // the scan report is delivered when the scan files iterator is closed
+    val scanReports = reporter.getReports.collect { case report: ScanReport => report }
+    assert(scanReports.size == 1)
+    val metrics = scanReports.head
     assert(metrics.getNumAddFilesSeen == expNumAddFilesSeen)
     assert(metrics.getNumAddFilesSeenFromDeltaFiles == expNumAddFilesSeenFromDeltaFiles)
     assert(metrics.getNumActiveAddFiles == expNumActiveAddFiles)
     assert(metrics.getNumDuplicateAddFiles == expNumDuplicateAddFiles)
     assert(metrics.getNumTombstonesSeen == expNumTombstonesSeen)
+    assert(metrics.getNumScanFilesReturned == expNumActiveAddFiles)
+    assert(metrics.getNumFilesPrunedByPartitionFilter == 0)
+    assert(metrics.getNumFilesPrunedByDataSkipping == 0)
+    assert(metrics.getNumCommitFilesRead > 0)
+    assert(metrics.getCommitFilesBytesRead > 0)
+    assert(metrics.getNumBatchesRead > 0)
 
 
     val expResults = spark.sql(s"SELECT * FROM delta.`$tablePath`").collect().map(TestRow(_))
@@ -162,13 +175,17 @@ class ActiveAddFilesLogReplayMetricsSuite extends AnyFunSuite with TestUtils {
   }
 
   def withTmpDirAndEngine(f: (String, Engine) => Unit): Unit = {
-    val engine = DefaultEngine.create(new Configuration() {
+    val reporter = new CollectingMetricsReporter
+    val engine = new DefaultEngine(new Configuration() {
       {
         // Set the batch sizes to small so that we get to test the multiple batch scenarios.
         set("delta.kernel.default.parquet.reader.batch-size", "2");
         set("delta.kernel.default.json.reader.batch-size", "2");
       }
-    })
+    }) {
+      override def getMetricsReporters: JList[MetricsReporter] =
+        Collections.singletonList(reporter)
+    }
     withTempDir { dir => f(dir.getAbsolutePath, engine) }
   }
 
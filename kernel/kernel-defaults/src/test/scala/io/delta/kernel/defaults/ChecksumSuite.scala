@@ -0,0 +1,153 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults
+
+import io.delta.kernel.Table
+import io.delta.kernel.engine.Engine
+import io.delta.kernel.expressions.Literal
+import io.delta.kernel.internal.SnapshotImpl
+import io.delta.kernel.internal.checksum.{ChecksumReader, CRCInfo}
+import io.delta.kernel.utils.FileStatus
+import org.apache.spark.sql.delta.DeltaLog
+import org.apache.spark.sql.delta.sources.DeltaSQLConf
+
+import java.io.File
+import java.nio.file.Files
+import scala.collection.immutable.Seq
+
+/**
+ * Test suite for the checksum files (`N.crc`) written after the commits and read to load the
+ * protocol and metadata of a snapshot.
+ */
+class ChecksumSuite extends DeltaTableWriteSuiteBase {
+
+  test("commits write the checksum of the new version incrementally") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      appendData(
+        engine,
+        tablePath,
+        isNewTable = true,
+        schema = testSchema,
+        partCols = Seq.empty,
+        data = Seq(Map.empty[String, Literal] -> dataBatches1)) // version 0
+      appendData(
+        engine, tablePath, data = Seq(Map.empty[String, Literal] -> dataBatches2)) // version 1
+      // version 2 removes some files
+      spark.sql(s"DELETE FROM delta.`$tablePath` WHERE id < 5")
+      appendData(
+        engine, tablePath, data = Seq(Map.empty[String, Literal] -> dataBatches1)) // version 3
+
+      (0L to 3L).foreach { version =>
+        val crcInfo = readChecksum(engine, tablePath, version).getOrElse(
+          fail(s"Missing checksum of version $version"))
+        val sparkSnapshot = DeltaLog.forTable(spark, tablePath).getSnapshotAt(version)
+        assert(crcInfo.getNumFiles === sparkSnapshot.numOfFiles)
+        assert(crcInfo.getTableSizeBytes === sparkSnapshot.sizeInBytes)
+
+        val snapshot = Table.forPath(engine, tablePath)
+          .getSnapshotAsOfVersion(engine, version).asInstanceOf[SnapshotImpl]
+        assert(crcInfo.getMetadata.getId === snapshot.getMetadata.getId)
+        assert(crcInfo.getMetadata.getSchema === snapshot.getMetadata.getSchema)
+        assert(crcInfo.getProtocol.toString === snapshot.getProtocol.toString)
+
+        // Spark may write the checksum of version 2, and the following one, without histogram
+        if (version < 2) {
+          assert(crcInfo.getFileSizeHistogram.isPresent)
+        }
+        crcInfo.getFileSizeHistogram.ifPresent { histogram =>
+          assert(histogram.getFileCounts.sum === crcInfo.getNumFiles)
+          assert(histogram.getTotalBytes.sum === crcInfo.getTableSizeBytes)
+        }
+      }
+    }
+  }
+
+  test("snapshot loads the checksum of its version") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      spark.range(10).write.format("delta").save(tablePath) // version 0, written by Spark
+      appendData(
+        engine, tablePath, data = Seq(Map.empty[String, Literal] -> dataBatches1)) // version 1
+
+      Seq(0L, 1L).foreach { version =>
+        val snapshot = Table.forPath(engine, tablePath)
+          .getSnapshotAsOfVersion(engine, version).asInstanceOf[SnapshotImpl]
+        val crcInfo = snapshot.getCurrentCrcInfo.orElseThrow(
+          () => new AssertionError(s"Missing checksum of version $version"))
+        assert(crcInfo.getVersion === version)
+        assert(crcInfo.getNumFiles === DeltaLog.forTable(spark, tablePath)
+          .getSnapshotAt(version).numOfFiles)
+        assert(crcInfo.getMetadata.getSchema === snapshot.getMetadata.getSchema)
+      }
+    }
+  }
+
+  test("no checksum is written when the previous version has none") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      withSQLConf(DeltaSQLConf.DELTA_WRITE_CHECKSUM_ENABLED.key -> "false") {
+        spark.range(10).write.format("delta").save(tablePath) // version 0
+      }
+      assert(readChecksum(engine, tablePath, 0).isEmpty)
+
+      appendData(
+        engine, tablePath, data = Seq(Map.empty[String, Literal] -> dataBatches1)) // version 1
+      assert(readChecksum(engine, tablePath, 1).isEmpty)
+      assert(!latestSnapshot(engine, tablePath).getCurrentCrcInfo.isPresent)
+    }
+  }
+
+  test("an invalid checksum file is ignored") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      appendData(
+        engine,
+        tablePath,
+        isNewTable = true,
+        schema = testSchema,
+        partCols = Seq.empty,
+        data = Seq(Map.empty[String, Literal] -> dataBatches1)) // version 0
+      Files.write(new File(checksumFilePath(tablePath, 0)).toPath, "{}".getBytes)
+
+      val snapshot = latestSnapshot(engine, tablePath)
+      assert(!snapshot.getCurrentCrcInfo.isPresent)
+      assert(snapshot.getSchema(engine) === testSchema)
+      checkTable(tablePath, dataBatches1.flatMap(_.toTestRows))
+
+      // the checksum of the next version can't be computed incrementally
+      appendData(
+        engine, tablePath, data = Seq(Map.empty[String, Literal] -> dataBatches2)) // version 1
+      assert(readChecksum(engine, tablePath, 1).isEmpty)
+    }
+  }
+
+  ////////////////////
+  // Helper methods //
+  ///////////////////
+  def checksumFilePath(tablePath: String, version: Long): String = {
+    f"$tablePath/_delta_log/$version%020d.crc"
+  }
+
+  def readChecksum(engine: Engine, tablePath: String, version: Long): Option[CRCInfo] = {
+    val path = checksumFilePath(tablePath, version)
+    if (!new File(path).exists()) {
+      return None
+    }
+    val crcInfo = ChecksumReader.getCRCInfo(engine, FileStatus.of(path, 0, 0))
+    if (crcInfo.isPresent) Some(crcInfo.get) else None
+  }
+
+  def latestSnapshot(engine: Engine, tablePath: String): SnapshotImpl = {
+    Table.forPath(engine, tablePath).getLatestSnapshot(engine).asInstanceOf[SnapshotImpl]
+  }
+}
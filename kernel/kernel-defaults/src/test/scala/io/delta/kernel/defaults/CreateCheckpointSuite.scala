@@ -33,6 +33,7 @@ import java.io.File
 import io.delta.kernel.defaults.engine.DefaultEngine
 import io.delta.kernel.engine.Engine
 import io.delta.kernel.exceptions.{CheckpointAlreadyExistsException, TableNotFoundException}
+import io.delta.kernel.expressions.{Column, Literal, Predicate}
 
 /**
  * Test suite for `io.delta.kernel.Table.checkpoint(engine, version)`
@@ -343,6 +344,94 @@ class CreateCheckpointSuite extends DeltaTableWriteSuiteBase {
     }
   }
 
+  test("create a checkpoint with stats and partition values as struct") {
+    withTempDirAndEngine { (tablePath, tc) =>
+      // `delta.checkpoint.writeStatsAsStruct` is enabled by default
+      spark.sql(
+        s"CREATE TABLE delta.`$tablePath` (id LONG, part INT) USING delta PARTITIONED BY (part)")
+      Seq.range(0, 3).foreach { part =>
+        spark.range(part * 10, part * 10 + 10).selectExpr("id", s"$part AS part")
+          .repartition(1).write.format("delta").mode("append").save(tablePath)
+      }
+      val expResults = readUsingSpark(tablePath)
+
+      val checkpointVersion = 3
+      kernelCheckpoint(tc, tablePath, checkpointVersion)
+      verifyResults(tablePath, expResults, checkpointVersion)
+
+      // verify the typed columns in the checkpoint
+      val checkpointPath =
+        new Path(tablePath, f"_delta_log/$checkpointVersion%020d.checkpoint.parquet")
+      val addFiles = spark.read.parquet(checkpointPath.toString)
+        .where("add IS NOT NULL")
+        .selectExpr(
+          "add.partitionValues_parsed.part",
+          "add.stats_parsed.numRecords",
+          "add.stats_parsed.minValues.id",
+          "add.stats_parsed.maxValues.id")
+        .collect()
+        .map(TestRow(_))
+      checkAnswer(
+        addFiles,
+        Seq.range(0, 3).map(part => TestRow(part, 10L, part * 10L, part * 10L + 9)))
+
+      // verify the Kernel scan prunes the files using the checkpoint
+      val snapshot = Table.forPath(tc, tablePath).getLatestSnapshot(tc)
+      Seq(
+        new Predicate("=", new Column("part"), Literal.ofInt(1)) -> 1,
+        new Predicate(">=", new Column("id"), Literal.ofLong(15)) -> 2,
+        new Predicate("<", new Column("id"), Literal.ofLong(0)) -> 0
+      ).foreach { case (filter, expNumFiles) =>
+        val scan = snapshot.getScanBuilder(tc).withFilter(tc, filter).build()
+        assert(collectScanFileRows(scan, tc).size === expNumFiles)
+      }
+    }
+  }
+
+  // A table with the v2Checkpoint feature only gets V2 checkpoints, whatever its checkpoint policy
+  Seq((0, "v2"), (2, "v2"), (0, "classic")).foreach { case (writerParallelism, policy) =>
+    test(s"create a V2 checkpoint with sidecar files, writer parallelism $writerParallelism, " +
+      s"checkpoint policy $policy") {
+      withTempDirAndEngine(
+        { (tablePath, tc) =>
+          spark.sql(
+            s"""CREATE TABLE delta.`$tablePath` (id LONG) USING delta
+               |TBLPROPERTIES (
+               |  'delta.minReaderVersion' = '3',
+               |  'delta.minWriterVersion' = '7',
+               |  'delta.feature.v2Checkpoint' = 'supported',
+               |  'delta.checkpointPolicy' = '$policy')""".stripMargin)
+          addData(tablePath, alternateBetweenAddsAndRemoves = true, numberIter = 4)
+          val expResults = readUsingSpark(tablePath)
+
+          val checkpointVersion = 4
+          kernelCheckpoint(tc, tablePath, checkpointVersion)
+
+          // a V2 checkpoint manifest with sidecar files instead of a classic checkpoint
+          val logDir = new File(tablePath, "_delta_log")
+          assert(!new File(logDir, f"$checkpointVersion%020d.checkpoint.parquet").exists())
+          val manifests = logDir.listFiles().map(_.getName)
+            .filter(_.matches(f"$checkpointVersion%020d\\.checkpoint\\.[^.]+\\.json"))
+          assert(manifests.length === 1)
+          // every file action goes to its own sidecar file due to the tiny target file size:
+          // 2 adds and 2 removes
+          val sidecars = new File(logDir, "_sidecars").listFiles().map(_.getName)
+            .filter(_.endsWith(".parquet"))
+          assert(sidecars.length === 4)
+          val manifest = spark.read.json(new File(logDir, manifests.head).toString)
+          assert(manifest.where("checkpointMetadata.version = 4").count() === 1)
+          assert(manifest.where("sidecar IS NOT NULL").select("sidecar.path").collect()
+            .map(_.getString(0)).toSet === sidecars.toSet)
+
+          verifyResults(tablePath, expResults, checkpointVersion)
+          verifyLastCheckpointMetadata(tablePath, checkpointVersion, expSize = 2)
+        },
+        Map(
+          "delta.kernel.default.parquet.writer.parallelism" -> writerParallelism.toString,
+          "delta.kernel.default.parquet.writer.targetMaxFileSize" -> "1"))
+    }
+  }
+
   test("try create a checkpoint on a unsupported table feature table") {
     withTempDirAndEngine { (tablePath, tc) =>
       copyTable("dv-with-columnmapping", tablePath)
@@ -15,9 +15,22 @@
  */
 package io.delta.kernel.defaults
 
+import java.io.{ByteArrayOutputStream, File}
+import java.nio.file.Files
+import java.util.Optional
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
+
 import io.delta.golden.GoldenTableUtils.goldenTablePath
 
+import io.delta.kernel.defaults.engine.DefaultEngine
 import io.delta.kernel.defaults.utils.{TestRow, TestUtils}
+import io.delta.kernel.engine.{FileReadRequest, FileSystemClient}
+import io.delta.kernel.internal.actions.DeletionVectorDescriptor
+import io.delta.kernel.internal.deletionvectors.{DeletionVectorLoader, DeletionVectorStoredBitmap}
+import io.delta.kernel.internal.deletionvectors.RoaringBitmapArray
+import io.delta.kernel.utils.{CloseableIterator, FileStatus}
 import org.apache.hadoop.conf.Configuration
 import org.scalatest.funsuite.AnyFunSuite
 
@@ -66,9 +79,150 @@ class DeletionVectorSuite extends AnyFunSuite with TestUtils {
     )
   }
 
+  test("multiple dvs in one file are read together and cached") {
+    withTempDir { tempDir =>
+      // the DV files written by Delta hold a version byte followed by a single DV, and the DVs of
+      // the test are these DVs written one after another in a single file
+      val dvFiles = new File(getTestResourceFilePath("basic-dv-with-checkpoint"))
+        .listFiles().filter(_.getName.startsWith("deletion_vector_")).sortBy(_.getName).take(4)
+      val dvFile = new File(tempDir, "dvs.bin")
+      val dvFilePath = "file:" + dvFile.getAbsolutePath
+      val content = new ByteArrayOutputStream()
+      content.write(1)
+      val dvs = dvFiles.zipWithIndex.map { case (file, i) =>
+        val original = originalDescriptor(file)
+        if (i == 3) {
+          // far from the other DVs, so not read with them
+          content.write(new Array[Byte](2 * 8192))
+        }
+        val offset = content.size()
+        content.write(Files.readAllBytes(file.toPath), 1, original.getSizeInBytes + 8)
+        new DeletionVectorDescriptor(
+          "p", dvFilePath, Optional.of(offset), original.getSizeInBytes, original.getCardinality)
+      }
+      Files.write(dvFile.toPath, content.toByteArray)
+
+      val fsClient = new CountingFileSystemClient(defaultEngine.getFileSystemClient)
+      val loader = new DeletionVectorLoader(1 << 20)
+      // the DVs in a different order than in the file, and one of them twice
+      val requested = Seq(dvs(2), dvs(0), dvs(3), dvs(1), dvs(0))
+      val bitmaps = loader.loadAll(fsClient, tempDir.getAbsolutePath, requested.asJava).asScala
+      val expected = requested.map(dv => dvFiles(dvs.indexOf(dv))).map(loadOriginal)
+      bitmaps.zip(expected).foreach { case (actual, expectedBitmap) =>
+        assertSameBitmap(actual, expectedBitmap)
+      }
+      // one read for the first three DVs and one read for the last one
+      assert(fsClient.readRanges.map(_._1) === Seq(dvFilePath, dvFilePath))
+      assert(fsClient.readRanges.map(_._2).sorted === Seq(1, dvs(3).getOffset.get))
+      var metrics = loader.getMetrics
+      assert(metrics.getRequestCount === 5)
+      assert(metrics.getLoadCount === 4)
+      assert(metrics.getReadRequestCount === 2)
+      assert(metrics.getHitCount === 0)
+      assert(metrics.getCachedCount === 4)
+
+      fsClient.readRanges.clear()
+      val cached = loader.load(fsClient, tempDir.getAbsolutePath, dvs(1))
+      assertSameBitmap(cached, loadOriginal(dvFiles(1)))
+      assert(fsClient.readRanges.isEmpty)
+      metrics = loader.getMetrics
+      assert(metrics.getHitCount === 1)
+      assert(metrics.getHitRate === 1.0 / 5)
+      assert(metrics.getAverageLoadTimeNanos === metrics.getLoadTimeNanos / 4)
+    }
+  }
+
+  test("dv cache is per engine and can be disabled") {
+    assert(DeletionVectorLoader.forEngine(defaultEngine) eq
+      DeletionVectorLoader.forEngine(defaultEngine))
+    assert(DeletionVectorLoader.forEngine(defaultEngine).isCaching)
+
+    val engine = DefaultEngine.create(new Configuration() {
+      {
+        set("delta.kernel.default.deletion-vectors.cache.max-size-bytes", "0")
+      }
+    })
+    val loader = DeletionVectorLoader.forEngine(engine)
+    assert(loader ne DeletionVectorLoader.forEngine(defaultEngine))
+    assert(!loader.isCaching)
+    checkTable(
+      path = getTestResourceFilePath("basic-dv-with-checkpoint"),
+      expectedAnswer = (0L until 500L).filter(_ % 11 != 0).map(TestRow(_)),
+      engine = engine
+    )
+    assert(loader.getMetrics.getLoadCount > 0)
+    assert(loader.getMetrics.getHitCount === 0)
+    assert(loader.getMetrics.getCachedCount === 0)
+  }
+
+  test("dv cache evicts the least recently used dvs") {
+    val dvFiles = new File(getTestResourceFilePath("basic-dv-with-checkpoint"))
+      .listFiles().filter(_.getName.startsWith("deletion_vector_")).sortBy(_.getName).take(3)
+    val dvs = dvFiles.map { file =>
+      val original = originalDescriptor(file)
+      new DeletionVectorDescriptor(
+        "p",
+        "file:" + file.getAbsolutePath,
+        Optional.of(1),
+        original.getSizeInBytes,
+        original.getCardinality)
+    }
+    val fsClient = new CountingFileSystemClient(defaultEngine.getFileSystemClient)
+    // room for two of the DVs only
+    val loader = new DeletionVectorLoader(dvs.map(_.getSizeInBytes).sorted.drop(1).sum)
+    Seq(0, 1, 0, 2, 0, 1).foreach { i =>
+      assertSameBitmap(loader.load(fsClient, "/unused", dvs(i)), loadOriginal(dvFiles(i)))
+    }
+    // DV 1 was evicted when loading DV 2, DV 0 was used more recently
+    assert(fsClient.readRanges.map(_._1) ===
+      Seq(0, 1, 2, 1).map(i => "file:" + dvFiles(i).getAbsolutePath))
+    assert(loader.getMetrics.getHitCount === 2)
+    assert(loader.getMetrics.getCachedCount === 2)
+  }
+
+  /** The descriptor of a DV file written by Delta: its size is after the version byte. */
+  private def originalDescriptor(file: File): DeletionVectorDescriptor = {
+    val bytes = Files.readAllBytes(file.toPath)
+    val size = java.nio.ByteBuffer.wrap(bytes, 1, 4).getInt
+    // the cardinality of an on-disk DV is only used to tell whether it is empty
+    new DeletionVectorDescriptor("p", "file:" + file.getAbsolutePath, Optional.of(1), size, 1)
+  }
+
+  private def loadOriginal(file: File): RoaringBitmapArray = {
+    new DeletionVectorStoredBitmap(originalDescriptor(file), Optional.of(file.getParent))
+      .load(defaultEngine.getFileSystemClient)
+  }
+
+  private def assertSameBitmap(actual: RoaringBitmapArray, expected: RoaringBitmapArray): Unit = {
+    (0L until 1000L).foreach { rowIndex =>
+      assert(actual.contains(rowIndex) === expected.contains(rowIndex), s"row $rowIndex")
+    }
+  }
+
+  /** Records the path and start offset of the ranges read. */
+  private class CountingFileSystemClient(delegate: FileSystemClient) extends FileSystemClient {
+    val readRanges = new ArrayBuffer[(String, Int)]
+
+    override def readFiles(readRequests: CloseableIterator[FileReadRequest])
+        : CloseableIterator[java.io.ByteArrayInputStream] = {
+      delegate.readFiles(readRequests.map { request =>
+        readRanges.synchronized {
+          readRanges += ((request.getPath, request.getStartOffset))
+        }
+        request
+      })
+    }
+
+    override def listFrom(filePath: String): CloseableIterator[FileStatus] =
+      delegate.listFrom(filePath)
+
+    override def resolvePath(path: String): String = delegate.resolvePath(path)
+
+    override def mkdirs(path: String): Boolean = delegate.mkdirs(path)
+  }
+
   // TODO detect corrupted DV checksum
   // TODO detect corrupted dv size
-  // TODO multiple dvs in one file
 }
 
 object DeletionVectorsSuite {
@@ -18,7 +18,7 @@ package io.delta.kernel.defaults
 import io.delta.golden.GoldenTableUtils.goldenTablePath
 import io.delta.kernel.exceptions.{InvalidTableException, KernelException, TableNotFoundException}
 import io.delta.kernel.defaults.utils.{TestRow, TestUtils}
-import io.delta.kernel.internal.TableImpl
+import io.delta.kernel.internal.{CommitTimestampIndex, TableImpl}
 import io.delta.kernel.internal.fs.Path
 import io.delta.kernel.internal.util.InternalUtils.daysSinceEpoch
 import io.delta.kernel.internal.util.{DateTimeConstants, FileNames}
@@ -34,6 +34,7 @@ import java.io.File
 import java.math.BigDecimal
 import java.sql.Date
 import scala.collection.JavaConverters._
+import scala.util.Try
 
 class DeltaTableReadsSuite extends AnyFunSuite with TestUtils {
 
@@ -999,4 +1000,69 @@ class DeltaTableReadsSuite extends AnyFunSuite with TestUtils {
       }
     }
   }
+
+  test("getVersionBeforeOrAtTimestamp and getVersionAtOrAfterTimestamp - commit timestamp index") {
+    withTempDir { dir =>
+      val logPath = new Path(dir.getCanonicalPath, "_delta_log")
+      val logDir = new File(logPath.toString)
+      logDir.mkdirs()
+      val tableImpl = Table.forPath(defaultEngine, dir.getCanonicalPath).asInstanceOf[TableImpl]
+
+      // only the listing of the log is needed to find the versions, not the content of the commits
+      val start = 1540415658000L
+      val numCommits = 2 * CommitTimestampIndex.SEGMENT_SIZE + 500
+      (0 until numCommits).foreach { i =>
+        val delta = new File(FileNames.deltaFile(logPath, i))
+        assert(delta.createNewFile())
+        delta.setLastModified(start + i * 1000)
+      }
+
+      val timestamps = Seq(start - 1, start, start + 1500, start + 999000, start + 1000000,
+        start + 1999500, start + 2000000, start + 2001000, start + (numCommits - 1) * 1000)
+      def versions(): Seq[(Try[Long], Try[Long])] = timestamps.map { ts =>
+        (Try(tableImpl.getVersionBeforeOrAtTimestamp(defaultEngine, ts)),
+          Try(tableImpl.getVersionAtOrAfterTimestamp(defaultEngine, ts)))
+      }
+      val expected = versions()
+
+      // index the commits of the two complete ranges of versions
+      CommitTimestampIndex.update(defaultEngine, logPath, numCommits - 1, Int.MaxValue)
+      val indexFiles = new File(logDir, FileNames.COMMIT_TIMESTAMPS_DIRECTORY).listFiles()
+        .map(_.getName).filter(FileNames.isCommitTimestampsFile).sorted
+      assert(indexFiles.toSeq === Seq(
+        s"${"%020d".format(0)}.$start.timestamps.json",
+        s"${"%020d".format(CommitTimestampIndex.SEGMENT_SIZE)}.${start + 1000000}.timestamps.json"))
+
+      // the indexed timestamps are used instead of the modification times of the commit files
+      (0 until 2 * CommitTimestampIndex.SEGMENT_SIZE).foreach { i =>
+        new File(FileNames.deltaFile(logPath, i)).setLastModified(start)
+      }
+      assert(versions().map(_.toString) === expected.map(_.toString))
+    }
+  }
+
+  test("commit timestamp index - updates index the oldest ranges first, up to the given number") {
+    withTempDir { dir =>
+      val logPath = new Path(dir.getCanonicalPath, "_delta_log")
+      new File(logPath.toString).mkdirs()
+      val numCommits = 3 * CommitTimestampIndex.SEGMENT_SIZE
+      (0 until numCommits).foreach { i =>
+        assert(new File(FileNames.deltaFile(logPath, i)).createNewFile())
+      }
+      def indexedStartVersions(): Seq[Long] = {
+        Option(new File(logPath.toString, FileNames.COMMIT_TIMESTAMPS_DIRECTORY).listFiles())
+          .getOrElse(Array.empty[File]).toSeq
+          .filter(f => FileNames.isCommitTimestampsFile(f.getPath))
+          .map(_.getName.takeWhile(_ != '.').toLong).sorted
+      }
+
+      CommitTimestampIndex.update(defaultEngine, logPath, numCommits - 1, 1)
+      assert(indexedStartVersions() === Seq(0))
+      CommitTimestampIndex.update(defaultEngine, logPath, numCommits - 1, 1)
+      assert(indexedStartVersions() === Seq(0, CommitTimestampIndex.SEGMENT_SIZE))
+      CommitTimestampIndex.update(defaultEngine, logPath, numCommits - 1, 5)
+      assert(indexedStartVersions() ===
+        Seq(0, CommitTimestampIndex.SEGMENT_SIZE, 2 * CommitTimestampIndex.SEGMENT_SIZE))
+    }
+  }
 }
@@ -279,6 +279,34 @@ class DeltaTableWritesSuite extends DeltaTableWriteSuiteBase with ParquetSuiteBa
     }
   }
 
+  test("create table - v2 checkpoint policy without the v2Checkpoint feature - expect failure") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      val ex = intercept[InvalidConfigurationValueException] {
+        createTxn(
+          engine,
+          tablePath,
+          isNewTable = true,
+          testSchema, Seq.empty, Map(TableConfig.CHECKPOINT_POLICY.getKey -> "v2"))
+      }
+      assert(ex.getMessage.contains(
+        "Invalid value for table property 'delta.checkpointPolicy': 'v2'. " +
+          "Requires the table feature v2Checkpoint to be supported."))
+
+      createTxn(
+        engine,
+        tablePath,
+        isNewTable = true,
+        testSchema, Seq.empty, Map(TableConfig.CHECKPOINT_POLICY.getKey -> "classic"))
+        .commit(engine, emptyIterable())
+      val ex2 = intercept[InvalidConfigurationValueException] {
+        Table.forPath(engine, tablePath).createTransactionBuilder(engine, testEngineInfo, WRITE)
+          .withTableProperties(engine, Map(TableConfig.CHECKPOINT_POLICY.getKey -> "v2").asJava)
+          .build(engine)
+      }
+      assert(ex2.getMessage.contains("Requires the table feature v2Checkpoint to be supported."))
+    }
+  }
+
   test("create partitioned table - partition column is not part of the schema") {
     withTempDirAndEngine { (tablePath, engine) =>
       val table = Table.forPath(engine, tablePath)
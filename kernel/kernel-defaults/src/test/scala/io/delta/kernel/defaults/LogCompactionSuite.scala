@@ -0,0 +1,213 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults
+
+import io.delta.kernel.{Operation, Table}
+import io.delta.kernel.defaults.engine.DefaultEngine
+import io.delta.kernel.defaults.utils.{CollectingMetricsReporter, TestRow}
+import io.delta.kernel.engine.MetricsReporter
+import io.delta.kernel.exceptions.KernelException
+import io.delta.kernel.expressions.Literal
+import io.delta.kernel.internal.SnapshotImpl
+import io.delta.kernel.metrics.ScanReport
+import org.apache.hadoop.conf.Configuration
+
+import java.io.File
+import java.util.{Collections, List => JList}
+import scala.collection.immutable.Seq
+
+/**
+ * Test suite for `io.delta.kernel.Table.compactLog(engine, startVersion, endVersion)` and the
+ * replay of the log compaction files.
+ */
+class LogCompactionSuite extends DeltaTableWriteSuiteBase {
+
+  test("log replay reads the log compaction instead of the commits it aggregates") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      // versions 0 to 9, the odd ones removing the files with id = 5 added by the previous ones
+      addData(tablePath, numberIter = 10)
+      // version 10
+      spark.sql(
+        s"""ALTER TABLE delta.`$tablePath` SET TBLPROPERTIES ('delta.appendOnly' = 'true')""")
+      val expResults = readUsingSpark(tablePath)
+
+      Table.forPath(engine, tablePath).compactLog(engine, 1, 10)
+      assert(new File(logCompactionFilePath(tablePath, 1, 10)).exists())
+
+      checkTable(tablePath, expResults)
+      val snapshot = Table.forPath(engine, tablePath).getLatestSnapshot(engine)
+      assert(snapshot.asInstanceOf[SnapshotImpl].getMetadata.getConfiguration
+        .get("delta.appendOnly") === "true")
+      // version 0 and the log compaction
+      assert(numCommitFilesReadByScan(tablePath) === 2)
+    }
+  }
+
+  test("log compaction that starts before the checkpoint is not read") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      addData(tablePath, numberIter = 10)
+      val expResults = readUsingSpark(tablePath)
+
+      val table = Table.forPath(engine, tablePath)
+      table.compactLog(engine, 2, 8)
+      table.checkpoint(engine, 5)
+
+      checkTable(tablePath, expResults)
+      // versions 6 to 9 after the checkpoint
+      assert(numCommitFilesReadByScan(tablePath) === 4)
+
+      table.compactLog(engine, 6, 9)
+      checkTable(tablePath, expResults)
+      assert(numCommitFilesReadByScan(tablePath) === 1)
+    }
+  }
+
+  test("protocol and metadata with a snapshot hint inside a log compaction") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      addData(tablePath, numberIter = 4)
+      val table = Table.forPath(engine, tablePath)
+      // the snapshot hint of the table is at version 3
+      assert(table.getLatestSnapshot(engine).getVersion(engine) === 3)
+
+      // version 4
+      spark.sql(
+        s"""ALTER TABLE delta.`$tablePath` SET TBLPROPERTIES ('delta.dataSkippingNumIndexedCols' = '5')""")
+      // versions 5 and 6
+      addData(tablePath, numberIter = 2)
+      Table.forPath(engine, tablePath).compactLog(engine, 2, 5)
+      // the checksums would be used instead of the hint
+      new File(tablePath, "_delta_log").listFiles().filter(_.getName.endsWith(".crc"))
+        .foreach(_.delete())
+
+      val snapshot = table.getLatestSnapshot(engine).asInstanceOf[SnapshotImpl]
+      assert(snapshot.getVersion(engine) === 6)
+      assert(snapshot.getMetadata.getConfiguration
+        .get("delta.dataSkippingNumIndexedCols") === "5")
+      val expectedProtocol = Table.forPath(engine, tablePath)
+        .getLatestSnapshot(engine).asInstanceOf[SnapshotImpl].getProtocol
+      assert(snapshot.getProtocol.getMinReaderVersion === expectedProtocol.getMinReaderVersion)
+      assert(snapshot.getProtocol.getMinWriterVersion === expectedProtocol.getMinWriterVersion)
+      checkTable(tablePath, readUsingSpark(tablePath))
+    }
+  }
+
+  test("transactions are ready for log compaction every N commits") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      val table = Table.forPath(engine, tablePath)
+      for (version <- 0 until 6) {
+        val operation = if (version == 0) Operation.CREATE_TABLE else Operation.WRITE
+        val txnBuilder = table.createTransactionBuilder(engine, testEngineInfo, operation)
+          .withLogCompactionInterval(engine, 3)
+        if (version == 0) {
+          txnBuilder.withSchema(engine, testSchema)
+        }
+        val result = commitAppendData(
+          engine, txnBuilder.build(engine), Seq(Map.empty[String, Literal] -> dataBatches1))
+        assert(result.getVersion === version)
+        assert(result.isReadyForLogCompaction === ((version + 1) % 3 == 0))
+        if (result.isReadyForLogCompaction) {
+          table.compactLog(engine, version - 2, version)
+        }
+      }
+
+      assert(new File(logCompactionFilePath(tablePath, 0, 2)).exists())
+      assert(new File(logCompactionFilePath(tablePath, 3, 5)).exists())
+      checkTable(tablePath, Seq.fill(6)(dataBatches1.flatMap(_.toTestRows)).flatten)
+      assert(numCommitFilesReadByScan(tablePath) === 2)
+    }
+  }
+
+  test("log compaction is disabled by default") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      val txn = createTxn(
+        engine, tablePath, isNewTable = true, schema = testSchema, partCols = Seq.empty)
+      val result = commitAppendData(engine, txn, Seq(Map.empty[String, Literal] -> dataBatches1))
+      assert(!result.isReadyForLogCompaction)
+
+      intercept[IllegalArgumentException] {
+        Table.forPath(engine, tablePath)
+          .createTransactionBuilder(engine, testEngineInfo, Operation.WRITE)
+          .withLogCompactionInterval(engine, 1)
+      }
+    }
+  }
+
+  test("compactLog: existing log compaction is not overwritten") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      addData(tablePath, numberIter = 4)
+      val table = Table.forPath(engine, tablePath)
+      table.compactLog(engine, 0, 3)
+      val compactionFile = new File(logCompactionFilePath(tablePath, 0, 3))
+      compactionFile.setLastModified(0)
+
+      table.compactLog(engine, 0, 3)
+      assert(compactionFile.lastModified() === 0)
+    }
+  }
+
+  test("compactLog: invalid version range") {
+    withTempDirAndEngine { (tablePath, engine) =>
+      addData(tablePath, numberIter = 4)
+      val table = Table.forPath(engine, tablePath)
+      Seq((-1L, 2L), (2L, 2L), (3L, 1L)).foreach { case (startVersion, endVersion) =>
+        val ex = intercept[KernelException] {
+          table.compactLog(engine, startVersion, endVersion)
+        }
+        assert(ex.getMessage.contains("Invalid log compaction range"))
+      }
+      intercept[KernelException] {
+        table.compactLog(engine, 1, 4)
+      }
+    }
+  }
+
+  ////////////////////
+  // Helper methods //
+  ///////////////////
+  def addData(path: String, numberIter: Int): Unit = {
+    Seq.range(0, numberIter).foreach { version =>
+      if (version % 2 == 1) {
+        spark.sql(s"DELETE FROM delta.`$path` WHERE id = 5") // removes one file and adds a new one
+      } else {
+        spark.range(end = 10).write.format("delta").mode("append").save(path)
+      }
+    }
+  }
+
+  def readUsingSpark(tablePath: String): Seq[TestRow] = {
+    spark.read.format("delta").load(tablePath).collect().map(TestRow(_)).toList
+  }
+
+  def logCompactionFilePath(tablePath: String, startVersion: Long, endVersion: Long): String = {
+    f"$tablePath/_delta_log/$startVersion%020d.$endVersion%020d.compacted.json"
+  }
+
+  /** Number of commit files, including log compaction files, read to list the scan files. */
+  def numCommitFilesReadByScan(tablePath: String): Long = {
+    val reporter = new CollectingMetricsReporter
+    val engine = new DefaultEngine(new Configuration()) {
+      override def getMetricsReporters: JList[MetricsReporter] =
+        Collections.singletonList(reporter)
+    }
+    val scanFiles = Table.forPath(engine, tablePath)
+      .getLatestSnapshot(engine)
+      .getScanBuilder(engine)
+      .build()
+      .getScanFiles(engine)
+    scanFiles.toSeq
+    reporter.getReports.collect { case report: ScanReport => report }.head.getNumCommitFilesRead
+  }
+}
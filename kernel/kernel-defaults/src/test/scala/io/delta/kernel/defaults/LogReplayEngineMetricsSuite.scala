@@ -29,6 +29,7 @@ import io.delta.kernel.internal.util.Utils.toCloseableIterator
 import io.delta.kernel.types.StructType
 import io.delta.kernel.utils.{CloseableIterator, FileStatus}
 import org.apache.hadoop.conf.Configuration
+import org.apache.spark.SparkConf
 import org.apache.spark.sql.QueryTest
 import org.apache.spark.sql.delta.DeltaLog
 import org.apache.spark.sql.delta.sources.DeltaSQLConf
@@ -54,6 +55,11 @@ class LogReplayEngineMetricsSuite extends QueryTest
     with SharedSparkSession
     with DeltaSQLCommandTest {
 
+  // Spark doesn't write the checksum files, so that the P & M are loaded from the commit and
+  // checkpoint files, except in the tests that enable them explicitly.
+  override protected def sparkConf: SparkConf =
+    super.sparkConf.set(DeltaSQLConf.DELTA_WRITE_CHECKSUM_ENABLED.key, "false")
+
   /////////////////////////
   // Test Helper Methods //
   /////////////////////////
@@ -74,7 +80,8 @@ class LogReplayEngineMetricsSuite extends QueryTest
       table: Table,
       expJsonVersionsRead: Seq[Long],
       expParquetVersionsRead: Seq[Long],
-      expParquetReadSetSizes: Seq[Long] = Nil): Unit = {
+      expParquetReadSetSizes: Seq[Long] = Nil,
+      expChecksumVersionsRead: Seq[Long] = Nil): Unit = {
     engine.resetMetrics()
     table.getLatestSnapshot(engine).getSchema(engine)
 
@@ -82,7 +89,8 @@ class LogReplayEngineMetricsSuite extends QueryTest
       engine,
       expJsonVersionsRead,
       expParquetVersionsRead,
-      expParquetReadSetSizes)
+      expParquetReadSetSizes,
+      expChecksumVersionsRead = expChecksumVersionsRead)
   }
 
   private def loadScanFilesCheckMetrics(
@@ -111,7 +119,8 @@ class LogReplayEngineMetricsSuite extends QueryTest
       expJsonVersionsRead: Seq[Long],
       expParquetVersionsRead: Seq[Long],
       expParquetReadSetSizes: Seq[Long],
-      expLastCheckpointReadCalls: Option[Int] = None): Unit = {
+      expLastCheckpointReadCalls: Option[Int] = None,
+      expChecksumVersionsRead: Seq[Long] = Nil): Unit = {
     val actualJsonVersionsRead = engine.getJsonHandler.getVersionsRead
     val actualParquetVersionsRead = engine.getParquetHandler.getVersionsRead
 
@@ -132,6 +141,12 @@ class LogReplayEngineMetricsSuite extends QueryTest
       )
     }
 
+    val actualChecksumVersionsRead = engine.getJsonHandler.getChecksumVersionsRead
+    assert(
+      actualChecksumVersionsRead === expChecksumVersionsRead, s"Expected to read checksum " +
+        s"versions $expChecksumVersionsRead but read $actualChecksumVersionsRead"
+    )
+
     expLastCheckpointReadCalls.foreach { expCalls =>
       val actualCalls = engine.getJsonHandler.getLastCheckpointMetadataReadCalls
       assert(actualCalls === expCalls,
@@ -142,6 +157,11 @@ class LogReplayEngineMetricsSuite extends QueryTest
   private def appendCommit(path: String): Unit =
     spark.range(10).write.format("delta").mode("append").save(path)
 
+  private def appendCommitWithChecksum(path: String): Unit =
+    withSQLConf(DeltaSQLConf.DELTA_WRITE_CHECKSUM_ENABLED.key -> "true") {
+      appendCommit(path)
+    }
+
   private def checkpoint(path: String, actionsPerFile: Int): Unit = {
     withSQLConf(DeltaSQLConf.DELTA_CHECKPOINT_PART_SIZE.key -> actionsPerFile.toString) {
       DeltaLog.forTable(spark, path).checkpoint()
@@ -315,6 +335,47 @@ class LogReplayEngineMetricsSuite extends QueryTest
     }
   }
 
+  test("no hint, checksum at the latest version, reads no commit or checkpoint files") {
+    withTempDirAndEngine { (dir, tc) =>
+      val path = dir.getAbsolutePath
+
+      for (_ <- 0 to 14) { appendCommitWithChecksum(path) }
+
+      val table = Table.forPath(tc, path)
+      loadPandMCheckMetrics(tc, table, Nil, Nil, expChecksumVersionsRead = Seq(14))
+    }
+  }
+
+  test("no hint, checksum older than the latest version, reads the commits after it") {
+    withTempDirAndEngine { (dir, tc) =>
+      val path = dir.getAbsolutePath
+
+      for (_ <- 0 to 11) { appendCommitWithChecksum(path) }
+      for (_ <- 12 to 14) { appendCommit(path) }
+
+      // the checksum at v11 is newer than the checkpoint at v10
+      val table = Table.forPath(tc, path)
+      loadPandMCheckMetrics(tc, table, 14L to 12L by -1L, Nil, expChecksumVersionsRead = Seq(11))
+    }
+  }
+
+  test("hint newer than the checksum, reads no checksum") {
+    withTempDirAndEngine { (dir, tc) =>
+      val path = dir.getAbsolutePath
+
+      for (_ <- 0 to 5) { appendCommitWithChecksum(path) }
+      for (_ <- 6 to 7) { appendCommit(path) }
+
+      val table = Table.forPath(tc, path)
+      loadPandMCheckMetrics(tc, table, Seq(7, 6), Nil, expChecksumVersionsRead = Seq(5))
+
+      // A hint is now saved at v7
+
+      appendCommit(path) // v8
+      loadPandMCheckMetrics(tc, table, Seq(8), Nil)
+    }
+  }
+
   Seq(true, false).foreach { deleteLastCheckpointMetadataFile =>
     test("ensure `_last_checkpoint` is tried to read only once when " +
       s"""${if (deleteLastCheckpointMetadataFile) "not exists" else "valid file exists"}""") {
@@ -381,6 +442,8 @@ trait FileReadMetrics { self: Object =>
 
   private val versionsRead = ArrayBuffer[Long]()
 
+  private val checksumVersionsRead = ArrayBuffer[Long]()
+
   // Number of checkpoint files requested read in each readParquetFiles call
   val checkpointReadRequestSizes = new ArrayBuffer[Long]()
 
@@ -393,6 +456,8 @@ trait FileReadMetrics { self: Object =>
       if (!versionsRead.contains(version)) {
         versionsRead += version
       }
+    } else if (FileNames.isChecksumFile(path.getName)) {
+      checksumVersionsRead += FileNames.checksumVersion(path)
     } else if (Checkpointer.LAST_CHECKPOINT_FILE_NAME.equals(path.getName)) {
       lastCheckpointMetadataReadCalls += 1
     }
@@ -400,11 +465,14 @@ trait FileReadMetrics { self: Object =>
 
   def getVersionsRead: Seq[Long] = versionsRead
 
+  def getChecksumVersionsRead: Seq[Long] = checksumVersionsRead
+
   def getLastCheckpointMetadataReadCalls: Int = lastCheckpointMetadataReadCalls
 
   def resetMetrics(): Unit = {
     lastCheckpointMetadataReadCalls = 0
     versionsRead.clear()
+    checksumVersionsRead.clear()
     checkpointReadRequestSizes.clear()
   }
 
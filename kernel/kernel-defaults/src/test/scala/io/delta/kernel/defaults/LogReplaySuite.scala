@@ -23,12 +23,13 @@ import io.delta.golden.GoldenTableUtils.goldenTablePath
 import org.scalatest.funsuite.AnyFunSuite
 import org.apache.hadoop.conf.Configuration
 
+import io.delta.kernel.expressions.{Column, Literal, Predicate}
 import io.delta.kernel.types.{LongType, StructType}
 import io.delta.kernel.internal.{InternalScanFileUtils, SnapshotImpl}
 import io.delta.kernel.internal.data.ScanStateRow
 import io.delta.kernel.defaults.engine.DefaultEngine
 import io.delta.kernel.defaults.utils.{TestRow, TestUtils}
-import io.delta.kernel.Table
+import io.delta.kernel.{Snapshot, Table}
 
 class LogReplaySuite extends AnyFunSuite with TestUtils {
 
@@ -298,4 +299,56 @@ class LogReplaySuite extends AnyFunSuite with TestUtils {
     assert(snapshotImpl.getLatestTransactionVersion(defaultEngine, "fakeAppId") === Optional.of(3L))
     assert(!snapshotImpl.getLatestTransactionVersion(defaultEngine, "nonExistentAppId").isPresent)
   }
+
+  test("update a snapshot incrementally with inserts, deletes, updates and checkpoints") {
+    withTempDir { dir =>
+      val path = dir.getCanonicalPath
+      spark.sql(s"CREATE TABLE delta.`$path` (id LONG, part INT) USING delta " +
+        "PARTITIONED BY (part) TBLPROPERTIES ('delta.checkpointInterval' = '3')")
+      spark.sql(s"INSERT INTO delta.`$path` SELECT id, CAST(id % 2 AS INT) FROM range(0, 10)")
+      val table = Table.forPath(defaultEngine, path)
+      var snapshot = table.getLatestSnapshot(defaultEngine)
+
+      def scanFiles(snapshot: Snapshot, filter: Option[Predicate] = None): Seq[String] = {
+        val scanBuilder = snapshot.getScanBuilder(defaultEngine)
+        val scan = filter.map(scanBuilder.withFilter(defaultEngine, _)).getOrElse(scanBuilder)
+        collectScanFileRows(scan.build()).map(InternalScanFileUtils.getAddFileStatus(_).getPath)
+          .sorted
+      }
+
+      Seq(
+        s"INSERT INTO delta.`$path` SELECT id, CAST(id % 2 AS INT) FROM range(10, 20)",
+        s"DELETE FROM delta.`$path` WHERE id < 5",
+        s"UPDATE delta.`$path` SET id = id + 100 WHERE id >= 15",
+        s"INSERT INTO delta.`$path` SELECT id, 2 FROM range(20, 30)",
+        s"DELETE FROM delta.`$path` WHERE part = 1",
+        s"INSERT OVERWRITE delta.`$path` SELECT id, 3 FROM range(30, 40)",
+        s"INSERT INTO delta.`$path` SELECT id, 4 FROM range(40, 50)"
+      ).foreach { sql =>
+        spark.sql(sql)
+        val updated = snapshot.update(defaultEngine)
+        val latest = table.getLatestSnapshot(defaultEngine)
+        assert(updated.getVersion(defaultEngine) === latest.getVersion(defaultEngine))
+        assert(scanFiles(updated) === scanFiles(latest))
+        // partition pruning and data skipping on the incrementally updated active files
+        Seq(
+          new Predicate("=", new Column("part"), Literal.ofInt(4)),
+          new Predicate(">=", new Column("id"), Literal.ofLong(45))
+        ).foreach { filter =>
+          assert(scanFiles(updated, Some(filter)) === scanFiles(latest, Some(filter)))
+        }
+        checkAnswer(readSnapshot(updated).map(TestRow(_)), readSnapshot(latest).map(TestRow(_)))
+        // the log segment starts at the latest checkpoint, same as the one of a new snapshot
+        val updatedSegment = updated.asInstanceOf[SnapshotImpl].getLogSegment
+        val latestSegment = latest.asInstanceOf[SnapshotImpl].getLogSegment
+        assert(updatedSegment.checkpointVersionOpt === latestSegment.checkpointVersionOpt)
+        assert(updatedSegment.deltas.asScala.map(_.getPath) ===
+          latestSegment.deltas.asScala.map(_.getPath))
+        snapshot = updated
+      }
+
+      // no new commits
+      assert(snapshot.update(defaultEngine) eq snapshot)
+    }
+  }
 }
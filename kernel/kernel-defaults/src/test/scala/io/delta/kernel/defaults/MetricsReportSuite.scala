@@ -0,0 +1,147 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults
+package io.delta.kernel.defaults
+
+import io.delta.kernel.{Operation, Table}
+import io.delta.kernel.defaults.engine.DefaultEngine
+import io.delta.kernel.defaults.utils.{CollectingMetricsReporter, TestUtils}
+import io.delta.kernel.engine.{Engine, MetricsReporter}
+import io.delta.kernel.expressions.{And, Column, Literal, Predicate}
+import io.delta.kernel.metrics.{MetricsReport, ScanReport, SnapshotReport, TransactionReport}
+import io.delta.kernel.types.IntegerType.INTEGER
+import io.delta.kernel.types.StructType
+import io.delta.kernel.utils.CloseableIterable.emptyIterable
+import org.apache.hadoop.conf.Configuration
+import org.apache.spark.sql.delta.DeltaLog
+import org.apache.spark.sql.functions.col
+import org.scalatest.funsuite.AnyFunSuite
+
+import java.util.{Collections, Optional, List => JList}
+
+/** Test suite for the metrics reports delivered to the [[MetricsReporter]]s of the engine. */
+class MetricsReportSuite extends AnyFunSuite with TestUtils {
+
+  test("snapshot report") {
+    withTempDirAndReporter { (path, engine, reporter) =>
+      for (i <- 0 until 4) {
+        spark.range(i * 10, i * 10 + 10).write.format("delta").mode("append").save(path)
+      }
+      DeltaLog.forTable(spark, path).checkpoint() // version 3
+      spark.range(40, 50).write.format("delta").mode("append").save(path) // version 4
+
+      Table.forPath(engine, path).getLatestSnapshot(engine)
+
+      val reports = reporter.getReports.collect { case report: SnapshotReport => report }
+      assert(reports.size === 1)
+      val report = reports.head
+      assert(report.getOperationType === "Snapshot")
+      assert(report.getVersion === 4)
+      assert(report.getCheckpointVersion === Optional.of(3L))
+      assert(report.getNumCheckpointFiles === 1)
+      assert(report.getNumCommitFiles === 1)
+      assert(report.getNumListingCalls >= 1)
+      assert(report.getNumFilesListed >= 2)
+      assert(report.getLoadDurationNanos >= report.getListingDurationNanos)
+    }
+  }
+
+  test("scan report: files pruned by the partition filter and by data skipping") {
+    withTempDirAndReporter { (path, engine, reporter) =>
+      // 4 commits, each adding one file in each of the partitions part=0 and part=1
+      for (i <- 0 until 4) {
+        spark.range(i * 10, i * 10 + 10)
+          .repartition(1)
+          .withColumn("part", col("id") % 2)
+          .write.format("delta").mode("append").partitionBy("part").save(path)
+      }
+
+      val filter = new And(
+        new Predicate("=", new Column("part"), Literal.ofLong(0)),
+        new Predicate(">=", new Column("id"), Literal.ofLong(20)))
+      val scanFiles = Table.forPath(engine, path)
+        .getLatestSnapshot(engine)
+        .getScanBuilder(engine)
+        .withFilter(engine, filter)
+        .build()
+        .getScanFiles(engine)
+      assert(reporter.getReports.collect { case report: ScanReport => report }.isEmpty)
+      scanFiles.toSeq
+
+      val reports = reporter.getReports.collect { case report: ScanReport => report }
+      assert(reports.size === 1)
+      val report = reports.head
+      assert(report.getTableVersion === 3)
+      assert(report.getFilter === Optional.of(filter))
+      assert(!report.isFromInMemoryScanFiles)
+      assert(report.getNumCommitFilesRead === 4)
+      assert(report.getNumCheckpointFilesRead === 0)
+      assert(report.getNumActiveAddFiles === 8)
+      // the files of part=1
+      assert(report.getNumFilesPrunedByPartitionFilter === 4)
+      // the files of part=0 of the first two commits, which have ids < 20
+      assert(report.getNumFilesPrunedByDataSkipping === 2)
+      assert(report.getNumScanFilesReturned === 2)
+    }
+  }
+
+  test("transaction report") {
+    withTempDirAndReporter { (path, engine, reporter) =>
+      Table.forPath(engine, path)
+        .createTransactionBuilder(engine, "test-engine", Operation.CREATE_TABLE)
+        .withSchema(engine, new StructType().add("id", INTEGER))
+        .build(engine)
+        .commit(engine, emptyIterable())
+
+      val reports = reporter.getReports.collect { case report: TransactionReport => report }
+      assert(reports.size === 1)
+      val report = reports.head
+      assert(report.getOperation === Operation.CREATE_TABLE.getDescription)
+      assert(report.getReadVersion === -1)
+      assert(report.getCommittedVersion === Optional.of(0L))
+      assert(report.getNumCommitRetries === 0)
+      assert(report.getNumAddFiles === 0)
+      assert(report.getNumRemoveFiles === 0)
+      assert(!report.getException.isPresent)
+    }
+  }
+
+  test("a failing reporter doesn't fail the operation") {
+    withTempDir { dir =>
+      val path = dir.getAbsolutePath
+      spark.range(10).write.format("delta").save(path)
+      val engine = engineWithReporter(new MetricsReporter {
+        override def report(report: MetricsReport): Unit =
+          throw new IllegalStateException("reporter failure")
+      })
+      assert(Table.forPath(engine, path).getLatestSnapshot(engine).getVersion(engine) === 0)
+    }
+  }
+
+  private def engineWithReporter(reporter: MetricsReporter): Engine = {
+    new DefaultEngine(new Configuration()) {
+      override def getMetricsReporters: JList[MetricsReporter] =
+        Collections.singletonList(reporter)
+    }
+  }
+
+  private def withTempDirAndReporter(
+      f: (String, Engine, CollectingMetricsReporter) => Unit): Unit = {
+    val reporter = new CollectingMetricsReporter
+    val engine = engineWithReporter(reporter)
+    withTempDir { dir => f(dir.getAbsolutePath, engine, reporter) }
+  }
+}
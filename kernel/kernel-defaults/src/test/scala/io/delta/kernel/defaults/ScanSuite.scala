@@ -1209,6 +1209,42 @@ class ScanSuite extends AnyFunSuite with TestUtils with ExpressionTestUtils with
     )
   }
 
+  test("data skipping - uses the parsed stats in the checkpoint") {
+    withTempDir { tempDir =>
+      val path = tempDir.getCanonicalPath
+      // Checkpoint the stats only as `stats_parsed`, so that the AddFiles in the checkpoint can
+      // be skipped only by using the parsed stats
+      withSQLConf(
+        DeltaConfigs.CHECKPOINT_WRITE_STATS_AS_JSON.defaultTablePropertyKey -> "false",
+        DeltaConfigs.CHECKPOINT_WRITE_STATS_AS_STRUCT.defaultTablePropertyKey -> "true") {
+        spark.range(0, 10).repartition(1).write.format("delta").save(path)
+        spark.range(10, 20).repartition(1).write.format("delta").mode("append").save(path)
+        DeltaLog.forTable(spark, path).checkpoint()
+      }
+
+      checkSkipping(
+        path,
+        Map(
+          equals(col("id"), ofLong(5)) -> 1,
+          greaterThanOrEqual(col("id"), ofLong(5)) -> 2,
+          greaterThan(col("id"), ofLong(19)) -> 0
+        )
+      )
+
+      // The AddFiles in the commits after the checkpoint are skipped using the JSON stats
+      spark.range(20, 30).repartition(1).write.format("delta").mode("append").save(path)
+      checkSkipping(
+        path,
+        Map(
+          equals(col("id"), ofLong(5)) -> 1,
+          equals(col("id"), ofLong(25)) -> 1,
+          greaterThanOrEqual(col("id"), ofLong(5)) -> 3,
+          greaterThan(col("id"), ofLong(29)) -> 0
+        )
+      )
+    }
+  }
+
   test("data skipping - incompatible schema change doesn't break") {
     withTempDir { tempDir =>
       val tablePath = tempDir.getPath
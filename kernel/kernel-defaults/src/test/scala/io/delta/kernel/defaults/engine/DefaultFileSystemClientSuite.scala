@@ -15,11 +15,16 @@
  */
 package io.delta.kernel.defaults.engine
 
-import java.io.FileNotFoundException
+import java.io.{File, FileNotFoundException}
+import java.nio.file.Files
 
+import scala.collection.JavaConverters._
 import scala.collection.mutable.ArrayBuffer
 
 import io.delta.kernel.defaults.utils.TestUtils
+import io.delta.kernel.engine.FileReadRequest
+import io.delta.kernel.internal.util.Utils.toCloseableIterator
+import org.apache.hadoop.conf.Configuration
 import org.apache.hadoop.fs.{FileSystem, Path}
 import org.scalatest.funsuite.AnyFunSuite
 
@@ -80,4 +85,53 @@ class DefaultFileSystemClientSuite extends AnyFunSuite with TestUtils {
       assert(!fs.exists(new Path(dir3)))
     }
   }
+
+  Seq(0, 3).foreach { parallelism =>
+    test(s"read files - parallelism $parallelism") {
+      withTempDir { tempDir =>
+        val content = (0 until 10000).map(_.toByte).toArray
+        val file = new File(tempDir, "file.bin")
+        Files.write(file.toPath, content)
+        val client = new DefaultFileSystemClient(new Configuration() {{
+          setInt("delta.kernel.default.fs.read-files.parallelism", parallelism)
+        }})
+        val ranges = Seq((0, 10), (9000, 1000), (5, 0), (4096, 4096), (100, 1)) ++
+          (0 until 20).map(i => (i * 500, 100))
+
+        val streams = client.readFiles(toCloseableIterator(
+          ranges.map { case (offset, length) => readRequest(file.getPath, offset, length) }
+            .asJava.iterator()))
+        val actual = try {
+          streams.asScala.map { stream =>
+            val bytes = new Array[Byte](stream.available())
+            stream.read(bytes)
+            bytes.toSeq
+          }.toList
+        } finally {
+          streams.close()
+        }
+        assert(actual === ranges.map { case (offset, length) =>
+          content.slice(offset, offset + length).toSeq
+        })
+
+        val pastEnd = client.readFiles(toCloseableIterator(
+          Seq(readRequest(file.getPath, 0, 10), readRequest(file.getPath, 9999, 2))
+            .asJava.iterator()))
+        try {
+          assert(pastEnd.next().available() === 10)
+          intercept[RuntimeException](pastEnd.next())
+        } finally {
+          pastEnd.close()
+        }
+      }
+    }
+  }
+
+  private def readRequest(path: String, offset: Int, length: Int): FileReadRequest = {
+    new FileReadRequest {
+      override def getPath: String = path
+      override def getStartOffset: Int = offset
+      override def getReadLength: Int = length
+    }
+  }
 }
@@ -16,12 +16,16 @@
 package io.delta.kernel.defaults.engine
 
 import java.math.{BigDecimal => JBigDecimal}
-import java.util.Optional
+import java.util.{Collections, Optional}
+import java.util.concurrent.{ConcurrentLinkedQueue, CountDownLatch}
 import scala.collection.JavaConverters._
-import io.delta.kernel.data.ColumnVector
+import io.delta.kernel.data.{ColumnarBatch, ColumnVector}
+import io.delta.kernel.defaults.internal.json.JsonFilePrefetcher
 import io.delta.kernel.defaults.utils.{DefaultVectorTestUtils, TestRow, TestUtils}
 import io.delta.kernel.internal.util.InternalUtils.singletonStringColumnVector
+import io.delta.kernel.internal.util.Utils
 import io.delta.kernel.types._
+import io.delta.kernel.utils.{CloseableIterator, FileStatus}
 import org.apache.hadoop.conf.Configuration
 import org.scalatest.funsuite.AnyFunSuite
 
@@ -311,6 +315,150 @@ class DefaultJsonHandlerSuite extends AnyFunSuite with TestUtils with DefaultVec
     }
   }
 
+  test("read json files - fields not in the read schema are skipped") {
+    withTempDir { tempDir =>
+      val file = tempDir + "/1.json"
+      val lines = Seq(
+        """{"commitInfo":{"timestamp":1,"operationParameters":{"a":[1,{"b":null}]}}}""",
+        """{"add":{"path":"a","size":1,"stats":"{\"numRecords\":1}","tags":{"t":"v"}}}""",
+        """{"remove":{"path":"b","deletionTimestamp":2,"extra":[[1],[2,3]]}}""")
+      java.nio.file.Files.write(java.nio.file.Paths.get(file), lines.mkString("\n").getBytes)
+
+      val schema = new StructType()
+        .add("add", new StructType()
+          .add("path", StringType.STRING, false)
+          .add("size", LongType.LONG, false))
+        .add("remove", new StructType()
+          .add("path", StringType.STRING, false)
+          .add("deletionTimestamp", LongType.LONG))
+
+      val actResult = jsonHandler.readJsonFiles(
+        fsClient.listFrom(file),
+        schema,
+        Optional.empty()
+      ).toSeq.flatMap(_.getRows.toSeq).map(TestRow(_))
+
+      checkAnswer(
+        actResult,
+        Seq(TestRow(null, null), TestRow(TestRow("a", 1L), null), TestRow(null, TestRow("b", 2L))))
+    }
+  }
+
+  test("read json files - with prefetching") {
+    withTempDir { tempDir =>
+      val numFiles = 20
+      (0 until numFiles).foreach { fileId =>
+        val lines = (0 until 3).map(row => s"""{"id":${fileId * 3 + row},"file":"f$fileId"}""")
+        java.nio.file.Files.write(
+          java.nio.file.Paths.get(tempDir + f"/$fileId%03d.json"),
+          lines.mkString("\n").getBytes)
+      }
+      val schema = new StructType().add("id", LongType.LONG).add("file", StringType.STRING)
+      val expResults = (0 until numFiles * 3).map(id => TestRow(id.toLong, s"f${id / 3}"))
+
+      // max-buffered-bytes: prefetch all, only a few of the files fit and no file fits
+      Seq("67108864", "100", "1").foreach { maxBufferedBytes =>
+        val prefetchingHandler = new DefaultJsonHandler(new Configuration {
+          set("delta.kernel.default.json.reader.batch-size", "2")
+          set("delta.kernel.default.json.reader.prefetch.parallelism", "4")
+          set("delta.kernel.default.json.reader.prefetch.max-buffered-bytes", maxBufferedBytes)
+        })
+
+        val actResult = prefetchingHandler.readJsonFiles(
+          fsClient.listFrom(tempDir + "/000.json"),
+          schema,
+          Optional.empty()
+        ).toSeq.flatMap(_.getRows.toSeq).map(TestRow(_))
+        // results are expected in the order of the files
+        assert(actResult === expResults)
+
+        // closing the iterator before consuming all the files doesn't affect later reads
+        val partialIter = prefetchingHandler.readJsonFiles(
+          fsClient.listFrom(tempDir + "/000.json"), schema, Optional.empty())
+        assert(partialIter.hasNext)
+        partialIter.next()
+        partialIter.close()
+        val actResultAfterClose = prefetchingHandler.readJsonFiles(
+          fsClient.listFrom(tempDir + "/000.json"),
+          schema,
+          Optional.empty()
+        ).toSeq.flatMap(_.getRows.toSeq).map(TestRow(_))
+        assert(actResultAfterClose === expResults)
+      }
+    }
+  }
+
+  test("read json files - prefetch budget is held until a cancelled read completes") {
+    val prefetcher = new JsonFilePrefetcher(1 /* parallelism */, 10 /* maxBufferedBytes */)
+    val readStarted = new CountDownLatch(1)
+    val finishRead = new CountDownLatch(1)
+    val readThreads = new ConcurrentLinkedQueue[Thread]()
+    def readFile(file: FileStatus): CloseableIterator[ColumnarBatch] = {
+      if (file.getPath == "slow") {
+        readStarted.countDown()
+        finishRead.await()
+      }
+      readThreads.add(Thread.currentThread())
+      Utils.toCloseableIterator(Collections.emptyIterator[ColumnarBatch]())
+    }
+    def readOtherFile(): Thread = {
+      readThreads.clear()
+      prefetcher.readFiles(
+        Utils.singletonCloseableIterator(FileStatus.of("other", 10, 0)), readFile(_)).toSeq
+      readThreads.asScala.head
+    }
+
+    // the read of the slow file is in progress when its iterator is closed
+    prefetcher.readFiles(
+      Utils.singletonCloseableIterator(FileStatus.of("slow", 10, 0)), readFile(_)).close()
+    readStarted.await()
+    // no budget left to prefetch: the other file is read on the consumer thread
+    assert(readOtherFile() === Thread.currentThread())
+
+    finishRead.countDown()
+    val deadline = System.currentTimeMillis() + 10000
+    while (readOtherFile() == Thread.currentThread() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10)
+    }
+    assert(readOtherFile() !== Thread.currentThread())
+  }
+
+  test("parse json - missing non-nullable field") {
+    val schema = new StructType()
+      .add("add", new StructType().add("path", StringType.STRING, false /* nullable */))
+    val e = intercept[RuntimeException] {
+      jsonHandler.parseJson(
+        singletonStringColumnVector("""{"add":{"size":1}}"""), schema, Optional.empty())
+    }
+    assert(e.getMessage.contains("Root node at key path is null but field isn't nullable"))
+  }
+
+  test("parse json - the last value of a duplicate field wins") {
+    val json =
+      """{"add":{"path":null,"size":1,"path":"a","tags":{"t":"v"},"size":2,"tags":{"u":"w"}},
+        |"array":[1,2,3],"struct":{"f":1},"array":[4],"struct":null,"struct":{"f":2}}""".stripMargin
+    val schema = new StructType()
+      .add("add", new StructType()
+        .add("path", StringType.STRING, false /* nullable */)
+        .add("size", LongType.LONG)
+        .add("tags", new MapType(StringType.STRING, StringType.STRING, true)))
+      .add("array", new ArrayType(IntegerType.INTEGER, true))
+      .add("struct", new StructType().add("f", IntegerType.INTEGER))
+    val batch = jsonHandler.parseJson(
+      stringVector(Seq(json, json)), schema, Optional.empty[ColumnVector]())
+
+    val expRow = TestRow(TestRow("a", 2L, Map("u" -> "w")), Vector(4), TestRow(2))
+    checkAnswer(batch.getRows.toSeq.map(TestRow(_)), Seq(expRow, expRow))
+
+    val e = intercept[RuntimeException] {
+      jsonHandler.parseJson(
+        singletonStringColumnVector("""{"add":{"path":"a","path":null}}"""),
+        schema,
+        Optional.empty())
+    }
+    assert(e.getMessage.contains("Root node at key path is null but field isn't nullable"))
+  }
+
   test("parse json content") {
     val input = """
       |{
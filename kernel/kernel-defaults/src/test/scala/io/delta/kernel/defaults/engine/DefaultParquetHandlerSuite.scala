@@ -17,7 +17,9 @@ package io.delta.kernel.defaults.engine
 
 import io.delta.golden.GoldenTableUtils.goldenTableFile
 import io.delta.kernel.defaults.internal.parquet.ParquetSuiteBase
+import io.delta.kernel.defaults.utils.TestRow
 import io.delta.kernel.internal.util.Utils.toCloseableIterator
+import io.delta.kernel.utils.FileStatus
 import org.apache.hadoop.conf.Configuration
 import org.scalatest.funsuite.AnyFunSuite
 
@@ -65,4 +67,105 @@ class DefaultParquetHandlerSuite extends AnyFunSuite with ParquetSuiteBase {
       }
     }
   }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  // Tests for `readParquetFiles` with multiple files read in parallel.
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  test("read multiple Parquet files in parallel") {
+    withTempDir { tempDir =>
+      val inputLocation = goldenTableFile("parquet-all-types").toString
+      val schema = tableSchema(inputLocation)
+      val dataToWrite =
+        readParquetUsingKernelAsColumnarBatches(inputLocation, schema).map(_.toFiltered)
+      // write the data into several small files
+      (0 until 4).foreach { i =>
+        writeToParquetUsingKernel(dataToWrite, tempDir + s"/$i", targetFileSize = 2000)
+      }
+      val files = (0 until 4).flatMap(i => parquetFiles(tempDir + s"/$i")).sorted
+      assert(files.size > 8)
+
+      def read(handler: DefaultParquetHandler): Seq[TestRow] = {
+        handler.readParquetFiles(
+          toCloseableIterator(files.map(FileStatus.of(_, 0, 0)).asJava.iterator()),
+          schema,
+          java.util.Optional.empty()
+        ).toSeq.flatMap(_.getRows.toSeq).map(TestRow(_))
+      }
+      def parallelHandler(
+          parallelism: Int, queueSize: Int, preserveFileOrder: Boolean): DefaultParquetHandler = {
+        new DefaultParquetHandler(new Configuration {
+          set("delta.kernel.default.parquet.reader.batch-size", "10")
+          set("delta.kernel.default.parquet.reader.parallelism", parallelism.toString)
+          set("delta.kernel.default.parquet.reader.parallel.queue-size", queueSize.toString)
+          set(
+            "delta.kernel.default.parquet.reader.parallel.preserve-file-order",
+            preserveFileOrder.toString)
+        })
+      }
+
+      val expected = read(parquetHandler)
+      assert(expected.size === 800)
+      val longTypeOrdinal = schema.indexOf("LongType")
+      Seq((1, 1), (3, 1), (3, 64), (16, 4)).foreach { case (parallelism, queueSize) =>
+        // data is returned in the order of the files
+        val orderedResult = read(parallelHandler(parallelism, queueSize, preserveFileOrder = true))
+        checkAnswer(orderedResult, expected)
+        assert(orderedResult.map(_.get(longTypeOrdinal)) === expected.map(_.get(longTypeOrdinal)))
+        checkAnswer(
+          read(parallelHandler(parallelism, queueSize, preserveFileOrder = false)),
+          expected)
+
+        // closing before consuming all the data stops the reads
+        Seq(true, false).foreach { preserveFileOrder =>
+          val handler = parallelHandler(parallelism, queueSize, preserveFileOrder)
+          val iter = handler.readParquetFiles(
+            toCloseableIterator(files.map(FileStatus.of(_, 0, 0)).asJava.iterator()),
+            schema,
+            java.util.Optional.empty())
+          assert(iter.hasNext)
+          iter.next()
+          iter.close()
+          checkAnswer(read(handler), expected)
+        }
+      }
+    }
+  }
+
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  // Tests for `writePartitionedParquetFiles`.
+  /////////////////////////////////////////////////////////////////////////////////////////////////
+  test("write Parquet files to multiple directories") {
+    withTempDir { tempDir =>
+      val inputLocation = goldenTableFile("parquet-all-types").toString
+      val schema = tableSchema(inputLocation)
+      val dataToWrite =
+        readParquetUsingKernelAsColumnarBatches(inputLocation, schema).map(_.toFiltered)
+      val expected = readParquetFilesUsingKernel(inputLocation, schema)
+
+      Seq((0, 1L << 30), (3, 1L << 30), (0, 1L), (3, 1L)).zipWithIndex.foreach {
+        case ((parallelism, memoryBudget), i) =>
+          val handler = new DefaultParquetHandler(new Configuration {
+            set("delta.kernel.default.parquet.writer.parallelism", parallelism.toString)
+            set("delta.kernel.default.parquet.writer.parallel.queue-size", "2")
+            set("delta.kernel.default.parquet.writer.memory-budget", memoryBudget.toString)
+          })
+          // each directory gets the input data twice, interleaved with the other directories
+          val directories = (0 until 4).map(p => s"$tempDir/$i/p=$p")
+          val data = (directories ++ directories)
+            .flatMap(dir => dataToWrite.map(batch => new DirectoryBatch(dir, batch)))
+          val writtenFiles = handler.writePartitionedParquetFiles(
+            toCloseableIterator(data.asJava.iterator()), Seq.empty.asJava).toSeq
+
+          // with no memory to spare, each file is closed right after writing a batch to it
+          val filesPerDirectory = if (memoryBudget == 1L) 2 * dataToWrite.size else 1
+          directories.foreach { dir =>
+            val files = writtenFiles.filter(_.getDirectoryPath == dir).map(_.getFileStatus)
+            assert(files.size === filesPerDirectory)
+            files.foreach(file => assert(file.getPath.startsWith(s"file:$dir/")))
+            assert(files.map(_.getStatistics.get.getNumRecords).sum === 2L * expected.size)
+            checkAnswer(readParquetFilesUsingKernel(dir, schema), expected ++ expected)
+          }
+      }
+    }
+  }
 }
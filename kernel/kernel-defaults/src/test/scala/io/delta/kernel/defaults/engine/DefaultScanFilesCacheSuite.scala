@@ -0,0 +1,214 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.engine
+
+import scala.collection.JavaConverters._
+
+import io.delta.golden.GoldenTableUtils.goldenTablePath
+import io.delta.kernel.defaults.utils.{TestRow, TestUtils}
+import io.delta.kernel.engine.Engine
+import io.delta.kernel.expressions.{Column, Literal, Predicate}
+import io.delta.kernel.internal.InternalScanFileUtils
+import org.apache.commons.io.FileUtils
+import org.apache.hadoop.conf.Configuration
+import org.scalatest.funsuite.AnyFunSuite
+
+class DefaultScanFilesCacheSuite extends AnyFunSuite with TestUtils {
+
+  private def engineWithCache(maxSizeBytes: Long): DefaultEngine = {
+    DefaultEngine.create(new Configuration() {
+      {
+        set("delta.kernel.default.scan-files.cache.max-size-bytes", maxSizeBytes.toString)
+        // Small batches so that the cached files are compacted from multiple batches
+        set("delta.kernel.default.parquet.reader.batch-size", "2")
+        set("delta.kernel.default.json.reader.batch-size", "2")
+      }
+    })
+  }
+
+  private def cacheMetrics(engine: DefaultEngine): DefaultScanFilesCache.Metrics = {
+    engine.getScanFilesCache.get.asInstanceOf[DefaultScanFilesCache].getMetrics
+  }
+
+  private def scanFiles(
+      engine: Engine, path: String, filter: Option[Predicate] = None): Seq[String] = {
+    val scanBuilder = latestSnapshot(path, engine).getScanBuilder(engine)
+    val scan = filter.map(scanBuilder.withFilter(engine, _)).getOrElse(scanBuilder).build()
+    collectScanFileRows(scan, engine).map(InternalScanFileUtils.getAddFileStatus(_).getPath).sorted
+  }
+
+  test("cache is disabled by default") {
+    assert(!defaultEngine.getScanFilesCache.isPresent)
+  }
+
+  test("scan files are cached by table path and version") {
+    val engine = engineWithCache(100000000)
+    Seq("basic-with-inserts-deletes-checkpoint", "dv-partitioned-with-checkpoint").foreach { name =>
+      val path = goldenTablePath(name)
+      val expected = scanFiles(defaultEngine, path)
+      val misses = cacheMetrics(engine).getMissCount
+      val hits = cacheMetrics(engine).getHitCount
+
+      assert(scanFiles(engine, path) === expected)
+      assert(cacheMetrics(engine).getMissCount === misses + 1)
+      assert(cacheMetrics(engine).getHitCount === hits)
+
+      assert(scanFiles(engine, path) === expected)
+      assert(cacheMetrics(engine).getMissCount === misses + 1)
+      assert(cacheMetrics(engine).getHitCount === hits + 1)
+
+      // data read using the cached scan files, including the deletion vectors
+      checkAnswer(
+        readSnapshot(latestSnapshot(path, engine), engine = engine).map(TestRow(_)),
+        readSnapshot(latestSnapshot(path)).map(TestRow(_)))
+    }
+    assert(cacheMetrics(engine).getEntryCount === 2)
+    assert(cacheMetrics(engine).getEvictionCount === 0)
+
+    // a different version of a cached table is not a hit
+    val path = goldenTablePath("basic-with-inserts-deletes-checkpoint")
+    val hits = cacheMetrics(engine).getHitCount
+    io.delta.kernel.Table.forPath(engine, path).getSnapshotAsOfVersion(engine, 3)
+      .getScanBuilder(engine).build().getScanFiles(engine).close()
+    assert(cacheMetrics(engine).getHitCount === hits)
+  }
+
+  test("scan files of a table recreated at the same path are not a hit") {
+    val engine = engineWithCache(100000000)
+    withTempDir { dir =>
+      val path = dir.getCanonicalPath
+      spark.range(10).repartition(2).write.format("delta").save(path)
+      val files = scanFiles(engine, path)
+      assert(scanFiles(engine, path) === files)
+      assert(cacheMetrics(engine).getHitCount === 1)
+
+      // same version of a different table
+      FileUtils.deleteDirectory(dir)
+      spark.range(10).repartition(3).write.format("delta").save(path)
+      val recreatedFiles = scanFiles(engine, path)
+      assert(recreatedFiles === scanFiles(defaultEngine, path))
+      assert(recreatedFiles !== files)
+      assert(cacheMetrics(engine).getHitCount === 1)
+      assert(cacheMetrics(engine).getEntryCount === 2)
+    }
+  }
+
+  test("partition pruning and data skipping on the cached scan files") {
+    val engine = engineWithCache(100000000)
+    val path = goldenTablePath("data-skipping-basic-stats-all-types-checkpoint")
+    val filters = Seq(
+      new Predicate(">", new Column("as_int"), Literal.ofInt(0)),
+      new Predicate("<", new Column("as_long"), Literal.ofLong(0)),
+      new Predicate("=", new Column("as_string"), Literal.ofString("0")))
+    filters.foreach { filter =>
+      assert(scanFiles(engine, path, Some(filter)) === scanFiles(defaultEngine, path, Some(filter)))
+    }
+    // the first filtered scan populates the cache
+    assert(cacheMetrics(engine).getHitCount === filters.size - 1)
+
+    val partitionedPath = goldenTablePath("dv-partitioned-with-checkpoint")
+    val partitionFilter = new Predicate("=", new Column("part"), Literal.ofInt(0))
+    assert(scanFiles(engine, partitionedPath, Some(partitionFilter)) ===
+      scanFiles(defaultEngine, partitionedPath, Some(partitionFilter)))
+  }
+
+  test("filtered scans populate the cache") {
+    Seq(
+      ("data-skipping-basic-stats-all-types-checkpoint",
+        new Predicate(">", new Column("as_int"), Literal.ofInt(0)),
+        new Predicate("=", new Column("as_string"), Literal.ofString("0"))),
+      ("dv-partitioned-with-checkpoint",
+        new Predicate("=", new Column("part"), Literal.ofInt(0)),
+        new Predicate("=", new Column("part"), Literal.ofInt(1)))
+    ).foreach { case (name, filter, otherFilter) =>
+      val engine = engineWithCache(100000000)
+      val path = goldenTablePath(name)
+      val expected = scanFiles(defaultEngine, path, Some(filter))
+      assert(scanFiles(engine, path, Some(filter)) === expected)
+      assert(cacheMetrics(engine).getMissCount === 1)
+      assert(cacheMetrics(engine).getEntryCount === 1)
+
+      // the same filter and a different one are both hits, and prune the cached files
+      assert(scanFiles(engine, path, Some(filter)) === expected)
+      assert(cacheMetrics(engine).getHitCount === 1)
+      assert(scanFiles(engine, path, Some(otherFilter)) ===
+        scanFiles(defaultEngine, path, Some(otherFilter)))
+      assert(cacheMetrics(engine).getHitCount === 2)
+      assert(cacheMetrics(engine).getMissCount === 1)
+      assert(scanFiles(engine, path) === scanFiles(defaultEngine, path))
+    }
+  }
+
+  test("least recently used table versions are evicted when the cache is full") {
+    val paths = Seq("basic-with-inserts-deletes-checkpoint", "basic-with-inserts-updates",
+      "basic-with-inserts-merge").map(goldenTablePath)
+
+    // find the size of each entry
+    val sizingEngine = engineWithCache(100000000)
+    val entrySizes = paths.map { path =>
+      val sizeBefore = cacheMetrics(sizingEngine).getSizeInBytes
+      scanFiles(sizingEngine, path)
+      cacheMetrics(sizingEngine).getSizeInBytes - sizeBefore
+    }
+    assert(entrySizes.forall(_ > 0))
+
+    // room for the last two entries only
+    val engine = engineWithCache(entrySizes(1) + entrySizes(2))
+    paths.foreach(scanFiles(engine, _))
+    assert(cacheMetrics(engine).getEvictionCount === 1)
+    assert(cacheMetrics(engine).getEntryCount === 2)
+    assert(cacheMetrics(engine).getSizeInBytes === entrySizes(1) + entrySizes(2))
+
+    // the least recently used table was evicted, the others are still cached
+    val hits = cacheMetrics(engine).getHitCount
+    scanFiles(engine, paths(2))
+    scanFiles(engine, paths(1))
+    assert(cacheMetrics(engine).getHitCount === hits + 2)
+    val misses = cacheMetrics(engine).getMissCount
+    scanFiles(engine, paths(0))
+    assert(cacheMetrics(engine).getMissCount === misses + 1)
+  }
+
+  test("scan files larger than the cache are not cached") {
+    val engine = engineWithCache(10)
+    val path = goldenTablePath("basic-with-inserts-deletes-checkpoint")
+    assert(scanFiles(engine, path) === scanFiles(defaultEngine, path))
+    assert(scanFiles(engine, path) === scanFiles(defaultEngine, path))
+    assert(cacheMetrics(engine).getEntryCount === 0)
+    assert(cacheMetrics(engine).getHitCount === 0)
+    assert(cacheMetrics(engine).getMissCount === 2)
+  }
+
+  test("cache gives up on an entry as soon as it exceeds the max size") {
+    val path = goldenTablePath("basic-with-inserts-deletes-checkpoint")
+    val batches = latestSnapshot(path).getScanBuilder(defaultEngine).build()
+      .getScanFiles(defaultEngine).toSeq
+    assert(batches.size > 1)
+
+    val cache = new DefaultScanFilesCache(1)
+    val entry = cache.newEntry(path, "id", 0)
+    assert(!entry.add(batches.head))
+    intercept[IllegalStateException](entry.commit())
+    assert(cache.getMetrics.getEntryCount === 0)
+
+    val largeCache = new DefaultScanFilesCache(100000000)
+    val largeEntry = largeCache.newEntry(path, "id", 0)
+    batches.foreach(batch => assert(largeEntry.add(batch)))
+    largeEntry.commit()
+    val numFiles = batches.map(_.getRows.toSeq.size).sum
+    assert(largeCache.get(path, "id", 0).get.asScala.map(_.getRows.toSeq.size).sum === numFiles)
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.expressions
+
+import java.nio.charset.StandardCharsets
+import java.util.Optional
+
+import scala.util.Random
+
+import io.delta.kernel.data.ColumnVector
+import io.delta.kernel.defaults.engine.DefaultExpressionHandler
+import io.delta.kernel.defaults.internal.data.DefaultColumnarBatch
+import io.delta.kernel.defaults.internal.data.vector._
+import io.delta.kernel.expressions._
+import io.delta.kernel.types._
+import org.apache.hadoop.conf.Configuration
+
+/**
+ * Runs all the tests of [[DefaultExpressionEvaluatorSuite]] with the
+ * [[CompiledExpressionEvaluator]] and compares the results of both evaluators on random inputs.
+ */
+class CompiledExpressionEvaluatorSuite extends DefaultExpressionEvaluatorSuite {
+
+  override protected def evaluator(
+      inputSchema: StructType,
+      expression: Expression,
+      outputType: DataType): ExpressionEvaluator = {
+    new CompiledExpressionEvaluator(inputSchema, expression, outputType)
+  }
+
+  private val numRows = 100
+
+  private val randomSchema = new StructType()
+    .add("b", BooleanType.BOOLEAN)
+    .add("i", IntegerType.INTEGER)
+    .add("i2", IntegerType.INTEGER)
+    .add("l", LongType.LONG)
+    .add("d", DoubleType.DOUBLE)
+    .add("s", StringType.STRING)
+    .add("nested", new StructType().add("l", LongType.LONG).add("s", StringType.STRING))
+
+  private def randomBatch(random: Random): DefaultColumnarBatch = {
+    def nulls(): Optional[Array[Boolean]] =
+      Optional.of(Array.fill(numRows)(random.nextInt(4) == 0))
+    def strings(): Array[Array[Byte]] = Array.fill(numRows) {
+      if (random.nextInt(4) == 0) null
+      else Seq("", "a", "ab", "b", "é")(random.nextInt(5)).getBytes(StandardCharsets.UTF_8)
+    }
+    val nestedType = randomSchema.get("nested").getDataType.asInstanceOf[StructType]
+    new DefaultColumnarBatch(
+      numRows,
+      randomSchema,
+      Array[ColumnVector](
+        new DefaultBooleanVector(numRows, nulls(), Array.fill(numRows)(random.nextBoolean())),
+        new DefaultIntVector(
+          IntegerType.INTEGER, numRows, nulls(), Array.fill(numRows)(random.nextInt(10) - 5)),
+        new DefaultIntVector(
+          IntegerType.INTEGER, numRows, nulls(), Array.fill(numRows)(random.nextInt(10) - 5)),
+        new DefaultLongVector(
+          LongType.LONG, numRows, nulls(), Array.fill(numRows)(random.nextInt(10) - 5L)),
+        new DefaultDoubleVector(
+          numRows,
+          nulls(),
+          Array.fill(numRows)(if (random.nextInt(10) == 0) Double.NaN else random.nextInt(10))),
+        new DefaultBinaryVector(StringType.STRING, numRows, strings()),
+        new DefaultStructVector(
+          numRows,
+          nestedType,
+          nulls(),
+          Array[ColumnVector](
+            new DefaultLongVector(
+              LongType.LONG, numRows, nulls(), Array.fill(numRows)(random.nextInt(10) - 5L)),
+            new DefaultBinaryVector(StringType.STRING, numRows, strings())))))
+  }
+
+  private def randomPredicate(random: Random, depth: Int): Predicate = {
+    def comparison(): Predicate = {
+      val (left, right) = random.nextInt(7) match {
+        case 0 => (new Column("i"), new Column("i2"))
+        case 1 => (new Column("i"), Literal.ofLong(random.nextInt(10) - 5)) // casts the column
+        case 2 => (new Column("l"), Literal.ofInt(random.nextInt(10) - 5)) // casts the literal
+        case 3 => (new Column("d"), Literal.ofDouble(random.nextInt(10)))
+        case 4 => (new Column("s"), Literal.ofString(Seq("a", "b", "é")(random.nextInt(3))))
+        case 5 => (new Column(Array("nested", "l")), Literal.ofNull(LongType.LONG))
+        case _ => (new Column(Array("nested", "s")), new Column("s"))
+      }
+      val symbol = Seq("=", "<", "<=", ">", ">=", "IS NOT DISTINCT FROM")(random.nextInt(6))
+      if (random.nextBoolean()) comparator(symbol, left, right)
+      else comparator(symbol, right, left)
+    }
+    random.nextInt(if (depth > 0) 7 else 3) match {
+      case 0 | 1 => comparison()
+      case 2 => new Predicate("IS_NULL", new Column(randomSchema.fieldNames.get(random.nextInt(6))))
+      case 3 => and(randomPredicate(random, depth - 1), randomPredicate(random, depth - 1))
+      case 4 => or(randomPredicate(random, depth - 1), randomPredicate(random, depth - 1))
+      case 5 => new Predicate("NOT", randomPredicate(random, depth - 1))
+      case _ => comparator("=", new Column("b"), Literal.ofBoolean(random.nextBoolean()))
+    }
+  }
+
+  test("compiled evaluator returns the same results as the interpreted evaluator") {
+    val random = new Random(42)
+    val batch = randomBatch(random)
+    (0 until 1000).foreach { _ =>
+      val predicate = randomPredicate(random, depth = 3)
+      val expected = new DefaultExpressionEvaluator(randomSchema, predicate, BooleanType.BOOLEAN)
+        .eval(batch)
+      val actual = evaluator(randomSchema, predicate, BooleanType.BOOLEAN).eval(batch)
+      (0 until numRows).foreach { rowId =>
+        assert(actual.isNullAt(rowId) === expected.isNullAt(rowId), s"$predicate at $rowId")
+        if (!expected.isNullAt(rowId)) {
+          assert(actual.getBoolean(rowId) === expected.getBoolean(rowId), s"$predicate at $rowId")
+        }
+      }
+    }
+  }
+
+  test("compiled evaluators are cached by the expression handler") {
+    val conf = new Configuration()
+    conf.set("delta.kernel.default.expression.evaluator.compiled", "true")
+    conf.set("delta.kernel.default.expression.evaluator.compiled.cache-size", "2")
+    val handler = new DefaultExpressionHandler(conf)
+    def getEvaluator(expression: Expression): ExpressionEvaluator =
+      handler.getEvaluator(randomSchema, expression, BooleanType.BOOLEAN)
+
+    val evaluator1 = getEvaluator(comparator("=", new Column("l"), Literal.ofLong(1)))
+    assert(evaluator1.isInstanceOf[CompiledExpressionEvaluator])
+    // equal expressions share the evaluator
+    assert(getEvaluator(comparator("=", new Column("l"), Literal.ofLong(1))) eq evaluator1)
+    // literals with the same value but a different type don't
+    val evaluator2 = getEvaluator(comparator("=", new Column("l"), Literal.ofInt(1)))
+    assert(evaluator2 ne evaluator1)
+    assert(getEvaluator(comparator("=", new Column("l"), Literal.ofLong(1))) eq evaluator1)
+
+    // evicts the least recently used evaluator
+    getEvaluator(comparator("=", new Column("l"), Literal.ofLong(2)))
+    assert(getEvaluator(comparator("=", new Column("l"), Literal.ofLong(1))) eq evaluator1)
+    assert(getEvaluator(comparator("=", new Column("l"), Literal.ofInt(1))) ne evaluator2)
+  }
+
+  test("expression handler interprets the expressions by default") {
+    val handler = new DefaultExpressionHandler(new Configuration())
+    val evaluator = handler.getEvaluator(
+      randomSchema, comparator("=", new Column("l"), Literal.ofLong(1)), BooleanType.BOOLEAN)
+    assert(evaluator.isInstanceOf[DefaultExpressionEvaluator])
+  }
+}
@@ -359,8 +359,7 @@ class DefaultExpressionEvaluatorSuite extends AnyFunSuite with ExpressionSuiteBa
     )
 
     val e = intercept[IllegalArgumentException] {
-      val evaluator = new DefaultExpressionEvaluator(schema, timeAddExpr, col1Type)
-      evaluator.eval(batch)
+      evaluator(schema, timeAddExpr, col1Type).eval(batch)
     }
     assert(e.getMessage.contains("TIMEADD requires a timestamp and a Long"))
   }
@@ -396,8 +395,7 @@ class DefaultExpressionEvaluatorSuite extends AnyFunSuite with ExpressionSuiteBa
           likeExpression: Predicate,
           expOutputSeq: Seq[BooleanJ]): Unit = {
       val actOutputVector =
-        new DefaultExpressionEvaluator(
-          schema, likeExpression, BooleanType.BOOLEAN).eval(input)
+        evaluator(schema, likeExpression, BooleanType.BOOLEAN).eval(input)
       val expOutputVector = booleanVector(expOutputSeq);
       checkBooleanVectors(actOutputVector, expOutputVector)
     }
@@ -522,8 +520,7 @@ class DefaultExpressionEvaluatorSuite extends AnyFunSuite with ExpressionSuiteBa
         Array(testColumnVector(5, col1Type), testColumnVector(5, col2Type)))
 
       val e = intercept[UnsupportedOperationException] {
-        new DefaultExpressionEvaluator(
-          schema, expr, BooleanType.BOOLEAN).eval(input)
+        evaluator(schema, expr, BooleanType.BOOLEAN).eval(input)
       }
       assert(e.getMessage.contains("LIKE is only supported for string type expressions"))
     }
@@ -582,6 +579,124 @@ class DefaultExpressionEvaluatorSuite extends AnyFunSuite with ExpressionSuiteBa
       "LIKE expression has invalid escape sequence"))
   }
 
+  test("evaluate expression: like with supplementary characters") {
+    val input = new DefaultColumnarBatch(4,
+      new StructType().add("col1", StringType.STRING),
+      Array(utf8StringVector(Seq[String]("\ud83d\ude00", "a\ud83d\ude00b", "ab", null))))
+
+    def checkLike(pattern: String, expOutputSeq: Seq[BooleanJ]): Unit = {
+      val expression = like(new Column("col1"), Literal.ofString(pattern))
+      checkBooleanVectors(
+        evaluator(input.getSchema, expression, BooleanType.BOOLEAN).eval(input),
+        booleanVector(expOutputSeq))
+      // same on a vector of `String`s
+      val stringInput = new DefaultColumnarBatch(4, input.getSchema,
+        Array(stringVector((0 until 4).map(input.getColumnVector(0).getString))))
+      checkBooleanVectors(
+        evaluator(input.getSchema, expression, BooleanType.BOOLEAN).eval(stringInput),
+        booleanVector(expOutputSeq))
+    }
+
+    checkLike("\ud83d\ude00", Seq[BooleanJ](true, false, false, null))
+    checkLike("_", Seq[BooleanJ](true, false, false, null))
+    checkLike("a_b", Seq[BooleanJ](false, true, false, null))
+    checkLike("%\ud83d\ude00%", Seq[BooleanJ](true, true, false, null))
+    checkLike("%b", Seq[BooleanJ](false, true, true, null))
+  }
+
+  test("evaluate expression: starts_with") {
+    val col1 = utf8StringVector(Seq[String](
+      null, "one", "two", "three", "", "\u00e9t\u00e9", null, "seven"))
+    val col2 = stringVector(Seq[String](
+      null, "o", "tw", "thre", "", "\u00e9", "a", null))
+    val schema = new StructType()
+      .add("col1", StringType.STRING)
+      .add("col2", StringType.STRING)
+    val input = new DefaultColumnarBatch(col1.getSize, schema, Array(col1, col2))
+
+    def checkStartsWith(left: Expression, right: Expression, expOutputSeq: Seq[BooleanJ]): Unit = {
+      val expression = new Predicate("STARTS_WITH", left, right)
+      val actOutputVector = evaluator(schema, expression, BooleanType.BOOLEAN).eval(input)
+      checkBooleanVectors(actOutputVector, booleanVector(expOutputSeq))
+    }
+
+    checkStartsWith(
+      new Column("col1"),
+      new Column("col2"),
+      Seq[BooleanJ](null, true, true, true, true, true, null, null))
+    checkStartsWith(
+      new Column("col1"),
+      Literal.ofString("t"),
+      Seq[BooleanJ](null, false, true, true, false, false, null, false))
+    checkStartsWith(
+      new Column("col1"),
+      Literal.ofString("\u00e9"),
+      Seq[BooleanJ](null, false, false, false, false, true, null, false))
+    checkStartsWith(
+      new Column("col1"),
+      Literal.ofString(""),
+      Seq[BooleanJ](null, true, true, true, true, true, null, true))
+    checkStartsWith(
+      new Column("col1"),
+      Literal.ofNull(StringType.STRING),
+      Seq[BooleanJ](null, null, null, null, null, null, null, null))
+    checkStartsWith(
+      Literal.ofString("three"),
+      new Column("col2"),
+      Seq[BooleanJ](null, false, false, true, true, false, false, null))
+
+    val unsupportedTypeError = intercept[UnsupportedOperationException] {
+      evaluator(
+        schema,
+        new Predicate("STARTS_WITH", new Column("col1"), Literal.ofInt(1)),
+        BooleanType.BOOLEAN)
+    }
+    assert(unsupportedTypeError.getMessage.contains(
+      "STARTS_WITH is only supported for string type expressions"))
+
+    val inputCountError = intercept[UnsupportedOperationException] {
+      evaluator(
+        schema,
+        new Predicate("STARTS_WITH", util.Arrays.asList[Expression](new Column("col1"))),
+        BooleanType.BOOLEAN)
+    }
+    assert(inputCountError.getMessage.contains(
+      "Invalid number of inputs to STARTS_WITH expression"))
+  }
+
+  test("evaluate expression: string predicates on UTF-8 vectors") {
+    // the bytes of the UTF-8 vectors are compared without decoding the values, the results must
+    // be the same as for the vectors of `String`s. The values include characters of all UTF-8
+    // lengths and the characters ordered differently in UTF-16 (after U+E000).
+    val values1 = Seq[String](null, "", "a", "ab", "b", "\u00e9", "\uffe0", "\ud83d\ude00", "a%b")
+    val values2 = Seq[String]("a", null, "ab", "a", "\u00e9", "\ud83d\ude00", "\uffe0", "", "a%b")
+    val schema = new StructType()
+      .add("col1", StringType.STRING)
+      .add("col2", StringType.STRING)
+    val stringInput = new DefaultColumnarBatch(values1.size, schema,
+      Array(stringVector(values1), stringVector(values2)))
+    val utf8Input = new DefaultColumnarBatch(values1.size, schema,
+      Array(utf8StringVector(values1), utf8StringVector(values2)))
+
+    val operands = Seq(new Column("col2"), Literal.ofString("ab"), Literal.ofString("\uffe0"))
+    val predicates =
+      Seq("=", "<", "<=", ">", ">=", "IS NOT DISTINCT FROM").flatMap { symbol =>
+        operands.flatMap { operand =>
+          Seq(comparator(symbol, new Column("col1"), operand),
+            comparator(symbol, operand, new Column("col1")))
+        }
+      } ++ Seq("a%", "%b", "_", "a_", "%\\%%", "\ud83d\ude00").map { pattern =>
+        like(new Column("col1"), Literal.ofString(pattern))
+      } ++ Seq(new Predicate("STARTS_WITH", new Column("col1"), new Column("col2")),
+        new Predicate("STARTS_WITH", new Column("col1"), Literal.ofString("a")))
+
+    predicates.foreach { predicate =>
+      checkBooleanVectors(
+        evaluator(schema, predicate, BooleanType.BOOLEAN).eval(utf8Input),
+        evaluator(schema, predicate, BooleanType.BOOLEAN).eval(stringInput))
+    }
+  }
+
   test("evaluate expression: comparators (=, <, <=, >, >=)") {
     val ASCII_MAX_CHARACTER = '\u007F'
     val UTF8_MAX_CHARACTER = new String(Character.toChars(Character.MAX_CODE_POINT))
@@ -1016,8 +1131,8 @@ class DefaultExpressionEvaluatorSuite extends AnyFunSuite with ExpressionSuiteBa
     assert(ex.getMessage.contains(serializedPartVal))
   }
 
-  private def evaluator(inputSchema: StructType, expression: Expression, outputType: DataType)
-  : DefaultExpressionEvaluator = {
+  protected def evaluator(inputSchema: StructType, expression: Expression, outputType: DataType)
+  : ExpressionEvaluator = {
     new DefaultExpressionEvaluator(inputSchema, expression, outputType)
   }
 
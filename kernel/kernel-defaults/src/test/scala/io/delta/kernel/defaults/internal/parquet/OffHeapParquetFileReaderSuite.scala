@@ -0,0 +1,193 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
+
+import io.delta.golden.GoldenTableUtils.goldenTableFile
+import io.delta.kernel.defaults.engine.{DefaultEngine, DefaultParquetHandler}
+import io.delta.kernel.defaults.internal.data.vector.{OffHeapAllocator, OffHeapColumnVector}
+import io.delta.kernel.defaults.internal.data.vector.OffHeapUtf8Vector
+import io.delta.kernel.defaults.utils.TestRow
+import io.delta.kernel.engine.ParquetHandler
+import io.delta.kernel.internal.util.Utils.toCloseableIterator
+import io.delta.kernel.types.{IntegerType, LongType, StringType, StructField, StructType}
+import io.delta.kernel.utils.FileStatus
+import org.apache.hadoop.conf.Configuration
+import org.apache.parquet.io.api.Binary
+
+/**
+ * Runs the tests of [[ParquetFileReaderSuite]] with off-heap column vectors, and compares the rows
+ * read off-heap, closing each batch once consumed, with the rows read on heap.
+ */
+class OffHeapParquetFileReaderSuite extends ParquetFileReaderSuite {
+
+  override lazy val defaultEngine = DefaultEngine.create(new Configuration() {{
+    set("delta.kernel.default.parquet.reader.off-heap", "true")
+  }})
+
+  private def offHeapHandler(memoryBudget: Long, batchSize: Int): DefaultParquetHandler = {
+    DefaultEngine.create(new Configuration() {{
+      set("delta.kernel.default.parquet.reader.off-heap", "true")
+      set("delta.kernel.default.parquet.reader.off-heap.memory-budget", memoryBudget.toString)
+      set("delta.kernel.default.parquet.reader.off-heap.leak-detection", "true")
+      set("delta.kernel.default.parquet.reader.batch-size", batchSize.toString)
+    }}).getParquetHandler.asInstanceOf[DefaultParquetHandler]
+  }
+
+  private val heapHandler = DefaultEngine.create(new Configuration()).getParquetHandler
+
+  private def readParquetFile(
+      handler: ParquetHandler,
+      path: String,
+      readSchema: StructType): Seq[TestRow] = {
+    val batches = handler.readParquetFiles(
+      toCloseableIterator(parquetFiles(path).map(FileStatus.of(_, 0, 0)).asJava.iterator()),
+      readSchema,
+      java.util.Optional.empty())
+    val rows = new ArrayBuffer[TestRow]
+    try {
+      while (batches.hasNext) {
+        val batch = batches.next()
+        try {
+          rows ++= batch.getRows.toSeq.map(TestRow(_))
+        } finally {
+          // releases the direct memory of the batch
+          batch.close()
+        }
+      }
+    } finally {
+      batches.close()
+    }
+    rows.toSeq
+  }
+
+  private def metrics(handler: DefaultParquetHandler): OffHeapAllocator.Metrics =
+    handler.getOffHeapMemoryMetrics.get
+
+  Seq(
+    "parquet-all-types",
+    "parquet-all-types-legacy-format",
+    "parquet-decimal-dictionaries-v2"
+  ).foreach { tableName =>
+    test(s"off-heap vectors return the rows of the reader on heap - $tableName") {
+      val path = goldenTableFile(tableName).getAbsolutePath
+      val readSchema = tableSchema(path).add(StructField.METADATA_ROW_INDEX_COLUMN)
+      val expected = readParquetFile(heapHandler, path, readSchema)
+      Seq(1, 7, 1000).foreach { batchSize =>
+        val handler = offHeapHandler(memoryBudget = 1L << 30, batchSize)
+        val actual = readParquetFile(handler, path, readSchema)
+        assert(actual === expected, s"batch size $batchSize")
+        val handlerMetrics = metrics(handler)
+        assert(handlerMetrics.getUsedBytes === 0, "closing the batches releases the memory")
+        assert(handlerMetrics.getReuseCount > 0 || batchSize == 1000)
+        assert(handlerMetrics.getFailedAllocationCount === 0)
+        assert(handlerMetrics.getLeakCount === 0)
+      }
+    }
+  }
+
+  test("vectors that don't fit in the memory budget are on heap") {
+    val path = goldenTableFile("parquet-all-types").getAbsolutePath
+    val readSchema = tableSchema(path)
+    val expected = readParquetFile(heapHandler, path, readSchema)
+    // room for a couple of the smallest buffers only
+    val handler = offHeapHandler(memoryBudget = 4096, batchSize = 100)
+    assert(readParquetFile(handler, path, readSchema) === expected)
+    val handlerMetrics = metrics(handler)
+    assert(handlerMetrics.getFailedAllocationCount > 0)
+    assert(handlerMetrics.getAllocatedBytes <= 4096)
+    assert(handlerMetrics.getUsedBytes === 0)
+  }
+
+  test("the memory of the vectors that are not closed is reclaimed once they're unreachable") {
+    val readSchema = new StructType()
+      .add("id", LongType.LONG)
+      .add(StructField.METADATA_ROW_INDEX_COLUMN)
+    val path = getTestResourceFilePath("parquet/row_index_multiple_row_groups.parquet")
+    val handler = offHeapHandler(memoryBudget = 1L << 30, batchSize = 1000)
+
+    def readWithoutClosing(): Long = {
+      val batches = handler.readParquetFiles(
+        toCloseableIterator(Seq(FileStatus.of(path, 0, 0)).asJava.iterator()),
+        readSchema,
+        java.util.Optional.empty())
+      var numBatches = 0L
+      try {
+        while (batches.hasNext) {
+          batches.next()
+          numBatches += 1
+        }
+      } finally {
+        batches.close()
+      }
+      numBatches
+    }
+
+    val numBatches = readWithoutClosing()
+    assert(metrics(handler).getUsedBytes > 0)
+    var attempts = 0
+    while (metrics(handler).getUsedBytes > 0 && attempts < 50) {
+      System.gc()
+      Thread.sleep(100)
+      attempts += 1
+    }
+    val handlerMetrics = metrics(handler)
+    assert(handlerMetrics.getUsedBytes === 0)
+    // a buffer for the ids and one for the row indices of each batch
+    assert(handlerMetrics.getLeakCount === 2 * numBatches)
+  }
+
+  test("off-heap vectors release their buffers to the allocator once") {
+    val allocator = new OffHeapAllocator(1L << 20, true /* leakDetection */)
+    val vector = OffHeapColumnVector.copyOf(
+      allocator, IntegerType.INTEGER, 3, Array(false, true, false), Array(1, 0, 3)).get
+    assert(vector.getInt(0) === 1 && vector.isNullAt(1) && vector.getInt(2) === 3)
+    intercept[UnsupportedOperationException](vector.getLong(0))
+    assert(allocator.getMetrics.getUsedBytes > 0)
+    vector.close()
+    vector.close()
+    assert(allocator.getMetrics.getUsedBytes === 0)
+
+    val strings = OffHeapUtf8Vector.copyOf(
+      allocator, 3, Array(false, true, false), Array(0, 3, 3, 5), "abcde".getBytes("UTF-8")).get
+    assert(strings.getDataType === StringType.STRING)
+    assert(strings.getString(0) === "abc" && strings.isNullAt(1) && strings.getString(2) === "de")
+    strings.close()
+    val allocatorMetrics = allocator.getMetrics
+    assert(allocatorMetrics.getUsedBytes === 0)
+    assert(allocatorMetrics.getReuseCount === 2, "the strings reuse the buffers of the integers")
+  }
+
+  test("string reader keeps its working buffers when returning an off-heap vector") {
+    val allocator = new OffHeapAllocator(1L << 20, false /* leakDetection */)
+    val reader = new ParquetColumnReaders.StringColumnReader(2, VectorMemory.offHeap(allocator))
+    reader.addBinary(Binary.fromString("abc"))
+    reader.finalizeCurrentRow(0)
+    val vector1 = reader.getDataColumnVector(1)
+    assert(vector1.isInstanceOf[OffHeapUtf8Vector])
+
+    reader.finalizeCurrentRow(0)
+    reader.addBinary(Binary.fromString("d"))
+    reader.finalizeCurrentRow(1)
+    val vector2 = reader.getDataColumnVector(2)
+    assert(vector1.getString(0) === "abc")
+    assert(vector2.isNullAt(0) && vector2.getString(1) === "d")
+    Seq(vector1, vector2).foreach(_.close())
+    assert(allocator.getMetrics.getUsedBytes === 0)
+  }
+}
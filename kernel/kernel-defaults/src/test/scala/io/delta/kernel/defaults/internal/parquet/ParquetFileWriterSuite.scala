@@ -16,6 +16,10 @@
 package io.delta.kernel.defaults.internal.parquet
 
 import java.lang.{Double => DoubleJ, Float => FloatJ}
+import java.util.Optional
+
+import scala.collection.JavaConverters._
+
 import io.delta.golden.GoldenTableUtils.{goldenTableFile, goldenTablePath}
 import io.delta.kernel.data.{ColumnarBatch, FilteredColumnarBatch}
 import io.delta.kernel.defaults.internal.DefaultKernelUtils
@@ -329,6 +333,40 @@ class ParquetFileWriterSuite extends AnyFunSuite
     }
   }
 
+  test("string type column stats collection") {
+    // Parquet doesn't store min/max values larger than 4KB in the file. The stats returned by the
+    // writer should be the same as the stats read from the written file.
+    Seq(
+      (Seq("b", null, "a", "\u00e9"), ("a", "\u00e9", 1L)),
+      (Seq("b", null, "a" * 5000), (null, null, null))
+    ).foreach { case (values, expStats) =>
+      withTempDir { tempPath =>
+        val targetDir = tempPath.getAbsolutePath
+        val testBatch = columnarBatch(utf8StringVector(values))
+        val statsColumns = Seq(col("col_0"))
+
+        val writeOutput = writeToParquetUsingKernel(
+          Seq(testBatch.toFiltered), targetDir, statsColumns = statsColumns)
+
+        val stats = writeOutput.head.getStatistics.get()
+        assert(
+          (
+            Option(stats.getMinValues.get(col("col_0"))).map(_.getValue).orNull,
+            Option(stats.getMaxValues.get(col("col_0"))).map(_.getValue).orNull,
+            Option(stats.getNullCounts.get(col("col_0"))).orNull
+          ) === expStats)
+
+        val statsFromFile = ParquetStatsReader.readDataFileStatistics(
+          writeOutput.head,
+          configuration,
+          Optional.of(new ParquetFooterCache(1 << 20)),
+          testBatch.getSchema,
+          statsColumns.asJava)
+        assert(stats.toString === statsFromFile.toString)
+      }
+    }
+  }
+
   test(s"invalid target file size") {
     withTempDir { tempPath =>
       val targetDir = tempPath.getAbsolutePath
@@ -0,0 +1,135 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet
+
+import java.io.File
+import java.util.Optional
+
+import io.delta.golden.GoldenTableUtils.goldenTableFile
+import io.delta.kernel.defaults.engine.DefaultParquetHandler
+import io.delta.kernel.internal.util.Utils.singletonCloseableIterator
+import io.delta.kernel.utils.FileStatus
+import org.apache.hadoop.conf.Configuration
+import org.scalatest.funsuite.AnyFunSuite
+
+class ParquetFooterCacheSuite extends AnyFunSuite with ParquetSuiteBase {
+
+  private def fileStatus(path: String): FileStatus = {
+    val file = new File(path)
+    FileStatus.of(path, file.length(), file.lastModified())
+  }
+
+  private def allTypesFile: String =
+    parquetFiles(goldenTableFile("parquet-all-types").getAbsolutePath).head
+
+  test("footers are read once and returned from the cache afterwards") {
+    val cache = new ParquetFooterCache(64 * 1024 * 1024)
+    val file = fileStatus(allTypesFile)
+
+    val footer1 = ParquetFileReader.readFooter(configuration, file, Optional.of(cache))
+    val footer2 = ParquetFileReader.readFooter(configuration, file, Optional.of(cache))
+
+    assert(footer1 eq footer2)
+    assert(footer1.getBlocks.size() === footer(file.getPath).getBlocks.size())
+    val metrics = cache.getMetrics
+    assert(metrics.getMissCount === 1)
+    assert(metrics.getHitCount === 1)
+    assert(metrics.getHitRate === 0.5)
+    assert(metrics.getCachedCount === 1)
+    assert(metrics.getCachedBytes > 0)
+  }
+
+  test("files with a different length or modification time are not served from the cache") {
+    val cache = new ParquetFooterCache(64 * 1024 * 1024)
+    val file = fileStatus(allTypesFile)
+
+    ParquetFileReader.readFooter(configuration, file, Optional.of(cache))
+    ParquetFileReader.readFooter(
+      configuration,
+      FileStatus.of(file.getPath, file.getSize, file.getModificationTime + 1),
+      Optional.of(cache))
+    // the size of the file is unknown, the footer is not cached
+    ParquetFileReader.readFooter(
+      configuration, FileStatus.of(file.getPath, 0, 0), Optional.of(cache))
+
+    val metrics = cache.getMetrics
+    assert(metrics.getHitCount === 0)
+    assert(metrics.getMissCount === 2)
+    assert(metrics.getCachedCount === 2)
+  }
+
+  test("least recently used footers are evicted when the cache is full") {
+    val files = Seq(
+      "parquet-all-types",
+      "parquet-all-types-legacy-format",
+      "parquet-decimal-dictionaries-v1",
+      "parquet-decimal-dictionaries-v2"
+    ).flatMap(table => parquetFiles(goldenTableFile(table).getAbsolutePath)).map(fileStatus)
+    val footerSizes = files.map { file =>
+      ParquetFooterCache.estimateSize(footer(file.getPath))
+    }
+    // not enough room for all the footers
+    val cache = new ParquetFooterCache(footerSizes.sum - 1)
+
+    files.foreach(ParquetFileReader.readFooter(configuration, _, Optional.of(cache)))
+    val metrics = cache.getMetrics
+    assert(metrics.getMissCount === files.size)
+    assert(metrics.getEvictionCount >= 1)
+    assert(metrics.getCachedCount < files.size)
+    assert(metrics.getCachedBytes <= footerSizes.sum - 1)
+
+    // the most recently read footer is still cached
+    ParquetFileReader.readFooter(configuration, files.last, Optional.of(cache))
+    assert(cache.getMetrics.getHitCount === 1)
+  }
+
+  test("footers larger than the cache are not cached") {
+    val cache = new ParquetFooterCache(0)
+    val file = fileStatus(allTypesFile)
+
+    ParquetFileReader.readFooter(configuration, file, Optional.of(cache))
+    ParquetFileReader.readFooter(configuration, file, Optional.of(cache))
+
+    val metrics = cache.getMetrics
+    assert(metrics.getMissCount === 2)
+    assert(metrics.getCachedCount === 0)
+    assert(metrics.getCachedBytes === 0)
+  }
+
+  test("the footer cache of the handler is sized by the configuration") {
+    def handler(maxSizeBytes: Long): DefaultParquetHandler = new DefaultParquetHandler(
+      new Configuration() {
+        {
+          set("delta.kernel.default.parquet.reader.footer-cache.max-size-bytes",
+            maxSizeBytes.toString)
+        }
+      })
+    val file = fileStatus(allTypesFile)
+    val schema = tableSchema(goldenTableFile("parquet-all-types").getAbsolutePath)
+
+    val cachingHandler = handler(64 * 1024 * 1024)
+    Seq(1, 2).foreach { _ =>
+      val batches = cachingHandler.readParquetFiles(
+        singletonCloseableIterator(file), schema, Optional.empty())
+      try assert(batches.hasNext) finally batches.close()
+    }
+    assert(cachingHandler.getFooterCacheMetrics.get.getHitCount === 1)
+    // each handler has its own cache
+    assert(handler(64 * 1024 * 1024).getFooterCacheMetrics.get.getCachedCount === 0)
+
+    assert(!handler(0).getFooterCacheMetrics.isPresent)
+  }
+}
@@ -22,7 +22,7 @@ import org.scalatest.BeforeAndAfterAll
 import org.scalatest.funsuite.AnyFunSuite
 import io.delta.kernel.expressions._
 import io.delta.kernel.internal.util.InternalUtils.daysSinceEpoch
-import io.delta.kernel.types.{IntegerType, StructType}
+import io.delta.kernel.types.{ArrayType, IntegerType, LongType, StructField, StructType}
 import org.apache.spark.sql.{Row, types => sparktypes}
 
 import java.nio.file.Files
@@ -441,6 +441,45 @@ class ParquetReaderPredicatePushdownSuite extends AnyFunSuite
     checkAnswer(actResult, expResult)
   }
 
+  test("filter pushdown: pages of a row group are skipped using the column index") {
+    withTempDir { tempDir =>
+      val tablePath = tempDir.getAbsolutePath
+      // A single row group with pages of 10 rows. Each row is `(id, [id, id + 1], even)`, where
+      // `even` is an even number in [0, 24].
+      withSQLConf(
+          "parquet.page.row.count.limit" -> "10",
+          "parquet.page.size.row.check.min" -> "1") {
+        spark.range(0, 10000, 1, 1 /* numPartitions */)
+          .selectExpr("id", "array(id, id + 1) as arr", "cast(id % 13 * 2 as int) as even")
+          .write
+          .parquet(tablePath)
+      }
+      val readSchema = new StructType()
+        .add("id", LongType.LONG)
+        .add("arr", new ArrayType(LongType.LONG, true))
+        .add(StructField.METADATA_ROW_INDEX_COLUMN)
+      def expectedRow(id: Long): TestRow = TestRow(id, Seq(id, id + 1), id)
+
+      // the matching rows are in the pages [1230, 1250) and [9870, 9880)
+      val predicate = or(
+        and(gte(col("id"), ofLong(1234)), lt(col("id"), ofLong(1245))),
+        eq(col("id"), ofLong(9876)))
+      val actual = readParquetFilesUsingKernel(tablePath, readSchema, Optional.of(predicate))
+      // only the rows of the pages that may match are read, with their row index in the file
+      assert(actual.size < 100)
+      val ids = actual.map(_.get(0).asInstanceOf[Long])
+      assert(actual === ids.map(expectedRow))
+      assert(ids.filter(id => id >= 1234 && id < 1245 || id == 9876) ===
+        (1234L until 1245L) :+ 9876L)
+
+      // the row group is pruned with the dictionary of the column, as the value is within the
+      // min/max of the row group (and most pages)
+      val noMatch = readParquetFilesUsingKernel(
+        tablePath, readSchema, Optional.of(eq(col("even"), ofInt(7))))
+      assert(noMatch.isEmpty)
+    }
+  }
+
   /** Test the `not(predicate)` returns expected rowgroups */
   private def assertNot(predicate: Predicate, expRowGroups: Seq[Int]): Unit = {
     val notPredicate = not(predicate)
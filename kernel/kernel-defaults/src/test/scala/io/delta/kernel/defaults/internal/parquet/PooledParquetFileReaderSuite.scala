@@ -0,0 +1,150 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable.ArrayBuffer
+
+import io.delta.golden.GoldenTableUtils.goldenTableFile
+import io.delta.kernel.data.ColumnVector
+import io.delta.kernel.defaults.engine.DefaultEngine
+import io.delta.kernel.defaults.utils.TestRow
+import io.delta.kernel.internal.util.Utils.toCloseableIterator
+import io.delta.kernel.types.{IntegerType, LongType, StructField, StructType}
+import io.delta.kernel.utils.FileStatus
+import org.apache.hadoop.conf.Configuration
+import org.apache.parquet.io.api.Binary
+
+/**
+ * Runs the tests of [[ParquetFileReaderSuite]] with pooled column vector buffers, and compares the
+ * rows read with pooled buffers, closing each batch once consumed, with the rows read without.
+ */
+class PooledParquetFileReaderSuite extends ParquetFileReaderSuite {
+
+  override lazy val defaultEngine = DefaultEngine.create(new Configuration() {{
+    set("delta.kernel.default.parquet.reader.pooled-buffers", "true")
+  }})
+
+  private def readParquetFile(
+      path: String,
+      readSchema: StructType,
+      pooled: Boolean,
+      batchSize: Int): Seq[TestRow] = {
+    val handler = DefaultEngine.create(new Configuration() {{
+      set("delta.kernel.default.parquet.reader.pooled-buffers", pooled.toString)
+      set("delta.kernel.default.parquet.reader.batch-size", batchSize.toString)
+    }}).getParquetHandler
+
+    val batches = handler.readParquetFiles(
+      toCloseableIterator(parquetFiles(path).map(FileStatus.of(_, 0, 0)).asJava.iterator()),
+      readSchema,
+      java.util.Optional.empty())
+    val rows = new ArrayBuffer[TestRow]
+    try {
+      while (batches.hasNext) {
+        val batch = batches.next()
+        try {
+          rows ++= batch.getRows.toSeq.map(TestRow(_))
+        } finally {
+          // the next batch of the file reuses the buffers of this batch
+          batch.close()
+        }
+      }
+    } finally {
+      batches.close()
+    }
+    rows.toSeq
+  }
+
+  Seq(
+    "parquet-all-types",
+    "parquet-all-types-legacy-format",
+    "parquet-decimal-dictionaries-v2"
+  ).foreach { tableName =>
+    test(s"pooled buffers return the rows of the reader without pooling - $tableName") {
+      val path = goldenTableFile(tableName).getAbsolutePath
+      val readSchema = tableSchema(path).add(StructField.METADATA_ROW_INDEX_COLUMN)
+      val expected = readParquetFile(path, readSchema, pooled = false, batchSize = 1024)
+      Seq(1, 7, 1000).foreach { batchSize =>
+        val actual = readParquetFile(path, readSchema, pooled = true, batchSize)
+        assert(actual === expected, s"batch size $batchSize")
+      }
+    }
+  }
+
+  test("pooled buffers return the row indices across batches and row groups") {
+    val readSchema = new StructType()
+      .add("id", LongType.LONG)
+      .add(StructField.METADATA_ROW_INDEX_COLUMN)
+
+    // File with multiple row-groups [0, 20000) where rowIndex = id
+    val path = getTestResourceFilePath("parquet/row_index_multiple_row_groups.parquet")
+    Seq(1, 333, 1024).foreach { batchSize =>
+      val actual = readParquetFile(path, readSchema, pooled = true, batchSize)
+      assert(actual === (0L until 20000L).map(i => TestRow(i, i)), s"batch size $batchSize")
+    }
+  }
+
+  test("closed vector buffers are reused for a later batch") {
+    val reader = new ParquetColumnReaders.IntColumnReader(
+      IntegerType.INTEGER, 4, VectorMemory.POOLED)
+    def readBatch(values: Option[Int]*): ColumnVector = {
+      values.zipWithIndex.foreach { case (value, rowId) =>
+        value.foreach(reader.addInt)
+        reader.finalizeCurrentRow(rowId)
+      }
+      reader.getDataColumnVector(values.size)
+    }
+
+    val vector1 = readBatch(Some(1), None)
+    assert(vector1.getInt(0) === 1 && vector1.isNullAt(1))
+    val vector2 = readBatch(None, Some(2))
+    vector1.close()
+    // closing twice must not release the buffers twice
+    vector1.close()
+
+    // the reader takes the buffers of the next batch when returning a vector, so the buffers of
+    // the closed vector are used by the batch after the next one
+    val vector3 = readBatch(Some(3), Some(4))
+    val vector4 = readBatch(Some(5))
+    assert(vector4.getInt(0) === 5)
+    assert(vector1.getInt(0) === 5, "the closed vector shares its buffers with the new one")
+    val vector5 = readBatch(Some(6))
+    // the open vectors keep their values
+    assert(vector2.isNullAt(0) && vector2.getInt(1) === 2)
+    assert(vector3.getInt(0) === 3 && vector3.getInt(1) === 4)
+    assert(vector4.getInt(0) === 5 && vector5.getInt(0) === 6)
+  }
+
+  test("closed string vector buffers are cleared before they are reused") {
+    val reader = new ParquetColumnReaders.StringColumnReader(2, VectorMemory.POOLED)
+    reader.addBinary(Binary.fromString("abc"))
+    reader.finalizeCurrentRow(0)
+    val vector1 = reader.getDataColumnVector(1)
+    assert(vector1.getString(0) === "abc")
+    vector1.close()
+    reader.finalizeCurrentRow(0)
+    val vector2 = reader.getDataColumnVector(1)
+    assert(vector2.isNullAt(0))
+
+    // read into the buffer of the closed vector
+    reader.addBinary(Binary.fromString("d"))
+    reader.finalizeCurrentRow(0)
+    reader.finalizeCurrentRow(1)
+    val vector3 = reader.getDataColumnVector(2)
+    assert(vector3.getString(0) === "d" && vector3.isNullAt(1))
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults.internal.parquet
+
+import scala.collection.JavaConverters._
+
+import io.delta.golden.GoldenTableUtils.goldenTableFile
+import io.delta.kernel.defaults.engine.DefaultEngine
+import io.delta.kernel.defaults.utils.TestRow
+import io.delta.kernel.internal.util.Utils.toCloseableIterator
+import io.delta.kernel.types.{LongType, StructField, StructType}
+import io.delta.kernel.utils.FileStatus
+import org.apache.hadoop.conf.Configuration
+
+/**
+ * Runs the tests of [[ParquetFileReaderSuite]] with the vectorized Parquet reader, and compares
+ * the vectorized reader with the row-at-a-time reader for different batch sizes.
+ */
+class VectorizedParquetFileReaderSuite extends ParquetFileReaderSuite {
+
+  override lazy val defaultEngine = DefaultEngine.create(new Configuration() {{
+    set("delta.kernel.default.parquet.reader.vectorized", "true")
+  }})
+
+  private def readParquetFile(
+      path: String,
+      readSchema: StructType,
+      vectorized: Boolean,
+      batchSize: Int): Seq[TestRow] = {
+    val handler = DefaultEngine.create(new Configuration() {{
+      set("delta.kernel.default.parquet.reader.vectorized", vectorized.toString)
+      set("delta.kernel.default.parquet.reader.batch-size", batchSize.toString)
+    }}).getParquetHandler
+
+    handler.readParquetFiles(
+      toCloseableIterator(parquetFiles(path).map(FileStatus.of(_, 0, 0)).asJava.iterator()),
+      readSchema,
+      java.util.Optional.empty()
+    ).toSeq.flatMap { batch =>
+      assert(batch.getSize <= batchSize)
+      batch.getRows.toSeq.map(TestRow(_))
+    }
+  }
+
+  Seq(
+    "parquet-all-types",
+    "parquet-all-types-legacy-format",
+    "parquet-decimal-dictionaries-v2"
+  ).foreach { tableName =>
+    test(s"vectorized reader returns the rows of the row reader - $tableName") {
+      val path = goldenTableFile(tableName).getAbsolutePath
+      val readSchema = tableSchema(path)
+      // the batches of the vectorized reader end in the middle of pages and nested values
+      val expected = readParquetFile(path, readSchema, vectorized = false, batchSize = 1024)
+      Seq(1, 7, 1000, 4096).foreach { batchSize =>
+        val actual = readParquetFile(path, readSchema, vectorized = true, batchSize)
+        assert(actual === expected, s"batch size $batchSize")
+      }
+    }
+  }
+
+  test("vectorized reader returns the row indices across batches and row groups") {
+    val readSchema = new StructType()
+      .add("id", LongType.LONG)
+      .add(StructField.METADATA_ROW_INDEX_COLUMN)
+
+    // File with multiple row-groups [0, 20000) where rowIndex = id
+    val path = getTestResourceFilePath("parquet/row_index_multiple_row_groups.parquet")
+    Seq(1, 333, 1024, 30000).foreach { batchSize =>
+      val actual = readParquetFile(path, readSchema, vectorized = true, batchSize)
+      assert(actual === (0L until 20000L).map(i => TestRow(i, i)), s"batch size $batchSize")
+    }
+  }
+}
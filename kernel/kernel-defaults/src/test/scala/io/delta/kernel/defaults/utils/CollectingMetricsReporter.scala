@@ -0,0 +1,39 @@
+/*
+ * Copyright (2024) The Delta Lake Project Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.delta.kernel.defaults
+package io.delta.kernel.defaults.utils
+
+import io.delta.kernel.engine.MetricsReporter
+import io.delta.kernel.metrics.MetricsReport
+
+import scala.collection.mutable.ArrayBuffer
+
+/** A [[MetricsReporter]] that collects the reports it receives, for tests. */
+class CollectingMetricsReporter extends MetricsReporter {
+  private val reports = new ArrayBuffer[MetricsReport]
+
+  override def report(report: MetricsReport): Unit = synchronized {
+    reports += report
+  }
+
+  def getReports: Seq[MetricsReport] = synchronized {
+    reports.toList
+  }
+
+  def clear(): Unit = synchronized {
+    reports.clear()
+  }
+}
@@ -16,7 +16,11 @@
 
 package io.delta.kernel.defaults.utils
 
+import java.nio.charset.StandardCharsets
+import java.util.Optional
+
 import io.delta.kernel.defaults.internal.data.DefaultColumnarBatch
+import io.delta.kernel.defaults.internal.data.vector.DefaultUtf8Vector
 import io.delta.kernel.data.{ColumnVector, ColumnarBatch}
 import io.delta.kernel.test.VectorTestUtils
 import io.delta.kernel.types._
@@ -36,4 +40,21 @@ trait DefaultVectorTestUtils extends VectorTestUtils {
 
     new DefaultColumnarBatch(numRows, schema, vectors.toArray)
   }
+
+  /**
+   * Returns a [[DefaultUtf8Vector]] with the given values, which keeps the bytes of all the values
+   * in one buffer.
+   */
+  protected def utf8StringVector(values: Seq[String]): DefaultUtf8Vector = {
+    val bytes = values.map { value =>
+      if (value == null) Array.empty[Byte] else value.getBytes(StandardCharsets.UTF_8)
+    }
+    // start with a byte that is not part of any value
+    val offsets = bytes.scanLeft(1)(_ + _.length).toArray
+    new DefaultUtf8Vector(
+      values.size,
+      Optional.of(values.map(_ == null).toArray),
+      offsets,
+      Array[Byte](0) ++ bytes.flatten)
+  }
 }
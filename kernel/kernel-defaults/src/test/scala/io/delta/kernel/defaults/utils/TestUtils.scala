@@ -213,6 +213,7 @@ trait TestUtils extends Assertions with SQLHelper {
 
     val physicalDataReadSchema = ScanStateRow.getPhysicalDataReadSchema(engine, scanState)
     fileIter.forEach { fileColumnarBatch =>
+      Scan.loadDeletionVectors(engine, scanState, fileColumnarBatch)
       fileColumnarBatch.getRows().forEach { scanFileRow =>
         val fileStatus = InternalScanFileUtils.getAddFileStatus(scanFileRow)
         val physicalDataIter = engine.getParquetHandler().readParquetFiles(